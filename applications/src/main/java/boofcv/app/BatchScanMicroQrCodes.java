@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,25 +18,24 @@
 
 package boofcv.app;
 
-import boofcv.abst.fiducial.MicroQrCodeDetector;
 import boofcv.alg.fiducial.microqr.MicroQrCode;
 import boofcv.app.batch.BatchControlPanel;
-import boofcv.factory.fiducial.FactoryFiducial;
 import boofcv.io.UtilIO;
-import boofcv.io.image.ConvertBufferedImage;
-import boofcv.io.image.UtilImageIO;
+import boofcv.io.fiducial.BatchScanBarcodes;
 import boofcv.struct.image.GrayU8;
 import org.kohsuke.args4j.CmdLineException;
 import org.kohsuke.args4j.CmdLineParser;
+import org.jetbrains.annotations.Nullable;
 import org.kohsuke.args4j.Option;
 
-import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.PrintStream;
-import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Scans all images in a directory for Micro QR codes and outputs the results
@@ -58,8 +57,14 @@ public class BatchScanMicroQrCodes {
 	@Option(name = "--GUI", usage = "Ignore all other command line arguments and switch to GUI mode")
 	boolean guiMode = false;
 
-	MicroQrCodeDetector<GrayU8> scanner = FactoryFiducial.microqr(null, GrayU8.class);
-	GrayU8 gray = new GrayU8(1, 1);
+	@Option(name = "--Threads", usage = "Number of threads used to scan images. If <= 0 then all available are used.")
+	int numThreads = 0;
+
+	BatchScanBarcodes<GrayU8, MicroQrCode> scanner = BatchScanBarcodes.microqr(null);
+
+	// Results which can't be written yet because an image before them is still being processed
+	Map<Integer, String> pending = new HashMap<>();
+	int nextToWrite;
 
 	PrintStream output;
 
@@ -72,7 +77,7 @@ public class BatchScanMicroQrCodes {
 
 	void finishParsing() {}
 
-	void process() throws FileNotFoundException, UnsupportedEncodingException {
+	void process() throws FileNotFoundException {
 		total = 0;
 		output = new PrintStream(pathOutput);
 		output.println("# Found Micro QR Codes inside of images");
@@ -88,36 +93,46 @@ public class BatchScanMicroQrCodes {
 			return;
 		}
 
-		for (String path : inputs) {
-			processFile(new File(path));
-		}
+		pending.clear();
+		nextToWrite = 0;
+		scanner.setNumWorkers(numThreads);
+		scanner.process(inputs, this::handleResults);
+		output.close();
 		if (verbose)
 			System.out.println("\n\nDone! Images Count = " + total);
 	}
 
-	private void processFile( File f ) throws UnsupportedEncodingException {
-		BufferedImage buffered = UtilImageIO.loadImage(f.getAbsolutePath());
-		if (buffered == null) {
-			System.err.println("Can't open " + f.getPath());
-			return;
-		}
+	/**
+	 * Saves the results for an image. Images are processed out of order but the results are written in the same
+	 * order as the input list.
+	 */
+	private void handleResults( int index, String path, @Nullable List<MicroQrCode> detections ) {
 		if (listener != null) {
-			listener.batchUpdate(f.getName());
+			listener.batchUpdate(new File(path).getName());
 		}
 
-		ConvertBufferedImage.convertFrom(buffered, gray);
-
-		scanner.process(gray);
-		output.printf("%d %s\n", scanner.getDetections().size(), f.getPath());
+		if (detections == null) {
+			System.err.println("Can't open " + path);
+			pending.put(index, "");
+		} else {
+			var builder = new StringBuilder();
+			builder.append(detections.size()).append(' ').append(path).append('\n');
+			for (MicroQrCode qr : detections) {
+				builder.append(URLEncoder.encode(qr.message, StandardCharsets.UTF_8)).append('\n');
+			}
+			pending.put(index, builder.toString());
 
-		for (MicroQrCode qr : scanner.getDetections()) {
-			output.println(URLEncoder.encode(qr.message, "UTF-8"));
+			total++;
+			if (total%50 == 0) {
+				if (verbose)
+					System.out.println("processed " + total);
+			}
 		}
 
-		total++;
-		if (total%50 == 0) {
-			if (verbose)
-				System.out.println("processed " + total);
+		String text;
+		while ((text = pending.remove(nextToWrite)) != null) {
+			output.print(text);
+			nextToWrite++;
 		}
 	}
 
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.ffmpeg;
+
+import boofcv.core.encoding.ConvertYuv420Planes;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageGray;
+import org.bytedeco.copiedstuff.Frame;
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.avutil.AVFrame;
+import org.ddogleg.struct.DogArray_I8;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+
+import static org.bytedeco.javacpp.avutil.*;
+
+/**
+ * Converts frames decoded by FFMPEG directly into BoofCV images. The planes in a raw decoded {@link AVFrame} are
+ * wrapped in {@link ByteBuffer}s which point to the decoder's memory and are then read by
+ * {@link ConvertYuv420Planes}, so there's no intermediate copy or BufferedImage.
+ *
+ * Frames can also come from the grabber after it converted them using swscale. In that case the grabber should
+ * be configured to output {@link #PACKED_GRAY} for gray images or {@link #PACKED_COLOR} for color images,
+ * which are then read from {@link Frame#image}.
+ *
+ * @author Peter Abeles
+ */
+public class ConvertFfmpegFrame {
+	/** Pixel format requested from the grabber for gray images when the decoder's format isn't supported */
+	public static final int PACKED_GRAY = AV_PIX_FMT_GRAY8;
+	/** Pixel format requested from the grabber for color images when the decoder's format isn't supported */
+	public static final int PACKED_COLOR = AV_PIX_FMT_YUV420P;
+
+	/**
+	 * Returns true if a decoded frame with the specified pixel format can be converted into the image type directly
+	 *
+	 * @param pixelFormat FFMPEG pixel format
+	 * @param gray true if the output is a gray scale image
+	 */
+	public static boolean isSupported( int pixelFormat, boolean gray ) {
+		if (pixelFormat == AV_PIX_FMT_YUV420P || pixelFormat == AV_PIX_FMT_NV12 || pixelFormat == AV_PIX_FMT_NV21)
+			return true;
+
+		// Only the luma plane is used for gray images
+		return gray && (pixelFormat == AV_PIX_FMT_YUVJ420P ||
+				pixelFormat == AV_PIX_FMT_YUV422P || pixelFormat == AV_PIX_FMT_YUVJ422P ||
+				pixelFormat == AV_PIX_FMT_YUV444P || pixelFormat == AV_PIX_FMT_YUVJ444P ||
+				pixelFormat == AV_PIX_FMT_GRAY8);
+	}
+
+	/**
+	 * Converts a raw decoded frame into a BoofCV image. The frame must have a format which
+	 * {@link #isSupported(int, boolean) is supported}.
+	 *
+	 * @param frame (Input) Decoded frame
+	 * @param output (Output) Image. Reshaped to the frame size.
+	 * @param work (Optional) Work space. Can be null.
+	 */
+	public static void convertRaw( AVFrame frame, ImageBase<?> output, @Nullable DogArray_I8 work ) {
+		int pixelFormat = frame.format();
+		if (!isSupported(pixelFormat, output instanceof ImageGray))
+			throw new IllegalArgumentException("Unsupported pixel format " + pixelFormat + " for " + output.getImageType());
+
+		int width = frame.width();
+		int height = frame.height();
+		int chromaHeight = (height + 1)/2;
+
+		ByteBuffer bufferY = wrap(frame.data(0), frame.linesize(0), height);
+		if (output instanceof ImageGray) {
+			ConvertYuv420Planes.yuvToBoof(bufferY, bufferY, bufferY, width, height, frame.linesize(0), 0, 1, output, work);
+			return;
+		}
+
+		int strideUV = frame.linesize(1);
+		if (pixelFormat == AV_PIX_FMT_YUV420P) {
+			ByteBuffer bufferU = wrap(frame.data(1), strideUV, chromaHeight);
+			ByteBuffer bufferV = wrap(frame.data(2), frame.linesize(2), chromaHeight);
+			ConvertYuv420Planes.yuvToBoof(bufferY, bufferU, bufferV, width, height,
+					frame.linesize(0), strideUV, 1, output, work);
+			return;
+		}
+
+		// NV12 and NV21 have a single plane with interleaved chroma. They differ in which comes first.
+		ByteBuffer bufferFirst = wrap(frame.data(1), strideUV, chromaHeight);
+		ByteBuffer bufferSecond = slice(bufferFirst, 1, bufferFirst.capacity() - 1);
+		if (pixelFormat == AV_PIX_FMT_NV12) {
+			ConvertYuv420Planes.yuvToBoof(bufferY, bufferFirst, bufferSecond, width, height,
+					frame.linesize(0), strideUV, 2, output, work);
+		} else {
+			ConvertYuv420Planes.yuvToBoof(bufferY, bufferSecond, bufferFirst, width, height,
+					frame.linesize(0), strideUV, 2, output, work);
+		}
+	}
+
+	/**
+	 * Converts a frame which the grabber has already converted into {@link #PACKED_GRAY} or {@link #PACKED_COLOR}.
+	 * The image is packed into a single buffer without any padding between rows.
+	 *
+	 * @param frame (Input) Frame with a packed image
+	 * @param pixelFormat (Input) Format of the image inside the frame
+	 * @param output (Output) Image. Reshaped to the frame size.
+	 * @param work (Optional) Work space. Can be null.
+	 */
+	public static void convertPacked( Frame frame, int pixelFormat, ImageBase<?> output, @Nullable DogArray_I8 work ) {
+		int width = frame.imageWidth;
+		int height = frame.imageHeight;
+
+		// The grabber limits the buffer to the first plane, which hides the chroma planes
+		ByteBuffer buffer = ((ByteBuffer)frame.image[0]).duplicate();
+		buffer.clear();
+
+		if (pixelFormat == PACKED_GRAY) {
+			if (!(output instanceof ImageGray))
+				throw new IllegalArgumentException("Gray frames can only be converted into gray images");
+			ConvertYuv420Planes.yuvToBoof(buffer, buffer, buffer, width, height, frame.imageStride, 0, 1, output, work);
+		} else if (pixelFormat == PACKED_COLOR) {
+			int chromaWidth = (width + 1)/2;
+			int chromaSize = chromaWidth*((height + 1)/2);
+			ByteBuffer bufferU = slice(buffer, width*height, chromaSize);
+			ByteBuffer bufferV = slice(buffer, width*height + chromaSize, chromaSize);
+			ConvertYuv420Planes.yuvToBoof(buffer, bufferU, bufferV, width, height, width, chromaWidth, 1, output, work);
+		} else {
+			throw new IllegalArgumentException("Unsupported pixel format " + pixelFormat);
+		}
+	}
+
+	/**
+	 * Wraps memory owned by FFMPEG inside a ByteBuffer without copying it
+	 */
+	static ByteBuffer wrap( BytePointer plane, int stride, int rows ) {
+		return plane.capacity((long)stride*rows).asBuffer();
+	}
+
+	static ByteBuffer slice( ByteBuffer buffer, int offset, int length ) {
+		ByteBuffer copy = buffer.duplicate();
+		copy.position(offset);
+		copy.limit(offset + length);
+		return copy.slice();
+	}
+}
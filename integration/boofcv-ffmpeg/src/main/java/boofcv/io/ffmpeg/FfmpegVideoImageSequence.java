@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -26,7 +26,8 @@ import boofcv.struct.image.ImageType;
 import org.bytedeco.copiedstuff.FFmpegFrameGrabber;
 import org.bytedeco.copiedstuff.Frame;
 import org.bytedeco.copiedstuff.FrameGrabber;
-import org.bytedeco.copiedstuff.Java2DFrameConverter;
+import org.bytedeco.javacpp.avutil.AVFrame;
+import org.ddogleg.struct.DogArray_I8;
 
 import java.awt.image.BufferedImage;
 
@@ -34,7 +35,10 @@ import static org.bytedeco.javacpp.avutil.AV_LOG_ERROR;
 import static org.bytedeco.javacpp.avutil.av_log_set_level;
 
 /**
- * Uses JavaCV, which uses FFMPEG, to read in a video.
+ * Uses JavaCV, which uses FFMPEG, to read in a video. Decoded frames are converted directly into BoofCV images
+ * using {@link ConvertFfmpegFrame}. If the decoder's pixel format is supported then the image is read straight
+ * out of the decoder's buffers, otherwise FFMPEG is asked to convert it into a format which is supported first.
+ * Images are recycled between frames and a BufferedImage is only created if {@link #getGuiImage()} is called.
  *
  * @author Peter Abeles
  */
@@ -44,22 +48,29 @@ public class FfmpegVideoImageSequence<T extends ImageBase<T>> implements SimpleI
 	FFmpegFrameGrabber frameGrabber;
 	ImageType<T> imageType;
 
-	Java2DFrameConverter converter;
+	// If not raw then this is the pixel format the grabber was told to convert frames into
+	boolean raw;
+	int packedFormat;
 
 	boolean finished = false;
 
-	BufferedImage current;
-	BufferedImage next;
+	// The most recently returned image and the image which will be returned next
 	T currentBoof;
+	T nextBoof;
+	// Created when requested by the GUI
+	BufferedImage current;
 	int frameNumber;
 
+	DogArray_I8 work = new DogArray_I8();
+
 	public FfmpegVideoImageSequence(String filename, ImageType<T> imageType ) {
 		// Turn off that super annoying error message!
 		av_log_set_level(AV_LOG_ERROR);
 
 		this.filename = filename;
 		this.imageType = imageType;
-		converter = new Java2DFrameConverter();
+		currentBoof = imageType.createImage(1, 1);
+		nextBoof = imageType.createImage(1, 1);
 		reset();
 		if( finished )
 			throw new RuntimeException("FFMPEG failed to open file. "+filename);
@@ -67,12 +78,12 @@ public class FfmpegVideoImageSequence<T extends ImageBase<T>> implements SimpleI
 
 	@Override
 	public int getWidth() {
-		return next.getWidth();
+		return nextBoof.getWidth();
 	}
 
 	@Override
 	public int getHeight() {
-		return next.getHeight();
+		return nextBoof.getHeight();
 	}
 
 	@Override
@@ -85,19 +96,41 @@ public class FfmpegVideoImageSequence<T extends ImageBase<T>> implements SimpleI
 		if( finished)
 			return null;
 
-		current.createGraphics().drawImage(next,0,0,null);
+		T tmp = currentBoof;
+		currentBoof = nextBoof;
+		nextBoof = tmp;
+
 		try {
-			next = converter.convert(frameGrabber.grab());
-			frameNumber++;
+			if (grabNext())
+				frameNumber++;
+			else
+				finished = true;
 		} catch (FrameGrabber.Exception e) {
 			finished = true;
 		}
 		if( frameNumber >= frameGrabber.getLengthInFrames() )
 			finished = true;
-		ConvertBufferedImage.convertFrom(current,currentBoof,true);
 		return currentBoof;
 	}
 
+	/**
+	 * Grabs the next frame and converts it into {@link #nextBoof}
+	 *
+	 * @return true if a frame was read
+	 */
+	private boolean grabNext() throws FrameGrabber.Exception {
+		Frame frame = frameGrabber.grabImage();
+		if (frame == null || frame.image == null)
+			return false;
+
+		if (raw) {
+			ConvertFfmpegFrame.convertRaw((AVFrame)frame.opaque, nextBoof, work);
+		} else {
+			ConvertFfmpegFrame.convertPacked(frame, packedFormat, nextBoof, work);
+		}
+		return true;
+	}
+
 	@Override
 	public T getImage() {
 		return currentBoof;
@@ -105,6 +138,7 @@ public class FfmpegVideoImageSequence<T extends ImageBase<T>> implements SimpleI
 
 	@Override
 	public <InternalImage> InternalImage getGuiImage() {
+		current = ConvertBufferedImage.convertTo(currentBoof, current, true);
 		return (InternalImage)current;
 	}
 
@@ -136,26 +170,44 @@ public class FfmpegVideoImageSequence<T extends ImageBase<T>> implements SimpleI
 	@Override
 	public void reset() {
 		filename = UtilIO.checkIfJarAndCopyToTemp(filename);
+		frameNumber = 0;
+		finished = false;
+
+		// See if the decoder's output can be used directly
+		boolean gray = imageType.getFamily() == ImageType.Family.GRAY;
+		raw = true;
+		if (!startGrabber(FrameGrabber.ImageMode.RAW, -1))
+			return;
+
+		if (!ConvertFfmpegFrame.isSupported(frameGrabber.getPixelFormat(), gray)) {
+			try {
+				frameGrabber.stop();
+			} catch (FrameGrabber.Exception ignore) {
+			}
+			raw = false;
+			packedFormat = gray ? ConvertFfmpegFrame.PACKED_GRAY : ConvertFfmpegFrame.PACKED_COLOR;
+			if (!startGrabber(gray ? FrameGrabber.ImageMode.GRAY : FrameGrabber.ImageMode.COLOR, packedFormat))
+				return;
+		}
 
-		this.frameGrabber = new FFmpegFrameGrabber(filename);
 		try {
-			frameNumber = 0;
-			finished = false;
-			frameGrabber.start();
+			if (!grabNext())
+				finished = true;
 		} catch (FrameGrabber.Exception e) {
-//			e.printStackTrace();
 			finished = true;
-			return;
 		}
+	}
 
+	private boolean startGrabber( FrameGrabber.ImageMode mode, int pixelFormat ) {
+		this.frameGrabber = new FFmpegFrameGrabber(filename);
+		frameGrabber.setImageMode(mode);
+		frameGrabber.setPixelFormat(pixelFormat);
 		try {
-			Frame frame = frameGrabber.grab();
-			next = converter.convert(frame);
-			current = new BufferedImage(next.getWidth(),next.getHeight(),next.getType());
-			currentBoof = imageType.createImage(next.getWidth(),next.getHeight());
+			frameGrabber.start();
 		} catch (FrameGrabber.Exception e) {
 			finished = true;
+			return false;
 		}
+		return true;
 	}
-
 }
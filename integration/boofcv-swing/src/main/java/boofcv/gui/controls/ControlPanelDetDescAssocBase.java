@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -35,6 +35,7 @@ import boofcv.factory.feature.detect.interest.FactoryInterestPoint;
 import boofcv.gui.StandardAlgConfigPanel;
 import boofcv.gui.feature.*;
 import boofcv.struct.feature.TupleDesc;
+import boofcv.struct.feature.TupleDesc_B;
 import boofcv.struct.feature.TupleDesc_F64;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageGray;
@@ -198,13 +199,11 @@ public abstract class ControlPanelDetDescAssocBase extends StandardAlgConfigPane
 
 	public AssociateDescription createAssociate( DescriptorInfo descriptor ) {
 
-		if (configAssociate.type != ConfigAssociate.AssociationType.GREEDY) {
-			// The best way to handle this situation is to make it so the user can't select this combination of options
-			if (!TupleDesc_F64.class.isAssignableFrom(descriptor.getDescriptionType())) {
-				JOptionPane.showMessageDialog(this, "Requires TupleDesc_F64 description type");
-				// not really sure what to do here. I'll just force it to be greedy to avoid a crash
-				configAssociate.type = ConfigAssociate.AssociationType.GREEDY;
-			}
+		// The best way to handle this situation is to make it so the user can't select this combination of options
+		if (!isAssociationCompatible(descriptor.getDescriptionType())) {
+			JOptionPane.showMessageDialog(this, "Requires " + requiredDescriptionType() + " description type");
+			// not really sure what to do here. I'll just force it to be greedy to avoid a crash
+			configAssociate.type = ConfigAssociate.AssociationType.GREEDY;
 		}
 
 		return FactoryAssociation.generic(configAssociate, descriptor);
@@ -214,15 +213,27 @@ public abstract class ControlPanelDetDescAssocBase extends StandardAlgConfigPane
 
 		configAssociate.maximumDistancePixels.setTo(controlAssocMaxDistance.getValue());
 
-		if (configAssociate.type != ConfigAssociate.AssociationType.GREEDY) {
-			// The best way to handle this situation is to make it so the user can't select this combination of options
-			if (!TupleDesc_F64.class.isAssignableFrom(descriptor.getDescriptionType())) {
-				JOptionPane.showMessageDialog(this, "Requires TupleDesc_F64 description type");
-				// not really sure what to do here. I'll just force it to be greedy to avoid a crash
-				configAssociate.type = ConfigAssociate.AssociationType.GREEDY;
-			}
+		// The best way to handle this situation is to make it so the user can't select this combination of options
+		if (!isAssociationCompatible(descriptor.getDescriptionType())) {
+			JOptionPane.showMessageDialog(this, "Requires " + requiredDescriptionType() + " description type");
+			// not really sure what to do here. I'll just force it to be greedy to avoid a crash
+			configAssociate.type = ConfigAssociate.AssociationType.GREEDY;
 		}
 
 		return FactoryAssociation.generic2(configAssociate, descriptor);
 	}
+
+	/** Returns true if the selected association algorithm can process the descriptor type */
+	private boolean isAssociationCompatible( Class<?> type ) {
+		return switch (configAssociate.type) {
+			case GREEDY -> true;
+			case MULTI_INDEX_HASHING -> type == TupleDesc_B.class;
+			default -> TupleDesc_F64.class.isAssignableFrom(type);
+		};
+	}
+
+	private String requiredDescriptionType() {
+		return configAssociate.type == ConfigAssociate.AssociationType.MULTI_INDEX_HASHING ?
+				"TupleDesc_B" : "TupleDesc_F64";
+	}
 }
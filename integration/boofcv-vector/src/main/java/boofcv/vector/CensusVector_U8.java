@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.vector;
+
+import boofcv.struct.image.GrayU8;
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Census transform for {@link GrayU8} using the Vector API. Only the inner image is processed and the bits
+ * are the same as {@link boofcv.alg.transform.census.CensusTransform#dense3x3}.
+ *
+ * @author Peter Abeles
+ */
+public class CensusVector_U8 {
+	static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+	public static void dense3x3( GrayU8 input, GrayU8 output ) {
+		final byte[] src = input.data;
+		final int width = input.width;
+		final int lanes = SPECIES.length();
+
+		// offsets to neighbors. row-major starting from upper row
+		final int s = input.stride;
+		final int[] offsets = new int[]{-s - 1, -s, -s + 1, -1, 1, s - 1, s, s + 1};
+
+		VectorUtils.rows(1, input.height - 1, width, ( y0, y1 ) -> {
+			for (int y = y0; y < y1; y++) {
+				final int indexSrc = input.startIndex + y*input.stride;
+				final int indexDst = output.startIndex + y*output.stride;
+
+				int x = 1;
+				for (; x <= width - 1 - lanes; x += lanes) {
+					ByteVector center = ByteVector.fromArray(SPECIES, src, indexSrc + x);
+					ByteVector census = ByteVector.zero(SPECIES);
+					for (int i = 0; i < 8; i++) {
+						ByteVector neighbor = ByteVector.fromArray(SPECIES, src, indexSrc + x + offsets[i]);
+						VectorMask<Byte> greater = neighbor.compare(VectorOperators.UNSIGNED_GT, center);
+						census = census.lanewise(VectorOperators.OR, (byte)(1 << i), greater);
+					}
+					census.intoArray(output.data, indexDst + x);
+				}
+				for (; x < width - 1; x++) {
+					int center = src[indexSrc + x] & 0xFF;
+					int census = 0;
+					for (int i = 0; i < 8; i++) {
+						if ((src[indexSrc + x + offsets[i]] & 0xFF) > center)
+							census |= 1 << i;
+					}
+					output.data[indexDst + x] = (byte)census;
+				}
+			}
+		});
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.vector;
+
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.Planar;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Color space conversions for {@link Planar} {@link GrayF32} images using the Vector API. Same equations and
+ * order of operations as {@link boofcv.alg.color.ColorRgb} and {@link boofcv.alg.color.ColorYuv}.
+ *
+ * @author Peter Abeles
+ */
+public class ColorVector_F32 {
+	static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+	/**
+	 * gray = 0.299*r + 0.587*g + 0.114*b
+	 */
+	public static void rgbToGray_Weighted( Planar<GrayF32> rgb, GrayF32 gray ) {
+		final float[] R = rgb.getBand(0).data;
+		final float[] G = rgb.getBand(1).data;
+		final float[] B = rgb.getBand(2).data;
+		final int width = rgb.width;
+		final int lanes = SPECIES.length();
+
+		VectorUtils.rows(0, rgb.height, width, ( y0, y1 ) -> {
+			for (int y = y0; y < y1; y++) {
+				int indexRgb = rgb.startIndex + y*rgb.stride;
+				int indexGray = gray.startIndex + y*gray.stride;
+
+				int x = 0;
+				for (; x <= width - lanes; x += lanes) {
+					FloatVector r = FloatVector.fromArray(SPECIES, R, indexRgb + x);
+					FloatVector g = FloatVector.fromArray(SPECIES, G, indexRgb + x);
+					FloatVector b = FloatVector.fromArray(SPECIES, B, indexRgb + x);
+					r.mul(0.299f).add(g.mul(0.587f)).add(b.mul(0.114f)).intoArray(gray.data, indexGray + x);
+				}
+				for (; x < width; x++) {
+					int i = indexRgb + x;
+					gray.data[indexGray + x] = 0.299f*R[i] + 0.587f*G[i] + 0.114f*B[i];
+				}
+			}
+		});
+	}
+
+	public static void yuvToRgb( Planar<GrayF32> yuv, Planar<GrayF32> rgb ) {
+		final float[] Y = yuv.getBand(0).data;
+		final float[] U = yuv.getBand(1).data;
+		final float[] V = yuv.getBand(2).data;
+		final float[] R = rgb.getBand(0).data;
+		final float[] G = rgb.getBand(1).data;
+		final float[] B = rgb.getBand(2).data;
+		final int width = yuv.width;
+		final int lanes = SPECIES.length();
+
+		VectorUtils.rows(0, yuv.height, width, ( y0, y1 ) -> {
+			for (int row = y0; row < y1; row++) {
+				int indexYuv = yuv.startIndex + row*yuv.stride;
+				int indexRgb = rgb.startIndex + row*rgb.stride;
+
+				int x = 0;
+				for (; x <= width - lanes; x += lanes) {
+					FloatVector y = FloatVector.fromArray(SPECIES, Y, indexYuv + x);
+					FloatVector u = FloatVector.fromArray(SPECIES, U, indexYuv + x);
+					FloatVector v = FloatVector.fromArray(SPECIES, V, indexYuv + x);
+
+					y.add(v.mul(1.13983f)).intoArray(R, indexRgb + x);
+					y.sub(u.mul(0.39465f)).sub(v.mul(0.58060f)).intoArray(G, indexRgb + x);
+					y.add(u.mul(2.032f)).intoArray(B, indexRgb + x);
+				}
+				for (; x < width; x++) {
+					float y = Y[indexYuv + x];
+					float u = U[indexYuv + x];
+					float v = V[indexYuv + x];
+
+					R[indexRgb + x] = y + 1.13983f*v;
+					G[indexRgb + x] = y - 0.39465f*u - 0.58060f*v;
+					B[indexRgb + x] = y + 2.032f*u;
+				}
+			}
+		});
+	}
+
+	public static void rgbToYuv( Planar<GrayF32> rgb, Planar<GrayF32> yuv ) {
+		final float[] R = rgb.getBand(0).data;
+		final float[] G = rgb.getBand(1).data;
+		final float[] B = rgb.getBand(2).data;
+		final float[] Y = yuv.getBand(0).data;
+		final float[] U = yuv.getBand(1).data;
+		final float[] V = yuv.getBand(2).data;
+		final int width = rgb.width;
+		final int lanes = SPECIES.length();
+
+		VectorUtils.rows(0, rgb.height, width, ( y0, y1 ) -> {
+			for (int row = y0; row < y1; row++) {
+				int indexRgb = rgb.startIndex + row*rgb.stride;
+				int indexYuv = yuv.startIndex + row*yuv.stride;
+
+				int x = 0;
+				for (; x <= width - lanes; x += lanes) {
+					FloatVector r = FloatVector.fromArray(SPECIES, R, indexRgb + x);
+					FloatVector g = FloatVector.fromArray(SPECIES, G, indexRgb + x);
+					FloatVector b = FloatVector.fromArray(SPECIES, B, indexRgb + x);
+
+					FloatVector y = r.mul(0.299f).add(g.mul(0.587f)).add(b.mul(0.114f));
+					y.intoArray(Y, indexYuv + x);
+					b.sub(y).mul(0.492f).intoArray(U, indexYuv + x);
+					r.sub(y).mul(0.877f).intoArray(V, indexYuv + x);
+				}
+				for (; x < width; x++) {
+					float r = R[indexRgb + x];
+					float g = G[indexRgb + x];
+					float b = B[indexRgb + x];
+
+					float y = 0.299f*r + 0.587f*g + 0.114f*b;
+					Y[indexYuv + x] = y;
+					U[indexYuv + x] = 0.492f*(b - y);
+					V[indexYuv + x] = 0.877f*(r - y);
+				}
+			}
+		});
+	}
+}
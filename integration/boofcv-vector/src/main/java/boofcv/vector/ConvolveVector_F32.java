@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.vector;
+
+import boofcv.alg.filter.convolve.border.ConvolveJustBorder_General_SB;
+import boofcv.alg.filter.convolve.normalized.ConvolveNormalized_JustBorder_SB;
+import boofcv.alg.filter.kernel.KernelMath;
+import boofcv.factory.filter.kernel.FactoryKernel;
+import boofcv.struct.border.ImageBorder_F32;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.image.GrayF32;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Convolutions along a single axis for {@link GrayF32} using the Vector API. Inner functions process the same
+ * pixels as {@link boofcv.alg.filter.convolve.ConvolveImageNoBorder} and add values in the same order, so
+ * the results are identical. The other functions match the override hooks and handle the border using
+ * BoofCV's regular code.
+ *
+ * @author Peter Abeles
+ */
+public class ConvolveVector_F32 {
+	static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+	/**
+	 * Horizontal convolution which skips the image border. Same as ConvolveImageNoBorder.
+	 */
+	public static void horizontal( Kernel1D_F32 kernel, GrayF32 src, GrayF32 dst ) {
+		final float[] dataSrc = src.data;
+		final float[] dataDst = dst.data;
+		final float[] dataKer = kernel.data;
+		final int offset = kernel.getOffset();
+		final int kernelWidth = kernel.getWidth();
+		final int width = src.width;
+		final int length = SPECIES.length();
+
+		if (kernelWidth > width)
+			return;
+
+		VectorUtils.rows(0, src.height, width, ( y0, y1 ) -> {
+			for (int y = y0; y < y1; y++) {
+				int indexDst = dst.startIndex + y*dst.stride + offset;
+				int j = src.startIndex + y*src.stride;
+				final int jEnd = j + width - (kernelWidth - 1);
+				final int jEndVector = jEnd - length;
+
+				for (; j <= jEndVector; j += length, indexDst += length) {
+					FloatVector total = FloatVector.zero(SPECIES);
+					for (int k = 0; k < kernelWidth; k++) {
+						total = total.add(FloatVector.fromArray(SPECIES, dataSrc, j + k).mul(dataKer[k]));
+					}
+					total.intoArray(dataDst, indexDst);
+				}
+				for (; j < jEnd; j++) {
+					float total = 0;
+					for (int k = 0; k < kernelWidth; k++) {
+						total += dataSrc[j + k]*dataKer[k];
+					}
+					dataDst[indexDst++] = total;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Vertical convolution which skips the image border. Same as ConvolveImageNoBorder.
+	 */
+	public static void vertical( Kernel1D_F32 kernel, GrayF32 src, GrayF32 dst ) {
+		final float[] dataSrc = src.data;
+		final float[] dataDst = dst.data;
+		final float[] dataKer = kernel.data;
+		final int offset = kernel.getOffset();
+		final int kernelWidth = kernel.getWidth();
+		final int width = src.width;
+		final int length = SPECIES.length();
+		final int yEnd = src.height - (kernelWidth - offset - 1);
+
+		VectorUtils.rows(offset, yEnd, width, ( y0, y1 ) -> {
+			for (int y = y0; y < y1; y++) {
+				final int indexDst = dst.startIndex + y*dst.stride;
+				final int indexSrc = src.startIndex + (y - offset)*src.stride;
+
+				int x = 0;
+				for (; x <= width - length; x += length) {
+					FloatVector total = FloatVector.zero(SPECIES);
+					for (int k = 0; k < kernelWidth; k++) {
+						total = total.add(FloatVector.fromArray(SPECIES, dataSrc, indexSrc + k*src.stride + x).mul(dataKer[k]));
+					}
+					total.intoArray(dataDst, indexDst + x);
+				}
+				for (; x < width; x++) {
+					float total = 0;
+					for (int k = 0; k < kernelWidth; k++) {
+						total += dataSrc[indexSrc + k*src.stride + x]*dataKer[k];
+					}
+					dataDst[indexDst + x] = total;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Same as ConvolveImage.horizontal(). The output must already be the same shape as the input.
+	 */
+	public static void horizontal( Kernel1D_F32 kernel, GrayF32 input, GrayF32 output, ImageBorder_F32 border ) {
+		if (kernel.width > input.width)
+			throw new IllegalArgumentException("Kernel is wider than the image");
+		border.setImage(input);
+		horizontal(kernel, input, output);
+		ConvolveJustBorder_General_SB.horizontal(kernel, border, output);
+	}
+
+	/**
+	 * Same as ConvolveImage.vertical(). The output must already be the same shape as the input.
+	 */
+	public static void vertical( Kernel1D_F32 kernel, GrayF32 input, GrayF32 output, ImageBorder_F32 border ) {
+		if (kernel.width > input.height)
+			throw new IllegalArgumentException("Kernel is taller than the image");
+		border.setImage(input);
+		vertical(kernel, input, output);
+		ConvolveJustBorder_General_SB.vertical(kernel, border, output);
+	}
+
+	/**
+	 * Same as ConvolveImageNormalized.horizontal()
+	 */
+	public static void horizontalNormalized( Kernel1D_F32 kernel, GrayF32 input, GrayF32 output ) {
+		if (kernel.width >= input.width)
+			throw new IllegalArgumentException("Kernel must be narrower than the image");
+		kernel = ensureNormalized(kernel);
+		horizontal(kernel, input, output);
+		ConvolveNormalized_JustBorder_SB.horizontal(kernel, input, output);
+	}
+
+	/**
+	 * Same as ConvolveImageNormalized.vertical()
+	 */
+	public static void verticalNormalized( Kernel1D_F32 kernel, GrayF32 input, GrayF32 output ) {
+		if (kernel.width >= input.height)
+			throw new IllegalArgumentException("Kernel must be shorter than the image");
+		kernel = ensureNormalized(kernel);
+		vertical(kernel, input, output);
+		ConvolveNormalized_JustBorder_SB.vertical(kernel, input, output);
+	}
+
+	private static Kernel1D_F32 ensureNormalized( Kernel1D_F32 kernel ) {
+		if (Math.abs(kernel.computeSum() - 1.0f) <= 1e-4f)
+			return kernel;
+		Kernel1D_F32 k = kernel.copy();
+		KernelMath.normalizeSumToOne(k);
+		return k;
+	}
+
+	/**
+	 * Same as ConvolveImageMean.horizontal(). Instead of a running sum, all the pixels inside the box are added
+	 * up. That's only faster for small boxes, so larger boxes are left to BoofCV.
+	 *
+	 * @param maxLength The largest box which will be processed
+	 */
+	public static void horizontalMean( GrayF32 input, GrayF32 output, int offset, int length, int maxLength ) {
+		if (length > input.width || length > maxLength)
+			throw new IllegalArgumentException("Box is too wide. length=" + length);
+		Kernel1D_F32 kernel = FactoryKernel.table1D_F32(offset, length, true);
+		ConvolveNormalized_JustBorder_SB.horizontal(kernel, input, output);
+		horizontal(kernel, input, output);
+	}
+
+	/**
+	 * Same as ConvolveImageMean.vertical(). Running sums for several columns are updated at the same time and
+	 * values are added in the same order.
+	 */
+	public static void verticalMean( GrayF32 input, GrayF32 output, int offset, int length ) {
+		if (length > input.height)
+			throw new IllegalArgumentException("Box is taller than the image. length=" + length);
+		Kernel1D_F32 kernel = FactoryKernel.table1D_F32(offset, length, true);
+		ConvolveNormalized_JustBorder_SB.vertical(kernel, input, output);
+
+		final float[] dataSrc = input.data;
+		final float[] dataDst = output.data;
+		final int width = input.width;
+		final int stride = input.stride;
+		final int lanes = SPECIES.length();
+		final int offsetEnd = length - offset - 1;
+		final float divisor = length;
+
+		VectorUtils.rows(offset, output.height - offsetEnd, width, ( y0, y1 ) -> {
+			float[] totals = new float[width];
+
+			// Sum of the first box in each column
+			for (int x = 0; x < width; x++) {
+				int indexIn = input.startIndex + (y0 - offset)*stride + x;
+				float total = 0;
+				for (int i = 0; i < length; i++, indexIn += stride) {
+					total += dataSrc[indexIn];
+				}
+				totals[x] = total;
+				dataDst[output.startIndex + y0*output.stride + x] = total/divisor;
+			}
+
+			// Slide the box down one row at a time
+			final int backStep = length*stride;
+			for (int y = y0 + 1; y < y1; y++) {
+				final int indexIn = input.startIndex + (y + offsetEnd)*stride;
+				final int indexOut = output.startIndex + y*output.stride;
+
+				int x = 0;
+				for (; x <= width - lanes; x += lanes) {
+					FloatVector total = FloatVector.fromArray(SPECIES, totals, x)
+							.sub(FloatVector.fromArray(SPECIES, dataSrc, indexIn + x - backStep))
+							.add(FloatVector.fromArray(SPECIES, dataSrc, indexIn + x));
+					total.intoArray(totals, x);
+					total.div(divisor).intoArray(dataDst, indexOut + x);
+				}
+				for (; x < width; x++) {
+					float total = totals[x] - dataSrc[indexIn + x - backStep];
+					totals[x] = total += dataSrc[indexIn + x];
+					dataDst[indexOut + x] = total/divisor;
+				}
+			}
+		});
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.vector;
+
+import boofcv.alg.misc.BOverridePixelMath.Operation;
+import boofcv.struct.image.GrayF32;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Pixel-wise arithmetic for {@link GrayF32} using the Vector API. Same results as
+ * {@link boofcv.alg.misc.PixelMath}. Input and output images can be the same instance.
+ *
+ * @author Peter Abeles
+ */
+public class PixelMathVector_F32 {
+	static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+	/**
+	 * output = input (op) value
+	 */
+	public static void scalar( Operation op, GrayF32 input, float value, GrayF32 output ) {
+		final VectorOperators.Binary vop = toOperator(op);
+		final int width = input.width;
+		final int lanes = SPECIES.length();
+
+		VectorUtils.rows(0, input.height, width, ( y0, y1 ) -> {
+			for (int y = y0; y < y1; y++) {
+				int indexIn = input.startIndex + y*input.stride;
+				int indexOut = output.startIndex + y*output.stride;
+
+				int x = 0;
+				for (; x <= width - lanes; x += lanes) {
+					FloatVector.fromArray(SPECIES, input.data, indexIn + x).lanewise(vop, value)
+							.intoArray(output.data, indexOut + x);
+				}
+				for (; x < width; x++) {
+					output.data[indexOut + x] = apply(op, input.data[indexIn + x], value);
+				}
+			}
+		});
+	}
+
+	/**
+	 * output = imgA (op) imgB
+	 */
+	public static void twoImages( Operation op, GrayF32 imgA, GrayF32 imgB, GrayF32 output ) {
+		final VectorOperators.Binary vop = toOperator(op);
+		final int width = imgA.width;
+		final int lanes = SPECIES.length();
+
+		VectorUtils.rows(0, imgA.height, width, ( y0, y1 ) -> {
+			for (int y = y0; y < y1; y++) {
+				int indexA = imgA.startIndex + y*imgA.stride;
+				int indexB = imgB.startIndex + y*imgB.stride;
+				int indexOut = output.startIndex + y*output.stride;
+
+				int x = 0;
+				for (; x <= width - lanes; x += lanes) {
+					FloatVector a = FloatVector.fromArray(SPECIES, imgA.data, indexA + x);
+					FloatVector b = FloatVector.fromArray(SPECIES, imgB.data, indexB + x);
+					a.lanewise(vop, b).intoArray(output.data, indexOut + x);
+				}
+				for (; x < width; x++) {
+					output.data[indexOut + x] = apply(op, imgA.data[indexA + x], imgB.data[indexB + x]);
+				}
+			}
+		});
+	}
+
+	static VectorOperators.Binary toOperator( Operation op ) {
+		return switch (op) {
+			case PLUS -> VectorOperators.ADD;
+			case MINUS -> VectorOperators.SUB;
+			case MULTIPLY -> VectorOperators.MUL;
+			case DIVIDE -> VectorOperators.DIV;
+		};
+	}
+
+	static float apply( Operation op, float a, float b ) {
+		return switch (op) {
+			case PLUS -> a + b;
+			case MINUS -> a - b;
+			case MULTIPLY -> a*b;
+			case DIVIDE -> a/b;
+		};
+	}
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.vector;
+
+import boofcv.alg.color.BOverrideColorRgb;
+import boofcv.alg.color.BOverrideColorYuv;
+import boofcv.alg.filter.convolve.BOverrideConvolveImage;
+import boofcv.alg.filter.convolve.BOverrideConvolveImageMean;
+import boofcv.alg.filter.convolve.BOverrideConvolveImageNormalized;
+import boofcv.alg.misc.BOverridePixelMath;
+import boofcv.alg.misc.BOverridePixelMath.Operation;
+import boofcv.alg.transform.census.BOverrideCensusTransform;
+import boofcv.override.BOverrideProvider;
+import boofcv.struct.border.ImageBorder;
+import boofcv.struct.border.ImageBorder_F32;
+import boofcv.struct.convolve.Kernel1D;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.image.*;
+import jdk.incubator.vector.FloatVector;
+
+/**
+ * Registers the Vector API implementations with BoofCV's override hooks. This is done automatically by
+ * {@link boofcv.override.BOverrideManager} when this module is on the class path, or it can be done manually by
+ * calling {@link #register()}. The following are accelerated: single band {@link GrayF32} images, planar F32
+ * color images with 3 bands, and the {@link GrayU8} census transform. Each hook's supports() function returns
+ * false for every other input, so BoofCV falls back to its own implementation.
+ *
+ * @author Peter Abeles
+ */
+public class VectorOverrideProvider implements BOverrideProvider {
+	/** Mean filters with a box larger than this use BoofCV's running sum instead */
+	public static int MAX_MEAN_HORIZONTAL = 16;
+
+	/**
+	 * Returns true if the vector module is available and the hardware has vector registers which are wide
+	 * enough to be worth using.
+	 */
+	public static boolean isSupported() {
+		try {
+			return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent() &&
+					FloatVector.SPECIES_PREFERRED.length() >= 4;
+		} catch (LinkageError ignore) {
+			return false;
+		}
+	}
+
+	@Override public void register() {
+		if (!isSupported())
+			return;
+
+		BOverrideConvolveImage.horizontal = new BOverrideConvolveImage.Horizontal() {
+			@Override
+			public boolean supports( Kernel1D kernel, ImageBase input, ImageBase output, ImageBorder border ) {
+				return kernel instanceof Kernel1D_F32 && input instanceof GrayF32 &&
+						border instanceof ImageBorder_F32 && kernel.width <= input.width;
+			}
+
+			@Override
+			public void horizontal( Kernel1D kernel, ImageBase input, ImageBase output, ImageBorder border ) {
+				ConvolveVector_F32.horizontal((Kernel1D_F32)kernel, (GrayF32)input, (GrayF32)output,
+						(ImageBorder_F32)border);
+			}
+		};
+		BOverrideConvolveImage.vertical = new BOverrideConvolveImage.Vertical() {
+			@Override
+			public boolean supports( Kernel1D kernel, ImageBase input, ImageBase output, ImageBorder border ) {
+				return kernel instanceof Kernel1D_F32 && input instanceof GrayF32 &&
+						border instanceof ImageBorder_F32 && kernel.width <= input.height;
+			}
+
+			@Override
+			public void vertical( Kernel1D kernel, ImageBase input, ImageBase output, ImageBorder border ) {
+				ConvolveVector_F32.vertical((Kernel1D_F32)kernel, (GrayF32)input, (GrayF32)output,
+						(ImageBorder_F32)border);
+			}
+		};
+		BOverrideConvolveImageNormalized.horizontal = new BOverrideConvolveImageNormalized.Horizontal() {
+			@Override
+			public boolean supports( Kernel1D kernel, ImageBase input, ImageBase output ) {
+				return kernel instanceof Kernel1D_F32 && input instanceof GrayF32 && kernel.width < input.width;
+			}
+
+			@Override
+			public void horizontal( Kernel1D kernel, ImageBase input, ImageBase output ) {
+				ConvolveVector_F32.horizontalNormalized((Kernel1D_F32)kernel, (GrayF32)input, (GrayF32)output);
+			}
+		};
+		BOverrideConvolveImageNormalized.vertical = new BOverrideConvolveImageNormalized.Vertical() {
+			@Override
+			public boolean supports( Kernel1D kernel, ImageBase input, ImageBase output ) {
+				return kernel instanceof Kernel1D_F32 && input instanceof GrayF32 && kernel.width < input.height;
+			}
+
+			@Override
+			public void vertical( Kernel1D kernel, ImageBase input, ImageBase output ) {
+				ConvolveVector_F32.verticalNormalized((Kernel1D_F32)kernel, (GrayF32)input, (GrayF32)output);
+			}
+		};
+		BOverrideConvolveImageMean.horizontal = new BOverrideConvolveImageMean.Horizontal() {
+			@Override
+			public boolean supports( ImageBase input, ImageBase output, int offset, int length ) {
+				return input instanceof GrayF32 && length <= input.width && length <= MAX_MEAN_HORIZONTAL;
+			}
+
+			@Override
+			public void horizontal( ImageBase input, ImageBase output, int offset, int length ) {
+				ConvolveVector_F32.horizontalMean((GrayF32)input, (GrayF32)output, offset, length, MAX_MEAN_HORIZONTAL);
+			}
+		};
+		BOverrideConvolveImageMean.vertical = new BOverrideConvolveImageMean.Vertical() {
+			@Override
+			public boolean supports( ImageBase input, ImageBase output, int offset, int length ) {
+				return input instanceof GrayF32 && length <= input.height;
+			}
+
+			@Override
+			public void vertical( ImageBase input, ImageBase output, int offset, int length ) {
+				ConvolveVector_F32.verticalMean((GrayF32)input, (GrayF32)output, offset, length);
+			}
+		};
+		BOverridePixelMath.scalar = new BOverridePixelMath.Scalar() {
+			@Override
+			public boolean supports( Operation op, ImageBase input, double value, ImageBase output ) {
+				return input instanceof GrayF32 && output instanceof GrayF32;
+			}
+
+			@Override
+			public void scalar( Operation op, ImageBase input, double value, ImageBase output ) {
+				PixelMathVector_F32.scalar(op, (GrayF32)input, (float)value, (GrayF32)output);
+			}
+		};
+		BOverridePixelMath.twoImages = new BOverridePixelMath.TwoImages() {
+			@Override
+			public boolean supports( Operation op, ImageBase imgA, ImageBase imgB, ImageBase output ) {
+				return imgA instanceof GrayF32 && imgB instanceof GrayF32 && output instanceof GrayF32;
+			}
+
+			@Override
+			public void twoImages( Operation op, ImageBase imgA, ImageBase imgB, ImageBase output ) {
+				PixelMathVector_F32.twoImages(op, (GrayF32)imgA, (GrayF32)imgB, (GrayF32)output);
+			}
+		};
+		BOverrideColorRgb.rgbToGray = new BOverrideColorRgb.RgbToGray() {
+			@Override
+			public boolean supports( ImageMultiBand rgb, ImageGray gray ) {
+				return isPlanarF32(rgb) && gray instanceof GrayF32;
+			}
+
+			@Override
+			public void rgbToGray_Weighted( ImageMultiBand rgb, ImageGray gray ) {
+				ColorVector_F32.rgbToGray_Weighted(castF32(rgb), (GrayF32)gray);
+			}
+		};
+		BOverrideColorYuv.yuvToRgb = new BOverrideColorYuv.YuvToRgb() {
+			@Override
+			public boolean supports( Planar yuv, Planar rgb ) {
+				return isPlanarF32(yuv) && isPlanarF32(rgb);
+			}
+
+			@Override
+			public void yuvToRgb( Planar yuv, Planar rgb ) {
+				ColorVector_F32.yuvToRgb(castF32(yuv), castF32(rgb));
+			}
+		};
+		BOverrideColorYuv.rgbToYuv = new BOverrideColorYuv.RgbToYuv() {
+			@Override
+			public boolean supports( Planar rgb, Planar yuv ) {
+				return isPlanarF32(rgb) && isPlanarF32(yuv);
+			}
+
+			@Override
+			public void rgbToYuv( Planar rgb, Planar yuv ) {
+				ColorVector_F32.rgbToYuv(castF32(rgb), castF32(yuv));
+			}
+		};
+		BOverrideCensusTransform.dense3x3 = new BOverrideCensusTransform.Dense3x3() {
+			@Override
+			public boolean supports( ImageGray input, GrayU8 output ) {
+				return input instanceof GrayU8;
+			}
+
+			@Override
+			public void dense3x3( ImageGray input, GrayU8 output ) {
+				CensusVector_U8.dense3x3((GrayU8)input, output);
+			}
+		};
+	}
+
+	/**
+	 * Removes all the hooks which were set by {@link #register()}
+	 */
+	public static void unregister() {
+		BOverrideConvolveImage.horizontal = null;
+		BOverrideConvolveImage.vertical = null;
+		BOverrideConvolveImageNormalized.horizontal = null;
+		BOverrideConvolveImageNormalized.vertical = null;
+		BOverrideConvolveImageMean.horizontal = null;
+		BOverrideConvolveImageMean.vertical = null;
+		BOverridePixelMath.scalar = null;
+		BOverridePixelMath.twoImages = null;
+		BOverrideColorRgb.rgbToGray = null;
+		BOverrideColorYuv.yuvToRgb = null;
+		BOverrideColorYuv.rgbToYuv = null;
+		BOverrideCensusTransform.dense3x3 = null;
+	}
+
+	private static boolean isPlanarF32( Object image ) {
+		if (!(image instanceof Planar))
+			return false;
+		Planar<?> planar = (Planar<?>)image;
+		return planar.getNumBands() == 3 && planar.getImageType().getDataType() == ImageDataType.F32;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Planar<GrayF32> castF32( Object image ) {
+		return (Planar<GrayF32>)image;
+	}
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.vector;
+
+import boofcv.concurrency.BoofConcurrency;
+import pabeles.concurrency.IntRangeConsumer;
+
+/**
+ * Functions shared by the vector implementations
+ *
+ * @author Peter Abeles
+ */
+class VectorUtils {
+	/**
+	 * Processes the rows in the range [y0, y1). If the image is large enough and concurrency is turned on
+	 * then the rows are split between threads.
+	 *
+	 * @param width Number of pixels in a row
+	 */
+	static void rows( int y0, int y1, int width, IntRangeConsumer op ) {
+		if (y1 <= y0)
+			return;
+		if (BoofConcurrency.isUseConcurrent() && (y1 - y0)*width >= BoofConcurrency.getSmallImage()) {
+			BoofConcurrency.loopBlocks(y0, y1, op);
+		} else {
+			op.accept(y0, y1);
+		}
+	}
+}
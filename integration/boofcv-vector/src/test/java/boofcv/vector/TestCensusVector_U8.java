@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.vector;
+
+import boofcv.BoofTesting;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.transform.census.CensusTransform;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class TestCensusVector_U8 extends BoofStandardJUnit {
+	@BeforeEach void before() {
+		assumeTrue(VectorOverrideProvider.isSupported());
+		VectorOverrideProvider.unregister();
+	}
+
+	/**
+	 * Compare the inner image to BoofCV's implementation. Values span the full range to catch signed
+	 * comparison bugs.
+	 */
+	@Test void dense3x3() {
+		for (int width : new int[]{5, 71, 140}) {
+			var input = new GrayU8(width, 35);
+			ImageMiscOps.fillUniform(input, rand, 0, 256);
+
+			var expected = new GrayU8(width, 35);
+			var found = new GrayU8(width, 35);
+
+			CensusTransform.dense3x3(input, expected, null);
+			CensusVector_U8.dense3x3(input, found);
+
+			BoofTesting.assertEqualsInner(expected, found, 0, 1, 1, false);
+		}
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.vector;
+
+import boofcv.BoofTesting;
+import boofcv.alg.color.ColorRgb;
+import boofcv.alg.color.ColorYuv;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.Planar;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class TestColorVector_F32 extends BoofStandardJUnit {
+	int width = 43, height = 31;
+
+	Planar<GrayF32> input = new Planar<>(GrayF32.class, width, height, 3);
+	Planar<GrayF32> expected = new Planar<>(GrayF32.class, width, height, 3);
+	Planar<GrayF32> found = new Planar<>(GrayF32.class, width, height, 3);
+
+	@BeforeEach void before() {
+		assumeTrue(VectorOverrideProvider.isSupported());
+		VectorOverrideProvider.unregister();
+		GImageMiscOps.fillUniform(input, rand, 0, 255);
+	}
+
+	@Test void rgbToGray_Weighted() {
+		var expectedGray = new GrayF32(width, height);
+		var foundGray = new GrayF32(width, height);
+
+		ColorRgb.rgbToGray_Weighted(input, expectedGray);
+		ColorVector_F32.rgbToGray_Weighted(input, foundGray);
+		BoofTesting.assertEquals(expectedGray, foundGray, 1e-3);
+	}
+
+	@Test void yuvToRgb() {
+		ColorYuv.yuvToRgb(input, expected);
+		ColorVector_F32.yuvToRgb(input, found);
+		BoofTesting.assertEquals(expected, found, 1e-3);
+	}
+
+	@Test void rgbToYuv() {
+		ColorYuv.rgbToYuv(input, expected);
+		ColorVector_F32.rgbToYuv(input, found);
+		BoofTesting.assertEquals(expected, found, 1e-3);
+
+		// Input and output can be the same image
+		ColorVector_F32.rgbToYuv(input, input);
+		BoofTesting.assertEquals(expected, input, 1e-3);
+	}
+}
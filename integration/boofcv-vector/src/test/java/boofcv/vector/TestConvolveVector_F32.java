@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.vector;
+
+import boofcv.BoofTesting;
+import boofcv.alg.filter.convolve.BOverrideConvolveImageNormalized;
+import boofcv.alg.filter.convolve.ConvolveImage;
+import boofcv.alg.filter.convolve.ConvolveImageMean;
+import boofcv.alg.filter.convolve.ConvolveImageNoBorder;
+import boofcv.alg.filter.convolve.ConvolveImageNormalized;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.ConcurrencyContext;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.factory.filter.kernel.FactoryKernel;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.border.ImageBorder_F32;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.convolve.Kernel1D_S32;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class TestConvolveVector_F32 extends BoofStandardJUnit {
+	// odd sizes so that the scalar code at the end of each row is exercised
+	int width = 43, height = 31;
+
+	GrayF32 input = new GrayF32(width, height);
+	GrayF32 expected = new GrayF32(width, height);
+	GrayF32 found = new GrayF32(width, height);
+
+	@BeforeEach void before() {
+		assumeTrue(VectorOverrideProvider.isSupported());
+		VectorOverrideProvider.unregister();
+		ImageMiscOps.fillUniform(input, rand, -10, 10);
+	}
+
+	@Test void noBorder() {
+		for (int offset = 0; offset < 5; offset++) {
+			Kernel1D_F32 kernel = FactoryKernel.random1D_F32(5, offset, -1, 1, rand);
+
+			ConvolveImageNoBorder.horizontal(kernel, input, expected);
+			ConvolveVector_F32.horizontal(kernel, input, found);
+			BoofTesting.assertEquals(expected, found, 0.0);
+
+			ConvolveImageNoBorder.vertical(kernel, input, expected);
+			ConvolveVector_F32.vertical(kernel, input, found);
+			BoofTesting.assertEquals(expected, found, 0.0);
+		}
+	}
+
+	@Test void border() {
+		ImageBorder_F32 border = FactoryImageBorder.single(BorderType.REFLECT, GrayF32.class);
+		Kernel1D_F32 kernel = FactoryKernel.random1D_F32(7, 2, -1, 1, rand);
+
+		ConvolveImage.horizontal(kernel, input, expected, border);
+		ConvolveVector_F32.horizontal(kernel, input, found, border);
+		BoofTesting.assertEquals(expected, found, 1e-4);
+
+		ConvolveImage.vertical(kernel, input, expected, border);
+		ConvolveVector_F32.vertical(kernel, input, found, border);
+		BoofTesting.assertEquals(expected, found, 1e-4);
+	}
+
+	@Test void normalized() {
+		Kernel1D_F32 kernel = FactoryKernel.random1D_F32(7, 3, 0, 1, rand);
+
+		ConvolveImageNormalized.horizontal(kernel, input, expected);
+		ConvolveVector_F32.horizontalNormalized(kernel, input, found);
+		BoofTesting.assertEquals(expected, found, 1e-4);
+
+		ConvolveImageNormalized.vertical(kernel, input, expected);
+		ConvolveVector_F32.verticalNormalized(kernel, input, found);
+		BoofTesting.assertEquals(expected, found, 1e-4);
+	}
+
+	@Test void mean() {
+		for (int length : new int[]{1, 4, 9}) {
+			int offset = length/2;
+			ConvolveImageMean.horizontal(input, expected, offset, length);
+			ConvolveVector_F32.horizontalMean(input, found, offset, length, 16);
+			BoofTesting.assertEquals(expected, found, 1e-4);
+
+			ConvolveImageMean.vertical(input, expected, offset, length, null);
+			ConvolveVector_F32.verticalMean(input, found, offset, length);
+			BoofTesting.assertEquals(expected, found, 1e-4);
+		}
+	}
+
+	/**
+	 * Make sure the hooks are used by ConvolveImage and give the same results
+	 */
+	@Test void registeredHooks() {
+		Kernel1D_F32 kernel = FactoryKernel.random1D_F32(5, 2, 0, 1, rand);
+		ConvolveImageNormalized.horizontal(kernel, input, expected);
+
+		try {
+			new VectorOverrideProvider().register();
+			ConvolveImageNormalized.horizontal(kernel, input, found);
+		} finally {
+			VectorOverrideProvider.unregister();
+		}
+		BoofTesting.assertEquals(expected, found, 1e-4);
+	}
+
+	/**
+	 * Images large enough that rows are split between threads. Should give the same results as BoofCV.
+	 */
+	@Test void concurrent() {
+		GrayF32 input = new GrayF32(120, 110);
+		GrayF32 expected = input.createSameShape();
+		GrayF32 found = input.createSameShape();
+		ImageMiscOps.fillUniform(input, rand, -10, 10);
+
+		// Make sure the concurrent code will be used
+		assertTrue(input.width*input.height >= BoofConcurrency.getSmallImage());
+
+		Kernel1D_F32 kernel = FactoryKernel.random1D_F32(7, 3, 0, 1, rand);
+
+		try (var context = ConcurrencyContext.forkJoin(3)) {
+			context.run(() -> {
+				ConvolveImageNoBorder.horizontal(kernel, input, expected);
+				ConvolveVector_F32.horizontal(kernel, input, found);
+				BoofTesting.assertEquals(expected, found, 0.0);
+
+				ConvolveImageNoBorder.vertical(kernel, input, expected);
+				ConvolveVector_F32.vertical(kernel, input, found);
+				BoofTesting.assertEquals(expected, found, 0.0);
+
+				ConvolveImageNormalized.horizontal(kernel, input, expected);
+				ConvolveVector_F32.horizontalNormalized(kernel, input, found);
+				BoofTesting.assertEquals(expected, found, 1e-4);
+
+				ConvolveImageMean.vertical(input, expected, 4, 9, null);
+				ConvolveVector_F32.verticalMean(input, found, 4, 9);
+				BoofTesting.assertEquals(expected, found, 1e-4);
+			});
+		}
+	}
+
+	/**
+	 * Inputs which the vector code can't handle should be rejected before the hook is called
+	 */
+	@Test void supports() {
+		try {
+			new VectorOverrideProvider().register();
+			BOverrideConvolveImageNormalized.Horizontal hook = BOverrideConvolveImageNormalized.horizontal;
+			assertNotNull(hook);
+
+			Kernel1D_F32 kernel = FactoryKernel.random1D_F32(5, 2, 0, 1, rand);
+			assertTrue(hook.supports(kernel, input, found));
+
+			// wrong image type
+			Kernel1D_S32 kernelI = FactoryKernel.random1D_I32(5, 2, 0, 10, rand);
+			assertFalse(hook.supports(kernelI, new GrayU8(width, height), new GrayU8(width, height)));
+
+			// kernel is too wide
+			Kernel1D_F32 wide = FactoryKernel.random1D_F32(width + 1, 2, 0, 1, rand);
+			assertFalse(hook.supports(wide, input, found));
+		} finally {
+			VectorOverrideProvider.unregister();
+		}
+	}
+}
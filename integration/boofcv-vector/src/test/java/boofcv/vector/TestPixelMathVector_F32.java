@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.vector;
+
+import boofcv.BoofTesting;
+import boofcv.alg.misc.BOverridePixelMath.Operation;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.misc.PixelMath;
+import boofcv.struct.image.GrayF32;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class TestPixelMathVector_F32 extends BoofStandardJUnit {
+	int width = 43, height = 31;
+
+	GrayF32 imgA = new GrayF32(width, height);
+	GrayF32 imgB = new GrayF32(width, height);
+	GrayF32 expected = new GrayF32(width, height);
+	GrayF32 found = new GrayF32(width, height);
+
+	@BeforeEach void before() {
+		assumeTrue(VectorOverrideProvider.isSupported());
+		VectorOverrideProvider.unregister();
+		ImageMiscOps.fillUniform(imgA, rand, -10, 10);
+		ImageMiscOps.fillUniform(imgB, rand, 1, 10);
+	}
+
+	@Test void scalar() {
+		float value = 2.5f;
+		PixelMath.plus(imgA, value, expected);
+		PixelMathVector_F32.scalar(Operation.PLUS, imgA, value, found);
+		BoofTesting.assertEquals(expected, found, 0.0);
+
+		PixelMath.minus(imgA, value, expected);
+		PixelMathVector_F32.scalar(Operation.MINUS, imgA, value, found);
+		BoofTesting.assertEquals(expected, found, 0.0);
+
+		PixelMath.multiply(imgA, value, expected);
+		PixelMathVector_F32.scalar(Operation.MULTIPLY, imgA, value, found);
+		BoofTesting.assertEquals(expected, found, 0.0);
+
+		PixelMath.divide(imgA, value, expected);
+		PixelMathVector_F32.scalar(Operation.DIVIDE, imgA, value, found);
+		BoofTesting.assertEquals(expected, found, 0.0);
+	}
+
+	@Test void twoImages() {
+		PixelMath.add(imgA, imgB, expected);
+		PixelMathVector_F32.twoImages(Operation.PLUS, imgA, imgB, found);
+		BoofTesting.assertEquals(expected, found, 0.0);
+
+		PixelMath.subtract(imgA, imgB, expected);
+		PixelMathVector_F32.twoImages(Operation.MINUS, imgA, imgB, found);
+		BoofTesting.assertEquals(expected, found, 0.0);
+
+		PixelMath.multiply(imgA, imgB, expected);
+		PixelMathVector_F32.twoImages(Operation.MULTIPLY, imgA, imgB, found);
+		BoofTesting.assertEquals(expected, found, 0.0);
+
+		PixelMath.divide(imgA, imgB, expected);
+		PixelMathVector_F32.twoImages(Operation.DIVIDE, imgA, imgB, found);
+		BoofTesting.assertEquals(expected, found, 0.0);
+	}
+
+	/**
+	 * Input and output are the same image
+	 */
+	@Test void inPlace() {
+		PixelMath.multiply(imgA, imgB, expected);
+		PixelMathVector_F32.twoImages(Operation.MULTIPLY, imgA, imgB, imgA);
+		BoofTesting.assertEquals(expected, imgA, 0.0);
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -23,6 +23,7 @@ import boofcv.abst.feature.associate.ScoreAssociation;
 import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.associate.ConfigAssociateGreedy;
 import boofcv.factory.feature.associate.FactoryAssociation;
+import boofcv.struct.feature.TupleDesc_F32;
 import boofcv.struct.feature.TupleDesc_F64;
 import org.ddogleg.struct.DogArray;
 import org.openjdk.jmh.annotations.*;
@@ -62,6 +63,11 @@ public class BenchmarkAssociationSpeedRandom {
 	AssociateDescription<TupleDesc_F64> kdtree;
 	AssociateDescription<TupleDesc_F64> forest;
 
+	// Same descriptors stored as floats to see the effect of halving memory
+	DogArray<TupleDesc_F32> listA_F32, listB_F32;
+	AssociateDescription<TupleDesc_F32> greedy_F32;
+	AssociateDescription<TupleDesc_F32> kdtree_F32;
+
 	@Setup public void setup() {
 		BoofConcurrency.USE_CONCURRENT = concurrent;
 
@@ -72,6 +78,12 @@ public class BenchmarkAssociationSpeedRandom {
 		greedyBackwards = FactoryAssociation.greedy(new ConfigAssociateGreedy(true), score);
 		kdtree = FactoryAssociation.kdtree(null, DOF);
 		forest = FactoryAssociation.kdRandomForest(null, DOF, 15, 5, 1233445565);
+
+		listA_F32 = convert(listA);
+		listB_F32 = convert(listB);
+		greedy_F32 = FactoryAssociation.greedy(new ConfigAssociateGreedy(false),
+				FactoryAssociation.scoreEuclidean(TupleDesc_F32.class, true));
+		kdtree_F32 = FactoryAssociation.kdtree(null, DOF, TupleDesc_F32.class);
 	}
 
 	@Benchmark public void greedy() {
@@ -98,6 +110,29 @@ public class BenchmarkAssociationSpeedRandom {
 		kdtree.associate();
 	}
 
+	@Benchmark public void greedy_F32() {
+		greedy_F32.setSource(listA_F32);
+		greedy_F32.setDestination(listB_F32);
+		greedy_F32.associate();
+	}
+
+	@Benchmark public void kdtree_F32() {
+		kdtree_F32.setSource(listA_F32);
+		kdtree_F32.setDestination(listB_F32);
+		kdtree_F32.associate();
+	}
+
+	private DogArray<TupleDesc_F32> convert( DogArray<TupleDesc_F64> src ) {
+		DogArray<TupleDesc_F32> ret = new DogArray<>(() -> new TupleDesc_F32(DOF));
+		for (int i = 0; i < src.size; i++) {
+			TupleDesc_F32 t = ret.grow();
+			for (int j = 0; j < DOF; j++) {
+				t.data[j] = (float)src.get(i).data[j];
+			}
+		}
+		return ret;
+	}
+
 	private DogArray<TupleDesc_F64> createSet( Random rand ) {
 		DogArray<TupleDesc_F64> ret = new DogArray<>(() -> new TupleDesc_F64(DOF));
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -24,6 +24,9 @@ import boofcv.alg.interpolate.InterpolateRectangle;
 import boofcv.alg.tracker.PruneCloseTracks;
 import boofcv.alg.tracker.klt.*;
 import boofcv.alg.transform.pyramid.PyramidOps;
+import boofcv.misc.MetricsPublisher;
+import boofcv.misc.MetricsRecorder;
+import boofcv.misc.MetricsRegistry;
 import boofcv.struct.ConfigLength;
 import boofcv.struct.QueueCorner;
 import boofcv.struct.image.ImageGray;
@@ -48,7 +51,7 @@ import static boofcv.abst.tracker.PointTrackerUtils.declareTrackStorage;
  */
 @SuppressWarnings({"NullAway.Init"})
 public class PointTrackerKltPyramid<I extends ImageGray<I>, D extends ImageGray<D>>
-		implements PointTracker<I> {
+		implements PointTracker<I>, MetricsPublisher {
 	// If this is a positive number it specifies the maximum number of allowed tracks
 	public @Getter @Setter ConfigLength configMaxTracks = ConfigLength.fixed(0);
 	// The actual maximum after considering the number of pixels
@@ -98,6 +101,10 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>, D extends ImageGray<
 
 	// Used to prune points close by
 	PruneCloseTracks<PyramidKltFeature> pruneClose;
+
+	// Publishes the time each stage takes when tracking and spawning
+	protected final MetricsRecorder metrics = new MetricsRecorder("klt");
+	protected final MetricsRecorder metricsSpawn = new MetricsRecorder("klt_spawn");
 	List<PyramidKltFeature> closeDropped = new ArrayList<>();
 
 	/**
@@ -224,6 +231,7 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>, D extends ImageGray<
 
 	@Override
 	public void spawnTracks() {
+		metricsSpawn.begin();
 		spawned.clear();
 
 		tracker.setImage(currPyr.basePyramid, currPyr.derivX, currPyr.derivY);
@@ -245,16 +253,22 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>, D extends ImageGray<
 		actualMaxTracks = configMaxTracks.computeI(baseLayer.totalPixels());
 		if (actualMaxTracks > 0) {
 			int limit = actualMaxTracks - excludeList.size;
-			if (limit <= 0)
+			if (limit <= 0) {
+				metricsSpawn.end();
 				return;
+			}
 			detector.setFeatureLimit(actualMaxTracks - excludeList.size);
 		} else
 			detector.setFeatureLimit(-1);
 		detector.process(baseLayer, currPyr.derivX[0], currPyr.derivY[0], null, null, null);
+		metricsSpawn.stage("detect");
 
 		// Create new tracks from the detected features
 		addToTracks(scaleBottom, detector.getMinimums());
 		addToTracks(scaleBottom, detector.getMaximums());
+		metricsSpawn.stage("add");
+		metricsSpawn.count("spawned", spawned.size());
+		metricsSpawn.end();
 	}
 
 	@Override public ImageType<I> getImageType() {
@@ -312,6 +326,7 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>, D extends ImageGray<
 
 	@Override
 	public void process( I image ) {
+		metrics.begin();
 		this.input = image;
 		this.frameID++;
 
@@ -328,9 +343,11 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>, D extends ImageGray<
 
 		// update image pyramids
 		currPyr.update(image);
+		metrics.stage("pyramid");
 
 		// track features
 		trackFeatures(image);
+		metrics.stage("track");
 
 		if (toleranceFB >= 0) {
 			// If there are no tracks it must have been reset or this is the first frame
@@ -339,12 +356,22 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>, D extends ImageGray<
 			} else {
 				this.prevPyr.update(image);
 			}
+			metrics.stage("backwards");
 		}
 
 		// If configured to, drop features which are close by each other
 		if (pruneClose != null) {
 			pruneCloseTracks();
+			metrics.stage("prune");
 		}
+		metrics.count("active", active.size());
+		metrics.count("dropped", dropped.size());
+		metrics.end();
+	}
+
+	@Override public void setMetrics( @Nullable MetricsRegistry registry ) {
+		metrics.setRegistry(registry);
+		metricsSpawn.setRegistry(registry);
 	}
 
 	/**
@@ -0,0 +1,367 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.background.stationary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.FactoryGImageGray;
+import boofcv.core.image.GImageGray;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.ImageType;
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_I32;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>
+ * Background model for many stationary cameras (streams) at once. The models for every stream are kept inside
+ * of a single array and a batch of frames, one from each stream, is processed in a single parallel pass. Rows from
+ * all the frames in a batch are divided between the threads, which scales much better than processing each small
+ * frame with its own concurrent loop. Algorithms are the same as the single stream gray scale implementations,
+ * e.g. {@link BackgroundStationaryGmm_SB}, but each stream can have its own learning rate.
+ * </p>
+ *
+ * <p>
+ * When updating, the segmented image is computed using the model before it's updated. Pixels without a model,
+ * e.g. the first frame in a stream, are assigned the unknown value.
+ * </p>
+ *
+ * <p>
+ * Each stream can have an optional mask, see {@link #setStreamMask}. Pixels with a mask value of zero are ignored.
+ * Their model isn't updated and they are assigned the unknown value when segmented.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public abstract class BackgroundMultiStream<T extends ImageGray<T>> {
+	/** Type of input image */
+	@Getter protected final ImageType<T> imageType;
+
+	// value assigned to pixels outside the image. Default to 0, which is background
+	protected byte unknownValue = 0;
+
+	/** Information on each stream */
+	protected final DogArray<Stream> streams = new DogArray<>(Stream::new);
+
+	/** Background models for all the streams. Each stream is a single block. See {@link Stream#offset} */
+	protected float[] store = new float[0];
+
+	// Number of elements in use inside the store
+	protected int storeSize = 0;
+
+	// Streams being processed in the current batch and the first row of each in the combined list of rows
+	protected final DogArray_I32 active = new DogArray_I32();
+	protected final DogArray_I32 activeRow0 = new DogArray_I32();
+
+	/** Learning rate assigned to new streams if one isn't specified */
+	@Getter @Setter protected float defaultLearnRate;
+
+	protected BackgroundMultiStream( float defaultLearnRate, ImageType<T> imageType ) {
+		if (imageType.getFamily() != ImageType.Family.GRAY)
+			throw new IllegalArgumentException("Only single band images are supported");
+		this.defaultLearnRate = defaultLearnRate;
+		this.imageType = imageType;
+	}
+
+	/**
+	 * Adds a new stream which uses the default learning rate
+	 *
+	 * @see #addStream(int, int, float)
+	 */
+	public int addStream( int width, int height ) {
+		return addStream(width, height, defaultLearnRate);
+	}
+
+	/**
+	 * Adds a new stream
+	 *
+	 * @param width Width of images in the stream
+	 * @param height Height of images in the stream
+	 * @param learnRate How quickly the background model is updated. See implementation for details.
+	 * @return ID of the stream. Streams are numbered in the order they are added.
+	 */
+	public int addStream( int width, int height, float learnRate ) {
+		int numFloats = width*height*floatsPerPixel();
+		if (storeSize + numFloats > store.length) {
+			store = Arrays.copyOf(store, Math.max(storeSize + numFloats, store.length*2));
+		}
+
+		// The store is reused after a reset and might contain the model from an old stream
+		Arrays.fill(store, storeSize, storeSize + numFloats, 0.0f);
+
+		Stream s = streams.grow();
+		s.index = streams.size - 1;
+		s.width = width;
+		s.height = height;
+		s.offset = storeSize;
+		s.learnRate = learnRate;
+		s.initialized = false;
+		s.mask = null;
+		s.input = FactoryGImageGray.create(imageType.getImageClass());
+		storeSize += numFloats;
+		return streams.size - 1;
+	}
+
+	/**
+	 * Discards the background model for one stream. It will be initialized again with the next frame.
+	 */
+	public void resetStream( int stream ) {
+		Stream s = streams.get(stream);
+		s.initialized = false;
+		Arrays.fill(store, s.offset, s.offset + s.width*s.height*floatsPerPixel(), 0.0f);
+	}
+
+	/**
+	 * Specifies which pixels in a stream are processed. Pixels with a value of zero are ignored, their model isn't
+	 * updated and they are assigned the unknown value when segmented. The mask is copied.
+	 *
+	 * @param stream ID of the stream
+	 * @param mask Mask with the same shape as the stream. If null then every pixel is processed.
+	 */
+	public void setStreamMask( int stream, @Nullable GrayU8 mask ) {
+		Stream s = streams.get(stream);
+		if (mask == null) {
+			s.mask = null;
+			return;
+		}
+		if (mask.width != s.width || mask.height != s.height)
+			throw new IllegalArgumentException("Mask doesn't match the stream's shape. stream=" + stream);
+		GrayU8 copy = s.mask == null ? new GrayU8(1, 1) : s.mask;
+		copy.setTo(mask);
+		s.mask = copy;
+	}
+
+	/**
+	 * Removes all streams
+	 */
+	public void reset() {
+		streams.reset();
+		storeSize = 0;
+	}
+
+	/**
+	 * Updates the background models for every stream in the batch. If 'segmented' is not null then the frames
+	 * are also segmented, using the model from before the update.
+	 *
+	 * @param frames (Input) Frame for each stream. The index is the stream ID. A null element skips that stream.
+	 * @param segmented (Output) Optional segmented image for each stream. 0 = background, 1 = moving.
+	 */
+	public void updateBackground( List<@Nullable T> frames, @Nullable List<GrayU8> segmented ) {
+		process(frames, segmented, true);
+	}
+
+	/**
+	 * Segments every frame in the batch without changing the background models.
+	 *
+	 * @param frames (Input) Frame for each stream. The index is the stream ID. A null element skips that stream.
+	 * @param segmented (Output) Segmented image for each stream. 0 = background, 1 = moving.
+	 */
+	public void segment( List<@Nullable T> frames, List<GrayU8> segmented ) {
+		process(frames, segmented, false);
+	}
+
+	private void process( List<@Nullable T> frames, @Nullable List<GrayU8> segmented, boolean update ) {
+		if (frames.size() > streams.size)
+			throw new IllegalArgumentException("More frames than streams");
+		if (segmented != null && segmented.size() < frames.size())
+			throw new IllegalArgumentException("Each frame must have a segmented image");
+
+		// Decide which streams need to be processed and handle special cases
+		active.reset();
+		activeRow0.reset();
+		int totalRows = 0;
+		int totalPixels = 0;
+		for (int streamID = 0; streamID < frames.size(); streamID++) {
+			T frame = frames.get(streamID);
+			if (frame == null)
+				continue;
+			Stream s = streams.get(streamID);
+			if (frame.width != s.width || frame.height != s.height)
+				throw new IllegalArgumentException("Frame doesn't match the stream's shape. stream=" + streamID);
+
+			@Nullable GrayU8 seg = segmented == null ? null : segmented.get(streamID);
+			if (seg != null)
+				seg.reshape(frame.width, frame.height);
+
+			if (!s.initialized) {
+				// There's no model to segment with. The first frame might be used to initialize the model
+				boolean consumed = !update || initialize(s, frame);
+				s.initialized |= update;
+				if (consumed) {
+					if (seg != null)
+						ImageMiscOps.fill(seg, unknownValue);
+					continue;
+				}
+			}
+
+			s.input.wrap(frame);
+			prepareStream(streamID, s);
+			active.add(streamID);
+			activeRow0.add(totalRows);
+			totalRows += frame.height;
+			totalPixels += frame.width*frame.height;
+		}
+
+		if (totalRows == 0)
+			return;
+
+		if (BoofConcurrency.isUseConcurrent() && totalPixels >= BoofConcurrency.getSmallImage()) {
+			BoofConcurrency.loopBlocks(0, totalRows, ( row0, row1 ) ->
+					processRows(row0, row1, frames, segmented, update));
+		} else {
+			processRows(0, totalRows, frames, segmented, update);
+		}
+	}
+
+	/**
+	 * Processes a range of rows from the combined list of rows from all active streams
+	 */
+	private void processRows( int row0, int row1, List<@Nullable T> frames,
+							  @Nullable List<GrayU8> segmented, boolean update ) {
+		// Find the stream the first row belongs to
+		int idx = Arrays.binarySearch(activeRow0.data, 0, activeRow0.size, row0);
+		if (idx < 0)
+			idx = -idx - 2;
+
+		int row = row0;
+		while (row < row1) {
+			int streamID = active.get(idx);
+			Stream s = streams.get(streamID);
+			T frame = frames.get(streamID);
+			@Nullable GrayU8 seg = segmented == null ? null : segmented.get(streamID);
+			int streamRow0 = activeRow0.get(idx);
+			int y1 = Math.min(row1 - streamRow0, s.height);
+
+			@Nullable GrayU8 mask = s.mask;
+			for (int y = row - streamRow0; y < y1; y++) {
+				if (update)
+					updateRow(s, Objects.requireNonNull(frame), y, seg);
+				else
+					segmentRow(s, Objects.requireNonNull(frame), y, Objects.requireNonNull(seg));
+				if (mask != null && seg != null)
+					maskRow(mask, seg, y);
+			}
+			row = streamRow0 + y1;
+			idx++;
+		}
+	}
+
+	/**
+	 * Assigns the unknown value to pixels in the row which are not inside the mask
+	 */
+	private void maskRow( GrayU8 mask, GrayU8 segmented, int y ) {
+		int indexMask = mask.startIndex + y*mask.stride;
+		int indexSegmented = segmented.startIndex + y*segmented.stride;
+		for (int x = 0; x < mask.width; x++, indexSegmented++) {
+			if (mask.data[indexMask++] == 0)
+				segmented.data[indexSegmented] = unknownValue;
+		}
+	}
+
+	/**
+	 * Number of floats needed to describe the model of a single pixel
+	 */
+	protected abstract int floatsPerPixel();
+
+	/**
+	 * Initializes the model for a stream using its first frame
+	 *
+	 * @return true if the frame has been consumed. If false then the frame is also passed to {@link #updateRow}
+	 */
+	protected abstract boolean initialize( Stream s, T frame );
+
+	/**
+	 * Called before a stream is processed. Not called from multiple threads.
+	 */
+	protected void prepareStream( int streamID, Stream s ) {}
+
+	/**
+	 * Segments then updates a single row in a frame. Pixels outside of the stream's mask must not be updated.
+	 * Their segmented value is overwritten later on. Can be called from multiple threads at once.
+	 */
+	protected abstract void updateRow( Stream s, T frame, int y, @Nullable GrayU8 segmented );
+
+	/**
+	 * Segments a single row in a frame. Can be called from multiple threads at once.
+	 */
+	protected abstract void segmentRow( Stream s, T frame, int y, GrayU8 segmented );
+
+	/** Number of streams */
+	public int getNumStreams() {
+		return streams.size;
+	}
+
+	/** Returns information on a stream */
+	public Stream getStream( int stream ) {
+		return streams.get(stream);
+	}
+
+	public int getUnknownValue() {
+		return unknownValue & 0xff;
+	}
+
+	/**
+	 * Specify the value of a segmented pixel which has no background information.
+	 *
+	 * @param unknownValue Value for pixels with out a background model. 0 to 255, inclusive.
+	 */
+	public void setUnknownValue( int unknownValue ) {
+		if (unknownValue < 0 || unknownValue > 255)
+			throw new IllegalArgumentException("out of range. 0 to 255");
+		this.unknownValue = (byte)unknownValue;
+	}
+
+	/**
+	 * Description of a single stream and where its model is stored
+	 */
+	@SuppressWarnings({"NullAway.Init"})
+	public static class Stream {
+		/** ID of the stream */
+		@Getter int index;
+
+		/** Shape of images in the stream */
+		@Getter int width, height;
+
+		/** Index of the first element in the store which belongs to this stream */
+		@Getter int offset;
+
+		/** How quickly the model adapts to changes. Each stream can have its own value. */
+		@Getter float learnRate;
+
+		/** true if a frame has been seen and the model has been initialized */
+		@Getter boolean initialized;
+
+		/** Pixels with a value of zero are ignored. If null then all pixels are processed. */
+		@Getter @Nullable GrayU8 mask;
+
+		// Provides abstraction across image types
+		GImageGray input;
+
+		public void setLearnRate( float learnRate ) {
+			this.learnRate = learnRate;
+		}
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.background.stationary;
+
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.ImageType;
+import lombok.Getter;
+import lombok.Setter;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Multi-stream version of {@link BackgroundStationaryBasic}. The model for each pixel is a single value.
+ *
+ * @author Peter Abeles
+ */
+public class BackgroundMultiStreamBasic<T extends ImageGray<T>> extends BackgroundMultiStream<T> {
+	/** Threshold for classifying a pixel as moving. Difference in pixel intensity. */
+	@Getter @Setter protected float threshold;
+
+	/**
+	 * @param learnRate Default learning rate. 0 = static 1.0 = instant.
+	 * @param threshold Threshold for background. Try 10.
+	 * @param imageType Type of input image.
+	 */
+	public BackgroundMultiStreamBasic( float learnRate, float threshold, ImageType<T> imageType ) {
+		super(learnRate, imageType);
+		this.threshold = threshold;
+	}
+
+	@Override protected int floatsPerPixel() {
+		return 1;
+	}
+
+	@Override protected boolean initialize( Stream s, T frame ) {
+		s.input.wrap(frame);
+		for (int y = 0; y < frame.height; y++) {
+			int indexBG = s.offset + y*s.width;
+			int indexInput = frame.startIndex + y*frame.stride;
+			for (int x = 0; x < frame.width; x++) {
+				store[indexBG++] = s.input.getF(indexInput++);
+			}
+		}
+		return true;
+	}
+
+	@Override protected void updateRow( Stream s, T frame, int y, @Nullable GrayU8 segmented ) {
+		final float learnRate = s.learnRate;
+		final float minusLearn = 1.0f - learnRate;
+		final float thresholdSq = threshold*threshold;
+		final float[] store = this.store;
+
+		int indexBG = s.offset + y*s.width;
+		int indexInput = frame.startIndex + y*frame.stride;
+		final int end = indexInput + frame.width;
+		final GrayU8 mask = s.mask;
+		int indexMask = mask == null ? 0 : mask.startIndex + y*mask.stride;
+
+		if (segmented == null) {
+			while (indexInput < end) {
+				final float value = s.input.getF(indexInput++);
+				if (mask == null || mask.data[indexMask++] != 0)
+					store[indexBG] = minusLearn*store[indexBG] + learnRate*value;
+				indexBG++;
+			}
+		} else {
+			int indexSegmented = segmented.startIndex + y*segmented.stride;
+			while (indexInput < end) {
+				final float value = s.input.getF(indexInput++);
+				final float bg = store[indexBG];
+				final float diff = bg - value;
+				segmented.data[indexSegmented++] = (byte)(diff*diff <= thresholdSq ? 0 : 1);
+				if (mask == null || mask.data[indexMask++] != 0)
+					store[indexBG] = minusLearn*bg + learnRate*value;
+				indexBG++;
+			}
+		}
+	}
+
+	@Override protected void segmentRow( Stream s, T frame, int y, GrayU8 segmented ) {
+		final float thresholdSq = threshold*threshold;
+
+		int indexBG = s.offset + y*s.width;
+		int indexInput = frame.startIndex + y*frame.stride;
+		int indexSegmented = segmented.startIndex + y*segmented.stride;
+		final int end = indexInput + frame.width;
+
+		while (indexInput < end) {
+			final float diff = store[indexBG++] - s.input.getF(indexInput++);
+			segmented.data[indexSegmented++] = (byte)(diff*diff <= thresholdSq ? 0 : 1);
+		}
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.background.stationary;
+
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.ImageType;
+import lombok.Getter;
+import lombok.Setter;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Multi-stream version of {@link BackgroundStationaryGaussian}. The mean for every pixel in a stream is stored
+ * first, followed by the variance of every pixel.
+ *
+ * @author Peter Abeles
+ */
+public class BackgroundMultiStreamGaussian<T extends ImageGray<T>> extends BackgroundMultiStream<T> {
+	/** Threshold for classifying a pixel as moving. Chi-square distance. */
+	@Getter @Setter protected float threshold;
+
+	/** Variance assigned to pixels when a stream is initialized */
+	@Getter @Setter protected float initialVariance = Float.MIN_VALUE;
+
+	/** Minimum difference in pixel intensity for a pixel to be moving */
+	@Getter @Setter protected float minimumDifference = 0;
+
+	/**
+	 * @param learnRate Default learning rate. 0 = static 1.0 = instant. Try 0.05
+	 * @param threshold Threshold for background. Try 10.
+	 * @param imageType Type of input image.
+	 */
+	public BackgroundMultiStreamGaussian( float learnRate, float threshold, ImageType<T> imageType ) {
+		super(learnRate, imageType);
+		if (threshold < 0)
+			throw new IllegalArgumentException("Threshold must be more than 0");
+		this.threshold = threshold;
+	}
+
+	@Override protected int floatsPerPixel() {
+		return 2;
+	}
+
+	@Override protected boolean initialize( Stream s, T frame ) {
+		s.input.wrap(frame);
+		final int offsetVar = s.width*s.height;
+		for (int y = 0; y < frame.height; y++) {
+			int indexBG = s.offset + y*s.width;
+			int indexInput = frame.startIndex + y*frame.stride;
+			for (int x = 0; x < frame.width; x++, indexBG++) {
+				store[indexBG] = s.input.getF(indexInput++);
+				store[indexBG + offsetVar] = initialVariance;
+			}
+		}
+		return true;
+	}
+
+	@Override protected void updateRow( Stream s, T frame, int y, @Nullable GrayU8 segmented ) {
+		final float learnRate = s.learnRate;
+		final float minusLearn = 1.0f - learnRate;
+		final float[] store = this.store;
+		final int offsetVar = s.width*s.height;
+
+		int indexBG = s.offset + y*s.width;
+		int indexInput = frame.startIndex + y*frame.stride;
+		int indexSegmented = segmented == null ? 0 : segmented.startIndex + y*segmented.stride;
+		final int end = indexInput + frame.width;
+		final GrayU8 mask = s.mask;
+		int indexMask = mask == null ? 0 : mask.startIndex + y*mask.stride;
+
+		while (indexInput < end) {
+			float inputValue = s.input.getF(indexInput++);
+			float meanBG = store[indexBG];
+			float varianceBG = store[indexBG + offsetVar];
+
+			float diff = meanBG - inputValue;
+			if (segmented != null)
+				segmented.data[indexSegmented++] = classify(diff, varianceBG);
+
+			if (mask == null || mask.data[indexMask++] != 0) {
+				store[indexBG] = minusLearn*meanBG + learnRate*inputValue;
+				store[indexBG + offsetVar] = minusLearn*varianceBG + learnRate*diff*diff;
+			}
+			indexBG++;
+		}
+	}
+
+	@Override protected void segmentRow( Stream s, T frame, int y, GrayU8 segmented ) {
+		final int offsetVar = s.width*s.height;
+
+		int indexBG = s.offset + y*s.width;
+		int indexInput = frame.startIndex + y*frame.stride;
+		int indexSegmented = segmented.startIndex + y*segmented.stride;
+		final int end = indexInput + frame.width;
+
+		while (indexInput < end) {
+			float diff = store[indexBG] - s.input.getF(indexInput++);
+			segmented.data[indexSegmented++] = classify(diff, store[indexBG + offsetVar]);
+			indexBG++;
+		}
+	}
+
+	private byte classify( float diff, float varBG ) {
+		float chisq = diff*diff/varBG;
+		if (chisq <= threshold)
+			return 0;
+		return (byte)(diff >= minimumDifference || -diff >= minimumDifference ? 1 : 0);
+	}
+}
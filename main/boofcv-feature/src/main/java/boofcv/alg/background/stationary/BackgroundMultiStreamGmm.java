@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.background.stationary;
+
+import boofcv.alg.background.BackgroundGmmCommon;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.ImageType;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Multi-stream version of {@link BackgroundStationaryGmm}. The learning rate of a stream is one divided by
+ * the learning period. Mathematics are handled by {@link BackgroundGmmCommon}.
+ *
+ * @author Peter Abeles
+ */
+public class BackgroundMultiStreamGmm<T extends ImageGray<T>> extends BackgroundMultiStream<T> {
+	/** Parameters which are shared by all streams */
+	final BackgroundGmmCommon config;
+
+	// Each stream has its own copy so that it can have its own learning rate
+	final List<BackgroundGmmCommon> commons = new ArrayList<>();
+
+	/**
+	 * @param learningPeriod Default learning period. Specifies how fast it will adjust to changes in the image.
+	 * @param decayCoef Determines how quickly a Gaussian is forgotten
+	 * @param maxGaussians Maximum number of Gaussians in a mixture for a pixel
+	 * @param imageType Type of image it's processing.
+	 */
+	public BackgroundMultiStreamGmm( float learningPeriod, float decayCoef, int maxGaussians, ImageType<T> imageType ) {
+		super(1.0f/learningPeriod, imageType);
+		config = new BackgroundGmmCommon(learningPeriod, decayCoef, maxGaussians, imageType);
+	}
+
+	@Override public void reset() {
+		super.reset();
+		commons.clear();
+	}
+
+	@Override protected int floatsPerPixel() {
+		return config.modelStride;
+	}
+
+	@Override protected boolean initialize( Stream s, T frame ) {
+		// The model is already filled with zeros, which means there are no Gaussians
+		return false;
+	}
+
+	@Override protected void prepareStream( int streamID, Stream s ) {
+		while (commons.size() <= streamID) {
+			commons.add(new BackgroundGmmCommon(1.0f/config.learningRate, config.decay, config.maxGaussians, imageType));
+		}
+		BackgroundGmmCommon c = commons.get(streamID);
+		c.learningRate = s.learnRate;
+		c.decay = config.decay;
+		c.maxDistance = config.maxDistance;
+		c.significantWeight = config.significantWeight;
+		c.initialVariance = config.initialVariance;
+		c.unknownValue = unknownValue & 0xFF;
+	}
+
+	@Override protected void updateRow( Stream s, T frame, int y, @Nullable GrayU8 segmented ) {
+		final BackgroundGmmCommon common = commons.get(s.index);
+		int indexInput = frame.startIndex + y*frame.stride;
+		int modelIndex = s.offset + y*s.width*config.modelStride;
+		final GrayU8 mask = s.mask;
+		int indexMask = mask == null ? 0 : mask.startIndex + y*mask.stride;
+
+		if (segmented == null) {
+			for (int x = 0; x < frame.width; x++, modelIndex += config.modelStride, indexInput++) {
+				if (mask == null || mask.data[indexMask++] != 0)
+					common.updateMixture(s.input.getF(indexInput), store, modelIndex);
+			}
+		} else {
+			int indexSegmented = segmented.startIndex + y*segmented.stride;
+			for (int x = 0; x < frame.width; x++, modelIndex += config.modelStride, indexInput++, indexSegmented++) {
+				// Pixels outside the mask are assigned the unknown value later on
+				if (mask == null || mask.data[indexMask++] != 0)
+					segmented.data[indexSegmented] =
+							(byte)common.updateMixture(s.input.getF(indexInput), store, modelIndex);
+			}
+		}
+	}
+
+	@Override protected void segmentRow( Stream s, T frame, int y, GrayU8 segmented ) {
+		final BackgroundGmmCommon common = commons.get(s.index);
+		int indexInput = frame.startIndex + y*frame.stride;
+		int indexSegmented = segmented.startIndex + y*segmented.stride;
+		int modelIndex = s.offset + y*s.width*config.modelStride;
+
+		for (int x = 0; x < frame.width; x++, modelIndex += config.modelStride) {
+			segmented.data[indexSegmented++] =
+					(byte)common.checkBackground(s.input.getF(indexInput++), store, modelIndex);
+		}
+	}
+
+	public float getInitialVariance() {
+		return config.initialVariance;
+	}
+
+	public void setInitialVariance( float initialVariance ) {
+		config.initialVariance = initialVariance;
+	}
+
+	public float getMaxDistance() {
+		return config.maxDistance;
+	}
+
+	public void setMaxDistance( float maxDistance ) {
+		config.maxDistance = maxDistance;
+	}
+
+	public float getSignificantWeight() {
+		return config.significantWeight;
+	}
+
+	public void setSignificantWeight( float significantWeight ) {
+		config.significantWeight = significantWeight;
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -45,6 +45,24 @@ public class DescriptorDistance {
 		return Math.sqrt(total);
 	}
 
+	/**
+	 * Returns the Euclidean distance (L2-norm) between the two descriptors.
+	 *
+	 * @param a First descriptor
+	 * @param b Second descriptor
+	 * @return Euclidean distance
+	 */
+	public static double euclidean( TupleDesc_F32 a, TupleDesc_F32 b ) {
+		final int N = a.data.length;
+		float total = 0;
+		for (int i = 0; i < N; i++) {
+			float d = a.data[i] - b.data[i];
+			total += d*d;
+		}
+
+		return Math.sqrt(total);
+	}
+
 	/**
 	 * Returns the Euclidean distance squared between the two descriptors.
 	 *
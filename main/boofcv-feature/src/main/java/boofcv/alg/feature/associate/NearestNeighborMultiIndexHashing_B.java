@@ -0,0 +1,371 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.alg.descriptor.DescriptorDistance;
+import boofcv.struct.feature.TupleDesc_B;
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.nn.NearestNeighbor;
+import org.ddogleg.nn.NnData;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_I32;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Exact nearest neighbor search in Hamming space for binary descriptors using Multi-Index Hashing [1]. Each
+ * descriptor is broken up into 'm' disjoint substrings and each substring is used as the key in its own hash table.
+ * If two descriptors have a Hamming distance of d or less then at least one of their substrings must have a
+ * distance of floor(d/m) or less. A search probes each table with every key that's within a radius r of the
+ * query's substring, starting at r=0 and increasing until the k-best neighbors are known to be found. After
+ * all tables have been probed with radius r, every descriptor with a distance less than m*(r+1) has been seen.</p>
+ *
+ * <p>The search is exact. When probing the tables would require more work than checking every descriptor,
+ * the remaining descriptors are checked with a linear scan instead. The search radius can be limited to bound
+ * the run time, and descriptors which are farther away will never be returned.</p>
+ *
+ * <p>[1] Norouzi, Mohammad, Ali Punjani, and David J. Fleet. "Fast search in hamming space with multi-index
+ * hashing." 2012 IEEE conference on computer vision and pattern recognition. IEEE, 2012.</p>
+ *
+ * @author Peter Abeles
+ */
+public class NearestNeighborMultiIndexHashing_B implements NearestNeighbor<TupleDesc_B> {
+	/** Maximum number of bits used to index a hash table. Longer substrings are folded into this many bits */
+	public static final int MAX_TABLE_BITS = 20;
+
+	/** Number of substrings the descriptor is broken up into. If &le; 0 then it's selected automatically. */
+	@Getter @Setter int numSubstrings;
+
+	/** If &ge; 0 then neighbors with a Hamming distance larger than this will not be found. */
+	@Getter @Setter int maxSearchRadius = -1;
+
+	// The points which are being searched
+	List<TupleDesc_B> points = new ArrayList<>();
+
+	// First bit and number of bits in each substring
+	final DogArray_I32 substringStart = new DogArray_I32();
+	final DogArray_I32 substringLength = new DogArray_I32();
+
+	// One hash table for each substring
+	final DogArray<Table> tables = new DogArray<>(Table::new);
+
+	/**
+	 * @param numSubstrings Number of substrings. If &le; 0 then it's selected automatically.
+	 */
+	public NearestNeighborMultiIndexHashing_B( int numSubstrings ) {
+		this.numSubstrings = numSubstrings;
+	}
+
+	public NearestNeighborMultiIndexHashing_B() {}
+
+	@Override public void setPoints( List<TupleDesc_B> points, boolean trackIndicies ) {
+		this.points = points;
+		substringStart.reset();
+		substringLength.reset();
+		tables.reset();
+
+		if (points.isEmpty())
+			return;
+
+		int numBits = points.get(0).numBits;
+		int m = numSubstrings > 0 ? numSubstrings : selectNumberOfSubstrings(numBits, points.size());
+		m = Math.max(1, Math.min(m, numBits));
+
+		// Divide the bits up as evenly as possible
+		for (int i = 0; i < m; i++) {
+			int start = i*numBits/m;
+			int length = (i + 1)*numBits/m - start;
+			if (length > 32)
+				throw new IllegalArgumentException("Substrings can't be longer than 32 bits. Increase numSubstrings.");
+			substringStart.add(start);
+			substringLength.add(length);
+		}
+
+		for (int i = 0; i < m; i++) {
+			tables.grow().build(points, substringStart.get(i), substringLength.get(i));
+		}
+	}
+
+	/**
+	 * Selects the number of substrings using the heuristic in [1], which is the number of bits divided by
+	 * log2 of the number of points. Substrings are also limited to 32 bits.
+	 */
+	public static int selectNumberOfSubstrings( int numBits, int numPoints ) {
+		int bitsPerSubstring = Math.max(1, (int)Math.round(Math.log(Math.max(2, numPoints))/Math.log(2)));
+		bitsPerSubstring = Math.min(32, bitsPerSubstring);
+		return (numBits + bitsPerSubstring - 1)/bitsPerSubstring;
+	}
+
+	@Override public Search<TupleDesc_B> createSearch() {
+		return new InternalSearch();
+	}
+
+	/**
+	 * Extracts a substring of up to 32 bits from the descriptor
+	 */
+	static long substring( TupleDesc_B desc, int start, int length ) {
+		int idx = start/32;
+		long word = desc.data[idx] & 0xFFFFFFFFL;
+		if (idx + 1 < desc.data.length)
+			word |= (desc.data[idx + 1] & 0xFFFFFFFFL) << 32;
+		return (word >>> (start%32)) & ((1L << length) - 1);
+	}
+
+	/**
+	 * Hash table for a single substring. Buckets are stored in a compressed format where the indexes of points
+	 * in bucket 'i' are ids[offsets[i]] to ids[offsets[i+1]-1]
+	 */
+	static class Table {
+		// Number of bits used to index the table
+		int tableBits;
+		final DogArray_I32 offsets = new DogArray_I32();
+		final DogArray_I32 ids = new DogArray_I32();
+
+		void build( List<TupleDesc_B> points, int start, int length ) {
+			tableBits = Math.min(length, MAX_TABLE_BITS);
+			offsets.reset();
+			offsets.resize((1 << tableBits) + 1, 0);
+			ids.reset();
+			ids.resize(points.size());
+
+			// Count the number of points in each bucket
+			for (int i = 0; i < points.size(); i++) {
+				offsets.data[bucket(substring(points.get(i), start, length)) + 1]++;
+			}
+			for (int i = 1; i < offsets.size; i++) {
+				offsets.data[i] += offsets.data[i - 1];
+			}
+			// Fill in the buckets, using the end of each bucket as a counter
+			for (int i = 0; i < points.size(); i++) {
+				int bucket = bucket(substring(points.get(i), start, length));
+				ids.data[offsets.data[bucket]++] = i;
+			}
+			// Undo the shift caused by using the offsets as counters
+			for (int i = offsets.size - 1; i > 0; i--) {
+				offsets.data[i] = offsets.data[i - 1];
+			}
+			offsets.data[0] = 0;
+		}
+
+		/** Converts the substring into a bucket index */
+		int bucket( long key ) {
+			return (int)((key ^ (key >>> tableBits)) & ((1L << tableBits) - 1));
+		}
+	}
+
+	/**
+	 * Search which has its own workspace. Multiple searches can be used at the same time in different threads.
+	 */
+	class InternalSearch implements Search<TupleDesc_B> {
+		// Marks points which have already been checked during the current search
+		final DogArray_I32 visited = new DogArray_I32();
+		int visitedMark = 0;
+
+		// The best points found so far, sorted by distance
+		final DogArray_I32 bestIndexes = new DogArray_I32();
+		final DogArray_I32 bestDistances = new DogArray_I32();
+
+		// Substrings for the query point
+		long[] querySubstrings = new long[0];
+
+		TupleDesc_B query;
+		int numNeighbors;
+		int distanceLimit;
+
+		@Override public boolean findNearest( TupleDesc_B point, double maxDistance, NnData<TupleDesc_B> result ) {
+			search(point, maxDistance, 1);
+			if (bestIndexes.isEmpty())
+				return false;
+
+			result.index = bestIndexes.get(0);
+			result.point = points.get(result.index);
+			result.distance = bestDistances.get(0);
+			return true;
+		}
+
+		@Override public void findNearest( TupleDesc_B point, double maxDistance, int numNeighbors,
+										   DogArray<NnData<TupleDesc_B>> results ) {
+			results.reset();
+			search(point, maxDistance, numNeighbors);
+			for (int i = 0; i < bestIndexes.size; i++) {
+				NnData<TupleDesc_B> r = results.grow();
+				r.index = bestIndexes.get(i);
+				r.point = points.get(r.index);
+				r.distance = bestDistances.get(i);
+			}
+		}
+
+		void search( TupleDesc_B point, double maxDistance, int numNeighbors ) {
+			this.query = point;
+			this.numNeighbors = numNeighbors;
+			bestIndexes.reset();
+			bestDistances.reset();
+
+			if (points.isEmpty() || numNeighbors <= 0)
+				return;
+
+			distanceLimit = Integer.MAX_VALUE;
+			if (maxDistance >= 0)
+				distanceLimit = (int)Math.min(Integer.MAX_VALUE, Math.floor(maxDistance));
+			if (maxSearchRadius >= 0)
+				distanceLimit = Math.min(distanceLimit, maxSearchRadius);
+
+			prepareVisited();
+
+			final int m = tables.size;
+			if (querySubstrings.length < m)
+				querySubstrings = new long[m];
+			int maxLength = 0;
+			for (int i = 0; i < m; i++) {
+				querySubstrings[i] = substring(point, substringStart.get(i), substringLength.get(i));
+				maxLength = Math.max(maxLength, substringLength.get(i));
+			}
+
+			int totalChecked = 0;
+			for (int radius = 0; radius <= maxLength; radius++) {
+				// If probing the tables is more expensive than checking everything else, just check everything
+				long probes = 0;
+				for (int i = 0; i < m; i++) {
+					probes += binomial(substringLength.get(i), radius);
+				}
+				if (probes > points.size() - totalChecked) {
+					linearScan();
+					return;
+				}
+
+				for (int i = 0; i < m; i++) {
+					totalChecked += probeTable(i, radius);
+				}
+
+				// All points with a distance less than this have been checked
+				int guaranteed = m*(radius + 1) - 1;
+				if (guaranteed >= distanceLimit)
+					return;
+				if (bestDistances.size == numNeighbors && bestDistances.getTail() <= guaranteed)
+					return;
+			}
+		}
+
+		/**
+		 * Checks every point in the table whose key has a Hamming distance of exactly 'radius' from the query
+		 *
+		 * @return Number of points which were checked for the first time
+		 */
+		int probeTable( int tableIdx, int radius ) {
+			Table table = tables.get(tableIdx);
+			int length = substringLength.get(tableIdx);
+			long key = querySubstrings[tableIdx];
+
+			if (radius > length)
+				return 0;
+
+			if (radius == 0)
+				return checkBucket(table, table.bucket(key));
+
+			int total = 0;
+			// Iterate through all bit masks with 'radius' bits set using Gosper's hack
+			long flips = (1L << radius) - 1;
+			final long end = 1L << length;
+			while (flips < end) {
+				total += checkBucket(table, table.bucket(key ^ flips));
+				long c = flips & -flips;
+				long r = flips + c;
+				flips = (((r ^ flips) >>> 2)/c) | r;
+			}
+			return total;
+		}
+
+		int checkBucket( Table table, int bucket ) {
+			int idx0 = table.offsets.data[bucket];
+			int idx1 = table.offsets.data[bucket + 1];
+			int total = 0;
+			for (int i = idx0; i < idx1; i++) {
+				int pointIdx = table.ids.data[i];
+				if (visited.data[pointIdx] == visitedMark)
+					continue;
+				visited.data[pointIdx] = visitedMark;
+				total++;
+				checkPoint(pointIdx);
+			}
+			return total;
+		}
+
+		void linearScan() {
+			for (int pointIdx = 0; pointIdx < points.size(); pointIdx++) {
+				if (visited.data[pointIdx] == visitedMark)
+					continue;
+				checkPoint(pointIdx);
+			}
+		}
+
+		/**
+		 * Computes the distance to the point and adds it to the list of best points if appropriate
+		 */
+		void checkPoint( int pointIdx ) {
+			int distance = DescriptorDistance.hamming(query, points.get(pointIdx));
+			if (distance > distanceLimit)
+				return;
+
+			if (bestDistances.size == numNeighbors) {
+				if (distance >= bestDistances.getTail())
+					return;
+				bestDistances.removeTail();
+				bestIndexes.removeTail();
+			}
+
+			// Insertion sort. Ties are resolved by keeping the point found first
+			int location = bestDistances.size;
+			while (location > 0 && bestDistances.get(location - 1) > distance) {
+				location--;
+			}
+			bestDistances.insert(location, distance);
+			bestIndexes.insert(location, pointIdx);
+		}
+
+		/**
+		 * Ensures there's a visited mark for every point and that no point is marked as visited
+		 */
+		void prepareVisited() {
+			if (visited.size != points.size() || visitedMark == Integer.MAX_VALUE) {
+				visited.resize(points.size());
+				visited.fill(0);
+				visitedMark = 0;
+			}
+			visitedMark++;
+		}
+	}
+
+	/**
+	 * Number of ways 'k' elements can be selected from a set of 'n' elements. Saturates instead of overflowing.
+	 */
+	static long binomial( int n, int k ) {
+		if (k < 0 || k > n)
+			return 0;
+		k = Math.min(k, n - k);
+		long result = 1;
+		for (int i = 1; i <= k; i++) {
+			result = result*(n - k + i)/i;
+			if (result > Integer.MAX_VALUE)
+				return Long.MAX_VALUE/2;
+		}
+		return result;
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -26,6 +26,7 @@ import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
 import georegression.metric.UtilAngle;
 import georegression.misc.GrlConstants;
+import georegression.struct.point.Point2D_I32;
 import org.ddogleg.stats.UtilGaussian;
 
 import java.util.Arrays;
@@ -90,9 +91,6 @@ public class DescribeDenseHogAlg<Input extends ImageBase<Input>> extends BaseDen
 	protected GrayF32 orientation = new GrayF32(1, 1);
 	protected GrayF64 magnitude = new GrayF64(1, 1); // stored as F64 instead of F32 for speed
 
-	// the active histogram being worked on
-	double[] histogram;
-
 	// spatial weights applied to each in a block
 	// stored in a row major order
 	double[] weights;
@@ -177,8 +175,15 @@ public class DescribeDenseHogAlg<Input extends ImageBase<Input>> extends BaseDen
 	/**
 	 * Computes the orientation and magnitude of each pixel
 	 */
-	private void computePixelFeatures() {
-		for (int y = 0; y < derivX.height; y++) {
+	protected void computePixelFeatures() {
+		computePixelFeatures(0, derivX.height);
+	}
+
+	/**
+	 * Computes the orientation and magnitude of each pixel in rows y0 to y1-1, inclusive
+	 */
+	protected void computePixelFeatures( int y0, int y1 ) {
+		for (int y = y0; y < y1; y++) {
 			int pixelIndex = y*derivX.width;
 			int endIndex = pixelIndex + derivX.width;
 			for (; pixelIndex < endIndex; pixelIndex++) {
@@ -209,34 +214,59 @@ public class DescribeDenseHogAlg<Input extends ImageBase<Input>> extends BaseDen
 
 		for (int y = 0; y < maxY; y += stepBlockPixelsY) {
 			for (int x = 0; x < maxX; x += stepBlockPixelsX) {
-				TupleDesc_F64 d = descriptions.grow();
-				Arrays.fill(d.data, 0);
-				histogram = d.data;
+				descriptions.grow();
+				locations.grow().setTo(x, y);
+			}
+		}
 
-				for (int cellRow = 0; cellRow < cellsPerBlockY; cellRow++) {
-					int blockPixelRow = cellRow*pixelsPerCell;
-					for (int cellCol = 0; cellCol < cellsPerBlockX; cellCol++) {
-						int blockPixelCol = cellCol*pixelsPerCell;
+		computeDescriptors();
+	}
 
-						computeCellHistogram(x + blockPixelCol, y + blockPixelRow, cellCol, cellRow);
-					}
-				}
+	/**
+	 * Computes the descriptor for every block
+	 */
+	protected void computeDescriptors() {
+		computeDescriptors(0, locations.size);
+	}
 
-				DescribeSiftCommon.normalizeDescriptor(d, 0.2);
-				locations.grow().setTo(x, y);
+	/**
+	 * Computes the descriptors for blocks idx0 to idx1-1, inclusive
+	 */
+	protected void computeDescriptors( int idx0, int idx1 ) {
+		for (int i = idx0; i < idx1; i++) {
+			Point2D_I32 p = locations.get(i);
+			computeDescriptor(p.x, p.y, descriptions.get(i));
+		}
+	}
+
+	/**
+	 * Computes the descriptor for the block with the specified lower extent
+	 */
+	void computeDescriptor( int x, int y, TupleDesc_F64 d ) {
+		Arrays.fill(d.data, 0);
+
+		for (int cellRow = 0; cellRow < cellsPerBlockY; cellRow++) {
+			int blockPixelRow = cellRow*pixelsPerCell;
+			for (int cellCol = 0; cellCol < cellsPerBlockX; cellCol++) {
+				int blockPixelCol = cellCol*pixelsPerCell;
+
+				computeCellHistogram(d.data, x + blockPixelCol, y + blockPixelRow, cellCol, cellRow);
 			}
 		}
+
+		DescribeSiftCommon.normalizeDescriptor(d, 0.2);
 	}
 
 	/**
 	 * Computes the histogram for the block with the specified lower extent
 	 *
+	 * @param histogram The block's histogram which is being computed
 	 * @param pixelX0 cell's lower extent x-axis in the image
 	 * @param pixelY0 cell's lower extent y-axis in the image
 	 * @param cellX Location of the cell in the block x-axis
 	 * @param cellY Location of the cell in the block y-axis
 	 */
-	void computeCellHistogram( int pixelX0, int pixelY0,
+	void computeCellHistogram( double[] histogram, int pixelX0, int pixelY0,
 							   int cellX, int cellY ) {
 
 		float angleBinSize = GrlConstants.F_PI/orientationBins;
@@ -291,32 +321,32 @@ public class DescribeDenseHogAlg<Input extends ImageBase<Input>> extends BaseDen
 
 				// spatial bilinear interpolation + orientation linear interpolation
 				// + gaussian weighting (previously applied)
-				addToHistogram(cellX - 1, cellY - 1, index0, (1.0 - oriWeight1)*magnitude*spatialWeightX0*spatialWeightY0);
-				addToHistogram(cellX - 1, cellY - 1, index1, oriWeight1*magnitude*spatialWeightX0*spatialWeightY0);
+				addToHistogram(histogram, cellX - 1, cellY - 1, index0, (1.0 - oriWeight1)*magnitude*spatialWeightX0*spatialWeightY0);
+				addToHistogram(histogram, cellX - 1, cellY - 1, index1, oriWeight1*magnitude*spatialWeightX0*spatialWeightY0);
 
-				addToHistogram(cellX, cellY - 1, index0, (1.0 - oriWeight1)*magnitude*spatialWeightX1*spatialWeightY0);
-				addToHistogram(cellX, cellY - 1, index1, oriWeight1*magnitude*spatialWeightX1*spatialWeightY0);
+				addToHistogram(histogram, cellX, cellY - 1, index0, (1.0 - oriWeight1)*magnitude*spatialWeightX1*spatialWeightY0);
+				addToHistogram(histogram, cellX, cellY - 1, index1, oriWeight1*magnitude*spatialWeightX1*spatialWeightY0);
 
-				addToHistogram(cellX + 1, cellY - 1, index0, (1.0 - oriWeight1)*magnitude*spatialWeightX2*spatialWeightY0);
-				addToHistogram(cellX + 1, cellY - 1, index1, oriWeight1*magnitude*spatialWeightX2*spatialWeightY0);
+				addToHistogram(histogram, cellX + 1, cellY - 1, index0, (1.0 - oriWeight1)*magnitude*spatialWeightX2*spatialWeightY0);
+				addToHistogram(histogram, cellX + 1, cellY - 1, index1, oriWeight1*magnitude*spatialWeightX2*spatialWeightY0);
 
-				addToHistogram(cellX - 1, cellY, index0, (1.0 - oriWeight1)*magnitude*spatialWeightX0*spatialWeightY1);
-				addToHistogram(cellX - 1, cellY, index1, oriWeight1*magnitude*spatialWeightX0*spatialWeightY1);
+				addToHistogram(histogram, cellX - 1, cellY, index0, (1.0 - oriWeight1)*magnitude*spatialWeightX0*spatialWeightY1);
+				addToHistogram(histogram, cellX - 1, cellY, index1, oriWeight1*magnitude*spatialWeightX0*spatialWeightY1);
 
-				addToHistogram(cellX, cellY, index0, (1.0 - oriWeight1)*magnitude*spatialWeightX1*spatialWeightY1);
-				addToHistogram(cellX, cellY, index1, oriWeight1*magnitude*spatialWeightX1*spatialWeightY1);
+				addToHistogram(histogram, cellX, cellY, index0, (1.0 - oriWeight1)*magnitude*spatialWeightX1*spatialWeightY1);
+				addToHistogram(histogram, cellX, cellY, index1, oriWeight1*magnitude*spatialWeightX1*spatialWeightY1);
 
-				addToHistogram(cellX + 1, cellY, index0, (1.0 - oriWeight1)*magnitude*spatialWeightX2*spatialWeightY1);
-				addToHistogram(cellX + 1, cellY, index1, oriWeight1*magnitude*spatialWeightX2*spatialWeightY1);
+				addToHistogram(histogram, cellX + 1, cellY, index0, (1.0 - oriWeight1)*magnitude*spatialWeightX2*spatialWeightY1);
+				addToHistogram(histogram, cellX + 1, cellY, index1, oriWeight1*magnitude*spatialWeightX2*spatialWeightY1);
 
-				addToHistogram(cellX - 1, cellY + 1, index0, (1.0 - oriWeight1)*magnitude*spatialWeightX0*spatialWeightY2);
-				addToHistogram(cellX - 1, cellY + 1, index1, oriWeight1*magnitude*spatialWeightX0*spatialWeightY2);
+				addToHistogram(histogram, cellX - 1, cellY + 1, index0, (1.0 - oriWeight1)*magnitude*spatialWeightX0*spatialWeightY2);
+				addToHistogram(histogram, cellX - 1, cellY + 1, index1, oriWeight1*magnitude*spatialWeightX0*spatialWeightY2);
 
-				addToHistogram(cellX, cellY + 1, index0, (1.0 - oriWeight1)*magnitude*spatialWeightX1*spatialWeightY2);
-				addToHistogram(cellX, cellY + 1, index1, oriWeight1*magnitude*spatialWeightX1*spatialWeightY2);
+				addToHistogram(histogram, cellX, cellY + 1, index0, (1.0 - oriWeight1)*magnitude*spatialWeightX1*spatialWeightY2);
+				addToHistogram(histogram, cellX, cellY + 1, index1, oriWeight1*magnitude*spatialWeightX1*spatialWeightY2);
 
-				addToHistogram(cellX + 1, cellY + 1, index0, (1.0 - oriWeight1)*magnitude*spatialWeightX2*spatialWeightY2);
-				addToHistogram(cellX + 1, cellY + 1, index1, oriWeight1*magnitude*spatialWeightX2*spatialWeightY2);
+				addToHistogram(histogram, cellX + 1, cellY + 1, index0, (1.0 - oriWeight1)*magnitude*spatialWeightX2*spatialWeightY2);
+				addToHistogram(histogram, cellX + 1, cellY + 1, index1, oriWeight1*magnitude*spatialWeightX2*spatialWeightY2);
 			}
 		}
 	}
@@ -324,12 +354,13 @@ public class DescribeDenseHogAlg<Input extends ImageBase<Input>> extends BaseDen
 	/**
 	 * Adds the magnitude to the histogram at the specified cell and orientation
 	 *
+	 * @param histogram The block's histogram
 	 * @param cellX cell coordinate
 	 * @param cellY cell coordinate
 	 * @param orientationIndex orientation coordinate
 	 * @param magnitude edge magnitude
 	 */
-	void addToHistogram( int cellX, int cellY, int orientationIndex, double magnitude ) {
+	void addToHistogram( double[] histogram, int cellX, int cellY, int orientationIndex, double magnitude ) {
 		// see if it's being applied to a valid cell in the histogram
 		if (cellX < 0 || cellX >= cellsPerBlockX)
 			return;
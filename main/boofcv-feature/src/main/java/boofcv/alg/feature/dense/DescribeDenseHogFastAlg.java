@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -25,6 +25,7 @@ import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
 import georegression.metric.UtilAngle;
 import georegression.misc.GrlConstants;
+import georegression.struct.point.Point2D_I32;
 
 import java.util.Arrays;
 import java.util.List;
@@ -146,10 +147,20 @@ public class DescribeDenseHogFastAlg<Input extends ImageBase<Input>> extends Bas
 	 * @param col Lower extent of cell columns
 	 */
 	void computeDescriptor( int row, int col ) {
-		// set location to top-left pixel
-		locations.grow().setTo(col*pixelsPerCell, row*pixelsPerCell);
+		computeDescriptor(row, col, locations.grow(), descriptions.grow());
+	}
 
-		TupleDesc_F64 d = descriptions.grow();
+	/**
+	 * Compute the descriptor from the specified cells and writes the results into the provided storage
+	 *
+	 * @param row Lower extent of cell rows
+	 * @param col Lower extent of cell columns
+	 * @param location (Output) Location of the top-left pixel in the block
+	 * @param d (Output) The descriptor
+	 */
+	void computeDescriptor( int row, int col, Point2D_I32 location, TupleDesc_F64 d ) {
+		// set location to top-left pixel
+		location.setTo(col*pixelsPerCell, row*pixelsPerCell);
 
 		int indexDesc = 0;
 		for (int i = 0; i < cellsPerBlockY; i++) {
@@ -170,14 +181,20 @@ public class DescribeDenseHogFastAlg<Input extends ImageBase<Input>> extends Bas
 	 * Compute histograms for all the cells inside the image using precomputed derivative.
 	 */
 	void computeCellHistograms() {
+		computeCellHistograms(0, cellRows);
+	}
 
+	/**
+	 * Compute histograms for cells in rows cellRow0 to cellRow1-1, inclusive.
+	 */
+	void computeCellHistograms( int cellRow0, int cellRow1 ) {
 		int width = cellCols*pixelsPerCell;
-		int height = cellRows*pixelsPerCell;
+		int height = cellRow1*pixelsPerCell;
 
 		float angleBinSize = GrlConstants.F_PI/orientationBins;
 
-		int indexCell = 0;
-		for (int i = 0; i < height; i += pixelsPerCell) {
+		int indexCell = cellRow0*cellCols;
+		for (int i = cellRow0*pixelsPerCell; i < height; i += pixelsPerCell) {
 			for (int j = 0; j < width; j += pixelsPerCell, indexCell++) {
 				Cell c = cells[indexCell];
 				c.reset();
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.dense;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+
+/**
+ * Concurrent implementation of {@link DescribeDenseHogFastAlg}. Cell histograms are computed in blocks of cell
+ * rows, then each row of descriptors is computed in parallel. Cells and descriptors are each written to by a
+ * single thread so the results are identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class DescribeDenseHogFastAlg_MT<Input extends ImageBase<Input>> extends DescribeDenseHogFastAlg<Input> {
+	/**
+	 * @see DescribeDenseHogFastAlg#DescribeDenseHogFastAlg
+	 */
+	public DescribeDenseHogFastAlg_MT( int orientationBins, int pixelsPerCell, int cellsPerBlockX, int cellsPerBlockY,
+									   int stepBlock,
+									   ImageType<Input> imageType ) {
+		super(orientationBins, pixelsPerCell, cellsPerBlockX, cellsPerBlockY, stepBlock, imageType);
+	}
+
+	@Override public void process() {
+		growCellArray(derivX.width, derivX.height);
+
+		BoofConcurrency.loopBlocks(0, cellRows, this::computeCellHistograms);
+
+		int cellRowMax = (cellRows - (cellsPerBlockY - 1));
+		int cellColMax = (cellCols - (cellsPerBlockX - 1));
+
+		// number of descriptors along each axis
+		int numRows = cellRowMax > 0 ? (cellRowMax + stepBlock - 1)/stepBlock : 0;
+		int numCols = cellColMax > 0 ? (cellColMax + stepBlock - 1)/stepBlock : 0;
+
+		locations.resize(numRows*numCols);
+		descriptions.resize(numRows*numCols);
+
+		BoofConcurrency.loopFor(0, numRows, blockRow -> {
+			int index = blockRow*numCols;
+			int row = blockRow*stepBlock;
+			for (int j = 0; j < cellColMax; j += stepBlock, index++) {
+				computeDescriptor(row, j, locations.get(index), descriptions.get(index));
+			}
+		});
+	}
+}
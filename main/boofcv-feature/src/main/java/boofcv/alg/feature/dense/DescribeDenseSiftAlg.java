@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -133,21 +133,45 @@ public class DescribeDenseSiftAlg<D extends ImageGray<D>> extends DescribeSiftCo
 			for (int j = 0; j < numX; j++) {
 				int x = (X1 - X0)*j/(numX - 1) + X0;
 
-				TupleDesc_F64 desc = descriptors.grow();
-
-				computeDescriptor(x, y, desc);
+				descriptors.grow();
 				sampleLocations.grow().setTo(x, y);
 			}
 		}
+
+		computeDescriptors();
+	}
+
+	/**
+	 * Computes a descriptor at every sample location
+	 */
+	protected void computeDescriptors() {
+		computeDescriptors(0, sampleLocations.size);
+	}
+
+	/**
+	 * Computes the descriptors at sample locations from idx0 to idx1-1, inclusive
+	 */
+	protected void computeDescriptors( int idx0, int idx1 ) {
+		for (int i = idx0; i < idx1; i++) {
+			Point2D_I32 p = sampleLocations.get(i);
+			computeDescriptor(p.x, p.y, descriptors.get(i));
+		}
 	}
 
 	/**
 	 * Computes the angle of each pixel and its gradient magnitude
 	 */
 	void precomputeAngles( D image ) {
-		int savecIndex = 0;
-		for (int y = 0; y < image.height; y++) {
+		precomputeAngles(image, 0, image.height);
+	}
+
+	/**
+	 * Computes the angle of each pixel and its gradient magnitude for rows y0 to y1-1, inclusive
+	 */
+	protected void precomputeAngles( D image, int y0, int y1 ) {
+		for (int y = y0; y < y1; y++) {
 			int pixelIndex = y*image.stride + image.startIndex;
+			int savecIndex = y*image.width;
 
 			for (int x = 0; x < image.width; x++, pixelIndex++, savecIndex++) {
 				float spacialDX = imageDerivX.getF(pixelIndex);
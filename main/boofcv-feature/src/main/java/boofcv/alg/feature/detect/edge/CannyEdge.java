@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -21,6 +21,7 @@ package boofcv.alg.feature.detect.edge;
 import boofcv.abst.filter.blur.BlurFilter;
 import boofcv.abst.filter.derivative.ImageGradient;
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.GeneralizedImageOps;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS8;
@@ -90,10 +91,11 @@ public class CannyEdge<T extends ImageGray<T>, D extends ImageGray<D>> {
 		derivX = gradient.getDerivativeType().createImage(1, 1);
 		derivY = gradient.getDerivativeType().createImage(1, 1);
 
+		boolean concurrent = BoofConcurrency.isUseConcurrent();
 		if (saveTrace) {
-			hysteresisPts = new HysteresisEdgeTracePoints();
+			hysteresisPts = concurrent ? new HysteresisEdgeTracePoints_MT() : new HysteresisEdgeTracePoints();
 		} else {
-			hysteresisMark = new HysteresisEdgeTraceMark();
+			hysteresisMark = concurrent ? new HysteresisEdgeTraceMark_MT() : new HysteresisEdgeTraceMark();
 		}
 	}
 
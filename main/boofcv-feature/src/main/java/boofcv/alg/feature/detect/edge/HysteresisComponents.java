@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detect.edge;
+
+import boofcv.alg.filter.binary.TiledUnionFindComponents;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_I32;
+
+/**
+ * Used by the concurrent hysteresis edge tracing algorithms. A trace can only move between 8-connected pixels
+ * which are above the threshold, so traces which start in different 8-connected regions will never touch the
+ * same pixel. This finds those regions concurrently using {@link TiledUnionFindComponents} and groups the seeds,
+ * the pixels which are above the upper threshold, by region. Each region can then be traced independently and
+ * the results will be identical to the single threaded algorithm as long as the seeds inside a region are
+ * processed in raster order.
+ *
+ * @author Peter Abeles
+ */
+class HysteresisComponents {
+	// pixels which can be part of a trace are marked with 1
+	final GrayU8 mask = new GrayU8(1, 1);
+	final TiledUnionFindComponents components = new TiledUnionFindComponents();
+
+	// Seeds found inside of each tile
+	final DogArray<DogArray_I32> tileSeeds = new DogArray<>(DogArray_I32::new, DogArray_I32::reset);
+
+	/** Index of every seed pixel in raster order. y*width + x */
+	final DogArray_I32 seeds = new DogArray_I32();
+
+	/** Root pixel of each region which contains a seed */
+	final DogArray_I32 regionRoots = new DogArray_I32();
+	// Look up table from root pixel to region. Only valid if regionRoots agrees, so it never needs to be cleared
+	final DogArray_I32 rootToRegion = new DogArray_I32();
+	// The region each seed belongs to
+	final DogArray_I32 seedRegion = new DogArray_I32();
+
+	/** Seeds in region 'i' are regionSeeds[regionStart[i]] to regionSeeds[regionStart[i+1]-1] */
+	final DogArray_I32 regionStart = new DogArray_I32();
+	/** Index of a seed in {@link #seeds}, ordered by region then raster order */
+	final DogArray_I32 regionSeeds = new DogArray_I32();
+
+	// shape of the image being processed
+	int width;
+
+	/**
+	 * Finds the regions and groups the seeds
+	 *
+	 * @param intensity Intensity image after edge non-maximum suppression has been applied. Not modified.
+	 * @param lower Lower threshold.
+	 * @param upper Upper threshold.
+	 */
+	void process( GrayF32 intensity, float lower, float upper ) {
+		width = intensity.width;
+
+		// Seeds are always traced, even if the upper threshold is below the lower threshold
+		float threshold = Math.min(lower, upper);
+		mask.reshape(intensity.width, intensity.height);
+		BoofConcurrency.loopBlocks(0, intensity.height, ( y0, y1 ) -> {
+			for (int y = y0; y < y1; y++) {
+				int indexInten = intensity.startIndex + y*intensity.stride;
+				int indexMask = mask.startIndex + y*mask.stride;
+				for (int x = 0; x < intensity.width; x++) {
+					mask.data[indexMask++] = (byte)(intensity.data[indexInten++] >= threshold ? 1 : 0);
+				}
+			}
+		});
+
+		components.process(mask, ConnectRule.EIGHT, null);
+
+		// Find the seeds inside each tile then combine them so that they are in raster order
+		int numTiles = components.getNumberOfTiles();
+		tileSeeds.resize(numTiles);
+		BoofConcurrency.loopFor(0, numTiles, tile -> {
+			DogArray_I32 found = tileSeeds.get(tile);
+			found.reset();
+			for (int y = components.getTileY0(tile); y < components.getTileY1(tile); y++) {
+				int indexInten = intensity.startIndex + y*intensity.stride;
+				for (int x = 0; x < intensity.width; x++) {
+					if (intensity.data[indexInten++] >= upper)
+						found.add(y*width + x);
+				}
+			}
+		});
+		seeds.reset();
+		for (int tile = 0; tile < numTiles; tile++) {
+			seeds.addAll(tileSeeds.get(tile));
+		}
+
+		groupSeedsByRegion();
+	}
+
+	/**
+	 * Assigns each seed to a region then sorts them by region without changing the order inside a region
+	 */
+	void groupSeedsByRegion() {
+		int[] roots = components.getRoots().data;
+		regionRoots.reset();
+		rootToRegion.resize(components.getRoots().size);
+		seedRegion.resize(seeds.size);
+
+		for (int i = 0; i < seeds.size; i++) {
+			int root = roots[seeds.data[i]];
+			int region = rootToRegion.data[root];
+			if (region < 0 || region >= regionRoots.size || regionRoots.data[region] != root) {
+				region = regionRoots.size;
+				regionRoots.add(root);
+				rootToRegion.data[root] = region;
+			}
+			seedRegion.data[i] = region;
+		}
+
+		// Count the seeds in each region and convert it into where each region starts
+		int numRegions = regionRoots.size;
+		regionStart.resize(numRegions + 1);
+		regionStart.fill(0);
+		for (int i = 0; i < seeds.size; i++) {
+			regionStart.data[seedRegion.data[i] + 1]++;
+		}
+		for (int i = 1; i <= numRegions; i++) {
+			regionStart.data[i] += regionStart.data[i - 1];
+		}
+
+		// Use the start of the next region as the insertion point, then shift back
+		regionSeeds.resize(seeds.size);
+		for (int i = 0; i < seeds.size; i++) {
+			regionSeeds.data[regionStart.data[seedRegion.data[i]]++] = i;
+		}
+		for (int i = numRegions; i > 0; i--) {
+			regionStart.data[i] = regionStart.data[i - 1];
+		}
+		regionStart.data[0] = 0;
+	}
+
+	/** Number of regions which contain a seed */
+	int getRegionCount() {
+		return regionRoots.size;
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -71,10 +71,7 @@ public class HysteresisEdgeTraceMark {
 		InputSanityCheck.checkSameShape(intensity, direction, output);
 
 		// set up internal data structures
-		this.intensity = intensity;
-		this.direction = direction;
-		this.output = output;
-		this.lower = lower;
+		initialize(intensity, direction, lower, output);
 		ImageMiscOps.fill(output, 0);
 
 		// step through each pixel in the image
@@ -90,6 +87,17 @@ public class HysteresisEdgeTraceMark {
 		}
 	}
 
+	/**
+	 * Specifies the images and threshold used by {@link #trace}
+	 */
+	void initialize( GrayF32 intensity, GrayS8 direction, float lower, GrayU8 output ) {
+		this.intensity = intensity;
+		this.direction = direction;
+		this.output = output;
+		this.lower = lower;
+		this.open.reset();
+	}
+
 	/**
 	 * Traces along object's contour starting at the specified seed. As it does so it will set the intensity of
 	 * points which are below the lower threshold to zero and add points to contour.
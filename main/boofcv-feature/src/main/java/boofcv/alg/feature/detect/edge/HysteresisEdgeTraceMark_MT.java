@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detect.edge;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS8;
+import boofcv.struct.image.GrayU8;
+import pabeles.concurrency.GrowArray;
+
+/**
+ * Concurrent implementation of {@link HysteresisEdgeTraceMark}. The image is broken up into 8-connected regions
+ * of pixels which are above the lower threshold using tiles which are processed in parallel. Then each region is
+ * traced independently. See {@link HysteresisComponents} for why the output is identical to the single
+ * threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class HysteresisEdgeTraceMark_MT extends HysteresisEdgeTraceMark {
+	// Finds the regions and seeds inside of them
+	final HysteresisComponents regions = new HysteresisComponents();
+
+	// Tracer used by each thread
+	final GrowArray<HysteresisEdgeTraceMark> tracers = new GrowArray<>(HysteresisEdgeTraceMark::new);
+
+	@Override
+	public void process( GrayF32 intensity, GrayS8 direction, float lower, float upper,
+						 GrayU8 output ) {
+		if (lower < 0)
+			throw new IllegalArgumentException("Lower must be >= 0!");
+		InputSanityCheck.checkSameShape(intensity, direction, output);
+
+		ImageMiscOps.fill(output, 0);
+		regions.process(intensity, lower, upper);
+
+		if (regions.getRegionCount() == 0)
+			return;
+
+		BoofConcurrency.loopBlocks(0, regions.getRegionCount(), tracers, ( tracer, idx0, idx1 ) -> {
+			tracer.initialize(intensity, direction, lower, output);
+			for (int i = regions.regionStart.get(idx0); i < regions.regionStart.get(idx1); i++) {
+				int pixel = regions.seeds.get(regions.regionSeeds.get(i));
+				int x = pixel%intensity.width;
+				int y = pixel/intensity.width;
+				int indexInten = intensity.getIndex(x, y);
+
+				// Skip if an earlier seed in the region already traced it
+				if (intensity.data[indexInten] >= upper)
+					tracer.trace(x, y, indexInten);
+			}
+		});
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -53,7 +53,7 @@ public class HysteresisEdgeTracePoints {
 	private GrayS8 direction; // 4-direction
 
 	// List of found contours in the image
-	private final List<EdgeContour> contours = new ArrayList<>();
+	final List<EdgeContour> contours = new ArrayList<>();
 
 	// list of segments which have yet to be explored
 	private final List<EdgeSegment> open = new ArrayList<>();
@@ -80,11 +80,7 @@ public class HysteresisEdgeTracePoints {
 		InputSanityCheck.checkSameShape(intensity, direction);
 
 		// set up internal data structures
-		this.intensity = intensity;
-		this.direction = direction;
-		this.lower = lower;
-		queuePoints.reset();
-		contours.clear();
+		initialize(intensity, direction, lower);
 
 		// step through each pixel in the image
 		for (int y = 0; y < intensity.height; y++) {
@@ -99,6 +95,18 @@ public class HysteresisEdgeTracePoints {
 		}
 	}
 
+	/**
+	 * Specifies the images and threshold used by {@link #trace} and discards previously found contours
+	 */
+	void initialize( GrayF32 intensity, GrayS8 direction, float lower ) {
+		this.intensity = intensity;
+		this.direction = direction;
+		this.lower = lower;
+		queuePoints.reset();
+		contours.clear();
+		open.clear();
+	}
+
 	/**
 	 * Traces along object's contour starting at the specified seed. As it does so it will set the intensity of
 	 * points which are below the lower threshold to zero and add points to contour.
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detect.edge;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS8;
+import pabeles.concurrency.GrowArray;
+
+import java.util.Arrays;
+
+/**
+ * Concurrent implementation of {@link HysteresisEdgeTracePoints}. The image is broken up into 8-connected regions
+ * of pixels which are above the lower threshold using tiles which are processed in parallel. Then each region is
+ * traced independently and the contours are put into the same order the single threaded version would find
+ * them in. See {@link HysteresisComponents} for why the output is identical.
+ *
+ * @author Peter Abeles
+ */
+public class HysteresisEdgeTracePoints_MT extends HysteresisEdgeTracePoints {
+	// Finds the regions and seeds inside of them
+	final HysteresisComponents regions = new HysteresisComponents();
+
+	// Tracer used by each thread
+	final GrowArray<HysteresisEdgeTracePoints> tracers = new GrowArray<>(HysteresisEdgeTracePoints::new);
+
+	// The contour which was started by each seed. null if the seed was part of a previous contour
+	EdgeContour[] seedContours = new EdgeContour[0];
+
+	@Override
+	public void process( GrayF32 intensity, GrayS8 direction, float lower, float upper ) {
+		if (lower < 0)
+			throw new IllegalArgumentException("Lower must be >= 0!");
+		InputSanityCheck.checkSameShape(intensity, direction);
+
+		contours.clear();
+		regions.process(intensity, lower, upper);
+
+		int numSeeds = regions.seeds.size;
+		if (seedContours.length < numSeeds)
+			seedContours = new EdgeContour[numSeeds];
+		Arrays.fill(seedContours, 0, numSeeds, null);
+
+		if (regions.getRegionCount() == 0)
+			return;
+
+		BoofConcurrency.loopBlocks(0, regions.getRegionCount(), tracers, ( tracer, idx0, idx1 ) -> {
+			tracer.initialize(intensity, direction, lower);
+			for (int i = regions.regionStart.get(idx0); i < regions.regionStart.get(idx1); i++) {
+				int seedIdx = regions.regionSeeds.get(i);
+				int pixel = regions.seeds.get(seedIdx);
+				int x = pixel%intensity.width;
+				int y = pixel/intensity.width;
+				int indexInten = intensity.getIndex(x, y);
+
+				// Skip if an earlier seed in the region already traced it
+				if (intensity.data[indexInten] < upper)
+					continue;
+				tracer.trace(x, y, indexInten);
+				seedContours[seedIdx] = tracer.contours.get(tracer.contours.size() - 1);
+			}
+		});
+
+		// Contours are saved in the order their seed was encountered in a raster scan
+		for (int i = 0; i < numSeeds; i++) {
+			EdgeContour c = seedContours[i];
+			if (c != null)
+				contours.add(c);
+		}
+	}
+}
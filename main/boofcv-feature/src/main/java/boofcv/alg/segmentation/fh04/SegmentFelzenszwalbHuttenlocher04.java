@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -97,7 +97,7 @@ public class SegmentFelzenszwalbHuttenlocher04<T extends ImageBase<T>> {
 	private final FhEdgeWeights<T> computeWeights;
 
 	private final QuickSortObj_F32 sorter = new QuickSortObj_F32();
-	private @Nullable ApproximateSort_F32 sorterApprox = null;
+	protected @Nullable ApproximateSort_F32 sorterApprox = null;
 	// storage for edges so that they can be recycled on the next call
 	protected DogArray<Edge> edges = new DogArray<>(Edge::new);
 	// list of edges which were not matched to anything. used to merge small regions
@@ -110,8 +110,8 @@ public class SegmentFelzenszwalbHuttenlocher04<T extends ImageBase<T>> {
 	protected DogArray_F32 threshold = new DogArray_F32();
 
 	// List of region ID's and their size
-	private final DogArray_I32 outputRegionId = new DogArray_I32();
-	private final DogArray_I32 outputRegionSizes = new DogArray_I32();
+	protected final DogArray_I32 outputRegionId = new DogArray_I32();
+	protected final DogArray_I32 outputRegionSizes = new DogArray_I32();
 
 	/**
 	 * Specifies tuning parameter
@@ -152,11 +152,7 @@ public class SegmentFelzenszwalbHuttenlocher04<T extends ImageBase<T>> {
 		initialize(input, output);
 
 		// compute edges weights
-//		long time0 = System.currentTimeMillis();
-		computeWeights.process(input, edges);
-//		long time1 = System.currentTimeMillis();
-
-//		System.out.println("Edge weights time " + (time1 - time0));
+		computeEdgeWeights(input);
 
 		// Merge regions together
 		mergeRegions();
@@ -188,22 +184,31 @@ public class SegmentFelzenszwalbHuttenlocher04<T extends ImageBase<T>> {
 	}
 
 	/**
-	 * Follows the merge procedure output in [1]. Two regions are merged together if the edge linking them
-	 * has a weight which is &le; the minimum of the heaviest edges in the two regions.
+	 * Computes the weight of every edge in the graph
 	 */
-	protected void mergeRegions() {
+	protected void computeEdgeWeights( T input ) {
+		computeWeights.process(input, edges);
+	}
 
-		// sort edges
-//		long time0 = System.currentTimeMillis();
+	/**
+	 * Sorts edges by weight in ascending order
+	 */
+	protected void sortEdges() {
 		if (sorterApprox != null) {
 			sorterApprox.computeRange(edges.data, 0, edges.size);
 			sorterApprox.sortObject(edges.data, 0, edges.size);
 		} else {
 			sorter.sort(edges.data, edges.size);
 		}
-//		long time1 = System.currentTimeMillis();
+	}
+
+	/**
+	 * Follows the merge procedure output in [1]. Two regions are merged together if the edge linking them
+	 * has a weight which is &le; the minimum of the heaviest edges in the two regions.
+	 */
+	protected void mergeRegions() {
 
-//		System.out.println("Sort time " + (time1 - time0));
+		sortEdges();
 
 		// examine each edge to see if it can connect two regions
 		for (int i = 0; i < edges.size(); i++) {
@@ -238,9 +243,6 @@ public class SegmentFelzenszwalbHuttenlocher04<T extends ImageBase<T>> {
 				edgesNotMatched.add(e);
 			}
 		}
-
-//		long time2 = System.currentTimeMillis();
-//		System.out.println("Edge merge time " + (time2 - time1));
 	}
 
 	/**
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.segmentation.fh04;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.image.ImageBase;
+import org.ddogleg.struct.DogArray;
+import pabeles.concurrency.GrowArray;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Concurrent implementation of {@link SegmentFelzenszwalbHuttenlocher04}.
+ *
+ * <ul>
+ *     <li>Edge weights are computed in parallel across horizontal bands of the image.</li>
+ *     <li>Edges are sorted with a parallel stable merge sort. The single threaded code uses an unstable sort,
+ *     so edges with the same weight can be in a different order and the segmentation can be slightly different.
+ *     The results do not depend on the number of threads.</li>
+ *     <li>Merging regions is inherently sequential, since each decision depends on all the merges with
+ *     lighter edges before it, and is done on a single thread.</li>
+ *     <li>Labeling the output image is done in parallel.</li>
+ * </ul>
+ *
+ * @author Peter Abeles
+ */
+public class SegmentFelzenszwalbHuttenlocher04_MT<T extends ImageBase<T>> extends SegmentFelzenszwalbHuttenlocher04<T> {
+	/** Number of image rows in each band when computing edge weights */
+	public static final int BAND_ROWS = 32;
+
+	/** Edges are sorted in blocks of at least this size before being merged together */
+	public static final int MIN_SORT_BLOCK = 1 << 14;
+
+	// Orders edges by their weight
+	private static final Comparator<Edge> COMPARATOR = ( a, b ) -> Float.compare(a.sortValue, b.sortValue);
+
+	// Each thread needs its own instance since they can have internal storage
+	final GrowArray<FhEdgeWeights<T>> threadWeights;
+
+	// Edges computed for each band in the current group of bands
+	final DogArray<DogArray<Edge>> bandEdges = new DogArray<>(() -> new DogArray<>(Edge::new), DogArray::reset);
+
+	// Where in the list of all edges each band's edges start
+	int[] bandOffsets = new int[0];
+
+	// Storage used when merging sorted blocks of edges
+	Edge[] sortWork = new Edge[0];
+
+	/**
+	 * @param k Tuning parameter. Larger regions are preferred for larger values of K. Try 300
+	 * @param minimumSize Regions smaller than this are merged into larger regions
+	 * @param factoryWeights Creates the function used to compute edge weights. One is created for each thread.
+	 */
+	public SegmentFelzenszwalbHuttenlocher04_MT( float k, int minimumSize,
+												 BoofLambdas.Factory<FhEdgeWeights<T>> factoryWeights ) {
+		super(k, minimumSize, factoryWeights.newInstance());
+		threadWeights = new GrowArray<>(factoryWeights::newInstance);
+	}
+
+	/**
+	 * The image is broken up into bands and edges are computed in each band in parallel. To bound the amount of
+	 * extra memory, bands are processed in groups of one band per thread and then copied into the list of edges.
+	 * Each band includes the first row of the next band, so that edges which cross between the bands can be
+	 * found, and edges which lie entirely inside that row are discarded.
+	 */
+	@Override protected void computeEdgeWeights( T input ) {
+		edges.reset();
+
+		final int numBands = (input.height + BAND_ROWS - 1)/BAND_ROWS;
+		final int bandsInGroup = Math.max(1, BoofConcurrency.getEffectiveActiveThreads());
+		bandEdges.resize(bandsInGroup);
+		if (bandOffsets.length < bandsInGroup)
+			bandOffsets = new int[bandsInGroup];
+
+		for (int group0 = 0; group0 < numBands; group0 += bandsInGroup) {
+			final int firstBand = group0;
+			final int group1 = Math.min(numBands, group0 + bandsInGroup);
+
+			BoofConcurrency.loopBlocks(group0, group1, 1, threadWeights, ( weights, idx0, idx1 ) -> {
+				for (int band = idx0; band < idx1; band++) {
+					computeBandEdges(input, band, weights, bandEdges.get(band - firstBand));
+				}
+			});
+
+			// Copy the edges from each band in order
+			int total = edges.size;
+			for (int band = group0; band < group1; band++) {
+				bandOffsets[band - group0] = total;
+				total += bandEdges.get(band - group0).size;
+			}
+			edges.resize(total);
+
+			BoofConcurrency.loopFor(group0, group1, band -> {
+				DogArray<Edge> src = bandEdges.get(band - firstBand);
+				int offset = bandOffsets[band - firstBand];
+				for (int i = 0; i < src.size; i++) {
+					Edge s = src.data[i];
+					Edge d = edges.data[offset + i];
+					d.sortValue = s.sortValue;
+					d.indexA = s.indexA;
+					d.indexB = s.indexB;
+				}
+			});
+		}
+	}
+
+	/**
+	 * Computes the edges for pixels inside the band
+	 */
+	void computeBandEdges( T input, int band, FhEdgeWeights<T> weights, DogArray<Edge> found ) {
+		final int y0 = band*BAND_ROWS;
+		final int y1 = Math.min(input.height, y0 + BAND_ROWS);
+		// Include the next row so that edges which go across bands are included
+		final boolean extraRow = y1 < input.height;
+		final T sub = input.subimage(0, y0, input.width, extraRow ? y1 + 1 : y1);
+
+		found.reset();
+		weights.process(sub, found);
+
+		// Convert into the coordinates of the full image and remove edges which are inside the extra row
+		final int firstIndexExtra = (y1 - y0)*input.width;
+		final int offset = y0*input.width;
+		int count = 0;
+		for (int i = 0; i < found.size; i++) {
+			Edge e = found.data[i];
+			if (extraRow && e.indexA >= firstIndexExtra && e.indexB >= firstIndexExtra)
+				continue;
+			e.indexA += offset;
+			e.indexB += offset;
+			// swap the objects to avoid creating new edges
+			found.data[i] = found.data[count];
+			found.data[count++] = e;
+		}
+		found.size = count;
+	}
+
+	/**
+	 * Blocks of edges are sorted in parallel then merged together. A stable sort is used so that the results
+	 * don't depend on how the edges were split up.
+	 */
+	@Override protected void sortEdges() {
+		// The approximate sort is already linear time
+		if (sorterApprox != null) {
+			super.sortEdges();
+			return;
+		}
+
+		final int N = edges.size;
+		final int numThreads = Math.max(1, BoofConcurrency.getEffectiveActiveThreads());
+		final int blockSize = Math.max(MIN_SORT_BLOCK, (N + numThreads - 1)/numThreads);
+
+		final Edge[] data = edges.data;
+		BoofConcurrency.loopFor(0, (N + blockSize - 1)/blockSize, block -> {
+			int i0 = block*blockSize;
+			Arrays.sort(data, i0, Math.min(N, i0 + blockSize), COMPARATOR);
+		});
+
+		if (blockSize >= N)
+			return;
+
+		if (sortWork.length < N)
+			sortWork = new Edge[N];
+
+		Edge[] src = data;
+		Edge[] dst = sortWork;
+		for (int width = blockSize; width < N; width *= 2) {
+			final int w = width;
+			final Edge[] s = src, d = dst;
+			BoofConcurrency.loopFor(0, (N + 2*w - 1)/(2*w), pair -> {
+				int lo = pair*2*w;
+				merge(s, d, lo, Math.min(N, lo + w), Math.min(N, lo + 2*w));
+			});
+			src = d;
+			dst = s;
+		}
+
+		if (src != data)
+			System.arraycopy(src, 0, data, 0, N);
+		// Don't hold on to references
+		Arrays.fill(sortWork, 0, N, null);
+	}
+
+	/**
+	 * Merges two sorted ranges. If weights are equal then the edge in the first range comes first.
+	 */
+	static void merge( Edge[] src, Edge[] dst, int lo, int mid, int hi ) {
+		int i = lo, j = mid, k = lo;
+		while (i < mid && j < hi) {
+			if (Float.compare(src[j].sortValue, src[i].sortValue) < 0)
+				dst[k++] = src[j++];
+			else
+				dst[k++] = src[i++];
+		}
+		while (i < mid) dst[k++] = src[i++];
+		while (j < hi) dst[k++] = src[j++];
+	}
+
+	/**
+	 * Every pixel is pointed directly at its root in parallel. This is safe since roots don't change and every
+	 * value written into a pixel is on the path to the same root. Roots are then found in a single pass.
+	 */
+	@Override protected void computeOutput() {
+		BoofConcurrency.loopBlocks(0, graph.height, ( y0, y1 ) -> {
+			for (int y = y0; y < y1; y++) {
+				int indexGraph = graph.startIndex + y*graph.stride;
+				for (int x = 0; x < graph.width; x++, indexGraph++) {
+					int parent = graph.data[indexGraph];
+					if (parent == indexGraph)
+						continue;
+					int child = indexGraph;
+					while (parent != child) {
+						child = parent;
+						parent = graph.data[child];
+					}
+					graph.data[indexGraph] = parent;
+				}
+			}
+		});
+
+		outputRegionId.reset();
+		outputRegionSizes.reset();
+		for (int y = 0; y < graph.height; y++) {
+			int indexGraph = graph.startIndex + y*graph.stride;
+			for (int x = 0; x < graph.width; x++, indexGraph++) {
+				if (graph.data[indexGraph] == indexGraph) {
+					outputRegionId.add(indexGraph);
+					outputRegionSizes.add(regionSize.get(indexGraph));
+				}
+			}
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,6 +18,7 @@
 
 package boofcv.alg.segmentation.ms;
 
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.GrayS32;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
@@ -25,6 +26,8 @@ import georegression.struct.point.Point2D_I32;
 import org.ddogleg.struct.DogArray;
 import org.ddogleg.struct.DogArray_I32;
 import org.ddogleg.struct.Stoppable;
+import org.jetbrains.annotations.Nullable;
+import pabeles.concurrency.GrowArray;
 
 /**
  * <p>
@@ -119,6 +122,15 @@ public abstract class SegmentMeanShiftSearch<T extends ImageBase<T>>
 	// if a stop was requested
 	protected boolean stopRequested = false;
 
+	// If true and not fast then mean-shift is run on each pixel in parallel
+	protected boolean concurrent = false;
+
+	// Pixel index of the mode that mean-shift converged to for each pixel. Used when concurrent
+	protected GrayS32 pixelToPeak = new GrayS32(1, 1);
+
+	// Each thread has its own instance since searches modify internal storage
+	protected @Nullable GrowArray<SegmentMeanShiftSearch<T>> workers;
+
 	/**
 	 * Configures mean-shift segmentation
 	 *
@@ -167,6 +179,78 @@ public abstract class SegmentMeanShiftSearch<T extends ImageBase<T>>
 	 */
 	public abstract void process( T image );
 
+	/**
+	 * Returns true if mean-shift should be run on each pixel in parallel
+	 */
+	protected boolean isProcessedConcurrently() {
+		return concurrent && !fast;
+	}
+
+	/**
+	 * Runs mean-shift from each pixel in parallel and saves the pixel index of the mode each one converged to in
+	 * {@link #pixelToPeak}. Modes are then created in the same order as the single threaded code. Not possible with
+	 * the fast approximation, since it uses the results from previous pixels.
+	 */
+	protected void processConcurrent() {
+		GrowArray<SegmentMeanShiftSearch<T>> workers = this.workers;
+		if (workers == null)
+			this.workers = workers = new GrowArray<>(this::createWorker);
+
+		final T image = this.image;
+		pixelToPeak.reshape(image.width, image.height);
+		BoofConcurrency.loopBlocks(0, image.height, workers, ( worker, y0, y1 ) -> {
+			for (int y = y0; y < y1 && !stopRequested; y++) {
+				int indexImg = y*image.width;
+				for (int x = 0; x < image.width; x++) {
+					pixelToPeak.data[indexImg++] = worker.findPeakPixel(image, x, y);
+				}
+			}
+		});
+		if (stopRequested)
+			return;
+
+		int indexImg = 0;
+		for (int y = 0; y < image.height; y++) {
+			for (int x = 0; x < image.width; x++, indexImg++) {
+				int modePixelIndex = pixelToPeak.data[indexImg];
+
+				// get index in the list of peaks
+				int modeIndex = quickMode.data[modePixelIndex];
+				// If the mode is new add it to the list
+				if (modeIndex < 0) {
+					modeIndex = this.modeLocation.size();
+					this.modeLocation.grow().setTo(modePixelIndex%image.width, modePixelIndex/image.width);
+					// The color is only needed for the first pixel to find a mode, so it's computed again here
+					// instead of being saved for every pixel
+					savePeakColor(x, y);
+					// Mark the mode in the segment image
+					quickMode.data[modePixelIndex] = modeIndex;
+					modeMemberCount.add(0);
+				}
+
+				modeMemberCount.data[modeIndex]++;
+				pixelToMode.data[indexImg] = modeIndex;
+			}
+		}
+	}
+
+	/**
+	 * Creates a search which is used by a single thread when processing concurrently
+	 */
+	protected abstract SegmentMeanShiftSearch<T> createWorker();
+
+	/**
+	 * Runs mean-shift starting at the specified pixel
+	 *
+	 * @return Index of the pixel the mode converged to
+	 */
+	protected abstract int findPeakPixel( T image, int x, int y );
+
+	/**
+	 * Runs mean-shift starting at the specified pixel and adds the mode's color to {@link #modeColor}
+	 */
+	protected abstract void savePeakColor( int x, int y );
+
 	/**
 	 * Returns the Euclidean distance squared between the two vectors
 	 */
@@ -227,6 +311,18 @@ public abstract class SegmentMeanShiftSearch<T extends ImageBase<T>>
 
 	public abstract ImageType<T> getImageType();
 
+	/**
+	 * If true, then mean-shift will be run on each pixel in parallel. This has no effect if the fast approximation
+	 * is used, since it processes pixels sequentially. The results are the same either way.
+	 */
+	public void setConcurrent( boolean concurrent ) {
+		this.concurrent = concurrent;
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
 	@Override
 	public void requestStop() {
 		stopRequested = true;
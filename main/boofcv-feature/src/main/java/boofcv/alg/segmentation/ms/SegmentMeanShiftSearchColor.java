@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -92,6 +92,11 @@ public class SegmentMeanShiftSearchColor<T extends ImageMultiBand<T>> extends Se
 		// mark all pixels are not being a mode
 		ImageMiscOps.fill(quickMode, -1);
 
+		if (isProcessedConcurrently()) {
+			processConcurrent();
+			return;
+		}
+
 		// use mean shift to find the peak of each pixel in the image
 		int indexImg = 0;
 		for (int y = 0; y < image.height && !stopRequested; y++) {
@@ -144,6 +149,33 @@ public class SegmentMeanShiftSearchColor<T extends ImageMultiBand<T>> extends Se
 		}
 	}
 
+	@Override protected SegmentMeanShiftSearch<T> createWorker() {
+		var worker = new SegmentMeanShiftSearchColor<>(maxIterations, convergenceTol, interpolate.copy(),
+				radiusX, radiusY, 1.0f, false, imageType);
+		worker.maxColorDistanceSq = maxColorDistanceSq;
+		return worker;
+	}
+
+	@Override protected int findPeakPixel( T image, int x, int y ) {
+		if (this.image != image) {
+			this.image = image;
+			interpolate.setImage(image);
+		}
+		interpolate.get(x, y, meanColor);
+		findPeak(x, y, meanColor);
+
+		// convert mean-shift location into pixel index
+		int modeX = (int)(this.modeX + 0.5f);
+		int modeY = (int)(this.modeY + 0.5f);
+		return modeY*image.width + modeX;
+	}
+
+	@Override protected void savePeakColor( int x, int y ) {
+		interpolate.get(x, y, meanColor);
+		findPeak(x, y, meanColor);
+		savePeakColor(meanColor);
+	}
+
 	@Override
 	public ImageType<T> getImageType() {
 		return imageType;
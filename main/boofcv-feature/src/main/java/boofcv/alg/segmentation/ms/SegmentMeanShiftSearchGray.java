@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -78,6 +78,11 @@ public class SegmentMeanShiftSearchGray<T extends ImageGray<T>> extends SegmentM
 		// mark all pixels are not being a mode
 		ImageMiscOps.fill(quickMode, -1);
 
+		if (isProcessedConcurrently()) {
+			processConcurrent();
+			return;
+		}
+
 		// use mean shift to find the peak of each pixel in the image
 		int indexImg = 0;
 		for (int y = 0; y < image.height && !stopRequested; y++) {
@@ -135,6 +140,31 @@ public class SegmentMeanShiftSearchGray<T extends ImageGray<T>> extends SegmentM
 		return interpolate.getImageType();
 	}
 
+	@Override protected SegmentMeanShiftSearch<T> createWorker() {
+		var worker = new SegmentMeanShiftSearchGray<>(maxIterations, convergenceTol, interpolate.copy(),
+				radiusX, radiusY, 1.0f, false);
+		worker.maxColorDistanceSq = maxColorDistanceSq;
+		return worker;
+	}
+
+	@Override protected int findPeakPixel( T image, int x, int y ) {
+		if (this.image != image) {
+			this.image = image;
+			interpolate.setImage(image);
+		}
+		findPeak(x, y, interpolate.get(x, y));
+
+		// convert mean-shift location into pixel index
+		int modeX = (int)(this.modeX + 0.5f);
+		int modeY = (int)(this.modeY + 0.5f);
+		return modeY*image.width + modeX;
+	}
+
+	@Override protected void savePeakColor( int x, int y ) {
+		findPeak(x, y, interpolate.get(x, y));
+		modeColor.grow()[0] = meanGray;
+	}
+
 	/**
 	 * Uses mean-shift to find the peak. Returns the peak as an index in the image data array.
 	 *
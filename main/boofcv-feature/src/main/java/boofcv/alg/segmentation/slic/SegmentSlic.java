@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -21,6 +21,7 @@ package boofcv.alg.segmentation.slic;
 import boofcv.alg.segmentation.ComputeRegionMeanColor;
 import boofcv.alg.segmentation.ms.ClusterLabeledImage;
 import boofcv.alg.segmentation.ms.MergeSmallRegions;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.segmentation.FactorySegmentationAlg;
 import boofcv.struct.ConnectRule;
 import boofcv.struct.feature.ColorQueue_F32;
@@ -56,6 +57,12 @@ import java.util.Arrays;
  * </p>
  *
  * <p>
+ * If {@link #setConcurrent concurrent} is true then the assignment and update steps of k-means are run in
+ * parallel. The assignment step is split by image rows and the update step by cluster. In both cases every
+ * sum is computed in the same order as the single threaded code, so the results are identical.
+ * </p>
+ *
+ * <p>
  * [1] Radhakrishna Achanta, Appu Shaji, Kevin Smith, Aurelien Lucchi, Pascal Fua, and Sabine Süsstrunk,
  * SLIC Superpixels, EPFL Technical Report no. 149300, June 2010.
  * </p>
@@ -111,6 +118,9 @@ public abstract class SegmentSlic<T extends ImageBase<T>>
 	// connectivity rule
 	protected ConnectRule connectRule;
 
+	// If true then k-means iterations are run in parallel
+	protected boolean concurrent = false;
+
 	private volatile boolean stopRequested = false;
 
 	protected SegmentSlic( int numberOfRegions, float m, int totalIterations,
@@ -267,26 +277,52 @@ public abstract class SegmentSlic<T extends ImageBase<T>>
 	 * Computes how far away each cluster is from each pixel. Expectation step.
 	 */
 	protected void computeClusterDistance() {
-		for (int i = 0; i < pixels.size; i++) {
+		for (int i = 0; i < clusters.size; i++) {
+			setSearchWindow(clusters.data[i]);
+		}
+
+		if (concurrent) {
+			BoofConcurrency.loopBlocks(0, input.height, this::computeClusterDistance);
+		} else {
+			computeClusterDistance(0, input.height);
+		}
+	}
+
+	/**
+	 * Computes the region around the cluster's center which it will be compared against
+	 */
+	protected void setSearchWindow( Cluster c ) {
+		int centerX = (int)(c.x + 0.5f);
+		int centerY = (int)(c.y + 0.5f);
+
+		c.searchX0 = Math.max(0, centerX - gridInterval);
+		c.searchX1 = Math.min(input.width, centerX + gridInterval + 1);
+		c.searchY0 = Math.max(0, centerY - gridInterval);
+		c.searchY1 = Math.min(input.height, centerY + gridInterval + 1);
+	}
+
+	/**
+	 * Computes the distance of pixels inside the specified rows from each cluster. Clusters are always
+	 * considered in the same order so that the result doesn't depend on how rows are split up.
+	 *
+	 * @param rowY0 First row, inclusive
+	 * @param rowY1 Last row, exclusive
+	 */
+	protected void computeClusterDistance( int rowY0, int rowY1 ) {
+		for (int i = rowY0*input.width; i < rowY1*input.width; i++) {
 			pixels.data[i].reset();
 		}
 
 		for (int i = 0; i < clusters.size && !stopRequested; i++) {
 			Cluster c = clusters.data[i];
 
-			// compute search bounds
 			int centerX = (int)(c.x + 0.5f);
 			int centerY = (int)(c.y + 0.5f);
 
-			int x0 = centerX - gridInterval;
-			int x1 = centerX + gridInterval + 1;
-			int y0 = centerY - gridInterval;
-			int y1 = centerY + gridInterval + 1;
-
-			if (x0 < 0) x0 = 0;
-			if (y0 < 0) y0 = 0;
-			if (x1 > input.width) x1 = input.width;
-			if (y1 > input.height) y1 = input.height;
+			int x0 = c.searchX0;
+			int x1 = c.searchX1;
+			int y0 = Math.max(rowY0, c.searchY0);
+			int y1 = Math.min(rowY1, c.searchY1);
 
 			for (int y = y0; y < y1; y++) {
 				int indexPixel = y*input.width + x0;
@@ -313,6 +349,22 @@ public abstract class SegmentSlic<T extends ImageBase<T>>
 			clusters.data[i].reset();
 		}
 
+		if (concurrent) {
+			updateClustersConcurrent();
+		} else {
+			updateClustersSequential();
+		}
+
+		// recompute the center of each cluster
+		for (int i = 0; i < clusters.size; i++) {
+			clusters.data[i].update();
+		}
+	}
+
+	/**
+	 * Goes through each pixel and adds its weighted location and color to the clusters it was compared against
+	 */
+	private void updateClustersSequential() {
 		int indexPixel = 0;
 		for (int y = 0; y < input.height && !stopRequested; y++) {
 			int indexInput = input.startIndex + y*input.stride;
@@ -331,11 +383,44 @@ public abstract class SegmentSlic<T extends ImageBase<T>>
 				}
 			}
 		}
+	}
 
-		// recompute the center of each cluster
-		for (int i = 0; i < clusters.size; i++) {
-			clusters.data[i].update();
-		}
+	/**
+	 * Each cluster only needs to look at pixels inside its search window, which are visited in the same order as
+	 * {@link #updateClustersSequential()} so that the sums are identical. Clusters are processed in parallel.
+	 */
+	private void updateClustersConcurrent() {
+		// convert the distance each cluster is from the pixel into weights
+		BoofConcurrency.loopBlocks(0, pixels.size, ( idx0, idx1 ) -> {
+			for (int i = idx0; i < idx1; i++) {
+				pixels.data[i].computeWeights();
+			}
+		});
+
+		BoofConcurrency.loopBlocks(0, clusters.size, ( idx0, idx1 ) -> {
+			for (int clusterIdx = idx0; clusterIdx < idx1 && !stopRequested; clusterIdx++) {
+				Cluster c = clusters.data[clusterIdx];
+
+				for (int y = c.searchY0; y < c.searchY1; y++) {
+					int indexPixel = y*input.width + c.searchX0;
+					int indexInput = input.startIndex + y*input.stride + c.searchX0;
+					for (int x = c.searchX0; x < c.searchX1; x++, indexPixel++, indexInput++) {
+						Pixel p = pixels.data[indexPixel];
+
+						for (int i = 0; i < p.clusters.size; i++) {
+							ClusterDistance d = p.clusters.data[i];
+							if (d.cluster != c)
+								continue;
+							c.x += x*d.distance;
+							c.y += y*d.distance;
+							c.totalWeight += d.distance;
+							addColor(c.color, indexInput, d.distance);
+							break;
+						}
+					}
+				}
+			}
+		});
 	}
 
 	/**
@@ -455,6 +540,9 @@ public abstract class SegmentSlic<T extends ImageBase<T>>
 		// the total. Used when being updated
 		public float totalWeight;
 
+		// Region which is compared against the cluster. Lower extent is inclusive and upper is exclusive.
+		public int searchX0, searchY0, searchX1, searchY1;
+
 		public void reset() {
 			x = y = 0;
 			Arrays.fill(color, 0);
@@ -470,6 +558,17 @@ public abstract class SegmentSlic<T extends ImageBase<T>>
 		}
 	}
 
+	/**
+	 * If true then k-means iterations will be run in parallel. The results are the same either way.
+	 */
+	public void setConcurrent( boolean concurrent ) {
+		this.concurrent = concurrent;
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
 	public ImageType<T> getImageType() {
 		return imageType;
 	}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -24,6 +24,7 @@ import boofcv.alg.background.stationary.*;
 import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.distort.Point2Transform2Model_F32;
 import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
 import georegression.struct.InvertibleTransform;
 import org.jetbrains.annotations.Nullable;
@@ -260,4 +261,61 @@ public class FactoryBackgroundModel {
 
 		return ret;
 	}
+
+	/**
+	 * Creates an instance of {@link BackgroundMultiStreamBasic} for processing many streams at once.
+	 *
+	 * @param config Configures the background model. The learning rate is the default for new streams.
+	 * @param imageType Type of input image
+	 * @return new instance of the background model
+	 */
+	public static <T extends ImageGray<T>>
+	BackgroundMultiStreamBasic<T> multiStreamBasic( ConfigBackgroundBasic config, ImageType<T> imageType ) {
+		config.checkValidity();
+
+		var ret = new BackgroundMultiStreamBasic<>(config.learnRate, config.threshold, imageType);
+		ret.setUnknownValue(config.unknownValue);
+		return ret;
+	}
+
+	/**
+	 * Creates an instance of {@link BackgroundMultiStreamGaussian} for processing many streams at once.
+	 *
+	 * @param config Configures the background model. The learning rate is the default for new streams.
+	 * @param imageType Type of input image
+	 * @return new instance of the background model
+	 */
+	public static <T extends ImageGray<T>>
+	BackgroundMultiStreamGaussian<T> multiStreamGaussian( ConfigBackgroundGaussian config, ImageType<T> imageType ) {
+		config.checkValidity();
+
+		var ret = new BackgroundMultiStreamGaussian<>(config.learnRate, config.threshold, imageType);
+		ret.setInitialVariance(config.initialVariance);
+		ret.setMinimumDifference(config.minimumDifference);
+		ret.setUnknownValue(config.unknownValue);
+		return ret;
+	}
+
+	/**
+	 * Creates an instance of {@link BackgroundMultiStreamGmm} for processing many streams at once.
+	 *
+	 * @param config Configures the background model. The learning period is the default for new streams.
+	 * @param imageType Type of input image
+	 * @return new instance of the background model
+	 */
+	public static <T extends ImageGray<T>>
+	BackgroundMultiStreamGmm<T> multiStreamGmm( @Nullable ConfigBackgroundGmm config, ImageType<T> imageType ) {
+		if (config == null)
+			config = new ConfigBackgroundGmm();
+		else
+			config.checkValidity();
+
+		var ret = new BackgroundMultiStreamGmm<>(config.learningPeriod, config.decayCoefient,
+				config.numberOfGaussian, imageType);
+		ret.setInitialVariance(config.initialVariance);
+		ret.setMaxDistance(config.maxDistance);
+		ret.setSignificantWeight(config.significantWeight);
+		ret.setUnknownValue(config.unknownValue);
+		return ret;
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -34,6 +34,7 @@ public class ConfigAssociate implements Configuration {
 
 	public ConfigAssociateGreedy greedy = new ConfigAssociateGreedy();
 	public ConfigAssociateNearestNeighbor nearestNeighbor = new ConfigAssociateNearestNeighbor();
+	public ConfigAssociateMultiIndexHashing multiIndexHashing = new ConfigAssociateMultiIndexHashing();
 
 	/**
 	 * <p>Specifies the maximum distance allowed between associated pixels. This is only used when creating
@@ -48,16 +49,20 @@ public class ConfigAssociate implements Configuration {
 	public void checkValidity() {
 		greedy.checkValidity();
 		nearestNeighbor.checkValidity();
+		multiIndexHashing.checkValidity();
 	}
 
 	public enum AssociationType {
 		GREEDY, KD_TREE, RANDOM_FOREST,
+		/** Exact search for binary descriptors only. See {@link ConfigAssociateMultiIndexHashing} */
+		MULTI_INDEX_HASHING,
 	}
 
 	public ConfigAssociate setTo( ConfigAssociate src ) {
 		this.type = src.type;
 		this.greedy.setTo(src.greedy);
 		this.nearestNeighbor.setTo(src.nearestNeighbor);
+		this.multiIndexHashing.setTo(src.multiIndexHashing);
 		this.maximumDistancePixels.setTo(src.maximumDistancePixels);
 		return this;
 	}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.factory.feature.associate;
+
+import boofcv.alg.feature.associate.NearestNeighborMultiIndexHashing_B;
+import boofcv.struct.Configuration;
+
+/**
+ * Configuration for {@link NearestNeighborMultiIndexHashing_B}.
+ *
+ * @author Peter Abeles
+ */
+public class ConfigAssociateMultiIndexHashing implements Configuration {
+	/**
+	 * Number of substrings a binary descriptor is broken up into. Each substring can be at most 32 bits. If
+	 * &le; 0 then it's selected automatically using the number of features.
+	 */
+	public int numSubstrings = 0;
+
+	/**
+	 * If &ge; 0 then this is the maximum Hamming distance that will be searched. Matches are exact within this
+	 * radius. Setting this to a small value can significantly reduce the search time.
+	 */
+	public int maxSearchRadius = -1;
+
+	@Override public void checkValidity() {}
+
+	public ConfigAssociateMultiIndexHashing setTo( ConfigAssociateMultiIndexHashing src ) {
+		this.numSubstrings = src.numSubstrings;
+		this.maxSearchRadius = src.maxSearchRadius;
+		return this;
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -48,11 +48,18 @@ public class FactoryAssociation {
 				return FactoryAssociation.greedy(config.greedy, scorer);
 			}
 			case KD_TREE:
-				return (AssociateDescription)FactoryAssociation.kdtree(config.nearestNeighbor, DOF);
+				return (AssociateDescription)FactoryAssociation.kdtree(
+						config.nearestNeighbor, DOF, info.getDescriptionType());
 
 			case RANDOM_FOREST:
 				return (AssociateDescription)FactoryAssociation.kdRandomForest(
-						config.nearestNeighbor, DOF, 10, 5, 1233445565);
+						config.nearestNeighbor, DOF, 10, 5, 1233445565, info.getDescriptionType());
+
+			case MULTI_INDEX_HASHING:
+				if (info.getDescriptionType() != TupleDesc_B.class)
+					throw new IllegalArgumentException("Multi-index hashing only supports TupleDesc_B");
+				return (AssociateDescription)FactoryAssociation.multiIndexHashing(
+						config.nearestNeighbor, config.multiIndexHashing);
 			default:
 				throw new IllegalArgumentException("Unknown association: " + config.type);
 		}
@@ -168,11 +175,24 @@ public class FactoryAssociation {
 	 */
 	public static AssociateDescription<TupleDesc_F64> kdtree(
 			@Nullable ConfigAssociateNearestNeighbor configNN, int dimension ) {
+		return kdtree(configNN, dimension, TupleDesc_F64.class);
+	}
+
+	/**
+	 * Same as {@link #kdtree(ConfigAssociateNearestNeighbor, int)} but for any descriptor type supported by
+	 * {@link #kdtreeDistance(int, Class)}, e.g. {@link TupleDesc_F32}.
+	 *
+	 * @param dimension Number of elements in the feature vector
+	 * @param type Type of descriptor
+	 * @return Association using approximate nearest neighbor
+	 */
+	public static <TD extends TupleDesc<TD>> AssociateDescription<TD> kdtree(
+			@Nullable ConfigAssociateNearestNeighbor configNN, int dimension, Class<TD> type ) {
 		if (configNN == null)
 			configNN = new ConfigAssociateNearestNeighbor();
-		NearestNeighbor nn = FactoryNearestNeighbor.kdtree(new KdTreeTuple_F64(dimension), configNN.maxNodesSearched);
+		NearestNeighbor<TD> nn = FactoryNearestNeighbor.kdtree(kdtreeDistance(dimension, type), configNN.maxNodesSearched);
 
-		return associateNearestNeighbor(configNN, nn);
+		return associateNearestNeighbor(configNN, nn, type);
 	}
 
 	/**
@@ -193,13 +213,50 @@ public class FactoryAssociation {
 																	  int numTrees,
 																	  int numConsiderSplit,
 																	  long randomSeed ) {
+		return kdRandomForest(configNN, dimension, numTrees, numConsiderSplit, randomSeed, TupleDesc_F64.class);
+	}
+
+	/**
+	 * Same as {@link #kdRandomForest(ConfigAssociateNearestNeighbor, int, int, int, long)} but for any descriptor
+	 * type supported by {@link #kdtreeDistance(int, Class)}, e.g. {@link TupleDesc_F32}.
+	 */
+	public static <TD extends TupleDesc<TD>> AssociateDescription<TD> kdRandomForest( @Nullable ConfigAssociateNearestNeighbor configNN,
+																					  int dimension,
+																					  int numTrees,
+																					  int numConsiderSplit,
+																					  long randomSeed,
+																					  Class<TD> type ) {
 		if (configNN == null)
 			configNN = new ConfigAssociateNearestNeighbor();
-		NearestNeighbor nn = FactoryNearestNeighbor.kdRandomForest(
-				new KdTreeTuple_F64(dimension),
+		NearestNeighbor<TD> nn = FactoryNearestNeighbor.kdRandomForest(
+				kdtreeDistance(dimension, type),
 				configNN.maxNodesSearched, numTrees, numConsiderSplit, randomSeed);
 
-		return associateNearestNeighbor(configNN, nn);
+		return associateNearestNeighbor(configNN, nn, type);
+	}
+
+	/**
+	 * Exact association for binary descriptors using multi-index hashing. Typically much faster than brute force
+	 * when matches have a small Hamming distance. The ratio test is applied to the Hamming distance directly.
+	 *
+	 * @param configNN Configuration for nearest neighbor association
+	 * @param configHash Configuration for multi-index hashing
+	 * @return Association using exact nearest neighbor in Hamming space
+	 * @see NearestNeighborMultiIndexHashing_B
+	 */
+	public static AssociateDescription<TupleDesc_B> multiIndexHashing(
+			@Nullable ConfigAssociateNearestNeighbor configNN, @Nullable ConfigAssociateMultiIndexHashing configHash ) {
+		if (configHash == null)
+			configHash = new ConfigAssociateMultiIndexHashing();
+		configHash.checkValidity();
+
+		var nn = new NearestNeighborMultiIndexHashing_B(configHash.numSubstrings);
+		nn.setMaxSearchRadius(configHash.maxSearchRadius);
+
+		AssociateNearestNeighbor<TupleDesc_B> assoc = associateNearestNeighbor(configNN, nn, TupleDesc_B.class);
+		// Hamming distance isn't squared
+		assoc.setRatioUsesSqrt(false);
+		return assoc;
 	}
 
 	public static <TD extends TupleDesc<TD>> KdTreeDistance<TD> kdtreeDistance( int dof, Class<TD> type ) {
@@ -214,16 +271,21 @@ public class FactoryAssociation {
 
 	public static AssociateNearestNeighbor<TupleDesc_F64>
 	associateNearestNeighbor( @Nullable ConfigAssociateNearestNeighbor config, NearestNeighbor nn ) {
+		return associateNearestNeighbor(config, nn, TupleDesc_F64.class);
+	}
+
+	public static <TD extends TupleDesc<TD>> AssociateNearestNeighbor<TD>
+	associateNearestNeighbor( @Nullable ConfigAssociateNearestNeighbor config, NearestNeighbor<TD> nn, Class<TD> type ) {
 		if (config == null)
 			config = new ConfigAssociateNearestNeighbor();
 
 		config.checkValidity();
 
-		AssociateNearestNeighbor<TupleDesc_F64> assoc;
+		AssociateNearestNeighbor<TD> assoc;
 		if (BoofConcurrency.USE_CONCURRENT) {
-			assoc = new AssociateNearestNeighbor_MT<>(nn, TupleDesc_F64.class);
+			assoc = new AssociateNearestNeighbor_MT<>(nn, type);
 		} else {
-			assoc = new AssociateNearestNeighbor_ST<>(nn, TupleDesc_F64.class);
+			assoc = new AssociateNearestNeighbor_ST<>(nn, type);
 		}
 		assoc.setRatioUsesSqrt(config.distanceIsSquared);
 		assoc.setMaxScoreThreshold(config.maxErrorThreshold);
@@ -302,6 +364,8 @@ public class FactoryAssociation {
 		} else if (tupleType == TupleDesc_F32.class) {
 			if (squared)
 				return (ScoreAssociation)new ScoreAssociateEuclideanSq.F32();
+			else
+				return (ScoreAssociation)new ScoreAssociateEuclidean_F32();
 		}
 
 		throw new IllegalArgumentException("Euclidean score not yet supported for type " + tupleType.getSimpleName());
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -24,10 +24,12 @@ import boofcv.alg.interpolate.InterpolationType;
 import boofcv.alg.segmentation.ComputeRegionMeanColor;
 import boofcv.alg.segmentation.fh04.FhEdgeWeights;
 import boofcv.alg.segmentation.fh04.SegmentFelzenszwalbHuttenlocher04;
+import boofcv.alg.segmentation.fh04.SegmentFelzenszwalbHuttenlocher04_MT;
 import boofcv.alg.segmentation.fh04.impl.*;
 import boofcv.alg.segmentation.ms.*;
 import boofcv.alg.segmentation.slic.*;
 import boofcv.alg.segmentation.watershed.WatershedVincentSoille1991;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.struct.ConnectRule;
 import boofcv.struct.border.BorderType;
@@ -106,6 +108,9 @@ public class FactorySegmentationAlg {
 		ComputeRegionMeanColor<T> regionColor = regionMeanColor(imageType);
 		MergeRegionMeanShift merge = new MergeRegionMeanShift(spacialRadius/2 + 1, Math.max(1, colorRadius/2));
 
+		// The fast approximation can't be run concurrently
+		search.setConcurrent(BoofConcurrency.isUseConcurrent());
+
 		MergeSmallRegions<T> prune = config.minimumRegionSize >= 2 ?
 				new MergeSmallRegions<>(config.minimumRegionSize, config.connectRule, regionColor) : null;
 
@@ -157,10 +162,15 @@ public class FactorySegmentationAlg {
 		if (config == null)
 			config = new ConfigFh04();
 
-		FhEdgeWeights<T> edgeWeights = weightsFelzenszwalb04(config.connectRule, imageType);
-
-		SegmentFelzenszwalbHuttenlocher04<T> alg =
-				new SegmentFelzenszwalbHuttenlocher04<>(config.K, config.minimumRegionSize, edgeWeights);
+		SegmentFelzenszwalbHuttenlocher04<T> alg;
+		if (BoofConcurrency.isUseConcurrent()) {
+			ConnectRule rule = config.connectRule;
+			alg = new SegmentFelzenszwalbHuttenlocher04_MT<>(config.K, config.minimumRegionSize,
+					() -> weightsFelzenszwalb04(rule, imageType));
+		} else {
+			FhEdgeWeights<T> edgeWeights = weightsFelzenszwalb04(config.connectRule, imageType);
+			alg = new SegmentFelzenszwalbHuttenlocher04<>(config.K, config.minimumRegionSize, edgeWeights);
+		}
 
 		if (config.approximateSortBins > 0) {
 			alg.configureApproximateSort(config.approximateSortBins);
@@ -174,6 +184,13 @@ public class FactorySegmentationAlg {
 		if (config == null)
 			throw new IllegalArgumentException("No default configuration since the number of segments must be specified.");
 
+		SegmentSlic<T> alg = createSlic(config, imageType);
+		alg.setConcurrent(BoofConcurrency.isUseConcurrent());
+		return alg;
+	}
+
+	private static <T extends ImageBase<T>>
+	SegmentSlic<T> createSlic( ConfigSlic config, ImageType<T> imageType ) {
 		if (imageType.getFamily() == ImageType.Family.GRAY) {
 			switch (imageType.getDataType()) {
 				case U8:
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -22,6 +22,8 @@ import boofcv.abst.feature.describe.DescriptorInfo;
 import boofcv.struct.PackedArray;
 import boofcv.struct.feature.*;
 
+import java.io.File;
+
 /**
  * Factory for creating {@link TupleDesc} and related structures abstractly.
  *
@@ -77,4 +79,18 @@ public class FactoryTupleDesc {
 		else
 			throw new IllegalArgumentException("Unknown type " + type);
 	}
+
+	/**
+	 * Creates a packed array which is stored inside a memory mapped file instead of on the heap.
+	 *
+	 * @param file File the tuples are stored in. Any previous contents are discarded.
+	 */
+	public static <TD extends TupleDesc<TD>> PackedArray<TD> createPackedFile( DescriptorInfo<TD> info, File file ) {
+		int dof = info.createDescription().size();
+		return createPackedFile(dof, info.getDescriptionType(), file);
+	}
+
+	public static <TD extends TupleDesc<TD>> PackedArray<TD> createPackedFile( int dof, Class<TD> type, File file ) {
+		return new PackedTupleFileArray<>(dof, type, file);
+	}
 }
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.feature;
+
+import boofcv.factory.struct.FactoryTupleDesc;
+import boofcv.struct.packed.PackedFileArray;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link PackedFileArray} for {@link TupleDesc}. Supports {@link TupleDesc_F64}, {@link TupleDesc_F32},
+ * {@link TupleDesc_I8}, and {@link TupleDesc_B}.
+ *
+ * @author Peter Abeles
+ */
+public class PackedTupleFileArray<TD extends TupleDesc<TD>> extends PackedFileArray<TD> {
+	// Type of tuple stored in the array
+	final Class<TD> type;
+	// Reads and writes the tuple
+	final Codec<TD> codec;
+
+	public PackedTupleFileArray( int dof, Class<TD> type, File file, int blockBytes ) {
+		this(FactoryTupleDesc.createTuple(dof, type), type, file, blockBytes);
+	}
+
+	public PackedTupleFileArray( int dof, Class<TD> type, File file ) {
+		this(dof, type, file, DEFAULT_BLOCK_BYTES);
+	}
+
+	private PackedTupleFileArray( TD temp, Class<TD> type, File file, int blockBytes ) {
+		super(file, bytesPerTuple(temp), blockBytes, temp);
+		this.type = type;
+		this.codec = createCodec(temp);
+	}
+
+	/**
+	 * Number of bytes needed to encode the tuple
+	 */
+	static int bytesPerTuple( TupleDesc<?> tuple ) {
+		if (tuple instanceof TupleDesc_F64)
+			return 8*((TupleDesc_F64)tuple).data.length;
+		else if (tuple instanceof TupleDesc_F32)
+			return 4*((TupleDesc_F32)tuple).data.length;
+		else if (tuple instanceof TupleDesc_I8)
+			return ((TupleDesc_I8)tuple).data.length;
+		else if (tuple instanceof TupleDesc_B)
+			return 4*((TupleDesc_B)tuple).data.length;
+		else
+			throw new IllegalArgumentException("Unsupported type " + tuple.getClass().getSimpleName());
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	static <TD extends TupleDesc<TD>> Codec<TD> createCodec( TD tuple ) {
+		if (tuple instanceof TupleDesc_F64) {
+			return (Codec)new Codec<TupleDesc_F64>() {
+				@Override public void write( TupleDesc_F64 src, ByteBuffer buffer, int offset ) {
+					for (int i = 0; i < src.data.length; i++) {
+						buffer.putDouble(offset + i*8, src.data[i]);
+					}
+				}
+
+				@Override public void read( ByteBuffer buffer, int offset, TupleDesc_F64 dst ) {
+					for (int i = 0; i < dst.data.length; i++) {
+						dst.data[i] = buffer.getDouble(offset + i*8);
+					}
+				}
+			};
+		} else if (tuple instanceof TupleDesc_F32) {
+			return (Codec)new Codec<TupleDesc_F32>() {
+				@Override public void write( TupleDesc_F32 src, ByteBuffer buffer, int offset ) {
+					for (int i = 0; i < src.data.length; i++) {
+						buffer.putFloat(offset + i*4, src.data[i]);
+					}
+				}
+
+				@Override public void read( ByteBuffer buffer, int offset, TupleDesc_F32 dst ) {
+					for (int i = 0; i < dst.data.length; i++) {
+						dst.data[i] = buffer.getFloat(offset + i*4);
+					}
+				}
+			};
+		} else if (tuple instanceof TupleDesc_I8) {
+			return (Codec)new Codec<TupleDesc_I8<?>>() {
+				@Override public void write( TupleDesc_I8<?> src, ByteBuffer buffer, int offset ) {
+					for (int i = 0; i < src.data.length; i++) {
+						buffer.put(offset + i, src.data[i]);
+					}
+				}
+
+				@Override public void read( ByteBuffer buffer, int offset, TupleDesc_I8<?> dst ) {
+					for (int i = 0; i < dst.data.length; i++) {
+						dst.data[i] = buffer.get(offset + i);
+					}
+				}
+			};
+		} else if (tuple instanceof TupleDesc_B) {
+			return (Codec)new Codec<TupleDesc_B>() {
+				@Override public void write( TupleDesc_B src, ByteBuffer buffer, int offset ) {
+					for (int i = 0; i < src.data.length; i++) {
+						buffer.putInt(offset + i*4, src.data[i]);
+					}
+				}
+
+				@Override public void read( ByteBuffer buffer, int offset, TupleDesc_B dst ) {
+					for (int i = 0; i < dst.data.length; i++) {
+						dst.data[i] = buffer.getInt(offset + i*4);
+					}
+				}
+			};
+		} else {
+			throw new IllegalArgumentException("Unsupported type " + tuple.getClass().getSimpleName());
+		}
+	}
+
+	@Override protected void write( TD src, ByteBuffer buffer, int offset ) {
+		codec.write(src, buffer, offset);
+	}
+
+	@Override protected void read( ByteBuffer buffer, int offset, TD dst ) {
+		codec.read(buffer, offset, dst);
+	}
+
+	@Override public void copy( TD src, TD dst ) {
+		dst.setTo(src);
+	}
+
+	@Override public Class<TD> getElementType() {
+		return type;
+	}
+
+	/**
+	 * Encodes and decodes a tuple
+	 */
+	interface Codec<TD> {
+		void write( TD src, ByteBuffer buffer, int offset );
+
+		void read( ByteBuffer buffer, int offset, TD dst );
+	}
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.background.stationary;
+
+import boofcv.BoofTesting;
+import boofcv.alg.background.BackgroundModelStationary;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.misc.ImageStatistics;
+import boofcv.concurrency.ConcurrencyContext;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares multi-stream background models against the single stream implementation
+ */
+public abstract class GenericBackgroundMultiStreamChecks extends BoofStandardJUnit {
+	ImageType<GrayU8> imageType = ImageType.single(GrayU8.class);
+
+	// learning rate for each stream. Powers of two so that 1/(1/x) == x
+	float[] learnRates = new float[]{0.0625f, 0.25f, 0.015625f};
+
+	public abstract BackgroundMultiStream<GrayU8> createMulti();
+
+	public abstract BackgroundModelStationary<GrayU8> createSingle( float learnRate );
+
+	/**
+	 * Each stream should produce the same results as a single stream model with the same learning rate
+	 */
+	@Test void compareToSingle_singleThread() {
+		try (var context = ConcurrencyContext.singleThread(); var ignore = context.open()) {
+			compareToSingle();
+		}
+	}
+
+	@Test void compareToSingle_threads() {
+		try (var context = ConcurrencyContext.forkJoin(3); var ignore = context.withSmallImage(0).open()) {
+			compareToSingle();
+		}
+	}
+
+	void compareToSingle() {
+		BackgroundMultiStream<GrayU8> multi = createMulti();
+		List<BackgroundModelStationary<GrayU8>> singles = new ArrayList<>();
+		List<GrayU8> frames = new ArrayList<>();
+		List<GrayU8> segmented = new ArrayList<>();
+		for (int i = 0; i < learnRates.length; i++) {
+			// streams have different shapes
+			assertEquals(i, multi.addStream(30 + i*7, 20 + i*3, learnRates[i]));
+			singles.add(createSingle(learnRates[i]));
+			frames.add(new GrayU8(30 + i*7, 20 + i*3));
+			segmented.add(new GrayU8(1, 1));
+		}
+
+		var expected = new GrayU8(1, 1);
+		for (int trial = 0; trial < 20; trial++) {
+			List<GrayU8> batch = new ArrayList<>();
+			for (int i = 0; i < frames.size(); i++) {
+				GrayU8 frame = frames.get(i);
+				ImageMiscOps.fillUniform(frame, rand, 90, 110);
+				// An object that moves around
+				ImageMiscOps.fillRectangle(frame, 220, trial, 2 + i, 6, 5);
+				// Skip stream 1 on some frames
+				batch.add(i == 1 && trial%3 == 2 ? null : frame);
+			}
+
+			multi.segment(batch, segmented);
+			for (int i = 0; i < frames.size(); i++) {
+				if (batch.get(i) == null)
+					continue;
+				singles.get(i).segment(frames.get(i), expected);
+				BoofTesting.assertEquals(expected, segmented.get(i), 0);
+			}
+
+			multi.updateBackground(batch, null);
+			for (int i = 0; i < frames.size(); i++) {
+				if (batch.get(i) != null)
+					singles.get(i).updateBackground(frames.get(i));
+			}
+		}
+	}
+
+	/**
+	 * Updating and segmenting at the same time should be the same as segmenting and then updating
+	 */
+	@Test void updateAndSegment() {
+		BackgroundMultiStream<GrayU8> algA = createMulti();
+		BackgroundMultiStream<GrayU8> algB = createMulti();
+		List<GrayU8> frames = new ArrayList<>();
+		List<GrayU8> segmentedA = new ArrayList<>();
+		List<GrayU8> segmentedB = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			algA.addStream(25, 20, learnRates[i]);
+			algB.addStream(25, 20, learnRates[i]);
+			frames.add(new GrayU8(25, 20));
+			segmentedA.add(new GrayU8(1, 1));
+			segmentedB.add(new GrayU8(1, 1));
+		}
+
+		for (int trial = 0; trial < 10; trial++) {
+			for (GrayU8 frame : frames) {
+				ImageMiscOps.fillUniform(frame, rand, 90, 110);
+				ImageMiscOps.fillRectangle(frame, 220, trial, 4, 6, 5);
+			}
+			algA.updateBackground(frames, segmentedA);
+			algB.segment(frames, segmentedB);
+			algB.updateBackground(frames, null);
+
+			for (int i = 0; i < frames.size(); i++) {
+				BoofTesting.assertEquals(segmentedB.get(i), segmentedA.get(i), 0);
+			}
+		}
+	}
+
+	/**
+	 * After a stream is reset only the unknown value should be returned
+	 */
+	@Test void resetStream() {
+		BackgroundMultiStream<GrayU8> alg = createMulti();
+		alg.setUnknownValue(2);
+		alg.addStream(25, 20);
+		alg.addStream(15, 10);
+
+		List<GrayU8> frames = List.of(new GrayU8(25, 20), new GrayU8(15, 10));
+		List<GrayU8> segmented = List.of(new GrayU8(1, 1), new GrayU8(1, 1));
+		for (int trial = 0; trial < 5; trial++) {
+			ImageMiscOps.fillUniform(frames.get(0), rand, 90, 110);
+			ImageMiscOps.fillUniform(frames.get(1), rand, 90, 110);
+			alg.updateBackground(frames, null);
+		}
+
+		alg.resetStream(0);
+		alg.segment(frames, segmented);
+		assertEquals(25*20*2, ImageStatistics.sum(segmented.get(0)));
+		// the other stream should still have a model
+		assertTrue(ImageStatistics.sum(segmented.get(1)) < 15*10*2);
+	}
+
+	/**
+	 * After a reset, a new stream should behave the same as a stream in a new instance
+	 */
+	@Test void reset() {
+		BackgroundMultiStream<GrayU8> alg = createMulti();
+		alg.addStream(25, 20);
+		List<GrayU8> frames = List.of(new GrayU8(25, 20));
+		for (int trial = 0; trial < 5; trial++) {
+			ImageMiscOps.fillUniform(frames.get(0), rand, 0, 255);
+			alg.updateBackground(frames, null);
+		}
+
+		alg.reset();
+		assertEquals(0, alg.getNumStreams());
+		assertEquals(0, alg.addStream(25, 20));
+
+		BackgroundMultiStream<GrayU8> expected = createMulti();
+		expected.addStream(25, 20);
+
+		List<GrayU8> segmentedA = List.of(new GrayU8(1, 1));
+		List<GrayU8> segmentedB = List.of(new GrayU8(1, 1));
+		for (int trial = 0; trial < 5; trial++) {
+			ImageMiscOps.fillUniform(frames.get(0), rand, 90, 110);
+			ImageMiscOps.fillRectangle(frames.get(0), 220, trial, 4, 6, 5);
+			alg.updateBackground(frames, segmentedA);
+			expected.updateBackground(frames, segmentedB);
+			BoofTesting.assertEquals(segmentedB.get(0), segmentedA.get(0), 0);
+		}
+	}
+
+	/**
+	 * Pixels outside the mask should be unknown and the other pixels should be the same as without a mask
+	 */
+	@Test void streamMask() {
+		BackgroundMultiStream<GrayU8> algMask = createMulti();
+		BackgroundMultiStream<GrayU8> algAll = createMulti();
+		algMask.setUnknownValue(2);
+		algAll.setUnknownValue(2);
+		algMask.addStream(25, 20);
+		algAll.addStream(25, 20);
+
+		var mask = new GrayU8(25, 20);
+		ImageMiscOps.fillRectangle(mask, 1, 0, 0, 15, 20);
+		algMask.setStreamMask(0, mask);
+		// The mask should have been copied
+		ImageMiscOps.fill(mask, 0);
+		ImageMiscOps.fillRectangle(mask, 1, 0, 0, 15, 20);
+
+		List<GrayU8> frames = List.of(new GrayU8(25, 20));
+		List<GrayU8> segmentedMask = List.of(new GrayU8(1, 1));
+		List<GrayU8> segmentedAll = List.of(new GrayU8(1, 1));
+		for (int trial = 0; trial < 10; trial++) {
+			ImageMiscOps.fillUniform(frames.get(0), rand, 90, 110);
+			ImageMiscOps.fillRectangle(frames.get(0), 220, trial, 4, 6, 5);
+			algMask.updateBackground(frames, segmentedMask);
+			algAll.updateBackground(frames, segmentedAll);
+			checkMasked(mask, segmentedAll.get(0), segmentedMask.get(0));
+
+			algMask.segment(frames, segmentedMask);
+			algAll.segment(frames, segmentedAll);
+			checkMasked(mask, segmentedAll.get(0), segmentedMask.get(0));
+		}
+
+		assertThrows(IllegalArgumentException.class, () -> algMask.setStreamMask(0, new GrayU8(20, 25)));
+		algMask.setStreamMask(0, null);
+		assertNull(algMask.getStream(0).getMask());
+	}
+
+	private void checkMasked( GrayU8 mask, GrayU8 expected, GrayU8 found ) {
+		for (int y = 0; y < mask.height; y++) {
+			for (int x = 0; x < mask.width; x++) {
+				if (mask.get(x, y) == 0)
+					assertEquals(2, found.get(x, y));
+				else
+					assertEquals(expected.get(x, y), found.get(x, y));
+			}
+		}
+	}
+
+	@Test void wrongShape() {
+		BackgroundMultiStream<GrayU8> alg = createMulti();
+		alg.addStream(25, 20);
+		assertThrows(IllegalArgumentException.class, () -> alg.updateBackground(List.of(new GrayU8(20, 25)), null));
+	}
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.background.stationary;
+
+import boofcv.alg.background.BackgroundModelStationary;
+import boofcv.struct.image.GrayU8;
+
+class TestBackgroundMultiStreamBasic extends GenericBackgroundMultiStreamChecks {
+	@Override public BackgroundMultiStream<GrayU8> createMulti() {
+		return new BackgroundMultiStreamBasic<>(0.05f, 10f, imageType);
+	}
+
+	@Override public BackgroundModelStationary<GrayU8> createSingle( float learnRate ) {
+		return new BackgroundStationaryBasic_SB<>(learnRate, 10f, GrayU8.class);
+	}
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.background.stationary;
+
+import boofcv.alg.background.BackgroundModelStationary;
+import boofcv.struct.image.GrayU8;
+
+class TestBackgroundMultiStreamGmm extends GenericBackgroundMultiStreamChecks {
+	@Override public BackgroundMultiStream<GrayU8> createMulti() {
+		var alg = new BackgroundMultiStreamGmm<>(1000.0f, 0.001f, 10, imageType);
+		alg.setSignificantWeight(0.1f);
+		return alg;
+	}
+
+	@Override public BackgroundModelStationary<GrayU8> createSingle( float learnRate ) {
+		var alg = new BackgroundStationaryGmm_SB<>(1.0f/learnRate, 0.001f, 10, imageType);
+		// By default this is a function of the learning rate
+		alg.setSignificantWeight(0.1f);
+		return alg;
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -35,6 +35,16 @@ public class TestDescriptorDistance extends BoofStandardJUnit {
 		assertEquals(13.964, DescriptorDistance.euclidean(a, b), 1e-2);
 	}
 
+	@Test void euclidean_F32() {
+		var a = new TupleDesc_F32(5);
+		var b = new TupleDesc_F32(5);
+
+		a.data =new float[]{1,2,3,4,5};
+		b.data =new float[]{2,-1,7,-8,10};
+
+		assertEquals(13.964, DescriptorDistance.euclidean(a, b), 1e-2);
+	}
+
 	@Test void euclideanSq_F64() {
 		var a = new TupleDesc_F64(5);
 		var b = new TupleDesc_F64(5);
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.alg.descriptor.DescriptorDistance;
+import boofcv.struct.feature.TupleDesc_B;
+import boofcv.testing.BoofStandardJUnit;
+import org.ddogleg.nn.NearestNeighbor;
+import org.ddogleg.nn.NnData;
+import org.ddogleg.struct.DogArray;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestNearestNeighborMultiIndexHashing_B extends BoofStandardJUnit {
+	int numBits = 100;
+
+	/**
+	 * Compare against brute force for different number of substrings and search radius
+	 */
+	@Test void compareToBruteForce() {
+		List<TupleDesc_B> points = createPoints(300);
+		// Create queries which are close to points and some which are random
+		List<TupleDesc_B> queries = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			queries.add(perturb(points.get(rand.nextInt(points.size())), rand.nextInt(12)));
+		}
+		queries.addAll(createPoints(10));
+
+		for (int numSubstrings : new int[]{0, 4, 5, 7}) {
+			for (int radius : new int[]{-1, 0, 5, 20}) {
+				var alg = new NearestNeighborMultiIndexHashing_B(numSubstrings);
+				alg.setMaxSearchRadius(radius);
+				alg.setPoints(points, true);
+				NearestNeighbor.Search<TupleDesc_B> search = alg.createSearch();
+
+				var result = new NnData<TupleDesc_B>();
+				var results = new DogArray<>(NnData<TupleDesc_B>::new);
+				for (TupleDesc_B q : queries) {
+					int[] expected = sortedDistances(points, q, radius);
+
+					// Single nearest neighbor
+					if (search.findNearest(q, -1, result)) {
+						assertTrue(expected.length > 0);
+						assertEquals(expected[0], result.distance);
+						assertSame(points.get(result.index), result.point);
+						assertEquals(result.distance, DescriptorDistance.hamming(q, result.point));
+					} else {
+						assertEquals(0, expected.length);
+					}
+
+					// K-nearest neighbors
+					search.findNearest(q, -1, 3, results);
+					assertEquals(Math.min(3, expected.length), results.size);
+					for (int i = 0; i < results.size; i++) {
+						assertEquals(expected[i], results.get(i).distance);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * The maxDistance passed in to the search should be enforced too
+	 */
+	@Test void maxDistance() {
+		List<TupleDesc_B> points = createPoints(200);
+		var alg = new NearestNeighborMultiIndexHashing_B();
+		alg.setPoints(points, true);
+		NearestNeighbor.Search<TupleDesc_B> search = alg.createSearch();
+
+		var result = new NnData<TupleDesc_B>();
+		for (int trial = 0; trial < 20; trial++) {
+			TupleDesc_B q = perturb(points.get(trial), 6);
+			int[] expected = sortedDistances(points, q, 4);
+			assertEquals(expected.length > 0, search.findNearest(q, 4, result));
+			if (expected.length > 0)
+				assertEquals(expected[0], result.distance);
+		}
+	}
+
+	/**
+	 * Substrings are stored in a long and must be 32 bits or less
+	 */
+	@Test void substringTooLong() {
+		var alg = new NearestNeighborMultiIndexHashing_B(1);
+		assertThrows(IllegalArgumentException.class, () -> alg.setPoints(createPoints(2), true));
+	}
+
+	@Test void emptyPoints() {
+		var alg = new NearestNeighborMultiIndexHashing_B();
+		alg.setPoints(new ArrayList<>(), true);
+		assertFalse(alg.createSearch().findNearest(createPoints(1).get(0), -1, new NnData<>()));
+	}
+
+	@Test void selectNumberOfSubstrings() {
+		// ~log2(N) bits in each substring
+		assertEquals(18, NearestNeighborMultiIndexHashing_B.selectNumberOfSubstrings(256, 1 << 15));
+		assertEquals(4, NearestNeighborMultiIndexHashing_B.selectNumberOfSubstrings(64, 1 << 16));
+		assertEquals(1, NearestNeighborMultiIndexHashing_B.selectNumberOfSubstrings(10, 10_000));
+	}
+
+	@Test void substring() {
+		var desc = new TupleDesc_B(70);
+		desc.setBit(3, true);
+		desc.setBit(31, true);
+		desc.setBit(32, true);
+		desc.setBit(68, true);
+
+		assertEquals(0b1, NearestNeighborMultiIndexHashing_B.substring(desc, 3, 4));
+		assertEquals(0b11, NearestNeighborMultiIndexHashing_B.substring(desc, 31, 2));
+		assertEquals(0b11L << 28, NearestNeighborMultiIndexHashing_B.substring(desc, 3, 32) & (0b11L << 28));
+		assertEquals(0b10000, NearestNeighborMultiIndexHashing_B.substring(desc, 64, 6));
+	}
+
+	/** Returns the sorted distance of all points within the radius */
+	int[] sortedDistances( List<TupleDesc_B> points, TupleDesc_B q, int radius ) {
+		int[] distances = new int[points.size()];
+		int count = 0;
+		for (TupleDesc_B p : points) {
+			int d = DescriptorDistance.hamming(q, p);
+			if (radius < 0 || d <= radius)
+				distances[count++] = d;
+		}
+		distances = Arrays.copyOf(distances, count);
+		Arrays.sort(distances);
+		return distances;
+	}
+
+	List<TupleDesc_B> createPoints( int count ) {
+		List<TupleDesc_B> points = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			var desc = new TupleDesc_B(numBits);
+			for (int bit = 0; bit < numBits; bit++) {
+				desc.setBit(bit, rand.nextBoolean());
+			}
+			points.add(desc);
+		}
+		return points;
+	}
+
+	TupleDesc_B perturb( TupleDesc_B src, int numFlips ) {
+		TupleDesc_B dst = src.newInstance();
+		dst.setTo(src);
+		for (int i = 0; i < numFlips; i++) {
+			int bit = rand.nextInt(numBits);
+			dst.setBit(bit, !dst.isBitTrue(bit));
+		}
+		return dst;
+	}
+}
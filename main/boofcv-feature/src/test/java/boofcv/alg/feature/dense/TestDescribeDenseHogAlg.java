@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -99,16 +99,16 @@ public class TestDescribeDenseHogAlg extends BoofStandardJUnit {
 		int cellX = 1;
 		int cellY = 2;
 
-		helper.histogram = new double[10* widthCellsX*widthCellsY];
-		helper.computeCellHistogram(20,25,cellX,cellY);
+		double[] histogram = new double[10* widthCellsX*widthCellsY];
+		helper.computeCellHistogram(histogram,20,25,cellX,cellY);
 
 		for (int i = -1; i <= 1; i++) {
 			for (int j = -1; j <= 1; j++) {
-				checkCellModified(helper.histogram,cellX+j,cellY+i, true);
+				checkCellModified(histogram,cellX+j,cellY+i, true);
 			}
 		}
 		// sanity check. Shouldn't be modified
-		checkCellModified(helper.histogram,0,0, false);
+		checkCellModified(histogram,0,0, false);
 	}
 
 	private void checkCellModified( double histogram[] , int cellX , int cellY , boolean modified ) {
@@ -126,21 +126,21 @@ public class TestDescribeDenseHogAlg extends BoofStandardJUnit {
 		DescribeDenseHogAlg<GrayF32> helper = new DescribeDenseHogAlg<>(
 				10,pixelsPerCell, widthCellsX, widthCellsX +1,1,imageType);
 
-		helper.histogram = new double[10*widthCellsX*widthCellsY];
+		double[] histogram = new double[10*widthCellsX*widthCellsY];
 
 		// first try to add outside
-		helper.addToHistogram(-1,2,3,1.0);
-		assertEquals(-1,notZeroIndex(helper.histogram));
-		helper.addToHistogram(10,2,3,1.0);
-		assertEquals(-1,notZeroIndex(helper.histogram));
-		helper.addToHistogram(1,-2,3,1.0);
-		assertEquals(-1,notZeroIndex(helper.histogram));
-		helper.addToHistogram(1,20,3,1.0);
-		assertEquals(-1,notZeroIndex(helper.histogram));
+		helper.addToHistogram(histogram,-1,2,3,1.0);
+		assertEquals(-1,notZeroIndex(histogram));
+		helper.addToHistogram(histogram,10,2,3,1.0);
+		assertEquals(-1,notZeroIndex(histogram));
+		helper.addToHistogram(histogram,1,-2,3,1.0);
+		assertEquals(-1,notZeroIndex(histogram));
+		helper.addToHistogram(histogram,1,20,3,1.0);
+		assertEquals(-1,notZeroIndex(histogram));
 
 		// set it inside
-		helper.addToHistogram(1,2,3,1.0);
-		assertEquals((2* widthCellsX +1)*10+3,notZeroIndex(helper.histogram));
+		helper.addToHistogram(histogram,1,2,3,1.0);
+		assertEquals((2* widthCellsX +1)*10+3,notZeroIndex(histogram));
 	}
 
 	private int notZeroIndex( double a[] ) {
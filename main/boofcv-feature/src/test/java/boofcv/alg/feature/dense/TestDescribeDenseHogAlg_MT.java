@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.dense;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.ConcurrencyContext;
+import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.Planar;
+import boofcv.testing.BoofStandardJUnit;
+import georegression.struct.point.Point2D_I32;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestDescribeDenseHogAlg_MT extends BoofStandardJUnit {
+	@Test void compareToSingleThread() {
+		var imageType = ImageType.pl(2, GrayF32.class);
+		Planar<GrayF32> image = imageType.createImage(123, 97);
+		GImageMiscOps.fillUniform(image, rand, 0, 200);
+
+		for (int stepBlock = 1; stepBlock <= 2; stepBlock++) {
+			var single = new DescribeDenseHogAlg<>(9, 6, 3, 2, stepBlock, imageType);
+			var multi = new DescribeDenseHogAlg_MT<>(9, 6, 3, 2, stepBlock, imageType);
+
+			single.setInput(image);
+			single.process();
+			try (var context = ConcurrencyContext.forkJoin(3)) {
+				context.run(() -> {
+					multi.setInput(image);
+					multi.process();
+				});
+			}
+
+			assertEquals(single.getDescriptions().size, multi.getDescriptions().size);
+			assertEquals(single.getLocations().size, multi.getLocations().size);
+			for (int i = 0; i < single.getDescriptions().size; i++) {
+				Point2D_I32 sp = single.getLocations().get(i);
+				Point2D_I32 mp = multi.getLocations().get(i);
+				assertEquals(sp.x, mp.x);
+				assertEquals(sp.y, mp.y);
+
+				TupleDesc_F64 sd = single.getDescriptions().get(i);
+				TupleDesc_F64 md = multi.getDescriptions().get(i);
+				assertArrayEquals(sd.data, md.data);
+			}
+		}
+	}
+}
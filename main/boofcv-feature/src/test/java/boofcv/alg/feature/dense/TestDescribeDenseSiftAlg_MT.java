@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.dense;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.ConcurrencyContext;
+import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.image.GrayF32;
+import boofcv.testing.BoofStandardJUnit;
+import georegression.struct.point.Point2D_I32;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestDescribeDenseSiftAlg_MT extends BoofStandardJUnit {
+	@Test void compareToSingleThread() {
+		var derivX = new GrayF32(120, 105);
+		var derivY = new GrayF32(120, 105);
+		GImageMiscOps.fillUniform(derivX, rand, -100, 100);
+		GImageMiscOps.fillUniform(derivY, rand, -100, 100);
+
+		var single = new DescribeDenseSiftAlg<>(4, 4, 8, 0.5, 0.2, 7, 6, GrayF32.class);
+		var multi = new DescribeDenseSiftAlg_MT<>(4, 4, 8, 0.5, 0.2, 7, 6, GrayF32.class);
+
+		single.setImageGradient(derivX, derivY);
+		single.process();
+		try (var context = ConcurrencyContext.forkJoin(3)) {
+			context.run(() -> {
+				multi.setImageGradient(derivX, derivY);
+				multi.process();
+			});
+		}
+
+		assertEquals(single.getDescriptors().size, multi.getDescriptors().size);
+		for (int i = 0; i < single.getDescriptors().size; i++) {
+			Point2D_I32 sp = single.getLocations().get(i);
+			Point2D_I32 mp = multi.getLocations().get(i);
+			assertEquals(sp.x, mp.x);
+			assertEquals(sp.y, mp.y);
+
+			TupleDesc_F64 sd = single.getDescriptors().get(i);
+			TupleDesc_F64 md = multi.getDescriptors().get(i);
+			assertArrayEquals(sd.data, md.data);
+		}
+	}
+}
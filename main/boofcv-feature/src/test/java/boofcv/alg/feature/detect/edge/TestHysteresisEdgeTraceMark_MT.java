@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detect.edge;
+
+import boofcv.BoofTesting;
+import boofcv.concurrency.ConcurrencyContext;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS8;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+public class TestHysteresisEdgeTraceMark_MT extends BoofStandardJUnit {
+	/**
+	 * Output should be identical to the single threaded version for any number of tiles
+	 */
+	@Test void compareToSingleThread() {
+		for (int trial = 0; trial < 20; trial++) {
+			GrayF32 intensity = createIntensity(40 + trial, 55);
+			GrayS8 direction = createDirection(intensity.width, intensity.height);
+			float lower = 10 + rand.nextFloat()*20;
+			float upper = 30 + rand.nextFloat()*50;
+
+			var expected = new GrayU8(intensity.width, intensity.height);
+			var found = new GrayU8(intensity.width, intensity.height);
+			GrayF32 intensityMT = intensity.clone();
+
+			new HysteresisEdgeTraceMark().process(intensity, direction, lower, upper, expected);
+
+			var alg = new HysteresisEdgeTraceMark_MT();
+			alg.regions.components.setMinTileRows(1 + trial%4);
+			try (var context = ConcurrencyContext.forkJoin(3)) {
+				context.run(() -> alg.process(intensityMT, direction, lower, upper, found));
+			}
+
+			BoofTesting.assertEquals(expected, found, 0);
+			BoofTesting.assertEquals(intensity, intensityMT, 0.0);
+		}
+	}
+
+	/**
+	 * Random edge intensities with lots of gaps between edges
+	 */
+	GrayF32 createIntensity( int width, int height ) {
+		var intensity = new GrayF32(width, height);
+		for (int i = 0; i < intensity.data.length; i++) {
+			intensity.data[i] = rand.nextDouble() < 0.4 ? 0 : rand.nextFloat()*100;
+		}
+		return intensity;
+	}
+
+	GrayS8 createDirection( int width, int height ) {
+		var direction = new GrayS8(width, height);
+		for (int i = 0; i < direction.data.length; i++) {
+			direction.data[i] = (byte)(rand.nextInt(4) - 1);
+		}
+		return direction;
+	}
+}
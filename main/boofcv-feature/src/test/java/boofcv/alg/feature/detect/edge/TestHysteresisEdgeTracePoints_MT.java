@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detect.edge;
+
+import boofcv.concurrency.ConcurrencyContext;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS8;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestHysteresisEdgeTracePoints_MT extends BoofStandardJUnit {
+	/**
+	 * Contours should be identical to the single threaded version and in the same order
+	 */
+	@Test void compareToSingleThread() {
+		var single = new HysteresisEdgeTracePoints();
+		var alg = new HysteresisEdgeTracePoints_MT();
+
+		for (int trial = 0; trial < 20; trial++) {
+			var intensity = new GrayF32(40 + trial, 55);
+			var direction = new GrayS8(intensity.width, intensity.height);
+			for (int i = 0; i < intensity.data.length; i++) {
+				intensity.data[i] = rand.nextDouble() < 0.4 ? 0 : rand.nextFloat()*100;
+				direction.data[i] = (byte)(rand.nextInt(4) - 1);
+			}
+			float lower = 10 + rand.nextFloat()*20;
+			float upper = 30 + rand.nextFloat()*50;
+			GrayF32 intensityMT = intensity.clone();
+
+			single.process(intensity, direction, lower, upper);
+
+			alg.regions.components.setMinTileRows(1 + trial%4);
+			try (var context = ConcurrencyContext.forkJoin(3)) {
+				context.run(() -> alg.process(intensityMT, direction, lower, upper));
+			}
+
+			checkIdentical(single.getContours(), alg.getContours());
+		}
+	}
+
+	private void checkIdentical( List<EdgeContour> expected, List<EdgeContour> found ) {
+		assertEquals(expected.size(), found.size());
+		for (int i = 0; i < expected.size(); i++) {
+			List<EdgeSegment> segmentsE = expected.get(i).segments;
+			List<EdgeSegment> segmentsF = found.get(i).segments;
+			assertEquals(segmentsE.size(), segmentsF.size());
+
+			for (int j = 0; j < segmentsE.size(); j++) {
+				EdgeSegment e = segmentsE.get(j);
+				EdgeSegment f = segmentsF.get(j);
+				assertEquals(e.index, f.index);
+				assertEquals(e.parent, f.parent);
+				assertEquals(e.parentPixel, f.parentPixel);
+				assertEquals(e.points.size(), f.points.size());
+				for (int k = 0; k < e.points.size(); k++) {
+					assertEquals(e.points.get(k).x, f.points.get(k).x);
+					assertEquals(e.points.get(k).y, f.points.get(k).y);
+				}
+			}
+		}
+	}
+}
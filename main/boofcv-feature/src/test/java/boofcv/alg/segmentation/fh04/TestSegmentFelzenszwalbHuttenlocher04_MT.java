@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.segmentation.fh04;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.segmentation.fh04.impl.FhEdgeWeights4_U8;
+import boofcv.alg.segmentation.fh04.impl.FhEdgeWeights8_PLF32;
+import boofcv.alg.segmentation.fh04.impl.FhEdgeWeights8_U8;
+import boofcv.concurrency.ConcurrencyContext;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.Planar;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestSegmentFelzenszwalbHuttenlocher04_MT extends BoofStandardJUnit {
+	// Tall enough that the image is broken up into multiple bands
+	int width = 35;
+	int height = SegmentFelzenszwalbHuttenlocher04_MT.BAND_ROWS*3 + 7;
+
+	/**
+	 * The same set of edges should be found as the single threaded version
+	 */
+	@Test void computeEdgeWeights() {
+		GrayU8 gray = new GrayU8(width, height);
+		GImageMiscOps.fillUniform(gray, rand, 0, 200);
+		checkEdges(gray, FhEdgeWeights4_U8::new);
+		checkEdges(gray, FhEdgeWeights8_U8::new);
+
+		Planar<GrayF32> color = new Planar<>(GrayF32.class, width, height, 3);
+		GImageMiscOps.fillUniform(color, rand, 0, 200);
+		checkEdges(color, FhEdgeWeights8_PLF32::new);
+	}
+
+	private <T extends ImageBase<T>> void checkEdges( T input, BoofLambdas.Factory<FhEdgeWeights<T>> factory ) {
+		var expected = new SegmentFelzenszwalbHuttenlocher04<>(200, 10, factory.newInstance());
+		var found = new SegmentFelzenszwalbHuttenlocher04_MT<>(200, 10, factory);
+
+		var output = new GrayS32(width, height);
+		expected.initialize(input, output);
+		expected.computeEdgeWeights(input);
+
+		try (var context = ConcurrencyContext.forkJoin(3)) {
+			context.run(() -> {
+				found.initialize(input, output);
+				found.computeEdgeWeights(input);
+			});
+		}
+
+		List<SegmentFelzenszwalbHuttenlocher04.Edge> listExpected = sortByIndex(expected);
+		List<SegmentFelzenszwalbHuttenlocher04.Edge> listFound = sortByIndex(found);
+		assertEquals(listExpected.size(), listFound.size());
+		for (int i = 0; i < listExpected.size(); i++) {
+			SegmentFelzenszwalbHuttenlocher04.Edge e = listExpected.get(i);
+			SegmentFelzenszwalbHuttenlocher04.Edge f = listFound.get(i);
+			assertEquals(e.indexA, f.indexA);
+			assertEquals(e.indexB, f.indexB);
+			assertEquals(e.weight(), f.weight());
+		}
+	}
+
+	private static List<SegmentFelzenszwalbHuttenlocher04.Edge> sortByIndex( SegmentFelzenszwalbHuttenlocher04<?> alg ) {
+		List<SegmentFelzenszwalbHuttenlocher04.Edge> list = new ArrayList<>(alg.edges.toList());
+		list.sort(Comparator.comparingInt(( SegmentFelzenszwalbHuttenlocher04.Edge e ) -> e.indexA)
+				.thenComparingInt(e -> e.indexB));
+		return list;
+	}
+
+	/**
+	 * Sorted edges should be in ascending order and none should be lost
+	 */
+	@Test void sortEdges() {
+		var alg = new SegmentFelzenszwalbHuttenlocher04_MT<GrayU8>(200, 10, FhEdgeWeights4_U8::new);
+
+		// Use enough edges that it's split into multiple blocks and has lots of ties
+		int N = SegmentFelzenszwalbHuttenlocher04_MT.MIN_SORT_BLOCK*5 + 11;
+		long expectedSum = 0;
+		for (int i = 0; i < N; i++) {
+			SegmentFelzenszwalbHuttenlocher04.Edge e = alg.edges.grow();
+			e.sortValue = rand.nextInt(1000);
+			e.indexA = i;
+			expectedSum += i;
+		}
+
+		try (var context = ConcurrencyContext.forkJoin(4)) {
+			context.run(alg::sortEdges);
+		}
+
+		assertEquals(N, alg.edges.size);
+		long foundSum = alg.edges.get(0).indexA;
+		for (int i = 1; i < N; i++) {
+			assertTrue(alg.edges.get(i - 1).sortValue <= alg.edges.get(i).sortValue);
+			foundSum += alg.edges.get(i).indexA;
+		}
+		assertEquals(expectedSum, foundSum);
+	}
+
+	/**
+	 * The output should not depend on the number of threads
+	 */
+	@Test void process_independentOfThreads() {
+		GrayU8 image = new GrayU8(width, height);
+		GImageMiscOps.fillUniform(image, rand, 0, 60);
+		GImageMiscOps.fillRectangle(image, 200, 5, 10, 15, 50);
+
+		GrayS32 expected = new GrayS32(width, height);
+		GrayS32 found = new GrayS32(width, height);
+
+		var alg = new SegmentFelzenszwalbHuttenlocher04_MT<GrayU8>(200, 10, FhEdgeWeights8_U8::new);
+		try (var context = ConcurrencyContext.singleThread()) {
+			context.run(() -> alg.process(image, expected));
+		}
+		int numRegions = alg.getRegionSizes().size;
+
+		for (int threads : new int[]{2, 3, 5}) {
+			try (var context = ConcurrencyContext.forkJoin(threads)) {
+				context.run(() -> alg.process(image, found));
+			}
+			assertEquals(numRegions, alg.getRegionSizes().size);
+			for (int i = 0; i < expected.data.length; i++) {
+				assertEquals(expected.data[i], found.data[i]);
+			}
+
+			// every pixel should belong to a region
+			int total = 0;
+			for (int i = 0; i < numRegions; i++) {
+				total += alg.getRegionSizes().get(i);
+			}
+			assertEquals(width*height, total);
+		}
+	}
+
+	/**
+	 * Compare against the single threaded version on an image where the solution is unambiguous
+	 */
+	@Test void compareToSingleThread() {
+		GrayU8 image = new GrayU8(width, height);
+		GImageMiscOps.fillRectangle(image, 100, 0, 0, width/2, height);
+		GImageMiscOps.fillRectangle(image, 200, 0, height/2, width, height/2);
+
+		GrayS32 expected = new GrayS32(width, height);
+		GrayS32 found = new GrayS32(width, height);
+
+		var single = new SegmentFelzenszwalbHuttenlocher04<>(200, 10, new FhEdgeWeights4_U8());
+		single.process(image, expected);
+
+		var alg = new SegmentFelzenszwalbHuttenlocher04_MT<GrayU8>(200, 10, FhEdgeWeights4_U8::new);
+		try (var context = ConcurrencyContext.forkJoin(3)) {
+			context.run(() -> alg.process(image, found));
+		}
+
+		assertEquals(single.getRegionSizes().size, alg.getRegionSizes().size);
+
+		// Region IDs can be different but the partition must be the same
+		int[] lookup = new int[single.getRegionSizes().size];
+		Arrays.fill(lookup, -1);
+		for (int i = 0; i < expected.data.length; i++) {
+			int e = expected.data[i];
+			if (lookup[e] == -1)
+				lookup[e] = found.data[i];
+			assertEquals(lookup[e], found.data[i]);
+		}
+	}
+}
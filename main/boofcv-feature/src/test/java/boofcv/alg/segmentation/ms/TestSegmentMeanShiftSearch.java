@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,11 +18,14 @@
 
 package boofcv.alg.segmentation.ms;
 
+import boofcv.BoofTesting;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
 import boofcv.testing.BoofStandardJUnit;
+import georegression.struct.point.Point2D_I32;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class TestSegmentMeanShiftSearch extends BoofStandardJUnit {
@@ -55,6 +58,22 @@ public class TestSegmentMeanShiftSearch extends BoofStandardJUnit {
 		}
 	}
 
+	/**
+	 * Checks to see if two instances produced exactly the same output
+	 */
+	static void checkIdentical( SegmentMeanShiftSearch<?> expected, SegmentMeanShiftSearch<?> found ) {
+		assertEquals(expected.getModeLocation().size, found.getModeLocation().size);
+		for (int i = 0; i < expected.getModeLocation().size; i++) {
+			Point2D_I32 e = expected.getModeLocation().get(i);
+			Point2D_I32 f = found.getModeLocation().get(i);
+			assertEquals(e.x, f.x);
+			assertEquals(e.y, f.y);
+			assertEquals(expected.getRegionMemberCount().get(i), found.getRegionMemberCount().get(i));
+			assertArrayEquals(expected.getModeColor().get(i), found.getModeColor().get(i));
+		}
+		BoofTesting.assertEquals(expected.getPixelToRegion(), found.getPixelToRegion(), 0);
+	}
+
 	public static class Dummy extends SegmentMeanShiftSearch {
 
 		public Dummy(int maxIterations, float convergenceTol, int radiusX , int radiusY , int radiusColor ) {
@@ -68,6 +87,12 @@ public class TestSegmentMeanShiftSearch extends BoofStandardJUnit {
 		public ImageType getImageType() {
 			return null;
 		}
+
+		@Override protected SegmentMeanShiftSearch createWorker() {return this;}
+
+		@Override protected int findPeakPixel( ImageBase image, int x, int y ) {return 0;}
+
+		@Override protected void savePeakColor( int x, int y ) {}
 	}
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -22,6 +22,7 @@ import boofcv.alg.interpolate.InterpolatePixelMB;
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.interpolate.InterpolationType;
 import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.ConcurrencyContext;
 import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.struct.border.BorderType;
 import boofcv.struct.image.GrayF32;
@@ -181,4 +182,23 @@ public class TestSegmentMeanShiftSearchColor extends BoofStandardJUnit {
 			}
 		}
 	}
+
+	/**
+	 * The concurrent implementation should produce identical results
+	 */
+	@Test void concurrent() {
+		Planar<GrayF32> image = new Planar<>(GrayF32.class, 40, 45, 2);
+		GImageMiscOps.fillUniform(image, rand, 0, 256);
+
+		var expected = new SegmentMeanShiftSearchColor<>(30, 0.05f, interp.copy(), 2, 2, 200, false, imageType);
+		var found = new SegmentMeanShiftSearchColor<>(30, 0.05f, interp.copy(), 2, 2, 200, false, imageType);
+		found.setConcurrent(true);
+
+		expected.process(image);
+		try (var context = ConcurrencyContext.forkJoin(3)) {
+			context.run(() -> found.process(image));
+		}
+
+		TestSegmentMeanShiftSearch.checkIdentical(expected, found);
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,6 +20,7 @@ package boofcv.alg.segmentation.ms;
 
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.ConcurrencyContext;
 import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.struct.border.BorderType;
 import boofcv.struct.image.GrayF32;
@@ -122,4 +123,23 @@ public class TestSegmentMeanShiftSearchGray extends BoofStandardJUnit {
 		assertEquals( cx , alg.modeX, 0.5f );
 		assertEquals( cy , alg.modeY, 0.5f );
 	}
+
+	/**
+	 * The concurrent implementation should produce identical results
+	 */
+	@Test void concurrent() {
+		GrayF32 image = new GrayF32(40, 45);
+		ImageMiscOps.fillUniform(image, rand, 0, 256);
+
+		var expected = new SegmentMeanShiftSearchGray<>(30, 0.05f, interp.copy(), 2, 2, 100, false);
+		var found = new SegmentMeanShiftSearchGray<>(30, 0.05f, interp.copy(), 2, 2, 100, false);
+		found.setConcurrent(true);
+
+		expected.process(image);
+		try (var context = ConcurrencyContext.forkJoin(3)) {
+			context.run(() -> found.process(image));
+		}
+
+		TestSegmentMeanShiftSearch.checkIdentical(expected, found);
+	}
 }
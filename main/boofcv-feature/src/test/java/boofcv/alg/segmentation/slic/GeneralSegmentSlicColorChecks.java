@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,8 +18,10 @@
 
 package boofcv.alg.segmentation.slic;
 
+import boofcv.BoofTesting;
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.alg.segmentation.ImageSegmentationOps;
+import boofcv.concurrency.ConcurrencyContext;
 import boofcv.core.image.GeneralizedImageOps;
 import boofcv.struct.ConnectRule;
 import boofcv.struct.feature.ColorQueue_F32;
@@ -164,6 +166,49 @@ public abstract class GeneralSegmentSlicColorChecks<T extends ImageBase<T>> exte
 		assertEquals(expected, alg.getIntensity(6, 8), 1e-4);
 	}
 
+	/**
+	 * The concurrent implementation should produce identical results
+	 */
+	@Test void concurrent() {
+		T input = imageType.createImage(60, 70);
+		GImageMiscOps.fillUniform(input, rand, 0, 200);
+		GImageMiscOps.fillRectangle(input, 250, 10, 5, 30, 40);
+
+		var expected = new GrayS32(60, 70);
+		var found = new GrayS32(60, 70);
+
+		SegmentSlic<T> algExpected = createAlg(20, 200, 10, ConnectRule.EIGHT);
+		SegmentSlic<T> algFound = createAlg(20, 200, 10, ConnectRule.EIGHT);
+		algFound.setConcurrent(true);
+
+		algExpected.process(input, expected);
+		try (var context = ConcurrencyContext.forkJoin(3)) {
+			context.run(() -> algFound.process(input, found));
+		}
+
+		BoofTesting.assertEquals(expected, found, 0);
+
+		DogArray<SegmentSlic.Cluster> clustersExpected = algExpected.getClusters();
+		DogArray<SegmentSlic.Cluster> clustersFound = algFound.getClusters();
+		assertEquals(clustersExpected.size, clustersFound.size);
+		for (int i = 0; i < clustersExpected.size; i++) {
+			SegmentSlic.Cluster e = clustersExpected.get(i);
+			SegmentSlic.Cluster f = clustersFound.get(i);
+			assertEquals(e.x, f.x);
+			assertEquals(e.y, f.y);
+			for (int band = 0; band < e.color.length; band++) {
+				assertEquals(e.color[band], f.color[band]);
+			}
+		}
+
+		DogArray_I32 countExpected = algExpected.getRegionMemberCount();
+		DogArray_I32 countFound = algFound.getRegionMemberCount();
+		assertEquals(countExpected.size, countFound.size);
+		for (int i = 0; i < countExpected.size; i++) {
+			assertEquals(countExpected.get(i), countFound.get(i));
+		}
+	}
+
 	/**
 	 * Each region is assumed to be filled with a single color
 	 */
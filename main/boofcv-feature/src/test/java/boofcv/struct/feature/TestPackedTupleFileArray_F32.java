@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.feature;
+
+import boofcv.struct.PackedArray;
+import boofcv.struct.packed.GenericPackedArrayChecks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class TestPackedTupleFileArray_F32 extends GenericPackedArrayChecks<TupleDesc_F32> {
+	int DOF = 5;
+
+	@Override protected PackedArray<TupleDesc_F32> createAlg() {
+		try {
+			File file = File.createTempFile("packed", ".bin");
+			// Small blocks so that elements are spread across multiple blocks
+			return new PackedTupleFileArray<>(DOF, TupleDesc_F32.class, file, 100);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override protected TupleDesc_F32 createRandomPoint() {
+		var point = new TupleDesc_F32(DOF);
+		for (int i = 0; i < point.data.length; i++) {
+			point.data[i] = (float)rand.nextGaussian();
+		}
+		return point;
+	}
+
+	@Override protected void checkEquals( TupleDesc_F32 a, TupleDesc_F32 b ) {
+		for (int i = 0; i < a.data.length; i++) {
+			assertEquals(a.data[i], b.data[i]);
+		}
+	}
+
+	@Override protected void checkNotEquals( TupleDesc_F32 a, TupleDesc_F32 b ) {
+		for (int i = 0; i < a.data.length; i++) {
+			if (a.data[i] != b.data[i])
+				return;
+		}
+		fail("The tuples are identical");
+	}
+}
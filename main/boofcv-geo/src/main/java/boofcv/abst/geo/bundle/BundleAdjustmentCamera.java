@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -93,6 +93,15 @@ public interface BundleAdjustmentCamera {
 	 */
 	int getIntrinsicCount();
 
+	/**
+	 * Creates a copy of this camera model which can be used in a different thread than the original. Needed when
+	 * residuals and Jacobians are computed concurrently since models can have internal state, e.g. zoom. If null
+	 * is returned then a single thread will be used.
+	 */
+	default @Nullable BundleAdjustmentCamera copy() {
+		return null;
+	}
+
 	/**
 	 * Set's the classes state to the value contained in this map. Used when deserializing.
 	 */
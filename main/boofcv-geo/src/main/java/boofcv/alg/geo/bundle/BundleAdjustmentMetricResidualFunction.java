@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,19 +18,27 @@
 
 package boofcv.alg.geo.bundle;
 
+import boofcv.abst.geo.bundle.BundleAdjustmentCamera;
 import boofcv.abst.geo.bundle.BundleAdjustmentSchur;
 import boofcv.abst.geo.bundle.SceneObservations;
 import boofcv.abst.geo.bundle.SceneStructureCommon;
 import boofcv.abst.geo.bundle.SceneStructureMetric;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.geo.PointIndex2D_F64;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point3D_F64;
 import georegression.struct.point.Point4D_F64;
 import georegression.struct.se.Se3_F64;
 import georegression.transform.se.SePointOps_F64;
+import lombok.Getter;
+import lombok.Setter;
 import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_I32;
+import pabeles.concurrency.GrowArray;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -45,6 +53,11 @@ import java.util.Objects;
  * cost(P) = (1/(m*n))*&sum;<sub>i</sub> &sum;<sub>j</sub> ||x<sub>j</sub> - (1/z)*[R<sub>i</sub>|T<sub>i</sub>]*X<sub>j</sub>||<sup>2</sup>
  * </p>
  *
+ * <p>
+ * If {@link #setConcurrent concurrent} is true then views are split up between threads. Each thread has its own
+ * copy of the camera models and writes to a different part of the output, so the results are identical.
+ * </p>
+ *
  * @author Peter Abeles
  * @see SceneStructureMetric
  * @see SceneObservations
@@ -55,22 +68,14 @@ public class BundleAdjustmentMetricResidualFunction
 	private SceneStructureMetric structure;
 	private SceneObservations observations;
 
-	// feature location in world coordinates
-	private final Point3D_F64 worldPt = new Point3D_F64();
-	private final Point4D_F64 worldPt4 = new Point4D_F64();
+	/** If true then residuals are computed using multiple threads */
+	@Getter @Setter boolean concurrent = false;
 
 	// number of parameters being optimised
 	private int numParameters;
 	// number of observations. 2 for each point in each view
 	private int numObservations;
 
-	// local variable which stores the predicted location of the feature in the camera frame
-	private final Point3D_F64 cameraPt = new Point3D_F64();
-
-	// Storage for rendered output
-	private final Point2D_F64 predictedPixel = new Point2D_F64();
-	private final PointIndex2D_F64 observedPixel = new PointIndex2D_F64();
-
 	// Used to write the "unknown" parameters into the scene
 	private final CodecSceneStructureMetric codec = new CodecSceneStructureMetric();
 
@@ -79,9 +84,17 @@ public class BundleAdjustmentMetricResidualFunction
 	// Look up workspace by view ID when relative view
 	private final Map<SceneStructureMetric.View, Se3_F64> mapWorldToView = new HashMap<>();
 
-	// Storage for 3D points in Cartesian and homogenous coordinates
-	private final Point3D_F64 p3 = new Point3D_F64();
-	private final Point4D_F64 p4 = new Point4D_F64();
+	// Workspace when a single thread is used
+	private final Workspace workspace = new Workspace();
+
+	// True if every camera model can be copied, which is required to use multiple threads
+	private boolean copyableCameras;
+	// Index of the first observation in each view
+	private final DogArray_I32 viewFirstObservation = new DogArray_I32();
+	// World to view transform for every view. Only used with multiple threads
+	private final List<Se3_F64> listWorldToView = new ArrayList<>();
+	// Workspace for each thread. Recreated when the scene changes
+	private GrowArray<Workspace> workspaces = new GrowArray<>(Workspace::new);
 
 	/**
 	 * Specifies the scenes structure and observed feature locations
@@ -106,6 +119,17 @@ public class BundleAdjustmentMetricResidualFunction
 			Se3_F64 world_to_view = storageSe3.grow();
 			mapWorldToView.put(v, world_to_view);
 		}
+
+		// Where each view's observations start in the output, which lets views be processed independently
+		viewFirstObservation.resize(structure.views.size);
+		for (int viewIdx = 0, total = 0; viewIdx < structure.views.size; viewIdx++) {
+			viewFirstObservation.data[viewIdx] = total;
+			total += observations.views.get(viewIdx).size();
+			if (observations.hasRigid())
+				total += observations.viewsRigid.get(viewIdx).size();
+		}
+		copyableCameras = BundleCameraCopies.isCopyable(structure.cameras);
+		workspaces = new GrowArray<>(Workspace::new);
 	}
 
 	@Override
@@ -124,11 +148,7 @@ public class BundleAdjustmentMetricResidualFunction
 		// write the current parameters into the scene's structure
 		codec.decode(input, structure);
 
-		// Project the general scene now
-		if (structure.isHomogenous())
-			project4(output);
-		else
-			project3(output);
+		project(output);
 	}
 
 	/**
@@ -136,16 +156,15 @@ public class BundleAdjustmentMetricResidualFunction
 	 * compute the residuals and not optimizing
 	 */
 	public void process( double[] output ) {
-		if (structure.isHomogenous())
-			project4(output);
-		else
-			project3(output);
+		project(output);
 	}
 
-	/**
-	 * projection from 3D coordinates
-	 */
-	private void project3( double[] output ) {
+	private void project( double[] output ) {
+		if (concurrent && copyableCameras) {
+			projectConcurrent(output);
+			return;
+		}
+
 		int observationIndex = 0;
 		for (int viewIndex = 0; viewIndex < structure.views.size; viewIndex++) {
 			SceneStructureMetric.View view = structure.views.get(viewIndex);
@@ -153,129 +172,176 @@ public class BundleAdjustmentMetricResidualFunction
 
 			Se3_F64 world_to_view = lookupWorldToView(view);
 
-			//=========== Project General Points in this View
-			{
-				SceneObservations.View obsView = observations.views.get(viewIndex);
-				if (obsView.cameraState != null)
-					camera.model.setCameraState(obsView.cameraState);
-
-				for (int i = 0; i < obsView.size(); i++) {
-					obsView.getPixel(i, observedPixel);
-					SceneStructureCommon.Point worldPt = structure.points.data[observedPixel.index];
-					worldPt.get(p3);
+			observationIndex = projectView(workspace, viewIndex, world_to_view, camera.model, observationIndex, output);
+		}
+	}
 
-					SePointOps_F64.transform(world_to_view, p3, cameraPt);
+	private void projectConcurrent( double[] output ) {
+		// A relative view's transform depends on its parent's, so they are all found before splitting up the work
+		listWorldToView.clear();
+		for (int viewIndex = 0; viewIndex < structure.views.size; viewIndex++) {
+			listWorldToView.add(lookupWorldToView(structure.views.get(viewIndex)));
+		}
 
-					camera.model.project(cameraPt.x, cameraPt.y, cameraPt.z, predictedPixel);
+		BoofConcurrency.loopBlocks(0, structure.views.size, workspaces, ( work, idx0, idx1 ) -> {
+			int observationIndex = viewFirstObservation.get(idx0);
+			for (int viewIndex = idx0; viewIndex < idx1; viewIndex++) {
+				SceneStructureMetric.View view = structure.views.get(viewIndex);
+				BundleAdjustmentCamera model = work.cameras.getUpdated(structure.cameras, view.camera);
 
-					int outputIndex = observationIndex*2;
-					output[outputIndex] = predictedPixel.x - observedPixel.p.x;
-					output[outputIndex + 1] = predictedPixel.y - observedPixel.p.y;
-					observationIndex++;
-				}
+				observationIndex = projectView(work, viewIndex, listWorldToView.get(viewIndex), model,
+						observationIndex, output);
 			}
+		});
+	}
 
-			//=========== Project Rigid Object Points in this View
-			if (observations.hasRigid()) {
-				SceneObservations.View obsView = observations.viewsRigid.get(viewIndex);
-				if (obsView.cameraState != null)
-					camera.model.setCameraState(obsView.cameraState);
-
-				for (int i = 0; i < obsView.size(); i++) {
-					obsView.getPixel(i, observedPixel);
-
-					// Use lookup table to figure out which rigid object it belongs to
-					int rigidIndex = structure.lookupRigid[observedPixel.index];
-					SceneStructureMetric.Rigid rigid = structure.rigids.get(rigidIndex);
-					// Compute the point's index on the rigid object
-					int pointIndex = observedPixel.index - rigid.indexFirst;
-
-					// Load the 3D location of point on the rigid body
-					SceneStructureCommon.Point objectPt = rigid.points[pointIndex];
-					objectPt.get(p3);
-
-					// Transform to world frame and from world to camera
-					SePointOps_F64.transform(rigid.object_to_world, p3, worldPt);
-					SePointOps_F64.transform(world_to_view, worldPt, cameraPt);
-
-					// Project and compute residual
-					camera.model.project(cameraPt.x, cameraPt.y, cameraPt.z, predictedPixel);
-
-					int outputIndex = observationIndex*2;
-					output[outputIndex] = predictedPixel.x - observedPixel.p.x;
-					output[outputIndex + 1] = predictedPixel.y - observedPixel.p.y;
-					observationIndex++;
-				}
-			}
-		}
+	/**
+	 * Computes the residuals for every observation in a view
+	 *
+	 * @return Index of the observation after the last one in this view
+	 */
+	private int projectView( Workspace work, int viewIndex, Se3_F64 world_to_view, BundleAdjustmentCamera model,
+							 int observationIndex, double[] output ) {
+		if (structure.isHomogenous())
+			return project4(work, viewIndex, world_to_view, model, observationIndex, output);
+		else
+			return project3(work, viewIndex, world_to_view, model, observationIndex, output);
 	}
 
 	/**
-	 * projection from homogenous coordinates
+	 * projection from 3D coordinates
 	 */
-	private void project4( double[] output ) {
-		int observationIndex = 0;
-		for (int viewIndex = 0; viewIndex < structure.views.size; viewIndex++) {
-			SceneStructureMetric.View view = structure.views.get(viewIndex);
-			SceneStructureCommon.Camera camera = structure.cameras.get(view.camera);
+	private int project3( Workspace work, int viewIndex, Se3_F64 world_to_view, BundleAdjustmentCamera model,
+						  int observationIndex, double[] output ) {
+		final Point3D_F64 p3 = work.p3;
+		final Point3D_F64 worldPt = work.worldPt;
+		final Point3D_F64 cameraPt = work.cameraPt;
+		final Point2D_F64 predictedPixel = work.predictedPixel;
+		final PointIndex2D_F64 observedPixel = work.observedPixel;
+
+		//=========== Project General Points in this View
+		{
+			SceneObservations.View obsView = observations.views.get(viewIndex);
+			if (obsView.cameraState != null)
+				model.setCameraState(obsView.cameraState);
+
+			for (int i = 0; i < obsView.size(); i++) {
+				obsView.getPixel(i, observedPixel);
+				SceneStructureCommon.Point point = structure.points.data[observedPixel.index];
+				point.get(p3);
+
+				SePointOps_F64.transform(world_to_view, p3, cameraPt);
+
+				model.project(cameraPt.x, cameraPt.y, cameraPt.z, predictedPixel);
+
+				int outputIndex = observationIndex*2;
+				output[outputIndex] = predictedPixel.x - observedPixel.p.x;
+				output[outputIndex + 1] = predictedPixel.y - observedPixel.p.y;
+				observationIndex++;
+			}
+		}
 
-			Se3_F64 world_to_view = lookupWorldToView(view);
+		//=========== Project Rigid Object Points in this View
+		if (observations.hasRigid()) {
+			SceneObservations.View obsView = observations.viewsRigid.get(viewIndex);
+			if (obsView.cameraState != null)
+				model.setCameraState(obsView.cameraState);
+
+			for (int i = 0; i < obsView.size(); i++) {
+				obsView.getPixel(i, observedPixel);
 
-			//=========== Project General Points in this View
-			{
-				SceneObservations.View obsView = observations.views.get(viewIndex);
-				if (obsView.cameraState != null)
-					camera.model.setCameraState(obsView.cameraState);
+				// Use lookup table to figure out which rigid object it belongs to
+				int rigidIndex = structure.lookupRigid[observedPixel.index];
+				SceneStructureMetric.Rigid rigid = structure.rigids.get(rigidIndex);
+				// Compute the point's index on the rigid object
+				int pointIndex = observedPixel.index - rigid.indexFirst;
 
-				for (int i = 0; i < obsView.size(); i++) {
-					obsView.getPixel(i, observedPixel);
-					SceneStructureCommon.Point worldPt = structure.points.data[observedPixel.index];
-					worldPt.get(p4);
+				// Load the 3D location of point on the rigid body
+				SceneStructureCommon.Point objectPt = rigid.points[pointIndex];
+				objectPt.get(p3);
 
-					// TODO Explain why this is correct. The last row is omitted when converted to 3D
-					SePointOps_F64.transformV(world_to_view, p4, cameraPt);
+				// Transform to world frame and from world to camera
+				SePointOps_F64.transform(rigid.object_to_world, p3, worldPt);
+				SePointOps_F64.transform(world_to_view, worldPt, cameraPt);
 
-					camera.model.project(cameraPt.x, cameraPt.y, cameraPt.z, predictedPixel);
+				// Project and compute residual
+				model.project(cameraPt.x, cameraPt.y, cameraPt.z, predictedPixel);
 
-					int outputIndex = observationIndex*2;
-					output[outputIndex] = predictedPixel.x - observedPixel.p.x;
-					output[outputIndex + 1] = predictedPixel.y - observedPixel.p.y;
-					observationIndex++;
-				}
+				int outputIndex = observationIndex*2;
+				output[outputIndex] = predictedPixel.x - observedPixel.p.x;
+				output[outputIndex + 1] = predictedPixel.y - observedPixel.p.y;
+				observationIndex++;
 			}
+		}
+		return observationIndex;
+	}
 
-			//=========== Project Rigid Object Points in this View
-			if (observations.hasRigid()) {
-				SceneObservations.View obsView = observations.viewsRigid.get(viewIndex);
-				if (obsView.cameraState != null)
-					camera.model.setCameraState(obsView.cameraState);
+	/**
+	 * projection from homogenous coordinates
+	 */
+	private int project4( Workspace work, int viewIndex, Se3_F64 world_to_view, BundleAdjustmentCamera model,
+						  int observationIndex, double[] output ) {
+		final Point4D_F64 p4 = work.p4;
+		final Point4D_F64 worldPt4 = work.worldPt4;
+		final Point3D_F64 cameraPt = work.cameraPt;
+		final Point2D_F64 predictedPixel = work.predictedPixel;
+		final PointIndex2D_F64 observedPixel = work.observedPixel;
+
+		//=========== Project General Points in this View
+		{
+			SceneObservations.View obsView = observations.views.get(viewIndex);
+			if (obsView.cameraState != null)
+				model.setCameraState(obsView.cameraState);
+
+			for (int i = 0; i < obsView.size(); i++) {
+				obsView.getPixel(i, observedPixel);
+				SceneStructureCommon.Point point = structure.points.data[observedPixel.index];
+				point.get(p4);
+
+				// TODO Explain why this is correct. The last row is omitted when converted to 3D
+				SePointOps_F64.transformV(world_to_view, p4, cameraPt);
+
+				model.project(cameraPt.x, cameraPt.y, cameraPt.z, predictedPixel);
+
+				int outputIndex = observationIndex*2;
+				output[outputIndex] = predictedPixel.x - observedPixel.p.x;
+				output[outputIndex + 1] = predictedPixel.y - observedPixel.p.y;
+				observationIndex++;
+			}
+		}
 
-				for (int i = 0; i < obsView.size(); i++) {
-					obsView.getPixel(i, observedPixel);
+		//=========== Project Rigid Object Points in this View
+		if (observations.hasRigid()) {
+			SceneObservations.View obsView = observations.viewsRigid.get(viewIndex);
+			if (obsView.cameraState != null)
+				model.setCameraState(obsView.cameraState);
 
-					// Use lookup table to figure out which rigid object it belongs to
-					int rigidIndex = structure.lookupRigid[observedPixel.index];
-					SceneStructureMetric.Rigid rigid = structure.rigids.get(rigidIndex);
-					// Compute the point's index on the rigid object
-					int pointIndex = observedPixel.index - rigid.indexFirst;
+			for (int i = 0; i < obsView.size(); i++) {
+				obsView.getPixel(i, observedPixel);
 
-					// Load the 3D location of point on the rigid body
-					SceneStructureCommon.Point objectPt = rigid.points[pointIndex];
-					objectPt.get(p4);
+				// Use lookup table to figure out which rigid object it belongs to
+				int rigidIndex = structure.lookupRigid[observedPixel.index];
+				SceneStructureMetric.Rigid rigid = structure.rigids.get(rigidIndex);
+				// Compute the point's index on the rigid object
+				int pointIndex = observedPixel.index - rigid.indexFirst;
 
-					// Transform to world frame and from world to camera
-					SePointOps_F64.transform(rigid.object_to_world, p4, worldPt4);
-					SePointOps_F64.transformV(world_to_view, worldPt4, cameraPt);
+				// Load the 3D location of point on the rigid body
+				SceneStructureCommon.Point objectPt = rigid.points[pointIndex];
+				objectPt.get(p4);
 
-					camera.model.project(cameraPt.x, cameraPt.y, cameraPt.z, predictedPixel);
+				// Transform to world frame and from world to camera
+				SePointOps_F64.transform(rigid.object_to_world, p4, worldPt4);
+				SePointOps_F64.transformV(world_to_view, worldPt4, cameraPt);
 
-					int outputIndex = observationIndex*2;
-					output[outputIndex] = predictedPixel.x - observedPixel.p.x;
-					output[outputIndex + 1] = predictedPixel.y - observedPixel.p.y;
-					observationIndex++;
-				}
+				model.project(cameraPt.x, cameraPt.y, cameraPt.z, predictedPixel);
+
+				int outputIndex = observationIndex*2;
+				output[outputIndex] = predictedPixel.x - observedPixel.p.x;
+				output[outputIndex + 1] = predictedPixel.y - observedPixel.p.y;
+				observationIndex++;
 			}
 		}
+		return observationIndex;
 	}
 
 	/**
@@ -301,4 +367,27 @@ public class BundleAdjustmentMetricResidualFunction
 		}
 		return world_to_view;
 	}
+
+	/**
+	 * Storage used by a single thread
+	 */
+	private static class Workspace {
+		// feature location in world coordinates
+		final Point3D_F64 worldPt = new Point3D_F64();
+		final Point4D_F64 worldPt4 = new Point4D_F64();
+
+		// local variable which stores the predicted location of the feature in the camera frame
+		final Point3D_F64 cameraPt = new Point3D_F64();
+
+		// Storage for rendered output
+		final Point2D_F64 predictedPixel = new Point2D_F64();
+		final PointIndex2D_F64 observedPixel = new PointIndex2D_F64();
+
+		// Storage for 3D points in Cartesian and homogenous coordinates
+		final Point3D_F64 p3 = new Point3D_F64();
+		final Point4D_F64 p4 = new Point4D_F64();
+
+		// This thread's copy of the camera models
+		final BundleCameraCopies cameras = new BundleCameraCopies();
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,12 +18,14 @@
 
 package boofcv.alg.geo.bundle;
 
+import boofcv.abst.geo.bundle.BundleAdjustmentCamera;
 import boofcv.abst.geo.bundle.BundleAdjustmentSchur;
 import boofcv.abst.geo.bundle.SceneObservations;
 import boofcv.abst.geo.bundle.SceneStructureCommon;
 import boofcv.abst.geo.bundle.SceneStructureMetric;
 import boofcv.alg.geo.bundle.jacobians.JacobianSo3;
 import boofcv.alg.geo.bundle.jacobians.JacobianSo3Rodrigues;
+import boofcv.concurrency.BoofConcurrency;
 import georegression.struct.point.Point3D_F64;
 import georegression.struct.point.Point4D_F64;
 import georegression.struct.point.Vector3D_F64;
@@ -34,12 +36,18 @@ import gnu.trove.map.hash.TIntObjectHashMap;
 import lombok.Getter;
 import lombok.Setter;
 import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_I32;
 import org.ejml.data.DMatrix;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.ReshapeMatrix;
 import org.ejml.dense.row.CommonOps_DDRM;
+import org.jetbrains.annotations.Nullable;
+import pabeles.concurrency.GrowArray;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -47,6 +55,12 @@ import java.util.Objects;
  * Computes the Jacobian for bundle adjustment with a Schur implementation. This is the base class
  * for specific types of matrices
  *
+ * If {@link #setConcurrent concurrent} is true then views are split up between threads. Motions, relative view
+ * transforms, and camera parameters are decoded first by a single thread since views can depend on each other.
+ * Each thread then computes the partials for its views using its own copy of the camera models. Threads either
+ * write to rows only they use or into their own storage, which is then merged in the order of the views. The
+ * results are identical to the single threaded version.
+ *
  * @author Peter Abeles
  */
 @SuppressWarnings({"NullAway.Init"})
@@ -68,6 +82,9 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 	/** Specifies method to parameterize rotations, i.e. Rodrigues to SO3 */
 	public @Getter @Setter JacobianSo3 jacSO3 = new JacobianSo3Rodrigues();
 
+	/** If true then the Jacobian is computed using multiple threads */
+	@Getter @Setter boolean concurrent = false;
+
 	// Recycled data structures for use in the maps below
 	private final DogArray<Se3_F64> storageSe3 = new DogArray<>(Se3_F64::new);
 	private final DogArray<DMatrixRMaj[]> storageSO3Jac = new DogArray<>(this::declareRotJacStorage);
@@ -76,21 +93,9 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 	private final TIntObjectMap<DMatrixRMaj[]> mapSO3Jac = new TIntObjectHashMap<>();
 	// If only one view will use a particular motion then we don't want to store the Jacobian for future use
 
-	// Workspace for world to view transform
-	private final Se3_F64 world_to_view = new Se3_F64();
-
 	// Jacobians for rigid objects
 	private JacobianSo3[] jacRigidS03;
 
-	// feature location in world coordinates
-	private final Point3D_F64 worldPt3 = new Point3D_F64();
-	private final Point4D_F64 worldPt4 = new Point4D_F64();
-	// feature location in rigid body coordinates
-	private final Point3D_F64 rigidPt3 = new Point3D_F64();
-	private final Point4D_F64 rigidPt4 = new Point4D_F64();
-	// feature location in camera coordinates
-	private final Point3D_F64 cameraPt = new Point3D_F64();
-
 	// Number of parameters to describe SE3 (rotation + translation)
 	private int lengthSE3;
 	// first index for rigid body parameters
@@ -104,25 +109,23 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 	private int[] motionParameterIndexes;
 	// first index in input/parameters vector for each camera. Right side
 	private int[] cameraParameterIndexes;
-
-	// Jacobian matrix index of x and y partial
-	private int jacRowX, jacRowY;
-
-	// Storage for gradients
-	private final double[] pointGradX = new double[3];
-	private final double[] pointGradY = new double[3];
-	private double[] calibGradX = new double[0];
-	private double[] calibGradY = new double[0];
-
-	// work space for R2*R1
-	DMatrixRMaj RR = new DMatrixRMaj(3, 3);
-
-	// Storage for current view's partials of SO3
-	private DMatrixRMaj[] arraySO3 = new DMatrixRMaj[0];
-	private final DMatrixRMaj accumulatedR = new DMatrixRMaj(3, 3);
-	private final Point4D_F64 worldX = new Point4D_F64();
-	private final Point3D_F64 pt3 = new Point3D_F64();
-	private final DMatrixRMaj tmp3x3 = new DMatrixRMaj(3, 3);
+	// Largest number of intrinsic parameters in a camera being optimized
+	private int largestCameraSize;
+
+	// Workspace when a single thread is used
+	private final Workspace workspace = new Workspace();
+
+	// True if every camera model can be copied, which is required to use multiple threads
+	private boolean copyableCameras;
+	// Index of the first observation in each view
+	private final DogArray_I32 viewFirstObservation = new DogArray_I32();
+	// For each view, the motion which was most recently decoded when a single thread gets to it. -1 if none.
+	// This lets each thread reproduce the same SO3 partials
+	private final DogArray_I32 viewDecodedMotion = new DogArray_I32();
+	// Workspace for each thread. Recreated when the scene changes
+	private GrowArray<Workspace> workspaces = new GrowArray<>(Workspace::new);
+	// Thread workspaces sorted by the first view they processed
+	private final List<Workspace> sortedWorkspaces = new ArrayList<>();
 
 	@Override
 	public void configure( SceneStructureMetric structure, SceneObservations observations ) {
@@ -170,7 +173,7 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 
 		// Create a lookup table for each camera. Camera ID to location in parameter vector
 		cameraParameterIndexes = new int[structure.cameras.size];
-		int largestCameraSize = 0;
+		largestCameraSize = 0;
 		for (int i = 0, index = 0; i < structure.cameras.size; i++) {
 			if (!structure.cameras.get(i).known) {
 				cameraParameterIndexes[i] = index;
@@ -180,12 +183,20 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 			}
 		}
 
-		calibGradX = new double[largestCameraSize];
-		calibGradY = new double[largestCameraSize];
-
 		// Storage for relative views
 		declareStorageWorldToView(structure);
 		declareStoragePartialsSE3(structure);
+
+		// Where each view's observations start, which lets views be processed independently
+		viewFirstObservation.resize(structure.views.size);
+		for (int viewIdx = 0, total = 0; viewIdx < structure.views.size; viewIdx++) {
+			viewFirstObservation.data[viewIdx] = total;
+			total += observations.views.get(viewIdx).size();
+			if (observations.hasRigid())
+				total += observations.viewsRigid.get(viewIdx).size();
+		}
+		copyableCameras = BundleCameraCopies.isCopyable(structure.cameras);
+		workspaces = new GrowArray<>(Workspace::new);
 	}
 
 	/**
@@ -219,7 +230,6 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 		} else {
 			storageSO3Jac.reset();
 		}
-		arraySO3 = arraySO3.length != lengthParam ? new DMatrixRMaj[lengthParam] : arraySO3;
 		for (int viewIdx = 0; viewIdx < structure.views.size; viewIdx++) {
 			SceneStructureMetric.View v = structure.views.get(viewIdx);
 			if (v.parent == null)
@@ -247,15 +257,19 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 		return observations.getObservationCount()*2;
 	}
 
-	private int computeGeneralPoints( DMatrix leftPoint, DMatrix rightView,
+	private int computeGeneralPoints( Workspace work, DMatrix leftPoint, DMatrix rightView,
 									  double[] input, int observationIndex, int viewIndex,
-									  SceneStructureCommon.Camera camera,
+									  SceneStructureCommon.Camera camera, BundleAdjustmentCamera model,
 									  int cameraParamStartIndex ) {
 		SceneObservations.View obsView = observations.views.get(viewIndex);
 		SceneStructureMetric.View strView = structure.views.get(viewIndex);
 
+		final Point3D_F64 worldPt3 = work.worldPt3;
+		final Point4D_F64 worldPt4 = work.worldPt4;
+		final Point3D_F64 cameraPt = work.cameraPt;
+
 		if (obsView.cameraState != null)
-			camera.model.setCameraState(obsView.cameraState);
+			model.setCameraState(obsView.cameraState);
 
 		for (int i = 0; i < obsView.size(); i++) {
 			int featureIndex = obsView.point.get(i);
@@ -267,38 +281,26 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 				worldPt4.z = input[columnOfPointInJac + 2];
 				worldPt4.w = input[columnOfPointInJac + 3];
 
-				SePointOps_F64.transformV(world_to_view, worldPt4, cameraPt);
+				SePointOps_F64.transformV(work.world_to_view, worldPt4, cameraPt);
 			} else {
 				worldPt3.x = input[columnOfPointInJac];
 				worldPt3.y = input[columnOfPointInJac + 1];
 				worldPt3.z = input[columnOfPointInJac + 2];
 
-				SePointOps_F64.transform(world_to_view, worldPt3, cameraPt);
+				SePointOps_F64.transform(work.world_to_view, worldPt3, cameraPt);
 			}
 
-			jacRowX = observationIndex*2;
-			jacRowY = jacRowX + 1;
+			work.jacRowX = observationIndex*2;
+			work.jacRowY = work.jacRowX + 1;
 
 			//============ Partial of camera parameters
-			if (!camera.known) {
-				int N = camera.model.getIntrinsicCount();
-				camera.model.jacobian(cameraPt.x, cameraPt.y, cameraPt.z,
-						pointGradX, pointGradY, true, calibGradX, calibGradY);
-
-				int location = indexLastMotion - indexFirstMotion + cameraParamStartIndex;
-				for (int j = 0; j < N; j++) {
-					set(rightView, jacRowX, location + j, calibGradX[j]);
-					set(rightView, jacRowY, location + j, calibGradY[j]);
-				}
-			} else {
-				camera.model.jacobian(cameraPt.x, cameraPt.y, cameraPt.z, pointGradX, pointGradY,
-						false, null, null);
-			}
+			computeCameraPartials(work, rightView, camera, model, cameraParamStartIndex);
+
 			//============ Partial of worldPt
 			if (structure.isHomogenous()) {
-				partialPointH(leftPoint, rightView, strView, columnOfPointInJac);
+				partialPointH(work, leftPoint, rightView, strView, columnOfPointInJac);
 			} else {
-				partialPoint3(leftPoint, rightView, strView, columnOfPointInJac);
+				partialPoint3(work, leftPoint, rightView, strView, columnOfPointInJac);
 			}
 
 			observationIndex++;
@@ -306,6 +308,30 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 		return observationIndex;
 	}
 
+	/**
+	 * Computes the gradient of the projected point and, if the camera is being optimized, the partials
+	 * for the camera's intrinsic parameters
+	 */
+	private void computeCameraPartials( Workspace work, DMatrix rightView,
+										SceneStructureCommon.Camera camera, BundleAdjustmentCamera model,
+										int cameraParamStartIndex ) {
+		final Point3D_F64 cameraPt = work.cameraPt;
+		if (!camera.known) {
+			int N = model.getIntrinsicCount();
+			model.jacobian(cameraPt.x, cameraPt.y, cameraPt.z,
+					work.pointGradX, work.pointGradY, true, work.calibGradX, work.calibGradY);
+
+			int location = indexLastMotion - indexFirstMotion + cameraParamStartIndex;
+			for (int j = 0; j < N; j++) {
+				set(rightView, work.jacRowX, location + j, work.calibGradX[j]);
+				set(rightView, work.jacRowY, location + j, work.calibGradY[j]);
+			}
+		} else {
+			model.jacobian(cameraPt.x, cameraPt.y, cameraPt.z, work.pointGradX, work.pointGradY,
+					false, null, null);
+		}
+	}
+
 	/**
 	 * Internal matrix type agnostic process function.
 	 *
@@ -332,54 +358,171 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 			}
 		}
 
+		workspace.initialize(jacSO3, largestCameraSize);
+
+		if (concurrent && copyableCameras) {
+			processConcurrent(input, leftPoint, rightView);
+			return;
+		}
+
 		int observationIndex = 0;
 		// first decode the transformation
 		for (int viewIndex = 0; viewIndex < structure.views.size; viewIndex++) {
 			SceneStructureMetric.View view = structure.views.data[viewIndex];
 			SceneStructureCommon.Camera camera = structure.cameras.data[view.camera];
-			SceneStructureMetric.Motion motion = structure.motions.data[view.parent_to_view];
 
-			if (!motion.known) {
-				int paramIndex = motionParameterIndexes[view.parent_to_view] + indexFirstMotion;
-				jacSO3.setParameters(input, paramIndex);
-				paramIndex += jacSO3.getParameterLength();
+			decodeMotion(input, view);
 
-				motion.parent_to_view.T.x = input[paramIndex];
-				motion.parent_to_view.T.y = input[paramIndex + 1];
-				motion.parent_to_view.T.z = input[paramIndex + 2];
+			lookupWorldToView(view, workspace.world_to_view);
 
-				motion.parent_to_view.getR().setTo(jacSO3.getRotationMatrix());
+			int cameraParamStartIndex = cameraParameterIndexes[view.camera];
+			if (!camera.known) {
+				camera.model.setIntrinsic(input, indexLastMotion + cameraParamStartIndex);
+			}
 
-				// save the Jacobian if we need to
-				DMatrixRMaj[] savedJac = mapSO3Jac.get(view.parent_to_view);
-				if (savedJac != null) {
-					for (int i = 0; i < savedJac.length; i++) {
-						savedJac[i].setTo(jacSO3.getPartial(i));
-					}
-				}
+			observationIndex = computeGeneralPoints(workspace, leftPoint, rightView, input, observationIndex,
+					viewIndex, camera, camera.model, cameraParamStartIndex);
+			if (observations.hasRigid())
+				observationIndex = computeRigidPoints(workspace, leftPoint, rightView, observationIndex,
+						viewIndex, camera, camera.model, cameraParamStartIndex);
+		}
+	}
+
+	/**
+	 * Decodes the view's motion, if it's being optimized, and saves the SO3 Jacobian if a relative view will need it
+	 */
+	private void decodeMotion( double[] input, SceneStructureMetric.View view ) {
+		SceneStructureMetric.Motion motion = structure.motions.data[view.parent_to_view];
+		if (motion.known)
+			return;
+
+		int paramIndex = motionParameterIndexes[view.parent_to_view] + indexFirstMotion;
+		jacSO3.setParameters(input, paramIndex);
+		paramIndex += jacSO3.getParameterLength();
+
+		motion.parent_to_view.T.x = input[paramIndex];
+		motion.parent_to_view.T.y = input[paramIndex + 1];
+		motion.parent_to_view.T.z = input[paramIndex + 2];
+
+		motion.parent_to_view.getR().setTo(jacSO3.getRotationMatrix());
+
+		// save the Jacobian if we need to
+		DMatrixRMaj[] savedJac = mapSO3Jac.get(view.parent_to_view);
+		if (savedJac != null) {
+			for (int i = 0; i < savedJac.length; i++) {
+				savedJac[i].setTo(jacSO3.getPartial(i));
 			}
+		}
+	}
 
-			lookupWorldToView(view, world_to_view);
+	/**
+	 * Computes the Jacobian using multiple threads. Everything which is shared between views is decoded first
+	 * then each thread computes the partials for a block of views.
+	 */
+	private void processConcurrent( double[] input, DMatrix leftPoint, DMatrix rightView ) {
+		// Relative views depend on the views before them, so this needs to be done in order
+		viewDecodedMotion.resize(structure.views.size);
+		int decodedMotion = -1;
+		for (int viewIndex = 0; viewIndex < structure.views.size; viewIndex++) {
+			SceneStructureMetric.View view = structure.views.data[viewIndex];
+			SceneStructureCommon.Camera camera = structure.cameras.data[view.camera];
 
-			int cameraParamStartIndex = cameraParameterIndexes[view.camera];
+			decodeMotion(input, view);
+			if (!structure.motions.data[view.parent_to_view].known)
+				decodedMotion = view.parent_to_view;
+			viewDecodedMotion.data[viewIndex] = decodedMotion;
+			lookupWorldToView(view, workspace.world_to_view);
 			if (!camera.known) {
-				camera.model.setIntrinsic(input, indexLastMotion + cameraParamStartIndex);
+				camera.model.setIntrinsic(input, indexLastMotion + cameraParameterIndexes[view.camera]);
 			}
+		}
 
-			observationIndex = computeGeneralPoints(leftPoint, rightView, input, observationIndex, viewIndex, camera, cameraParamStartIndex);
-			if (observations.hasRigid())
-				observationIndex = computeRigidPoints(leftPoint, rightView, observationIndex, viewIndex, camera, cameraParamStartIndex);
+		BoofConcurrency.loopBlocks(0, structure.views.size, workspaces, ( work, idx0, idx1 ) -> {
+			JacobianSo3 threadJacSO3 = work.threadJacSO3;
+			if (threadJacSO3 == null) {
+				threadJacSO3 = jacSO3.newInstance();
+				work.threadJacSO3 = threadJacSO3;
+			}
+			work.initialize(threadJacSO3, largestCameraSize);
+			work.firstView = idx0;
+			work.decodedMotion = -1;
+
+			// Use thread specific storage if writing directly into the output isn't safe
+			if (work.left == null) {
+				work.left = createThreadStorage();
+				work.right = createThreadStorage();
+			}
+			DMatrix threadLeft = work.left;
+			DMatrix threadRight = work.right;
+			if (threadLeft != null && threadRight != null) {
+				((ReshapeMatrix)threadLeft).reshape(leftPoint.getNumRows(), leftPoint.getNumCols());
+				((ReshapeMatrix)threadRight).reshape(rightView.getNumRows(), rightView.getNumCols());
+				threadLeft.zero();
+				threadRight.zero();
+			} else {
+				threadLeft = leftPoint;
+				threadRight = rightView;
+			}
+
+			int observationIndex = viewFirstObservation.get(idx0);
+			for (int viewIndex = idx0; viewIndex < idx1; viewIndex++) {
+				SceneStructureMetric.View view = structure.views.data[viewIndex];
+				SceneStructureCommon.Camera camera = structure.cameras.data[view.camera];
+
+				// Compute the same SO3 partials as a single thread would have
+				int motionIndex = viewDecodedMotion.get(viewIndex);
+				if (motionIndex >= 0 && motionIndex != work.decodedMotion) {
+					work.jacSO3.setParameters(input, motionParameterIndexes[motionIndex] + indexFirstMotion);
+					work.decodedMotion = motionIndex;
+				}
+				work.world_to_view.setTo(getWorldToView(view));
+
+				int cameraParamStartIndex = cameraParameterIndexes[view.camera];
+				BundleAdjustmentCamera model = work.cameras.get(structure.cameras, view.camera);
+				if (!camera.known) {
+					model.setIntrinsic(input, indexLastMotion + cameraParamStartIndex);
+				}
+
+				observationIndex = computeGeneralPoints(work, threadLeft, threadRight, input, observationIndex,
+						viewIndex, camera, model, cameraParamStartIndex);
+				if (observations.hasRigid())
+					observationIndex = computeRigidPoints(work, threadLeft, threadRight, observationIndex,
+							viewIndex, camera, model, cameraParamStartIndex);
+			}
+		});
+
+		// Merge in the order of the views so that the output is the same as when a single thread is used
+		sortedWorkspaces.clear();
+		for (int i = 0; i < workspaces.size(); i++) {
+			sortedWorkspaces.add(workspaces.get(i));
+		}
+		sortedWorkspaces.sort(Comparator.comparingInt(w -> w.firstView));
+		for (int i = 0; i < sortedWorkspaces.size(); i++) {
+			Workspace work = sortedWorkspaces.get(i);
+			DMatrix threadLeft = work.left;
+			DMatrix threadRight = work.right;
+			if (threadLeft == null || threadRight == null)
+				continue;
+			mergeThreadStorage(threadLeft, leftPoint);
+			mergeThreadStorage(threadRight, rightView);
 		}
 	}
 
-	private int computeRigidPoints( DMatrix leftPoint, DMatrix rightView,
+	private int computeRigidPoints( Workspace work, DMatrix leftPoint, DMatrix rightView,
 									int observationIndex, int viewIndex,
-									SceneStructureCommon.Camera camera,
+									SceneStructureCommon.Camera camera, BundleAdjustmentCamera model,
 									int cameraParamStartIndex ) {
 		SceneObservations.View obsView = observations.viewsRigid.get(viewIndex);
 		SceneStructureMetric.View view = structure.views.data[viewIndex];
+
+		final Point3D_F64 worldPt3 = work.worldPt3;
+		final Point4D_F64 worldPt4 = work.worldPt4;
+		final Point3D_F64 rigidPt3 = work.rigidPt3;
+		final Point4D_F64 rigidPt4 = work.rigidPt4;
+		final Point3D_F64 cameraPt = work.cameraPt;
+
 		if (obsView.cameraState != null)
-			camera.model.setCameraState(obsView.cameraState);
+			model.setCameraState(obsView.cameraState);
 
 		for (int i = 0; i < obsView.size(); i++) {
 			int featureIndex = obsView.point.get(i);
@@ -390,37 +533,24 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 			if (structure.isHomogenous()) {
 				rigid.getPoint(pointIndex, rigidPt4);
 				SePointOps_F64.transform(rigid.object_to_world, rigidPt4, worldPt4);
-				SePointOps_F64.transformV(world_to_view, worldPt4, cameraPt);
+				SePointOps_F64.transformV(work.world_to_view, worldPt4, cameraPt);
 			} else {
 				rigid.getPoint(pointIndex, rigidPt3);
 				SePointOps_F64.transform(rigid.object_to_world, rigidPt3, worldPt3);
-				SePointOps_F64.transform(world_to_view, worldPt3, cameraPt);
+				SePointOps_F64.transform(work.world_to_view, worldPt3, cameraPt);
 			}
 
-			jacRowX = observationIndex*2;
-			jacRowY = jacRowX + 1;
+			work.jacRowX = observationIndex*2;
+			work.jacRowY = work.jacRowX + 1;
 
 			//============ Partial of camera parameters
-			if (!camera.known) {
-				int N = camera.model.getIntrinsicCount();
-				camera.model.jacobian(cameraPt.x, cameraPt.y, cameraPt.z,
-						pointGradX, pointGradY, true, calibGradX, calibGradY);
-
-				int location = indexLastMotion - indexFirstMotion + cameraParamStartIndex;
-				for (int j = 0; j < N; j++) {
-					set(rightView, jacRowX, location + j, calibGradX[j]);
-					set(rightView, jacRowY, location + j, calibGradY[j]);
-				}
-			} else {
-				camera.model.jacobian(cameraPt.x, cameraPt.y, cameraPt.z, pointGradX, pointGradY,
-						false, null, null);
-			}
+			computeCameraPartials(work, rightView, camera, model, cameraParamStartIndex);
 
 			//============ Partial of world to view
 			if (structure.isHomogenous()) {
-				partialViewSE3(rightView, view, worldPt4.x, worldPt4.y, worldPt4.z, worldPt4.w);
+				partialViewSE3(work, rightView, view, worldPt4.x, worldPt4.y, worldPt4.z, worldPt4.w);
 			} else {
-				partialViewSE3(rightView, view, worldPt3.x, worldPt3.y, worldPt3.z, 1);
+				partialViewSE3(work, rightView, view, worldPt3.x, worldPt3.y, worldPt3.z, 1);
 			}
 
 			//============ Partial of body to world
@@ -431,9 +561,9 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 			// partial T1 is R2*(@T1)
 			if (!rigid.known) {
 				if (structure.isHomogenous()) {
-					partialRigidSE3(leftPoint, rigidIndex, rigidPt4.x, rigidPt4.y, rigidPt4.z, rigidPt4.w);
+					partialRigidSE3(work, leftPoint, rigidIndex, rigidPt4.x, rigidPt4.y, rigidPt4.z, rigidPt4.w);
 				} else {
-					partialRigidSE3(leftPoint, rigidIndex, rigidPt3.x, rigidPt3.y, rigidPt3.z, 1);
+					partialRigidSE3(work, leftPoint, rigidIndex, rigidPt3.x, rigidPt3.y, rigidPt3.z, 1);
 				}
 			}
 
@@ -442,25 +572,26 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 		return observationIndex;
 	}
 
-	private void partialPoint3( DMatrix leftPoint, DMatrix rightView,
+	private void partialPoint3( Workspace work, DMatrix leftPoint, DMatrix rightView,
 								SceneStructureMetric.View view, int columnOfPointInJac ) {
 		// partial of (R*X + T) with respect to X is a 3 by 3 matrix
 		// This turns out to be just R
 		// grad F(G(X)) = 2 x 3 matrix which is then multiplied by R
-		addToJacobian(leftPoint, columnOfPointInJac, pointGradX, pointGradY, world_to_view.R);
+		addToJacobian(work, leftPoint, columnOfPointInJac, work.world_to_view.R);
 
-		partialViewSE3(rightView, view, worldPt3.x, worldPt3.y, worldPt3.z, 1);
+		partialViewSE3(work, rightView, view, work.worldPt3.x, work.worldPt3.y, work.worldPt3.z, 1);
 	}
 
-	private void partialPointH( DMatrix leftPoint, DMatrix rightView,
+	private void partialPointH( Workspace work, DMatrix leftPoint, DMatrix rightView,
 								SceneStructureMetric.View view, int columnOfPointInJac ) {
 		// partial of (R*[x,y,z]' + T*w) with respect to X=[x,y,z,w] is a 3 by 4 matrix, [R|T]
 		//
 		// grad F(G(X)) = 2 x 4 matrix which is then multiplied by R
-		addToJacobian(leftPoint, columnOfPointInJac, pointGradX, pointGradY, world_to_view.R);
-		addToJacobian(leftPoint, columnOfPointInJac + 3, pointGradX, pointGradY, world_to_view.T);
+		addToJacobian(work, leftPoint, columnOfPointInJac, work.world_to_view.R);
+		addToJacobian(work, leftPoint, columnOfPointInJac + 3, work.world_to_view.T);
 
-		partialViewSE3(rightView, view, worldPt4.x, worldPt4.y, worldPt4.z, worldPt4.w);
+		final Point4D_F64 worldPt4 = work.worldPt4;
+		partialViewSE3(work, rightView, view, worldPt4.x, worldPt4.y, worldPt4.z, worldPt4.w);
 	}
 
 	/**
@@ -484,7 +615,7 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 	 * </pre>
 	 * The chained view can be writen as a recursive formula where a rotation matrix is updated each iteration.
 	 */
-	private void partialViewSE3( DMatrix rightView,
+	private void partialViewSE3( Workspace work, DMatrix rightView,
 								 SceneStructureMetric.View view,
 								 double X, double Y, double Z, double W ) {
 		{ // Abort if there is no partial derivative to compute
@@ -493,8 +624,13 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 				return;
 		}
 
+		final DMatrixRMaj accumulatedR = work.accumulatedR;
+		final DMatrixRMaj tmp3x3 = work.tmp3x3;
+		final double[] pointGradX = work.pointGradX;
+		final double[] pointGradY = work.pointGradY;
+
 		boolean firstView = true;
-		worldX.setTo(X, Y, Z, W);
+		work.worldX.setTo(X, Y, Z, W);
 
 		// Recursively computed rotation R[i]*R[i-1] ... etc
 		CommonOps_DDRM.setIdentity(accumulatedR);
@@ -519,27 +655,27 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 			if (firstView) {
 				firstView = false;
 				// Current view isn't saved in storage and needs to have a reference copied to the array
-				for (int i = 0; i < arraySO3.length; i++) {
-					arraySO3[i] = jacSO3.getPartial(i);
+				for (int i = 0; i < work.arraySO3.length; i++) {
+					work.arraySO3[i] = work.jacSO3.getPartial(i);
 				}
-				jacobianSO3 = arraySO3;
+				jacobianSO3 = work.arraySO3;
 			} else {
 				jacobianSO3 = mapSO3Jac.get(view.parent_to_view);
 			}
 
 			//============== Partial of view rotation parameters
-			final int paramLength = jacSO3.getParameterLength();
+			final int paramLength = work.jacSO3.getParameterLength();
 			if (view.parent == null) {
 				for (int i = 0; i < paramLength; i++) {
 					CommonOps_DDRM.mult(accumulatedR, jacobianSO3[i], tmp3x3);
-					addToJacobian(rightView, col + i, pointGradX, pointGradY, tmp3x3, X, Y, Z);
+					addToJacobian(work, rightView, col + i, tmp3x3, X, Y, Z);
 				}
 			} else {
 				Se3_F64 world_to_parent = getWorldToView(view.parent);
 				for (int i = 0; i < paramLength; i++) {
-					SePointOps_F64.transformV(world_to_parent, worldX, pt3);
+					SePointOps_F64.transformV(world_to_parent, work.worldX, work.pt3);
 					CommonOps_DDRM.mult(accumulatedR, jacobianSO3[i], tmp3x3);
-					addToJacobian(rightView, col + i, pointGradX, pointGradY, tmp3x3, pt3.x, pt3.y, pt3.z);
+					addToJacobian(work, rightView, col + i, tmp3x3, work.pt3.x, work.pt3.y, work.pt3.z);
 				}
 			}
 
@@ -552,8 +688,8 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 					sumX += r_ji*pointGradX[j];
 					sumY += r_ji*pointGradY[j];
 				}
-				add(rightView, jacRowX, col + paramLength + i, sumX*W);
-				add(rightView, jacRowY, col + paramLength + i, sumY*W);
+				add(rightView, work.jacRowX, col + paramLength + i, sumX*W);
+				add(rightView, work.jacRowY, col + paramLength + i, sumY*W);
 			}
 
 			// If there is a parent then traverse to it next
@@ -580,17 +716,20 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 		return Objects.requireNonNull(world_to_view);
 	}
 
-	private void partialRigidSE3( DMatrix leftPoint, int rigidIndex,
+	private void partialRigidSE3( Workspace work, DMatrix leftPoint, int rigidIndex,
 								  double X, double Y, double Z, double W ) {
 		int col = rigidParameterIndexes[rigidIndex] + indexFirstRigid;
 
 		JacobianSo3 jac = jacRigidS03[rigidIndex];
+		final Se3_F64 world_to_view = work.world_to_view;
+		final double[] pointGradX = work.pointGradX;
+		final double[] pointGradY = work.pointGradY;
 
 		//============== Partial of view rotation parameters
 		final int N = jac.getParameterLength();
 		for (int i = 0; i < N; i++) {
-			CommonOps_DDRM.mult(world_to_view.R, jac.getPartial(i), RR);
-			addToJacobian(leftPoint, col + i, pointGradX, pointGradY, RR, X, Y, Z);
+			CommonOps_DDRM.mult(world_to_view.R, jac.getPartial(i), work.RR);
+			addToJacobian(work, leftPoint, col + i, work.RR, X, Y, Z);
 		}
 
 		//============== Partial of view translation parameters
@@ -604,41 +743,47 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 		double RY1 = world_to_view.R.data[1]*pointGradY[0] + world_to_view.R.data[4]*pointGradY[1] + world_to_view.R.data[7]*pointGradY[2];
 		double RY2 = world_to_view.R.data[2]*pointGradY[0] + world_to_view.R.data[5]*pointGradY[1] + world_to_view.R.data[8]*pointGradY[2];
 
-		set(leftPoint, jacRowX, col + N, RX0*W);
-		set(leftPoint, jacRowY, col + N, RY0*W);
-		set(leftPoint, jacRowX, col + N + 1, RX1*W);
-		set(leftPoint, jacRowY, col + N + 1, RY1*W);
-		set(leftPoint, jacRowX, col + N + 2, RX2*W);
-		set(leftPoint, jacRowY, col + N + 2, RY2*W);
+		set(leftPoint, work.jacRowX, col + N, RX0*W);
+		set(leftPoint, work.jacRowY, col + N, RY0*W);
+		set(leftPoint, work.jacRowX, col + N + 1, RX1*W);
+		set(leftPoint, work.jacRowY, col + N + 1, RY1*W);
+		set(leftPoint, work.jacRowX, col + N + 2, RX2*W);
+		set(leftPoint, work.jacRowY, col + N + 2, RY2*W);
 	}
 
 	/**
 	 * J[rows,col:(col+3)] =  [a;b]*R
 	 */
-	private void addToJacobian( DMatrix matrix, int col, double[] a, double[] b, DMatrixRMaj R ) {
-		set(matrix, jacRowX, col + 0, a[0]*R.data[0] + a[1]*R.data[3] + a[2]*R.data[6]);
-		set(matrix, jacRowX, col + 1, a[0]*R.data[1] + a[1]*R.data[4] + a[2]*R.data[7]);
-		set(matrix, jacRowX, col + 2, a[0]*R.data[2] + a[1]*R.data[5] + a[2]*R.data[8]);
-
-		set(matrix, jacRowY, col + 0, b[0]*R.data[0] + b[1]*R.data[3] + b[2]*R.data[6]);
-		set(matrix, jacRowY, col + 1, b[0]*R.data[1] + b[1]*R.data[4] + b[2]*R.data[7]);
-		set(matrix, jacRowY, col + 2, b[0]*R.data[2] + b[1]*R.data[5] + b[2]*R.data[8]);
+	private void addToJacobian( Workspace work, DMatrix matrix, int col, DMatrixRMaj R ) {
+		final double[] a = work.pointGradX;
+		final double[] b = work.pointGradY;
+		set(matrix, work.jacRowX, col + 0, a[0]*R.data[0] + a[1]*R.data[3] + a[2]*R.data[6]);
+		set(matrix, work.jacRowX, col + 1, a[0]*R.data[1] + a[1]*R.data[4] + a[2]*R.data[7]);
+		set(matrix, work.jacRowX, col + 2, a[0]*R.data[2] + a[1]*R.data[5] + a[2]*R.data[8]);
+
+		set(matrix, work.jacRowY, col + 0, b[0]*R.data[0] + b[1]*R.data[3] + b[2]*R.data[6]);
+		set(matrix, work.jacRowY, col + 1, b[0]*R.data[1] + b[1]*R.data[4] + b[2]*R.data[7]);
+		set(matrix, work.jacRowY, col + 2, b[0]*R.data[2] + b[1]*R.data[5] + b[2]*R.data[8]);
 	}
 
-	private void addToJacobian( DMatrix matrix, int col, double[] a, double[] b,
+	private void addToJacobian( Workspace work, DMatrix matrix, int col,
 								DMatrixRMaj R, double X, double Y, double Z ) {
+		final double[] a = work.pointGradX;
+		final double[] b = work.pointGradY;
 
 		double x = R.data[0]*X + R.data[1]*Y + R.data[2]*Z;
 		double y = R.data[3]*X + R.data[4]*Y + R.data[5]*Z;
 		double z = R.data[6]*X + R.data[7]*Y + R.data[8]*Z;
 
-		add(matrix, jacRowX, col, a[0]*x + a[1]*y + a[2]*z);
-		add(matrix, jacRowY, col, b[0]*x + b[1]*y + b[2]*z);
+		add(matrix, work.jacRowX, col, a[0]*x + a[1]*y + a[2]*z);
+		add(matrix, work.jacRowY, col, b[0]*x + b[1]*y + b[2]*z);
 	}
 
-	private void addToJacobian( DMatrix matrix, int col, double[] a, double[] b, Vector3D_F64 X ) {
-		set(matrix, jacRowX, col, a[0]*X.x + a[1]*X.y + a[2]*X.z);
-		set(matrix, jacRowY, col, b[0]*X.x + b[1]*X.y + b[2]*X.z);
+	private void addToJacobian( Workspace work, DMatrix matrix, int col, Vector3D_F64 X ) {
+		final double[] a = work.pointGradX;
+		final double[] b = work.pointGradY;
+		set(matrix, work.jacRowX, col, a[0]*X.x + a[1]*X.y + a[2]*X.z);
+		set(matrix, work.jacRowY, col, b[0]*X.x + b[1]*X.y + b[2]*X.z);
 	}
 
 	/**
@@ -652,6 +797,22 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 	 */
 	protected abstract void add( DMatrix matrix, int row, int col, double value );
 
+	/**
+	 * Creates storage that a thread writes its partials into. If null then threads write directly into the
+	 * output matrices, which is only safe when every element has its own location in memory.
+	 */
+	protected @Nullable DMatrix createThreadStorage() {
+		return null;
+	}
+
+	/**
+	 * Adds the partials a thread computed into the output. Called in the order of the views the threads processed.
+	 *
+	 * @param src Storage created by {@link #createThreadStorage()}
+	 * @param dst The output matrix
+	 */
+	protected void mergeThreadStorage( DMatrix src, DMatrix dst ) {}
+
 	/**
 	 * Returns a transform from the world_to_view. If relative then the parent's world to view is look up and used
 	 * to compute this view's transform and the results are saved.
@@ -687,4 +848,65 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 		}
 		return partials;
 	}
+
+	/**
+	 * Storage used by a single thread
+	 */
+	@SuppressWarnings({"NullAway.Init"})
+	private static class Workspace {
+		// Workspace for world to view transform
+		final Se3_F64 world_to_view = new Se3_F64();
+
+		// feature location in world coordinates
+		final Point3D_F64 worldPt3 = new Point3D_F64();
+		final Point4D_F64 worldPt4 = new Point4D_F64();
+		// feature location in rigid body coordinates
+		final Point3D_F64 rigidPt3 = new Point3D_F64();
+		final Point4D_F64 rigidPt4 = new Point4D_F64();
+		// feature location in camera coordinates
+		final Point3D_F64 cameraPt = new Point3D_F64();
+
+		// Jacobian matrix index of x and y partial
+		int jacRowX, jacRowY;
+
+		// Storage for gradients
+		final double[] pointGradX = new double[3];
+		final double[] pointGradY = new double[3];
+		double[] calibGradX = new double[0];
+		double[] calibGradY = new double[0];
+
+		// work space for R2*R1
+		final DMatrixRMaj RR = new DMatrixRMaj(3, 3);
+
+		// Partials of SO3 for the view being processed
+		JacobianSo3 jacSO3;
+		// Instance owned by this thread. Not used by a single thread
+		@Nullable JacobianSo3 threadJacSO3;
+		// Storage for current view's partials of SO3
+		DMatrixRMaj[] arraySO3 = new DMatrixRMaj[0];
+		final DMatrixRMaj accumulatedR = new DMatrixRMaj(3, 3);
+		final Point4D_F64 worldX = new Point4D_F64();
+		final Point3D_F64 pt3 = new Point3D_F64();
+		final DMatrixRMaj tmp3x3 = new DMatrixRMaj(3, 3);
+
+		// This thread's copy of the camera models
+		final BundleCameraCopies cameras = new BundleCameraCopies();
+
+		// Storage for this thread's partials, if needed
+		@Nullable DMatrix left, right;
+		// The first view this thread processed
+		int firstView;
+		// Motion which jacSO3 was last set to
+		int decodedMotion;
+
+		void initialize( JacobianSo3 jacSO3, int largestCameraSize ) {
+			this.jacSO3 = jacSO3;
+			if (arraySO3.length != jacSO3.getParameterLength())
+				arraySO3 = new DMatrixRMaj[jacSO3.getParameterLength()];
+			if (calibGradX.length != largestCameraSize) {
+				calibGradX = new double[largestCameraSize];
+				calibGradY = new double[largestCameraSize];
+			}
+		}
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -64,4 +64,23 @@ public class BundleAdjustmentMetricSchurJacobian_DSCC
 	protected void add( DMatrix matrix, int row, int col, double value ) {
 		((DMatrixSparseTriplet)matrix).addItem(row, col, value);
 	}
+
+	/**
+	 * Triplets can't be written to by multiple threads, so each thread gets its own
+	 */
+	@Override
+	protected DMatrix createThreadStorage() {
+		return new DMatrixSparseTriplet(1, 1, 1);
+	}
+
+	@Override
+	protected void mergeThreadStorage( DMatrix src, DMatrix dst ) {
+		var tripletSrc = (DMatrixSparseTriplet)src;
+		var tripletDst = (DMatrixSparseTriplet)dst;
+		for (int i = 0; i < tripletSrc.nz_length; i++) {
+			int row = tripletSrc.nz_rowcol.data[i*2];
+			int col = tripletSrc.nz_rowcol.data[i*2 + 1];
+			tripletDst.addItem(row, col, tripletSrc.nz_value.data[i]);
+		}
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,15 +18,21 @@
 
 package boofcv.alg.geo.bundle;
 
+import boofcv.abst.geo.bundle.BundleAdjustmentCamera;
 import boofcv.abst.geo.bundle.BundleAdjustmentSchur;
 import boofcv.abst.geo.bundle.SceneObservations;
 import boofcv.abst.geo.bundle.SceneStructureCommon;
 import boofcv.abst.geo.bundle.SceneStructureProjective;
 import boofcv.alg.geo.PerspectiveOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.geo.PointIndex2D_F64;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point3D_F64;
 import georegression.struct.point.Point4D_F64;
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.struct.DogArray_I32;
+import pabeles.concurrency.GrowArray;
 
 /**
  * <p>
@@ -39,6 +45,11 @@ import georegression.struct.point.Point4D_F64;
  * cost(P) = (1/(m*n))*&sum;<sub>i</sub> &sum;<sub>j</sub> ||x<sub>j</sub> - (1/z)*P<sub>i</sub>*X<sub>j</sub>||<sup>2</sup>
  * </p>
  *
+ * <p>
+ * If {@link #setConcurrent concurrent} is true then views are split up between threads. Each thread has its own
+ * copy of the camera models and writes to a different part of the output, so the results are identical.
+ * </p>
+ *
  * @author Peter Abeles
  * @see SceneStructureProjective
  * @see SceneObservations
@@ -49,24 +60,26 @@ public class BundleAdjustmentProjectiveResidualFunction
 	private SceneStructureProjective structure;
 	private SceneObservations observations;
 
+	/** If true then residuals are computed using multiple threads */
+	@Getter @Setter boolean concurrent = false;
+
 	// number of parameters being optimised
 	private int numParameters;
 	// number of observations. 2 for each point in each view
 	private int numObservations;
 
-	// Storage for rendered output
-	private final Point2D_F64 predictedPixel = new Point2D_F64();
-	private final PointIndex2D_F64 observedPixel = new PointIndex2D_F64();
-
 	// Used to write the "unknown" paramters into the scene
 	private final CodecSceneStructureProjective codec = new CodecSceneStructureProjective();
 
-	// Point in world frame
-	private final Point3D_F64 p3 = new Point3D_F64();
-	private final Point4D_F64 p4 = new Point4D_F64();
+	// Workspace when a single thread is used
+	private final Workspace workspace = new Workspace();
 
-	// Pixel in homogenous image coordinate
-	private final Point3D_F64 pix = new Point3D_F64();
+	// True if every camera model can be copied, which is required to use multiple threads
+	private boolean copyableCameras;
+	// Index of the first observation in each view
+	private final DogArray_I32 viewFirstObservation = new DogArray_I32();
+	// Workspace for each thread. Recreated when the scene changes
+	private GrowArray<Workspace> workspaces = new GrowArray<>(Workspace::new);
 
 	/**
 	 * Specifies the scenes structure and observed feature locations
@@ -79,6 +92,15 @@ public class BundleAdjustmentProjectiveResidualFunction
 
 		numObservations = observations.getObservationCount();
 		numParameters = structure.getParameterCount();
+
+		// Where each view's observations start in the output, which lets views be processed independently
+		viewFirstObservation.resize(structure.views.size);
+		for (int viewIdx = 0, total = 0; viewIdx < structure.views.size; viewIdx++) {
+			viewFirstObservation.data[viewIdx] = total;
+			total += observations.views.get(viewIdx).size();
+		}
+		copyableCameras = BundleCameraCopies.isCopyable(structure.cameras);
+		workspaces = new GrowArray<>(Workspace::new);
 	}
 
 	@Override
@@ -97,69 +119,119 @@ public class BundleAdjustmentProjectiveResidualFunction
 		// write the current parameters into the scene's structure
 		codec.decode(input, structure);
 
+		if (concurrent && copyableCameras) {
+			BoofConcurrency.loopBlocks(0, structure.views.size, workspaces, ( work, idx0, idx1 ) -> {
+				int observationIndex = viewFirstObservation.get(idx0);
+				for (int viewIndex = idx0; viewIndex < idx1; viewIndex++) {
+					int cameraIndex = structure.views.data[viewIndex].camera;
+					BundleAdjustmentCamera model = work.cameras.getUpdated(structure.cameras, cameraIndex);
+					observationIndex = projectView(work, viewIndex, model, observationIndex, output);
+				}
+			});
+		} else {
+			int observationIndex = 0;
+			for (int viewIndex = 0; viewIndex < structure.views.size; viewIndex++) {
+				SceneStructureCommon.Camera camera = structure.cameras.get(structure.views.data[viewIndex].camera);
+				observationIndex = projectView(workspace, viewIndex, camera.model, observationIndex, output);
+			}
+		}
+	}
+
+	/**
+	 * Computes the residuals for every observation in a view
+	 *
+	 * @return Index of the observation after the last one in this view
+	 */
+	private int projectView( Workspace work, int viewIndex, BundleAdjustmentCamera model,
+							 int observationIndex, double[] output ) {
 		if (structure.isHomogenous())
-			project4(output);
+			return project4(work, viewIndex, model, observationIndex, output);
 		else
-			project3(output);
+			return project3(work, viewIndex, model, observationIndex, output);
 	}
 
 	/**
 	 * projection from 3D coordinates
 	 */
-	private void project3( double[] output ) {
-		int observationIndex = 0;
-		for (int viewIndex = 0; viewIndex < structure.views.size; viewIndex++) {
-			SceneStructureProjective.View view = structure.views.data[viewIndex];
-			SceneObservations.View obsView = observations.views.data[viewIndex];
-			SceneStructureCommon.Camera camera = structure.cameras.get(view.camera);
-
-			for (int i = 0; i < obsView.size(); i++) {
-				obsView.getPixel(i, observedPixel);
-				SceneStructureCommon.Point worldPt = structure.points.data[observedPixel.index];
-				worldPt.get(p3);
-
-				// Apply projective camera to point in world coordinates
-				PerspectiveOps.renderPixel(view.worldToView, p3, pix);
-
-				// Apply camera model to pixel in homogenous coordinates
-				camera.model.project(pix.x, pix.y, pix.z, predictedPixel);
-
-				// Save results
-				int outputIndex = observationIndex*2;
-				output[outputIndex] = predictedPixel.x - observedPixel.p.x;
-				output[outputIndex + 1] = predictedPixel.y - observedPixel.p.y;
-				observationIndex++;
-			}
+	private int project3( Workspace work, int viewIndex, BundleAdjustmentCamera model,
+						  int observationIndex, double[] output ) {
+		final Point3D_F64 p3 = work.p3;
+		final Point3D_F64 pix = work.pix;
+		final Point2D_F64 predictedPixel = work.predictedPixel;
+		final PointIndex2D_F64 observedPixel = work.observedPixel;
+
+		SceneStructureProjective.View view = structure.views.data[viewIndex];
+		SceneObservations.View obsView = observations.views.data[viewIndex];
+
+		for (int i = 0; i < obsView.size(); i++) {
+			obsView.getPixel(i, observedPixel);
+			SceneStructureCommon.Point worldPt = structure.points.data[observedPixel.index];
+			worldPt.get(p3);
+
+			// Apply projective camera to point in world coordinates
+			PerspectiveOps.renderPixel(view.worldToView, p3, pix);
+
+			// Apply camera model to pixel in homogenous coordinates
+			model.project(pix.x, pix.y, pix.z, predictedPixel);
+
+			// Save results
+			int outputIndex = observationIndex*2;
+			output[outputIndex] = predictedPixel.x - observedPixel.p.x;
+			output[outputIndex + 1] = predictedPixel.y - observedPixel.p.y;
+			observationIndex++;
 		}
+		return observationIndex;
 	}
 
 	/**
 	 * projection from homogenous coordinates
 	 */
-	private void project4( double[] output ) {
-		int observationIndex = 0;
-		for (int viewIndex = 0; viewIndex < structure.views.size; viewIndex++) {
-			SceneStructureProjective.View view = structure.views.data[viewIndex];
-			SceneObservations.View obsView = observations.views.data[viewIndex];
-			SceneStructureCommon.Camera camera = structure.cameras.get(view.camera);
-
-			for (int i = 0; i < obsView.size(); i++) {
-				obsView.getPixel(i, observedPixel);
-				SceneStructureCommon.Point worldPt = structure.points.data[observedPixel.index];
-				worldPt.get(p4);
-
-				// Apply projective camera to point in world coordinates
-				PerspectiveOps.renderPixel(view.worldToView, p4, pix);
-
-				// Apply camera model to pixel in homogenous coordinates
-				camera.model.project(pix.x, pix.y, pix.z, predictedPixel);
-
-				// Save results
-				int outputIndex = observationIndex*2;
-				output[outputIndex] = predictedPixel.x - observedPixel.p.x;
-				output[outputIndex + 1] = predictedPixel.y - observedPixel.p.y;
-				observationIndex++;
-			}
+	private int project4( Workspace work, int viewIndex, BundleAdjustmentCamera model,
+						  int observationIndex, double[] output ) {
+		final Point4D_F64 p4 = work.p4;
+		final Point3D_F64 pix = work.pix;
+		final Point2D_F64 predictedPixel = work.predictedPixel;
+		final PointIndex2D_F64 observedPixel = work.observedPixel;
+
+		SceneStructureProjective.View view = structure.views.data[viewIndex];
+		SceneObservations.View obsView = observations.views.data[viewIndex];
+
+		for (int i = 0; i < obsView.size(); i++) {
+			obsView.getPixel(i, observedPixel);
+			SceneStructureCommon.Point worldPt = structure.points.data[observedPixel.index];
+			worldPt.get(p4);
+
+			// Apply projective camera to point in world coordinates
+			PerspectiveOps.renderPixel(view.worldToView, p4, pix);
+
+			// Apply camera model to pixel in homogenous coordinates
+			model.project(pix.x, pix.y, pix.z, predictedPixel);
+
+			// Save results
+			int outputIndex = observationIndex*2;
+			output[outputIndex] = predictedPixel.x - observedPixel.p.x;
+			output[outputIndex + 1] = predictedPixel.y - observedPixel.p.y;
+			observationIndex++;
 		}
+		return observationIndex;
+	}
+
+	/**
+	 * Storage used by a single thread
+	 */
+	private static class Workspace {
+		// Storage for rendered output
+		final Point2D_F64 predictedPixel = new Point2D_F64();
+		final PointIndex2D_F64 observedPixel = new PointIndex2D_F64();
+
+		// Point in world frame
+		final Point3D_F64 p3 = new Point3D_F64();
+		final Point4D_F64 p4 = new Point4D_F64();
+
+		// Pixel in homogenous image coordinate
+		final Point3D_F64 pix = new Point3D_F64();
+
+		// This thread's copy of the camera models
+		final BundleCameraCopies cameras = new BundleCameraCopies();
 	}
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.BundleAdjustmentCamera;
+import boofcv.abst.geo.bundle.SceneStructureCommon;
+import org.ddogleg.struct.DogArray;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A single thread's copies of the camera models in a scene. Camera models can have internal state, e.g. zoom,
+ * so they can't be shared between threads. Copies are created the first time they are requested.
+ *
+ * @author Peter Abeles
+ */
+class BundleCameraCopies {
+	// Copy of each camera model. null if it has not been requested yet
+	final List<@Nullable BundleAdjustmentCamera> copies = new ArrayList<>();
+
+	// Storage for intrinsic parameters when copying them from the original model
+	double[] intrinsic = new double[0];
+
+	/**
+	 * Returns true if every camera model can be copied. If not then only a single thread can be used.
+	 */
+	static boolean isCopyable( DogArray<SceneStructureCommon.Camera> cameras ) {
+		for (int i = 0; i < cameras.size; i++) {
+			BundleAdjustmentCamera model = cameras.get(i).model;
+			BundleAdjustmentCamera copy = model.copy();
+			// A subclass could have inherited copy() from the model it extends
+			if (copy == null || copy.getClass() != model.getClass())
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns this thread's copy of the camera model. Intrinsic parameters are only copied when it's created.
+	 */
+	BundleAdjustmentCamera get( DogArray<SceneStructureCommon.Camera> cameras, int index ) {
+		while (copies.size() < cameras.size) {
+			copies.add(null);
+		}
+		BundleAdjustmentCamera copy = copies.get(index);
+		if (copy == null) {
+			copy = Objects.requireNonNull(cameras.get(index).model.copy());
+			copies.set(index, copy);
+		}
+		return copy;
+	}
+
+	/**
+	 * Returns this thread's copy of the camera model after copying the intrinsic parameters from the original
+	 * if they are being optimized.
+	 */
+	BundleAdjustmentCamera getUpdated( DogArray<SceneStructureCommon.Camera> cameras, int index ) {
+		BundleAdjustmentCamera copy = get(cameras, index);
+		SceneStructureCommon.Camera camera = cameras.get(index);
+		if (camera.known)
+			return copy;
+
+		int N = camera.model.getIntrinsicCount();
+		if (intrinsic.length < N)
+			intrinsic = new double[N];
+		camera.model.getIntrinsic(intrinsic, 0);
+		copy.setIntrinsic(intrinsic, 0);
+		return copy;
+	}
+}
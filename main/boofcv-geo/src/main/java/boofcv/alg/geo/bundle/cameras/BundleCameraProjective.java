@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -59,6 +59,10 @@ public class BundleCameraProjective implements BundleAdjustmentCamera {
 		return 0;
 	}
 
+	@Override public BundleAdjustmentCamera copy() {
+		return new BundleCameraProjective();
+	}
+
 	@Override public BundleAdjustmentCamera setTo( Map<String, Object> src ) {
 		return this;
 	}
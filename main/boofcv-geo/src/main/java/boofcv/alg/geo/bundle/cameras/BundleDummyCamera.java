@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -55,6 +55,11 @@ public class BundleDummyCamera implements BundleAdjustmentCamera {
 		throw new RuntimeException("Camera model not initialized correctly");
 	}
 
+	/** There's no state so the same instance can be used by every thread */
+	@Override public BundleAdjustmentCamera copy() {
+		return this;
+	}
+
 	@Override public BundleAdjustmentCamera setTo( Map<String, Object> src ) {
 		throw new RuntimeException("Camera model not initialized correctly");
 	}
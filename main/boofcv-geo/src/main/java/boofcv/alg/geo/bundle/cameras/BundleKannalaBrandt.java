@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -350,6 +350,15 @@ public class BundleKannalaBrandt implements BundleAdjustmentCamera {
 		return dof;
 	}
 
+	@Override public BundleAdjustmentCamera copy() {
+		var out = new BundleKannalaBrandt();
+		out.model.setTo(model);
+		out.zeroSkew = zeroSkew;
+		out.isAsymmetric = isAsymmetric;
+		out.dof = dof;
+		return out;
+	}
+
 	@Override public BundleAdjustmentCamera setTo( Map<String, Object> map ) {
 		try {
 			model.fx = getOrThrow(map, "fx");
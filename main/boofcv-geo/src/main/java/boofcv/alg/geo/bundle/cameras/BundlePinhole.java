@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -132,6 +132,13 @@ public class BundlePinhole implements BundleAdjustmentCamera {
 		return zeroSkew ? 4 : 5;
 	}
 
+	@Override public BundleAdjustmentCamera copy() {
+		var out = new BundlePinhole();
+		out.setK(fx, fy, skew, cx, cy);
+		out.zeroSkew = zeroSkew;
+		return out;
+	}
+
 	@Override public BundleAdjustmentCamera setTo( Map<String, Object> map ) {
 		try {
 			fx = getOrThrow(map, "fx");
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -325,6 +325,19 @@ public class BundlePinholeBrown implements BundleAdjustmentCamera {
 		return 4 + radial.length + (tangential ? 2 : 0) + (zeroSkew ? 0 : 1);
 	}
 
+	@Override public BundleAdjustmentCamera copy() {
+		var out = new BundlePinholeBrown(zeroSkew, tangential);
+		out.fx = fx;
+		out.fy = fy;
+		out.skew = skew;
+		out.cx = cx;
+		out.cy = cy;
+		out.radial = radial.clone();
+		out.t1 = t1;
+		out.t2 = t2;
+		return out;
+	}
+
 	@Override public BundleAdjustmentCamera setTo( Map<String, Object> map ) {
 		try {
 			fx = getOrThrow(map, "fx");
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -142,6 +142,10 @@ public class BundlePinholeSimplified implements BundleAdjustmentCamera {
 		return 3;
 	}
 
+	@Override public BundleAdjustmentCamera copy() {
+		return new BundlePinholeSimplified(f, k1, k2);
+	}
+
 	@Override public BundleAdjustmentCamera setTo( Map<String, Object> src ) {
 		try {
 			f = getOrThrow(src, "f");
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -83,6 +83,14 @@ public class BundlePinholeSnavely extends BundlePinholeSimplified {
 		calibY[2] = f*normY*n2*n2;
 	}
 
+	@Override public BundlePinholeSnavely copy() {
+		var out = new BundlePinholeSnavely();
+		out.f = f;
+		out.k1 = k1;
+		out.k2 = k2;
+		return out;
+	}
+
 	@Override
 	public String toString() {
 		return "BundlePinholeSnavely{" +
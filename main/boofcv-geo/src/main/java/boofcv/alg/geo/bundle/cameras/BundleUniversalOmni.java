@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -396,6 +396,20 @@ public class BundleUniversalOmni implements BundleAdjustmentCamera {
 		return totalIntrinsic;
 	}
 
+	@Override public BundleAdjustmentCamera copy() {
+		var out = new BundleUniversalOmni(zeroSkew, radial.length, tangential, fixedMirror);
+		out.fx = fx;
+		out.fy = fy;
+		out.skew = skew;
+		out.cx = cx;
+		out.cy = cy;
+		out.mirrorOffset = mirrorOffset;
+		System.arraycopy(radial, 0, out.radial, 0, radial.length);
+		out.t1 = t1;
+		out.t2 = t2;
+		return out;
+	}
+
 	@Override public BundleAdjustmentCamera setTo( Map<String, Object> map ) {
 		try {
 			fx = getOrThrow(map, "fx");
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -149,6 +149,12 @@ public class BundleZoomSimplified implements BundleAdjustmentCamera {
 		return 4;
 	}
 
+	@Override public BundleAdjustmentCamera copy() {
+		var out = new BundleZoomSimplified(fOff, fScale, k1, k2);
+		out.zoom = zoom;
+		return out;
+	}
+
 	@Override public BundleAdjustmentCamera setTo( Map<String, Object> src ) {
 		try {
 			fOff = getOrThrow(src, "f-off");
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -41,6 +41,12 @@ public class ConfigBundleAdjustment implements Configuration {
 	/** Robust loss function. Defaults to no loss function */
 	public ConfigLoss loss = new ConfigLoss(ConfigLoss.Type.SQUARED);
 
+	/**
+	 * If true then residuals and Jacobians are computed using multiple threads when concurrency is turned on in
+	 * {@link boofcv.concurrency.BoofConcurrency}. The results are the same as with a single thread.
+	 */
+	public boolean concurrent = true;
+
 	{
 		optimizer.type = ConfigNonLinearLeastSquares.Type.LEVENBERG_MARQUARDT;
 	}
@@ -53,6 +59,7 @@ public class ConfigBundleAdjustment implements Configuration {
 		// it should copy / overwrite but that isn't possible/easy. So this is the compromise
 		this.optimizer.setTo(src.optimizer);
 		this.loss.setTo(src.loss);
+		this.concurrent = src.concurrent;
 		return this;
 	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -41,6 +41,7 @@ import boofcv.alg.geo.selfcalib.*;
 import boofcv.alg.geo.triangulate.*;
 import boofcv.alg.geo.trifocal.RefineThreeViewProjectiveGeometric;
 import boofcv.alg.geo.trifocal.TrifocalAlgebraicPoint7;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.misc.ConfigConverge;
 import boofcv.struct.calib.ElevateViewInfo;
 import boofcv.struct.geo.AssociatedPair;
@@ -83,10 +84,13 @@ public class FactoryMultiView {
 			minimizer.setLoss(funcs.function, funcs.gradient);
 		}
 
-		return new BundleAdjustmentSchur_DSCC<>(minimizer,
-				new BundleAdjustmentMetricResidualFunction(),
-				new BundleAdjustmentMetricSchurJacobian_DSCC(),
-				new CodecSceneStructureMetric());
+		boolean concurrent = config.concurrent && BoofConcurrency.isUseConcurrent();
+		var residuals = new BundleAdjustmentMetricResidualFunction();
+		var jacobian = new BundleAdjustmentMetricSchurJacobian_DSCC();
+		residuals.setConcurrent(concurrent);
+		jacobian.setConcurrent(concurrent);
+
+		return new BundleAdjustmentSchur_DSCC<>(minimizer, residuals, jacobian, new CodecSceneStructureMetric());
 	}
 
 	/**
@@ -109,8 +113,10 @@ public class FactoryMultiView {
 			minimizer.setLoss(funcs.function, funcs.gradient);
 		}
 
-		return new BundleAdjustmentSchur_DSCC<>(minimizer,
-				new BundleAdjustmentProjectiveResidualFunction(),
+		var residuals = new BundleAdjustmentProjectiveResidualFunction();
+		residuals.setConcurrent(config.concurrent && BoofConcurrency.isUseConcurrent());
+
+		return new BundleAdjustmentSchur_DSCC<>(minimizer, residuals,
 				new BundleAdjustmentProjectiveSchurJacobian_DSCC(),
 				new CodecSceneStructureProjective());
 	}
@@ -137,10 +143,13 @@ public class FactoryMultiView {
 			minimizer.setLoss(funcs.function, funcs.gradient);
 		}
 
-		return new BundleAdjustmentSchur_DDRM<>(minimizer,
-				new BundleAdjustmentMetricResidualFunction(),
-				new BundleAdjustmentMetricSchurJacobian_DDRM(),
-				new CodecSceneStructureMetric());
+		boolean concurrent = config.concurrent && BoofConcurrency.isUseConcurrent();
+		var residuals = new BundleAdjustmentMetricResidualFunction();
+		var jacobian = new BundleAdjustmentMetricSchurJacobian_DDRM();
+		residuals.setConcurrent(concurrent);
+		jacobian.setConcurrent(concurrent);
+
+		return new BundleAdjustmentSchur_DDRM<>(minimizer, residuals, jacobian, new CodecSceneStructureMetric());
 	}
 
 	/**
@@ -165,8 +174,10 @@ public class FactoryMultiView {
 			minimizer.setLoss(funcs.function, funcs.gradient);
 		}
 
-		return new BundleAdjustmentSchur_DDRM<>(minimizer,
-				new BundleAdjustmentProjectiveResidualFunction(),
+		var residuals = new BundleAdjustmentProjectiveResidualFunction();
+		residuals.setConcurrent(config.concurrent && BoofConcurrency.isUseConcurrent());
+
+		return new BundleAdjustmentSchur_DDRM<>(minimizer, residuals,
 				new BundleAdjustmentProjectiveSchurJacobian_DDRM(),
 				new CodecSceneStructureProjective());
 	}
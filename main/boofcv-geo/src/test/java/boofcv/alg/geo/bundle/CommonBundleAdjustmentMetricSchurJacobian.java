@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -21,6 +21,7 @@ package boofcv.alg.geo.bundle;
 import boofcv.abst.geo.bundle.SceneObservations;
 import boofcv.abst.geo.bundle.SceneStructureMetric;
 import boofcv.alg.geo.bundle.cameras.BundleZoomState;
+import boofcv.concurrency.ConcurrencyContext;
 import boofcv.struct.calib.CameraPinhole;
 import boofcv.testing.BoofStandardJUnit;
 import georegression.struct.se.SpecialEuclideanOps_F64;
@@ -28,12 +29,14 @@ import org.ddogleg.optimization.DerivativeChecker;
 import org.ddogleg.optimization.wrap.SchurJacobian_to_NtoMxN;
 import org.ejml.UtilEjml;
 import org.ejml.data.DMatrix;
+import org.ejml.data.DMatrixRMaj;
 import org.junit.jupiter.api.Test;
 
 import java.util.Random;
 
 import static boofcv.alg.geo.bundle.TestBundleAdjustmentMetricResidualFunction.createObservations;
 import static boofcv.alg.geo.bundle.TestCodecSceneStructureMetric.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -210,6 +213,49 @@ public abstract class CommonBundleAdjustmentMetricSchurJacobian<M extends DMatri
 	 * Create a scene where a "stereo" camera is created that moves. The right to left transform is fixed and common
 	 * across all views
 	 */
+	/**
+	 * The concurrent implementation should produce identical results
+	 */
+	@Test void concurrent() {
+		concurrent(createScene(rand, false, false, false), false);
+		concurrent(createScene(rand, true, true, false), false);
+		concurrent(createScene(rand, false, true, true), false);
+		concurrent(createSceneStereo(rand, false), false);
+		concurrent(createSceneChainSameMotion(rand, true), false);
+		concurrent(createSceneZoomState(rand, false), true);
+	}
+
+	void concurrent( SceneStructureMetric structure, boolean zoomState ) {
+		SceneObservations observations = createObservations(rand, structure);
+		if (zoomState)
+			observations.views.forEach(v -> v.cameraState = new BundleZoomState(400.0));
+
+		var param = new double[structure.getParameterCount()];
+		new CodecSceneStructureMetric().encode(structure, param);
+
+		var algExpected = createAlg();
+		var algFound = createAlg();
+		algFound.setConcurrent(true);
+
+		algExpected.configure(structure, observations);
+		algFound.configure(structure, observations);
+
+		var jacExpected = createJacobian(algExpected);
+		var jacFound = createJacobian(algFound);
+
+		var expected = new DMatrixRMaj(jacExpected.getNumOfOutputsM(), jacExpected.getNumOfInputsN());
+		var found = new DMatrixRMaj(jacFound.getNumOfOutputsM(), jacFound.getNumOfInputsN());
+
+		jacExpected.process(param, expected);
+		try (var context = ConcurrencyContext.forkJoin(3)) {
+			// call it twice to make sure the workspace is correctly reset
+			context.run(() -> jacFound.process(param, found));
+			context.run(() -> jacFound.process(param, found));
+		}
+
+		assertArrayEquals(expected.data, found.data, 0.0);
+	}
+
 	static SceneStructureMetric createSceneChainSameMotion( Random rand, boolean homogenous ) {
 		SceneStructureMetric out = new SceneStructureMetric(homogenous);
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -23,6 +23,7 @@ import boofcv.abst.geo.bundle.SceneStructureCommon;
 import boofcv.abst.geo.bundle.SceneStructureMetric;
 import boofcv.alg.geo.WorldToCameraToPixel;
 import boofcv.alg.geo.bundle.cameras.BundleZoomState;
+import boofcv.concurrency.ConcurrencyContext;
 import boofcv.struct.calib.CameraPinholeBrown;
 import boofcv.testing.BoofStandardJUnit;
 import georegression.struct.point.Point2D_F64;
@@ -188,6 +189,41 @@ class TestBundleAdjustmentMetricResidualFunction extends BoofStandardJUnit {
 		}
 	}
 
+	/**
+	 * The concurrent implementation should produce identical results
+	 */
+	@Test void concurrent() {
+		concurrent(createScene(rand, false, false, false), false);
+		concurrent(createScene(rand, true, true, false), false);
+		concurrent(createScene(rand, false, true, true), false);
+		concurrent(createSceneZoomState(rand, false), true);
+	}
+
+	void concurrent( SceneStructureMetric structure, boolean zoomState ) {
+		SceneObservations observations = createObservations(rand, structure);
+		if (zoomState)
+			observations.views.forEach(v -> v.cameraState = new BundleZoomState(400.0));
+
+		var param = new double[structure.getParameterCount()];
+		new CodecSceneStructureMetric().encode(structure, param);
+
+		var algExpected = new BundleAdjustmentMetricResidualFunction();
+		var algFound = new BundleAdjustmentMetricResidualFunction();
+		algFound.setConcurrent(true);
+		algExpected.configure(structure, observations);
+		algFound.configure(structure, observations);
+
+		var expected = new double[algExpected.getNumOfOutputsM()];
+		var found = new double[algFound.getNumOfOutputsM()];
+
+		algExpected.process(param, expected);
+		try (var context = ConcurrencyContext.forkJoin(3)) {
+			context.run(() -> algFound.process(param, found));
+		}
+
+		assertArrayEquals(expected, found, 0.0);
+	}
+
 	static SceneObservations createObservations( Random rand, SceneStructureMetric structure ) {
 		var obs = new SceneObservations();
 		obs.initialize(structure.views.size, structure.hasRigid());
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -21,6 +21,7 @@ package boofcv.alg.geo.bundle;
 import boofcv.abst.geo.bundle.SceneObservations;
 import boofcv.abst.geo.bundle.SceneStructureCommon;
 import boofcv.abst.geo.bundle.SceneStructureProjective;
+import boofcv.concurrency.ConcurrencyContext;
 import boofcv.testing.BoofStandardJUnit;
 import org.ejml.UtilEjml;
 import org.junit.jupiter.api.Test;
@@ -106,6 +107,39 @@ class TestBundleAdjustmentProjectiveResidualFunction extends BoofStandardJUnit {
 		}
 	}
 
+	/**
+	 * The concurrent implementation should produce identical results
+	 */
+	@Test
+	void concurrent() {
+		concurrent(false);
+		concurrent(true);
+	}
+
+	void concurrent( boolean homogenous ) {
+		SceneStructureProjective structure = homogenous ? createSceneH(rand) : createScene3D(rand);
+		SceneObservations obs = createObservations(rand, structure);
+
+		double[] param = new double[structure.getParameterCount()];
+		new CodecSceneStructureProjective().encode(structure, param);
+
+		var algExpected = new BundleAdjustmentProjectiveResidualFunction();
+		var algFound = new BundleAdjustmentProjectiveResidualFunction();
+		algFound.setConcurrent(true);
+		algExpected.configure(structure, obs);
+		algFound.configure(structure, obs);
+
+		double[] expected = new double[algExpected.getNumOfOutputsM()];
+		double[] found = new double[algFound.getNumOfOutputsM()];
+
+		algExpected.process(param, expected);
+		try (var context = ConcurrencyContext.forkJoin(3)) {
+			context.run(() -> algFound.process(param, found));
+		}
+
+		assertArrayEquals(expected, found, 0.0);
+	}
+
 	static SceneObservations createObservations( Random rand, SceneStructureProjective structure ) {
 		SceneObservations obs = new SceneObservations();
 		obs.initialize(structure.views.size);
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Read only view of a region inside a memory mapped file. A single {@link ByteBuffer} can only reference 2 GB
+ * so larger regions are broken up into multiple blocks. All offsets are in bytes relative to the start of the
+ * region. The block size is a multiple of 8, so as long as primitives are aligned relative to the start of the
+ * region they will never span two blocks.
+ *
+ * The memory is managed by the operating system. Pages are loaded on demand and can be shared between
+ * processes which map the same file.
+ *
+ * @author Peter Abeles
+ */
+public class MappedFileRegion {
+	/** Number of bits needed to address a byte inside a block */
+	public static final int BLOCK_BITS = 30;
+	private static final long BLOCK_MASK = (1L << BLOCK_BITS) - 1;
+
+	// The mapped blocks
+	private final ByteBuffer[] blocks;
+
+	/** Number of bytes in this region */
+	@Getter private final long length;
+
+	/**
+	 * Maps the specified region in the file. The mapping remains valid after the channel has been closed.
+	 *
+	 * @param channel File channel which is to be mapped
+	 * @param offset Location of the first byte in the region
+	 * @param length Number of bytes in the region
+	 */
+	public MappedFileRegion( FileChannel channel, long offset, long length ) throws IOException {
+		if (offset < 0 || length < 0)
+			throw new IllegalArgumentException("offset and length must be non-negative");
+		if (offset + length > channel.size())
+			throw new IOException("Region extends past the end of the file. file.size=" + channel.size() +
+					" region.end=" + (offset + length));
+
+		this.length = length;
+		int numBlocks = (int)((length + BLOCK_MASK) >> BLOCK_BITS);
+		blocks = new ByteBuffer[numBlocks];
+		for (int i = 0; i < numBlocks; i++) {
+			long blockStart = (long)i << BLOCK_BITS;
+			long blockLength = Math.min(length - blockStart, 1L << BLOCK_BITS);
+			blocks[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset + blockStart, blockLength);
+		}
+	}
+
+	public byte getByte( long offset ) {
+		return blocks[(int)(offset >>> BLOCK_BITS)].get((int)(offset & BLOCK_MASK));
+	}
+
+	public int getInt( long offset ) {
+		return blocks[(int)(offset >>> BLOCK_BITS)].getInt((int)(offset & BLOCK_MASK));
+	}
+
+	public long getLong( long offset ) {
+		return blocks[(int)(offset >>> BLOCK_BITS)].getLong((int)(offset & BLOCK_MASK));
+	}
+
+	public float getFloat( long offset ) {
+		return blocks[(int)(offset >>> BLOCK_BITS)].getFloat((int)(offset & BLOCK_MASK));
+	}
+
+	public double getDouble( long offset ) {
+		return blocks[(int)(offset >>> BLOCK_BITS)].getDouble((int)(offset & BLOCK_MASK));
+	}
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.fiducial;
+
+import boofcv.abst.fiducial.AztecCodeDetector;
+import boofcv.abst.fiducial.MicroQrCodeDetector;
+import boofcv.abst.fiducial.QrCodeDetector;
+import boofcv.alg.fiducial.aztec.AztecCode;
+import boofcv.alg.fiducial.microqr.MicroQrCode;
+import boofcv.alg.fiducial.qrcode.QrCode;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.fiducial.ConfigAztecCode;
+import boofcv.factory.fiducial.ConfigMicroQrCode;
+import boofcv.factory.fiducial.ConfigQrCode;
+import boofcv.factory.fiducial.FactoryFiducial;
+import boofcv.io.image.ConvertBufferedImage;
+import boofcv.io.image.UtilImageIO;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import lombok.Getter;
+import lombok.Setter;
+import org.jetbrains.annotations.Nullable;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scans a large number of image files for barcodes using multiple threads. Processing is done in two stages
+ * which run at the same time. Reader threads load the raw bytes of each file into a bounded queue, while worker
+ * threads decode the image, convert it to gray scale, and run the detector. Each worker has its own detector
+ * and image, so detectors do not need to be thread safe. The size of the queue limits how much memory is used,
+ * no matter how many files are scanned.
+ *
+ * Results are passed to a {@link Sink} as soon as an image has been processed. Calls to the sink are
+ * synchronized, so it doesn't need to be thread safe, but the order images are processed in is not fixed. Use
+ * the index of the image if the order matters.
+ *
+ * @author Peter Abeles
+ */
+public class BatchScanBarcodes<T extends ImageGray<T>, Code> {
+	/** Number of threads reading files from disk */
+	@Getter @Setter int numReaders = 2;
+
+	/** Number of threads decoding images and running the detector. If &le; 0 then the thread pool's size is used */
+	@Getter @Setter int numWorkers = 0;
+
+	/** Maximum number of files which have been read but not processed. If &le; 0 then it's 2*numWorkers */
+	@Getter @Setter int maxQueued = 0;
+
+	// Creates a new detector for each worker
+	final BoofLambdas.Factory<Scanner<T, Code>> factory;
+	// Type of image the detector processes
+	final Class<T> imageType;
+
+	// Detectors which are saved between calls to reduce the overhead of creating new ones
+	final List<Scanner<T, Code>> detectors = new ArrayList<>();
+
+	// Used to mark the end of the queue
+	private static final Loaded END = new Loaded(-1, "", null);
+
+	/**
+	 * @param factory Creates a new detector. Called once for each worker.
+	 * @param imageType Type of gray scale image the detector processes
+	 */
+	public BatchScanBarcodes( BoofLambdas.Factory<Scanner<T, Code>> factory, Class<T> imageType ) {
+		this.factory = factory;
+		this.imageType = imageType;
+	}
+
+	/**
+	 * Scans all the images in the list and passes the results to the sink. Blocks until every image has been
+	 * processed.
+	 *
+	 * @param paths List of paths to image files
+	 * @param sink Where the results are sent
+	 */
+	public void process( List<String> paths, Sink<Code> sink ) {
+		int workerCount = numWorkers > 0 ? numWorkers :
+				BoofConcurrency.USE_CONCURRENT ? BoofConcurrency.getThreadPool().getParallelism() : 1;
+		int readerCount = Math.max(1, numReaders);
+		int queueSize = maxQueued > 0 ? maxQueued : 2*workerCount;
+
+		while (detectors.size() < workerCount) {
+			detectors.add(factory.newInstance());
+		}
+
+		final var queue = new ArrayBlockingQueue<Loaded>(queueSize);
+		final var nextPath = new AtomicInteger();
+		final var finishedReaders = new AtomicInteger();
+		final var failure = new Failure();
+
+		// Readers and workers block on the queue, so each one needs its own thread and can't share the
+		// fork-join pool used by the rest of BoofCV
+		var threadCount = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(readerCount + workerCount, task -> {
+			var thread = new Thread(task, "BatchScan" + threadCount.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		var tasks = new ArrayList<Future<?>>();
+		for (int readerIdx = 0; readerIdx < readerCount; readerIdx++) {
+			tasks.add(executor.submit(() -> {
+				try {
+					int index;
+					while (failure.exception == null && (index = nextPath.getAndIncrement()) < paths.size()) {
+						String path = paths.get(index);
+						byte[] data;
+						try {
+							data = Files.readAllBytes(Paths.get(path));
+						} catch (IOException e) {
+							data = null;
+						}
+						queue.put(new Loaded(index, path, data));
+					}
+				} catch (Throwable e) {
+					failure.set(e);
+				} finally {
+					// The last reader to finish tells every worker that there's nothing left
+					if (finishedReaders.incrementAndGet() == readerCount) {
+						for (int i = 0; i < workerCount; i++) {
+							putUninterruptibly(queue, END);
+						}
+					}
+				}
+			}));
+		}
+
+		for (int workerIdx = 0; workerIdx < workerCount; workerIdx++) {
+			Scanner<T, Code> detector = detectors.get(workerIdx);
+			tasks.add(executor.submit(() -> {
+				@Nullable T gray = null;
+				boolean failed = false;
+				while (true) {
+					Loaded loaded = takeUninterruptibly(queue);
+					if (loaded == END)
+						break;
+					// After a failure keep on draining the queue so that readers don't block forever
+					if (failed || failure.exception != null)
+						continue;
+					try {
+						BufferedImage buffered = decode(loaded.path, loaded.data);
+						if (buffered == null) {
+							synchronized (sink) {
+								sink.handle(loaded.index, loaded.path, null);
+							}
+							continue;
+						}
+						gray = ConvertBufferedImage.convertFromSingle(buffered, gray, imageType);
+						detector.process(gray);
+						synchronized (sink) {
+							sink.handle(loaded.index, loaded.path, detector.getDetections());
+						}
+					} catch (Throwable e) {
+						// Errors are caught too, otherwise the worker would stop taking from the queue and
+						// the readers would block forever
+						failure.set(e);
+						failed = true;
+					}
+				}
+			}));
+		}
+
+		try {
+			for (Future<?> task : tasks) {
+				task.get();
+			}
+		} catch (InterruptedException | ExecutionException e) {
+			throw new RuntimeException(e);
+		} finally {
+			executor.shutdown();
+		}
+
+		Throwable exception = failure.exception;
+		if (exception instanceof Error)
+			throw (Error)exception;
+		if (exception != null)
+			throw new RuntimeException("Scanning failed", exception);
+	}
+
+	/**
+	 * Decodes the image from the file's bytes. Supports the same formats as {@link UtilImageIO#loadImage(String)}
+	 */
+	private static @Nullable BufferedImage decode( String path, byte @Nullable [] data ) {
+		if (data == null)
+			return null;
+		try {
+			BufferedImage buffered = ImageIO.read(new ByteArrayInputStream(data));
+			if (buffered != null)
+				return buffered;
+			String lower = path.toLowerCase();
+			if (lower.endsWith("ppm")) {
+				return UtilImageIO.loadPPM(new ByteArrayInputStream(data), null);
+			} else if (lower.endsWith("pgm")) {
+				return UtilImageIO.loadPGM(new ByteArrayInputStream(data), null);
+			}
+		} catch (IOException | RuntimeException ignore) {
+		}
+		return null;
+	}
+
+	private static void putUninterruptibly( BlockingQueue<Loaded> queue, Loaded item ) {
+		while (true) {
+			try {
+				queue.put(item);
+				return;
+			} catch (InterruptedException ignore) {}
+		}
+	}
+
+	private static Loaded takeUninterruptibly( BlockingQueue<Loaded> queue ) {
+		while (true) {
+			try {
+				return queue.take();
+			} catch (InterruptedException ignore) {}
+		}
+	}
+
+	/**
+	 * Creates a batch scanner for QR Codes
+	 */
+	public static BatchScanBarcodes<GrayU8, QrCode> qrcode( @Nullable ConfigQrCode config ) {
+		return new BatchScanBarcodes<>(() -> {
+			QrCodeDetector<GrayU8> detector = FactoryFiducial.qrcode(config, GrayU8.class);
+			return new Scanner<>() {
+				@Override public void process( GrayU8 image ) {detector.process(image);}
+
+				@Override public List<QrCode> getDetections() {return detector.getDetections();}
+			};
+		}, GrayU8.class);
+	}
+
+	/**
+	 * Creates a batch scanner for Micro QR Codes
+	 */
+	public static BatchScanBarcodes<GrayU8, MicroQrCode> microqr( @Nullable ConfigMicroQrCode config ) {
+		return new BatchScanBarcodes<>(() -> {
+			MicroQrCodeDetector<GrayU8> detector = FactoryFiducial.microqr(config, GrayU8.class);
+			return new Scanner<>() {
+				@Override public void process( GrayU8 image ) {detector.process(image);}
+
+				@Override public List<MicroQrCode> getDetections() {return detector.getDetections();}
+			};
+		}, GrayU8.class);
+	}
+
+	/**
+	 * Creates a batch scanner for Aztec Codes
+	 */
+	public static BatchScanBarcodes<GrayU8, AztecCode> aztec( @Nullable ConfigAztecCode config ) {
+		return new BatchScanBarcodes<>(() -> {
+			AztecCodeDetector<GrayU8> detector = FactoryFiducial.aztec(config, GrayU8.class);
+			return new Scanner<>() {
+				@Override public void process( GrayU8 image ) {detector.process(image);}
+
+				@Override public List<AztecCode> getDetections() {return detector.getDetections();}
+			};
+		}, GrayU8.class);
+	}
+
+	/**
+	 * A single threaded barcode detector
+	 */
+	public interface Scanner<T extends ImageGray<T>, Code> {
+		void process( T image );
+
+		List<Code> getDetections();
+	}
+
+	/**
+	 * Receives the results from each image
+	 */
+	@FunctionalInterface
+	public interface Sink<Code> {
+		/**
+		 * Called after an image has been processed
+		 *
+		 * @param index Index of the image in the input list
+		 * @param path Path to the image
+		 * @param detections Detected barcodes or null if the image could not be loaded. Recycled after this returns.
+		 */
+		void handle( int index, String path, @Nullable List<Code> detections );
+	}
+
+	/** Raw bytes from a file that have yet to be decoded */
+	private static class Loaded {
+		final int index;
+		final String path;
+		// null if the file couldn't be read
+		final byte @Nullable [] data;
+
+		Loaded( int index, String path, byte @Nullable [] data ) {
+			this.index = index;
+			this.path = path;
+			this.data = data;
+		}
+	}
+
+	/** Records the first exception or error thrown by any thread */
+	private static class Failure {
+		volatile @Nullable Throwable exception;
+
+		synchronized void set( Throwable e ) {
+			if (exception == null)
+				exception = e;
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -25,18 +25,18 @@ import boofcv.alg.cloud.PointCloudWriter;
 import boofcv.io.points.impl.*;
 import boofcv.struct.Point3dRgbI_F64;
 import boofcv.struct.mesh.VertexMesh;
+import boofcv.struct.packed.PackedBigArrayPoint3D_F64;
 import georegression.struct.point.Point3D_F32;
 import georegression.struct.point.Point3D_F64;
 import org.ddogleg.struct.DogArray;
 import org.ddogleg.struct.DogArray_I32;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.io.OutputStreamWriter;
+import java.io.*;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 
 /**
  * Code for reading different point cloud formats
@@ -180,6 +180,48 @@ public class PointCloudIO {
 		load(format, input, pcw);
 	}
 
+	/**
+	 * Saves a large point cloud to a binary PLY file. Points are written directly from the packed array without
+	 * creating a copy of the cloud or going through a per-point callback.
+	 *
+	 * @param cloud (Input) Point cloud
+	 * @param colorRGB (Input) Optional color of each point
+	 * @param file Where it's saved to
+	 */
+	public static void savePly( PackedBigArrayPoint3D_F64 cloud, @Nullable DogArray_I32 colorRGB, File file )
+			throws IOException {
+		try (var channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			PlyCodec.saveCloudBinary(cloud, colorRGB, ByteOrder.BIG_ENDIAN, false, channel);
+		}
+	}
+
+	/**
+	 * Reads all the points in a binary PLY file using memory mapping. Memory usage is bounded independent of
+	 * the file's size.
+	 *
+	 * @see PlyCodec#readCloudMapped
+	 */
+	public static void loadPly( File file, PointCloudWriter output ) throws IOException {
+		loadPly(file, 0, -1, output);
+	}
+
+	/**
+	 * Reads a range of points from a binary PLY file using memory mapping. Only the requested points are read, which
+	 * allows a huge file to be processed in pieces.
+	 *
+	 * @param file PLY file
+	 * @param idx0 Index of the first point. Inclusive.
+	 * @param idx1 Index of the last point. Exclusive. If &lt; 0 then it will read till the end.
+	 * @param output (Output) Where the points are written to
+	 * @see PlyCodec#readCloudMapped
+	 */
+	public static void loadPly( File file, int idx0, int idx1, PointCloudWriter output ) throws IOException {
+		try (var channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			PlyCodec.readCloudMapped(channel, idx0, idx1, output);
+		}
+	}
+
 	/**
 	 * A writer without the initialization step. Used to simplify the code
 	 */
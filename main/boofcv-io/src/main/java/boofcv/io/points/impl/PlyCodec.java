@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -21,17 +21,19 @@ package boofcv.io.points.impl;
 import boofcv.alg.cloud.PointCloudReader;
 import boofcv.alg.cloud.PointCloudWriter;
 import boofcv.io.UtilIO;
+import boofcv.misc.BoofMiscOps;
 import boofcv.struct.mesh.VertexMesh;
+import boofcv.struct.packed.PackedBigArrayPoint3D_F64;
 import georegression.struct.point.Point3D_F64;
+import org.ddogleg.struct.BigDogArray_F64;
 import org.ddogleg.struct.DogArray_I32;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.io.Writer;
+import java.io.*;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -41,6 +43,15 @@ import java.util.List;
  * @author Peter Abeles
  */
 public class PlyCodec {
+	/** Maximum number of bytes that are mapped at once when reading a binary file */
+	public static final long MAPPED_CHUNK_BYTES = 64L*1024*1024;
+
+	/** Size of the buffer used when writing a binary file to a channel */
+	public static final int WRITE_BUFFER_BYTES = 4*1024*1024;
+
+	/** The header can't be larger than this */
+	private static final int MAX_HEADER_BYTES = 64*1024;
+
 	public static void saveAscii( PlyWriter data, Writer outputWriter ) throws IOException {
 		writeAsciiHeader(data.getVertexCount(), data.getPolygonCount(), data.isColor(), outputWriter);
 
@@ -413,57 +424,19 @@ public class PlyCodec {
 										 ByteOrder order,
 										 int vertexCount, boolean rgb, int triangleCount ) throws IOException {
 
-		int totalBytes = 0;
-		for (int i = 0; i < dataWords.size(); i++) {
-			totalBytes += dataWords.get(i).data.size;
-		}
-
-		final byte[] line = new byte[totalBytes];
+		final byte[] line = new byte[bytesPerVertex(dataWords)];
 		final ByteBuffer bb = ByteBuffer.wrap(line);
 		bb.order(order);
 
-		// storage for read in values
-		int I32 = -1;
-		double F64 = -1;
-
-		// values that are writen to that we care about
-		int r = -1, g = -1, b = -1;
-		double x = -1, y = -1, z = -1;
+		var decoder = new VertexDecoder(dataWords);
 
 		for (int i = 0; i < vertexCount; i++) {
 			int found = reader.read(line);
 			if (line.length != found)
 				throw new IOException("Read unexpected number of bytes. " + found + " vs " + line.length);
 
-			int location = 0;
-
-			for (int j = 0; j < dataWords.size(); j++) {
-				DataWord d = dataWords.get(j);
-				switch (d.data) {
-					case FLOAT -> F64 = bb.getFloat(location);
-					case DOUBLE -> F64 = bb.getDouble(location);
-					case CHAR -> I32 = bb.get(location);
-					case UCHAR -> I32 = bb.get(location) & 0xFF;
-					case SHORT -> I32 = bb.getShort(location);
-					case USHORT -> I32 = bb.getShort(location) & 0xFFFF;
-					case INT -> I32 = bb.getInt(location);
-					case UINT -> I32 = bb.getInt(location); // NOTE: not really uint...
-					default -> throw new RuntimeException("Unsupported");
-				}
-				location += d.data.size;
-				switch (d.var) {
-					case X -> x = F64;
-					case Y -> y = F64;
-					case Z -> z = F64;
-					case R -> r = I32;
-					case G -> g = I32;
-					case B -> b = I32;
-					default -> {
-					}
-				}
-			}
-
-			output.addVertex(x, y, z, r << 16 | g << 8 | b);
+			decoder.decode(bb, 0);
+			output.addVertex(decoder.x, decoder.y, decoder.z, decoder.rgb());
 		}
 
 		final var polygonLine = new byte[4*10];
@@ -494,6 +467,164 @@ public class PlyCodec {
 		}
 	}
 
+	/**
+	 * Saves a point cloud in binary format by writing directly from the packed array's internal storage.
+	 * Points are encoded into a fixed size buffer, so memory usage doesn't depend on the cloud's size.
+	 *
+	 * @param cloud (Input) Point cloud
+	 * @param colorRGB (Input) Optional color of each point. If null then color isn't saved.
+	 * @param order The byte order of the binary data
+	 * @param saveAsFloat if true it will save it as a 4-byte float and if false as an 8-byte double
+	 * @param channel Channel it's written to
+	 */
+	public static void saveCloudBinary( PackedBigArrayPoint3D_F64 cloud, @Nullable DogArray_I32 colorRGB,
+										ByteOrder order, boolean saveAsFloat, FileChannel channel ) throws IOException {
+		boolean color = colorRGB != null;
+		if (colorRGB != null)
+			BoofMiscOps.checkEq(cloud.size(), colorRGB.size, "Number of colors and points must match");
+
+		var header = new ByteArrayOutputStream();
+		writeBinaryHeader(cloud.size(), 0, order, color, saveAsFloat, "UTF-8", header);
+		writeFully(channel, ByteBuffer.wrap(header.toByteArray()));
+
+		int bytesPerVertex = (saveAsFloat ? 12 : 24) + (color ? 3 : 0);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(Math.max(1, WRITE_BUFFER_BYTES/bytesPerVertex)*bytesPerVertex);
+		buffer.order(order);
+
+		// Go through each block in the array. Points never span two blocks
+		BigDogArray_F64 raw = cloud.getRawArray();
+		long totalElements = cloud.size()*3L;
+		int blockSize = raw.getBlockSize();
+		int pointIdx = 0;
+		for (int blockIdx = 0; (long)blockIdx*blockSize < totalElements; blockIdx++) {
+			double[] block = raw.getBlocks().get(blockIdx);
+			int length = (int)Math.min(blockSize, totalElements - (long)blockIdx*blockSize);
+
+			for (int i = 0; i < length; i += 3, pointIdx++) {
+				if (buffer.remaining() < bytesPerVertex) {
+					buffer.flip();
+					writeFully(channel, buffer);
+					buffer.clear();
+				}
+
+				if (saveAsFloat) {
+					buffer.putFloat((float)block[i]);
+					buffer.putFloat((float)block[i + 1]);
+					buffer.putFloat((float)block[i + 2]);
+				} else {
+					buffer.putDouble(block[i]);
+					buffer.putDouble(block[i + 1]);
+					buffer.putDouble(block[i + 2]);
+				}
+
+				if (colorRGB != null) {
+					int rgb = colorRGB.data[pointIdx];
+					buffer.put((byte)(rgb >> 16));
+					buffer.put((byte)(rgb >> 8));
+					buffer.put((byte)rgb);
+				}
+			}
+		}
+		buffer.flip();
+		writeFully(channel, buffer);
+	}
+
+	private static void writeFully( FileChannel channel, ByteBuffer buffer ) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	/**
+	 * Reads the number of vertexes from the header of a PLY file
+	 */
+	public static int readVertexCount( FileChannel channel ) throws IOException {
+		var header = new Header();
+		readHeader(channel, header);
+		return header.vertexCount;
+	}
+
+	/**
+	 * Reads a range of vertexes from a binary PLY file using memory mapping. The file is mapped in chunks that are
+	 * at most {@link #MAPPED_CHUNK_BYTES}, so memory usage is bounded, and the vertexes which are not requested
+	 * are never read. Polygons are ignored.
+	 *
+	 * @param channel Channel for the PLY file
+	 * @param vertex0 Index of the first vertex that's read. Inclusive.
+	 * @param vertex1 Index of the last vertex that's read. Exclusive. If &lt; 0 then all vertexes are read.
+	 * @param output (Output) Where the vertexes are written to
+	 */
+	public static void readCloudMapped( FileChannel channel, int vertex0, int vertex1, PointCloudWriter output )
+			throws IOException {
+		readCloudMapped(channel, vertex0, vertex1, MAPPED_CHUNK_BYTES, output);
+	}
+
+	static void readCloudMapped( FileChannel channel, int vertex0, int vertex1, long chunkBytes,
+								 PointCloudWriter output ) throws IOException {
+		var header = new Header();
+		long dataOffset = readHeader(channel, header);
+
+		ByteOrder order = switch (header.format) {
+			case BINARY_LITTLE -> ByteOrder.LITTLE_ENDIAN;
+			case BINARY_BIG -> ByteOrder.BIG_ENDIAN;
+			default -> throw new IOException("Only binary PLY files can be memory mapped");
+		};
+		if (header.vertexCount == -1)
+			throw new IOException("File is missing vertex count");
+
+		if (vertex1 < 0)
+			vertex1 = header.vertexCount;
+		if (vertex0 < 0 || vertex0 > vertex1 || vertex1 > header.vertexCount)
+			throw new IllegalArgumentException("Invalid vertex range. " + vertex0 + " to " + vertex1 +
+					" vertexCount=" + header.vertexCount);
+
+		int bytesPerVertex = bytesPerVertex(header.dataWords);
+		if (dataOffset + (long)header.vertexCount*bytesPerVertex > channel.size())
+			throw new IOException("File is too small for the number of vertexes in the header. Truncated?");
+
+		output.initialize(vertex1 - vertex0, header.rgb);
+
+		// Map the file in chunks with an integer number of vertexes in each chunk
+		int vertexesPerChunk = (int)Math.max(1, Math.min(Integer.MAX_VALUE/bytesPerVertex, chunkBytes/bytesPerVertex));
+		var decoder = new VertexDecoder(header.dataWords);
+		for (int chunk0 = vertex0; chunk0 < vertex1; ) {
+			int count = Math.min(vertexesPerChunk, vertex1 - chunk0);
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+					dataOffset + (long)chunk0*bytesPerVertex, (long)count*bytesPerVertex);
+			buffer.order(order);
+
+			for (int i = 0, location = 0; i < count; i++, location += bytesPerVertex) {
+				decoder.decode(buffer, location);
+				output.add(decoder.x, decoder.y, decoder.z, decoder.rgb());
+			}
+			chunk0 += count;
+		}
+	}
+
+	/**
+	 * Parses the header at the start of the file
+	 *
+	 * @return Location of the first byte after the header
+	 */
+	private static long readHeader( FileChannel channel, Header header ) throws IOException {
+		var bytes = ByteBuffer.allocate((int)Math.min(channel.size(), MAX_HEADER_BYTES));
+		while (bytes.hasRemaining()) {
+			if (channel.read(bytes, bytes.position()) < 0)
+				break;
+		}
+		var input = new ByteArrayInputStream(bytes.array(), 0, bytes.position());
+		readHeader(input, header);
+		return bytes.position() - input.available();
+	}
+
+	private static int bytesPerVertex( List<DataWord> dataWords ) {
+		int totalBytes = 0;
+		for (int i = 0; i < dataWords.size(); i++) {
+			totalBytes += dataWords.get(i).data.size;
+		}
+		return totalBytes;
+	}
+
 	private static PlyWriter wrapMeshForWriting( VertexMesh mesh, @Nullable DogArray_I32 colorRGB ) {
 		return new PlyWriter() {
 			@Override public int getVertexCount() {return mesh.vertexes.size();}
@@ -544,6 +675,57 @@ public class PlyCodec {
 		Format format = Format.ASCII;
 	}
 
+	/**
+	 * Decodes a binary vertex and saves the values that are used
+	 */
+	private static class VertexDecoder {
+		final List<DataWord> dataWords;
+
+		// values that are written to that we care about
+		int r = -1, g = -1, b = -1;
+		double x = -1, y = -1, z = -1;
+
+		VertexDecoder( List<DataWord> dataWords ) {
+			this.dataWords = dataWords;
+		}
+
+		void decode( ByteBuffer bb, int location ) {
+			// storage for read in values
+			int I32 = -1;
+			double F64 = -1;
+
+			for (int j = 0; j < dataWords.size(); j++) {
+				DataWord d = dataWords.get(j);
+				switch (d.data) {
+					case FLOAT -> F64 = bb.getFloat(location);
+					case DOUBLE -> F64 = bb.getDouble(location);
+					case CHAR -> I32 = bb.get(location);
+					case UCHAR -> I32 = bb.get(location) & 0xFF;
+					case SHORT -> I32 = bb.getShort(location);
+					case USHORT -> I32 = bb.getShort(location) & 0xFFFF;
+					case INT -> I32 = bb.getInt(location);
+					case UINT -> I32 = bb.getInt(location); // NOTE: not really uint...
+					default -> throw new RuntimeException("Unsupported");
+				}
+				location += d.data.size;
+				switch (d.var) {
+					case X -> x = F64;
+					case Y -> y = F64;
+					case Z -> z = F64;
+					case R -> r = I32;
+					case G -> g = I32;
+					case B -> b = I32;
+					default -> {
+					}
+				}
+			}
+		}
+
+		int rgb() {
+			return r << 16 | g << 8 | b;
+		}
+	}
+
 	private static class DataWord {
 		VarType var;
 		DataType data;
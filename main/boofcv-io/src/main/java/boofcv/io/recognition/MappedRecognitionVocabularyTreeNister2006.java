@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.recognition;
+
+import boofcv.alg.scene.nister2006.RecognitionVocabularyTreeNister2006;
+import boofcv.alg.scene.nister2006.RecognitionVocabularyTreeNister2006_MT;
+import boofcv.alg.scene.vocabtree.HierarchicalVocabularyTree;
+import boofcv.io.MappedFileRegion;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.feature.TupleDesc;
+import org.ddogleg.struct.DogArray_F32;
+import org.ddogleg.struct.DogArray_I32;
+
+import java.util.List;
+
+/**
+ * Read only version of {@link RecognitionVocabularyTreeNister2006} where the inverted files and tree descriptions
+ * are accessed directly from a memory mapped file. Opening a database only requires reading the file's header,
+ * the tree's nodes, and the image IDs. Everything else is paged in by the operating system when a query needs it
+ * and multiple processes that open the same file will share the same physical memory.
+ *
+ * The base class's {@link #invertedFiles} are not used and will be empty. Images can't be added or removed.
+ * Reading from the mapped file is thread safe, so {@link #queryBatch} can be used.
+ * See {@link RecognitionIO#saveMappedBin} for how to create the file.
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings({"NullAway.Init"})
+public class MappedRecognitionVocabularyTreeNister2006<TD extends TupleDesc<TD>>
+		extends RecognitionVocabularyTreeNister2006_MT<TD> {
+	// Index of the first element in each node's inverted file. long[nodes.size+1]
+	MappedFileRegion invertedOffsets;
+	// Index of images in the inverted files. int[]
+	MappedFileRegion invertedImages;
+	// Weight of the word in each image. float[]
+	MappedFileRegion invertedWeights;
+
+	/**
+	 * @param factoryPoint Creates a new tuple which can store the tree's descriptions
+	 */
+	public MappedRecognitionVocabularyTreeNister2006( BoofLambdas.Factory<TD> factoryPoint ) {
+		super(factoryPoint);
+	}
+
+	/**
+	 * Specifies the tree and mapped inverted files
+	 */
+	void setMapped( HierarchicalVocabularyTree<TD> tree,
+					MappedFileRegion invertedOffsets,
+					MappedFileRegion invertedImages,
+					MappedFileRegion invertedWeights ) {
+		this.tree = tree;
+		this.invertedOffsets = invertedOffsets;
+		this.invertedImages = invertedImages;
+		this.invertedWeights = invertedWeights;
+	}
+
+	@Override protected int invertedFileSize( int nodeIdx ) {
+		long idx0 = invertedOffsets.getLong(nodeIdx*8L);
+		long idx1 = invertedOffsets.getLong((nodeIdx + 1)*8L);
+		return (int)(idx1 - idx0);
+	}
+
+	@Override protected void scoreInvertedFile( int nodeIdx, float queryWordWeight, Workspace<TD> work ) {
+		long idx0 = invertedOffsets.getLong(nodeIdx*8L);
+		long idx1 = invertedOffsets.getLong((nodeIdx + 1)*8L);
+
+		for (long i = idx0; i < idx1; i++) {
+			updateMatchScore(invertedImages.getInt(i*4), queryWordWeight, invertedWeights.getFloat(i*4), work);
+		}
+	}
+
+	@Override public void initializeTree( HierarchicalVocabularyTree<TD> tree ) {
+		throw new UnsupportedOperationException("Read only");
+	}
+
+	@Override public void clearImages() {
+		throw new UnsupportedOperationException("Read only");
+	}
+
+	@Override public void addImage( int imageID, List<TD> imageFeatures ) {
+		throw new UnsupportedOperationException("Read only");
+	}
+
+	@Override public void addImages( DogArray_I32 imageIDs, List<List<TD>> images ) {
+		throw new UnsupportedOperationException("Read only");
+	}
+
+	@Override public void addDescriptor( int imageID, DogArray_F32 descWeights, DogArray_I32 descWords ) {
+		throw new UnsupportedOperationException("Read only");
+	}
+
+	@Override public boolean removeImage( int imageID ) {
+		throw new UnsupportedOperationException("Read only");
+	}
+
+	@Override public void compact() {
+		throw new UnsupportedOperationException("Read only");
+	}
+}
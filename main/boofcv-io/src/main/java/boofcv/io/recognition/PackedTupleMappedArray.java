@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.recognition;
+
+import boofcv.factory.struct.FactoryTupleDesc;
+import boofcv.io.MappedFileRegion;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.PackedArray;
+import boofcv.struct.feature.*;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Read only {@link PackedArray} where the tuples are stored inside a memory mapped file. Tuples are stored
+ * one after another using the same element encoding as {@link RecognitionIO#writeBin}. Only the tuple
+ * which is being accessed is copied onto the heap.
+ *
+ * @author Peter Abeles
+ */
+public class PackedTupleMappedArray<TD extends TupleDesc<TD>> implements PackedArray<TD> {
+	// Type of tuple stored in the array
+	final Class<TD> type;
+	// number of bytes in a single tuple
+	final int bytesPerTuple;
+	// tuple that the result is temporarily written to
+	final TD temp;
+	// Reads a tuple from the file
+	final Reader<TD> reader;
+
+	// The mapped file. null if nothing has been mapped
+	@Nullable MappedFileRegion region;
+	// Number of tuples stored in the array
+	int numElements;
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public PackedTupleMappedArray( int dof, Class<TD> type ) {
+		this.type = type;
+		this.temp = FactoryTupleDesc.createTuple(dof, (Class)type);
+
+		if (type == TupleDesc_F64.class) {
+			bytesPerTuple = 8*dof;
+			reader = (Reader)(Reader<TupleDesc_F64>)( region, offset, dst ) -> {
+				for (int i = 0; i < dst.data.length; i++) {
+					dst.data[i] = region.getDouble(offset + i*8L);
+				}
+			};
+		} else if (type == TupleDesc_F32.class) {
+			bytesPerTuple = 4*dof;
+			reader = (Reader)(Reader<TupleDesc_F32>)( region, offset, dst ) -> {
+				for (int i = 0; i < dst.data.length; i++) {
+					dst.data[i] = region.getFloat(offset + i*4L);
+				}
+			};
+		} else if (TupleDesc_I8.class.isAssignableFrom(type)) {
+			bytesPerTuple = dof;
+			reader = (Reader)(Reader<TupleDesc_I8>)( region, offset, dst ) -> {
+				for (int i = 0; i < dst.data.length; i++) {
+					dst.data[i] = region.getByte(offset + i);
+				}
+			};
+		} else if (type == TupleDesc_B.class) {
+			bytesPerTuple = 4*((TupleDesc_B)temp).data.length;
+			reader = (Reader)(Reader<TupleDesc_B>)( region, offset, dst ) -> {
+				for (int i = 0; i < dst.data.length; i++) {
+					dst.data[i] = region.getInt(offset + i*4L);
+				}
+			};
+		} else {
+			throw new IllegalArgumentException("Unsupported type " + type.getSimpleName());
+		}
+	}
+
+	/**
+	 * Specifies the mapped region the tuples are read from
+	 *
+	 * @param region Mapped region in the file. Must contain exactly numElements tuples.
+	 * @param numElements Number of tuples
+	 */
+	public void setMapped( MappedFileRegion region, int numElements ) {
+		if (region.getLength() != (long)numElements*bytesPerTuple)
+			throw new IllegalArgumentException("Region has an unexpected length. " +
+					region.getLength() + " != " + (long)numElements*bytesPerTuple);
+		this.region = region;
+		this.numElements = numElements;
+	}
+
+	/** Removes the reference to the mapped file */
+	@Override public void reset() {
+		region = null;
+		numElements = 0;
+	}
+
+	@Override public void reserve( int numElements ) {
+		throw new UnsupportedOperationException("Read only");
+	}
+
+	@Override public void append( TD element ) {
+		throw new UnsupportedOperationException("Read only");
+	}
+
+	@Override public TD getTemp( int index ) {
+		getCopy(index, temp);
+		return temp;
+	}
+
+	@SuppressWarnings({"NullAway"})
+	@Override public void getCopy( int index, TD dst ) {
+		if (index < 0 || index >= numElements)
+			throw new IllegalArgumentException("Out of bounds. index=" + index + " size=" + numElements);
+		reader.read(region, (long)index*bytesPerTuple, dst);
+	}
+
+	@Override public void copy( TD src, TD dst ) {
+		dst.setTo(src);
+	}
+
+	@Override public int size() {
+		return numElements;
+	}
+
+	@Override public Class<TD> getElementType() {
+		return type;
+	}
+
+	/** Modifications to the tuple passed to 'op' are NOT saved since the array is read only */
+	@Override public void forIdx( int idx0, int idx1, BoofLambdas.ProcessIndex<TD> op ) {
+		for (int i = idx0; i < idx1; i++) {
+			op.process(i, getTemp(i));
+		}
+	}
+
+	/**
+	 * Reads a tuple which starts at the specified byte offset
+	 */
+	@FunctionalInterface
+	interface Reader<TD> {
+		void read( MappedFileRegion region, long offset, TD dst );
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -29,23 +29,30 @@ import boofcv.alg.scene.bow.InvertedFile;
 import boofcv.alg.scene.nister2006.RecognitionVocabularyTreeNister2006;
 import boofcv.alg.scene.vocabtree.HierarchicalVocabularyTree;
 import boofcv.factory.scene.FactorySceneRecognition;
+import boofcv.factory.struct.FactoryTupleDesc;
+import boofcv.io.MappedFileRegion;
 import boofcv.io.UtilIO;
 import boofcv.misc.BoofMiscOps;
 import boofcv.struct.PackedArray;
 import boofcv.struct.feature.*;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
+import boofcv.struct.kmeans.FactoryTupleCluster;
 import boofcv.struct.kmeans.TuplePointDistanceEuclideanSq;
 import boofcv.struct.kmeans.TuplePointDistanceHamming;
 import deepboof.io.DeepBoofDataBaseOps;
 import org.ddogleg.clustering.PointDistance;
 import org.ddogleg.struct.BigDogArray_I32;
 import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_I32;
 import org.ddogleg.struct.FastAccess;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -64,6 +71,7 @@ public class RecognitionIO {
 	public static final String DATABASE_NAME = "database.bin";
 	public static final String DICTIONARY_NAME = "dictionary.bin";
 	public static final String INVERTED_NAME = "inverted_files.bin";
+	public static final String DATABASE_MAPPED_NAME = "database_mapped.bin";
 
 	/**
 	 * Downloads then loads the pre-built default scene recognition model. The image DB will of course be empty.
@@ -680,7 +688,9 @@ public class RecognitionIO {
 	}
 
 	/**
-	 * Saves {@link RecognitionVocabularyTreeNister2006} to a binary format.
+	 * Saves {@link RecognitionVocabularyTreeNister2006} to a binary format. Removed images are skipped and the
+	 * remaining images are saved with the indexes they would have after compaction. The database isn't modified.
+	 * Changes made after this can be saved using {@link RecognitionUpdateLog}.
 	 *
 	 * @param db (Input) Structure to be encoded
 	 * @param out Stream it's written to
@@ -689,13 +699,17 @@ public class RecognitionIO {
 		HierarchicalVocabularyTree<TD> tree = db.getTree();
 		Objects.requireNonNull(tree, "Tree must be specified before it can be saved");
 
+		// Removed images are skipped and the remaining images renumbered as they are written
+		var oldToNew = new DogArray_I32();
+		int imagesSize = db.computeCompactedIndexes(oldToNew);
+
 		String header = "BOOFCV_RECOGNITION_NISTER_2006\n";
 		header += "# Image DB: id=int,descTermFreq.size=int,array[key=int,value=float]\n";
 		header += "# Leaf Info: images.size=int,images.data=array[int]\n";
 		header += "format_version 1\n";
 		header += "boofcv_version " + BoofVersion.VERSION + "\n";
 		header += "git_sha " + BoofVersion.GIT_SHA + "\n";
-		header += "images_db.size " + db.getImagesDB().size + "\n";
+		header += "images_db.size " + imagesSize + "\n";
 		header += "BEGIN_TREE\n";
 
 		try {
@@ -708,7 +722,8 @@ public class RecognitionIO {
 			dout.writeUTF("BEGIN_IMAGE_DB");
 			BigDogArray_I32 imageDB = db.getImagesDB();
 			for (int dbIdx = 0; dbIdx < imageDB.size; dbIdx++) {
-				dout.writeInt(imageDB.get(dbIdx));
+				if (oldToNew.data[dbIdx] >= 0)
+					dout.writeInt(imageDB.get(dbIdx));
 			}
 
 			dout.writeUTF("BEGIN_INVERTED_FILES");
@@ -717,12 +732,15 @@ public class RecognitionIO {
 				InvertedFile node = db.invertedFiles.get(nodeIdx);
 				BoofMiscOps.checkEq(node.size, node.weights.size);
 
-				dout.writeInt(node.size());
+				dout.writeInt(countRemaining(node, oldToNew));
 				for (int i = 0; i < node.size; i++) {
-					dout.writeInt(node.get(i));
+					int imageIdx = oldToNew.data[node.get(i)];
+					if (imageIdx >= 0)
+						dout.writeInt(imageIdx);
 				}
 				for (int i = 0; i < node.weights.size; i++) {
-					dout.writeFloat(node.weights.get(i));
+					if (oldToNew.data[node.get(i)] >= 0)
+						dout.writeFloat(node.weights.get(i));
 				}
 			}
 
@@ -767,6 +785,7 @@ public class RecognitionIO {
 			for (int i = 0; i < imagesDB.size; i++) {
 				imagesDB.set(i, input.readInt());
 			}
+			db.rebuildImageLookup();
 
 			readCheckUTF(input, "BEGIN_INVERTED_FILES");
 			db.invertedFiles.reset();
@@ -790,6 +809,290 @@ public class RecognitionIO {
 		}
 	}
 
+	/**
+	 * Loads {@link FeatureSceneRecognitionNister2006} but memory maps the database instead of reading it onto the
+	 * heap. The database must have been saved using {@link #saveMappedBin} to {@link #DATABASE_MAPPED_NAME}.
+	 * The returned recognizer is read only.
+	 *
+	 * @param dir Directory containing saved graph
+	 * @param recognizer (Output) where it's loaded into
+	 */
+	public static <TD extends TupleDesc<TD>>
+	void mapNister2006( File dir, FeatureSceneRecognitionNister2006<TD> recognizer ) {
+		if (!dir.exists())
+			throw new IllegalArgumentException("Directory doesn't exist: " + dir.getPath());
+		if (!dir.isDirectory())
+			throw new IllegalArgumentException("Path is not a directory: " + dir.getPath());
+
+		MappedRecognitionVocabularyTreeNister2006<TD> db = loadMappedBin(new File(dir, DATABASE_MAPPED_NAME));
+
+		// Copy over the settings which aren't saved in the database file
+		RecognitionVocabularyTreeNister2006<TD> original = recognizer.getDatabase();
+		db.setDistanceFunction(original.getDistanceFunction());
+		db.minimumDepthFromRoot = original.minimumDepthFromRoot;
+		db.maximumQueryImagesInNode.setTo(original.maximumQueryImagesInNode);
+
+		File fileIds = new File(dir, IMAGE_ID_NAME);
+		if (fileIds.exists())
+			recognizer.getImageIds().addAll(UtilIO.loadListStringYaml(fileIds));
+		recognizer.setDatabase(db);
+	}
+
+	/**
+	 * Saves {@link RecognitionVocabularyTreeNister2006} in a format which can be memory mapped by
+	 * {@link #loadMappedBin(File)}. After the ASCII header each section is an array of fixed size big endian
+	 * primitives, allowing it to be accessed directly without decoding it first. Removed images are skipped
+	 * and the database isn't modified, the same as {@link #saveBin}.
+	 *
+	 * @param db (Input) Structure to be encoded
+	 * @param file File it's written to
+	 */
+	public static <TD extends TupleDesc<TD>>
+	void saveMappedBin( RecognitionVocabularyTreeNister2006<TD> db, File file ) {
+		HierarchicalVocabularyTree<TD> tree = db.getTree();
+		Objects.requireNonNull(tree, "Tree must be specified before it can be saved");
+		BoofMiscOps.checkEq(db.invertedFiles.size(), tree.nodes.size);
+
+		// Removed images are skipped and the remaining images renumbered as they are written
+		var oldToNew = new DogArray_I32();
+		int imagesSize = db.computeCompactedIndexes(oldToNew);
+
+		long totalChildren = 0;
+		long totalInverted = 0;
+		for (int nodeIdx = 0; nodeIdx < tree.nodes.size; nodeIdx++) {
+			totalChildren += tree.nodes.get(nodeIdx).childrenIndexes.size;
+			totalInverted += countRemaining(db.invertedFiles.get(nodeIdx), oldToNew);
+		}
+
+		String header = "BOOFCV_RECOGNITION_NISTER_2006_MAPPED\n";
+		header += "# Sections are in the order listed and all values are big endian\n";
+		header += "# Nodes: parent=int,branch=int,descIdx=int,userIdx=int,weight=double,children.start=int,children.size=int\n";
+		header += "# Children: array[int]\n";
+		header += "# Descriptions: raw array used internally\n";
+		header += "# Image DB: array[int]\n";
+		header += "# Inverted Offsets: array[long] with nodes.size+1 elements\n";
+		header += "# Inverted Images: array[int]\n";
+		header += "# Inverted Weights: array[float]\n";
+		header += "format_version 1\n";
+		header += "boofcv_version " + BoofVersion.VERSION + "\n";
+		header += "git_sha " + BoofVersion.GIT_SHA + "\n";
+		header += "branch_factor " + tree.branchFactor + "\n";
+		header += "maximum_level " + tree.maximumLevel + "\n";
+		header += "nodes.size " + tree.nodes.size + "\n";
+		header += "children.size " + totalChildren + "\n";
+		header += "descriptions.size " + tree.descriptions.size() + "\n";
+		header += "point_type " + tree.descriptions.getElementType().getSimpleName() + "\n";
+		header += "point_dof " + tree.descriptions.getTemp(0).size() + "\n";
+		header += "distance.name " + tree.distanceFunction.getClass().getName() + "\n";
+		header += "images_db.size " + imagesSize + "\n";
+		header += "inverted.size " + totalInverted + "\n";
+		header += "BEGIN_DATA\n";
+
+		try (var dout = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1024*1024))) {
+			dout.write(header.getBytes(StandardCharsets.UTF_8));
+
+			int childrenStart = 0;
+			for (int nodeIdx = 0; nodeIdx < tree.nodes.size; nodeIdx++) {
+				HierarchicalVocabularyTree.Node n = tree.nodes.get(nodeIdx);
+				dout.writeInt(n.parent);
+				dout.writeInt(n.branch);
+				dout.writeInt(n.descIdx);
+				dout.writeInt(n.userIdx);
+				dout.writeDouble(n.weight);
+				dout.writeInt(childrenStart);
+				dout.writeInt(n.childrenIndexes.size);
+				childrenStart += n.childrenIndexes.size;
+			}
+			for (int nodeIdx = 0; nodeIdx < tree.nodes.size; nodeIdx++) {
+				HierarchicalVocabularyTree.Node n = tree.nodes.get(nodeIdx);
+				for (int i = 0; i < n.childrenIndexes.size; i++) {
+					dout.writeInt(n.childrenIndexes.get(i));
+				}
+			}
+
+			for (int descIdx = 0; descIdx < tree.descriptions.size(); descIdx++) {
+				writeBin(tree.descriptions.getTemp(descIdx), dout);
+			}
+
+			BigDogArray_I32 imageDB = db.getImagesDB();
+			for (int dbIdx = 0; dbIdx < imageDB.size; dbIdx++) {
+				if (oldToNew.data[dbIdx] >= 0)
+					dout.writeInt(imageDB.get(dbIdx));
+			}
+
+			long offset = 0;
+			dout.writeLong(offset);
+			for (int nodeIdx = 0; nodeIdx < tree.nodes.size; nodeIdx++) {
+				offset += countRemaining(db.invertedFiles.get(nodeIdx), oldToNew);
+				dout.writeLong(offset);
+			}
+			for (int nodeIdx = 0; nodeIdx < tree.nodes.size; nodeIdx++) {
+				InvertedFile inverted = db.invertedFiles.get(nodeIdx);
+				for (int i = 0; i < inverted.size; i++) {
+					int imageIdx = oldToNew.data[inverted.get(i)];
+					if (imageIdx >= 0)
+						dout.writeInt(imageIdx);
+				}
+			}
+			for (int nodeIdx = 0; nodeIdx < tree.nodes.size; nodeIdx++) {
+				InvertedFile inverted = db.invertedFiles.get(nodeIdx);
+				BoofMiscOps.checkEq(inverted.size, inverted.weights.size);
+				for (int i = 0; i < inverted.size; i++) {
+					if (oldToNew.data[inverted.get(i)] >= 0)
+						dout.writeFloat(inverted.weights.get(i));
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Number of images in the inverted file which have not been removed
+	 */
+	private static int countRemaining( InvertedFile inverted, DogArray_I32 oldToNew ) {
+		int count = 0;
+		for (int i = 0; i < inverted.size; i++) {
+			if (oldToNew.data[inverted.get(i)] >= 0)
+				count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Memory maps a file created by {@link #saveMappedBin}. The tree's nodes and the image IDs are read onto the
+	 * heap while descriptions and inverted files remain in the file.
+	 *
+	 * @param file File containing the mapped database
+	 * @return Read only database
+	 */
+	public static <TD extends TupleDesc<TD>>
+	MappedRecognitionVocabularyTreeNister2006<TD> loadMappedBin( File file ) {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			// Read the header from the start of the file
+			ByteBuffer headerBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), 64*1024));
+			String line = readLine(headerBuffer);
+			if (!line.equals("BOOFCV_RECOGNITION_NISTER_2006_MAPPED"))
+				throw new IOException("Unexpected first line. line.length=" + line.length());
+
+			String pointType = "";
+			String distanceClass = "";
+			int dof = 0;
+			int branchFactor = 0;
+			int maximumLevel = 0;
+			int nodesSize = 0;
+			long childrenSize = 0;
+			int descriptionsSize = 0;
+			int imagesSize = 0;
+			long invertedSize = 0;
+
+			while (true) {
+				if (!headerBuffer.hasRemaining())
+					throw new IOException("Header is too long or BEGIN_DATA is missing");
+				line = readLine(headerBuffer);
+				if (line.equals("BEGIN_DATA"))
+					break;
+				if (line.startsWith("#"))
+					continue;
+				String[] words = line.split("\\s");
+				switch (words[0]) {
+					case "branch_factor" -> branchFactor = Integer.parseInt(words[1]);
+					case "maximum_level" -> maximumLevel = Integer.parseInt(words[1]);
+					case "nodes.size" -> nodesSize = Integer.parseInt(words[1]);
+					case "children.size" -> childrenSize = Long.parseLong(words[1]);
+					case "descriptions.size" -> descriptionsSize = Integer.parseInt(words[1]);
+					case "point_type" -> pointType = words[1];
+					case "point_dof" -> dof = Integer.parseInt(words[1]);
+					case "distance.name" -> distanceClass = words[1];
+					case "images_db.size" -> imagesSize = Integer.parseInt(words[1]);
+					case "inverted.size" -> invertedSize = Long.parseLong(words[1]);
+					default -> {}
+				}
+			}
+
+			Class<TD> tupleType = switch (pointType) {
+				case "TupleDesc_F64" -> (Class)TupleDesc_F64.class;
+				case "TupleDesc_F32" -> (Class)TupleDesc_F32.class;
+				case "TupleDesc_U8" -> (Class)TupleDesc_U8.class;
+				case "TupleDesc_B" -> (Class)TupleDesc_B.class;
+				default -> throw new IOException("Unknown point type. " + pointType);
+			};
+
+			var descriptions = new PackedTupleMappedArray<>(dof, tupleType);
+			var tree = new HierarchicalVocabularyTree<>(FactoryTupleCluster.createDistance(tupleType), descriptions);
+			if (!tree.distanceFunction.getClass().getName().equals(distanceClass))
+				throw new IOException("Distance functions do not match: Expected=" + distanceClass);
+			tree.branchFactor = branchFactor;
+			tree.maximumLevel = maximumLevel;
+
+			// Location of each section in the file
+			long offsetNodes = headerBuffer.position();
+			long offsetChildren = offsetNodes + 32L*nodesSize;
+			long offsetDescriptions = offsetChildren + 4L*childrenSize;
+			long offsetImages = offsetDescriptions + (long)descriptions.bytesPerTuple*descriptionsSize;
+			long offsetInvertedOffsets = offsetImages + 4L*imagesSize;
+			long offsetInvertedImages = offsetInvertedOffsets + 8L*(nodesSize + 1);
+			long offsetInvertedWeights = offsetInvertedImages + 4L*invertedSize;
+			if (offsetInvertedWeights + 4L*invertedSize != channel.size())
+				throw new IOException("File size doesn't match the header. Truncated?");
+
+			// The graph is small relative to everything else and is traversed constantly, so put it on the heap
+			var nodes = new MappedFileRegion(channel, offsetNodes, offsetDescriptions - offsetNodes);
+			long childrenBytes = 32L*nodesSize;
+			tree.nodes.resize(nodesSize);
+			for (int nodeIdx = 0; nodeIdx < nodesSize; nodeIdx++) {
+				HierarchicalVocabularyTree.Node n = tree.nodes.get(nodeIdx);
+				long location = 32L*nodeIdx;
+				n.index = nodeIdx;
+				n.parent = nodes.getInt(location);
+				n.branch = nodes.getInt(location + 4);
+				n.descIdx = nodes.getInt(location + 8);
+				n.userIdx = nodes.getInt(location + 12);
+				n.weight = nodes.getDouble(location + 16);
+				long childrenStart = nodes.getInt(location + 24);
+				n.childrenIndexes.resize(nodes.getInt(location + 28));
+				for (int i = 0; i < n.childrenIndexes.size; i++) {
+					n.childrenIndexes.data[i] = nodes.getInt(childrenBytes + 4L*(childrenStart + i));
+				}
+			}
+
+			descriptions.setMapped(new MappedFileRegion(channel, offsetDescriptions,
+					offsetImages - offsetDescriptions), descriptionsSize);
+
+			final int pointDof = dof;
+			var db = new MappedRecognitionVocabularyTreeNister2006<TD>(
+					() -> FactoryTupleDesc.createTuple(pointDof, tupleType));
+			var images = new MappedFileRegion(channel, offsetImages, 4L*imagesSize);
+			BigDogArray_I32 imagesDB = db.getImagesDB();
+			imagesDB.resize(imagesSize);
+			for (int i = 0; i < imagesSize; i++) {
+				imagesDB.set(i, images.getInt(4L*i));
+			}
+
+			db.setMapped(tree,
+					new MappedFileRegion(channel, offsetInvertedOffsets, 8L*(nodesSize + 1)),
+					new MappedFileRegion(channel, offsetInvertedImages, 4L*invertedSize),
+					new MappedFileRegion(channel, offsetInvertedWeights, 4L*invertedSize));
+			return db;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Reads a line of ASCII text from the buffer. The new line character is consumed but not returned
+	 */
+	private static String readLine( ByteBuffer buffer ) {
+		var builder = new StringBuilder();
+		while (buffer.hasRemaining()) {
+			char c = (char)buffer.get();
+			if (c == '\n')
+				break;
+			builder.append(c);
+		}
+		return builder.toString();
+	}
+
 	private static void readCheckUTF( DataInputStream input, String expected ) throws IOException {
 		String line = input.readUTF();
 		if (!line.equals(expected))
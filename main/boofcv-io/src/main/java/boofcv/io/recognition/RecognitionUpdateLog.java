@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.recognition;
+
+import boofcv.alg.scene.nister2006.RecognitionVocabularyTreeNister2006;
+import boofcv.alg.scene.nister2006.RecognitionVocabularyTreeNister2006.DatabaseListener;
+import org.ddogleg.struct.DogArray_F32;
+import org.ddogleg.struct.DogArray_I32;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+
+/**
+ * Append only log of every change made to the images in a {@link RecognitionVocabularyTreeNister2006}. Once
+ * attached to a database as its {@link RecognitionVocabularyTreeNister2006#databaseListener listener}, each
+ * image which is added or removed is written to the end of the log and flushed. After a restart, the database
+ * is restored by loading the last full save and then calling {@link #replay}. This way updates are saved without
+ * rewriting the entire database each time. After the database has been fully saved again the log can be deleted.
+ *
+ * If the application crashed while writing a record then the partial record at the end of the file is ignored
+ * when replayed and discarded when the log is opened by {@link #open}.
+ *
+ * <pre>
+ * Format:
+ * header: "BOOFCV_RECOGNITION_LOG"=UTF, format_version=int
+ * add:    type=byte(1), imageID=int, words.size=int, array[word=int, weight=float]
+ * remove: type=byte(2), imageID=int
+ * clear:  type=byte(3)
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+public class RecognitionUpdateLog implements DatabaseListener, Closeable {
+	public static final String HEADER = "BOOFCV_RECOGNITION_LOG";
+	public static final int FORMAT_VERSION = 1;
+
+	// Types of records
+	static final int RECORD_ADD = 1;
+	static final int RECORD_REMOVE = 2;
+	static final int RECORD_CLEAR = 3;
+
+	// Where records are written to
+	final DataOutputStream out;
+
+	/**
+	 * Opens the log for writing. If the file already exists then new records are appended to it.
+	 *
+	 * @param file Location of the log
+	 */
+	public RecognitionUpdateLog( File file ) {
+		try {
+			boolean writeHeader = !file.exists() || file.length() == 0;
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+			if (writeHeader) {
+				out.writeUTF(HEADER);
+				out.writeInt(FORMAT_VERSION);
+				out.flush();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Replays an existing log into the database, discards a partially written record at the end of the log,
+	 * then attaches a new log to the database so that future changes are appended to it.
+	 *
+	 * @param file Location of the log. Doesn't need to exist.
+	 * @param db Database which has already been loaded from the last full save
+	 * @return The log. Must be closed when finished.
+	 */
+	public static RecognitionUpdateLog open( File file, RecognitionVocabularyTreeNister2006<?> db ) {
+		if (file.exists()) {
+			long validLength = replay(file, db);
+			try (var raf = new RandomAccessFile(file, "rw")) {
+				if (raf.length() != validLength)
+					raf.setLength(validLength);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		var log = new RecognitionUpdateLog(file);
+		db.databaseListener = log;
+		return log;
+	}
+
+	/**
+	 * Applies every record in the log to the database. Changes made while replaying are not passed on to the
+	 * database's listener. If the last record is incomplete it is ignored.
+	 *
+	 * @param file Location of the log
+	 * @param db The database which is modified
+	 * @return Number of bytes at the start of the file which contain complete records
+	 */
+	public static long replay( File file, RecognitionVocabularyTreeNister2006<?> db ) {
+		@Nullable DatabaseListener listener = db.databaseListener;
+		db.databaseListener = null;
+		try (var in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			return replay(in, db);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			db.databaseListener = listener;
+		}
+	}
+
+	static long replay( DataInputStream in, RecognitionVocabularyTreeNister2006<?> db ) throws IOException {
+		long validLength;
+		try {
+			String header = in.readUTF();
+			if (!header.equals(HEADER))
+				throw new IOException("Not a recognition log. header.length=" + header.length());
+			int version = in.readInt();
+			if (version != FORMAT_VERSION)
+				throw new IOException("Unsupported format_version " + version);
+			// writeUTF encodes the length in two bytes
+			validLength = 2 + HEADER.length() + 4;
+		} catch (EOFException e) {
+			// The header was never fully written so there's nothing to replay
+			return 0;
+		}
+
+		var weights = new DogArray_F32();
+		var words = new DogArray_I32();
+
+		while (true) {
+			int type = in.read();
+			if (type < 0)
+				return validLength;
+
+			try {
+				switch (type) {
+					case RECORD_ADD -> {
+						int imageID = in.readInt();
+						int size = in.readInt();
+						if (size < 0)
+							throw new IOException("Corrupted log. Negative number of words");
+						words.resize(size);
+						weights.resize(size);
+						for (int i = 0; i < size; i++) {
+							words.data[i] = in.readInt();
+							weights.data[i] = in.readFloat();
+						}
+						db.addDescriptor(imageID, weights, words);
+						validLength += 1 + 4 + 4 + 8L*size;
+					}
+					case RECORD_REMOVE -> {
+						db.removeImage(in.readInt());
+						validLength += 1 + 4;
+					}
+					case RECORD_CLEAR -> {
+						db.clearImages();
+						validLength += 1;
+					}
+					default -> throw new IOException("Corrupted log. Unknown record type " + type);
+				}
+			} catch (EOFException e) {
+				// The application stopped while this record was being written
+				return validLength;
+			}
+		}
+	}
+
+	@Override public void imageAdded( int imageID, DogArray_F32 descWeights, DogArray_I32 descWords ) {
+		try {
+			out.writeByte(RECORD_ADD);
+			out.writeInt(imageID);
+			out.writeInt(descWords.size);
+			for (int i = 0; i < descWords.size; i++) {
+				out.writeInt(descWords.data[i]);
+				out.writeFloat(descWeights.data[i]);
+			}
+			out.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override public void imageRemoved( int imageID ) {
+		try {
+			out.writeByte(RECORD_REMOVE);
+			out.writeInt(imageID);
+			out.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override public void imagesCleared() {
+		try {
+			out.writeByte(RECORD_CLEAR);
+			out.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override public void close() {
+		try {
+			out.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,10 +18,12 @@
 
 package boofcv.io.video;
 
+import org.ddogleg.struct.DogArray_I8;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -58,13 +60,30 @@ public class VideoMjpegCodec {
 	 * Read a single frame at a time
 	 */
 	public @Nullable byte[] readFrame( DataInputStream in ) {
+		var storage = new DogArray_I8();
+		if (!readFrame(in, storage))
+			return null;
+		return Arrays.copyOf(storage.data, storage.size);
+	}
+
+	/**
+	 * Reads a single frame into the provided storage. By recycling the storage between frames no memory is
+	 * allocated once it has grown to the size of the largest frame.
+	 *
+	 * @param in (Input) Stream the frame is read from
+	 * @param storage (Output) JPEG encoded frame. Only the first storage.size bytes are valid.
+	 * @return true if a frame was read or false if the end of the stream was reached
+	 */
+	public boolean readFrame( InputStream in, DogArray_I8 storage ) {
+		storage.reset();
 		try {
-			if (findMarker(in, SOI) && in.available() > 0) {
-				return readJpegData(in, EOI);
+			if (findMarker(in, SOI)) {
+				readJpegData(in, EOI, storage);
 			}
 		} catch (IOException ignore) {
 		}
-		return null;
+		// Only the SOI marker was found
+		return storage.size > 2;
 	}
 
 	public static byte[] convertToByteArray( InputStream streamIn ) throws IOException {
@@ -77,11 +96,12 @@ public class VideoMjpegCodec {
 		return temp.toByteArray();
 	}
 
-	private boolean findMarker( DataInputStream in, byte marker ) throws IOException {
+	private boolean findMarker( InputStream in, byte marker ) throws IOException {
 		boolean foundFF = false;
 
-		while (in.available() > 0) {
-			byte b = in.readByte();
+		int value;
+		while ((value = in.read()) != -1) {
+			byte b = (byte)value;
 			if (foundFF) {
 				if (b == marker) {
 					return true;
@@ -91,34 +111,40 @@ public class VideoMjpegCodec {
 				foundFF = true;
 			}
 		}
-		return foundFF;
+		return false;
+	}
+
+	private byte[] readJpegData( InputStream in, byte marker ) throws IOException {
+		var storage = new DogArray_I8(1024);
+		readJpegData(in, marker, storage);
+		return Arrays.copyOf(storage.data, storage.size);
 	}
 
-	private byte[] readJpegData( DataInputStream in, byte marker ) throws IOException {
-		ByteArrayOutputStream bout = new ByteArrayOutputStream(1024);
+	private void readJpegData( InputStream in, byte marker, DogArray_I8 storage ) throws IOException {
+		storage.reset();
 
 		// add the SOI marker back into it
-		bout.write(0xFF);
-		bout.write(SOI);
+		storage.add((byte)0xFF);
+		storage.add(SOI);
 
 		boolean foundFF = false;
 
-		while (in.available() > 0) {
-			byte d = in.readByte();
+		int value;
+		while ((value = in.read()) != -1) {
+			byte d = (byte)value;
 			if (foundFF) {
 				if (d == marker)
 					break;
 				else {
-					bout.write(0xFF);
-					bout.write(d);
+					storage.add((byte)0xFF);
+					storage.add(d);
 					foundFF = false;
 				}
 			} else if (d == (byte)0xFF) {
 				foundFF = true;
 			} else {
-				bout.write(d);
+				storage.add(d);
 			}
 		}
-		return bout.toByteArray();
 	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -23,16 +23,23 @@ import boofcv.io.image.SimpleImageSequence;
 import boofcv.io.video.VideoMjpegCodec;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
+import org.ddogleg.struct.DogArray_I8;
 import org.jetbrains.annotations.Nullable;
 
+import javax.imageio.IIOException;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.MemoryCacheImageInputStream;
 import java.awt.image.BufferedImage;
 import java.io.*;
+import java.util.Iterator;
 import java.util.Objects;
 
 /**
  * Instead of loading and decompressing the whole MJPEG at once, it loads the images
- * one at a time until it reaches the end of the file.
+ * one at a time until it reaches the end of the file. The buffer which compressed frames are read into, the
+ * JPEG decoder, and the decoded BufferedImage are all recycled between frames.
  *
  * @author Peter Abeles
  */
@@ -42,6 +49,11 @@ public class MjpegStreamSequence<T extends ImageBase<T>> implements SimpleImageS
 	DataInputStream in;
 	@Nullable BufferedImage original;
 	@Nullable BufferedImage next;
+
+	// Storage for the compressed frame
+	DogArray_I8 jpeg = new DogArray_I8();
+	// Decodes the JPEG. null if ImageIO doesn't have a JPEG reader
+	@Nullable ImageReader reader;
 	T image;
 	int frameNumber;
 	ImageType<T> imageType;
@@ -50,23 +62,53 @@ public class MjpegStreamSequence<T extends ImageBase<T>> implements SimpleImageS
 		this.in = new DataInputStream(in);
 		this.imageType = imageType;
 		image = imageType.createImage(1, 1);
-		readNext();
+		Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName("jpeg");
+		reader = readers.hasNext() ? readers.next() : null;
+		readNext(null);
 	}
 
 	public MjpegStreamSequence( String fileName, ImageType<T> imageType ) throws FileNotFoundException {
 		this(new DataInputStream(new BufferedInputStream(new FileInputStream(fileName), 1024*200)), imageType);
 	}
 
-	private void readNext() {
-		byte[] data = codec.readFrame(in);
-		if (data == null) {
+	/**
+	 * Reads and decodes the next frame
+	 *
+	 * @param recycle A BufferedImage which is no longer used that the image can be decoded into. Can be null.
+	 */
+	private void readNext( @Nullable BufferedImage recycle ) {
+		if (!codec.readFrame(in, jpeg)) {
 			next = null;
-		} else {
+			return;
+		}
+		try {
+			next = decode(recycle);
+			frameNumber++;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private BufferedImage decode( @Nullable BufferedImage recycle ) throws IOException {
+		var bytes = new ByteArrayInputStream(jpeg.data, 0, jpeg.size);
+		ImageReader reader = this.reader;
+		if (reader == null)
+			return Objects.requireNonNull(ImageIO.read(bytes));
+
+		try (var stream = new MemoryCacheImageInputStream(bytes)) {
+			reader.setInput(stream, true, true);
+			ImageReadParam param = reader.getDefaultReadParam();
+			if (recycle != null && recycle.getWidth() == reader.getWidth(0) && recycle.getHeight() == reader.getHeight(0))
+				param.setDestination(recycle);
 			try {
-				next = ImageIO.read(new ByteArrayInputStream(data));
-				frameNumber++;
-			} catch (IOException e) {
-				throw new UncheckedIOException(e);
+				return reader.read(0, param);
+			} catch (IIOException e) {
+				// The recycled image wasn't compatible with this frame. Try again with a new image
+				if (param.getDestination() == null)
+					throw e;
+				stream.seek(0);
+				reader.setInput(stream, true, true);
+				return reader.read(0);
 			}
 		}
 	}
@@ -88,10 +130,11 @@ public class MjpegStreamSequence<T extends ImageBase<T>> implements SimpleImageS
 
 	@Override
 	public T next() {
+		BufferedImage recycle = original;
 		original = Objects.requireNonNull(next);
 		image.reshape(original.getWidth(), original.getHeight());
 		ConvertBufferedImage.convertFrom(original, image, true);
-		readNext();
+		readNext(recycle);
 		return getImage();
 	}
 
@@ -113,6 +156,9 @@ public class MjpegStreamSequence<T extends ImageBase<T>> implements SimpleImageS
 		} catch (IOException ignore) {
 		}
 		in = null;
+		if (reader != null)
+			reader.dispose();
+		reader = null;
 	}
 
 	@Override
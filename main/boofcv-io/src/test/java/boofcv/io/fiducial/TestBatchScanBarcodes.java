@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.fiducial;
+
+import boofcv.alg.fiducial.qrcode.QrCode;
+import boofcv.alg.fiducial.qrcode.QrCodeEncoder;
+import boofcv.alg.fiducial.qrcode.QrCodeGeneratorImage;
+import boofcv.io.image.UtilImageIO;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestBatchScanBarcodes extends BoofStandardJUnit {
+	/**
+	 * Scan several images using multiple threads and a small queue. One of the files isn't an image.
+	 */
+	@Test void qrcode_multipleImages() throws IOException {
+		int numImages = 7;
+		int badIndex = 3;
+
+		List<File> files = new ArrayList<>();
+		try {
+			for (int i = 0; i < numImages; i++) {
+				File file = File.createTempFile("batch", ".png");
+				files.add(file);
+				if (i == badIndex) {
+					Files.write(file.toPath(), new byte[]{1, 2, 3, 4});
+					continue;
+				}
+				QrCode qr = new QrCodeEncoder().addAutomatic("message" + i).fixate();
+				var generator = new QrCodeGeneratorImage(4);
+				generator.render(qr);
+				UtilImageIO.saveImage(generator.getGray(), file.getPath());
+			}
+
+			List<String> paths = new ArrayList<>();
+			files.forEach(f -> paths.add(f.getPath()));
+
+			BatchScanBarcodes<?, QrCode> alg = BatchScanBarcodes.qrcode(null);
+			alg.setNumWorkers(3);
+			alg.setNumReaders(2);
+			alg.setMaxQueued(1);
+
+			// Process it twice to make sure it can be called multiple times
+			for (int trial = 0; trial < 2; trial++) {
+				var found = new String[numImages];
+				var count = new int[numImages];
+				alg.process(paths, ( index, path, detections ) -> {
+					assertEquals(paths.get(index), path);
+					count[index]++;
+					if (detections == null) {
+						found[index] = null;
+						return;
+					}
+					assertEquals(1, detections.size());
+					found[index] = detections.get(0).message;
+				});
+
+				for (int i = 0; i < numImages; i++) {
+					assertEquals(1, count[i]);
+					if (i == badIndex)
+						assertNull(found[i]);
+					else
+						assertEquals("message" + i, found[i]);
+				}
+			}
+		} finally {
+			files.forEach(File::delete);
+		}
+	}
+
+	/**
+	 * An exception in the sink should be passed to the caller and not cause it to hang
+	 */
+	@Test void exceptionInSink() throws IOException {
+		File file = File.createTempFile("batch", ".png");
+		try {
+			var generator = new QrCodeGeneratorImage(4);
+			generator.render(new QrCodeEncoder().addAutomatic("foo").fixate());
+			UtilImageIO.saveImage(generator.getGray(), file.getPath());
+
+			List<String> paths = new ArrayList<>();
+			for (int i = 0; i < 10; i++) {
+				paths.add(file.getPath());
+			}
+
+			BatchScanBarcodes<?, QrCode> alg = BatchScanBarcodes.qrcode(null);
+			alg.setNumWorkers(2);
+			alg.setMaxQueued(1);
+			assertThrows(RuntimeException.class, () -> alg.process(paths, ( index, path, detections ) -> {
+				throw new IllegalArgumentException("Failed");
+			}));
+		} finally {
+			assertTrue(file.delete());
+		}
+	}
+
+	/**
+	 * An Error, not just an exception, should be passed to the caller and not cause it to hang
+	 */
+	@Test void errorInSink() throws IOException {
+		File file = File.createTempFile("batch", ".png");
+		try {
+			var generator = new QrCodeGeneratorImage(4);
+			generator.render(new QrCodeEncoder().addAutomatic("foo").fixate());
+			UtilImageIO.saveImage(generator.getGray(), file.getPath());
+
+			List<String> paths = new ArrayList<>();
+			for (int i = 0; i < 10; i++) {
+				paths.add(file.getPath());
+			}
+
+			BatchScanBarcodes<?, QrCode> alg = BatchScanBarcodes.qrcode(null);
+			alg.setNumWorkers(2);
+			alg.setMaxQueued(1);
+			assertThrows(StackOverflowError.class, () -> alg.process(paths, ( index, path, detections ) -> {
+				throw new StackOverflowError();
+			}));
+		} finally {
+			assertTrue(file.delete());
+		}
+	}
+}
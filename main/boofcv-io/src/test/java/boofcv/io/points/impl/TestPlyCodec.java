@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -22,24 +22,25 @@ import boofcv.alg.cloud.PointCloudReader;
 import boofcv.alg.cloud.PointCloudWriter;
 import boofcv.struct.Point3dRgbI_F64;
 import boofcv.struct.mesh.VertexMesh;
+import boofcv.struct.packed.PackedBigArrayPoint3D_F64;
 import boofcv.testing.BoofStandardJUnit;
 import georegression.struct.point.Point3D_F64;
+import org.ddogleg.struct.BigDogGrowth;
 import org.ddogleg.struct.DogArray;
 import org.ddogleg.struct.DogArray_I32;
 import org.ejml.UtilEjml;
 import org.junit.jupiter.api.Test;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.StringWriter;
+import java.io.*;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 class TestPlyCodec extends BoofStandardJUnit {
 	@Test void encode_decode_3D_ascii() throws IOException {
@@ -180,4 +181,86 @@ class TestPlyCodec extends BoofStandardJUnit {
 			}
 		}
 	}
+
+	/**
+	 * Write directly from a packed array then read it back in using memory mapping. The array's blocks and the
+	 * mapped chunks are small to make sure the boundaries are handled correctly.
+	 */
+	@Test void encode_decode_mapped_packed() throws IOException {
+		var cloud = new PackedBigArrayPoint3D_F64(0, 7, BigDogGrowth.GROW_FIRST);
+		var colors = new DogArray_I32();
+		for (int i = 0; i < 50; i++) {
+			cloud.append(i*123.45, i - 1.01, i + 2.34);
+			colors.add(((10*i) & 0xFF) << 16 | ((28*i) & 0xFF) << 8 | ((58*i) & 0xFF));
+		}
+
+		File temp = File.createTempFile("mapped", ".ply");
+		try {
+			for (var endian : new ByteOrder[]{ByteOrder.LITTLE_ENDIAN, ByteOrder.BIG_ENDIAN}) {
+				for (boolean asFloat : new boolean[]{true, false}) {
+					for (boolean color : new boolean[]{true, false}) {
+						try (var channel = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE,
+								StandardOpenOption.TRUNCATE_EXISTING)) {
+							PlyCodec.saveCloudBinary(cloud, color ? colors : null, endian, asFloat, channel);
+						}
+
+						DogArray<Point3dRgbI_F64> found = new DogArray<>(Point3dRgbI_F64::new);
+						try (var channel = FileChannel.open(temp.toPath(), StandardOpenOption.READ)) {
+							assertEquals(cloud.size(), PlyCodec.readVertexCount(channel));
+							PlyCodec.readCloudMapped(channel, 0, -1, 100, PointCloudWriter.wrapF64RGB(found));
+						}
+
+						assertEquals(cloud.size(), found.size);
+						double tol = asFloat ? UtilEjml.TEST_F32 : UtilEjml.TEST_F64;
+						for (int i = 0; i < found.size; i++) {
+							assertEquals(0.0, found.get(i).distance(cloud.getTemp(i)), tol*i*123.45 + tol);
+							if (color)
+								assertEquals(colors.get(i), found.get(i).rgb);
+						}
+					}
+				}
+			}
+		} finally {
+			assertTrue(temp.delete());
+		}
+	}
+
+	/**
+	 * Only a subset of the points are read. File is written using the stream based writer.
+	 */
+	@Test void readCloudMapped_range() throws IOException {
+		List<Point3D_F64> expected = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			expected.add(new Point3D_F64(i*2.5, i - 1.01, i + 2.34));
+		}
+
+		var output = new ByteArrayOutputStream();
+		PlyCodec.saveCloudBinary(PointCloudReader.wrapF64(expected), ByteOrder.LITTLE_ENDIAN, false, false, output);
+
+		File temp = File.createTempFile("mapped", ".ply");
+		try {
+			Files.write(temp.toPath(), output.toByteArray());
+
+			DogArray<Point3D_F64> found = new DogArray<>(Point3D_F64::new);
+			try (var channel = FileChannel.open(temp.toPath(), StandardOpenOption.READ)) {
+				PlyCodec.readCloudMapped(channel, 5, 17, 50, PointCloudWriter.wrapF64(found));
+
+				assertEquals(12, found.size);
+				for (int i = 0; i < found.size; i++) {
+					assertEquals(0.0, found.get(i).distance(expected.get(i + 5)), UtilEjml.TEST_F64);
+				}
+
+				// An empty range is allowed
+				found.reset();
+				PlyCodec.readCloudMapped(channel, 30, 30, PointCloudWriter.wrapF64(found));
+				assertEquals(0, found.size);
+
+				// Past the end of the file
+				assertThrows(IllegalArgumentException.class,
+						() -> PlyCodec.readCloudMapped(channel, 5, 31, PointCloudWriter.wrapF64(found)));
+			}
+		} finally {
+			assertTrue(temp.delete());
+		}
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -44,12 +44,15 @@ import org.junit.jupiter.api.Test;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestRecognitionIO extends BoofStandardJUnit {
 	/**
@@ -248,6 +251,80 @@ public class TestRecognitionIO extends BoofStandardJUnit {
 		}
 	}
 
+	/**
+	 * Removed images should not be saved and saving should not modify the database
+	 */
+	@Test void recognitionVocabularyTreeNister2006_removed() {
+		RecognitionVocabularyTreeNister2006<TupleDesc_F64> db = createDefaultNister2006();
+		db.autoCompactFraction = 1.0;
+		db.rebuildImageLookup();
+		assertTrue(db.removeImage(db.getImagesDB().get(3)));
+
+		var stream = new ByteArrayOutputStream();
+		RecognitionIO.saveBin(db, stream);
+		assertEquals(20, db.getImagesDB().size);
+		assertEquals(1, db.getTotalRemoved());
+
+		var found = new RecognitionVocabularyTreeNister2006<TupleDesc_F64>();
+		RecognitionIO.loadBin(new ByteArrayInputStream(stream.toByteArray()), found);
+
+		// What was saved should be the same as the compacted database
+		db.compact();
+		assertEquals(19, found.getImagesDB().size);
+		for (int i = 0; i < db.getImagesDB().size; i++) {
+			assertEquals(db.getImagesDB().get(i), found.getImagesDB().get(i));
+		}
+		for (int nodeIdx = 0; nodeIdx < db.invertedFiles.size(); nodeIdx++) {
+			InvertedFile e = db.invertedFiles.get(nodeIdx);
+			InvertedFile f = found.invertedFiles.get(nodeIdx);
+			assertEquals(e.size, f.size);
+			for (int i = 0; i < e.size; i++) {
+				assertEquals(e.get(i), f.get(i));
+				assertEquals(e.weights.get(i), f.weights.get(i));
+			}
+		}
+
+		// The look up table should have been rebuilt when loading
+		assertTrue(found.removeImage(found.getImagesDB().get(5)));
+	}
+
+	@Test void mappedBin_file() throws IOException {
+		RecognitionVocabularyTreeNister2006<TupleDesc_F64> db = createDefaultNister2006();
+		// Give one of the nodes more than one image so that the offsets are more interesting
+		db.invertedFiles.get(2).addImage(5, 0.25f);
+		db.invertedFiles.get(2).addImage(9, 0.75f);
+
+		File temp = File.createTempFile("mapped", ".bin");
+		temp.deleteOnExit();
+		RecognitionIO.saveMappedBin(db, temp);
+
+		MappedRecognitionVocabularyTreeNister2006<TupleDesc_F64> found = RecognitionIO.loadMappedBin(temp);
+
+		compareTrees(db.tree, found.tree);
+
+		assertEquals(db.getImagesDB().size, found.getImagesDB().size);
+		for (int i = 0; i < db.getImagesDB().size; i++) {
+			assertEquals(db.getImagesDB().get(i), found.getImagesDB().get(i));
+		}
+
+		// Inverted files are only accessible through the mapped regions
+		for (int nodeIdx = 0; nodeIdx < db.invertedFiles.size(); nodeIdx++) {
+			InvertedFile e = db.invertedFiles.get(nodeIdx);
+			assertEquals(e.size, found.invertedFileSize(nodeIdx));
+
+			long idx0 = found.invertedOffsets.getLong(nodeIdx*8L);
+			for (int i = 0; i < e.size; i++) {
+				assertEquals(e.get(i), found.invertedImages.getInt((idx0 + i)*4));
+				assertEquals(e.weights.get(i), found.invertedWeights.getFloat((idx0 + i)*4));
+			}
+		}
+
+		// It's read only
+		assertThrows(UnsupportedOperationException.class, () -> found.addImage(1, new ArrayList<>()));
+		assertThrows(UnsupportedOperationException.class, found::clearImages);
+		assertThrows(UnsupportedOperationException.class, () -> found.removeImage(1));
+	}
+
 	@Test void nearestNeighborBin_stream() {
 		var expected = new RecognitionNearestNeighborInvertedFile<>();
 		expected.getImagesDB().resize(45);
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.recognition;
+
+import boofcv.alg.scene.bow.InvertedFile;
+import boofcv.alg.scene.nister2006.RecognitionVocabularyTreeNister2006;
+import boofcv.alg.scene.vocabtree.HierarchicalVocabularyTree;
+import boofcv.struct.feature.PackedTupleBigArray_F64;
+import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.kmeans.TuplePointDistanceEuclideanSq;
+import boofcv.testing.BoofStandardJUnit;
+import org.ddogleg.struct.DogArray_F32;
+import org.ddogleg.struct.DogArray_I32;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestRecognitionUpdateLog extends BoofStandardJUnit {
+	static final int NUM_NODES = 6;
+
+	/**
+	 * Make changes to a database, then see if replaying the log creates the same database
+	 */
+	@Test void replay() throws IOException {
+		File file = File.createTempFile("recognition", ".log");
+		file.deleteOnExit();
+
+		RecognitionVocabularyTreeNister2006<TupleDesc_F64> expected = createDatabase();
+		try (RecognitionUpdateLog ignore = RecognitionUpdateLog.open(file, expected)) {
+			applyChanges(expected);
+		}
+
+		RecognitionVocabularyTreeNister2006<TupleDesc_F64> found = createDatabase();
+		assertEquals(file.length(), RecognitionUpdateLog.replay(file, found));
+		compare(expected, found);
+
+		// The listener should not have been modified
+		assertNull(found.databaseListener);
+	}
+
+	/**
+	 * Re-opening a log should restore the database and append new changes
+	 */
+	@Test void open_append() throws IOException {
+		File file = File.createTempFile("recognition", ".log");
+		file.deleteOnExit();
+
+		RecognitionVocabularyTreeNister2006<TupleDesc_F64> expected = createDatabase();
+		try (RecognitionUpdateLog ignore = RecognitionUpdateLog.open(file, expected)) {
+			addRandomImage(expected, 1);
+			addRandomImage(expected, 2);
+		}
+
+		RecognitionVocabularyTreeNister2006<TupleDesc_F64> found = createDatabase();
+		try (RecognitionUpdateLog ignore = RecognitionUpdateLog.open(file, found)) {
+			compare(expected, found);
+			assertNotNull(found.databaseListener);
+			addRandomImage(found, 3);
+			found.removeImage(1);
+		}
+
+		RecognitionVocabularyTreeNister2006<TupleDesc_F64> restored = createDatabase();
+		RecognitionUpdateLog.replay(file, restored);
+		compare(found, restored);
+	}
+
+	/**
+	 * If the last record was only partially written then it should be ignored and removed when opened
+	 */
+	@Test void truncatedRecord() throws IOException {
+		File file = File.createTempFile("recognition", ".log");
+		file.deleteOnExit();
+
+		RecognitionVocabularyTreeNister2006<TupleDesc_F64> expected = createDatabase();
+		long validLength;
+		try (RecognitionUpdateLog ignore = RecognitionUpdateLog.open(file, expected)) {
+			addRandomImage(expected, 1);
+			expected.removeImage(1);
+			addRandomImage(expected, 2);
+			validLength = file.length();
+
+			// This record will be cut short
+			var other = createDatabase();
+			other.databaseListener = expected.databaseListener;
+			addRandomImage(other, 3);
+		}
+		try (var raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(file.length() - 3);
+		}
+
+		RecognitionVocabularyTreeNister2006<TupleDesc_F64> found = createDatabase();
+		assertEquals(validLength, RecognitionUpdateLog.replay(file, found));
+		compare(expected, found);
+
+		// Opening it should discard the partial record and new records should be readable
+		found = createDatabase();
+		try (RecognitionUpdateLog ignore = RecognitionUpdateLog.open(file, found)) {
+			assertEquals(validLength, file.length());
+			addRandomImage(found, 4);
+		}
+		RecognitionVocabularyTreeNister2006<TupleDesc_F64> restored = createDatabase();
+		RecognitionUpdateLog.replay(file, restored);
+		compare(found, restored);
+	}
+
+	private void applyChanges( RecognitionVocabularyTreeNister2006<TupleDesc_F64> db ) {
+		for (int i = 0; i < 5; i++) {
+			addRandomImage(db, i);
+		}
+		db.removeImage(2);
+		db.clearImages();
+		for (int i = 0; i < 8; i++) {
+			addRandomImage(db, 10 + i);
+		}
+		db.removeImage(11);
+		db.removeImage(15);
+	}
+
+	private void addRandomImage( RecognitionVocabularyTreeNister2006<TupleDesc_F64> db, int imageID ) {
+		var weights = new DogArray_F32();
+		var words = new DogArray_I32();
+		for (int word = 0; word < NUM_NODES; word++) {
+			if (rand.nextBoolean())
+				continue;
+			words.add(word);
+			weights.add(rand.nextFloat());
+		}
+		db.addDescriptor(imageID, weights, words);
+	}
+
+	private RecognitionVocabularyTreeNister2006<TupleDesc_F64> createDatabase() {
+		var tree = new HierarchicalVocabularyTree<>(
+				new TuplePointDistanceEuclideanSq.F64(), new PackedTupleBigArray_F64(2));
+		tree.nodes.resize(NUM_NODES);
+		var db = new RecognitionVocabularyTreeNister2006<TupleDesc_F64>();
+		db.initializeTree(tree);
+		// Compacting makes the databases easier to compare
+		db.autoCompactFraction = 0.0;
+		return db;
+	}
+
+	private void compare( RecognitionVocabularyTreeNister2006<TupleDesc_F64> expected,
+						  RecognitionVocabularyTreeNister2006<TupleDesc_F64> found ) {
+		assertEquals(expected.getImagesDB().size, found.getImagesDB().size);
+		for (int i = 0; i < expected.getImagesDB().size; i++) {
+			assertEquals(expected.getImagesDB().get(i), found.getImagesDB().get(i));
+		}
+		assertEquals(expected.invertedFiles.size(), found.invertedFiles.size());
+		for (int nodeIdx = 0; nodeIdx < expected.invertedFiles.size(); nodeIdx++) {
+			InvertedFile e = expected.invertedFiles.get(nodeIdx);
+			InvertedFile f = found.invertedFiles.get(nodeIdx);
+			assertArrayEquals(e.toArray(), f.toArray());
+			assertArrayEquals(e.weights.toArray(), f.weights.toArray());
+		}
+	}
+}
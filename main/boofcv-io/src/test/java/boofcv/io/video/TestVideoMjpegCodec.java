@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.video;
+
+import boofcv.io.image.ConvertBufferedImage;
+import boofcv.io.wrapper.images.MjpegStreamSequence;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import boofcv.testing.BoofStandardJUnit;
+import org.ddogleg.struct.DogArray_I8;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestVideoMjpegCodec extends BoofStandardJUnit {
+	/**
+	 * Reads frames into recycled storage and compares against the original JPEGs
+	 */
+	@Test void readFrame_storage() throws IOException {
+		List<byte[]> frames = createFrames(3);
+		var alg = new VideoMjpegCodec();
+		var in = new DataInputStream(new ByteArrayInputStream(concat(frames)));
+
+		var storage = new DogArray_I8();
+		for (byte[] expected : frames) {
+			assertTrue(alg.readFrame(in, storage));
+			// The EOI marker isn't included
+			assertEquals(expected.length - 2, storage.size);
+			for (int i = 0; i < storage.size; i++) {
+				assertEquals(expected[i], storage.get(i));
+			}
+		}
+		assertFalse(alg.readFrame(in, storage));
+	}
+
+	/**
+	 * The array version should be the same as the storage version
+	 */
+	@Test void readFrame_array() throws IOException {
+		List<byte[]> frames = createFrames(2);
+		var alg = new VideoMjpegCodec();
+		var in = new DataInputStream(new ByteArrayInputStream(concat(frames)));
+
+		for (byte[] expected : frames) {
+			byte[] found = alg.readFrame(in);
+			assertNotNull(found);
+			assertEquals(expected.length - 2, found.length);
+		}
+		assertNull(alg.readFrame(in));
+		assertEquals(0, alg.read(new ByteArrayInputStream(new byte[0])).size());
+		assertEquals(2, alg.read(new ByteArrayInputStream(concat(frames))).size());
+	}
+
+	/**
+	 * Decode a stream with a recycled BufferedImage and see if it's the same as decoding each image on its own
+	 */
+	@Test void streamSequence() throws IOException {
+		List<byte[]> frames = createFrames(4);
+		var sequence = new MjpegStreamSequence<>(new ByteArrayInputStream(concat(frames)), ImageType.SB_U8);
+
+		var expected = new GrayU8(1, 1);
+		for (byte[] frame : frames) {
+			assertTrue(sequence.hasNext());
+			GrayU8 found = sequence.next();
+			ConvertBufferedImage.convertFrom(ImageIO.read(new ByteArrayInputStream(frame)), expected);
+			assertEquals(expected.width, found.width);
+			for (int i = 0; i < expected.data.length; i++) {
+				assertEquals(expected.data[i], found.data[i]);
+			}
+		}
+		assertFalse(sequence.hasNext());
+		sequence.close();
+	}
+
+	private List<byte[]> createFrames( int count ) throws IOException {
+		List<byte[]> frames = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			var image = new BufferedImage(40, 30, BufferedImage.TYPE_BYTE_GRAY);
+			for (int y = 0; y < image.getHeight(); y++) {
+				for (int x = 0; x < image.getWidth(); x++) {
+					int v = rand.nextInt(256);
+					image.setRGB(x, y, (v << 16) | (v << 8) | v);
+				}
+			}
+			var out = new ByteArrayOutputStream();
+			assertTrue(ImageIO.write(image, "jpeg", out));
+			frames.add(out.toByteArray());
+		}
+		return frames;
+	}
+
+	private static byte[] concat( List<byte[]> frames ) {
+		var out = new ByteArrayOutputStream();
+		for (byte[] frame : frames) {
+			out.write(frame, 0, frame.length);
+		}
+		return out.toByteArray();
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,9 +18,13 @@
 
 package boofcv.alg.disparity.sgm;
 
+import boofcv.misc.MetricsPublisher;
+import boofcv.misc.MetricsRecorder;
+import boofcv.misc.MetricsRegistry;
 import boofcv.struct.image.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Base class for SGM stereo implementations. It combines the cost computation, cost aggregation, and disparity
@@ -28,12 +32,17 @@ import lombok.Setter;
  *
  * <p>NOTE: [1] suggests applying a median filter. This is not done by any of this class' children.</p>
  *
+ * <p>The cost and aggregated cost tensors require 4*width*height*disparityRange bytes, which can be prohibitive
+ * for large images. If {@link #maxTensorBytes} is set then the image is processed as a sequence of overlapping
+ * horizontal strips and the tensors are recycled between strips. Paths which are not horizontal get restarted
+ * at strip borders, the overlap is there to reduce the influence this has on the rows which are saved.</p>
+ *
  * <p>[1] Hirschmuller, Heiko. "Stereo processing by semiglobal matching and mutual information."
  * IEEE Transactions on pattern analysis and machine intelligence 30.2 (2007): 328-341.</p>
  *
  * @author Peter Abeles
  */
-public abstract class SgmStereoDisparity<T extends ImageBase<T>, C extends ImageBase<C>> {
+public abstract class SgmStereoDisparity<T extends ImageBase<T>, C extends ImageBase<C>> implements MetricsPublisher {
 	// Defines the disparity search range
 	@Getter @Setter protected int disparityMin = 0;     // minimum disparity considered
 	@Getter @Setter protected int disparityRange = 0;   // number of disparity values considered
@@ -53,6 +62,25 @@ public abstract class SgmStereoDisparity<T extends ImageBase<T>, C extends Image
 	// score for selected disparity
 	@Getter protected GrayF32 score = new GrayF32(1, 1);
 
+	/**
+	 * Upper limit on the number of bytes the cost and aggregated cost tensors can use. If the entire image would
+	 * exceed this limit then it's processed in strips. If &le; 0 then there is no limit.
+	 */
+	@Getter @Setter protected long maxTensorBytes = 0;
+
+	/** Number of rows above and below a strip which are processed to provide context for the paths */
+	@Getter @Setter protected int stripOverlap = 24;
+
+	/** True if the most recent image was processed in strips */
+	@Getter protected boolean striped = false;
+
+	// Disparity for a single strip. Rows are in tensor coordinates
+	protected GrayU8 stripDisparity = new GrayU8(1, 1);
+	// Sub-pixel disparity is computed as each strip is processed since the aggregated cost isn't saved
+	protected GrayF32 stripSubpixel = new GrayF32(1, 1);
+
+	protected final MetricsRecorder metrics = new MetricsRecorder("sgm");
+
 	protected SgmStereoDisparity( SgmDisparityCost<C> sgmCost, SgmDisparitySelector selector ) {
 		this.sgmCost = sgmCost;
 		this.selector = selector;
@@ -66,19 +94,145 @@ public abstract class SgmStereoDisparity<T extends ImageBase<T>, C extends Image
 	 */
 	public abstract void process( T left, T right );
 
+	/**
+	 * Computes the cost, aggregates the cost along all the paths, then selects the best disparity for each pixel.
+	 * If the tensors would exceed {@link #maxTensorBytes} this is done in overlapping horizontal strips.
+	 *
+	 * @param left (Input) left image the cost is computed from
+	 * @param right (Input) right image the cost is computed from
+	 * @param levelDisparityMin Minimum disparity for these images
+	 * @param levelDisparityRange Disparity range for these images
+	 */
+	protected void computeDisparity( C left, C right, int levelDisparityMin, int levelDisparityRange ) {
+		helper.configure(left.width, levelDisparityMin, levelDisparityRange);
+		sgmCost.configure(levelDisparityMin, levelDisparityRange);
+		aggregation.configure(levelDisparityMin);
+		selector.setDisparityMin(levelDisparityMin);
+
+		int windowRows = selectStripRows(left.width, left.height, levelDisparityRange);
+		striped = windowRows < left.height;
+
+		metrics.begin();
+		if (!striped) {
+			// Compute the cost using the error model
+			sgmCost.process(left, right, costYXD);
+			metrics.stage("cost");
+			// Aggregate the cost along all the paths
+			aggregation.process(costYXD);
+			metrics.stage("aggregation");
+			// Select the best disparity for each pixel given the cost
+			selector.select(costYXD, aggregation.getAggregated(), disparity);
+			metrics.stage("selection");
+			metrics.end();
+			return;
+		}
+
+		disparity.reshape(left.width, left.height);
+		score.reshape(left.width, left.height);
+		stripSubpixel.reshape(left.width, left.height);
+
+		// Number of rows which are saved from each strip
+		int coreRows = windowRows - 2*stripOverlap;
+		for (int y0 = 0; y0 < left.height; y0 += coreRows) {
+			int y1 = Math.min(left.height, y0 + coreRows);
+
+			// All windows have the same number of rows so that the tensors are never resized
+			int windowY1 = Math.min(left.height, Math.max(0, y0 - stripOverlap) + windowRows);
+			int windowY0 = Math.max(0, windowY1 - windowRows);
+
+			C stripLeft = left.subimage(0, windowY0, left.width, windowY1);
+			C stripRight = right.subimage(0, windowY0, right.width, windowY1);
+
+			sgmCost.process(stripLeft, stripRight, costYXD);
+			metrics.stage("cost");
+			aggregation.process(costYXD);
+			metrics.stage("aggregation");
+			selector.select(costYXD, aggregation.getAggregated(), stripDisparity);
+			metrics.stage("selection");
+
+			// Only copy the rows which have context on both sides into the output
+			int tensorY0 = y0 - windowY0;
+			int rows = y1 - y0;
+			for (int i = 0; i < rows; i++) {
+				System.arraycopy(stripDisparity.data, stripDisparity.getIndex(0, tensorY0 + i),
+						disparity.data, disparity.getIndex(0, y0 + i), left.width);
+			}
+			saveScore(stripDisparity, tensorY0, y0, rows);
+			subpixel(stripDisparity, stripSubpixel, tensorY0, y0, rows);
+			metrics.stage("subpixel");
+			metrics.count("strips", 1);
+		}
+		metrics.end();
+	}
+
+	@Override public void setMetrics( @Nullable MetricsRegistry registry ) {
+		metrics.setRegistry(registry);
+	}
+
+	/**
+	 * Returns the number of image rows which can be processed at once without exceeding {@link #maxTensorBytes}.
+	 * If there is no limit or the entire image fits then the image's height is returned.
+	 */
+	protected int selectStripRows( int width, int height, int rangeD ) {
+		if (maxTensorBytes <= 0)
+			return height;
+
+		// The cost and aggregated cost tensors both store a 16-bit value for every (x,d) in a row
+		long bytesPerRow = 2L*2L*width*rangeD;
+		long rows = maxTensorBytes/bytesPerRow;
+		if (rows >= height)
+			return height;
+
+		if (rows - 2L*stripOverlap < 1)
+			throw new IllegalArgumentException("maxTensorBytes is too small for the strip overlap. Needs to be at least " +
+					(2L*stripOverlap + 1)*bytesPerRow + " bytes");
+		return (int)rows;
+	}
+
+	/**
+	 * Computes sub-pixel disparity by fitting a polynomial to the aggregated cost around the selected disparity.
+	 *
+	 * @param src (Input) Disparity found by {@link #process}
+	 * @param dst (Output) Sub-pixel disparity
+	 */
 	// TODO remove need to compute U8 first
 	public void subpixel( GrayU8 src, GrayF32 dst ) {
+		if (striped) {
+			// The aggregated cost was discarded after each strip, so sub-pixel was already computed
+			if (src != disparity)
+				throw new IllegalArgumentException("When processed in strips only the found disparity can be refined");
+			dst.setTo(stripSubpixel);
+			return;
+		}
+
 		dst.reshape(src);
+		subpixel(src, dst, 0, 0, aggregation.getAggregated().getNumBands());
+	}
+
+	/**
+	 * Computes sub-pixel disparity for a range of rows in the aggregated cost tensor
+	 *
+	 * @param src (Input) Disparity with rows in tensor coordinates
+	 * @param dst (Output) Sub-pixel disparity with rows in image coordinates
+	 * @param tensorY0 First row in the tensor
+	 * @param imageY0 Row in the image which tensorY0 corresponds to
+	 * @param rows Number of rows
+	 */
+	protected void subpixel( GrayU8 src, GrayF32 dst, int tensorY0, int imageY0, int rows ) {
+		// The helper was configured for the resolution the tensor was computed at
+		int disparityMin = helper.disparityMin;
+		int disparityRange = helper.disparityRange;
 		Planar<GrayU16> aggregatedYXD = aggregation.getAggregated();
 
-		for (int y = 0; y < aggregatedYXD.getNumBands(); y++) {
-			GrayU16 costXD = aggregatedYXD.getBand(y);
+		for (int i = 0; i < rows; i++) {
+			GrayU16 costXD = aggregatedYXD.getBand(tensorY0 + i);
+			int y = imageY0 + i;
 			for (int x = 0; x < disparityMin; x++) {
 				dst.unsafe_set(x, y, disparityRange); // make as invalid
 			}
 			for (int x = disparityMin; x < costXD.height; x++) {
 				int localMaxRange = helper.localDisparityRangeLeft(x);
-				int d = src.unsafe_get(x, y);
+				int d = src.unsafe_get(x, tensorY0 + i);
 				float subpixel;
 				if (d > 0 && d < localMaxRange - 1) {
 					int adjX = x - disparityMin; // see how cost tensor is defined
@@ -100,16 +254,35 @@ public abstract class SgmStereoDisparity<T extends ImageBase<T>, C extends Image
 	 * Extracts the score from the cost volumn
 	 */
 	public void saveScore() {
-		Planar<GrayU16> aggregatedYXD = aggregation.getAggregated();
+		// When striped the score was saved as each strip was processed
+		if (striped)
+			return;
+
 		score.reshape(disparity);
+		saveScore(disparity, 0, 0, aggregation.getAggregated().getNumBands());
+	}
+
+	/**
+	 * Extracts the score for a range of rows in the aggregated cost tensor
+	 *
+	 * @param found (Input) Disparity with rows in tensor coordinates
+	 * @param tensorY0 First row in the tensor
+	 * @param imageY0 Row in the image which tensorY0 corresponds to
+	 * @param rows Number of rows
+	 */
+	protected void saveScore( GrayU8 found, int tensorY0, int imageY0, int rows ) {
+		int disparityMin = helper.disparityMin;
+		int disparityRange = helper.disparityRange;
+		Planar<GrayU16> aggregatedYXD = aggregation.getAggregated();
 
-		for (int y = 0; y < aggregatedYXD.getNumBands(); y++) {
-			GrayU16 costXD = aggregatedYXD.getBand(y);
+		for (int i = 0; i < rows; i++) {
+			GrayU16 costXD = aggregatedYXD.getBand(tensorY0 + i);
+			int y = imageY0 + i;
 			for (int x = 0; x < disparityMin; x++) {
 				score.unsafe_set(x, y, Float.NaN); // make as invalid
 			}
 			for (int x = disparityMin; x < costXD.height; x++) {
-				int d = disparity.unsafe_get(x, y);
+				int d = found.unsafe_get(x, tensorY0 + i);
 				if (d >= disparityRange) {
 					score.unsafe_set(x, y, Float.NaN);
 				} else {
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -60,17 +60,6 @@ public class SgmStereoDisparityCensus<T extends ImageBase<T>, C extends ImageGra
 		censusTran.process(right, cright);
 
 		disparity.reshape(left);
-		helper.configure(left.width, disparityMin, disparityRange);
-		sgmCost.configure(disparityMin, disparityRange);
-		aggregation.configure(disparityMin);
-
-		// Compute the cost using mutual information
-		sgmCost.process(cleft, cright, costYXD);
-		// Aggregate the cost along all the paths
-		aggregation.process(costYXD);
-
-		// Select the best disparity for each pixel given the cost
-		selector.setDisparityMin(disparityMin);
-		selector.select(costYXD, aggregation.getAggregated(), disparity);
+		computeDisparity(cleft, cright, disparityMin, disparityRange);
 	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -104,8 +104,6 @@ public class SgmStereoDisparityHmi extends SgmStereoDisparityError<GrayU8> {
 		InputSanityCheck.checkSameShape(left, right);
 		disparity.reshape(left);
 
-		helper.configure(left.width, disparityMin, disparityRange);
-
 		// Create image pyramid
 		pyrLeft.process(left);
 		pyrRight.process(right);
@@ -138,12 +136,7 @@ public class SgmStereoDisparityHmi extends SgmStereoDisparityError<GrayU8> {
 				selector.setTextureThreshold(textureThreshold);
 				selector.setRightToLeftTolerance(tol_R_to_L);
 			}
-			sgmCost.configure(levelDisparityMin, levelDisparityRange);
-			aggregation.configure(levelDisparityMin);
-			sgmCost.process(levelLeft, levelRight, costYXD);
-			aggregation.process(costYXD);
-			selector.setDisparityMin(levelDisparityMin); // todo move to function below
-			selector.select(costYXD, aggregation.getAggregated(), disparity);
+			computeDisparity(levelLeft, levelRight, levelDisparityMin, levelDisparityRange);
 
 			if (level > 0) {
 				int invalid = selector.getInvalidDisparity();
@@ -155,12 +148,7 @@ public class SgmStereoDisparityHmi extends SgmStereoDisparityError<GrayU8> {
 		for (int i = 0; i < extraIterations; i++) {
 			stereoMI.process(left, right, disparityMin, disparity, selector.getInvalidDisparity());
 			stereoMI.precomputeScaledCost(SgmDisparityCost.MAX_COST);
-			sgmCost.configure(disparityMin, disparityRange);
-			aggregation.configure(disparityMin);
-			sgmCost.process(left, right, costYXD);
-			aggregation.process(costYXD);
-			selector.setDisparityMin(disparityMin);
-			selector.select(costYXD, aggregation.getAggregated(), disparity);
+			computeDisparity(left, right, disparityMin, disparityRange);
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -175,7 +175,7 @@ public class MultiCameraToEquirectangular<T extends ImageBase<T>> {
 				if (UtilEjml.isUncountable(p2.x) || UtilEjml.isUncountable(p2.y)) {
 					// can't have it be an invalid number in the cache, but had to be invalid so that the mask
 					// could be set to zero. So set it to some valid value that won't cause it to blow up
-					transformEquiToCam.getPixel(col, row).setTo(-1, -1);
+					transformEquiToCam.setPixel(col, row, -1, -1);
 					continue;
 				}
 
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.mvs;
+
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.shapes.Box3D_F64;
+import georegression.struct.shapes.Rectangle2D_F64;
+import georegression.transform.se.SePointOps_F64;
+import gnu.trove.map.hash.TLongIntHashMap;
+import lombok.Getter;
+import org.ddogleg.sorting.QuickSelect;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_F64;
+import org.ddogleg.struct.DogArray_I32;
+
+import java.util.List;
+
+/**
+ * Spatial index for a point cloud which is used to quickly find which points could be inside a camera's
+ * view frustum. Points are assigned to cubic cells using a hash of their discretized coordinate. Each cell keeps
+ * track of the bounding box of its points and when searching, a cell's points are only returned if its bounding
+ * sphere intersects the frustum. Points are referenced by their index in the cloud.
+ *
+ * Since each cell's bounds are computed from the points inside of it, a hash collision will only make
+ * the search less efficient and will not cause points to be missed.
+ *
+ * @author Peter Abeles
+ */
+public class CloudVoxelIndex {
+	/**
+	 * Length of a cell's side. If &le; 0 then it will be selected automatically from the first set of points
+	 * which are added.
+	 */
+	public double cellSize = 0.0;
+
+	/**
+	 * When automatically selecting the cell size, it's set to this fraction of the median distance of points from
+	 * their centroid.
+	 */
+	public double autoCellFraction = 0.1;
+
+	/** The cell size which is actually being used. Only valid once points have been added */
+	@Getter double actualCellSize;
+
+	/** All the cells with at least one point in them */
+	@Getter final DogArray<Cell> cells = new DogArray<>(Cell::new, Cell::reset);
+
+	// Look up table from the hash of a cell's coordinate to its index in 'cells'
+	final TLongIntHashMap hashToCell = new TLongIntHashMap(10, 0.5f, -1L, -1);
+
+	// Workspace
+	final DogArray_F64 distances = new DogArray_F64();
+	final Point3D_F64 center = new Point3D_F64();
+
+	/**
+	 * Discards all the points
+	 */
+	public void reset() {
+		cells.reset();
+		hashToCell.clear();
+		actualCellSize = 0.0;
+	}
+
+	/**
+	 * Adds points in the cloud to the index.
+	 *
+	 * @param cloud (Input) The point cloud
+	 * @param idx0 (Input) Index of the first point which is to be added
+	 * @param idx1 (Input) Index of the last point which is to be added, exclusive.
+	 */
+	public void addAll( List<Point3D_F64> cloud, int idx0, int idx1 ) {
+		if (idx0 >= idx1)
+			return;
+
+		if (actualCellSize <= 0.0) {
+			actualCellSize = cellSize > 0.0 ? cellSize : selectCellSize(cloud, idx0, idx1);
+		}
+
+		for (int i = idx0; i < idx1; i++) {
+			Point3D_F64 p = cloud.get(i);
+			// Skip points which can't be indexed. They couldn't be inside a frustum either
+			if (!Double.isFinite(p.x) || !Double.isFinite(p.y) || !Double.isFinite(p.z))
+				continue;
+
+			long hash = hash(cellCoordinate(p.x), cellCoordinate(p.y), cellCoordinate(p.z));
+			int cellIdx = hashToCell.get(hash);
+			Cell cell;
+			if (cellIdx == -1) {
+				hashToCell.put(hash, cells.size);
+				cell = cells.grow();
+				cell.bounds.p0.setTo(p);
+				cell.bounds.p1.setTo(p);
+			} else {
+				cell = cells.get(cellIdx);
+			}
+			cell.add(p);
+			cell.points.add(i);
+		}
+	}
+
+	/**
+	 * Finds all the points which might be inside the camera's view frustum. Points outside the frustum can be
+	 * returned but all points inside of it will be.
+	 *
+	 * @param world_to_view (Input) Transform from the cloud's reference frame into the view
+	 * @param normBounds (Input) Bounding rectangle of the view in normalized image coordinates
+	 * @param depthMin (Input) Minimum depth along the z-axis. Must be &gt; 0
+	 * @param depthMax (Input) Maximum depth along the z-axis. Can be infinite.
+	 * @param indexes (Output) Index of points in the cloud which might be inside the frustum
+	 */
+	public void selectInFrustum( Se3_F64 world_to_view, Rectangle2D_F64 normBounds,
+								 double depthMin, double depthMax, DogArray_I32 indexes ) {
+		indexes.reset();
+
+		// Used to compute the distance of a point from the sides of the frustum
+		double minX = normBounds.p0.x, maxX = normBounds.p1.x;
+		double minY = normBounds.p0.y, maxY = normBounds.p1.y;
+		double normMinX = Math.sqrt(1.0 + minX*minX), normMaxX = Math.sqrt(1.0 + maxX*maxX);
+		double normMinY = Math.sqrt(1.0 + minY*minY), normMaxY = Math.sqrt(1.0 + maxY*maxY);
+
+		for (int cellIdx = 0; cellIdx < cells.size; cellIdx++) {
+			Cell cell = cells.get(cellIdx);
+			Point3D_F64 p0 = cell.bounds.p0;
+			Point3D_F64 p1 = cell.bounds.p1;
+
+			// Bounding sphere of the cell
+			center.setTo((p0.x + p1.x)/2.0, (p0.y + p1.y)/2.0, (p0.z + p1.z)/2.0);
+			double radius = p0.distance(p1)/2.0;
+			SePointOps_F64.transform(world_to_view, center, center);
+
+			// See if the sphere is entirely outside of any of the frustum's planes
+			if (center.z + radius < depthMin || center.z - radius > depthMax)
+				continue;
+			if (center.x - maxX*center.z > radius*normMaxX || minX*center.z - center.x > radius*normMinX)
+				continue;
+			if (center.y - maxY*center.z > radius*normMaxY || minY*center.z - center.y > radius*normMinY)
+				continue;
+
+			indexes.addAll(cell.points);
+		}
+	}
+
+	/**
+	 * Selects a cell size using the spread of the points
+	 */
+	double selectCellSize( List<Point3D_F64> cloud, int idx0, int idx1 ) {
+		double meanX = 0, meanY = 0, meanZ = 0;
+		int count = 0;
+		for (int i = idx0; i < idx1; i++) {
+			Point3D_F64 p = cloud.get(i);
+			if (!Double.isFinite(p.x) || !Double.isFinite(p.y) || !Double.isFinite(p.z))
+				continue;
+			meanX += p.x;
+			meanY += p.y;
+			meanZ += p.z;
+			count++;
+		}
+		if (count == 0)
+			return 1.0;
+		meanX /= count;
+		meanY /= count;
+		meanZ /= count;
+
+		distances.reset();
+		for (int i = idx0; i < idx1; i++) {
+			Point3D_F64 p = cloud.get(i);
+			if (!Double.isFinite(p.x) || !Double.isFinite(p.y) || !Double.isFinite(p.z))
+				continue;
+			distances.add(p.distance(meanX, meanY, meanZ));
+		}
+		double median = QuickSelect.select(distances.data, distances.size/2, distances.size);
+
+		// Handle the degenerate case where all the points are on top of each other
+		return median > 0.0 ? autoCellFraction*median : 1.0;
+	}
+
+	long cellCoordinate( double value ) {
+		return (long)Math.floor(value/actualCellSize);
+	}
+
+	/**
+	 * Packs the cell's coordinate into a single number. Only the lower 21-bits are used so distant cells can
+	 * have the same hash.
+	 */
+	static long hash( long x, long y, long z ) {
+		return ((x & 0x1FFFFF) << 42) | ((y & 0x1FFFFF) << 21) | (z & 0x1FFFFF);
+	}
+
+	/**
+	 * A cell in the index
+	 */
+	public static class Cell {
+		/** Bounding box of all the points inside the cell */
+		public final Box3D_F64 bounds = new Box3D_F64();
+		/** Index of points in the cloud which are inside this cell */
+		public final DogArray_I32 points = new DogArray_I32();
+
+		void add( Point3D_F64 p ) {
+			bounds.p0.x = Math.min(bounds.p0.x, p.x);
+			bounds.p0.y = Math.min(bounds.p0.y, p.y);
+			bounds.p0.z = Math.min(bounds.p0.z, p.z);
+			bounds.p1.x = Math.max(bounds.p1.x, p.x);
+			bounds.p1.y = Math.max(bounds.p1.y, p.y);
+			bounds.p1.z = Math.max(bounds.p1.z, p.z);
+		}
+
+		public void reset() {
+			bounds.p0.setTo(0, 0, 0);
+			bounds.p1.setTo(0, 0, 0);
+			points.reset();
+		}
+	}
+}
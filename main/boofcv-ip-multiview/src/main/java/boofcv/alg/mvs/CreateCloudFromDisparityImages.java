@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -26,6 +26,7 @@ import boofcv.struct.image.GrayU8;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point3D_F64;
 import georegression.struct.se.Se3_F64;
+import georegression.struct.shapes.Rectangle2D_F64;
 import georegression.transform.se.SePointOps_F64;
 import lombok.Getter;
 import org.ddogleg.struct.DogArray;
@@ -38,6 +39,10 @@ import java.util.List;
  * to the cloud. Initially the cloud is kept in separate lists to make it easy to see which view contributed
  * what points to the cloud.
  *
+ * To avoid checking every point in the cloud when a new view is added, the cloud is indexed using a
+ * {@link CloudVoxelIndex}. Only points in cells which intersect with the new view's frustum are checked
+ * to see if they are duplicates of pixels in the disparity image.
+ *
  * @author Peter Abeles
  */
 public class CreateCloudFromDisparityImages {
@@ -53,14 +58,24 @@ public class CreateCloudFromDisparityImages {
 	/** List of indices which specify the cloud size when a view 'i' was added. idx[i] &le; cloud < idx[i+1] */
 	final @Getter DogArray_I32 viewPointIdx = new DogArray_I32();
 
+	/** Spatial index of the points in the cloud */
+	final @Getter CloudVoxelIndex index = new CloudVoxelIndex();
+
 	// Masked used to filter out duplicate points
 	final GrayU8 duplicateMask = new GrayU8(1, 1);
 
+	// Points in the cloud which might be visible in the view
+	final DogArray_I32 candidates = new DogArray_I32();
+	// Bounds of the view in normalized image coordinates
+	final Rectangle2D_F64 normBounds = new Rectangle2D_F64();
+	final Point2D_F64 norm = new Point2D_F64();
+
 	/**
 	 * Clears previously added views and points.
 	 */
 	public void reset() {
 		cloud.reset();
+		index.reset();
 		viewPointIdx.reset();
 		viewPointIdx.add(0);
 	}
@@ -72,8 +87,10 @@ public class CreateCloudFromDisparityImages {
 	 * @return The index of the view that can be used to retrieve the specified points added
 	 */
 	public int addCloud( List<Point3D_F64> cloud ) {
+		int idx0 = this.cloud.size;
 		viewPointIdx.add(this.cloud.size + cloud.size());
 		this.cloud.copyAll(cloud, ( s, d ) -> d.setTo(s));
+		index.addAll(this.cloud.toList(), idx0, this.cloud.size);
 		return this.viewPointIdx.size - 1;
 	}
 
@@ -96,11 +113,10 @@ public class CreateCloudFromDisparityImages {
 		// TODO disparitySimilarTol compute this dynamically based on stereo baseline
 		duplicateMask.reshape(inverseDepth);
 		GImageMiscOps.fill(duplicateMask, 0);
-		MultiViewStereoOps.maskOutPointsInCloud(cloud.toList(), inverseDepth, world_to_view,
-				norm_to_pixel, disparitySimilarTol, duplicateMask);
+		maskOutDuplicates(inverseDepth, world_to_view, norm_to_pixel, pixel_to_norm);
+
+		int idx0 = cloud.size;
 
-		// normalized image coordinates of disparity image
-		final Point2D_F64 norm = new Point2D_F64();
 		// 3D point in stereo camera reference frame
 		final Point3D_F64 camP = new Point3D_F64();
 
@@ -134,7 +150,82 @@ public class CreateCloudFromDisparityImages {
 
 		// Denote where this set of points end
 		viewPointIdx.add(cloud.size());
+		index.addAll(cloud.toList(), idx0, cloud.size);
 
 		return this.viewPointIdx.size - 1;
 	}
+
+	/**
+	 * Masks out pixels which are already in the cloud. Only points which are inside the view's frustum are
+	 * considered.
+	 */
+	void maskOutDuplicates( GrayF32 inverseDepth, Se3_F64 world_to_view,
+							Point2Transform2_F64 norm_to_pixel,
+							PixelTransform<Point2D_F64> pixel_to_norm ) {
+		if (index.cells.size == 0)
+			return;
+
+		// Find the range of inverse depths which can be matched
+		float invMin = Float.MAX_VALUE;
+		float invMax = -1.0f;
+		for (int y = 0; y < inverseDepth.height; y++) {
+			int indexDisp = y*inverseDepth.stride + inverseDepth.startIndex;
+			for (int x = 0; x < inverseDepth.width; x++, indexDisp++) {
+				float inv = inverseDepth.data[indexDisp];
+				if (inv < 0.0f)
+					continue;
+				invMin = Math.min(invMin, inv);
+				invMax = Math.max(invMax, inv);
+			}
+		}
+
+		// No valid pixels so nothing can be masked
+		if (invMax < 0.0f)
+			return;
+
+		double depthMin = 1.0/(invMax + disparitySimilarTol);
+		double depthMax = invMin - disparitySimilarTol > 0.0 ?
+				1.0/(invMin - disparitySimilarTol) : Double.POSITIVE_INFINITY;
+
+		computeNormBounds(inverseDepth.width, inverseDepth.height, pixel_to_norm);
+
+		index.selectInFrustum(world_to_view, normBounds, depthMin, depthMax, candidates);
+		MultiViewStereoOps.maskOutPointsInCloud(cloud.toList(), candidates, inverseDepth, world_to_view,
+				norm_to_pixel, disparitySimilarTol, duplicateMask);
+	}
+
+	/**
+	 * Finds the bounds of the image in normalized image coordinates by sampling along its border. Points are
+	 * inside the image if their pixel coordinates are in [-0.5, width-0.5), which is outside the sampled pixels.
+	 */
+	void computeNormBounds( int width, int height, PixelTransform<Point2D_F64> pixel_to_norm ) {
+		normBounds.p0.setTo(Double.MAX_VALUE, Double.MAX_VALUE);
+		normBounds.p1.setTo(-Double.MAX_VALUE, -Double.MAX_VALUE);
+
+		for (int x = 0; x < width; x++) {
+			updateNormBounds(x, 0, pixel_to_norm);
+			updateNormBounds(x, height - 1, pixel_to_norm);
+		}
+		for (int y = 0; y < height; y++) {
+			updateNormBounds(0, y, pixel_to_norm);
+			updateNormBounds(width - 1, y, pixel_to_norm);
+		}
+
+		// Pad by 1.5 pixels to include the border and to account for curvature between samples. If the image is
+		// a single pixel wide then the scale can't be found and the frustum is made unbounded along that axis
+		double padX = width > 1 ? 1.5*(normBounds.p1.x - normBounds.p0.x)/(width - 1) : Double.MAX_VALUE;
+		double padY = height > 1 ? 1.5*(normBounds.p1.y - normBounds.p0.y)/(height - 1) : Double.MAX_VALUE;
+		normBounds.p0.x -= padX;
+		normBounds.p0.y -= padY;
+		normBounds.p1.x += padX;
+		normBounds.p1.y += padY;
+	}
+
+	private void updateNormBounds( int x, int y, PixelTransform<Point2D_F64> pixel_to_norm ) {
+		pixel_to_norm.compute(x, y, norm);
+		normBounds.p0.x = Math.min(normBounds.p0.x, norm.x);
+		normBounds.p0.y = Math.min(normBounds.p0.y, norm.y);
+		normBounds.p1.x = Math.max(normBounds.p1.x, norm.x);
+		normBounds.p1.y = Math.max(normBounds.p1.y, norm.y);
+	}
 }
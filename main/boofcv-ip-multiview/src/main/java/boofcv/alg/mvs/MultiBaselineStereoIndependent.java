@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -29,21 +29,27 @@ import boofcv.alg.geo.PerspectiveOps;
 import boofcv.alg.geo.RectifyDistortImageOps;
 import boofcv.alg.geo.rectify.DisparityParameters;
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.misc.BoofLambdas;
 import boofcv.misc.BoofMiscOps;
 import boofcv.misc.LookUpImages;
 import boofcv.struct.border.BorderType;
 import boofcv.struct.calib.CameraPinholeBrown;
+import boofcv.struct.distort.PixelTransform;
 import boofcv.struct.image.*;
+import georegression.struct.point.Point2D_F64;
 import georegression.struct.se.Se3_F64;
 import lombok.Getter;
 import lombok.Setter;
 import org.ddogleg.struct.DogArray_I32;
 import org.ddogleg.struct.VerbosePrint;
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.FMatrixRMaj;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
@@ -71,6 +77,13 @@ import static java.util.Objects.requireNonNull;
  * <p>[1] There is no citation since this wasn't based on any specific paper but created out of a need to reuse
  * existing stereo code based on a high level description of MVS pipeline.</p>
  *
+ * <p>If {@link #setConcurrent concurrent} is true and a factory for {@link StereoDisparity} has been provided, then
+ * the stereo pairs are processed in batches. Images are looked up and rectification parameters are found in a
+ * single thread, then rectification and disparity are computed for every pair in the batch in parallel with
+ * each pair having its own {@link StereoDisparity}. Results are then fused in the same order as the single thread
+ * version. The number of pairs in a batch is limited by {@link #maxPairsInMemory} since each pair needs its own
+ * rectified images and disparity images.</p>
+ *
  * @author Peter Abeles
  */
 @SuppressWarnings({"NullAway.Init"})
@@ -85,6 +98,23 @@ public class MultiBaselineStereoIndependent<Image extends ImageGray<Image>> impl
 	/** Optional removal of speckle noise from disparity image. */
 	@Getter @Setter @Nullable DisparitySmoother<Image, GrayF32> disparitySmoother = null;
 
+	/** Creates {@link StereoDisparity} for each pair being processed concurrently. */
+	@Getter @Setter @Nullable BoofLambdas.Factory<StereoDisparity<Image, GrayF32>> factoryStereoDisparity = null;
+
+	/** Creates {@link DisparitySmoother} for each pair being processed concurrently. */
+	@Getter @Setter @Nullable BoofLambdas.Factory<DisparitySmoother<Image, GrayF32>> factoryDisparitySmoother = null;
+
+	/** If true and factories are available then stereo pairs will be processed using multiple threads */
+	@Getter @Setter boolean concurrent = false;
+
+	/**
+	 * Maximum number of stereo pairs which are processed at once when concurrent. This is a count of pairs and
+	 * not a size in bytes. Each pair has its own copy of the "right" image, two rectified images, a mask, and
+	 * a {@link StereoDisparity} with its disparity and score images. Roughly, that's 3 images of the input type,
+	 * 2 {@link GrayF32} images, and 1 {@link GrayU8} image, plus the disparity algorithm's internal workspace.
+	 */
+	@Getter @Setter int maxPairsInMemory = 4;
+
 	/** Used to retrieve images by their ID */
 	@Getter @Setter @Nullable LookUpImages lookUpImages = null;
 
@@ -114,26 +144,25 @@ public class MultiBaselineStereoIndependent<Image extends ImageGray<Image>> impl
 	/** Inverse depth image in input image coordinates */
 	final @Getter GrayF32 fusedInvDepth = new GrayF32(1, 1);
 
-	// Storage for stereo disparity results
-	final StereoResults results = new StereoResults();
 	/** Fuses multiple disparity images together provided they have the same "left" view */
 	@Getter MultiBaselineDisparityErrors performFusion = new MultiBaselineDisparityErrors();
 
-	// Storage for the original images in the stereo pair
-	Image image1, image2;
+	// Storage for the "center" image which is common to all stereo pairs
+	Image image1;
 
-	// Storage for rectified stereo images
-	Image rectified1, rectified2;
+	// Workspace for processing a single pair at a time
+	final PairWork<Image> work;
+	// Workspace for each pair in a batch when concurrent
+	final List<PairWork<Image>> batch = new ArrayList<>();
 
-	// Mask of valid disparity pixels
-	GrayU8 mask = new GrayU8(1, 1);
+	// Type of input image
+	final ImageType<Image> imageType;
 
 	/** Computes parameters how to rectify given the results from bundle adjustment */
 	@Getter BundleToRectificationStereoParameters computeRectification = new BundleToRectificationStereoParameters();
 
 	// Specifies the relationships between reference frames
 	final Se3_F64 left_to_world = new Se3_F64();
-	final Se3_F64 left_to_right = new Se3_F64();
 	final Se3_F64 world_to_left = new Se3_F64();
 	final Se3_F64 world_to_right = new Se3_F64();
 	final Se3_F64 tmpse3 = new Se3_F64();
@@ -148,10 +177,9 @@ public class MultiBaselineStereoIndependent<Image extends ImageGray<Image>> impl
 	}
 
 	public MultiBaselineStereoIndependent( ImageType<Image> imageType ) {
-		this.rectified1 = imageType.createImage(1, 1);
-		this.rectified2 = imageType.createImage(1, 1);
+		this.imageType = imageType;
 		this.image1 = imageType.createImage(1, 1);
-		this.image2 = imageType.createImage(1, 1);
+		this.work = new PairWork<>(imageType);
 	}
 
 	/**
@@ -198,19 +226,20 @@ public class MultiBaselineStereoIndependent<Image extends ImageGray<Image>> impl
 		performFusion.initialize(computeRectification.intrinsic1.width, computeRectification.intrinsic1.height,
 				computeRectification.view1_dist_to_undist);
 
-		for (int i = 0; i < pairIdxs.size; i++) {
-//			if (verbose != null) verbose.println("Computing stereo for view.idx=" + pairIdxs.get(i));
-
-			if (!computeDisparity(image1, pairIdxs.get(i), sbaIndexToViewID.process(pairIdxs.get(i)), results)) {
-				if (verbose != null) verbose.println("FAILED: disparity view.idx=" + pairIdxs.get(i));
-				continue;
+		if (concurrent && factoryStereoDisparity != null &&
+				(disparitySmoother == null || factoryDisparitySmoother != null)) {
+			processPairsConcurrent(targetIdx, pairIdxs, sbaIndexToViewID);
+		} else {
+			work.stereoDisparity = stereoDisparity;
+			work.disparitySmoother = disparitySmoother;
+			for (int i = 0; i < pairIdxs.size; i++) {
+				if (!prepareRectification(pairIdxs.get(i), sbaIndexToViewID.process(pairIdxs.get(i)), work)) {
+					if (verbose != null) verbose.println("FAILED: disparity view.idx=" + pairIdxs.get(i));
+					continue;
+				}
+				computeDisparity(image1, work);
+				addToFusion(targetIdx, work);
 			}
-
-			// allow access to the disparity before it's discarded
-			if (listener != null) listener.handlePairDisparity(targetIdx, pairIdxs.get(i),
-					rectified1, rectified2,
-					results.disparity, results.param, results.undist_to_rect1);
-			performFusion.addDisparity(results.disparity, results.score, results.param, results.undist_to_rect1);
 		}
 
 		if (verbose != null) verbose.println("Created fused stereo disparity image. inputs.size=" + pairIdxs.size);
@@ -235,100 +264,189 @@ public class MultiBaselineStereoIndependent<Image extends ImageGray<Image>> impl
 	}
 
 	/**
-	 * Computes the disparity between the common view "left" view and the specified "right"
+	 * Processes the pairs in batches. Everything which isn't thread safe is done in this thread, then the
+	 * rectification and disparity for each pair in the batch is computed in parallel. Results are fused in the same
+	 * order as they were passed in.
+	 */
+	void processPairsConcurrent( int targetIdx, DogArray_I32 pairIdxs, BoofLambdas.IndexToString sbaIndexToViewID ) {
+		BoofLambdas.Factory<StereoDisparity<Image, GrayF32>> factoryStereoDisparity =
+				requireNonNull(this.factoryStereoDisparity);
+		BoofLambdas.Factory<DisparitySmoother<Image, GrayF32>> factoryDisparitySmoother = this.factoryDisparitySmoother;
+
+		int batchSize = Math.max(1, maxPairsInMemory);
+		int pairIdx = 0;
+		while (pairIdx < pairIdxs.size) {
+			// Load images and compute rectification parameters until the batch is full
+			int numInBatch = 0;
+			while (pairIdx < pairIdxs.size && numInBatch < batchSize) {
+				if (numInBatch == batch.size()) {
+					var w = new PairWork<>(imageType);
+					w.stereoDisparity = factoryStereoDisparity.newInstance();
+					batch.add(w);
+				}
+				PairWork<Image> w = batch.get(numInBatch);
+				if (disparitySmoother == null) {
+					w.disparitySmoother = null;
+				} else if (w.disparitySmoother == null) {
+					w.disparitySmoother = requireNonNull(factoryDisparitySmoother).newInstance();
+				}
+
+				int rightIdx = pairIdxs.get(pairIdx++);
+				if (!prepareRectification(rightIdx, sbaIndexToViewID.process(rightIdx), w)) {
+					if (verbose != null) verbose.println("FAILED: disparity view.idx=" + rightIdx);
+					continue;
+				}
+				numInBatch++;
+			}
+
+			// Each pair only reads from shared data structures, so they can be computed independently
+			BoofConcurrency.loopFor(0, numInBatch, i -> computeDisparity(image1, batch.get(i)));
+
+			// Fuse in the same order as the single thread version to produce identical results
+			for (int i = 0; i < numInBatch; i++) {
+				addToFusion(targetIdx, batch.get(i));
+			}
+		}
+	}
+
+	/**
+	 * Passes the disparity to the listener and adds it to the fusion algorithm
+	 */
+	void addToFusion( int targetIdx, PairWork<Image> work ) {
+		StereoResults results = work.results;
+
+		// Update profiling
+		timeDisparity += work.timeDisparity;
+		timeDisparitySmooth += work.timeDisparitySmooth;
+
+		// allow access to the disparity before it's discarded
+		if (listener != null) listener.handlePairDisparity(targetIdx, work.rightIdx,
+				work.rectified1, work.rectified2,
+				results.disparity, results.param, results.undist_to_rect1);
+		performFusion.addDisparity(results.disparity, results.score, results.param, results.undist_to_rect1);
+	}
+
+	/**
+	 * Loads the "right" image and computes rectification parameters between the common "left" view and the
+	 * specified "right" view. This modifies shared data structures and must be done in a single thread.
 	 *
-	 * @param image1 Image for the left view
 	 * @param rightIdx Which view to use for the right view
+	 * @param work (Output) Storage for the image and rectification
 	 */
-	private boolean computeDisparity( Image image1, int rightIdx, String rightID, StereoResults info ) {
+	boolean prepareRectification( int rightIdx, String rightID, PairWork<Image> work ) {
 //		if (verbose != null) verbose.println("computeDisparity: idx=" + rightIdx + " id='" + rightID + "'");
 
 		long time0 = System.nanoTime();
 		// Look up the second image in the stereo image
-		if (!Objects.requireNonNull(lookUpImages).loadImage(rightID, image2)) {
+		if (!Objects.requireNonNull(lookUpImages).loadImage(rightID, work.image2)) {
 			if (verbose != null) verbose.println("Failed to load second image[" + rightIdx + "]");
 			return false;
 		}
 		long time1 = System.nanoTime();
 		timeLookUpImages += (time1 - time0)*1e-6;
 
+		work.rightIdx = rightIdx;
 		int rightCamera = scene.views.get(rightIdx).camera;
 
 		// Compute the baseline between the two cameras
 		scene.getWorldToView(scene.views.get(rightIdx), world_to_right, tmpse3);
-		left_to_world.concat(world_to_right, left_to_right);
+		left_to_world.concat(world_to_right, work.left_to_right);
 
 		// Compute rectification data
 		BundleCameraState rightState = observations != null ? observations.getView(rightIdx).cameraState : null;
 		computeRectification.processView2(scene.cameras.get(rightCamera).model, rightState,
-				image2.getWidth(), image2.getHeight(), left_to_right);
+				work.image2.getWidth(), work.image2.getHeight(), work.left_to_right);
 
 		// Save the results
+		StereoResults info = work.results;
 		info.param.rotateToRectified.setTo(computeRectification.rotate_orig_to_rect);
 		info.undist_to_rect1.setTo(computeRectification.undist_to_rect1);
 
 		// New calibration matrix,
 		info.rectifiedK.setTo(computeRectification.rectifiedK);
 
+		// Copy everything else that's needed to rectify the images
+		work.intrinsic1.setTo(computeRectification.intrinsic1);
+		work.intrinsic2.setTo(computeRectification.intrinsic2);
+		work.undist_to_rect1_F32.setTo(computeRectification.undist_to_rect1_F32);
+		work.undist_to_rect2_F32.setTo(computeRectification.undist_to_rect2_F32);
+		work.rectifiedShape.setTo(computeRectification.rectifiedShape);
+		work.view1_dist_to_undist = computeRectification.view1_dist_to_undist.copyConcurrent();
+
+		return true;
+	}
+
+	/**
+	 * Computes the disparity between the common view "left" view and the "right" view. Only the work space
+	 * is modified so this can be called concurrently.
+	 *
+	 * @param image1 Image for the left view
+	 * @param work Contains the right image, rectification, and where the results are stored
+	 */
+	void computeDisparity( Image image1, PairWork<Image> work ) {
+		long time1 = System.nanoTime();
+		StereoResults info = work.results;
+		StereoDisparity<Image, GrayF32> stereoDisparity = requireNonNull(work.stereoDisparity);
+
 		ImageDistort<Image, Image> distortLeft =
-				RectifyDistortImageOps.rectifyImage(computeRectification.intrinsic1,
-						computeRectification.undist_to_rect1_F32, BorderType.EXTENDED, image1.getImageType());
+				RectifyDistortImageOps.rectifyImage(work.intrinsic1,
+						work.undist_to_rect1_F32, BorderType.EXTENDED, image1.getImageType());
 		ImageDistort<Image, Image> distortRight =
-				RectifyDistortImageOps.rectifyImage(computeRectification.intrinsic2,
-						computeRectification.undist_to_rect2_F32, BorderType.EXTENDED, image2.getImageType());
+				RectifyDistortImageOps.rectifyImage(work.intrinsic2,
+						work.undist_to_rect2_F32, BorderType.EXTENDED, work.image2.getImageType());
 
-		ImageDimension rectifiedShape = computeRectification.rectifiedShape;
-		mask.reshape(rectifiedShape.width, rectifiedShape.height);
-		rectified1.reshape(rectifiedShape.width, rectifiedShape.height);
-		rectified2.reshape(rectifiedShape.width, rectifiedShape.height);
+		ImageDimension rectifiedShape = work.rectifiedShape;
+		work.mask.reshape(rectifiedShape.width, rectifiedShape.height);
+		work.rectified1.reshape(rectifiedShape.width, rectifiedShape.height);
+		work.rectified2.reshape(rectifiedShape.width, rectifiedShape.height);
 
-		distortLeft.apply(image1, rectified1, mask);
-		distortRight.apply(image2, rectified2);
+		distortLeft.apply(image1, work.rectified1, work.mask);
+		distortRight.apply(work.image2, work.rectified2);
 
 		// Compute disparity from the rectified images
-		requireNonNull(stereoDisparity).process(rectified1, rectified2);
+		stereoDisparity.process(work.rectified1, work.rectified2);
 
 		// Save the results
 		info.disparity = stereoDisparity.getDisparity();
 		info.score = Objects.requireNonNull(stereoDisparity.getDisparityScore(), "Stereo must have score turned on");
 
+		// Set the disparity parameters before they are used. Otherwise the values from the previous pair are used
+		DisparityParameters param = info.param;
+		param.disparityMin = stereoDisparity.getDisparityMin();
+		param.disparityRange = stereoDisparity.getDisparityRange();
+
 		// Filter out pixels outside the original image
-		final int disparityRange = info.param.disparityRange;
-		ImageMiscOps.maskFill(info.disparity, mask, 0, disparityRange);
+		final int disparityRange = param.disparityRange;
+		ImageMiscOps.maskFill(info.disparity, work.mask, 0, disparityRange);
 
 		// Blocks used to compute the disparity will be inaccurate if they touch regions outside
-		MultiViewStereoOps.invalidateBorder(image1.width, image1.height, computeRectification.view1_dist_to_undist,
-				computeRectification.undist_to_rect1, disparityBlockRadius, stereoDisparity.getDisparityRange(), info.disparity);
+		MultiViewStereoOps.invalidateBorder(image1.width, image1.height, work.view1_dist_to_undist,
+				info.undist_to_rect1, disparityBlockRadius, stereoDisparity.getDisparityRange(), info.disparity);
 
 		// Adaptive error threshold
 		float threshold = MultiViewStereoOps.averageScore(info.disparity, disparityRange, info.score);
 		threshold = (float)(threshold*disparityErrorThresholdScale);
 		MultiViewStereoOps.invalidateUsingError(info.disparity, disparityRange, info.score, threshold);
 
-		DisparityParameters param = info.param;
-		param.disparityMin = stereoDisparity.getDisparityMin();
-		param.disparityRange = stereoDisparity.getDisparityRange();
-		param.baseline = left_to_right.T.norm();
+		param.baseline = work.left_to_right.T.norm();
 		PerspectiveOps.matrixToPinhole(info.rectifiedK, rectifiedShape.width, rectifiedShape.height, param.pinhole);
 
 		long time2 = System.nanoTime();
-		timeDisparity += (time2 - time1)*1e-6;
+		work.timeDisparity = (time2 - time1)*1e-6;
 
 		// Filter disparity
-		filterDisparity(rectified1, info.disparity, info.param);
-
-		return true;
+		filterDisparity(work.rectified1, info.disparity, info.param, work);
 	}
 
 	/**
 	 * Remove speckle noise from the disparity image. Noise is often small disconnected regions. There will be
 	 * false positives though.
 	 */
-	private void filterDisparity( Image left, GrayF32 disparity, DisparityParameters param ) {
+	private void filterDisparity( Image left, GrayF32 disparity, DisparityParameters param, PairWork<Image> work ) {
 		long time0 = System.nanoTime();
-		if (disparitySmoother != null)
-			disparitySmoother.process(left, disparity, param.disparityRange);
-		timeDisparitySmooth += (System.nanoTime() - time0)*1e-6;
+		if (work.disparitySmoother != null)
+			work.disparitySmoother.process(left, disparity, param.disparityRange);
+		work.timeDisparitySmooth = (System.nanoTime() - time0)*1e-6;
 	}
 
 	@Override public void setVerbose( @Nullable PrintStream out, @Nullable Set<String> configuration ) {
@@ -365,6 +483,47 @@ public class MultiBaselineStereoIndependent<Image extends ImageGray<Image>> impl
 		final DMatrixRMaj rectifiedK = new DMatrixRMaj(3, 3);
 	}
 
+	/**
+	 * Everything needed to compute the disparity for a single stereo pair
+	 */
+	@SuppressWarnings({"NullAway.Init"})
+	static class PairWork<Image extends ImageGray<Image>> {
+		// Computes the disparity and smooths it
+		@Nullable StereoDisparity<Image, GrayF32> stereoDisparity;
+		@Nullable DisparitySmoother<Image, GrayF32> disparitySmoother;
+
+		// Index of the "right" view
+		int rightIdx;
+		// Image for the "right" view
+		final Image image2;
+		// Storage for rectified stereo images
+		final Image rectified1, rectified2;
+		// Mask of valid disparity pixels
+		final GrayU8 mask = new GrayU8(1, 1);
+
+		// Copy of the rectification parameters
+		final Se3_F64 left_to_right = new Se3_F64();
+		final CameraPinholeBrown intrinsic1 = new CameraPinholeBrown();
+		final CameraPinholeBrown intrinsic2 = new CameraPinholeBrown();
+		final FMatrixRMaj undist_to_rect1_F32 = new FMatrixRMaj(3, 3);
+		final FMatrixRMaj undist_to_rect2_F32 = new FMatrixRMaj(3, 3);
+		final ImageDimension rectifiedShape = new ImageDimension();
+		PixelTransform<Point2D_F64> view1_dist_to_undist;
+
+		// Storage for stereo disparity results
+		final StereoResults results = new StereoResults();
+
+		// Profiling for this pair
+		double timeDisparity;
+		double timeDisparitySmooth;
+
+		PairWork( ImageType<Image> imageType ) {
+			this.image2 = imageType.createImage(1, 1);
+			this.rectified1 = imageType.createImage(1, 1);
+			this.rectified2 = imageType.createImage(1, 1);
+		}
+	}
+
 	/**
 	 * Used to gain access to intermediate results
 	 */
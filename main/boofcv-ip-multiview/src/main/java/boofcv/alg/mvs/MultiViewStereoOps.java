@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -33,6 +33,7 @@ import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point3D_F64;
 import georegression.struct.se.Se3_F64;
 import georegression.transform.se.SePointOps_F64;
+import org.ddogleg.struct.DogArray_I32;
 import org.ejml.data.DMatrixRMaj;
 import org.jetbrains.annotations.Nullable;
 
@@ -76,43 +77,77 @@ public class MultiViewStereoOps {
 		Point2D_F64 pixel = new Point2D_F64();
 
 		for (int cloudIdx = 0; cloudIdx < cloud.size(); cloudIdx++) {
-			// find the point in the camera's reference frame
-			Point3D_F64 cloudPt = cloud.get(cloudIdx);
-			SePointOps_F64.transform(cloud_to_camera, cloudPt, cameraPt);
+			maskOutPoint(cloud.get(cloudIdx), inverseDepth, cloud_to_camera, rectNorm_to_dispPixel, tolerance, mask,
+					cameraPt, pixel);
+		}
+	}
+
+	/**
+	 * Same as {@link #maskOutPointsInCloud(List, GrayF32, Se3_F64, Point2Transform2_F64, double, GrayU8)} but
+	 * only the points in the cloud which are referenced by 'indexes' are considered.
+	 *
+	 * @param indexes (Input) Indexes of points in the cloud which are to be considered.
+	 */
+	public static void maskOutPointsInCloud( final List<Point3D_F64> cloud,
+											 final DogArray_I32 indexes,
+											 final GrayF32 inverseDepth,
+											 final Se3_F64 cloud_to_camera,
+											 final Point2Transform2_F64 rectNorm_to_dispPixel,
+											 final double tolerance,
+											 final GrayU8 mask ) {
+		InputSanityCheck.checkSameShape(inverseDepth, mask);
 
-			// If it's behind or on the camera, skip
-			if (cameraPt.z <= 0.0)
-				continue;
+		Point3D_F64 cameraPt = new Point3D_F64();
+		Point2D_F64 pixel = new Point2D_F64();
 
-			// Find the pixel it's projected onto
-			rectNorm_to_dispPixel.compute(cameraPt.x/cameraPt.z, cameraPt.y/cameraPt.z, pixel);
+		for (int i = 0; i < indexes.size; i++) {
+			maskOutPoint(cloud.get(indexes.data[i]), inverseDepth, cloud_to_camera, rectNorm_to_dispPixel, tolerance,
+					mask, cameraPt, pixel);
+		}
+	}
 
-			// Discretize the coordinate so that it can be looked up in the image
-			// Rounding minimized the expected error and less sensitive to noise
-			int px = (int)(pixel.x + 0.5); // Round. Kinda. -0.9 will result in 0. All positive numbers are correct.
-			int py = (int)(pixel.y + 0.5); // The check below will fix this issue. Much faster than round()
+	private static void maskOutPoint( Point3D_F64 cloudPt,
+									  GrayF32 inverseDepth,
+									  Se3_F64 cloud_to_camera,
+									  Point2Transform2_F64 rectNorm_to_dispPixel,
+									  double tolerance,
+									  GrayU8 mask,
+									  Point3D_F64 cameraPt, Point2D_F64 pixel ) {
+		// find the point in the camera's reference frame
+		SePointOps_F64.transform(cloud_to_camera, cloudPt, cameraPt);
 
-			// Make sure it's inside the image
-			if (pixel.x < -0.5 || pixel.y < -0.5 || px >= inverseDepth.width || py >= inverseDepth.height)
-				continue;
+		// If it's behind or on the camera, skip
+		if (cameraPt.z <= 0.0)
+			return;
 
-			// Make sure this pixel isn't already invalidated
-			if (mask.unsafe_get(px, py) != 0)
-				continue;
+		// Find the pixel it's projected onto
+		rectNorm_to_dispPixel.compute(cameraPt.x/cameraPt.z, cameraPt.y/cameraPt.z, pixel);
 
-			float inv = inverseDepth.unsafe_get(px, py);
-			if (inv < 0.0f)
-				continue;
+		// Discretize the coordinate so that it can be looked up in the image
+		// Rounding minimized the expected error and less sensitive to noise
+		int px = (int)(pixel.x + 0.5); // Round. Kinda. -0.9 will result in 0. All positive numbers are correct.
+		int py = (int)(pixel.y + 0.5); // The check below will fix this issue. Much faster than round()
 
-			// Compute the disparity this would have
-			double projInv = 1.0/cameraPt.z;
+		// Make sure it's inside the image
+		if (pixel.x < -0.5 || pixel.y < -0.5 || px >= inverseDepth.width || py >= inverseDepth.height)
+			return;
 
-			// See if the inverse depths are too similar and it should be masked out
-			if (Math.abs(inv - projInv) > tolerance)
-				continue;
+		// Make sure this pixel isn't already invalidated
+		if (mask.unsafe_get(px, py) != 0)
+			return;
 
-			mask.unsafe_set(px, py, 1);
-		}
+		float inv = inverseDepth.unsafe_get(px, py);
+		if (inv < 0.0f)
+			return;
+
+		// Compute the disparity this would have
+		double projInv = 1.0/cameraPt.z;
+
+		// See if the inverse depths are too similar and it should be masked out
+		if (Math.abs(inv - projInv) > tolerance)
+			return;
+
+		mask.unsafe_set(px, py, 1);
 	}
 
 	/**
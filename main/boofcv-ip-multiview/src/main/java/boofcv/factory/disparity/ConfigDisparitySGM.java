@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -77,6 +77,17 @@ public class ConfigDisparitySGM implements Configuration {
 	 * error to prefer a region with lots of pixels outside the image border.
 	 */
 	public BorderType border = BorderType.REFLECT;
+	/**
+	 * Upper limit on how much memory, in megabytes, the cost and aggregated cost tensors can use. Together they
+	 * need 4*width*height*disparityRange bytes. If the limit is exceeded then the image is processed in overlapping
+	 * horizontal strips. If &le; 0 then there is no limit.
+	 */
+	public double maxTensorMemoryMB = 0;
+	/**
+	 * Number of rows above and below each strip which are processed to provide context for non-horizontal paths.
+	 * Only used when {@link #maxTensorMemoryMB} requires the image be processed in strips.
+	 */
+	public int stripOverlap = 24;
 
 	public KernelRadius2D getBlockSize() {
 		if (useBlocks) {
@@ -102,6 +113,8 @@ public class ConfigDisparitySGM implements Configuration {
 		this.configHMI.setTo(src.configHMI);
 		this.configBlockMatch.setTo(src.configBlockMatch);
 		this.border = src.border;
+		this.maxTensorMemoryMB = src.maxTensorMemoryMB;
+		this.stripOverlap = src.stripOverlap;
 		return this;
 	}
 
@@ -152,6 +165,8 @@ public class ConfigDisparitySGM implements Configuration {
 			throw new IllegalArgumentException("Invalid value for penaltySmallChange.");
 		if (disparityMin < 0)
 			throw new IllegalArgumentException("Minimum disparity must be >= 0");
+		if (stripOverlap < 0)
+			throw new IllegalArgumentException("Strip overlap must be >= 0");
 		configBlockMatch.checkValidity();
 	}
 
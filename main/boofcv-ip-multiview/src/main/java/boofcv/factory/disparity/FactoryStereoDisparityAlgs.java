@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -74,6 +74,8 @@ public class FactoryStereoDisparityAlgs {
 		sgm.getAggregation().setPathsConsidered(config.paths.getCount());
 		sgm.getAggregation().setPenalty1(config.penaltySmallChange);
 		sgm.getAggregation().setPenalty2(config.penaltyLargeChange);
+		sgm.setMaxTensorBytes((long)(config.maxTensorMemoryMB*1024*1024));
+		sgm.setStripOverlap(config.stripOverlap);
 
 		return sgm;
 	}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,13 +18,16 @@
 
 package boofcv.alg.disparity.sgm;
 
+import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
+import boofcv.testing.BoofTesting;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public abstract class GenericSgmStereoDisparityChecks<T extends ImageGray<T>, C extends ImageBase<C>>
@@ -63,6 +66,42 @@ public abstract class GenericSgmStereoDisparityChecks<T extends ImageGray<T>, C
 		assertTrue(disparity.isSameShape(alg.getScore()));
 	}
 
+	/**
+	 * When only horizontal paths are considered each row is independent and processing the image in strips
+	 * should produce identical results to processing it all at once
+	 */
+	@Test void stripedMatchesFull() {
+		int rangeD = 10;
+		renderStereoRandom(0, 255, 4, rangeD);
+
+		SgmStereoDisparity<T, C> full = createAlgorithm();
+		SgmStereoDisparity<T, C> strips = createAlgorithm();
+		for (SgmStereoDisparity<T, C> alg : new SgmStereoDisparity[]{full, strips}) {
+			alg.getAggregation().setPathsConsidered(2);
+			alg.setDisparityMin(0);
+			alg.setDisparityRange(rangeD);
+		}
+		// Enough memory for 20 rows at a time, which is much less than the image's height
+		strips.setStripOverlap(4);
+		strips.setMaxTensorBytes(20L*4*width*rangeD);
+
+		full.process(left, right);
+		strips.process(left, right);
+		assertFalse(full.isStriped());
+		assertTrue(strips.isStriped());
+
+		full.saveScore();
+		strips.saveScore();
+		var subpixelFull = new GrayF32(1, 1);
+		var subpixelStrips = new GrayF32(1, 1);
+		full.subpixel(full.getDisparity(), subpixelFull);
+		strips.subpixel(strips.getDisparity(), subpixelStrips);
+
+		BoofTesting.assertEquals(full.getDisparity(), strips.getDisparity(), 0);
+		BoofTesting.assertEquals(full.getScore(), strips.getScore(), 1e-4);
+		BoofTesting.assertEquals(subpixelFull, subpixelStrips, 1e-4);
+	}
+
 	/**
 	 * Adjust the disparity search and see if it succeeds and fails when it should
 	 */
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.mvs;
+
+import boofcv.testing.BoofStandardJUnit;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.se.SpecialEuclideanOps_F64;
+import georegression.struct.shapes.Rectangle2D_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.ddogleg.struct.DogArray_I32;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestCloudVoxelIndex extends BoofStandardJUnit {
+	/**
+	 * Every point inside the frustum must be returned and points far away from it should not be
+	 */
+	@Test void selectInFrustum() {
+		List<Point3D_F64> cloud = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			cloud.add(new Point3D_F64(rand.nextGaussian()*4, rand.nextGaussian()*4, rand.nextGaussian()*4));
+		}
+
+		var alg = new CloudVoxelIndex();
+		alg.addAll(cloud, 0, 1000);
+		alg.addAll(cloud, 1000, cloud.size());
+		assertTrue(alg.getActualCellSize() > 0.0);
+
+		var bounds = new Rectangle2D_F64(-0.3, -0.2, 0.4, 0.25);
+		var found = new DogArray_I32();
+		var cameraPt = new Point3D_F64();
+
+		for (int trial = 0; trial < 20; trial++) {
+			Se3_F64 world_to_view = SpecialEuclideanOps_F64.eulerXyz(rand.nextGaussian(), rand.nextGaussian(),
+					rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian(), rand.nextGaussian(), null);
+			double depthMin = 0.5 + rand.nextDouble();
+			double depthMax = trial%2 == 0 ? depthMin + 3.0 : Double.POSITIVE_INFINITY;
+
+			alg.selectInFrustum(world_to_view, bounds, depthMin, depthMax, found);
+
+			var selected = new boolean[cloud.size()];
+			for (int i = 0; i < found.size; i++) {
+				assertFalse(selected[found.get(i)], "Selected twice");
+				selected[found.get(i)] = true;
+			}
+
+			for (int i = 0; i < cloud.size(); i++) {
+				SePointOps_F64.transform(world_to_view, cloud.get(i), cameraPt);
+				if (cameraPt.z < depthMin || cameraPt.z > depthMax)
+					continue;
+				double nx = cameraPt.x/cameraPt.z;
+				double ny = cameraPt.y/cameraPt.z;
+				if (nx < bounds.p0.x || nx > bounds.p1.x || ny < bounds.p0.y || ny > bounds.p1.y)
+					continue;
+				assertTrue(selected[i]);
+			}
+
+			// A narrow frustum should skip most of the cloud
+			assertTrue(found.size < cloud.size());
+		}
+	}
+
+	/**
+	 * Points with very large coordinates will have the same hash as points near the origin. Make sure they are
+	 * still found
+	 */
+	@Test void hashCollisions() {
+		List<Point3D_F64> cloud = new ArrayList<>();
+		cloud.add(new Point3D_F64(0.5, 0.5, 0.5));
+		cloud.add(new Point3D_F64(0.5 + (1 << 21), 0.5, 0.5));
+
+		var alg = new CloudVoxelIndex();
+		alg.cellSize = 1.0;
+		alg.addAll(cloud, 0, cloud.size());
+		assertEquals(1, alg.getCells().size);
+
+		// Look directly at the second point
+		var world_to_view = new Se3_F64();
+		world_to_view.T.setTo(-(1 << 21), 0, 2);
+		var found = new DogArray_I32();
+		alg.selectInFrustum(world_to_view, new Rectangle2D_F64(-0.5, -0.5, 0.5, 0.5), 0.1, 10, found);
+		assertTrue(found.indexOf(1) >= 0);
+	}
+
+	@Test void reset() {
+		List<Point3D_F64> cloud = new ArrayList<>();
+		cloud.add(new Point3D_F64(1, 2, 3));
+
+		var alg = new CloudVoxelIndex();
+		alg.addAll(cloud, 0, 1);
+		assertEquals(1, alg.getCells().size);
+		alg.reset();
+		assertEquals(0, alg.getCells().size);
+		assertEquals(0.0, alg.getActualCellSize());
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,8 +18,10 @@
 
 package boofcv.alg.mvs;
 
+import boofcv.BoofTesting;
 import boofcv.alg.distort.pinhole.LensDistortionPinhole;
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.misc.ImageStatistics;
 import boofcv.struct.calib.CameraPinhole;
 import boofcv.struct.distort.PixelTransform;
 import boofcv.struct.distort.Point2Transform2_F64;
@@ -37,6 +39,7 @@ import org.ejml.UtilEjml;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestCreateCloudFromDisparityImages extends BoofStandardJUnit {
 
@@ -132,4 +135,38 @@ public class TestCreateCloudFromDisparityImages extends BoofStandardJUnit {
 		assertEquals(2, alg.addInverseDepth(inverseDepth, world_to_view, n_to_p, p_to_n));
 		assertEquals(width*height + 1, alg.cloud.size);
 	}
+
+	/**
+	 * Compare the duplicate mask against checking every point in the cloud as views are added from
+	 * different locations
+	 */
+	@Test void compareToBruteForceMask() {
+		var alg = new CreateCloudFromDisparityImages();
+		alg.reset();
+		alg.disparitySimilarTol = 0.05;
+
+		var inverseDepth = new GrayF32(width, height);
+		var expected = new GrayU8(width, height);
+
+		for (int view = 0; view < 5; view++) {
+			Se3_F64 world_to_view = SpecialEuclideanOps_F64.eulerXyz(0.1*view, 0.05*view, -0.02*view,
+					0.02*view, -0.03*view, 0.01, null);
+
+			// Points far away are also included since they test the upper bound on depth
+			ImageMiscOps.fillUniform(inverseDepth, rand, 0.0f, 0.5f);
+			inverseDepth.set(5, 6, -1);
+
+			ImageMiscOps.fill(expected, 0);
+			MultiViewStereoOps.maskOutPointsInCloud(alg.cloud.toList(), inverseDepth, world_to_view,
+					n_to_p, alg.disparitySimilarTol, expected);
+
+			alg.addInverseDepth(inverseDepth, world_to_view, n_to_p, p_to_n);
+
+			// Make sure the test is meaningful
+			if (view > 0)
+				assertTrue(ImageStatistics.sum(expected) > 0);
+
+			BoofTesting.assertEquals(expected, alg.duplicateMask, 0);
+		}
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,9 +18,11 @@
 
 package boofcv.alg.mvs;
 
+import boofcv.BoofTesting;
 import boofcv.abst.geo.bundle.SceneObservations;
 import boofcv.abst.geo.bundle.SceneStructureMetric;
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.ConcurrencyContext;
 import boofcv.factory.disparity.ConfigDisparityBMBest5;
 import boofcv.factory.disparity.DisparityError;
 import boofcv.factory.disparity.FactoryStereoDisparity;
@@ -202,6 +204,70 @@ public class TestMultiBaselineStereoIndependent extends BoofStandardJUnit {
 		assertTrue(alg.process(scene, observations, 0, DogArray_I32.array(1, 2), sbaIndexToViewID::get));
 	}
 
+	/**
+	 * Processing stereo pairs concurrently should produce identical results to processing them one at a time
+	 */
+	@Test void concurrent() {
+		var scene = new SceneStructureMetric(true);
+		scene.initialize(1, 5, 0);
+		scene.setCamera(0, true, new CameraPinholeBrown().fsetK(30, 30, 0, 25, 25, 50, 50));
+		for (int i = 0; i < 5; i++) {
+			scene.setView(i, 0, true, eulerXyz(0.1*i, 0.01*i, 0, 0, 0, 0, null));
+		}
+
+		var observations = new SceneObservations();
+		observations.initialize(scene.views.size);
+
+		List<GrayF32> images = new ArrayList<>();
+		TIntObjectMap<String> sbaIndexToViewID = new TIntObjectHashMap<>();
+		for (int i = 0; i < 5; i++) {
+			var image = new GrayF32(50, 50);
+			ImageMiscOps.fillUniform(image, rand, 0, 255);
+			images.add(image);
+			sbaIndexToViewID.put(i, i + "");
+		}
+
+		var configDisp = new ConfigDisparityBMBest5();
+		configDisp.errorType = DisparityError.SAD;
+		configDisp.disparityRange = 10;
+
+		List<GrayF32> expected = new ArrayList<>();
+		List<GrayF32> found = new ArrayList<>();
+
+		var algExpected = new MultiBaselineStereoIndependent<>(new MockLookUp(images), ImageType.SB_F32);
+		algExpected.stereoDisparity = FactoryStereoDisparity.blockMatchBest5(configDisp, GrayF32.class, GrayF32.class);
+		algExpected.disparitySmoother = FactoryStereoDisparity.removeSpeckle(null, GrayF32.class);
+		algExpected.setListener(( left, right, rectLeft, rectRight, disparity, param, rect ) ->
+				expected.add(disparity.clone()));
+
+		var algFound = new MultiBaselineStereoIndependent<>(new MockLookUp(images), ImageType.SB_F32);
+		algFound.stereoDisparity = FactoryStereoDisparity.blockMatchBest5(configDisp, GrayF32.class, GrayF32.class);
+		algFound.disparitySmoother = FactoryStereoDisparity.removeSpeckle(null, GrayF32.class);
+		algFound.setFactoryStereoDisparity(() ->
+				FactoryStereoDisparity.blockMatchBest5(configDisp, GrayF32.class, GrayF32.class));
+		algFound.setFactoryDisparitySmoother(() -> FactoryStereoDisparity.removeSpeckle(null, GrayF32.class));
+		algFound.setListener(( left, right, rectLeft, rectRight, disparity, param, rect ) ->
+				found.add(disparity.clone()));
+		algFound.setConcurrent(true);
+		// Make sure multiple batches are processed
+		algFound.setMaxPairsInMemory(3);
+
+		DogArray_I32 pairs = DogArray_I32.array(1, 2, 3, 4);
+		boolean successExpected = algExpected.process(scene, observations, 0, pairs, sbaIndexToViewID::get);
+		boolean successFound;
+		try (var context = ConcurrencyContext.forkJoin(3)) {
+			successFound = context.call(() -> algFound.process(scene, observations, 0, pairs, sbaIndexToViewID::get));
+		}
+
+		assertEquals(successExpected, successFound);
+		assertEquals(4, expected.size());
+		assertEquals(expected.size(), found.size());
+		for (int i = 0; i < expected.size(); i++) {
+			BoofTesting.assertEquals(expected.get(i), found.get(i), 0.0);
+		}
+		BoofTesting.assertEquals(algExpected.getFusedInvDepth(), algFound.getFusedInvDepth(), 0.0);
+	}
+
 	class MockLookUp implements LookUpImages {
 		List<GrayF32> images;
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -25,6 +25,7 @@ import boofcv.struct.image.ImageType;
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 import static boofcv.generate.AutoTypeImage.*;
 
@@ -365,11 +366,20 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 					prototype = "( " + variableType + " " + varName + " , " + inputName + " input , " + outputName + " output )";
 				}
 
+				// Only float images can be overridden
+				String override = "";
+				if (family == ImageType.Family.GRAY && input == F32 && output == F32 && template.isImageFirst()) {
+					override = "\t\tif (BOverridePixelMath.invokeNativeScalar(BOverridePixelMath.Operation." +
+							funcName.toUpperCase(Locale.ENGLISH) + ", input, " + varName + ", output))\n" +
+							"\t\t\treturn;\n\n";
+				}
+
 				out.println(template.getJavaDoc());
 				out.println("\tpublic static void " + funcName + prototype + " {\n" +
 						"\n" +
 						"\t\t" + reshape + "\n" +
 						"\n" +
+						override +
 						"\t\tint columns = " + columns + ";\n" +
 						"\t\tint N = input.width*input.height;\n" +
 						"\t\tif( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {\n" +
@@ -425,6 +435,17 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 				"\t}\n\n");
 	}
 
+	/**
+	 * Code which lets the two image operation be overridden. Only float images can be overridden.
+	 */
+	private String overrideTwoImages( String operation, AutoTypeImage typeIn ) {
+		if (typeIn != F32)
+			return "";
+		return "\t\tif (BOverridePixelMath.invokeNativeTwoImages(BOverridePixelMath.Operation." + operation +
+				", imgA, imgB, output))\n" +
+				"\t\t\treturn;\n\n";
+	}
+
 	public void printAddTwoImages( AutoTypeImage typeIn, AutoTypeImage typeOut ) {
 		out.print("\t/**\n" +
 				"\t * <p>\n" +
@@ -439,6 +460,7 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 				"\t\tInputSanityCheck.checkSameShape(imgA,imgB);\n" +
 				"\t\toutput.reshape(imgA.width,imgA.height);\n" +
 				"\n" +
+				overrideTwoImages("PLUS", typeIn) +
 				"\t\tint N = imgA.width*imgA.height;\n" +
 				"\t\tif( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {\n" +
 				"\t\t\tImplPixelMath_MT.add(imgA, imgB, output);\n" +
@@ -463,6 +485,7 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 				"\t\tInputSanityCheck.checkSameShape(imgA,imgB);\n" +
 				"\t\toutput.reshape(imgA.width,imgA.height);\n" +
 				"\n" +
+				overrideTwoImages("MINUS", typeIn) +
 				"\t\tint N = imgA.width*imgA.height;\n" +
 				"\t\tif( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {\n" +
 				"\t\t\tImplPixelMath_MT.subtract(imgA, imgB, output);\n" +
@@ -486,6 +509,7 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 				"\t\tInputSanityCheck.checkSameShape(imgA,imgB);\n" +
 				"\t\toutput.reshape(imgA.width,imgA.height);\n" +
 				"\n" +
+				overrideTwoImages("MULTIPLY", typeIn) +
 				"\t\tint N = imgA.width*imgA.height;\n" +
 				"\t\tif( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {\n" +
 				"\t\t\tImplPixelMath_MT.multiply(imgA, imgB, output);\n" +
@@ -510,6 +534,7 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 				"\t\tInputSanityCheck.checkSameShape(imgA,imgB);\n" +
 				"\t\toutput.reshape(imgA.width,imgA.height);\n" +
 				"\n" +
+				overrideTwoImages("DIVIDE", typeIn) +
 				"\t\tint N = imgA.width*imgA.height;\n" +
 				"\t\tif( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {\n" +
 				"\t\t\tImplPixelMath_MT.divide(imgA,imgB,output);\n" +
@@ -0,0 +1,429 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.filter;
+
+import boofcv.alg.color.ColorHsv;
+import boofcv.alg.color.ColorRgb;
+import boofcv.alg.color.ColorYuv;
+import boofcv.alg.filter.binary.GThresholdImageOps;
+import boofcv.alg.filter.derivative.DerivativeType;
+import boofcv.alg.filter.derivative.GImageDerivativeOps;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.GPixelMath;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.ConcurrencyContext;
+import boofcv.core.image.GConvertImage;
+import boofcv.factory.filter.blur.FactoryBlurFilter;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.*;
+import lombok.Getter;
+import pabeles.concurrency.GrowArray;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * Applies a chain of filters to an image one tile at a time. Normally each operation in a front end, e.g.
+ * convert, blur, then compute the derivative, is a separate pass over the entire image which reads and writes a
+ * full sized intermediate image. For large images memory bandwidth then dominates. Here every filter in the chain
+ * is applied to a small tile before moving on to the next tile, so the intermediate images are small enough to
+ * stay in the CPU's cache. Tiles are processed concurrently if {@link BoofConcurrency#isUseConcurrent()} is true.
+ * </p>
+ *
+ * <p>
+ * Each tile is expanded by a halo that's the sum of every filter's radius. Pixels along the edge of the
+ * expanded tile are computed incorrectly since the filters treat them as the image border, but the errors
+ * can't spread further than the halo and are discarded. Along the actual image border the filters' own border
+ * handling is used, so the output is identical to applying the filters one after another to the whole image.
+ * </p>
+ *
+ * <pre>
+ * TiledFilterPipeline&lt;GrayU8, GrayS16&gt; pipeline = TiledFilterPipeline.begin(ImageType.SB_U8)
+ *         .blurGaussian(-1, 2)
+ *         .derivative(DerivativeType.SOBEL, true)
+ *         .build();
+ * pipeline.process(gray, derivX);
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings({"unchecked", "rawtypes", "NullAway.Init"})
+public class TiledFilterPipeline<Input extends ImageBase<Input>, Output extends ImageBase<Output>>
+		implements FilterImageInterface<Input, Output> {
+
+	// Used inside of each tile so that filters don't try to process the tiles concurrently too
+	private static final ConcurrencyContext SINGLE_THREAD = ConcurrencyContext.singleThread();
+
+	/** The filters which are applied, in order */
+	final List<Stage> stages;
+
+	/** Type of input image */
+	@Getter final ImageType<Input> inputType;
+
+	/** Type of output image */
+	@Getter final ImageType<Output> outputType;
+
+	/** Number of pixels each tile is expanded by so that the tile's interior is computed correctly */
+	@Getter final int halo;
+
+	/** Size of tiles in the output image */
+	@Getter int tileWidth = 128, tileHeight = 128;
+
+	// Filters and intermediate images for each thread
+	private final GrowArray<Worker> workers;
+
+	// Image being processed
+	private Input input;
+	private Output output;
+
+	TiledFilterPipeline( ImageType<Input> inputType, List<Stage> stages ) {
+		if (stages.isEmpty())
+			throw new IllegalArgumentException("There must be at least one filter");
+		this.inputType = inputType;
+		this.stages = Collections.unmodifiableList(new ArrayList<>(stages));
+		this.outputType = stages.get(stages.size() - 1).outputType;
+		int halo = 0;
+		for (Stage s : stages) {
+			halo += s.radius;
+		}
+		this.halo = halo;
+		this.workers = new GrowArray<>(Worker::new);
+	}
+
+	/**
+	 * Starts building a new pipeline
+	 *
+	 * @param inputType Type of input image
+	 */
+	public static <T extends ImageBase<T>> Builder<T, T> begin( ImageType<T> inputType ) {
+		return new Builder<>(inputType, inputType, new ArrayList<>());
+	}
+
+	/**
+	 * Specifies the size of the tiles. Smaller tiles use less memory, but more time is spent processing the halo.
+	 */
+	public void setTileSize( int width, int height ) {
+		if (width <= 0 || height <= 0)
+			throw new IllegalArgumentException("Tile size must be positive");
+		this.tileWidth = width;
+		this.tileHeight = height;
+	}
+
+	@Override
+	public void process( Input input, Output output ) {
+		output.reshape(input.width, input.height);
+		this.input = input;
+		this.output = output;
+
+		int tilesX = (input.width + tileWidth - 1)/tileWidth;
+		int tilesY = (input.height + tileHeight - 1)/tileHeight;
+		int numTiles = tilesX*tilesY;
+
+		if (BoofConcurrency.isUseConcurrent() && input.width*input.height >= BoofConcurrency.getSmallImage()) {
+			BoofConcurrency.loopBlocks(0, numTiles, 1, workers, ( worker, idx0, idx1 ) -> {
+				try (var ignore = SINGLE_THREAD.open()) {
+					for (int tile = idx0; tile < idx1; tile++) {
+						worker.process(tile%tilesX, tile/tilesX);
+					}
+				}
+			});
+		} else {
+			workers.reset();
+			Worker worker = workers.grow();
+			for (int tile = 0; tile < numTiles; tile++) {
+				worker.process(tile%tilesX, tile/tilesX);
+			}
+		}
+	}
+
+	@Override
+	public int getBorderX() {
+		return 0;
+	}
+
+	@Override
+	public int getBorderY() {
+		return 0;
+	}
+
+	/**
+	 * Filters and intermediate images used to process a tile. Each thread has its own.
+	 */
+	private class Worker {
+		final List<FilterImageInterface> filters = new ArrayList<>();
+		final List<ImageBase> images = new ArrayList<>();
+		Input subInput = inputType.createImage(1, 1);
+
+		Worker() {
+			for (Stage s : stages) {
+				filters.add((FilterImageInterface)s.factory.get());
+				images.add(s.outputType.createImage(1, 1));
+			}
+		}
+
+		void process( int tileCol, int tileRow ) {
+			// Region in the output image
+			int x0 = tileCol*tileWidth;
+			int y0 = tileRow*tileHeight;
+			int x1 = Math.min(input.width, x0 + tileWidth);
+			int y1 = Math.min(input.height, y0 + tileHeight);
+
+			// Expanded region which includes the halo
+			int ex0 = Math.max(0, x0 - halo);
+			int ey0 = Math.max(0, y0 - halo);
+			int ex1 = Math.min(input.width, x1 + halo);
+			int ey1 = Math.min(input.height, y1 + halo);
+
+			ImageBase previous = input.subimage(ex0, ey0, ex1, ey1, subInput);
+			for (int i = 0; i < filters.size(); i++) {
+				ImageBase image = images.get(i);
+				image.reshape(ex1 - ex0, ey1 - ey0);
+				filters.get(i).process(previous, image);
+				previous = image;
+			}
+
+			GImageMiscOps.copy(x0 - ex0, y0 - ey0, x0, y0, x1 - x0, y1 - y0, previous, output);
+		}
+	}
+
+	/**
+	 * A filter in the pipeline
+	 */
+	static class Stage {
+		/** Creates a new instance of the filter. Each thread has its own instance */
+		final Supplier<FilterImageInterface<?, ?>> factory;
+		/** How far away a pixel can be and still influence the output */
+		final int radius;
+		/** Type of image the filter outputs */
+		final ImageType<?> outputType;
+
+		Stage( Supplier<FilterImageInterface<?, ?>> factory, int radius, ImageType<?> outputType ) {
+			if (radius < 0)
+				throw new IllegalArgumentException("Radius can't be negative");
+			this.factory = factory;
+			this.radius = radius;
+			this.outputType = outputType;
+		}
+	}
+
+	/**
+	 * Used to create a pipeline by adding filters one at a time
+	 *
+	 * @param <In> Type of image which is input into the pipeline
+	 * @param <Cur> Type of image output by the last filter
+	 */
+	public static class Builder<In extends ImageBase<In>, Cur extends ImageBase<Cur>> {
+		final ImageType<In> inputType;
+		final ImageType<Cur> currentType;
+		final List<Stage> stages;
+
+		Builder( ImageType<In> inputType, ImageType<Cur> currentType, List<Stage> stages ) {
+			this.inputType = inputType;
+			this.currentType = currentType;
+			this.stages = stages;
+		}
+
+		/**
+		 * Adds a filter to the pipeline. The factory must create a new instance each time it's called since
+		 * each thread gets its own.
+		 *
+		 * @param factory Creates the filter
+		 * @param radius How far away an input pixel can be and still influence an output pixel. Includes how far
+		 * errors from the filter's border handling can spread.
+		 * @param outputType Type of image output by the filter
+		 */
+		public <O extends ImageBase<O>> Builder<In, O> then( Supplier<FilterImageInterface<Cur, O>> factory,
+															 int radius, ImageType<O> outputType ) {
+			stages.add(new Stage((Supplier)factory, radius, outputType));
+			return new Builder<>(inputType, outputType, stages);
+		}
+
+		/**
+		 * Converts the image into a different data type. See {@link GConvertImage#convert(ImageBase, ImageBase)}.
+		 */
+		public <O extends ImageBase<O>> Builder<In, O> convert( ImageType<O> outputType ) {
+			return then(() -> new Operation<>(currentType, outputType, GConvertImage::convert), 0, outputType);
+		}
+
+		/**
+		 * Converts a color image in RGB into gray scale using a weighted average of the bands. See
+		 * {@link ColorRgb#rgbToGray_Weighted(ImageMultiBand, ImageGray)}.
+		 */
+		public <G extends ImageGray<G>> Builder<In, G> rgbToGray() {
+			if (currentType.getFamily() == ImageType.Family.GRAY)
+				throw new IllegalArgumentException("Image must have multiple bands");
+			ImageType<G> grayType = ImageType.single(currentType.getDataType());
+			return then(() -> new Operation<>(currentType, grayType,
+					( input, output ) -> ColorRgb.rgbToGray_Weighted((ImageMultiBand)input, output)), 0, grayType);
+		}
+
+		/**
+		 * Converts a {@link Planar} image from RGB into HSV. See {@link ColorHsv#rgbToHsv(Planar, Planar)}.
+		 */
+		public Builder<In, Cur> rgbToHsv() {
+			return planarColor(( input, output ) -> ColorHsv.rgbToHsv((Planar)input, (Planar)output));
+		}
+
+		/**
+		 * Converts a {@link Planar} image from HSV into RGB. See {@link ColorHsv#hsvToRgb(Planar, Planar)}.
+		 */
+		public Builder<In, Cur> hsvToRgb() {
+			return planarColor(( input, output ) -> ColorHsv.hsvToRgb((Planar)input, (Planar)output));
+		}
+
+		/**
+		 * Converts a {@link Planar} image from RGB into YUV. See {@link ColorYuv#rgbToYuv(Planar, Planar)}.
+		 */
+		public Builder<In, Cur> rgbToYuv() {
+			return planarColor(( input, output ) -> ColorYuv.rgbToYuv((Planar)input, (Planar)output));
+		}
+
+		/**
+		 * Converts a {@link Planar} image from YUV into RGB. See {@link ColorYuv#yuvToRgb(Planar, Planar)}.
+		 */
+		public Builder<In, Cur> yuvToRgb() {
+			return planarColor(( input, output ) -> ColorYuv.yuvToRgb((Planar)input, (Planar)output));
+		}
+
+		/**
+		 * Adds a color space conversion between two {@link Planar} images with 3 bands
+		 */
+		private Builder<In, Cur> planarColor( ImageOperation operation ) {
+			if (currentType.getFamily() != ImageType.Family.PLANAR)
+				throw new IllegalArgumentException("Image must be Planar");
+			return then(() -> new Operation<>(currentType, currentType, operation), 0, currentType);
+		}
+
+		/**
+		 * Applies a Gaussian blur. See {@link FactoryBlurFilter#gaussian(ImageType, double, int)}.
+		 */
+		public Builder<In, Cur> blurGaussian( double sigma, int radius ) {
+			if (radius <= 0)
+				radius = FactoryKernelGaussian.radiusForSigma(sigma, 0);
+			int _radius = radius;
+			return then(() -> FactoryBlurFilter.gaussian(currentType, sigma, _radius), radius, currentType);
+		}
+
+		/**
+		 * Applies a mean blur. See {@link FactoryBlurFilter#mean(ImageType, int)}.
+		 */
+		public Builder<In, Cur> blurMean( int radius ) {
+			return then(() -> FactoryBlurFilter.mean(currentType, radius), radius, currentType);
+		}
+
+		/**
+		 * Computes the image derivative along a single axis with an extended border. See
+		 * {@link GImageDerivativeOps#gradient}.
+		 *
+		 * @param type Which derivative operator to use
+		 * @param xAxis true for the x-axis derivative and false for the y-axis
+		 */
+		public <D extends ImageGray<D>> Builder<In, D> derivative( DerivativeType type, boolean xAxis ) {
+			ImageType<D> derivType = GImageDerivativeOps.getDerivativeType((ImageType)currentType);
+			return then(() -> {
+				// the derivative along the other axis is computed too and stored here
+				D other = derivType.createImage(1, 1);
+				return new Operation<>(currentType, derivType, ( input, output ) -> {
+					other.reshape(output.width, output.height);
+					if (xAxis)
+						GImageDerivativeOps.gradient(type, (ImageGray)input, output, other, BorderType.EXTENDED);
+					else
+						GImageDerivativeOps.gradient(type, (ImageGray)input, other, output, BorderType.EXTENDED);
+				});
+			}, 1, derivType);
+		}
+
+		/**
+		 * Multiplies each pixel by a scalar. See {@link GPixelMath#multiply(ImageBase, double, ImageBase)}.
+		 */
+		public Builder<In, Cur> multiply( double value ) {
+			return then(() -> new Operation<>(currentType, currentType,
+					( input, output ) -> GPixelMath.multiply(input, value, output)), 0, currentType);
+		}
+
+		/**
+		 * Adds a scalar to each pixel. See {@link GPixelMath#plus(ImageBase, double, ImageBase)}.
+		 */
+		public Builder<In, Cur> plus( double value ) {
+			return then(() -> new Operation<>(currentType, currentType,
+					( input, output ) -> GPixelMath.plus(input, value, output)), 0, currentType);
+		}
+
+		/**
+		 * Absolute value of each pixel. See {@link GPixelMath#abs(ImageBase, ImageBase)}.
+		 */
+		public Builder<In, Cur> abs() {
+			return then(() -> new Operation<>(currentType, currentType, GPixelMath::abs), 0, currentType);
+		}
+
+		/**
+		 * Converts the image into a binary image using a global threshold. See
+		 * {@link GThresholdImageOps#threshold(ImageGray, GrayU8, double, boolean)}.
+		 */
+		public Builder<In, GrayU8> threshold( double threshold, boolean down ) {
+			return then(() -> new Operation<>(currentType, ImageType.SB_U8,
+							( input, output ) -> GThresholdImageOps.threshold((ImageGray)input, output, threshold, down)),
+					0, ImageType.SB_U8);
+		}
+
+		/**
+		 * Creates the pipeline
+		 */
+		public TiledFilterPipeline<In, Cur> build() {
+			return new TiledFilterPipeline<>(inputType, stages);
+		}
+	}
+
+	/**
+	 * Function which processes an image
+	 */
+	public interface ImageOperation<I extends ImageBase<I>, O extends ImageBase<O>> {
+		void process( I input, O output );
+	}
+
+	/**
+	 * Wraps a function so that it can be used as a {@link FilterImageInterface}
+	 */
+	public static class Operation<I extends ImageBase<I>, O extends ImageBase<O>>
+			implements FilterImageInterface<I, O> {
+		final ImageType<I> inputType;
+		final ImageType<O> outputType;
+		final ImageOperation<I, O> operation;
+
+		public Operation( ImageType<I> inputType, ImageType<O> outputType, ImageOperation<I, O> operation ) {
+			this.inputType = inputType;
+			this.outputType = outputType;
+			this.operation = operation;
+		}
+
+		@Override public void process( I input, O output ) {operation.process(input, output);}
+
+		@Override public int getBorderX() {return 0;}
+
+		@Override public int getBorderY() {return 0;}
+
+		@Override public ImageType<I> getInputType() {return inputType;}
+
+		@Override public ImageType<O> getOutputType() {return outputType;}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,6 +20,8 @@ package boofcv.abst.filter.binary;
 
 import boofcv.alg.filter.binary.ContourPacked;
 import boofcv.alg.filter.binary.LinearContourLabelChang2004;
+import boofcv.alg.filter.binary.LinearContourLabelChang2004_MT;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.ConfigLength;
 import boofcv.struct.ConnectRule;
 import boofcv.struct.image.GrayS32;
@@ -38,7 +40,8 @@ import java.util.List;
  */
 public class BinaryLabelContourFinderChang2004 implements BinaryLabelContourFinder {
 
-	LinearContourLabelChang2004 finder = new LinearContourLabelChang2004(ConnectRule.FOUR);
+	LinearContourLabelChang2004 finder = BoofConcurrency.isUseConcurrent() ?
+			new LinearContourLabelChang2004_MT(ConnectRule.FOUR) : new LinearContourLabelChang2004(ConnectRule.FOUR);
 
 	@Override
 	public void process( GrayU8 binary, GrayS32 labeled ) {
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,6 +20,8 @@ package boofcv.abst.transform.fft;
 
 import boofcv.struct.image.ImageBase;
 
+import java.util.List;
+
 /**
  * <p>
  * High level interface for applying the forward and inverse Discrete Fourier Transform to an image. Images of any
@@ -41,6 +43,11 @@ import boofcv.struct.image.ImageBase;
  * {@link #setModifyInputs(boolean)}.
  * </p>
  *
+ * <p>
+ * BATCH: Many images can be transformed with a single call using {@link #forward(List, List)} and
+ * {@link #inverse(List, List)}. Implementations can process the images concurrently.
+ * </p>
+ *
  * @author Peter Abeles
  */
 public interface DiscreteFourierTransform<I extends ImageBase<I>, T extends ImageBase> {
@@ -61,6 +68,34 @@ public interface DiscreteFourierTransform<I extends ImageBase<I>, T extends Imag
 	 */
 	public void inverse( T transform, I image );
 
+	/**
+	 * Applies the forward transform to every image in the list. Images in the batch must all be the same size.
+	 *
+	 * @param images (Input) Input images. Default: Not modified.
+	 * @param transforms (Output) Fourier transform of each image. Modified.
+	 */
+	default void forward( List<I> images, List<T> transforms ) {
+		if (images.size() != transforms.size())
+			throw new IllegalArgumentException("Number of images and transforms must be the same");
+		for (int i = 0; i < images.size(); i++) {
+			forward(images.get(i), transforms.get(i));
+		}
+	}
+
+	/**
+	 * Applies the inverse transform to every transform in the list. Images in the batch must all be the same size.
+	 *
+	 * @param transforms (Input) Fourier transforms. Default: Not modified.
+	 * @param images (Output) Reconstructed images. Modified.
+	 */
+	default void inverse( List<T> transforms, List<I> images ) {
+		if (images.size() != transforms.size())
+			throw new IllegalArgumentException("Number of images and transforms must be the same");
+		for (int i = 0; i < images.size(); i++) {
+			inverse(transforms.get(i), images.get(i));
+		}
+	}
+
 	/**
 	 * This function can toggle the internal implementations ability to modify the input image or input transform.
 	 *
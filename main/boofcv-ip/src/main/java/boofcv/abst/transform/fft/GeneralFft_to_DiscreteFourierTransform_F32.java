@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,11 +20,19 @@ package boofcv.abst.transform.fft;
 
 import boofcv.alg.transform.fft.DiscreteFourierTransformOps;
 import boofcv.alg.transform.fft.GeneralPurposeFFT_F32_2D;
+import boofcv.alg.transform.fft.GeneralPurposeFFT_F32_2D_MT;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.InterleavedF32;
+import pabeles.concurrency.GrowArray;
+
+import java.util.List;
 
 /**
- * Wrapper around {@link GeneralPurposeFFT_F32_2D} which implements {@link DiscreteFourierTransform}
+ * Wrapper around {@link GeneralPurposeFFT_F32_2D} which implements {@link DiscreteFourierTransform}. If concurrency
+ * is turned on then large images are transformed using {@link GeneralPurposeFFT_F32_2D_MT} and batches of
+ * images are split between threads, with each thread transforming entire images.
  *
  * @author Peter Abeles
  */
@@ -44,6 +52,10 @@ public class GeneralFft_to_DiscreteFourierTransform_F32
 	// if true then it can modify the input images
 	private boolean modifyInputs = false;
 
+	// Used to transform images in a batch concurrently. One for each thread
+	private final GrowArray<GeneralFft_to_DiscreteFourierTransform_F32> workers =
+			new GrowArray<>(GeneralFft_to_DiscreteFourierTransform_F32::new);
+
 	@Override
 	public void forward( GrayF32 image, InterleavedF32 transform ) {
 		DiscreteFourierTransformOps.checkImageArguments(image, transform);
@@ -86,6 +98,78 @@ public class GeneralFft_to_DiscreteFourierTransform_F32
 		}
 	}
 
+	@Override
+	public void forward( List<GrayF32> images, List<InterleavedF32> transforms ) {
+		if (!checkBatch(images, transforms)) {
+			for (int i = 0; i < images.size(); i++) {
+				forward(images.get(i), transforms.get(i));
+			}
+			return;
+		}
+
+		BoofConcurrency.loopBlocks(0, images.size(), workers, ( worker, idx0, idx1 ) -> {
+			worker.copyConcurrent(this);
+			for (int i = idx0; i < idx1; i++) {
+				worker.forward(images.get(i), transforms.get(i));
+			}
+		});
+	}
+
+	@Override
+	public void inverse( List<InterleavedF32> transforms, List<GrayF32> images ) {
+		if (!checkBatch(images, transforms)) {
+			for (int i = 0; i < images.size(); i++) {
+				inverse(transforms.get(i), images.get(i));
+			}
+			return;
+		}
+
+		BoofConcurrency.loopBlocks(0, images.size(), workers, ( worker, idx0, idx1 ) -> {
+			worker.copyConcurrent(this);
+			for (int i = idx0; i < idx1; i++) {
+				worker.inverse(transforms.get(i), images.get(i));
+			}
+		});
+	}
+
+	/**
+	 * Makes sure every image in the batch is the same size and declares the algorithm
+	 *
+	 * @return true if the batch should be processed concurrently
+	 */
+	private boolean checkBatch( List<GrayF32> images, List<InterleavedF32> transforms ) {
+		if (images.size() != transforms.size())
+			throw new IllegalArgumentException("Number of images and transforms must be the same");
+		if (images.isEmpty())
+			return false;
+
+		GrayF32 first = images.get(0);
+		for (int i = 0; i < images.size(); i++) {
+			checkBatchShape(first, images.get(i));
+			checkBatchShape(first, transforms.get(i));
+		}
+		checkDeclareAlg(first);
+		return images.size() > 1 && BoofConcurrency.isUseConcurrent();
+	}
+
+	private static void checkBatchShape( GrayF32 first, ImageBase<?> image ) {
+		if (image.width != first.width || image.height != first.height)
+			throw new IllegalArgumentException("All images in a batch must be the same size");
+	}
+
+	/**
+	 * Configures this instance so that it can process images in a different thread than 'src'. The twiddle
+	 * factor tables are shared and the copy always runs in a single thread.
+	 */
+	private void copyConcurrent( GeneralFft_to_DiscreteFourierTransform_F32 src ) {
+		modifyInputs = src.modifyInputs;
+		if (prevWidth != src.prevWidth || prevHeight != src.prevHeight) {
+			prevWidth = src.prevWidth;
+			prevHeight = src.prevHeight;
+			alg = src.alg.copyConcurrent();
+		}
+	}
+
 	/**
 	 * Declare the algorithm if the image size has changed
 	 */
@@ -93,7 +177,10 @@ public class GeneralFft_to_DiscreteFourierTransform_F32
 		if (prevWidth != image.width || prevHeight != image.height) {
 			prevWidth = image.width;
 			prevHeight = image.height;
-			alg = new GeneralPurposeFFT_F32_2D(image.height, image.width);
+			if (BoofConcurrency.isUseConcurrent() && image.width*image.height >= BoofConcurrency.getSmallImage())
+				alg = new GeneralPurposeFFT_F32_2D_MT(image.height, image.width);
+			else
+				alg = new GeneralPurposeFFT_F32_2D(image.height, image.width);
 		}
 	}
 
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.color;
+
+import boofcv.override.BOverrideClass;
+import boofcv.override.BOverrideManager;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.ImageMultiBand;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Override for {@link ColorRgb}
+ *
+ * @author Peter Abeles
+ */
+public class BOverrideColorRgb extends BOverrideClass {
+
+	static {
+		BOverrideManager.register(BOverrideColorRgb.class);
+	}
+
+	public static @Nullable RgbToGray rgbToGray;
+
+	public interface RgbToGray {
+		void rgbToGray_Weighted( ImageMultiBand rgb, ImageGray gray );
+
+		/** Returns true if the inputs can be processed. Checked before rgbToGray_Weighted() is called. */
+		default boolean supports( ImageMultiBand rgb, ImageGray gray ) {
+			return true;
+		}
+	}
+
+	public static boolean invokeNativeRgbToGray( ImageMultiBand rgb, ImageGray gray ) {
+		boolean processed = false;
+		if (BOverrideColorRgb.rgbToGray != null && BOverrideColorRgb.rgbToGray.supports(rgb, gray)) {
+			try {
+				BOverrideColorRgb.rgbToGray.rgbToGray_Weighted(rgb, gray);
+				processed = true;
+			} catch (RuntimeException ignore) {}
+		}
+		return processed;
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.color;
+
+import boofcv.override.BOverrideClass;
+import boofcv.override.BOverrideManager;
+import boofcv.struct.image.Planar;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Override for {@link ColorYuv}
+ *
+ * @author Peter Abeles
+ */
+public class BOverrideColorYuv extends BOverrideClass {
+
+	static {
+		BOverrideManager.register(BOverrideColorYuv.class);
+	}
+
+	public static @Nullable YuvToRgb yuvToRgb;
+	public static @Nullable RgbToYuv rgbToYuv;
+
+	public interface YuvToRgb {
+		void yuvToRgb( Planar yuv, Planar rgb );
+
+		/** Returns true if the inputs can be processed. Checked before yuvToRgb() is called. */
+		default boolean supports( Planar yuv, Planar rgb ) {
+			return true;
+		}
+	}
+
+	public interface RgbToYuv {
+		void rgbToYuv( Planar rgb, Planar yuv );
+
+		/** Returns true if the inputs can be processed. Checked before rgbToYuv() is called. */
+		default boolean supports( Planar rgb, Planar yuv ) {
+			return true;
+		}
+	}
+
+	public static boolean invokeNativeYuvToRgb( Planar yuv, Planar rgb ) {
+		boolean processed = false;
+		if (BOverrideColorYuv.yuvToRgb != null && BOverrideColorYuv.yuvToRgb.supports(yuv, rgb)) {
+			try {
+				BOverrideColorYuv.yuvToRgb.yuvToRgb(yuv, rgb);
+				processed = true;
+			} catch (RuntimeException ignore) {}
+		}
+		return processed;
+	}
+
+	public static boolean invokeNativeRgbToYuv( Planar rgb, Planar yuv ) {
+		boolean processed = false;
+		if (BOverrideColorYuv.rgbToYuv != null && BOverrideColorYuv.rgbToYuv.supports(rgb, yuv)) {
+			try {
+				BOverrideColorYuv.rgbToYuv.rgbToYuv(rgb, yuv);
+				processed = true;
+			} catch (RuntimeException ignore) {}
+		}
+		return processed;
+	}
+}
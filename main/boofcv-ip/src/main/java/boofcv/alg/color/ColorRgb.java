@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -48,6 +48,10 @@ public class ColorRgb {
 
 	public static void rgbToGray_Weighted( ImageMultiBand rgb, ImageGray gray ) {
 		gray.reshape(rgb.width, rgb.height);
+
+		if (BOverrideColorRgb.invokeNativeRgbToGray(rgb, gray))
+			return;
+
 		switch (rgb.getImageType().getFamily()) {
 			case PLANAR:
 				if (gray instanceof GrayU8) {
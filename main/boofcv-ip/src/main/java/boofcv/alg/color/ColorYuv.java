@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -187,6 +187,9 @@ public class ColorYuv {
 	void yuvToRgb( Planar<T> yuv, Planar<T> rgb ) {
 		rgb.reshape(rgb.width, rgb.height, 3);
 
+		if (BOverrideColorYuv.invokeNativeYuvToRgb(yuv, rgb))
+			return;
+
 		if (rgb.getBandType() == GrayF32.class) {
 			if (BoofConcurrency.USE_CONCURRENT) {
 				ImplColorYuv_MT.yuvToRgb_F32((Planar<GrayF32>)yuv, (Planar<GrayF32>)rgb);
@@ -216,6 +219,9 @@ public class ColorYuv {
 	void rgbToYuv( Planar<T> rgb, Planar<T> yuv ) {
 		yuv.reshape(rgb.width, rgb.height, 3);
 
+		if (BOverrideColorYuv.invokeNativeRgbToYuv(rgb, yuv))
+			return;
+
 		if (rgb.getBandType() == GrayF32.class) {
 			if (BoofConcurrency.USE_CONCURRENT) {
 				ImplColorYuv_MT.rgbToYuv_F32((Planar<GrayF32>)rgb, (Planar<GrayF32>)yuv);
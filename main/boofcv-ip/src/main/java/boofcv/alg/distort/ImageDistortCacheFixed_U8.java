@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.distort.PixelTransform;
+import boofcv.struct.image.*;
+import georegression.struct.point.Point2D_F32;
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * <p>
+ * Cached bilinear distortion for 8-bit images which stores the transform in a packed fixed-point table. For each
+ * output pixel the integer part of its location in the input image is saved as two shorts and the fractional
+ * part is rounded to 1/{@link #FRACTION_SIZE} of a pixel and saved as an index into a table of precomputed
+ * integer bilinear weights. Only 6 bytes are needed per pixel and the inner loop is entirely integer math.
+ * The same table is used for every band in {@link GrayU8}, {@link InterleavedU8}, and {@link Planar} images.
+ * </p>
+ *
+ * <p>
+ * Pixels outside the input image are handled by using the closest pixel inside the image, i.e.
+ * {@link boofcv.struct.border.BorderType#EXTENDED}. Due to rounding the output can differ by one from
+ * the floating point implementation. Input images can't be larger than 16383 pixels along either axis.
+ * </p>
+ *
+ * @author Peter Abeles
+ * @see ImageDistortCache_SB
+ */
+@SuppressWarnings({"NullAway.Init"})
+public class ImageDistortCacheFixed_U8<T extends ImageBase<T>> implements ImageDistort<T, T> {
+	/** Number of bits used to encode the fractional part of a coordinate */
+	public static final int FRACTION_BITS = 5;
+	/** Number of discrete fractional values */
+	public static final int FRACTION_SIZE = 1 << FRACTION_BITS;
+	/** Number of bits in the fixed-point weights. The four weights always sum to 2<sup>WEIGHT_BITS</sup> */
+	public static final int WEIGHT_BITS = 14;
+
+	// Coordinates are clamped to this range so that they can be stored in a short
+	static final int MAX_COORDINATE = (1 << 14) - 1;
+	// Marks a pixel which has no valid location, e.g. NaN
+	static final short INVALID = Short.MIN_VALUE;
+
+	// Bilinear weights for every fraction. Each has 4 elements in the order (x,y), (x+1,y), (x,y+1), (x+1,y+1)
+	static final int[] WEIGHTS = createWeights();
+
+	/** Type of image being distorted */
+	@Getter final ImageType<T> imageType;
+
+	// size of output image
+	int width = -1, height = -1;
+	// Integer part of each output pixel's location in the input image. Interleaved x and y
+	short[] coordinates = new short[0];
+	// Index of the fractional part. x is in the lower FRACTION_BITS bits and y in the upper bits
+	short[] fractions = new short[0];
+
+	// transform
+	PixelTransform<Point2D_F32> dstToSrc;
+
+	// crop boundary
+	int x0, y0, x1, y1;
+
+	// should it render all pixels in the destination, even ones outside the input image
+	boolean renderAll = true;
+
+	boolean dirty;
+
+	public ImageDistortCacheFixed_U8( ImageType<T> imageType ) {
+		if (imageType.getDataType() != ImageDataType.U8)
+			throw new IllegalArgumentException("Only U8 images are supported");
+		this.imageType = imageType;
+	}
+
+	@Override
+	public void setModel( PixelTransform<Point2D_F32> dstToSrc ) {
+		this.dirty = true;
+		this.dstToSrc = dstToSrc;
+	}
+
+	@Override
+	public void apply( T srcImg, T dstImg ) {
+		apply(srcImg, dstImg, 0, 0, dstImg.width, dstImg.height);
+	}
+
+	@Override
+	public void apply( T srcImg, T dstImg, GrayU8 mask ) {
+		mask.reshape(dstImg.width, dstImg.height);
+		init(dstImg);
+		x0 = 0;
+		y0 = 0;
+		x1 = dstImg.width;
+		y1 = dstImg.height;
+		render(srcImg, dstImg, mask);
+	}
+
+	@Override
+	public void apply( T srcImg, T dstImg, int dstX0, int dstY0, int dstX1, int dstY1 ) {
+		init(dstImg);
+
+		// Check that a valid region was specified. If not do nothing
+		if (dstX1 <= dstX0 || dstY1 <= dstY0)
+			return;
+
+		x0 = dstX0;
+		y0 = dstY0;
+		x1 = dstX1;
+		y1 = dstY1;
+		render(srcImg, dstImg, null);
+	}
+
+	void init( T dstImg ) {
+		if (!dirty && width == dstImg.width && height == dstImg.height)
+			return;
+
+		width = dstImg.width;
+		height = dstImg.height;
+		if (fractions.length < width*height) {
+			coordinates = new short[width*height*2];
+			fractions = new short[width*height];
+		}
+
+		if (useConcurrent(width*height)) {
+			BoofConcurrency.loopBlocks(0, height, ( y0, y1 ) ->
+					computeTable(dstToSrc.copyConcurrent(), y0, y1));
+		} else {
+			computeTable(dstToSrc, 0, height);
+		}
+		dirty = false;
+	}
+
+	/**
+	 * Encodes the location of every pixel in the specified rows
+	 */
+	void computeTable( PixelTransform<Point2D_F32> dstToSrc, int rowY0, int rowY1 ) {
+		var p = new Point2D_F32();
+		for (int y = rowY0; y < rowY1; y++) {
+			int index = y*width;
+			for (int x = 0; x < width; x++, index++) {
+				dstToSrc.compute(x, y, p);
+				encode(p.x, p.y, index);
+			}
+		}
+	}
+
+	/**
+	 * Converts a floating point location into fixed-point and saves it in the table
+	 */
+	void encode( float srcX, float srcY, int index ) {
+		// Also catches NaN since all comparisons with NaN are false
+		if (!(Math.abs(srcX) <= MAX_COORDINATE && Math.abs(srcY) <= MAX_COORDINATE)) {
+			if (Float.isNaN(srcX) || Float.isNaN(srcY)) {
+				coordinates[index*2] = INVALID;
+				coordinates[index*2 + 1] = INVALID;
+				fractions[index] = 0;
+				return;
+			}
+			srcX = Math.max(-MAX_COORDINATE, Math.min(MAX_COORDINATE, srcX));
+			srcY = Math.max(-MAX_COORDINATE, Math.min(MAX_COORDINATE, srcY));
+		}
+
+		int fixedX = Math.round(srcX*FRACTION_SIZE);
+		int fixedY = Math.round(srcY*FRACTION_SIZE);
+
+		// arithmetic shift rounds towards negative infinity, which is what's needed for negative coordinates
+		coordinates[index*2] = (short)(fixedX >> FRACTION_BITS);
+		coordinates[index*2 + 1] = (short)(fixedY >> FRACTION_BITS);
+		fractions[index] = (short)(((fixedY & (FRACTION_SIZE - 1)) << FRACTION_BITS) | (fixedX & (FRACTION_SIZE - 1)));
+	}
+
+	void render( T srcImg, T dstImg, @Nullable GrayU8 mask ) {
+		if (useConcurrent((x1 - x0)*(y1 - y0))) {
+			BoofConcurrency.loopBlocks(y0, y1, ( y0, y1 ) -> renderRows(srcImg, dstImg, mask, y0, y1));
+		} else {
+			renderRows(srcImg, dstImg, mask, y0, y1);
+		}
+	}
+
+	void renderRows( T srcImg, T dstImg, @Nullable GrayU8 mask, int rowY0, int rowY1 ) {
+		if (srcImg instanceof GrayU8) {
+			var src = (GrayU8)srcImg;
+			var dst = (GrayU8)dstImg;
+			renderRows(src.data, src.startIndex, src.stride, src.width, src.height, 1,
+					dst.data, dst.startIndex, dst.stride, mask, rowY0, rowY1);
+		} else if (srcImg instanceof InterleavedU8) {
+			var src = (InterleavedU8)srcImg;
+			var dst = (InterleavedU8)dstImg;
+			if (src.numBands != dst.numBands)
+				throw new IllegalArgumentException("Number of bands must match");
+			renderRows(src.data, src.startIndex, src.stride, src.width, src.height, src.numBands,
+					dst.data, dst.startIndex, dst.stride, mask, rowY0, rowY1);
+		} else if (srcImg instanceof Planar) {
+			var src = (Planar<?>)srcImg;
+			var dst = (Planar<?>)dstImg;
+			if (src.getNumBands() != dst.getNumBands())
+				throw new IllegalArgumentException("Number of bands must match");
+			for (int band = 0; band < src.getNumBands(); band++) {
+				var s = (GrayU8)src.getBand(band);
+				var d = (GrayU8)dst.getBand(band);
+				// The mask is the same for every band so only compute it once
+				renderRows(s.data, s.startIndex, s.stride, s.width, s.height, 1,
+						d.data, d.startIndex, d.stride, band == 0 ? mask : null, rowY0, rowY1);
+			}
+		} else {
+			throw new IllegalArgumentException("Unsupported image type " + srcImg.getClass().getSimpleName());
+		}
+	}
+
+	/**
+	 * Renders rows for an image where the bands are interleaved. Single band images have one band.
+	 */
+	void renderRows( byte[] src, int srcStart, int srcStride, int srcWidth, int srcHeight, int numBands,
+					 byte[] dst, int dstStart, int dstStride,
+					 @Nullable GrayU8 mask, int rowY0, int rowY1 ) {
+		final int round = 1 << (WEIGHT_BITS - 1);
+		final int maxFixedX = (srcWidth - 1) << FRACTION_BITS;
+		final int maxFixedY = (srcHeight - 1) << FRACTION_BITS;
+
+		for (int y = rowY0; y < rowY1; y++) {
+			int indexDst = dstStart + dstStride*y + x0*numBands;
+			int indexMsk = mask == null ? 0 : mask.startIndex + mask.stride*y + x0;
+			int indexMap = y*width + x0;
+
+			for (int x = x0; x < x1; x++, indexDst += numBands, indexMsk++, indexMap++) {
+				int sx = coordinates[indexMap*2];
+				int sy = coordinates[indexMap*2 + 1];
+				int frac = fractions[indexMap];
+
+				boolean valid = sx != INVALID;
+				int fixedX = (sx << FRACTION_BITS) | (frac & (FRACTION_SIZE - 1));
+				int fixedY = (sy << FRACTION_BITS) | (frac >> FRACTION_BITS);
+				boolean inside = valid && fixedX >= 0 && fixedX <= maxFixedX && fixedY >= 0 && fixedY <= maxFixedY;
+
+				if (mask != null)
+					mask.data[indexMsk] = (byte)(inside ? 1 : 0);
+				if (!inside && !(valid && renderAll))
+					continue;
+
+				int indexW = frac*4;
+				int w00 = WEIGHTS[indexW];
+				int w10 = WEIGHTS[indexW + 1];
+				int w01 = WEIGHTS[indexW + 2];
+				int w11 = WEIGHTS[indexW + 3];
+
+				// Index of each of the four neighbors
+				int i00, i10, i01, i11;
+				if (sx >= 0 && sy >= 0 && sx < srcWidth - 1 && sy < srcHeight - 1) {
+					i00 = srcStart + sy*srcStride + sx*numBands;
+					i10 = i00 + numBands;
+					i01 = i00 + srcStride;
+					i11 = i01 + numBands;
+				} else {
+					// Border. Use the closest pixel inside the image
+					int xa = Math.max(0, Math.min(srcWidth - 1, sx))*numBands;
+					int xb = Math.max(0, Math.min(srcWidth - 1, sx + 1))*numBands;
+					int ya = srcStart + Math.max(0, Math.min(srcHeight - 1, sy))*srcStride;
+					int yb = srcStart + Math.max(0, Math.min(srcHeight - 1, sy + 1))*srcStride;
+					i00 = ya + xa;
+					i10 = ya + xb;
+					i01 = yb + xa;
+					i11 = yb + xb;
+				}
+
+				for (int band = 0; band < numBands; band++) {
+					int sum = w00*(src[i00 + band] & 0xFF) + w10*(src[i10 + band] & 0xFF) +
+							w01*(src[i01 + band] & 0xFF) + w11*(src[i11 + band] & 0xFF);
+					dst[indexDst + band] = (byte)((sum + round) >> WEIGHT_BITS);
+				}
+			}
+		}
+	}
+
+	private static boolean useConcurrent( int pixels ) {
+		return BoofConcurrency.isUseConcurrent() && pixels >= BoofConcurrency.getSmallImage();
+	}
+
+	/**
+	 * Precomputes the bilinear weights for every possible fraction. Weights are adjusted so that they sum up to
+	 * exactly one, which ensures that a constant image remains constant.
+	 */
+	static int[] createWeights() {
+		final int total = 1 << WEIGHT_BITS;
+		int[] weights = new int[FRACTION_SIZE*FRACTION_SIZE*4];
+		for (int fy = 0; fy < FRACTION_SIZE; fy++) {
+			float ay = fy/(float)FRACTION_SIZE;
+			for (int fx = 0; fx < FRACTION_SIZE; fx++) {
+				float ax = fx/(float)FRACTION_SIZE;
+				int index = ((fy << FRACTION_BITS) | fx)*4;
+				int w00 = Math.round((1.0f - ax)*(1.0f - ay)*total);
+				int w10 = Math.round(ax*(1.0f - ay)*total);
+				int w01 = Math.round((1.0f - ax)*ay*total);
+				weights[index] = w00;
+				weights[index + 1] = w10;
+				weights[index + 2] = w01;
+				weights[index + 3] = total - w00 - w10 - w01;
+			}
+		}
+		return weights;
+	}
+
+	@Override
+	public void setRenderAll( boolean renderAll ) {
+		this.renderAll = renderAll;
+	}
+
+	@Override
+	public boolean getRenderAll() {
+		return renderAll;
+	}
+
+	@Override
+	public PixelTransform<Point2D_F32> getModel() {
+		return dstToSrc;
+	}
+}
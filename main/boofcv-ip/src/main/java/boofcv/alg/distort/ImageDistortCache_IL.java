@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.interpolate.InterpolatePixelMB;
+import boofcv.struct.distort.PixelTransform;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageInterleaved;
+import georegression.struct.point.Point2D_F32;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Implementation of {@link ImageDistort} for {@link ImageInterleaved} which caches the distortion. The location
+ * of every output pixel in the input image is computed once and stored in a float array with the x and y
+ * coordinates interleaved. The same cached location is used for every band.
+ *
+ * @author Peter Abeles
+ * @see ImageDistortCache_SB
+ */
+@SuppressWarnings({"NullAway.Init"})
+public class ImageDistortCache_IL<Input extends ImageInterleaved<Input>, Output extends ImageInterleaved<Output>>
+		implements ImageDistort<Input, Output> {
+
+	protected AssignPixelValue_MB<Output> assigner;
+
+	// size of output image
+	protected int width = -1, height = -1;
+	// Cached location of each output pixel in the input image. Interleaved x and y. Index = (y*width + x)*2
+	protected float[] map = new float[0];
+	// sub pixel interpolation
+	protected InterpolatePixelMB<Input> interp;
+
+	// storage for interpolated pixel values
+	protected float[] values = new float[0];
+
+	// transform
+	protected PixelTransform<Point2D_F32> dstToSrc;
+
+	// crop boundary
+	protected int x0, y0, x1, y1;
+
+	// should it render all pixels in the destination, even ones outside the input image
+	protected boolean renderAll = true;
+	protected Input srcImg;
+	protected Output dstImg;
+
+	protected boolean dirty;
+
+	/**
+	 * Specifies configuration parameters
+	 *
+	 * @param interp Interpolation algorithm
+	 */
+	public ImageDistortCache_IL( AssignPixelValue_MB<Output> assigner,
+								 InterpolatePixelMB<Input> interp ) {
+		this.assigner = assigner;
+		this.interp = interp;
+	}
+
+	@Override
+	public void setModel( PixelTransform<Point2D_F32> dstToSrc ) {
+		this.dirty = true;
+		this.dstToSrc = dstToSrc;
+	}
+
+	@Override
+	public void apply( Input srcImg, Output dstImg ) {
+		init(srcImg, dstImg);
+
+		x0 = 0;
+		y0 = 0;
+		x1 = dstImg.width;
+		y1 = dstImg.height;
+
+		render(null);
+	}
+
+	@Override
+	public void apply( Input srcImg, Output dstImg, GrayU8 mask ) {
+		init(srcImg, dstImg);
+		mask.reshape(dstImg.width, dstImg.height);
+
+		x0 = 0;
+		y0 = 0;
+		x1 = dstImg.width;
+		y1 = dstImg.height;
+
+		render(mask);
+	}
+
+	@Override
+	public void apply( Input srcImg, Output dstImg, int dstX0, int dstY0, int dstX1, int dstY1 ) {
+		init(srcImg, dstImg);
+
+		// Check that a valid region was specified. If not do nothing
+		if (dstX1 <= dstX0 || dstY1 <= dstY0)
+			return;
+
+		x0 = dstX0;
+		y0 = dstY0;
+		x1 = dstX1;
+		y1 = dstY1;
+
+		render(null);
+	}
+
+	protected void init( Input srcImg, Output dstImg ) {
+		if (dirty || width != dstImg.width || height != dstImg.height) {
+			width = dstImg.width;
+			height = dstImg.height;
+			if (map.length < width*height*2)
+				map = new float[width*height*2];
+			computeMap();
+			dirty = false;
+		}
+
+		if (values.length != srcImg.getNumBands()) {
+			values = new float[srcImg.getNumBands()];
+		}
+
+		this.srcImg = srcImg;
+		this.dstImg = dstImg;
+		interp.setImage(srcImg);
+		assigner.setImage(dstImg);
+	}
+
+	/**
+	 * Computes the location of every pixel in the output image
+	 */
+	protected void computeMap() {
+		var p = new Point2D_F32();
+		int index = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				dstToSrc.compute(x, y, p);
+				map[index++] = p.x;
+				map[index++] = p.y;
+			}
+		}
+	}
+
+	/**
+	 * Renders the entire region
+	 *
+	 * @param mask If not null then the mask is set to 1 for pixels inside the input image and 0 for outside
+	 */
+	protected void render( @Nullable GrayU8 mask ) {
+		renderRows(y0, y1, interp, values, mask);
+	}
+
+	/**
+	 * Renders the specified rows inside the crop region
+	 *
+	 * @param interp Interpolation algorithm that's been set to the input image
+	 * @param values Storage for interpolated values
+	 * @param mask If not null then the mask is set to 1 for pixels inside the input image and 0 for outside
+	 */
+	protected void renderRows( int rowY0, int rowY1, InterpolatePixelMB<Input> interp, float[] values,
+							   @Nullable GrayU8 mask ) {
+		float maxWidth = srcImg.getWidth() - 1;
+		float maxHeight = srcImg.getHeight() - 1;
+		final int numBands = dstImg.numBands;
+
+		for (int y = rowY0; y < rowY1; y++) {
+			int indexDst = dstImg.startIndex + dstImg.stride*y + x0*numBands;
+			int indexMsk = mask == null ? 0 : mask.startIndex + mask.stride*y + x0;
+			int indexMap = (y*width + x0)*2;
+
+			for (int x = x0; x < x1; x++, indexDst += numBands, indexMsk++) {
+				float sx = map[indexMap++];
+				float sy = map[indexMap++];
+
+				boolean inside = sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight;
+				if (renderAll || inside) {
+					interp.get(sx, sy, values);
+					assigner.assign(indexDst, values);
+				}
+				if (mask != null)
+					mask.data[indexMsk] = (byte)(inside ? 1 : 0);
+			}
+		}
+	}
+
+	/**
+	 * Returns the cached transform. The x and y coordinates are interleaved and the array can be larger than needed.
+	 */
+	public float[] getMap() {
+		return map;
+	}
+
+	public InterpolatePixelMB<Input> getInterp() {
+		return interp;
+	}
+
+	@Override
+	public void setRenderAll( boolean renderAll ) {
+		this.renderAll = renderAll;
+	}
+
+	@Override
+	public boolean getRenderAll() {
+		return renderAll;
+	}
+
+	@Override
+	public PixelTransform<Point2D_F32> getModel() {
+		return dstToSrc;
+	}
+}
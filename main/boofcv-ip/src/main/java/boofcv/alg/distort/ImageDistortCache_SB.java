@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -29,6 +29,9 @@ import georegression.struct.point.Point2D_F32;
  * To overcome this problem the distortion is computed once and cached. Then when the image is distorted
  * again the save results are simply recalled and not computed again.
  *
+ * The cache is stored in a single float array with the x and y coordinates of each pixel interleaved. This
+ * uses about a quarter of the memory an array of points would and is read sequentially while rendering.
+ *
  * @author Peter Abeles
  */
 @SuppressWarnings({"NullAway.Init"})
@@ -39,7 +42,8 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>, Output extends
 
 	// size of output image
 	protected int width = -1, height = -1;
-	protected Point2D_F32[] map;
+	// Cached location of each output pixel in the input image. Interleaved x and y. Index = (y*width + x)*2
+	protected float[] map = new float[0];
 	// sub pixel interpolation
 	protected InterpolatePixelS<Input> interp;
 
@@ -127,15 +131,15 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>, Output extends
 		if (dirty || width != dstImg.width || height != dstImg.height) {
 			width = dstImg.width;
 			height = dstImg.height;
-			map = new Point2D_F32[width*height];
-			for (int i = 0; i < map.length; i++) {
-				map[i] = new Point2D_F32();
-			}
+			declareMap();
 
+			var p = new Point2D_F32();
 			int index = 0;
 			for (int y = 0; y < height; y++) {
 				for (int x = 0; x < width; x++) {
-					dstToSrc.compute(x, y, map[index++]);
+					dstToSrc.compute(x, y, p);
+					map[index++] = p.x;
+					map[index++] = p.y;
 				}
 			}
 			dirty = false;
@@ -148,16 +152,26 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>, Output extends
 		assigner.setImage(dstImg);
 	}
 
+	/**
+	 * Resizes the map so that it can store the current width and height. The array is only reallocated when it grows
+	 */
+	protected void declareMap() {
+		if (map.length < width*height*2)
+			map = new float[width*height*2];
+	}
+
 	protected void renderAll() {
 
 		// todo TO make this faster first apply inside the region which can process the fast border
 		// then do the slower border thingy
 		for (int y = y0; y < y1; y++) {
 			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
+			int indexMap = (y*width + x0)*2;
 			for (int x = x0; x < x1; x++, indexDst++) {
-				Point2D_F32 s = map[indexDst];
+				float sx = map[indexMap++];
+				float sy = map[indexMap++];
 
-				assigner.assign(indexDst, interp.get(s.x, s.y));
+				assigner.assign(indexDst, interp.get(sx, sy));
 			}
 		}
 	}
@@ -169,12 +183,14 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>, Output extends
 		for (int y = y0; y < y1; y++) {
 			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
 			int indexMsk = mask.startIndex + mask.stride*y + x0;
+			int indexMap = (y*width + x0)*2;
 
 			for (int x = x0; x < x1; x++, indexDst++, indexMsk++) {
-				Point2D_F32 s = map[indexDst];
+				float sx = map[indexMap++];
+				float sy = map[indexMap++];
 
-				assigner.assign(indexDst, interp.get(s.x, s.y));
-				if (s.x >= 0 && s.x <= maxWidth && s.y >= 0 && s.y <= maxHeight) {
+				assigner.assign(indexDst, interp.get(sx, sy));
+				if (sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight) {
 					mask.data[indexMsk] = 1;
 				} else {
 					mask.data[indexMsk] = 0;
@@ -189,11 +205,13 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>, Output extends
 
 		for (int y = y0; y < y1; y++) {
 			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
+			int indexMap = (y*width + x0)*2;
 			for (int x = x0; x < x1; x++, indexDst++) {
-				Point2D_F32 s = map[indexDst];
+				float sx = map[indexMap++];
+				float sy = map[indexMap++];
 
-				if (s.x >= 0 && s.x <= maxWidth && s.y >= 0 && s.y <= maxHeight) {
-					assigner.assign(indexDst, interp.get(s.x, s.y));
+				if (sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight) {
+					assigner.assign(indexDst, interp.get(sx, sy));
 				}
 			}
 		}
@@ -206,12 +224,14 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>, Output extends
 		for (int y = y0; y < y1; y++) {
 			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
 			int indexMsk = mask.startIndex + mask.stride*y + x0;
+			int indexMap = (y*width + x0)*2;
 
 			for (int x = x0; x < x1; x++, indexDst++, indexMsk++) {
-				Point2D_F32 s = map[indexDst];
+				float sx = map[indexMap++];
+				float sy = map[indexMap++];
 
-				if (s.x >= 0 && s.x <= maxWidth && s.y >= 0 && s.y <= maxHeight) {
-					assigner.assign(indexDst, interp.get(s.x, s.y));
+				if (sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight) {
+					assigner.assign(indexDst, interp.get(sx, sy));
 					mask.data[indexMsk] = 1;
 				} else {
 					mask.data[indexMsk] = 0;
@@ -220,7 +240,10 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>, Output extends
 		}
 	}
 
-	public Point2D_F32[] getMap() {
+	/**
+	 * Returns the cached transform. The x and y coordinates are interleaved and the array can be larger than needed.
+	 */
+	public float[] getMap() {
 		return map;
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -26,14 +26,15 @@ import org.ejml.UtilEjml;
 
 /**
  * Precomputes transformations for each pixel in the image. Doesn't check bounds and will give an incorrect result
- * or crash if outside pixels are requested.
+ * or crash if outside pixels are requested. The coordinates are stored in a single array with x and y interleaved.
  *
  * @author Peter Abeles
  */
 @SuppressWarnings({"NullAway.Init"})
 public class PixelTransformCached_F32 implements PixelTransform<Point2D_F32> {
 
-	Point2D_F32[] map;
+	// Interleaved x and y coordinate of each pixel. Index = (y*width + x)*2
+	float[] map;
 	int width, height;
 
 	boolean ignoreNaN = true;
@@ -46,11 +47,11 @@ public class PixelTransformCached_F32 implements PixelTransform<Point2D_F32> {
 		this.width = width + 1; // add one to the width since some stuff checks the outside border
 		this.height = height + 1;
 
-		map = new Point2D_F32[this.width*this.height];
+		map = new float[this.width*this.height*2];
+		var p = new Point2D_F32();
 		int index = 0;
 		for (int y = 0; y < this.height; y++) {
 			for (int x = 0; x < this.width; x++) {
-				Point2D_F32 p = new Point2D_F32();
 				transform.compute(x, y, p);
 
 				// It's not obvious what to do if the pixel is invalid
@@ -59,15 +60,30 @@ public class PixelTransformCached_F32 implements PixelTransform<Point2D_F32> {
 				if (!ignoreNaN && (UtilEjml.isUncountable(p.x) || UtilEjml.isUncountable(p.y))) {
 					p.setTo(-1, -1);
 				}
-				map[index++] = p;
+				map[index++] = p.x;
+				map[index++] = p.y;
 			}
 		}
 	}
 
 	PixelTransformCached_F32() {}
 
-	public Point2D_F32 getPixel( int x, int y ) {
-		return map[width*y + x];
+	/**
+	 * Copies the cached location of pixel (x,y) into output
+	 */
+	public Point2D_F32 getPixel( int x, int y, Point2D_F32 output ) {
+		int index = (width*y + x)*2;
+		output.setTo(map[index], map[index + 1]);
+		return output;
+	}
+
+	/**
+	 * Changes the cached location of pixel (x,y)
+	 */
+	public void setPixel( int x, int y, float srcX, float srcY ) {
+		int index = (width*y + x)*2;
+		map[index] = srcX;
+		map[index + 1] = srcY;
 	}
 
 	public boolean isIgnoreNaN() {
@@ -83,16 +99,14 @@ public class PixelTransformCached_F32 implements PixelTransform<Point2D_F32> {
 //		if( x < 0 || y < 0 || x >= width || y >= height )
 //			throw new IllegalArgumentException("Out of bounds");
 
-		output.setTo(map[y*width + x]);
+		int index = (y*width + x)*2;
+		output.setTo(map[index], map[index + 1]);
 	}
 
 	@Override
 	public PixelTransform<Point2D_F32> copyConcurrent() {
 		PixelTransformCached_F32 ret = new PixelTransformCached_F32();
-		ret.map = new Point2D_F32[this.map.length];
-		for (int i = 0; i < ret.map.length; i++) {
-			ret.map[i] = this.map[i].copy();
-		}
+		ret.map = this.map.clone();
 
 		ret.width = this.width;
 		ret.height = this.height;
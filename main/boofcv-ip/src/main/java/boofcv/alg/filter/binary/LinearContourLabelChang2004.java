@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -68,18 +68,18 @@ public class LinearContourLabelChang2004 {
 	private @Getter @Setter boolean saveInternalContours = true;
 
 	// Specifies the actual contour length constraints in image pixels
-	private int minContourLengthPixels;
-	private int maxContourLengthPixels;
+	int minContourLengthPixels;
+	int maxContourLengthPixels;
 
 	// traces edge pixels
 	private ContourTracer tracer;
 
 	// binary image with a border of zero.
-	private final GrayU8 border = new GrayU8(1, 1);
+	final GrayU8 border = new GrayU8(1, 1);
 
 	// predeclared/recycled data structures
 	@Getter PackedSetsPoint2D_I32 packedPoints = new PackedSetsPoint2D_I32(2000);
-	private final DogArray<ContourPacked> contours = new DogArray<>(ContourPacked::new);
+	final DogArray<ContourPacked> contours = new DogArray<>(ContourPacked::new);
 
 	// internal book keeping variables
 	private int x, y, indexIn, indexOut;
@@ -100,17 +100,7 @@ public class LinearContourLabelChang2004 {
 	 * @param labeled Output. Labeled image. Modified.
 	 */
 	public void process( GrayU8 binary, GrayS32 labeled ) {
-		// initialize data structures
-		labeled.reshape(binary.width, binary.height);
-		minContourLengthPixels = minContourLength.computeNegMaxI(Math.sqrt(binary.width*binary.height));
-		maxContourLengthPixels = maxContourLength.computeNegMaxI(Math.sqrt(binary.width*binary.height));
-
-		// ensure that the image border pixels are filled with zero by enlarging the image
-		if (border.width != binary.width + 2 || border.height != binary.height + 2) {
-			border.reshape(binary.width + 2, binary.height + 2);
-			ImageMiscOps.fillBorder(border, 0, 1);
-		}
-		border.subimage(1, 1, border.width - 1, border.height - 1, null).setTo(binary);
+		initialize(binary, labeled);
 
 		// labeled image must initially be filled with zeros
 		ImageMiscOps.fill(labeled, 0);
@@ -159,6 +149,22 @@ public class LinearContourLabelChang2004 {
 		}
 	}
 
+	/**
+	 * Computes the contour length limits and copies the binary image into the image with a border
+	 */
+	void initialize( GrayU8 binary, GrayS32 labeled ) {
+		labeled.reshape(binary.width, binary.height);
+		minContourLengthPixels = minContourLength.computeNegMaxI(Math.sqrt(binary.width*binary.height));
+		maxContourLengthPixels = maxContourLength.computeNegMaxI(Math.sqrt(binary.width*binary.height));
+
+		// ensure that the image border pixels are filled with zero by enlarging the image
+		if (border.width != binary.width + 2 || border.height != binary.height + 2) {
+			border.reshape(binary.width + 2, binary.height + 2);
+			ImageMiscOps.fillBorder(border, 0, 1);
+		}
+		border.subimage(1, 1, border.width - 1, border.height - 1, null).setTo(binary);
+	}
+
 	/**
 	 * Faster when there's a specialized function which searches for one pixels
 	 */
@@ -0,0 +1,364 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.filter.binary;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.PackedSetsPoint2D_I32;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_I32;
+import org.ddogleg.struct.DogArray_I8;
+import org.jetbrains.annotations.Nullable;
+import pabeles.concurrency.GrowArray;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link LinearContourLabelChang2004}. Output is identical to the single threaded
+ * version, including the order of blobs and the order of contours inside of {@link #getPackedPoints()}.
+ * </p>
+ *
+ * <p>
+ * Instead of a single raster scan which traces contours as they are encountered, the blobs and the holes
+ * inside them are found first using {@link TiledUnionFindComponents}. Blobs use the specified connectivity rule
+ * and background regions use the other rule. The start of each contour is known once the components are known.
+ * An external contour starts at the first pixel in the blob. An internal contour starts at the first pixel in
+ * the blob which is above a pixel in the hole. Blobs are then traced in parallel and the contours are copied into
+ * the output in the same order the single threaded algorithm would have traced them in.
+ * </p>
+ *
+ * <p>NOTE: Background pixels are marked by the tracer and the same pixel can be marked by multiple threads.
+ * This is harmless since they will all write the same value and the mark is never read.</p>
+ *
+ * @author Peter Abeles
+ */
+public class LinearContourLabelChang2004_MT extends LinearContourLabelChang2004 {
+	// Finds blobs and background regions
+	final TiledUnionFindComponents components = new TiledUnionFindComponents();
+
+	// Every contour which will be traced, in the order the single threaded version would trace them
+	final DogArray<Trace> traces = new DogArray<>(Trace::new, Trace::reset);
+
+	// Indexes of the traces which belong to each blob. traces in blob 'i' are from blobStart[i] to blobStart[i+1]
+	final DogArray_I32 blobStart = new DogArray_I32();
+	final DogArray_I32 blobTraces = new DogArray_I32();
+
+	// Found external contours and hole candidates in each tile
+	final DogArray<DogArray_I32> tileExternal = new DogArray<>(DogArray_I32::new, DogArray_I32::reset);
+	final DogArray<DogArray_I32> tileInternal = new DogArray<>(DogArray_I32::new, DogArray_I32::reset);
+	// Number of blobs in each tile
+	final DogArray_I32 tileBlobs = new DogArray_I32();
+
+	// Used to mark which holes have already been assigned an internal contour
+	final DogArray_I8 holeMarked = new DogArray_I8();
+
+	// Workspace for tracing blobs in each thread
+	final GrowArray<Workspace> workspaces = new GrowArray<>(Workspace::new);
+
+	// Storage for copying points
+	final DogArray<Point2D_I32> work = new DogArray<>(Point2D_I32::new);
+
+	public LinearContourLabelChang2004_MT( ConnectRule rule ) {
+		super(rule);
+	}
+
+	@Override public void process( GrayU8 binary, GrayS32 labeled ) {
+		initialize(binary, labeled);
+
+		ConnectRule rule = getConnectRule();
+		ConnectRule ruleBackground = rule == ConnectRule.EIGHT ? ConnectRule.FOUR : ConnectRule.EIGHT;
+
+		// Find the blobs and the background regions. The border ensures the outside is a single region
+		components.process(border, rule, ruleBackground);
+
+		int numTiles = components.getNumberOfTiles();
+		tileExternal.resize(numTiles);
+		tileInternal.resize(numTiles);
+		tileBlobs.resize(numTiles);
+
+		// Each blob is assigned an ID based on the order its first pixel is encountered in a raster scan
+		BoofConcurrency.loopFor(0, numTiles, this::findContourStarts);
+		int numBlobs = 0;
+		for (int tile = 0; tile < numTiles; tile++) {
+			int count = tileBlobs.get(tile);
+			tileBlobs.data[tile] = numBlobs;
+			numBlobs += count;
+		}
+		BoofConcurrency.loopFor(0, numTiles, tile -> labelRoots(labeled, tile));
+		BoofConcurrency.loopFor(0, numTiles, tile -> labelPixels(labeled, tile));
+
+		selectTraces(labeled, numBlobs);
+
+		// Trace the contours of each blob
+		if (numBlobs > 0) {
+			BoofConcurrency.loopBlocks(0, numBlobs, workspaces, ( workspace, idx0, idx1 ) -> {
+				workspace.initialize(rule, border, labeled);
+				for (int blobIdx = idx0; blobIdx < idx1; blobIdx++) {
+					for (int i = blobStart.get(blobIdx); i < blobStart.get(blobIdx + 1); i++) {
+						trace(workspace, traces.get(blobTraces.get(i)));
+					}
+				}
+			});
+		}
+
+		copyContours(numBlobs);
+	}
+
+	/**
+	 * Finds the first pixel of every blob in the tile and candidate starting points of internal contours. A pixel
+	 * is a candidate if the pixel below it is in a different background region than the one outside the blob.
+	 */
+	void findContourStarts( int tile ) {
+		int[] roots = components.getRoots().data;
+		int width = border.width;
+		DogArray_I32 external = tileExternal.get(tile);
+		DogArray_I32 internal = tileInternal.get(tile);
+		external.reset();
+		internal.reset();
+
+		for (int y = Math.max(1, components.getTileY0(tile)); y < Math.min(border.height - 1, components.getTileY1(tile)); y++) {
+			int index = y*width + 1;
+			for (int x = 1; x < width - 1; x++, index++) {
+				if (border.data[index] != 1)
+					continue;
+
+				int root = roots[index];
+				if (root == index)
+					external.add(index);
+
+				int below = index + width;
+				if (border.data[below] == 1)
+					continue;
+
+				// The pixel above the blob's first pixel is outside the blob
+				if (roots[below] != roots[root - width])
+					internal.add(index);
+			}
+		}
+		tileBlobs.data[tile] = external.size;
+	}
+
+	/**
+	 * Assigns the blob's ID to its first pixel in the labeled image
+	 */
+	void labelRoots( GrayS32 labeled, int tile ) {
+		DogArray_I32 external = tileExternal.get(tile);
+		int label = tileBlobs.get(tile);
+		for (int i = 0; i < external.size; i++) {
+			labeled.data[labeledIndex(labeled, external.data[i])] = ++label;
+		}
+	}
+
+	/**
+	 * Assigns every pixel in the tile to the ID of its blob or zero if it's the background
+	 */
+	void labelPixels( GrayS32 labeled, int tile ) {
+		int[] roots = components.getRoots().data;
+		int width = border.width;
+
+		for (int y = Math.max(1, components.getTileY0(tile)); y < Math.min(border.height - 1, components.getTileY1(tile)); y++) {
+			int index = y*width + 1;
+			int indexLabeled = labeled.startIndex + (y - 1)*labeled.stride;
+			for (int x = 1; x < width - 1; x++, index++, indexLabeled++) {
+				if (border.data[index] != 1) {
+					labeled.data[indexLabeled] = 0;
+				} else {
+					int root = roots[index];
+					if (root != index)
+						labeled.data[indexLabeled] = labeled.data[labeledIndex(labeled, root)];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates the list of contours which are to be traced. Contours are ordered by the pixel they start at and
+	 * external contours come before internal ones. Only the first candidate for each hole is used.
+	 */
+	void selectTraces( GrayS32 labeled, int numBlobs ) {
+		int[] roots = components.getRoots().data;
+		traces.reset();
+		holeMarked.resize(components.getRoots().size);
+		Arrays.fill(holeMarked.data, 0, holeMarked.size, (byte)0);
+
+		int label = 0;
+		for (int tile = 0; tile < tileExternal.size; tile++) {
+			DogArray_I32 external = tileExternal.get(tile);
+			DogArray_I32 internal = tileInternal.get(tile);
+
+			int idxE = 0, idxI = 0;
+			while (idxE < external.size || idxI < internal.size) {
+				if (idxI == internal.size || (idxE < external.size && external.data[idxE] <= internal.data[idxI])) {
+					Trace t = traces.grow();
+					t.pixel = external.data[idxE++];
+					t.label = ++label;
+					t.external = true;
+				} else {
+					int pixel = internal.data[idxI++];
+					int hole = roots[pixel + border.width];
+					if (holeMarked.data[hole] != 0)
+						continue;
+					holeMarked.data[hole] = 1;
+					Trace t = traces.grow();
+					t.pixel = pixel;
+					t.label = -1;
+					t.external = false;
+				}
+			}
+		}
+
+		// Internal contours belong to the same blob as the pixel they start at
+		blobStart.resize(numBlobs + 1);
+		blobStart.fill(0);
+		for (int i = 0; i < traces.size; i++) {
+			Trace t = traces.get(i);
+			if (!t.external)
+				t.label = labeled.data[labeledIndex(labeled, t.pixel)];
+			blobStart.data[t.label - 1]++;
+		}
+		// convert counts into the index each blob starts at
+		int total = 0;
+		for (int i = 0; i <= numBlobs; i++) {
+			int count = blobStart.data[i];
+			blobStart.data[i] = total;
+			total += count;
+		}
+		blobTraces.resize(traces.size);
+		// use the start as the insertion point and then shift back by one blob
+		for (int i = 0; i < traces.size; i++) {
+			blobTraces.data[blobStart.data[traces.get(i).label - 1]++] = i;
+		}
+		for (int i = numBlobs; i > 0; i--) {
+			blobStart.data[i] = blobStart.data[i - 1];
+		}
+		blobStart.data[0] = 0;
+	}
+
+	/**
+	 * Traces the contour and saves the results in the workspace. Contours that are too big or too small
+	 * are discarded, as is done in the single threaded version.
+	 */
+	void trace( Workspace workspace, Trace t ) {
+		PackedSetsPoint2D_I32 points = workspace.points;
+		ContourTracer tracer = workspace.tracer;
+		int x = t.pixel%border.width;
+		int y = t.pixel/border.width;
+
+		if (t.external)
+			tracer.setMaxContourSize(maxContourLengthPixels);
+		else
+			tracer.setMaxContourSize(isSaveInternalContours() ? maxContourLengthPixels : 0);
+
+		points.grow();
+		tracer.trace(t.label, x, y, t.external);
+
+		if (points.sizeOfTail() >= maxContourLengthPixels || points.sizeOfTail() < minContourLengthPixels) {
+			points.removeTail();
+			points.grow();
+		}
+
+		t.owner = workspace;
+		t.localSet = points.size() - 1;
+	}
+
+	/**
+	 * Copies the contours into the output in the same order as they would be found by the single threaded
+	 * algorithm
+	 */
+	void copyContours( int numBlobs ) {
+		contours.resize(numBlobs);
+		for (int i = 0; i < numBlobs; i++) {
+			ContourPacked c = contours.get(i);
+			c.reset();
+			c.id = i + 1;
+		}
+
+		packedPoints.reset();
+		for (int i = 0; i < traces.size; i++) {
+			Trace t = traces.get(i);
+			ContourPacked c = contours.get(t.label - 1);
+			if (t.external)
+				c.externalIndex = packedPoints.size();
+			else
+				c.internalIndexes.add(packedPoints.size());
+
+			packedPoints.grow();
+			t.owner().points.getSet(t.localSet, work);
+			for (int j = 0; j < work.size; j++) {
+				Point2D_I32 p = work.get(j);
+				packedPoints.addPointToTail(p.x, p.y);
+			}
+		}
+	}
+
+	/**
+	 * Converts a pixel index in the border image into an index in the labeled image
+	 */
+	private int labeledIndex( GrayS32 labeled, int borderIndex ) {
+		int x = borderIndex%border.width;
+		int y = borderIndex/border.width;
+		return labeled.startIndex + (y - 1)*labeled.stride + x - 1;
+	}
+
+	/**
+	 * A contour which is to be traced
+	 */
+	static class Trace {
+		// pixel index in the border image the trace starts at
+		int pixel;
+		// ID of the blob it belongs to
+		int label;
+		// true for external contours
+		boolean external;
+		// Workspace which traced the contour and the set it was saved in
+		@Nullable Workspace owner;
+		int localSet;
+
+		Workspace owner() {
+			return Objects.requireNonNull(owner);
+		}
+
+		void reset() {
+			pixel = -1;
+			label = -1;
+			external = false;
+			owner = null;
+			localSet = -1;
+		}
+	}
+
+	/**
+	 * Storage used by each thread when tracing
+	 */
+	static class Workspace {
+		ContourTracer tracer = new ContourTracer(ConnectRule.FOUR);
+		PackedSetsPoint2D_I32 points = new PackedSetsPoint2D_I32();
+
+		void initialize( ConnectRule rule, GrayU8 border, GrayS32 labeled ) {
+			if (tracer.getConnectRule() != rule)
+				tracer = new ContourTracer(rule);
+			points.reset();
+			tracer.setInputs(border, labeled, points);
+		}
+	}
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.filter.binary;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.GrayU8;
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_I32;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * <p>
+ * Finds connected components in a binary image using union-find. The image is broken up into horizontal tiles
+ * which are labeled concurrently. Components which touch across a tile border are then merged together and
+ * finally every pixel is assigned the root of its component. Pixels with a value of 1 are connected to each
+ * other and all other pixels are connected to each other. Each of these two classes can have its own connectivity
+ * rule or be skipped entirely.
+ * </p>
+ *
+ * <p>
+ * Output: For each pixel the index of the root pixel in its component, or -1 if its class was skipped. Pixel
+ * index is y*width + x. The root of a component is always its first pixel in a raster scan, making the output
+ * independent of the number of tiles.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class TiledUnionFindComponents {
+	/** Tiles will not be smaller than this number of rows */
+	@Getter @Setter int minTileRows = 16;
+
+	/** Root pixel index for each pixel. See class description. */
+	@Getter final DogArray_I32 roots = new DogArray_I32();
+
+	// Which row each tile starts at. The last element is the image's height
+	final DogArray_I32 tileStarts = new DogArray_I32();
+	// The root of every component inside each tile before they were merged across tiles
+	final DogArray<DogArray_I32> tileRoots = new DogArray<>(DogArray_I32::new, DogArray_I32::reset);
+
+	// shape of the image being processed
+	int width, height;
+
+	/**
+	 * Finds connected components in the image
+	 *
+	 * @param image Binary image. Not modified.
+	 * @param ruleOne Connectivity rule for pixels with a value of 1. If null they are skipped
+	 * @param ruleZero Connectivity rule for pixels without a value of 1. If null they are skipped
+	 */
+	public void process( GrayU8 image, @Nullable ConnectRule ruleOne, @Nullable ConnectRule ruleZero ) {
+		width = image.width;
+		height = image.height;
+		roots.resize(width*height);
+
+		int numTiles = Math.max(1, Math.min(BoofConcurrency.getEffectiveActiveThreads(), height/minTileRows));
+		tileStarts.resize(numTiles + 1);
+		for (int i = 0; i <= numTiles; i++) {
+			tileStarts.data[i] = (int)((long)i*height/numTiles);
+		}
+		tileRoots.resize(numTiles);
+
+		BoofConcurrency.loopFor(0, numTiles, tile -> labelTile(image, ruleOne, ruleZero, tile));
+		mergeTiles(image, ruleOne, ruleZero);
+		BoofConcurrency.loopFor(0, numTiles, this::assignRoots);
+	}
+
+	/**
+	 * Finds connected components using only pixels inside the tile. When finished every pixel will point
+	 * directly at the root of its component in the tile.
+	 */
+	void labelTile( GrayU8 image, @Nullable ConnectRule ruleOne, @Nullable ConnectRule ruleZero, int tile ) {
+		int y0 = tileStarts.get(tile);
+		int y1 = tileStarts.get(tile + 1);
+		int[] parent = roots.data;
+
+		for (int y = y0; y < y1; y++) {
+			int indexImg = image.startIndex + y*image.stride;
+			int indexPixel = y*width;
+			for (int x = 0; x < width; x++, indexImg++, indexPixel++) {
+				boolean one = image.data[indexImg] == 1;
+				ConnectRule rule = one ? ruleOne : ruleZero;
+				if (rule == null) {
+					parent[indexPixel] = -1;
+					continue;
+				}
+				parent[indexPixel] = indexPixel;
+
+				if (x > 0 && (image.data[indexImg - 1] == 1) == one)
+					union(parent, indexPixel - 1, indexPixel);
+				if (y > y0)
+					unionAbove(image, rule, one, x, indexImg, indexPixel);
+			}
+		}
+
+		// point every pixel directly at its root. A parent always has a lower index than its child
+		DogArray_I32 localRoots = tileRoots.get(tile);
+		localRoots.reset();
+		for (int i = y0*width, end = y1*width; i < end; i++) {
+			int p = parent[i];
+			if (p < 0)
+				continue;
+			if (p == i)
+				localRoots.add(i);
+			else
+				parent[i] = parent[p];
+		}
+	}
+
+	/**
+	 * Merges components which are connected across tile borders. Then updates the root of every component
+	 * found inside the tiles.
+	 */
+	void mergeTiles( GrayU8 image, @Nullable ConnectRule ruleOne, @Nullable ConnectRule ruleZero ) {
+		int[] parent = roots.data;
+
+		for (int tile = 1; tile < tileRoots.size; tile++) {
+			int y = tileStarts.get(tile);
+			int indexImg = image.startIndex + y*image.stride;
+			int indexPixel = y*width;
+			for (int x = 0; x < width; x++, indexImg++, indexPixel++) {
+				boolean one = image.data[indexImg] == 1;
+				ConnectRule rule = one ? ruleOne : ruleZero;
+				if (rule != null)
+					unionAbove(image, rule, one, x, indexImg, indexPixel);
+			}
+		}
+
+		for (int tile = 0; tile < tileRoots.size; tile++) {
+			DogArray_I32 localRoots = tileRoots.get(tile);
+			for (int i = 0; i < localRoots.size; i++) {
+				int r = localRoots.data[i];
+				parent[r] = find(parent, r);
+			}
+		}
+	}
+
+	/**
+	 * Points every pixel in the tile to the root of its component. The parent of a pixel is either the root
+	 * of its component inside the tile, which now points to the final root, or the final root.
+	 */
+	void assignRoots( int tile ) {
+		int[] parent = roots.data;
+		for (int i = tileStarts.get(tile)*width, end = tileStarts.get(tile + 1)*width; i < end; i++) {
+			int p = parent[i];
+			if (p < 0 || p == i)
+				continue;
+			parent[i] = parent[p];
+		}
+	}
+
+	/**
+	 * Connects the pixel to its neighbors in the row above it
+	 */
+	private void unionAbove( GrayU8 image, ConnectRule rule, boolean one, int x, int indexImg, int indexPixel ) {
+		int[] parent = roots.data;
+		int indexAbove = indexImg - image.stride;
+
+		if ((image.data[indexAbove] == 1) == one)
+			union(parent, indexPixel - width, indexPixel);
+
+		if (rule == ConnectRule.EIGHT) {
+			if (x > 0 && (image.data[indexAbove - 1] == 1) == one)
+				union(parent, indexPixel - width - 1, indexPixel);
+			if (x + 1 < width && (image.data[indexAbove + 1] == 1) == one)
+				union(parent, indexPixel - width + 1, indexPixel);
+		}
+	}
+
+	/**
+	 * Merges the two sets. The root with the lower index becomes the root of the merged set.
+	 */
+	static void union( int[] parent, int a, int b ) {
+		int rootA = find(parent, a);
+		int rootB = find(parent, b);
+		if (rootA < rootB)
+			parent[rootB] = rootA;
+		else if (rootB < rootA)
+			parent[rootA] = rootB;
+	}
+
+	/**
+	 * Finds the root of the set and compresses the path to it
+	 */
+	static int find( int[] parent, int i ) {
+		int root = i;
+		while (parent[root] != root) {
+			root = parent[root];
+		}
+		while (parent[i] != root) {
+			int next = parent[i];
+			parent[i] = root;
+			i = next;
+		}
+		return root;
+	}
+
+	/** Number of tiles the image was broken up into */
+	public int getNumberOfTiles() {
+		return tileRoots.size;
+	}
+
+	/** First row in the tile */
+	public int getTileY0( int tile ) {
+		return tileStarts.get(tile);
+	}
+
+	/** Row after the last row in the tile */
+	public int getTileY1( int tile ) {
+		return tileStarts.get(tile + 1);
+	}
+}
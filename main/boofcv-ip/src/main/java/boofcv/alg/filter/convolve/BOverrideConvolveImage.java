@@ -43,10 +43,20 @@ public class BOverrideConvolveImage extends BOverrideClass {
 
 	public interface Horizontal {
 		void horizontal(Kernel1D kernel, ImageBase input, ImageBase output , ImageBorder border);
+
+		/** Returns true if the inputs can be processed. Checked before horizontal() is called. */
+		default boolean supports(Kernel1D kernel, ImageBase input, ImageBase output , ImageBorder border) {
+			return true;
+		}
 	}
 
 	public interface Vertical {
 		void vertical(Kernel1D kernel, ImageBase input, ImageBase output , ImageBorder border);
+
+		/** Returns true if the inputs can be processed. Checked before vertical() is called. */
+		default boolean supports(Kernel1D kernel, ImageBase input, ImageBase output , ImageBorder border) {
+			return true;
+		}
 	}
 
 	public interface Convolve {
@@ -55,7 +65,7 @@ public class BOverrideConvolveImage extends BOverrideClass {
 
 	public static boolean invokeNativeHorizontal(Kernel1D kernel, ImageBase input, ImageBase output , ImageBorder border) {
 		boolean processed = false;
-		if( horizontal != null ) {
+		if( horizontal != null && horizontal.supports(kernel, input, output, border) ) {
 			try {
 				horizontal.horizontal(kernel, input, output, border);
 				processed = true;
@@ -66,7 +76,7 @@ public class BOverrideConvolveImage extends BOverrideClass {
 
 	public static boolean invokeNativeVertical(Kernel1D kernel, ImageBase input, ImageBase output , ImageBorder border) {
 		boolean processed = false;
-		if( vertical != null ) {
+		if( vertical != null && vertical.supports(kernel, input, output, border) ) {
 			try {
 				vertical.vertical(kernel, input, output, border);
 				processed = true;
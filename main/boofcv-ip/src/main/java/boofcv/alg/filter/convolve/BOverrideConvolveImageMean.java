@@ -39,15 +39,26 @@ public class BOverrideConvolveImageMean extends BOverrideClass {
 
 	public interface Horizontal {
 		void horizontal(ImageBase input, ImageBase output, int offset, int length);
+
+		/** Returns true if the inputs can be processed. Checked before horizontal() is called. */
+		default boolean supports(ImageBase input, ImageBase output, int offset, int length) {
+			return true;
+		}
 	}
 
 	public interface Vertical {
 		void vertical(ImageBase input, ImageBase output, int offset, int length);
+
+		/** Returns true if the inputs can be processed. Checked before vertical() is called. */
+		default boolean supports(ImageBase input, ImageBase output, int offset, int length) {
+			return true;
+		}
 	}
 
 	public static boolean invokeNativeHorizontal(ImageBase input, ImageBase output, int offset, int length) {
 		boolean processed = false;
-		if( BOverrideConvolveImageMean.horizontal != null ) {
+		if( BOverrideConvolveImageMean.horizontal != null &&
+				BOverrideConvolveImageMean.horizontal.supports(input,output,offset,length) ) {
 			try {
 				BOverrideConvolveImageMean.horizontal.horizontal(input,output,offset,length);
 				processed = true;
@@ -58,7 +69,8 @@ public class BOverrideConvolveImageMean extends BOverrideClass {
 
 	public static boolean invokeNativeVertical(ImageBase input, ImageBase output, int offset, int length) {
 		boolean processed = false;
-		if( BOverrideConvolveImageMean.vertical != null ) {
+		if( BOverrideConvolveImageMean.vertical != null &&
+				BOverrideConvolveImageMean.vertical.supports(input,output,offset,length) ) {
 			try {
 				BOverrideConvolveImageMean.vertical.vertical(input,output,offset,length);
 				processed = true;
@@ -42,10 +42,20 @@ public class BOverrideConvolveImageNormalized extends BOverrideClass {
 
 	public interface Horizontal {
 		void horizontal(Kernel1D kernel, ImageBase input, ImageBase output);
+
+		/** Returns true if the inputs can be processed. Checked before horizontal() is called. */
+		default boolean supports(Kernel1D kernel, ImageBase input, ImageBase output) {
+			return true;
+		}
 	}
 
 	public interface Vertical {
 		void vertical(Kernel1D kernel, ImageBase input, ImageBase output);
+
+		/** Returns true if the inputs can be processed. Checked before vertical() is called. */
+		default boolean supports(Kernel1D kernel, ImageBase input, ImageBase output) {
+			return true;
+		}
 	}
 
 	public interface Convolve {
@@ -54,7 +64,8 @@ public class BOverrideConvolveImageNormalized extends BOverrideClass {
 
 	public static boolean invokeNativeHorizontal(Kernel1D kernel, ImageBase input, ImageBase output) {
 		boolean processed = false;
-		if( BOverrideConvolveImageNormalized.horizontal != null ) {
+		if( BOverrideConvolveImageNormalized.horizontal != null &&
+				BOverrideConvolveImageNormalized.horizontal.supports(kernel,input,output) ) {
 			try {
 				BOverrideConvolveImageNormalized.horizontal.horizontal(kernel,input,output);
 				processed = true;
@@ -65,7 +76,8 @@ public class BOverrideConvolveImageNormalized extends BOverrideClass {
 
 	public static boolean invokeNativeVertical(Kernel1D kernel, ImageBase input, ImageBase output) {
 		boolean processed = false;
-		if( BOverrideConvolveImageNormalized.vertical != null ) {
+		if( BOverrideConvolveImageNormalized.vertical != null &&
+				BOverrideConvolveImageNormalized.vertical.supports(kernel,input,output) ) {
 			try {
 				BOverrideConvolveImageNormalized.vertical.vertical(kernel,input,output);
 				processed = true;
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.misc;
+
+import boofcv.override.BOverrideClass;
+import boofcv.override.BOverrideManager;
+import boofcv.struct.image.ImageBase;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Override for {@link PixelMath}. Only basic arithmetic on {@link boofcv.struct.image.GrayF32} images can
+ * currently be overridden.
+ *
+ * @author Peter Abeles
+ */
+public class BOverridePixelMath extends BOverrideClass {
+
+	static {
+		BOverrideManager.register(BOverridePixelMath.class);
+	}
+
+	public static @Nullable Scalar scalar;
+	public static @Nullable TwoImages twoImages;
+
+	/** Arithmetic operation being applied to every pixel */
+	public enum Operation {
+		PLUS,
+		MINUS,
+		MULTIPLY,
+		DIVIDE
+	}
+
+	/** output = input (op) value */
+	public interface Scalar {
+		void scalar( Operation op, ImageBase input, double value, ImageBase output );
+
+		/** Returns true if the inputs can be processed. Checked before scalar() is called. */
+		default boolean supports( Operation op, ImageBase input, double value, ImageBase output ) {
+			return true;
+		}
+	}
+
+	/** output = imgA (op) imgB */
+	public interface TwoImages {
+		void twoImages( Operation op, ImageBase imgA, ImageBase imgB, ImageBase output );
+
+		/** Returns true if the inputs can be processed. Checked before twoImages() is called. */
+		default boolean supports( Operation op, ImageBase imgA, ImageBase imgB, ImageBase output ) {
+			return true;
+		}
+	}
+
+	public static boolean invokeNativeScalar( Operation op, ImageBase input, double value, ImageBase output ) {
+		boolean processed = false;
+		if (BOverridePixelMath.scalar != null && BOverridePixelMath.scalar.supports(op, input, value, output)) {
+			try {
+				BOverridePixelMath.scalar.scalar(op, input, value, output);
+				processed = true;
+			} catch (RuntimeException ignore) {}
+		}
+		return processed;
+	}
+
+	public static boolean invokeNativeTwoImages( Operation op, ImageBase imgA, ImageBase imgB, ImageBase output ) {
+		boolean processed = false;
+		if (BOverridePixelMath.twoImages != null && BOverridePixelMath.twoImages.supports(op, imgA, imgB, output)) {
+			try {
+				BOverridePixelMath.twoImages.twoImages(op, imgA, imgB, output);
+				processed = true;
+			} catch (RuntimeException ignore) {}
+		}
+		return processed;
+	}
+}
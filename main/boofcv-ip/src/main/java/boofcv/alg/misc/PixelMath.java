@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -1541,6 +1541,9 @@ public class PixelMath {
 
 		output.reshape(input.width,input.height);
 
+		if (BOverridePixelMath.invokeNativeScalar(BOverridePixelMath.Operation.MULTIPLY, input, value, output))
+			return;
+
 		int columns = input.width;
 		int N = input.width*input.height;
 		if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
@@ -2628,6 +2631,9 @@ public class PixelMath {
 
 		output.reshape(input.width,input.height);
 
+		if (BOverridePixelMath.invokeNativeScalar(BOverridePixelMath.Operation.DIVIDE, input, denominator, output))
+			return;
+
 		int columns = input.width;
 		int N = input.width*input.height;
 		if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
@@ -3684,6 +3690,9 @@ public class PixelMath {
 
 		output.reshape(input.width,input.height);
 
+		if (BOverridePixelMath.invokeNativeScalar(BOverridePixelMath.Operation.PLUS, input, value, output))
+			return;
+
 		int columns = input.width;
 		int N = input.width*input.height;
 		if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
@@ -4740,6 +4749,9 @@ public class PixelMath {
 
 		output.reshape(input.width,input.height);
 
+		if (BOverridePixelMath.invokeNativeScalar(BOverridePixelMath.Operation.MINUS, input, value, output))
+			return;
+
 		int columns = input.width;
 		int N = input.width*input.height;
 		if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
@@ -7074,6 +7086,9 @@ public class PixelMath {
 		InputSanityCheck.checkSameShape(imgA,imgB);
 		output.reshape(imgA.width,imgA.height);
 
+		if (BOverridePixelMath.invokeNativeTwoImages(BOverridePixelMath.Operation.PLUS, imgA, imgB, output))
+			return;
+
 		int N = imgA.width*imgA.height;
 		if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
 			ImplPixelMath_MT.add(imgA, imgB, output);
@@ -7095,6 +7110,9 @@ public class PixelMath {
 		InputSanityCheck.checkSameShape(imgA,imgB);
 		output.reshape(imgA.width,imgA.height);
 
+		if (BOverridePixelMath.invokeNativeTwoImages(BOverridePixelMath.Operation.MINUS, imgA, imgB, output))
+			return;
+
 		int N = imgA.width*imgA.height;
 		if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
 			ImplPixelMath_MT.subtract(imgA, imgB, output);
@@ -7116,6 +7134,9 @@ public class PixelMath {
 		InputSanityCheck.checkSameShape(imgA,imgB);
 		output.reshape(imgA.width,imgA.height);
 
+		if (BOverridePixelMath.invokeNativeTwoImages(BOverridePixelMath.Operation.MULTIPLY, imgA, imgB, output))
+			return;
+
 		int N = imgA.width*imgA.height;
 		if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
 			ImplPixelMath_MT.multiply(imgA, imgB, output);
@@ -7137,6 +7158,9 @@ public class PixelMath {
 		InputSanityCheck.checkSameShape(imgA,imgB);
 		output.reshape(imgA.width,imgA.height);
 
+		if (BOverridePixelMath.invokeNativeTwoImages(BOverridePixelMath.Operation.DIVIDE, imgA, imgB, output))
+			return;
+
 		int N = imgA.width*imgA.height;
 		if( BoofConcurrency.USE_CONCURRENT && N > SMALL_IMAGE) {
 			ImplPixelMath_MT.divide(imgA,imgB,output);
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.census;
+
+import boofcv.override.BOverrideClass;
+import boofcv.override.BOverrideManager;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Override for {@link CensusTransform}. Overrides only process the image's inner region. The border is
+ * always handled by BoofCV.
+ *
+ * @author Peter Abeles
+ */
+public class BOverrideCensusTransform extends BOverrideClass {
+
+	static {
+		BOverrideManager.register(BOverrideCensusTransform.class);
+	}
+
+	public static @Nullable Dense3x3 dense3x3;
+
+	public interface Dense3x3 {
+		void dense3x3( ImageGray input, GrayU8 output );
+
+		/** Returns true if the inputs can be processed. Checked before dense3x3() is called. */
+		default boolean supports( ImageGray input, GrayU8 output ) {
+			return true;
+		}
+	}
+
+	public static boolean invokeNativeDense3x3( ImageGray input, GrayU8 output ) {
+		boolean processed = false;
+		if (BOverrideCensusTransform.dense3x3 != null && BOverrideCensusTransform.dense3x3.supports(input, output)) {
+			try {
+				BOverrideCensusTransform.dense3x3.dense3x3(input, output);
+				processed = true;
+			} catch (RuntimeException ignore) {}
+		}
+		return processed;
+	}
+}
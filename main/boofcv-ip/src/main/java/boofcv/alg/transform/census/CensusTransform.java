@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -108,7 +108,9 @@ public class CensusTransform {
 	public static void dense3x3( final GrayU8 input, final GrayU8 output, @Nullable ImageBorder_S32<GrayU8> border ) {
 		InputSanityCheck.checkReshape(input, output);
 
-		if (BoofConcurrency.USE_CONCURRENT) {
+		if (BOverrideCensusTransform.invokeNativeDense3x3(input, output)) {
+			// the inner image has been processed
+		} else if (BoofConcurrency.USE_CONCURRENT) {
 			ImplCensusTransformInner_MT.dense3x3(input, output);
 		} else {
 			ImplCensusTransformInner.dense3x3(input, output);
@@ -130,7 +132,9 @@ public class CensusTransform {
 	public static void dense3x3( final GrayU16 input, final GrayU8 output, @Nullable ImageBorder_S32<GrayU16> border ) {
 		InputSanityCheck.checkReshape(input, output);
 
-		if (BoofConcurrency.USE_CONCURRENT) {
+		if (BOverrideCensusTransform.invokeNativeDense3x3(input, output)) {
+			// the inner image has been processed
+		} else if (BoofConcurrency.USE_CONCURRENT) {
 			ImplCensusTransformInner_MT.dense3x3(input, output);
 		} else {
 			ImplCensusTransformInner.dense3x3(input, output);
@@ -152,7 +156,9 @@ public class CensusTransform {
 	public static void dense3x3( final GrayF32 input, final GrayU8 output, @Nullable ImageBorder_F32 border ) {
 		InputSanityCheck.checkReshape(input, output);
 
-		if (BoofConcurrency.USE_CONCURRENT) {
+		if (BOverrideCensusTransform.invokeNativeDense3x3(input, output)) {
+			// the inner image has been processed
+		} else if (BoofConcurrency.USE_CONCURRENT) {
 			ImplCensusTransformInner_MT.dense3x3(input, output);
 		} else {
 			ImplCensusTransformInner.dense3x3(input, output);
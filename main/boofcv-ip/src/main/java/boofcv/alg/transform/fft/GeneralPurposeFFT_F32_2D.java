@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,6 +18,8 @@
 
 package boofcv.alg.transform.fft;
 
+import pabeles.concurrency.IntRangeObjectConsumer;
+
 // CHECKSTYLE:OFF
 /**
  * <p>
@@ -28,8 +30,9 @@ package boofcv.alg.transform.fft;
  * </p><p>
  * This code has a bit of a history. Originally from General Purpose FFT. Which was then ported into
  * JFFTPack written by Baoshe Zhang (http://jfftpack.sourceforge.net/), and then into JTransforms by Piotr Wendykier.
- * The major modification from JTransforms is that the SMP code has been stripped out. It might be added back in
- * once an SMP strategy has been finalized in BoofCV.
+ * The major modification from JTransforms is that the SMP code has been stripped out. Instead, independent
+ * 1D transforms are processed inside of {@link #loop}, which {@link GeneralPurposeFFT_F32_2D_MT} overrides
+ * to process them concurrently.
  * </p>
  * <p>
  * Code License:  The original license of General Purpose FFT Package is shown below. This file will fall
@@ -62,6 +65,9 @@ public class GeneralPurposeFFT_F32_2D {
 	private float[] temp;
 	private float[][] temp2;
 
+	// 1D transforms and storage used by the calling thread
+	protected Workspace work;
+
 	/**
 	 * Creates new instance of DoubleFFT_2D.
 	 *
@@ -99,6 +105,54 @@ public class GeneralPurposeFFT_F32_2D {
 		}
 
 		temp = new float[2 * rows];
+		work = new Workspace(fftRows, fftColumns, t, temp);
+	}
+
+	/**
+	 * Copy constructor. Twiddle factor tables are shared with the original but all work space is declared again.
+	 */
+	protected GeneralPurposeFFT_F32_2D( GeneralPurposeFFT_F32_2D src ) {
+		this.rows = src.rows;
+		this.columns = src.columns;
+		this.isPowerOfTwo = src.isPowerOfTwo;
+		this.work = src.createWorkspace();
+		this.fftRows = work.fftRows;
+		this.fftColumns = work.fftColumns;
+		this.t = work.t;
+		this.temp = work.temp;
+	}
+
+	/**
+	 * Creates a copy of this transform which can be used in a different thread at the same time as the
+	 * original. The copy is always single threaded. Useful when transforming many images of the same size.
+	 */
+	public GeneralPurposeFFT_F32_2D copyConcurrent() {
+		return new GeneralPurposeFFT_F32_2D(this);
+	}
+
+	/**
+	 * Creates new 1D transforms and storage for use in a different thread. Twiddle factor tables are shared.
+	 */
+	protected Workspace createWorkspace() {
+		GeneralPurposeFFT_F32_1D fftRows = this.fftRows.copyConcurrent();
+		GeneralPurposeFFT_F32_1D fftColumns = this.fftRows == this.fftColumns ? fftRows : this.fftColumns.copyConcurrent();
+		return new Workspace(fftRows, fftColumns, t == null ? null : new float[t.length], new float[temp.length]);
+	}
+
+	/**
+	 * Calls the operation on the index range [0, length). The operations on each index are independent.
+	 * The default implementation processes the entire range in the calling thread.
+	 */
+	protected void loop( int length, IntRangeObjectConsumer<Workspace> op ) {
+		op.accept(work, 0, length);
+	}
+
+	public int getRows() {
+		return rows;
+	}
+
+	public int getColumns() {
+		return columns;
 	}
 
 	/**
@@ -129,34 +183,42 @@ public class GeneralPurposeFFT_F32_2D {
 		if (isPowerOfTwo) {
 			int oldn2 = columns;
 			columns = 2 * columns;
-			for (int r = 0; r < rows; r++) {
-				fftColumns.complexForward(a, r * columns);
-			}
+			loop(rows, ( w, r0, r1 ) -> {
+				for (int r = r0; r < r1; r++) {
+					w.fftColumns.complexForward(a, r*columns);
+				}
+			});
 			cdft2d_sub(-1, a, true);
 			columns = oldn2;
 		} else {
 			final int rowStride = 2 * columns;
 
-			for (int r = 0; r < rows; r++) {
-				fftColumns.complexForward(a, r * rowStride);
-			}
-
-			for (int c = 0; c < columns; c++) {
-				int idx0 = 2 * c;
-				for (int r = 0; r < rows; r++) {
-					int idx1 = 2 * r;
-					int idx2 = r * rowStride + idx0;
-					temp[idx1] = a[idx2];
-					temp[idx1 + 1] = a[idx2 + 1];
+			loop(rows, ( w, r0, r1 ) -> {
+				for (int r = r0; r < r1; r++) {
+					w.fftColumns.complexForward(a, r*rowStride);
 				}
-				fftRows.complexForward(temp);
-				for (int r = 0; r < rows; r++) {
-					int idx1 = 2 * r;
-					int idx2 = r * rowStride + idx0;
-					a[idx2] = temp[idx1];
-					a[idx2 + 1] = temp[idx1 + 1];
+			});
+
+			loop(columns, ( w, c0, c1 ) -> {
+				float[] temp = w.temp;
+				GeneralPurposeFFT_F32_1D fftRows = w.fftRows;
+				for (int c = c0; c < c1; c++) {
+					int idx0 = 2 * c;
+					for (int r = 0; r < rows; r++) {
+						int idx1 = 2 * r;
+						int idx2 = r * rowStride + idx0;
+						temp[idx1] = a[idx2];
+						temp[idx1 + 1] = a[idx2 + 1];
+					}
+					fftRows.complexForward(temp);
+					for (int r = 0; r < rows; r++) {
+						int idx1 = 2 * r;
+						int idx2 = r * rowStride + idx0;
+						a[idx2] = temp[idx1];
+						a[idx2 + 1] = temp[idx1 + 1];
+					}
 				}
-			}
+			});
 		}
 	}
 
@@ -192,33 +254,41 @@ public class GeneralPurposeFFT_F32_2D {
 		if (isPowerOfTwo) {
 			int oldn2 = columns;
 			columns = 2 * columns;
-			for (int r = 0; r < rows; r++) {
-				fftColumns.complexInverse(a, r * columns, scale);
-			}
+			loop(rows, ( w, r0, r1 ) -> {
+				for (int r = r0; r < r1; r++) {
+					w.fftColumns.complexInverse(a, r*columns, scale);
+				}
+			});
 			cdft2d_sub(1, a, scale);
 			columns = oldn2;
 		} else {
 			final int rowspan = 2 * columns;
-			for (int r = 0; r < rows; r++) {
-				fftColumns.complexInverse(a, r * rowspan, scale);
-			}
-
-			for (int c = 0; c < columns; c++) {
-				int idx1 = 2 * c;
-				for (int r = 0; r < rows; r++) {
-					int idx2 = 2 * r;
-					int idx3 = r * rowspan + idx1;
-					temp[idx2] = a[idx3];
-					temp[idx2 + 1] = a[idx3 + 1];
+			loop(rows, ( w, r0, r1 ) -> {
+				for (int r = r0; r < r1; r++) {
+					w.fftColumns.complexInverse(a, r*rowspan, scale);
 				}
-				fftRows.complexInverse(temp, scale);
-				for (int r = 0; r < rows; r++) {
-					int idx2 = 2 * r;
-					int idx3 = r * rowspan + idx1;
-					a[idx3] = temp[idx2];
-					a[idx3 + 1] = temp[idx2 + 1];
+			});
+
+			loop(columns, ( w, c0, c1 ) -> {
+				float[] temp = w.temp;
+				GeneralPurposeFFT_F32_1D fftRows = w.fftRows;
+				for (int c = c0; c < c1; c++) {
+					int idx1 = 2 * c;
+					for (int r = 0; r < rows; r++) {
+						int idx2 = 2 * r;
+						int idx3 = r * rowspan + idx1;
+						temp[idx2] = a[idx3];
+						temp[idx2 + 1] = a[idx3 + 1];
+					}
+					fftRows.complexInverse(temp, scale);
+					for (int r = 0; r < rows; r++) {
+						int idx2 = 2 * r;
+						int idx3 = r * rowspan + idx1;
+						a[idx3] = temp[idx2];
+						a[idx3 + 1] = temp[idx2 + 1];
+					}
 				}
-			}
+			});
 		}
 	}
 
@@ -258,9 +328,11 @@ public class GeneralPurposeFFT_F32_2D {
 		if (isPowerOfTwo == false) {
 			throw new IllegalArgumentException("rows and columns must be power of two numbers");
 		} else {
-			for (int r = 0; r < rows; r++) {
-				fftColumns.realForward(a, r * columns);
-			}
+			loop(rows, ( w, r0, r1 ) -> {
+				for (int r = r0; r < r1; r++) {
+					w.fftColumns.realForward(a, r*columns);
+				}
+			});
 			cdft2d_sub(-1, a, true);
 			rdft2d_sub(1, a);
 		}
@@ -289,9 +361,11 @@ public class GeneralPurposeFFT_F32_2D {
 		}
 
 		if (isPowerOfTwo) {
-			for (int r = 0; r < rows; r++) {
-				fftColumns.realForward(a, r * columns);
-			}
+			loop(rows, ( w, r0, r1 ) -> {
+				for (int r = r0; r < r1; r++) {
+					w.fftColumns.realForward(a, r*columns);
+				}
+			});
 			cdft2d_sub(-1, a, true);
 			rdft2d_sub(1, a);
 			fillSymmetric(a);
@@ -350,9 +424,11 @@ public class GeneralPurposeFFT_F32_2D {
 		} else {
 			rdft2d_sub(-1, a);
 			cdft2d_sub(1, a, scale);
-			for (int r = 0; r < rows; r++) {
-				fftColumns.realInverse(a, r * columns, scale);
-			}
+			loop(rows, ( w, r0, r1 ) -> {
+				for (int r = r0; r < r1; r++) {
+					w.fftColumns.realInverse(a, r*columns, scale);
+				}
+			});
 		}
 	}
 
@@ -381,9 +457,11 @@ public class GeneralPurposeFFT_F32_2D {
 		}
 
 		if (isPowerOfTwo) {
-			for (int r = 0; r < rows; r++) {
-				fftColumns.realInverse2(a, r * columns, scale);
-			}
+			loop(rows, ( w, r0, r1 ) -> {
+				for (int r = r0; r < r1; r++) {
+					w.fftColumns.realInverse2(a, r*columns, scale);
+				}
+			});
 			cdft2d_sub(1, a, scale);
 			rdft2d_sub(1, a);
 			fillSymmetric(a);
@@ -405,24 +483,29 @@ public class GeneralPurposeFFT_F32_2D {
 		final int n2d2 = columns / 2 + 1;
 		final float[][] temp = temp2;
 
-		for (int r = 0; r < rows; r++) {
-			fftColumns.realForward(a, r * columns);
-		}
+		loop(rows, ( w, r0, r1 ) -> {
+			for (int r = r0; r < r1; r++) {
+				w.fftColumns.realForward(a, r*columns);
+			}
+		});
 		for (int r = 0; r < rows; r++) {
 			temp[0][r] = a[r * columns]; //first column is always real
 		}
 		fftRows.realForwardFull(temp[0]);
 
-		for (int c = 1; c < n2d2 - 1; c++) {
-			int idx0 = 2 * c;
-			for (int r = 0; r < rows; r++) {
-				int idx1 = 2 * r;
-				int idx2 = r * columns + idx0;
-				temp[c][idx1] = a[idx2];
-				temp[c][idx1 + 1] = a[idx2 + 1];
+		loop(n2d2 - 2, ( w, i0, i1 ) -> {
+			GeneralPurposeFFT_F32_1D fftRows = w.fftRows;
+			for (int c = i0 + 1; c < i1 + 1; c++) {
+				int idx0 = 2 * c;
+				for (int r = 0; r < rows; r++) {
+					int idx1 = 2 * r;
+					int idx2 = r * columns + idx0;
+					temp[c][idx1] = a[idx2];
+					temp[c][idx1 + 1] = a[idx2 + 1];
+				}
+				fftRows.complexForward(temp[c]);
 			}
-			fftRows.complexForward(temp[c]);
-		}
+		});
 
 		if ((columns % 2) == 0) {
 			for (int r = 0; r < rows; r++) {
@@ -474,24 +557,29 @@ public class GeneralPurposeFFT_F32_2D {
 		final int n2d2 = columns / 2 + 1;
 		final float[][] temp = temp2;
 
-		for (int r = 0; r < rows; r++) {
-			fftColumns.realInverse2(a, r * columns, scale);
-		}
+		loop(rows, ( w, r0, r1 ) -> {
+			for (int r = r0; r < r1; r++) {
+				w.fftColumns.realInverse2(a, r*columns, scale);
+			}
+		});
 		for (int r = 0; r < rows; r++) {
 			temp[0][r] = a[r * columns]; //first column is always real
 		}
 		fftRows.realInverseFull(temp[0], scale);
 
-		for (int c = 1; c < n2d2 - 1; c++) {
-			int idx0 = 2 * c;
-			for (int r = 0; r < rows; r++) {
-				int idx1 = 2 * r;
-				int idx2 = r * columns + idx0;
-				temp[c][idx1] = a[idx2];
-				temp[c][idx1 + 1] = a[idx2 + 1];
+		loop(n2d2 - 2, ( w, i0, i1 ) -> {
+			GeneralPurposeFFT_F32_1D fftRows = w.fftRows;
+			for (int c = i0 + 1; c < i1 + 1; c++) {
+				int idx0 = 2 * c;
+				for (int r = 0; r < rows; r++) {
+					int idx1 = 2 * r;
+					int idx2 = r * columns + idx0;
+					temp[c][idx1] = a[idx2];
+					temp[c][idx1 + 1] = a[idx2 + 1];
+				}
+				fftRows.complexInverse(temp[c], scale);
 			}
-			fftRows.complexInverse(temp[c], scale);
-		}
+		});
 
 		if ((columns % 2) == 0) {
 			for (int r = 0; r < rows; r++) {
@@ -573,42 +661,7 @@ public class GeneralPurposeFFT_F32_2D {
 		int idx1, idx2, idx3, idx4, idx5;
 		if (isgn == -1) {
 			if (columns > 4) {
-				for (int c = 0; c < columns; c += 8) {
-					for (int r = 0; r < rows; r++) {
-						idx1 = r * columns + c;
-						idx2 = 2 * r;
-						idx3 = 2 * rows + 2 * r;
-						idx4 = idx3 + 2 * rows;
-						idx5 = idx4 + 2 * rows;
-						t[idx2] = a[idx1];
-						t[idx2 + 1] = a[idx1 + 1];
-						t[idx3] = a[idx1 + 2];
-						t[idx3 + 1] = a[idx1 + 3];
-						t[idx4] = a[idx1 + 4];
-						t[idx4 + 1] = a[idx1 + 5];
-						t[idx5] = a[idx1 + 6];
-						t[idx5 + 1] = a[idx1 + 7];
-					}
-					fftRows.complexForward(t, 0);
-					fftRows.complexForward(t, 2 * rows);
-					fftRows.complexForward(t, 4 * rows);
-					fftRows.complexForward(t, 6 * rows);
-					for (int r = 0; r < rows; r++) {
-						idx1 = r * columns + c;
-						idx2 = 2 * r;
-						idx3 = 2 * rows + 2 * r;
-						idx4 = idx3 + 2 * rows;
-						idx5 = idx4 + 2 * rows;
-						a[idx1] = t[idx2];
-						a[idx1 + 1] = t[idx2 + 1];
-						a[idx1 + 2] = t[idx3];
-						a[idx1 + 3] = t[idx3 + 1];
-						a[idx1 + 4] = t[idx4];
-						a[idx1 + 5] = t[idx4 + 1];
-						a[idx1 + 6] = t[idx5];
-						a[idx1 + 7] = t[idx5 + 1];
-					}
-				}
+				loop(columns/8, ( w, g0, g1 ) -> cdft2d_subBlock(isgn, a, scale, w, g0, g1));
 			} else if (columns == 4) {
 				for (int r = 0; r < rows; r++) {
 					idx1 = r * columns;
@@ -647,42 +700,7 @@ public class GeneralPurposeFFT_F32_2D {
 			}
 		} else {
 			if (columns > 4) {
-				for (int c = 0; c < columns; c += 8) {
-					for (int r = 0; r < rows; r++) {
-						idx1 = r * columns + c;
-						idx2 = 2 * r;
-						idx3 = 2 * rows + 2 * r;
-						idx4 = idx3 + 2 * rows;
-						idx5 = idx4 + 2 * rows;
-						t[idx2] = a[idx1];
-						t[idx2 + 1] = a[idx1 + 1];
-						t[idx3] = a[idx1 + 2];
-						t[idx3 + 1] = a[idx1 + 3];
-						t[idx4] = a[idx1 + 4];
-						t[idx4 + 1] = a[idx1 + 5];
-						t[idx5] = a[idx1 + 6];
-						t[idx5 + 1] = a[idx1 + 7];
-					}
-					fftRows.complexInverse(t, 0, scale);
-					fftRows.complexInverse(t, 2 * rows, scale);
-					fftRows.complexInverse(t, 4 * rows, scale);
-					fftRows.complexInverse(t, 6 * rows, scale);
-					for (int r = 0; r < rows; r++) {
-						idx1 = r * columns + c;
-						idx2 = 2 * r;
-						idx3 = 2 * rows + 2 * r;
-						idx4 = idx3 + 2 * rows;
-						idx5 = idx4 + 2 * rows;
-						a[idx1] = t[idx2];
-						a[idx1 + 1] = t[idx2 + 1];
-						a[idx1 + 2] = t[idx3];
-						a[idx1 + 3] = t[idx3 + 1];
-						a[idx1 + 4] = t[idx4];
-						a[idx1 + 5] = t[idx4 + 1];
-						a[idx1 + 6] = t[idx5];
-						a[idx1 + 7] = t[idx5 + 1];
-					}
-				}
+				loop(columns/8, ( w, g0, g1 ) -> cdft2d_subBlock(isgn, a, scale, w, g0, g1));
 			} else if (columns == 4) {
 				for (int r = 0; r < rows; r++) {
 					idx1 = r * columns;
@@ -722,6 +740,58 @@ public class GeneralPurposeFFT_F32_2D {
 		}
 	}
 
+	/**
+	 * Transforms columns in the range [group0*4, group1*4) in groups of four complex columns
+	 */
+	private void cdft2d_subBlock(int isgn, float[] a, boolean scale, Workspace w, int group0, int group1) {
+		final float[] t = w.t;
+		final GeneralPurposeFFT_F32_1D fftRows = w.fftRows;
+		int idx1, idx2, idx3, idx4, idx5;
+		for (int c = group0*8; c < group1*8; c += 8) {
+			for (int r = 0; r < rows; r++) {
+				idx1 = r * columns + c;
+				idx2 = 2 * r;
+				idx3 = 2 * rows + 2 * r;
+				idx4 = idx3 + 2 * rows;
+				idx5 = idx4 + 2 * rows;
+				t[idx2] = a[idx1];
+				t[idx2 + 1] = a[idx1 + 1];
+				t[idx3] = a[idx1 + 2];
+				t[idx3 + 1] = a[idx1 + 3];
+				t[idx4] = a[idx1 + 4];
+				t[idx4 + 1] = a[idx1 + 5];
+				t[idx5] = a[idx1 + 6];
+				t[idx5 + 1] = a[idx1 + 7];
+			}
+			if (isgn == -1) {
+				fftRows.complexForward(t, 0);
+				fftRows.complexForward(t, 2 * rows);
+				fftRows.complexForward(t, 4 * rows);
+				fftRows.complexForward(t, 6 * rows);
+			} else {
+				fftRows.complexInverse(t, 0, scale);
+				fftRows.complexInverse(t, 2 * rows, scale);
+				fftRows.complexInverse(t, 4 * rows, scale);
+				fftRows.complexInverse(t, 6 * rows, scale);
+			}
+			for (int r = 0; r < rows; r++) {
+				idx1 = r * columns + c;
+				idx2 = 2 * r;
+				idx3 = 2 * rows + 2 * r;
+				idx4 = idx3 + 2 * rows;
+				idx5 = idx4 + 2 * rows;
+				a[idx1] = t[idx2];
+				a[idx1 + 1] = t[idx2 + 1];
+				a[idx1 + 2] = t[idx3];
+				a[idx1 + 3] = t[idx3 + 1];
+				a[idx1 + 4] = t[idx4];
+				a[idx1 + 5] = t[idx4 + 1];
+				a[idx1 + 6] = t[idx5];
+				a[idx1 + 7] = t[idx5 + 1];
+			}
+		}
+	}
+
 	private void fillSymmetric(final float[] a) {
 		final int twon2 = 2 * columns;
 		int idx1, idx2, idx3, idx4;
@@ -770,4 +840,22 @@ public class GeneralPurposeFFT_F32_2D {
 		a[idx1 + 1] = 0;
 		a[idx1 + columns + 1] = 0;
 	}
+
+	/**
+	 * 1D transforms and storage. Can only be used by one thread at a time.
+	 */
+	protected static class Workspace {
+		final GeneralPurposeFFT_F32_1D fftRows, fftColumns;
+		// storage used by cdft2d_sub
+		final float[] t;
+		// storage for a single column
+		final float[] temp;
+
+		Workspace( GeneralPurposeFFT_F32_1D fftRows, GeneralPurposeFFT_F32_1D fftColumns, float[] t, float[] temp ) {
+			this.fftRows = fftRows;
+			this.fftColumns = fftColumns;
+			this.t = t;
+			this.temp = temp;
+		}
+	}
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.fft;
+
+import boofcv.concurrency.BoofConcurrency;
+import pabeles.concurrency.GrowArray;
+import pabeles.concurrency.IntRangeObjectConsumer;
+
+/**
+ * Concurrent implementation of {@link GeneralPurposeFFT_F32_2D}. The 1D transforms along rows and then along
+ * columns are independent of each other and are split between threads. Each thread has its own copy of the 1D
+ * transforms and storage, while the twiddle factor tables are shared.
+ *
+ * @author Peter Abeles
+ */
+public class GeneralPurposeFFT_F32_2D_MT extends GeneralPurposeFFT_F32_2D {
+	// 1D transforms and storage for each thread
+	private final GrowArray<Workspace> workspaces = new GrowArray<>(this::createWorkspace);
+
+	/**
+	 * Creates new instance
+	 *
+	 * @param rows number of rows
+	 * @param columns number of columns
+	 */
+	public GeneralPurposeFFT_F32_2D_MT( int rows, int columns ) {
+		super(rows, columns);
+	}
+
+	@Override protected void loop( int length, IntRangeObjectConsumer<Workspace> op ) {
+		BoofConcurrency.loopBlocks(0, length, workspaces, op);
+	}
+}
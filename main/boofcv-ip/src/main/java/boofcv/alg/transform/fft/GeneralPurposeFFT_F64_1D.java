@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -146,6 +146,33 @@ public class GeneralPurposeFFT_F64_1D {
 		ch2 = new double[n*2];
 	}
 
+	/**
+	 * Creates a copy of this transform which can be used in a different thread at the same time as the
+	 * original. The twiddle factor tables are read only and shared between the two, only the work space is
+	 * declared again.
+	 */
+	public GeneralPurposeFFT_F64_1D copyConcurrent() {
+		var ret = new GeneralPurposeFFT_F64_1D();
+		ret.n = n;
+		ret.nBluestein = nBluestein;
+		ret.ip = ip;
+		ret.w = w;
+		ret.nw = nw;
+		ret.nc = nc;
+		ret.wtable = wtable;
+		ret.wtable_r = wtable_r;
+		ret.bk1 = bk1;
+		ret.bk2 = bk2;
+		ret.plan = plan;
+		if (ak != null)
+			ret.ak = new double[ak.length];
+		ret.ch = new double[ch.length];
+		ret.ch2 = new double[ch2.length];
+		return ret;
+	}
+
+	private GeneralPurposeFFT_F64_1D() {}
+
 	/**
 	 * Computes 1D forward DFT of complex data leaving the result in
 	 * <code>a</code>. Complex number is stored as two double values in
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.core.encoding;
+
+import boofcv.misc.BoofMiscOps;
+import boofcv.struct.image.*;
+import org.ddogleg.struct.DogArray_I8;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts YUV 4:2:0 images where each plane is in its own {@link ByteBuffer} into BoofCV images. This is the
+ * format video decoders typically output. Chroma is sub-sampled by two along each axis. Planar (I420 / YUV420P) and
+ * semi-planar (NV12 / NV21) layouts are both supported by specifying the pixel stride in the chroma planes. For
+ * NV12 the interleaved plane is passed in as U and a slice of it which starts one byte later as V, and the
+ * reverse for NV21. Rows are read straight out of the buffers, so the only copy is into the output image, and no
+ * memory is allocated once the output and work array have been declared.
+ *
+ * Unlike {@link ConvertYuv420_888} the chroma period is always two, so strides can include any amount of padding.
+ * The position of each buffer is modified.
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("unchecked")
+public class ConvertYuv420Planes {
+	/**
+	 * Converts the planes into any supported BoofCV image. Color images are converted into RGB.
+	 *
+	 * @param bufferY (Input) Luma plane
+	 * @param bufferU (Input) Cb plane
+	 * @param bufferV (Input) Cr plane
+	 * @param width (Input) Image width
+	 * @param height (Input) Image height
+	 * @param strideY (Input) Bytes between rows in the luma plane
+	 * @param strideUV (Input) Bytes between rows in the chroma planes
+	 * @param stridePixelUV (Input) Bytes between pixels in the chroma planes. 1 = planar and 2 = semi-planar.
+	 * @param output (Output) Image. Reshaped to the input size.
+	 * @param work (Optional) Work space. Can be null.
+	 */
+	public static void yuvToBoof( ByteBuffer bufferY, ByteBuffer bufferU, ByteBuffer bufferV,
+								  int width, int height, int strideY, int strideUV, int stridePixelUV,
+								  ImageBase<?> output, @Nullable DogArray_I8 work ) {
+		if (output instanceof GrayU8) {
+			yuvToGray(bufferY, width, height, strideY, (GrayU8)output);
+		} else if (output instanceof GrayF32) {
+			yuvToGray(bufferY, width, height, strideY, (GrayF32)output, work);
+		} else if (output instanceof InterleavedU8) {
+			yuvToInterleavedRgb(bufferY, bufferU, bufferV, width, height, strideY, strideUV, stridePixelUV,
+					(InterleavedU8)output, work);
+		} else if (output instanceof Planar && ((Planar<?>)output).getBandType() == GrayU8.class) {
+			yuvToPlanarRgbU8(bufferY, bufferU, bufferV, width, height, strideY, strideUV, stridePixelUV,
+					(Planar<GrayU8>)output, work);
+		} else if (output instanceof Planar && ((Planar<?>)output).getBandType() == GrayF32.class) {
+			yuvToPlanarRgbF32(bufferY, bufferU, bufferV, width, height, strideY, strideUV, stridePixelUV,
+					(Planar<GrayF32>)output, work);
+		} else {
+			throw new IllegalArgumentException("Unsupported output type " + output.getImageType());
+		}
+	}
+
+	/**
+	 * Copies the luma plane into a gray scale image
+	 */
+	public static void yuvToGray( ByteBuffer bufferY, int width, int height, int strideY, GrayU8 output ) {
+		output.reshape(width, height);
+		for (int y = 0; y < height; y++) {
+			bufferY.position(y*strideY);
+			bufferY.get(output.data, output.startIndex + y*output.stride, width);
+		}
+	}
+
+	/**
+	 * Copies the luma plane into a gray scale image
+	 */
+	public static void yuvToGray( ByteBuffer bufferY, int width, int height, int strideY, GrayF32 output,
+								  @Nullable DogArray_I8 work ) {
+		output.reshape(width, height);
+		byte[] row = BoofMiscOps.checkDeclare(work, width, false);
+
+		for (int y = 0; y < height; y++) {
+			bufferY.position(y*strideY);
+			bufferY.get(row, 0, width);
+			int indexOut = output.startIndex + y*output.stride;
+			for (int x = 0; x < width; x++) {
+				output.data[indexOut++] = row[x] & 0xFF;
+			}
+		}
+	}
+
+	public static void yuvToInterleavedRgb( ByteBuffer bufferY, ByteBuffer bufferU, ByteBuffer bufferV,
+											int width, int height, int strideY, int strideUV, int stridePixelUV,
+											InterleavedU8 output, @Nullable DogArray_I8 work ) {
+		output.reshape(width, height, 3);
+		byte[] rows = declareWork(width, stridePixelUV, work);
+
+		for (int y = 0; y < height; y++) {
+			readRows(bufferY, bufferU, bufferV, y, width, strideY, strideUV, stridePixelUV, rows);
+			rowToRgb(rows, width, stridePixelUV, output.data, output.startIndex + y*output.stride);
+		}
+	}
+
+	public static void yuvToPlanarRgbU8( ByteBuffer bufferY, ByteBuffer bufferU, ByteBuffer bufferV,
+										 int width, int height, int strideY, int strideUV, int stridePixelUV,
+										 Planar<GrayU8> output, @Nullable DogArray_I8 work ) {
+		output.reshape(width, height, 3);
+		byte[] rows = declareWork(width, stridePixelUV, work);
+		int offsetRgb = width + 2*chromaRowBytes(width, stridePixelUV);
+
+		byte[] red = output.getBand(0).data;
+		byte[] green = output.getBand(1).data;
+		byte[] blue = output.getBand(2).data;
+
+		for (int y = 0; y < height; y++) {
+			readRows(bufferY, bufferU, bufferV, y, width, strideY, strideUV, stridePixelUV, rows);
+			rowToRgb(rows, width, stridePixelUV, rows, offsetRgb);
+
+			int indexOut = output.startIndex + y*output.stride;
+			for (int x = 0, i = offsetRgb; x < width; x++, indexOut++) {
+				red[indexOut] = rows[i++];
+				green[indexOut] = rows[i++];
+				blue[indexOut] = rows[i++];
+			}
+		}
+	}
+
+	public static void yuvToPlanarRgbF32( ByteBuffer bufferY, ByteBuffer bufferU, ByteBuffer bufferV,
+										  int width, int height, int strideY, int strideUV, int stridePixelUV,
+										  Planar<GrayF32> output, @Nullable DogArray_I8 work ) {
+		output.reshape(width, height, 3);
+		byte[] rows = declareWork(width, stridePixelUV, work);
+		int offsetRgb = width + 2*chromaRowBytes(width, stridePixelUV);
+
+		float[] red = output.getBand(0).data;
+		float[] green = output.getBand(1).data;
+		float[] blue = output.getBand(2).data;
+
+		for (int y = 0; y < height; y++) {
+			readRows(bufferY, bufferU, bufferV, y, width, strideY, strideUV, stridePixelUV, rows);
+			rowToRgb(rows, width, stridePixelUV, rows, offsetRgb);
+
+			int indexOut = output.startIndex + y*output.stride;
+			for (int x = 0, i = offsetRgb; x < width; x++, indexOut++) {
+				red[indexOut] = rows[i++] & 0xFF;
+				green[indexOut] = rows[i++] & 0xFF;
+				blue[indexOut] = rows[i++] & 0xFF;
+			}
+		}
+	}
+
+	/**
+	 * Number of bytes in a row of a chroma plane which contain data
+	 */
+	static int chromaRowBytes( int width, int stridePixelUV ) {
+		return ((width + 1)/2 - 1)*stridePixelUV + 1;
+	}
+
+	/**
+	 * Work array has one row of luma, one row from each chroma plane, and one row of RGB
+	 */
+	private static byte[] declareWork( int width, int stridePixelUV, @Nullable DogArray_I8 work ) {
+		int length = width + 2*chromaRowBytes(width, stridePixelUV) + 3*width;
+		return BoofMiscOps.checkDeclare(work, length, false);
+	}
+
+	/**
+	 * Reads in a row of luma and, if it changed, the row from each chroma plane
+	 */
+	private static void readRows( ByteBuffer bufferY, ByteBuffer bufferU, ByteBuffer bufferV, int y,
+								  int width, int strideY, int strideUV, int stridePixelUV, byte[] rows ) {
+		bufferY.position(y*strideY);
+		bufferY.get(rows, 0, width);
+
+		if (y%2 != 0)
+			return;
+
+		int rowBytesUV = chromaRowBytes(width, stridePixelUV);
+		bufferU.position((y/2)*strideUV);
+		bufferU.get(rows, width, rowBytesUV);
+		bufferV.position((y/2)*strideUV);
+		bufferV.get(rows, width + rowBytesUV, rowBytesUV);
+	}
+
+	/**
+	 * Converts a row of YUV into interleaved RGB using the BT.601 video range
+	 */
+	private static void rowToRgb( byte[] rows, int width, int stridePixelUV, byte[] dst, int indexDst ) {
+		int offsetU = width;
+		int offsetV = width + chromaRowBytes(width, stridePixelUV);
+
+		for (int x = 0; x < width; x++) {
+			int indexUV = (x/2)*stridePixelUV;
+			int y = 1191*((rows[x] & 0xFF) - 16);
+			int cb = (rows[offsetU + indexUV] & 0xFF) - 128;
+			int cr = (rows[offsetV + indexUV] & 0xFF) - 128;
+
+			// if( y < 0 ) y = 0;
+			y = ((y >>> 31) ^ 1)*y;
+
+			int r = (y + 1836*cr) >> 10;
+			int g = (y - 547*cr - 218*cb) >> 10;
+			int b = (y + 2165*cb) >> 10;
+
+			r *= ((r >>> 31) ^ 1);
+			g *= ((g >>> 31) ^ 1);
+			b *= ((b >>> 31) ^ 1);
+
+			if (r > 255) r = 255;
+			if (g > 255) g = 255;
+			if (b > 255) b = 255;
+
+			dst[indexDst++] = (byte)r;
+			dst[indexDst++] = (byte)g;
+			dst[indexDst++] = (byte)b;
+		}
+	}
+}
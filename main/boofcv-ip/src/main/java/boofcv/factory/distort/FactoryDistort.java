@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -135,28 +135,49 @@ public class FactoryDistort {
 		return new ImplImageDistort_PL<>(distortSingle);
 	}
 
+	/**
+	 * Creates a {@link boofcv.alg.distort.ImageDistort} for interleaved images, transformation
+	 * and interpolation instance.
+	 *
+	 * @param cached If true the distortion is only computed one. False for recomputed each time, but less memory.
+	 * @param interp Which interpolation algorithm should be used.
+	 * @param outputType Type of output image.
+	 */
 	public static <Input extends ImageInterleaved<Input>, Output extends ImageInterleaved<Output>>
 	ImageDistort<Input, Output>
 	distortIL( boolean cached, InterpolatePixelMB<Input> interp, ImageType<Output> outputType ) {
-		if (cached) {
-			throw new IllegalArgumentException("Cached not supported yet");
-		} else {
-			AssignPixelValue_MB<Output> assigner = switch (outputType.getDataType()) {
-				case F32 -> (AssignPixelValue_MB)new AssignPixelValue_MB.F32();
-				case S32 -> (AssignPixelValue_MB)new AssignPixelValue_MB.S32();
-				case U16, S16, I16 -> (AssignPixelValue_MB)new AssignPixelValue_MB.I16();
-				case U8, S8, I8 -> (AssignPixelValue_MB)new AssignPixelValue_MB.I8();
-				default -> throw new RuntimeException("Not yet supported " + outputType);
-			};
+		AssignPixelValue_MB<Output> assigner = switch (outputType.getDataType()) {
+			case F32 -> (AssignPixelValue_MB)new AssignPixelValue_MB.F32();
+			case S32 -> (AssignPixelValue_MB)new AssignPixelValue_MB.S32();
+			case U16, S16, I16 -> (AssignPixelValue_MB)new AssignPixelValue_MB.I16();
+			case U8, S8, I8 -> (AssignPixelValue_MB)new AssignPixelValue_MB.I8();
+			default -> throw new RuntimeException("Not yet supported " + outputType);
+		};
 
-			if (BoofConcurrency.USE_CONCURRENT) {
-				return new ImageDistortBasic_IL_MT<>(assigner, interp);
+		if (BoofConcurrency.USE_CONCURRENT) {
+			if (cached) {
+				return new ImageDistortCache_IL_MT<>(assigner, interp);
 			} else {
-				return new ImageDistortBasic_IL<>(assigner, interp);
+				return new ImageDistortBasic_IL_MT<>(assigner, interp);
 			}
+		} else if (cached) {
+			return new ImageDistortCache_IL<>(assigner, interp);
+		} else {
+			return new ImageDistortBasic_IL<>(assigner, interp);
 		}
 	}
 
+	/**
+	 * Creates a cached bilinear {@link boofcv.alg.distort.ImageDistort} for 8-bit images which encodes the
+	 * transform in a compact fixed-point table. Faster and uses less memory than the floating point cache,
+	 * but is less precise. Gray, interleaved, and planar images are supported. See {@link ImageDistortCacheFixed_U8}.
+	 *
+	 * @param imageType Type of input and output image. Must be U8.
+	 */
+	public static <T extends ImageBase<T>> ImageDistort<T, T> distortCacheFixedU8( ImageType<T> imageType ) {
+		return new ImageDistortCacheFixed_U8<>(imageType);
+	}
+
 	public static PointDeformKeyPoints deformMls( ConfigDeformPointMLS config ) {
 		if (config == null)
 			config = new ConfigDeformPointMLS();
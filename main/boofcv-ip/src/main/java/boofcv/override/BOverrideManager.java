@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,9 +20,13 @@ package boofcv.override;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * Provides functions for managing overrided functions
+ * Provides functions for managing overrided functions. The first time an override class is used, every
+ * {@link BOverrideProvider} on the class path is loaded and allowed to install its implementations.
  *
  * @author Peter Abeles
  */
@@ -30,11 +34,51 @@ public class BOverrideManager {
 
 	public static final List<Class> list = new ArrayList<>();
 
-	public static synchronized void register( Class target ) {
-		if( BOverrideClass.class.isAssignableFrom(target)) {
+	/** Providers which successfully registered their overrides */
+	public static final List<BOverrideProvider> providers = new ArrayList<>();
+
+	// If true then the class path has already been searched for providers
+	private static final AtomicBoolean providersLoaded = new AtomicBoolean(false);
+
+	public static void register( Class target ) {
+		if (!BOverrideClass.class.isAssignableFrom(target))
+			throw new RuntimeException("Expected a class derived from " + BOverrideClass.class.getSimpleName());
+		synchronized (list) {
 			list.add(target);
-		} else {
-			throw new RuntimeException("Expected a class derived from "+BOverrideClass.class.getSimpleName());
+		}
+		// Not synchronized since providers will initialize other override classes, which call this function
+		loadProviders();
+	}
+
+	/**
+	 * Uses {@link ServiceLoader} to find every {@link BOverrideProvider} and registers it. Only the first call
+	 * does anything. Providers which fail to load, e.g. require a newer JVM, are skipped.
+	 */
+	public static void loadProviders() {
+		if (!providersLoaded.compareAndSet(false, true))
+			return;
+
+		ServiceLoader<BOverrideProvider> loader = ServiceLoader.load(BOverrideProvider.class);
+		var iterator = loader.iterator();
+		while (true) {
+			BOverrideProvider provider;
+			try {
+				if (!iterator.hasNext())
+					break;
+				provider = iterator.next();
+			} catch (ServiceConfigurationError ignore) {
+				// Searching can't reliably continue after an error
+				break;
+			}
+
+			try {
+				provider.register();
+				synchronized (providers) {
+					providers.add(provider);
+				}
+			} catch (RuntimeException | LinkageError ignore) {
+				// Skip this provider and use the default implementation
+			}
 		}
 	}
 
@@ -42,7 +86,10 @@ public class BOverrideManager {
 	 * Prints a summary of what has been overriden
 	 */
 	public static void print() {
-		System.out.println("Total registered "+list.size());
+		System.out.println("Total registered " + list.size());
+		for (BOverrideProvider provider : providers) {
+			System.out.println("  provider " + provider.getClass().getName());
+		}
 	}
 
 	public static void main(String[] args) {
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.override;
+
+/**
+ * Installs implementations into the hooks of one or more {@link BOverrideClass}. Providers are discovered
+ * automatically by {@link BOverrideManager} using {@link java.util.ServiceLoader}, so an optional library only
+ * needs to be on the class path and list its provider in
+ * <code>META-INF/services/boofcv.override.BOverrideProvider</code>.
+ *
+ * @author Peter Abeles
+ */
+public interface BOverrideProvider {
+	/**
+	 * Assigns implementations to the override hooks. If the implementation can't run on this JVM, nothing
+	 * should be assigned.
+	 */
+	void register();
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.filter;
+
+import boofcv.BoofTesting;
+import boofcv.alg.color.ColorHsv;
+import boofcv.alg.color.ColorRgb;
+import boofcv.alg.color.ColorYuv;
+import boofcv.alg.filter.binary.GThresholdImageOps;
+import boofcv.alg.filter.blur.GBlurImageOps;
+import boofcv.alg.filter.derivative.DerivativeType;
+import boofcv.alg.filter.derivative.GImageDerivativeOps;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.GPixelMath;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.ConcurrencyContext;
+import boofcv.core.image.GConvertImage;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestTiledFilterPipeline extends BoofStandardJUnit {
+	// Large enough that the image isn't considered small and tiles will be processed concurrently
+	int width = 120, height = 110;
+
+	/**
+	 * Blur then compute the derivative. Should be identical to processing the entire image one step at a time
+	 */
+	@Test void blurDerivative() {
+		var input = new GrayU8(width, height);
+		GImageMiscOps.fillUniform(input, rand, 0, 255);
+
+		var blurred = new GrayU8(width, height);
+		var expected = new GrayS16(width, height);
+		GBlurImageOps.gaussian(input, blurred, -1, 3, null);
+		GImageDerivativeOps.gradient(DerivativeType.SOBEL, blurred, new GrayS16(width, height), expected,
+				BorderType.EXTENDED);
+
+		TiledFilterPipeline<GrayU8, GrayS16> alg = TiledFilterPipeline.begin(ImageType.SB_U8)
+				.blurGaussian(-1, 3)
+				.<GrayS16>derivative(DerivativeType.SOBEL, false)
+				.build();
+		assertEquals(4, alg.getHalo());
+
+		checkAllTileSizes(alg, input, expected);
+	}
+
+	/**
+	 * Convert, pixel math, and threshold
+	 */
+	@Test void convertMathThreshold() {
+		var input = new GrayU8(width, height);
+		GImageMiscOps.fillUniform(input, rand, 0, 255);
+
+		var converted = new GrayF32(width, height);
+		var blurred = new GrayF32(width, height);
+		var scaled = new GrayF32(width, height);
+		GConvertImage.convert(input, converted);
+		GBlurImageOps.mean(converted, blurred, 2, null, null);
+		GPixelMath.multiply(blurred, 0.5, scaled);
+		GPixelMath.plus(scaled, -20, scaled);
+		GPixelMath.abs(scaled, scaled);
+		GrayU8 expected = GThresholdImageOps.threshold(scaled, null, 30, false);
+
+		TiledFilterPipeline<GrayU8, GrayU8> alg = TiledFilterPipeline.begin(ImageType.SB_U8)
+				.convert(ImageType.SB_F32)
+				.blurMean(2)
+				.multiply(0.5)
+				.plus(-20)
+				.abs()
+				.threshold(30, false)
+				.build();
+		assertEquals(2, alg.getHalo());
+		assertSame(ImageType.SB_U8, alg.getOutputType());
+
+		checkAllTileSizes(alg, input, expected);
+	}
+
+	/**
+	 * Chain of color space conversions ending with a gray scale image
+	 */
+	@Test void colorConversion() {
+		Planar<GrayF32> input = new Planar<>(GrayF32.class, width, height, 3);
+		GImageMiscOps.fillUniform(input, rand, 0, 1);
+
+		var yuv = new Planar<>(GrayF32.class, width, height, 3);
+		var rgb = new Planar<>(GrayF32.class, width, height, 3);
+		var hsv = new Planar<>(GrayF32.class, width, height, 3);
+		var expected = new GrayF32(width, height);
+		ColorYuv.rgbToYuv(input, yuv);
+		ColorYuv.yuvToRgb(yuv, rgb);
+		ColorHsv.rgbToHsv(rgb, hsv);
+		ColorHsv.hsvToRgb(hsv, rgb);
+		ColorRgb.rgbToGray_Weighted(rgb, expected);
+
+		TiledFilterPipeline<Planar<GrayF32>, GrayF32> alg = TiledFilterPipeline.begin(ImageType.pl(3, GrayF32.class))
+				.rgbToYuv()
+				.yuvToRgb()
+				.rgbToHsv()
+				.hsvToRgb()
+				.<GrayF32>rgbToGray()
+				.build();
+		assertEquals(0, alg.getHalo());
+		assertTrue(ImageType.SB_F32.isSameType(alg.getOutputType()));
+
+		checkAllTileSizes(alg, input, expected);
+
+		assertThrows(IllegalArgumentException.class, () -> TiledFilterPipeline.begin(ImageType.SB_F32).rgbToGray());
+		assertThrows(IllegalArgumentException.class,
+				() -> TiledFilterPipeline.begin(ImageType.il(3, InterleavedF32.class)).rgbToHsv());
+	}
+
+	@Test void interleaved() {
+		ImageType<InterleavedF32> type = ImageType.il(2, InterleavedF32.class);
+		InterleavedF32 input = type.createImage(width, height);
+		GImageMiscOps.fillUniform(input, rand, 0, 100);
+
+		InterleavedF32 expected = type.createImage(width, height);
+		GBlurImageOps.gaussian(input, expected, 1.5, -1, null);
+
+		TiledFilterPipeline<InterleavedF32, InterleavedF32> alg =
+				TiledFilterPipeline.begin(type).blurGaussian(1.5, -1).build();
+		checkAllTileSizes(alg, input, expected);
+	}
+
+	/**
+	 * Tiles which don't evenly divide the image, sub-images, and concurrency
+	 */
+	private <I extends ImageBase<I>, O extends ImageBase<O>>
+	void checkAllTileSizes( TiledFilterPipeline<I, O> alg, I input, O expected ) {
+		// Make sure the concurrent code will be used
+		assertTrue(input.width*input.height >= BoofConcurrency.getSmallImage());
+
+		for (int tileSize : new int[]{7, 16, 200}) {
+			alg.setTileSize(tileSize, tileSize + 3);
+			O serial = alg.getOutputType().createImage(1, 1);
+			O concurrent = alg.getOutputType().createImage(1, 1);
+
+			try (var context = ConcurrencyContext.singleThread()) {
+				context.run(() -> alg.process(input, serial));
+			}
+			BoofTesting.assertEquals(expected, serial, 1e-4);
+
+			try (var context = ConcurrencyContext.forkJoin(3)) {
+				context.run(() -> alg.process(input, concurrent));
+			}
+			BoofTesting.assertEquals(serial, concurrent, 0.0);
+
+			O found = BoofTesting.createSubImageOf(concurrent);
+			try (var context = ConcurrencyContext.forkJoin(3)) {
+				context.run(() -> alg.process(BoofTesting.createSubImageOf(input), found));
+			}
+			BoofTesting.assertEquals(expected, found, 1e-4);
+		}
+	}
+
+	@Test void noFilters() {
+		assertThrows(IllegalArgumentException.class, () -> TiledFilterPipeline.begin(ImageType.SB_U8).build());
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -28,6 +28,9 @@ import boofcv.struct.image.ImageInterleaved;
 import boofcv.testing.BoofStandardJUnit;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public abstract class GenericTestDiscreteFourierTransform<T extends ImageGray<T>, I extends ImageInterleaved<I>>
@@ -197,6 +200,53 @@ public abstract class GenericTestDiscreteFourierTransform<T extends ImageGray<T>
 		}
 	}
 
+	/**
+	 * Transforming a batch should produce the same results as transforming each image individually
+	 */
+	@Test void batch() {
+		// large enough to be processed by the concurrent implementation
+		checkBatch(130, 120, 5);
+		checkBatch(15, 10, 4);
+		checkBatch(15, 10, 1);
+		checkBatch(15, 10, 0);
+	}
+
+	private void checkBatch( int width, int height, int count ) {
+		List<T> inputs = new ArrayList<>();
+		List<I> transforms = new ArrayList<>();
+		List<T> found = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			T input = createImage(width, height);
+			GImageMiscOps.fillUniform(input, rand, -20, 20);
+			inputs.add(input);
+			transforms.add(createTransform(width, height));
+			found.add(createImage(width, height));
+		}
+
+		DiscreteFourierTransform<T, I> alg = createAlgorithm();
+		alg.forward(inputs, transforms);
+		alg.inverse(transforms, found);
+
+		I expectedTransform = createTransform(width, height);
+		for (int i = 0; i < count; i++) {
+			alg.forward(inputs.get(i), expectedTransform);
+			BoofTesting.assertEquals(expectedTransform, transforms.get(i), tolerance);
+			BoofTesting.assertEquals(inputs.get(i), found.get(i), tolerance);
+		}
+	}
+
+	@Test void batch_differentSizes() {
+		List<T> inputs = new ArrayList<>();
+		List<I> transforms = new ArrayList<>();
+		inputs.add(createImage(10, 12));
+		inputs.add(createImage(11, 12));
+		transforms.add(createTransform(10, 12));
+		transforms.add(createTransform(11, 12));
+
+		DiscreteFourierTransform<T, I> alg = createAlgorithm();
+		assertThrows(IllegalArgumentException.class, () -> alg.forward(inputs, transforms));
+	}
+
 	@Test void checkDoNotModifyInputs() {
 		int w = 20;
 		int h = 32;
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.BoofTesting;
+import boofcv.alg.interpolate.InterpolationType;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.factory.distort.FactoryDistort;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.distort.PixelTransform;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofStandardJUnit;
+import georegression.struct.affine.Affine2D_F32;
+import georegression.struct.point.Point2D_F32;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestImageDistortCacheFixed_U8 extends BoofStandardJUnit {
+	int width = 30, height = 40;
+
+	/**
+	 * Compare against the floating point implementation. Locations are rounded to 1/32 of a pixel, so with a noisy
+	 * image the error can be several values.
+	 */
+	@Test void compareToFloat() {
+		compareToFloat(ImageType.SB_U8);
+		compareToFloat(ImageType.il(3, InterleavedU8.class));
+		compareToFloat(ImageType.pl(2, GrayU8.class));
+	}
+
+	private <T extends ImageBase<T>> void compareToFloat( ImageType<T> type ) {
+		T input = type.createImage(width, height);
+		GImageMiscOps.fillUniform(input, rand, 0, 255);
+
+		ImageDistort<T, T> expectedAlg = FactoryDistort.distort(false,
+				InterpolationType.BILINEAR, BorderType.EXTENDED, type, type);
+		ImageDistort<T, T> alg = FactoryDistort.distortCacheFixedU8(type);
+		expectedAlg.setModel(createModel());
+		alg.setModel(createModel());
+
+		T expected = type.createImage(width, height);
+		T found = type.createImage(width, height);
+		expectedAlg.apply(input, expected);
+		alg.apply(input, found);
+		BoofTesting.assertEquals(expected, found, 6.0);
+
+		// Sub-images should be handled correctly and the cache should be reused
+		T subInput = BoofTesting.createSubImageOf(input);
+		T subFound = BoofTesting.createSubImageOf(found);
+		GImageMiscOps.fill(subFound, 0);
+		alg.apply(subInput, subFound);
+		BoofTesting.assertEquals(expected, subFound, 6.0);
+	}
+
+	/**
+	 * When only pixels inside are rendered the pixels outside should not be modified
+	 */
+	@Test void renderOnlyInside() {
+		var input = new GrayU8(width, height);
+		GImageMiscOps.fill(input, 20);
+		var found = new GrayU8(width, height);
+		var mask = new GrayU8(width, height);
+
+		var alg = new ImageDistortCacheFixed_U8<>(ImageType.SB_U8);
+		alg.setModel(createModel());
+		alg.setRenderAll(false);
+		alg.apply(input, found, mask);
+
+		int totalInside = 0;
+		for (int i = 0; i < found.data.length; i++) {
+			assertEquals(mask.data[i] == 1 ? 20 : 0, found.data[i]);
+			totalInside += mask.data[i];
+		}
+		// make sure the test isn't trivial
+		assertTrue(totalInside > 0 && totalInside < found.data.length);
+	}
+
+	/**
+	 * The mask should be the same as the floating point implementation, except for pixels which are very close
+	 * to the border
+	 */
+	@Test void mask() {
+		var input = new GrayU8(width, height);
+		GImageMiscOps.fillUniform(input, rand, 0, 255);
+
+		var maskExpected = new GrayU8(1, 1);
+		var maskFound = new GrayU8(1, 1);
+
+		ImageDistort<GrayU8, GrayU8> expectedAlg = FactoryDistort.distort(false,
+				InterpolationType.BILINEAR, BorderType.EXTENDED, ImageType.SB_U8, ImageType.SB_U8);
+		var alg = new ImageDistortCacheFixed_U8<>(ImageType.SB_U8);
+		expectedAlg.setModel(createModel());
+		alg.setModel(createModel());
+		expectedAlg.apply(input, new GrayU8(width, height), maskExpected);
+		alg.apply(input, new GrayU8(width, height), maskFound);
+
+		int differences = 0;
+		for (int i = 0; i < maskExpected.data.length; i++) {
+			if (maskExpected.data[i] != maskFound.data[i])
+				differences++;
+		}
+		// Locations are rounded so pixels along the border can differ
+		assertTrue(differences <= (width + height)/5);
+	}
+
+	/**
+	 * A constant image should stay constant after being distorted since the weights sum up to one
+	 */
+	@Test void constantImage() {
+		var input = new GrayU8(width, height);
+		GImageMiscOps.fill(input, 255);
+		var found = new GrayU8(width, height);
+
+		var alg = new ImageDistortCacheFixed_U8<>(ImageType.SB_U8);
+		alg.setModel(createModel());
+		alg.apply(input, found);
+
+		for (int i = 0; i < found.data.length; i++) {
+			assertEquals(255, found.data[i] & 0xFF);
+		}
+	}
+
+	/**
+	 * Pixels with NaN locations should be skipped
+	 */
+	@Test void invalidLocations() {
+		var input = new GrayU8(width, height);
+		GImageMiscOps.fill(input, 20);
+		var found = new GrayU8(width, height);
+		var mask = new GrayU8(width, height);
+
+		var alg = new ImageDistortCacheFixed_U8<>(ImageType.SB_U8);
+		alg.setModel(new PixelTransform<>() {
+			@Override public void compute( int x, int y, Point2D_F32 output ) {
+				if (x < 5)
+					output.setTo(Float.NaN, y);
+				else
+					output.setTo(x, y);
+			}
+
+			@Override public PixelTransform<Point2D_F32> copyConcurrent() {return this;}
+		});
+		alg.apply(input, found, mask);
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				assertEquals(x < 5 ? 0 : 20, found.get(x, y));
+				assertEquals(x < 5 ? 0 : 1, mask.get(x, y));
+			}
+		}
+	}
+
+	@Test void weightsSumToOne() {
+		int[] weights = ImageDistortCacheFixed_U8.WEIGHTS;
+		for (int i = 0; i < weights.length; i += 4) {
+			assertEquals(1 << ImageDistortCacheFixed_U8.WEIGHT_BITS,
+					weights[i] + weights[i + 1] + weights[i + 2] + weights[i + 3]);
+		}
+	}
+
+	/** Transform which will have pixels both inside and outside the input image */
+	static PixelTransformAffine_F32 createModel() {
+		return new PixelTransformAffine_F32(new Affine2D_F32(1.1f, 0.05f, -0.02f, 0.95f, -2.3f, 1.6f));
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.BoofTesting;
+import boofcv.alg.interpolate.InterpolatePixelMB;
+import boofcv.alg.interpolate.InterpolationType;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.InterleavedF32;
+import boofcv.testing.BoofStandardJUnit;
+import georegression.struct.affine.Affine2D_F32;
+import org.ejml.UtilEjml;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The cached implementation should produce identical results to the basic implementation
+ */
+public class TestImageDistortCache_IL extends BoofStandardJUnit {
+	int width = 30, height = 40;
+	private static final int NUM_BANDS = 3;
+
+	InterleavedF32 input = new InterleavedF32(width, height, NUM_BANDS);
+
+	@Test void compareToBasic() {
+		GImageMiscOps.fillUniform(input, rand, 0, 150);
+
+		for (boolean renderAll : new boolean[]{true, false}) {
+			var expected = new InterleavedF32(width, height, NUM_BANDS);
+			var found = new InterleavedF32(width, height, NUM_BANDS);
+
+			ImageDistort<InterleavedF32, InterleavedF32> basic = createBasic(renderAll);
+			ImageDistort<InterleavedF32, InterleavedF32> alg = createAlg(renderAll);
+
+			basic.apply(input, expected);
+			alg.apply(input, found);
+			BoofTesting.assertEquals(expected, found, UtilEjml.TEST_F32);
+
+			// Apply it twice to see if the cached results are used correctly
+			GImageMiscOps.fill(found, 0);
+			alg.apply(input, found);
+			BoofTesting.assertEquals(expected, found, UtilEjml.TEST_F32);
+		}
+	}
+
+	@Test void compareToBasic_mask() {
+		GImageMiscOps.fillUniform(input, rand, 0, 150);
+
+		for (boolean renderAll : new boolean[]{true, false}) {
+			var expected = new InterleavedF32(width, height, NUM_BANDS);
+			var found = new InterleavedF32(width, height, NUM_BANDS);
+			var maskExpected = new GrayU8(1, 1);
+			var maskFound = new GrayU8(1, 1);
+
+			createBasic(renderAll).apply(input, expected, maskExpected);
+			createAlg(renderAll).apply(input, found, maskFound);
+			BoofTesting.assertEquals(expected, found, UtilEjml.TEST_F32);
+			BoofTesting.assertEquals(maskExpected, maskFound, 0);
+		}
+	}
+
+	@Test void compareToBasic_crop() {
+		GImageMiscOps.fillUniform(input, rand, 0, 150);
+
+		var expected = new InterleavedF32(width, height, NUM_BANDS);
+		var found = new InterleavedF32(width, height, NUM_BANDS);
+
+		createBasic(true).apply(input, expected, 5, 6, 20, 25);
+		createAlg(true).apply(input, found, 5, 6, 20, 25);
+		BoofTesting.assertEquals(expected, found, UtilEjml.TEST_F32);
+	}
+
+	/**
+	 * Changing the model should cause the cache to be recomputed
+	 */
+	@Test void changeModel() {
+		GImageMiscOps.fillUniform(input, rand, 0, 150);
+		var expected = new InterleavedF32(width, height, NUM_BANDS);
+		var found = new InterleavedF32(width, height, NUM_BANDS);
+
+		ImageDistort<InterleavedF32, InterleavedF32> alg = createAlg(true);
+		alg.apply(input, found);
+
+		var model = new PixelTransformAffine_F32(new Affine2D_F32(0.5f, 0.1f, 0, 0.5f, 2, 1));
+		ImageDistort<InterleavedF32, InterleavedF32> basic = createBasic(true);
+		basic.setModel(model);
+		alg.setModel(model);
+		basic.apply(input, expected);
+		alg.apply(input, found);
+		BoofTesting.assertEquals(expected, found, UtilEjml.TEST_F32);
+	}
+
+	private InterpolatePixelMB<InterleavedF32> createInterp() {
+		return FactoryInterpolation.createPixelMB(0, 255, InterpolationType.BILINEAR, BorderType.EXTENDED,
+				ImageType.il(NUM_BANDS, InterleavedF32.class));
+	}
+
+	private ImageDistort<InterleavedF32, InterleavedF32> createBasic( boolean renderAll ) {
+		var alg = new ImageDistortBasic_IL<InterleavedF32, InterleavedF32>(new AssignPixelValue_MB.F32(), createInterp());
+		alg.setModel(createModel());
+		alg.setRenderAll(renderAll);
+		return alg;
+	}
+
+	protected ImageDistort<InterleavedF32, InterleavedF32> createAlg( boolean renderAll ) {
+		var alg = new ImageDistortCache_IL<InterleavedF32, InterleavedF32>(new AssignPixelValue_MB.F32(), createInterp());
+		alg.setModel(createModel());
+		alg.setRenderAll(renderAll);
+		return alg;
+	}
+
+	/** Transform which will have pixels both inside and outside the input image */
+	static PixelTransformAffine_F32 createModel() {
+		return new PixelTransformAffine_F32(new Affine2D_F32(1.1f, 0.05f, -0.02f, 0.95f, -2.3f, 1.6f));
+	}
+}
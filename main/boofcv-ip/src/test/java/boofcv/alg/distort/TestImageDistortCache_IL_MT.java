@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.interpolate.InterpolationType;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.InterleavedF32;
+
+public class TestImageDistortCache_IL_MT extends TestImageDistortCache_IL {
+	@Override
+	protected ImageDistort<InterleavedF32, InterleavedF32> createAlg( boolean renderAll ) {
+		var alg = new ImageDistortCache_IL_MT<InterleavedF32, InterleavedF32>(new AssignPixelValue_MB.F32(),
+				FactoryInterpolation.createPixelMB(0, 255, InterpolationType.BILINEAR, BorderType.EXTENDED,
+						ImageType.il(3, InterleavedF32.class)));
+		alg.setModel(createModel());
+		alg.setRenderAll(renderAll);
+		return alg;
+	}
+}
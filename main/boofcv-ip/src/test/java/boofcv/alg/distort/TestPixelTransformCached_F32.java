@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -49,4 +49,25 @@ public class TestPixelTransformCached_F32 extends BoofStandardJUnit {
 			}
 		}
 	}
-}
\ No newline at end of file
+
+	@Test void getPixel_setPixel() {
+		var orig = new PixelTransformAffine_F32(new Affine2D_F32(1f, 0.1f, 0.05f, 2f, 5f, 6f));
+		var alg = new PixelTransformCached_F32(width, height, orig);
+
+		var expected = new Point2D_F32();
+		var found = new Point2D_F32();
+		orig.compute(3, 4, expected);
+		alg.getPixel(3, 4, found);
+		assertEquals(0.0, expected.distance(found), 1e-6);
+
+		alg.setPixel(3, 4, -1, -2);
+		alg.compute(3, 4, found);
+		assertEquals(-1, found.x);
+		assertEquals(-2, found.y);
+
+		// neighbors should not be modified
+		alg.compute(4, 4, found);
+		orig.compute(4, 4, expected);
+		assertEquals(0.0, expected.distance(found), 1e-6);
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.ConcurrencyContext;
+import boofcv.struct.ConfigLength;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.PackedSetsPoint2D_I32;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofStandardJUnit;
+import georegression.struct.point.Point2D_I32;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TestLinearContourLabelChang2004_MT extends BoofStandardJUnit {
+	/**
+	 * Random noise creates lots of blobs with holes inside of them
+	 */
+	@Test void compareToSingleThread_noise() {
+		for (int trial = 0; trial < 10; trial++) {
+			var binary = new GrayU8(30 + trial, 45);
+			ImageMiscOps.fillUniform(binary, rand, 0, 2);
+			for (ConnectRule rule : ConnectRule.values()) {
+				compareToSingleThread(binary, rule, 1 + trial%4);
+			}
+		}
+	}
+
+	/**
+	 * Rectangles with holes punched in them
+	 */
+	@Test void compareToSingleThread_shapes() {
+		for (int trial = 0; trial < 10; trial++) {
+			var binary = new GrayU8(50, 40);
+			for (int i = 0; i < 8; i++) {
+				int x0 = rand.nextInt(binary.width), y0 = rand.nextInt(binary.height);
+				ImageMiscOps.fillRectangle(binary, 1, x0, y0, 4 + rand.nextInt(15), 4 + rand.nextInt(15));
+			}
+			for (int i = 0; i < 40; i++) {
+				binary.set(rand.nextInt(binary.width), rand.nextInt(binary.height), 0);
+			}
+			for (ConnectRule rule : ConnectRule.values()) {
+				compareToSingleThread(binary, rule, 1 + trial%4);
+			}
+		}
+	}
+
+	@Test void compareToSingleThread_testImages() {
+		for (GrayU8 binary : List.of(TestLinearContourLabelChang2004.TEST1, TestLinearContourLabelChang2004.TEST2,
+				TestLinearContourLabelChang2004.TEST3, TestLinearContourLabelChang2004.TEST4)) {
+			for (ConnectRule rule : ConnectRule.values()) {
+				compareToSingleThread(binary, rule, 1);
+			}
+		}
+	}
+
+	/**
+	 * Contour size limits and not saving internal contours
+	 */
+	@Test void compareToSingleThread_settings() {
+		var binary = new GrayU8(40, 45);
+		ImageMiscOps.fillUniform(binary, rand, 0, 2);
+
+		var single = new LinearContourLabelChang2004(ConnectRule.EIGHT);
+		var alg = new LinearContourLabelChang2004_MT(ConnectRule.EIGHT);
+		for (LinearContourLabelChang2004 a : List.of(single, alg)) {
+			a.setSaveInternalContours(false);
+			a.setMinContourLength(ConfigLength.fixed(3));
+			a.setMaxContourLength(ConfigLength.fixed(12));
+		}
+		compareToSingleThread(binary, single, alg, 2);
+
+		for (LinearContourLabelChang2004 a : List.of(single, alg)) {
+			a.setSaveInternalContours(true);
+		}
+		compareToSingleThread(binary, single, alg, 2);
+	}
+
+	void compareToSingleThread( GrayU8 binary, ConnectRule rule, int minTileRows ) {
+		compareToSingleThread(binary, new LinearContourLabelChang2004(rule),
+				new LinearContourLabelChang2004_MT(rule), minTileRows);
+	}
+
+	void compareToSingleThread( GrayU8 binary, LinearContourLabelChang2004 single,
+								LinearContourLabelChang2004_MT alg, int minTileRows ) {
+		var expected = new GrayS32(binary.width, binary.height);
+		var found = new GrayS32(binary.width, binary.height);
+
+		single.process(binary, expected);
+		alg.components.setMinTileRows(minTileRows);
+		try (var context = ConcurrencyContext.forkJoin(3)) {
+			context.run(() -> alg.process(binary, found));
+		}
+
+		for (int y = 0; y < binary.height; y++) {
+			for (int x = 0; x < binary.width; x++) {
+				assertEquals(expected.get(x, y), found.get(x, y));
+			}
+		}
+
+		assertEquals(single.getContours().size, alg.getContours().size);
+		for (int i = 0; i < single.getContours().size; i++) {
+			ContourPacked e = single.getContours().get(i);
+			ContourPacked f = alg.getContours().get(i);
+			assertEquals(e.id, f.id);
+			assertEquals(e.externalIndex, f.externalIndex);
+			assertEquals(e.internalIndexes.size, f.internalIndexes.size);
+			for (int j = 0; j < e.internalIndexes.size; j++) {
+				assertEquals(e.internalIndexes.get(j), f.internalIndexes.get(j));
+			}
+		}
+
+		PackedSetsPoint2D_I32 pointsE = single.getPackedPoints();
+		PackedSetsPoint2D_I32 pointsF = alg.getPackedPoints();
+		assertEquals(pointsE.size(), pointsF.size());
+		for (int i = 0; i < pointsE.size(); i++) {
+			List<Point2D_I32> setE = pointsE.getSet(i);
+			List<Point2D_I32> setF = pointsF.getSet(i);
+			assertEquals(setE.size(), setF.size());
+			for (int j = 0; j < setE.size(); j++) {
+				assertEquals(setE.get(j).x, setF.get(j).x);
+				assertEquals(setE.get(j).y, setF.get(j).y);
+			}
+		}
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.ConcurrencyContext;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofStandardJUnit;
+import org.ddogleg.struct.DogArray_I32;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestTiledUnionFindComponents extends BoofStandardJUnit {
+	/**
+	 * Compare against a flood fill for every combination of rules and several tile sizes
+	 */
+	@Test void compareToFloodFill() {
+		var image = new GrayU8(35, 42);
+		ImageMiscOps.fillUniform(image, rand, 0, 2);
+
+		ConnectRule[] rules = {null, ConnectRule.FOUR, ConnectRule.EIGHT};
+		for (ConnectRule ruleOne : rules) {
+			for (ConnectRule ruleZero : rules) {
+				int[] expected = floodFill(image, ruleOne, ruleZero);
+				for (int minTileRows = 1; minTileRows <= 5; minTileRows++) {
+					var alg = new TiledUnionFindComponents();
+					alg.setMinTileRows(minTileRows);
+					try (var context = ConcurrencyContext.forkJoin(4)) {
+						context.run(() -> alg.process(image, ruleOne, ruleZero));
+					}
+					DogArray_I32 found = alg.getRoots();
+					assertEquals(expected.length, found.size);
+					for (int i = 0; i < expected.length; i++) {
+						assertEquals(expected[i], found.get(i));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Makes sure the image is actually being broken up into tiles
+	 */
+	@Test void tiles() {
+		var image = new GrayU8(10, 40);
+		var alg = new TiledUnionFindComponents();
+		alg.setMinTileRows(5);
+
+		try (var context = ConcurrencyContext.forkJoin(4)) {
+			context.run(() -> alg.process(image, ConnectRule.FOUR, null));
+		}
+		int numTiles = alg.getNumberOfTiles();
+		assertTrue(numTiles > 1 && numTiles <= 4);
+		assertEquals(0, alg.getTileY0(0));
+		assertEquals(40, alg.getTileY1(numTiles - 1));
+		for (int i = 0; i < numTiles; i++) {
+			if (i > 0)
+				assertEquals(alg.getTileY1(i - 1), alg.getTileY0(i));
+			assertTrue(alg.getTileY1(i) - alg.getTileY0(i) >= 5);
+		}
+	}
+
+	/**
+	 * Brute force labeling where the root is the first pixel found in each component
+	 */
+	private int[] floodFill( GrayU8 image, @Nullable ConnectRule ruleOne, @Nullable ConnectRule ruleZero ) {
+		int w = image.width, h = image.height;
+		int[] roots = new int[w*h];
+		Arrays.fill(roots, -2);
+		int[] stack = new int[w*h];
+
+		for (int i = 0; i < w*h; i++) {
+			if (roots[i] != -2)
+				continue;
+			boolean one = image.data[i] == 1;
+			ConnectRule rule = one ? ruleOne : ruleZero;
+			if (rule == null) {
+				roots[i] = -1;
+				continue;
+			}
+			int size = 0;
+			stack[size++] = i;
+			roots[i] = i;
+			while (size > 0) {
+				int p = stack[--size];
+				int x = p%w, y = p/w;
+				for (int dy = -1; dy <= 1; dy++) {
+					for (int dx = -1; dx <= 1; dx++) {
+						if (dx == 0 && dy == 0)
+							continue;
+						if (rule == ConnectRule.FOUR && dx != 0 && dy != 0)
+							continue;
+						int nx = x + dx, ny = y + dy;
+						if (nx < 0 || ny < 0 || nx >= w || ny >= h)
+							continue;
+						int q = ny*w + nx;
+						if (roots[q] != -2 || (image.data[q] == 1) != one)
+							continue;
+						roots[q] = i;
+						stack[size++] = q;
+					}
+				}
+			}
+		}
+		return roots;
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.fft;
+
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class TestGeneralPurposeFFT_F32_2D_MT extends BoofStandardJUnit {
+	float tol = 1e-4f;
+
+	// power of two, mixed radix, odd, and a sizes which only have one column of four
+	int[][] sizes = new int[][]{{32, 64}, {64, 32}, {16, 16}, {8, 4}, {30, 45}, {37, 50}, {12, 12}};
+
+	/**
+	 * The concurrent implementation should produce the same results as the single threaded one
+	 */
+	@Test void compareToSingleThread() {
+		for (int[] size : sizes) {
+			int rows = size[0];
+			int columns = size[1];
+			boolean pow2 = DiscreteFourierTransformOps.isPowerOf2(rows) && DiscreteFourierTransformOps.isPowerOf2(columns);
+
+			var single = new GeneralPurposeFFT_F32_2D(rows, columns);
+			var multi = new GeneralPurposeFFT_F32_2D_MT(rows, columns);
+
+			for (int op = 0; op < 6; op++) {
+				if (op >= 4 && !pow2)
+					continue;
+				float[] expected = random(rows*columns*2, op >= 2 && op < 4);
+				float[] found = expected.clone();
+
+				apply(single, op, expected);
+				apply(multi, op, found);
+
+				assertArrayEquals(expected, found, tol);
+			}
+		}
+	}
+
+	/**
+	 * Copies should produce the same results as the original and not interfere with each other
+	 */
+	@Test void copyConcurrent() {
+		for (int[] size : sizes) {
+			var original = new GeneralPurposeFFT_F32_2D(size[0], size[1]);
+			GeneralPurposeFFT_F32_2D copy = original.copyConcurrent();
+
+			float[] expected = random(size[0]*size[1]*2, false);
+			float[] found = expected.clone();
+
+			original.complexForward(expected);
+			copy.complexForward(found);
+			assertArrayEquals(expected, found, tol);
+
+			original.complexInverse(expected, true);
+			copy.complexInverse(found, true);
+			assertArrayEquals(expected, found, tol);
+		}
+	}
+
+	/**
+	 * Creates a random array. If 'real' then only the first half is filled in
+	 */
+	private float[] random( int length, boolean real ) {
+		float[] data = new float[length];
+		int N = real ? length/2 : length;
+		for (int i = 0; i < N; i++) {
+			data[i] = (float)rand.nextGaussian();
+		}
+		return data;
+	}
+
+	private void apply( GeneralPurposeFFT_F32_2D alg, int op, float[] data ) {
+		switch (op) {
+			case 0 -> alg.complexForward(data);
+			case 1 -> alg.complexInverse(data, true);
+			case 2 -> alg.realForwardFull(data);
+			case 3 -> alg.realInverseFull(data, true);
+			case 4 -> alg.realForward(data);
+			case 5 -> alg.realInverse(data, true);
+			default -> throw new IllegalArgumentException("Unknown op");
+		}
+	}
+}
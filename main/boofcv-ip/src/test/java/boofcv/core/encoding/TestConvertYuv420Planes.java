@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.core.encoding;
+
+import boofcv.BoofTesting;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofStandardJUnit;
+import org.ddogleg.struct.DogArray_I8;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TestConvertYuv420Planes extends BoofStandardJUnit {
+	/**
+	 * Compare against YV12 when there's no padding, since that's the same format in a single array
+	 */
+	@Test void compareToYV12() {
+		int width = 40, height = 30;
+		byte[] data = new byte[width*height + 2*(width/2)*(height/2)];
+		rand.nextBytes(data);
+
+		ByteBuffer bufferY = ByteBuffer.wrap(data, 0, width*height).slice();
+		ByteBuffer bufferU = ByteBuffer.wrap(data, width*height, (width/2)*(height/2)).slice();
+		ByteBuffer bufferV = ByteBuffer.wrap(data, width*height + (width/2)*(height/2), (width/2)*(height/2)).slice();
+
+		ImageBase[] outputs = new ImageBase[]{
+				new GrayU8(1, 1), new GrayF32(1, 1), new InterleavedU8(1, 1, 3),
+				new Planar<>(GrayU8.class, 1, 1, 3), new Planar<>(GrayF32.class, 1, 1, 3)};
+
+		for (ImageBase found : outputs) {
+			ImageBase expected = found.createNew(width, height);
+			if (expected instanceof ImageMultiBand)
+				((ImageMultiBand)expected).reshape(width, height, 3);
+			ConvertYV12.yu12ToBoof(data, width, height, expected);
+			ConvertYuv420Planes.yuvToBoof(bufferY, bufferU, bufferV, width, height, width, width/2, 1, found, null);
+			BoofTesting.assertEquals(expected, found, 0);
+		}
+	}
+
+	/**
+	 * Semi-planar and planar with padding and odd sizes should produce the same results
+	 */
+	@Test void planarAndSemiPlanar() {
+		DogArray_I8 work = new DogArray_I8();
+		for (int width : new int[]{21, 22}) {
+			for (int height : new int[]{15, 16}) {
+				checkPlanarAndSemiPlanar(width, height, work);
+			}
+		}
+	}
+
+	private void checkPlanarAndSemiPlanar( int width, int height, DogArray_I8 work ) {
+		int chromaWidth = (width + 1)/2;
+		int chromaHeight = (height + 1)/2;
+		int strideY = width + 13;
+		int strideUV = chromaWidth + 7;
+		int strideNV = 2*chromaWidth + 5;
+
+		byte[] dataY = new byte[strideY*height];
+		byte[] dataU = new byte[strideUV*chromaHeight];
+		byte[] dataV = new byte[strideUV*chromaHeight];
+		byte[] dataNV12 = new byte[strideNV*chromaHeight];
+		byte[] dataNV21 = new byte[strideNV*chromaHeight];
+		rand.nextBytes(dataY);
+		rand.nextBytes(dataU);
+		rand.nextBytes(dataV);
+
+		for (int y = 0; y < chromaHeight; y++) {
+			for (int x = 0; x < chromaWidth; x++) {
+				dataNV12[y*strideNV + 2*x] = dataNV21[y*strideNV + 2*x + 1] = dataU[y*strideUV + x];
+				dataNV12[y*strideNV + 2*x + 1] = dataNV21[y*strideNV + 2*x] = dataV[y*strideUV + x];
+			}
+		}
+
+		var planar = new InterleavedU8(1, 1, 3);
+		var nv12 = new InterleavedU8(1, 1, 3);
+		var nv21 = new InterleavedU8(1, 1, 3);
+
+		ConvertYuv420Planes.yuvToBoof(ByteBuffer.wrap(dataY), ByteBuffer.wrap(dataU), ByteBuffer.wrap(dataV),
+				width, height, strideY, strideUV, 1, planar, work);
+		// Trim the end off the buffers to make sure it doesn't read past the last pixel
+		ByteBuffer bufferNV12 = ByteBuffer.wrap(dataNV12, 0, dataNV12.length - 5).slice();
+		ConvertYuv420Planes.yuvToBoof(ByteBuffer.wrap(dataY), bufferNV12, slice(bufferNV12, 1),
+				width, height, strideY, strideNV, 2, nv12, work);
+		ByteBuffer bufferNV21 = ByteBuffer.wrap(dataNV21, 0, dataNV21.length - 5).slice();
+		ConvertYuv420Planes.yuvToBoof(ByteBuffer.wrap(dataY), slice(bufferNV21, 1), bufferNV21,
+				width, height, strideY, strideNV, 2, nv21, work);
+
+		assertEquals(width, planar.width);
+		assertEquals(height, planar.height);
+		BoofTesting.assertEquals(planar, nv12, 0);
+		BoofTesting.assertEquals(planar, nv21, 0);
+
+		// Gray should just be the luma plane
+		var gray = new GrayU8(1, 1);
+		ConvertYuv420Planes.yuvToBoof(ByteBuffer.wrap(dataY), bufferNV12, slice(bufferNV12, 1),
+				width, height, strideY, strideNV, 2, gray, work);
+		for (int row = 0; row < height; row++) {
+			for (int col = 0; col < width; col++) {
+				assertEquals(dataY[row*strideY + col] & 0xFF, gray.get(col, row));
+			}
+		}
+	}
+
+	private static ByteBuffer slice( ByteBuffer buffer, int offset ) {
+		ByteBuffer copy = buffer.duplicate();
+		copy.position(offset);
+		return copy.slice();
+	}
+
+	/**
+	 * The output is a sub-image
+	 */
+	@Test void subImage() {
+		int width = 20, height = 16;
+		byte[] dataY = new byte[width*height];
+		byte[] dataUV = new byte[width*height/4];
+		rand.nextBytes(dataY);
+		rand.nextBytes(dataUV);
+
+		var expected = new Planar<>(GrayU8.class, width, height, 3);
+		ConvertYuv420Planes.yuvToBoof(ByteBuffer.wrap(dataY), ByteBuffer.wrap(dataUV), ByteBuffer.wrap(dataUV),
+				width, height, width, width/2, 1, expected, null);
+
+		Planar<GrayU8> found = BoofTesting.createSubImageOf(expected);
+		GImageMiscOps.fill(found, 0);
+		ConvertYuv420Planes.yuvToBoof(ByteBuffer.wrap(dataY), ByteBuffer.wrap(dataUV), ByteBuffer.wrap(dataUV),
+				width, height, width, width/2, 1, found, null);
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	@Test void unsupportedOutput() {
+		assertThrows(IllegalArgumentException.class, () -> ConvertYuv420Planes.yuvToBoof(
+				ByteBuffer.allocate(4), ByteBuffer.allocate(1), ByteBuffer.allocate(1),
+				2, 2, 2, 1, 1, new GrayS16(2, 2), null));
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -24,6 +24,9 @@ import boofcv.alg.distort.LensDistortionNarrowFOV;
 import boofcv.alg.fiducial.qrcode.*;
 import boofcv.alg.shapes.polygon.DetectPolygonBinaryGrayRefine;
 import boofcv.alg.shapes.polygon.DetectPolygonFromContour;
+import boofcv.misc.MetricsPublisher;
+import boofcv.misc.MetricsRecorder;
+import boofcv.misc.MetricsRegistry;
 import boofcv.misc.MovingAverage;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
@@ -35,7 +38,7 @@ import java.util.List;
 /**
  * A QR-Code detector which is designed to find the location of corners in the finder pattern precisely.
  */
-public class QrCodePreciseDetector<T extends ImageGray<T>> implements QrCodeDetector<T> {
+public class QrCodePreciseDetector<T extends ImageGray<T>> implements QrCodeDetector<T>, MetricsPublisher {
 	@Getter QrCodePositionPatternDetector<T> detectPositionPatterns;
 	@Getter QrCodePositionPatternGraphGenerator graphPositionPatterns = new QrCodePositionPatternGraphGenerator();
 	@Getter QrCodeDecoderImage<T> decoder;
@@ -48,6 +51,7 @@ public class QrCodePreciseDetector<T extends ImageGray<T>> implements QrCodeDete
 	boolean profiler = false;
 	protected MovingAverage milliBinary = new MovingAverage(0.8);
 	protected MovingAverage milliDecoding = new MovingAverage(0.8);
+	protected final MetricsRecorder metrics = new MetricsRecorder("qrcode");
 
 	public QrCodePreciseDetector( InputToBinary<T> inputToBinary,
 								  QrCodePositionPatternDetector<T> detectPositionPatterns,
@@ -63,10 +67,12 @@ public class QrCodePreciseDetector<T extends ImageGray<T>> implements QrCodeDete
 
 	@Override
 	public void process( T gray ) {
+		metrics.begin();
 		long time0 = System.nanoTime();
 		contourHelper.reshape(gray.width, gray.height);
 		inputToBinary.process(gray, contourHelper.withoutPadding());
 		long time1 = System.nanoTime();
+		metrics.stage("binary");
 		milliBinary.update((time1 - time0)*1e-6);
 
 		if (profiler)
@@ -76,6 +82,8 @@ public class QrCodePreciseDetector<T extends ImageGray<T>> implements QrCodeDete
 		detectPositionPatterns.process(gray, contourHelper.padded());
 		List<PositionPatternNode> positionPatterns = detectPositionPatterns.getPositionPatterns().toList();
 		graphPositionPatterns.process(positionPatterns);
+		metrics.stage("position_patterns");
+		metrics.count("position_patterns", positionPatterns.size());
 
 		if (profiler) {
 			DetectPolygonFromContour<T> detectorPoly = detectPositionPatterns.getSquareDetector().getDetector();
@@ -89,6 +97,10 @@ public class QrCodePreciseDetector<T extends ImageGray<T>> implements QrCodeDete
 		decoder.process(positionPatterns, gray);
 		time1 = System.nanoTime();
 		milliDecoding.update((time1 - time0)*1e-6);
+		metrics.stage("decoding");
+		metrics.count("detections", decoder.getSuccesses().size());
+		metrics.count("failures", decoder.getFailures().size());
+		metrics.end();
 
 		if (profiler)
 			System.out.printf(" decoding %5.1f\n", milliDecoding.getAverage());
@@ -125,6 +137,10 @@ public class QrCodePreciseDetector<T extends ImageGray<T>> implements QrCodeDete
 		profiler = active;
 	}
 
+	@Override public void setMetrics( @Nullable MetricsRegistry registry ) {
+		metrics.setRegistry(registry);
+	}
+
 	public void resetRuntimeProfiling() {
 		milliBinary.reset();
 		milliDecoding.reset();
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -26,8 +26,11 @@ import boofcv.alg.scene.vocabtree.HierarchicalVocabularyTree;
 import boofcv.alg.scene.vocabtree.HierarchicalVocabularyTree.Node;
 import boofcv.misc.BoofLambdas;
 import boofcv.struct.ConfigLength;
+import gnu.trove.impl.Constants;
+import gnu.trove.map.hash.TIntIntHashMap;
 import lombok.Getter;
 import lombok.Setter;
+import org.ddogleg.clustering.PointDistance;
 import org.ddogleg.struct.*;
 import org.jetbrains.annotations.Nullable;
 import pabeles.concurrency.GrowArray;
@@ -53,6 +56,8 @@ import java.util.Set;
  *     array look up.</li>
  *     <li>Histogram weights are stored in inverted files instead of word counts. Allows more efficient error
  *     computation.</li>
+ *     <li>Removed images are marked with a tombstone and skipped by queries. The inverted files are rewritten
+ *     by {@link #compact()}, which is called automatically once enough images have been removed.</li>
  * </ul>
  *
  * <p>
@@ -85,26 +90,45 @@ public class RecognitionVocabularyTreeNister2006<Point> implements VerbosePrint
 	/** List of images added to the database */
 	protected @Getter final BigDogArray_I32 imagesDB = new BigDogArray_I32(100, 10000, BigDogGrowth.GROW_FIRST);
 
+	/**
+	 * Tombstones. true if the image at that index in {@link #imagesDB} has been removed but is still referenced
+	 * by the inverted files. Can be shorter than imagesDB, missing elements are false.
+	 */
+	protected final DogArray_B removed = new DogArray_B();
+
+	/** Number of images which have been removed but not yet compacted */
+	protected @Getter int totalRemoved = 0;
+
+	/**
+	 * Look up table from image ID to its index in {@link #imagesDB}. Removed images are not included. If an ID
+	 * is used more than once then the most recently added image is referenced.
+	 */
+	protected final TIntIntHashMap imageIdToIndex =
+			new TIntIntHashMap(Constants.DEFAULT_CAPACITY, Constants.DEFAULT_LOAD_FACTOR, -1, -1);
+
+	/** Number of images whose ID is shared with an older image that hasn't been removed */
+	protected int duplicateIDs = 0;
+
+	/**
+	 * After an image is removed, if the fraction of images in the database which are removed is more than this
+	 * then {@link #compact()} is called automatically. A value of 1.0 or more turns this off.
+	 */
+	public double autoCompactFraction = 0.25;
+
+	/** If not null then it's notified every time the images in the database change */
+	public @Nullable DatabaseListener databaseListener;
+
+	// Workspace used by functions which process a single image
+	protected final Workspace<Point> work = new Workspace<>();
+
 	/** Scores for all candidate images which have been sorted */
-	protected @Getter final DogArray<BowMatch> matches = new DogArray<>(BowMatch::new, BowMatch::reset);
+	protected @Getter final DogArray<BowMatch> matches = work.matches;
 
 	/** Distance between two TF-IDF descriptors. L1 and L2 norms are provided */
 	protected @Getter @Setter TupleMapDistanceNorm distanceFunction = new TupleMapDistanceNorm.L2();
 
 	/** Stores a mapping from feature index to leaf ID */
-	protected @Getter final DogArray_I32 featureIdxToLeafID = new DogArray_I32();
-
-	//---------------- Internal Workspace
-	// The "frequency" that nodes in the tree appear in this image
-	protected final DogArray<Frequency> frequencies = new DogArray<>(Frequency::new, Frequency::reset);
-
-	// For lookup. One element for every image in the database
-	DogArray_I32 imageIdx_to_match = new DogArray_I32();
-	DogArray_I32 nodeIdx_to_match = new DogArray_I32();
-
-	// temporary storage for an image TF-IDF descriptor
-	DogArray_F32 tmpDescWeights = new DogArray_F32();
-	DogArray_I32 tmpDescWords = new DogArray_I32();
+	protected @Getter final DogArray_I32 featureIdxToLeafID = work.featureIdxToLeafID;
 
 	// If not null then print verbose information here
 	@Nullable PrintStream verbose;
@@ -124,10 +148,17 @@ public class RecognitionVocabularyTreeNister2006<Point> implements VerbosePrint
 	 */
 	public void clearImages() {
 		imagesDB.reset();
+		removed.reset();
+		totalRemoved = 0;
+		imageIdToIndex.clear();
+		duplicateIDs = 0;
 
 		// Removes the old leaf data and replaces it with empty structures
 		invertedFiles.reset();
 		invertedFiles.resize(tree.nodes.size);
+
+		if (databaseListener != null)
+			databaseListener.imagesCleared();
 	}
 
 	/**
@@ -140,18 +171,188 @@ public class RecognitionVocabularyTreeNister2006<Point> implements VerbosePrint
 		if (imageFeatures.isEmpty())
 			return;
 
+		// compute a descriptor for this image then add it to the inverted files
+		describe(imageFeatures, work.descWeights, work.descWords, work);
+		addDescriptor(imageID, work.descWeights, work.descWords);
+	}
+
+	/**
+	 * Adds an image's TF-IDF descriptor to the database and to the inverted file of each word in the descriptor.
+	 * Typically used to restore a database from a log.
+	 *
+	 * @param imageID The image's unique ID for later reference
+	 * @param descWeights Weights for non-zero words in the image's descriptor
+	 * @param descWords Word index for non-zero words in the image's descriptor
+	 */
+	public void addDescriptor( int imageID, DogArray_F32 descWeights, DogArray_I32 descWords ) {
 		int imageIdx = imagesDB.size;
 		imagesDB.append(imageID);
+		if (imageIdToIndex.put(imageID, imageIdx) != -1)
+			duplicateIDs++;
+
+		for (int wordIdx = 0; wordIdx < descWords.size; wordIdx++) {
+			int word = descWords.get(wordIdx);
+			invertedFiles.get(word).addImage(imageIdx, descWeights.get(wordIdx));
+		}
+
+		if (databaseListener != null)
+			databaseListener.imageAdded(imageID, descWeights, descWords);
+	}
+
+	/**
+	 * Removes an image from the database. The image is marked as removed and will no longer be returned by
+	 * queries, but its memory isn't freed until {@link #compact()} is called. If more than one image has the
+	 * same ID then the most recently added one is removed.
+	 *
+	 * @param imageID The image's unique ID
+	 * @return true if the image was found and removed
+	 */
+	public boolean removeImage( int imageID ) {
+		int imageIdx = imageIdToIndex.remove(imageID);
+		if (imageIdx < 0)
+			return false;
+
+		while (removed.size < imagesDB.size) {
+			removed.add(false);
+		}
+		removed.set(imageIdx, true);
+		totalRemoved++;
+
+		// Only search for an older image with the same ID if there could be one
+		if (duplicateIDs > 0) {
+			for (int olderIdx = imageIdx - 1; olderIdx >= 0; olderIdx--) {
+				if (imagesDB.get(olderIdx) == imageID && !isRemoved(olderIdx)) {
+					imageIdToIndex.put(imageID, olderIdx);
+					duplicateIDs--;
+					break;
+				}
+			}
+		}
+
+		if (databaseListener != null)
+			databaseListener.imageRemoved(imageID);
+
+		if (totalRemoved > autoCompactFraction*imagesDB.size)
+			compact();
+		return true;
+	}
+
+	/**
+	 * Replaces the features of an image already in the database. Same as removing it then adding it again.
+	 *
+	 * @param imageID The image's unique ID
+	 * @param imageFeatures Feature descriptors from the new image
+	 */
+	public void replaceImage( int imageID, List<Point> imageFeatures ) {
+		removeImage(imageID);
+		addImage(imageID, imageFeatures);
+	}
 
-		// compute a descriptor for this image while adding it to the leaves
-		describe(imageFeatures, tmpDescWeights, tmpDescWords);
+	/**
+	 * Returns the index of the image in {@link #imagesDB} or -1 if it's not in the database
+	 */
+	protected int findImageIndex( int imageID ) {
+		return imageIdToIndex.get(imageID);
+	}
 
-		for (int wordIdx = 0; wordIdx < tmpDescWords.size; wordIdx++) {
-			int word = tmpDescWords.get(wordIdx);
-			invertedFiles.get(word).addImage(imageIdx, tmpDescWeights.get(wordIdx));
+	/**
+	 * Rebuilds the look up table from image ID to index. Must be called if {@link #imagesDB} is modified
+	 * directly, e.g. when a database is loaded.
+	 */
+	public void rebuildImageLookup() {
+		imageIdToIndex.clear();
+		duplicateIDs = 0;
+		for (int imageIdx = 0; imageIdx < imagesDB.size; imageIdx++) {
+			if (isRemoved(imageIdx))
+				continue;
+			if (imageIdToIndex.put(imagesDB.get(imageIdx), imageIdx) != -1)
+				duplicateIDs++;
 		}
 	}
 
+	/**
+	 * Returns true if the image at the specified index has been removed
+	 */
+	protected final boolean isRemoved( int imageIdx ) {
+		return imageIdx < removed.size && removed.data[imageIdx];
+	}
+
+	/**
+	 * Number of images in the database, not counting ones which have been removed
+	 */
+	public int getImageCount() {
+		return imagesDB.size - totalRemoved;
+	}
+
+	/**
+	 * Frees the memory used by removed images. Inverted files are rewritten and the remaining images are
+	 * assigned new indexes. Results of a query are not changed. Can't be called while a query is in progress.
+	 */
+	public void compact() {
+		if (totalRemoved == 0)
+			return;
+
+		// Compute the new index of each image and remove images from the DB
+		var oldToNew = new DogArray_I32(imagesDB.size);
+		int count = computeCompactedIndexes(oldToNew);
+		for (int imageIdx = 0; imageIdx < imagesDB.size; imageIdx++) {
+			int newIdx = oldToNew.data[imageIdx];
+			if (newIdx >= 0)
+				imagesDB.set(newIdx, imagesDB.get(imageIdx));
+		}
+		imagesDB.resize(count);
+
+		compactInvertedFiles(oldToNew);
+
+		removed.reset();
+		totalRemoved = 0;
+		rebuildImageLookup();
+	}
+
+	/**
+	 * Computes the index each image would have after {@link #compact()} without modifying the database
+	 *
+	 * @param oldToNew (Output) New index of each image in {@link #imagesDB}. -1 if it has been removed.
+	 * @return Number of images which have not been removed
+	 */
+	public int computeCompactedIndexes( DogArray_I32 oldToNew ) {
+		oldToNew.resize(imagesDB.size);
+		int count = 0;
+		for (int imageIdx = 0; imageIdx < imagesDB.size; imageIdx++) {
+			oldToNew.data[imageIdx] = isRemoved(imageIdx) ? -1 : count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Removes references to images which have been removed from every inverted file
+	 *
+	 * @param oldToNew New index of each image. -1 if it has been removed.
+	 */
+	protected void compactInvertedFiles( DogArray_I32 oldToNew ) {
+		for (int nodeIdx = 0; nodeIdx < invertedFiles.size(); nodeIdx++) {
+			compactInvertedFile(invertedFiles.get(nodeIdx), oldToNew);
+		}
+	}
+
+	/**
+	 * Removes references to removed images and changes the remaining indexes. The order of images is
+	 * not changed.
+	 */
+	protected static void compactInvertedFile( InvertedFile invertedFile, DogArray_I32 oldToNew ) {
+		int count = 0;
+		for (int i = 0; i < invertedFile.size; i++) {
+			int imageIdx = oldToNew.data[invertedFile.data[i]];
+			if (imageIdx < 0)
+				continue;
+			invertedFile.data[count] = imageIdx;
+			invertedFile.weights.data[count] = invertedFile.weights.data[i];
+			count++;
+		}
+		invertedFile.size = count;
+		invertedFile.weights.size = count;
+	}
+
 	/**
 	 * Looks up the best BowMatch from the database. The list of all potential matches can be accessed by calling
 	 * {@link #getMatches()}.
@@ -162,6 +363,19 @@ public class RecognitionVocabularyTreeNister2006<Point> implements VerbosePrint
 	 * @return The best matching image with score from the database
 	 */
 	public boolean query( List<Point> queryImage, @Nullable BoofLambdas.FilterInt filter, int limit ) {
+		return query(queryImage, filter, limit, work);
+	}
+
+	/**
+	 * Implementation of {@link #query(List, BoofLambdas.FilterInt, int)} where all modified data is stored in the
+	 * workspace. The database is only read from, so multiple threads can call this function at the same time
+	 * as long as each has its own workspace and the tree can be searched concurrently.
+	 *
+	 * @param work (Output) Workspace. Matches are written to {@link Workspace#matches}.
+	 */
+	protected boolean query( List<Point> queryImage, @Nullable BoofLambdas.FilterInt filter, int limit,
+							 Workspace<Point> work ) {
+		DogArray<BowMatch> matches = work.matches;
 		matches.reset();
 
 		// Can't BowMatch to anything if it's empty
@@ -169,22 +383,32 @@ public class RecognitionVocabularyTreeNister2006<Point> implements VerbosePrint
 			return false;
 		}
 
-		findAndScoreMatches(queryImage);
+		findAndScoreMatches(queryImage, work);
 
 		if (matches.isEmpty())
 			return false;
 
 		if (verbose != null) verbose.println("raw matches.size=" + matches.size);
 
+		DogArray_I32 imageIdx_to_match = work.imageIdx_to_match;
+
 		// Book keeping
+		int numKept = 0;
 		for (int i = 0; i < matches.size(); i++) {
 			BowMatch m = matches.get(i);
 
 			// Undo changes and make sure all elements are -1 again
 			imageIdx_to_match.set(m.identification, -1);
+
+			// Skip images which have been removed but are still in the inverted files
+			if (isRemoved(m.identification))
+				continue;
+
 			// m.identification is overloaded earlier and actually stores the index
 			m.identification = imagesDB.get(m.identification);
+			matches.swap(i, numKept++);
 		}
+		matches.size = numKept;
 
 		BowUtils.filterAndSortMatches(matches, filter, limit);
 
@@ -195,49 +419,81 @@ public class RecognitionVocabularyTreeNister2006<Point> implements VerbosePrint
 	 * Uses the inverted file for each word to create a list of potential matches while scoring the matches
 	 * efficiently
 	 */
-	protected void findAndScoreMatches( List<Point> queryImage ) {
+	protected void findAndScoreMatches( List<Point> queryImage, Workspace<Point> work ) {
 		// Don't use a node if it will degrade the runtime performance too much by considering too many images
 		// This will also degrade the quality of query results
 		int maximumInvertedFileLength = maximumQueryImagesInNode.computeI(imagesDB.size);
 
 		// Create a description of this image and collect potential matches from leaves
-		describe(queryImage, tmpDescWeights, tmpDescWords);
+		describe(queryImage, work.descWeights, work.descWords, work);
 
 		// NOTE: It's assumed imageIdx_to_match is full of -1
-		imageIdx_to_match.resize(imagesDB.size, -1);
+		work.imageIdx_to_match.resize(imagesDB.size, -1);
 
 		// Find and score all the images that could possible be matched with the query
-		for (int wordIdx = 0; wordIdx < tmpDescWords.size; wordIdx++) {
-			float queryWordWeight = tmpDescWeights.get(wordIdx);
-			HierarchicalVocabularyTree.Node node = tree.nodes.get(tmpDescWords.get(wordIdx));
-
-			InvertedFile invertedFile = invertedFiles.get(node.index);
+		for (int wordIdx = 0; wordIdx < work.descWords.size; wordIdx++) {
+			float queryWordWeight = work.descWeights.get(wordIdx);
+			int nodeIdx = work.descWords.get(wordIdx);
 
 			// See above
-			if (invertedFile.size > maximumInvertedFileLength)
+			if (invertedFileSize(nodeIdx) > maximumInvertedFileLength)
 				continue;
 
-			for (int i = 0; i < invertedFile.size; i++) {
-				// Get the list of images in the database which have this particular word using
-				// the inverted file list
-				int imageIdx = invertedFile.get(i);
+			scoreInvertedFile(nodeIdx, queryWordWeight, work);
+		}
+	}
 
-				BowMatch m;
-				if (imageIdx_to_match.get(imageIdx) == -1) {
-					imageIdx_to_match.set(imageIdx, matches.size);
-					m = matches.grow();
-					m.identification = imageIdx; // this will be converted to ID on output
-				} else {
-					m = matches.get(imageIdx_to_match.get(imageIdx));
-				}
+	/**
+	 * Number of images in the specified node's inverted file
+	 */
+	protected int invertedFileSize( int nodeIdx ) {
+		return invertedFiles.get(nodeIdx).size;
+	}
 
-				// Update the score computation. See TupleMapDistanceNorm for why this is done
-				m.error += distanceFunction.distanceUpdate(queryWordWeight, invertedFile.weights.get(i));
-				// NOTE: An earlier version created a list of common word weights. That took 5x longer
-			}
+	/**
+	 * Updates the score of every image in the specified node's inverted file
+	 *
+	 * @param nodeIdx Index of the node / word
+	 * @param queryWordWeight Weight of the word in the query image's descriptor
+	 * @param work Workspace the scores are written to
+	 */
+	protected void scoreInvertedFile( int nodeIdx, float queryWordWeight, Workspace<Point> work ) {
+		InvertedFile invertedFile = invertedFiles.get(nodeIdx);
+
+		for (int i = 0; i < invertedFile.size; i++) {
+			// Get the list of images in the database which have this particular word using
+			// the inverted file list
+			updateMatchScore(invertedFile.get(i), queryWordWeight, invertedFile.weights.get(i), work);
 		}
 	}
 
+	/**
+	 * Adds the contribution of a single word to the score of an image in the database. If this is the first time
+	 * the image has been seen during this query then a new match is created.
+	 *
+	 * @param imageIdx Index of the image in the database
+	 * @param queryWordWeight Weight of the word in the query image's descriptor
+	 * @param imageWordWeight Weight of the word in the database image's descriptor
+	 * @param work Workspace the scores are written to
+	 */
+	protected final void updateMatchScore( int imageIdx, float queryWordWeight, float imageWordWeight,
+										   Workspace<Point> work ) {
+		final DogArray_I32 imageIdx_to_match = work.imageIdx_to_match;
+		final DogArray<BowMatch> matches = work.matches;
+		BowMatch m;
+		if (imageIdx_to_match.get(imageIdx) == -1) {
+			imageIdx_to_match.set(imageIdx, matches.size);
+			m = matches.grow();
+			m.identification = imageIdx; // this will be converted to ID on output
+		} else {
+			m = matches.get(imageIdx_to_match.get(imageIdx));
+		}
+
+		// Update the score computation. See TupleMapDistanceNorm for why this is done
+		m.error += distanceFunction.distanceUpdate(queryWordWeight, imageWordWeight);
+		// NOTE: An earlier version created a list of common word weights. That took 5x longer
+	}
+
 	/**
 	 * Given the image features, compute a sparse descriptor for the image and pass in leaf nodes to 'op' for each
 	 * image feature.
@@ -247,6 +503,19 @@ public class RecognitionVocabularyTreeNister2006<Point> implements VerbosePrint
 	 * @param descWords (Output) Word index for non-zero word in TD-IDF descriptor for this image
 	 */
 	protected void describe( List<Point> imageFeatures, DogArray_F32 descWeights, DogArray_I32 descWords ) {
+		describe(imageFeatures, descWeights, descWords, work);
+	}
+
+	/**
+	 * Implementation of {@link #describe(List, DogArray_F32, DogArray_I32)} where all internal variables
+	 * are stored in the workspace.
+	 */
+	protected void describe( List<Point> imageFeatures, DogArray_F32 descWeights, DogArray_I32 descWords,
+							 Workspace<Point> work ) {
+		final DogArray<Frequency> frequencies = work.frequencies;
+		final DogArray_I32 nodeIdx_to_match = work.nodeIdx_to_match;
+		final DogArray_I32 featureIdxToLeafID = work.featureIdxToLeafID;
+
 		// Reset work variables
 		frequencies.reset();
 		descWeights.reset();
@@ -257,7 +526,7 @@ public class RecognitionVocabularyTreeNister2006<Point> implements VerbosePrint
 		featureIdxToLeafID.resize(imageFeatures.size());
 
 		for (int featureIdx = 0; featureIdx < imageFeatures.size(); featureIdx++) {
-			int leafID = tree.searchPathToLeaf(imageFeatures.get(featureIdx), ( depth, node ) -> {
+			int leafID = searchPathToLeaf(imageFeatures.get(featureIdx), work, ( depth, node ) -> {
 				if (depth < minimumDepthFromRoot || node.weight <= 0.0f)
 					return;
 
@@ -305,6 +574,16 @@ public class RecognitionVocabularyTreeNister2006<Point> implements VerbosePrint
 		distanceFunction.normalize(descWeights);
 	}
 
+	/**
+	 * Searches the tree for the leaf. If the workspace has its own storage for searching the tree then that's used
+	 * and no shared data is modified.
+	 */
+	private int searchPathToLeaf( Point point, Workspace<Point> work, BoofLambdas.ProcessIndex<Node> op ) {
+		if (work.treeDesc == null || work.treeDistance == null)
+			return tree.searchPathToLeaf(point, op);
+		return tree.searchPathToLeaf(point, work.treeDistance, work.treeDesc, op);
+	}
+
 	/** Used to change distance function to one of the built in types */
 	public void setDistanceType( BowDistanceTypes type ) {
 		distanceFunction = switch (type) {
@@ -318,6 +597,47 @@ public class RecognitionVocabularyTreeNister2006<Point> implements VerbosePrint
 		this.verbose = out;
 	}
 
+	/**
+	 * Listener for changes to the images in the database
+	 */
+	public interface DatabaseListener {
+		/** An image was added with the specified TF-IDF descriptor */
+		void imageAdded( int imageID, DogArray_F32 descWeights, DogArray_I32 descWords );
+
+		/** An image was removed */
+		void imageRemoved( int imageID );
+
+		/** All images were removed */
+		void imagesCleared();
+	}
+
+	/**
+	 * Storage for everything which is modified when describing or looking up an image. Each thread needs
+	 * its own instance.
+	 */
+	protected static class Workspace<Point> {
+		/** Scores for candidate images */
+		public final DogArray<BowMatch> matches = new DogArray<>(BowMatch::new, BowMatch::reset);
+
+		/** Stores a mapping from feature index to leaf ID */
+		public final DogArray_I32 featureIdxToLeafID = new DogArray_I32();
+
+		// The "frequency" that nodes in the tree appear in this image
+		final DogArray<Frequency> frequencies = new DogArray<>(Frequency::new, Frequency::reset);
+
+		// For lookup. One element for every image in the database
+		final DogArray_I32 imageIdx_to_match = new DogArray_I32();
+		final DogArray_I32 nodeIdx_to_match = new DogArray_I32();
+
+		// temporary storage for an image TF-IDF descriptor
+		final DogArray_F32 descWeights = new DogArray_F32();
+		final DogArray_I32 descWords = new DogArray_I32();
+
+		// If not null then these are used to search the tree instead of the tree's shared internal storage
+		@Nullable Point treeDesc;
+		@Nullable PointDistance<Point> treeDistance;
+	}
+
 	/**
 	 * Used to sum the frequency of words (graph nodes) in the image
 	 */
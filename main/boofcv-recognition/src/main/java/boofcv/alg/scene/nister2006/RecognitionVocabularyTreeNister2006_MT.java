@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.scene.nister2006;
+
+import boofcv.alg.scene.bow.BowMatch;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.misc.BoofLambdas;
+import boofcv.misc.BoofMiscOps;
+import lombok.Getter;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_F32;
+import org.ddogleg.struct.DogArray_I32;
+import org.jetbrains.annotations.Nullable;
+import pabeles.concurrency.GrowArray;
+
+import java.util.List;
+
+/**
+ * Concurrent implementation of {@link RecognitionVocabularyTreeNister2006} which adds functions for processing
+ * images in batches. Finding the path through the tree for each feature is what dominates the cost of adding
+ * and looking up images and that's done in parallel across images. When adding images, the TF-IDF descriptors
+ * are staged for each image and then appended to the inverted files in the same order as the input list,
+ * making the results identical to adding them one at a time.
+ *
+ * Batch queries only read from the database. Images can't be added to or removed from the database while a query
+ * is in progress. Inverted files are compacted in parallel.
+ *
+ * @author Peter Abeles
+ */
+public class RecognitionVocabularyTreeNister2006_MT<Point> extends RecognitionVocabularyTreeNister2006<Point> {
+	/** Results for each image in the most recent call to {@link #queryBatch} */
+	@Getter final DogArray<DogArray<BowMatch>> batchMatches =
+			new DogArray<>(() -> new DogArray<>(BowMatch::new, BowMatch::reset), DogArray::reset);
+
+	// Creates storage for a point. Used to search the tree without modifying the tree
+	final BoofLambdas.Factory<Point> factoryPoint;
+
+	// Workspace for each thread
+	final GrowArray<Workspace<Point>> workspaces = new GrowArray<>(Workspace::new);
+
+	// Descriptors for each image which is being added
+	final DogArray<StagedImage> staged = new DogArray<>(StagedImage::new, StagedImage::reset);
+
+	/**
+	 * @param factoryPoint Creates a new instance of a point. Each thread needs its own storage when searching the tree.
+	 */
+	public RecognitionVocabularyTreeNister2006_MT( BoofLambdas.Factory<Point> factoryPoint ) {
+		this.factoryPoint = factoryPoint;
+	}
+
+	/**
+	 * Adds multiple images to the database. The result is the same as calling
+	 * {@link #addImage(int, List)} for each image in order.
+	 *
+	 * @param imageIDs The unique ID of each image
+	 * @param images Feature descriptors from each image
+	 */
+	public void addImages( DogArray_I32 imageIDs, List<List<Point>> images ) {
+		BoofMiscOps.checkEq(imageIDs.size, images.size(), "Number of IDs and images must match");
+
+		// Compute the TF-IDF descriptor for each image in parallel
+		staged.reset();
+		staged.resize(images.size());
+		BoofConcurrency.loopBlocks(0, images.size(), workspaces, ( work, idx0, idx1 ) -> {
+			prepareWorkspace(work);
+			for (int imageIdx = idx0; imageIdx < idx1; imageIdx++) {
+				List<Point> features = images.get(imageIdx);
+				if (features.isEmpty())
+					continue;
+				StagedImage s = staged.get(imageIdx);
+				describe(features, s.weights, s.words, work);
+			}
+		});
+
+		// Merge into the database in the input order so that image indexes are deterministic
+		for (int imageIdx = 0; imageIdx < images.size(); imageIdx++) {
+			if (images.get(imageIdx).isEmpty())
+				continue;
+			StagedImage s = staged.get(imageIdx);
+			addDescriptor(imageIDs.get(imageIdx), s.weights, s.words);
+		}
+	}
+
+	/**
+	 * Looks up matches for multiple images at the same time. Results are saved in {@link #getBatchMatches()}
+	 * and the results for each image are the same as what {@link #query} would have found.
+	 *
+	 * @param queryImages Set of feature descriptors from each query image
+	 * @param filter Filter which can be used to reject matches that the user doesn't want returned. Must be thread safe.
+	 * False = reject.
+	 * @param limit Maximum number of matches it will return for each image.
+	 */
+	public void queryBatch( List<List<Point>> queryImages, @Nullable BoofLambdas.FilterInt filter, int limit ) {
+		batchMatches.reset();
+		batchMatches.resize(queryImages.size());
+
+		BoofConcurrency.loopBlocks(0, queryImages.size(), workspaces, ( work, idx0, idx1 ) -> {
+			prepareWorkspace(work);
+			for (int imageIdx = idx0; imageIdx < idx1; imageIdx++) {
+				if (!query(queryImages.get(imageIdx), filter, limit, work))
+					continue;
+
+				DogArray<BowMatch> found = batchMatches.get(imageIdx);
+				found.resize(work.matches.size);
+				for (int i = 0; i < work.matches.size; i++) {
+					BowMatch src = work.matches.get(i);
+					BowMatch dst = found.get(i);
+					dst.identification = src.identification;
+					dst.error = src.error;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Inverted files are independent of each other and are compacted in parallel
+	 */
+	@Override protected void compactInvertedFiles( DogArray_I32 oldToNew ) {
+		BoofConcurrency.loopBlocks(0, invertedFiles.size(), ( idx0, idx1 ) -> {
+			for (int nodeIdx = idx0; nodeIdx < idx1; nodeIdx++) {
+				compactInvertedFile(invertedFiles.get(nodeIdx), oldToNew);
+			}
+		});
+	}
+
+	/**
+	 * Ensures the workspace can search the tree without touching the tree's shared storage
+	 */
+	void prepareWorkspace( Workspace<Point> work ) {
+		if (work.treeDesc == null)
+			work.treeDesc = factoryPoint.newInstance();
+		work.treeDistance = tree.distanceFunction.newInstanceThread();
+	}
+
+	/**
+	 * TF-IDF descriptor for an image which is waiting to be added
+	 */
+	static class StagedImage {
+		final DogArray_F32 weights = new DogArray_F32();
+		final DogArray_I32 words = new DogArray_I32();
+
+		public void reset() {
+			weights.reset();
+			words.reset();
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -130,6 +130,57 @@ public class HierarchicalVocabularyTree<Point> {
 		throw new RuntimeException("Invalid tree. Max depth exceeded searching for leaf");
 	}
 
+	/**
+	 * Thread safe version of {@link #searchPathToLeaf(Object, BoofLambdas.ProcessIndex)}. Descriptions are
+	 * copied into 'work' instead of the shared storage inside of {@link #descriptions}, which allows multiple
+	 * threads to search the tree at the same time.
+	 *
+	 * @param point (Input) Point
+	 * @param distance Distance function which is only used by the calling thread
+	 * @param work Storage for a description in the tree
+	 * @param op Traversed nodes are passed to this function from level 0 to the leaf
+	 * @return index of the leaf node
+	 */
+	public int searchPathToLeaf( Point point, PointDistance<Point> distance, Point work,
+								 BoofLambdas.ProcessIndex<Node> op ) {
+		Node parent = nodes.get(0);
+
+		if (parent.isLeaf()) {
+			return 0;
+		}
+
+		// search until it hits the level limit. This is a sanity check just in case the graph has an infinite loop
+		for (int level = 0; level <= maximumLevel; level++) {
+			int bestNodeIdx = -1;
+			double bestDistance = Double.MAX_VALUE;
+
+			// Find the child/node/branch that the 'point' belongs to
+			for (int childIdx = 0; childIdx < parent.childrenIndexes.size; childIdx++) {
+				int nodeIdx = parent.childrenIndexes.get(childIdx);
+
+				descriptions.getCopy(nodes.get(nodeIdx).descIdx, work);
+				double d = distance.distance(point, work);
+				if (d >= bestDistance)
+					continue;
+
+				bestNodeIdx = nodeIdx;
+				bestDistance = d;
+			}
+
+			parent = nodes.get(bestNodeIdx);
+
+			// Pass in the node being explored
+			op.process(level + 1, parent);
+
+			// See if it has reached a leaf and the search is finished
+			if (parent.isLeaf()) {
+				return bestNodeIdx;
+			}
+		}
+
+		throw new RuntimeException("Invalid tree. Max depth exceeded searching for leaf");
+	}
+
 	/**
 	 * Traverses every node in the graph (excluding the root) in a depth first manor.
 	 *
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -25,10 +25,15 @@ import boofcv.alg.misc.PixelMath;
 import boofcv.alg.transform.fft.DiscreteFourierTransformOps;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.InterleavedF32;
+import lombok.Getter;
+import org.ddogleg.struct.DogArray;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
+
 /**
- * Correlation based template matching which uses FFT
+ * Correlation based template matching which uses FFT. Several templates can be matched against the same image
+ * using {@link #processBatch(List)}, which transforms all the templates together and can do so concurrently.
  *
  * @author Peter Abeles
  */
@@ -56,6 +61,13 @@ public class TemplateCorrelationFFT
 	// image statistics used to normalize images
 	float maxValue, mean;
 
+	// storage for batch processing
+	DogArray<GrayF32> batchEnlarged = new DogArray<>(() -> new GrayF32(1, 1));
+	DogArray<InterleavedF32> batchFFT = new DogArray<>(() -> new InterleavedF32(1, 1, 2));
+
+	/** Correlation image for each template in the most recent call to {@link #processBatch} */
+	@Getter DogArray<GrayF32> batchIntensity = new DogArray<>(() -> new GrayF32(1, 1));
+
 	@Override
 	public void setInputImage( GrayF32 image ) {
 		enlargedTemplate.reshape(image.width, image.height);
@@ -85,6 +97,52 @@ public class TemplateCorrelationFFT
 		if (template.width > fftImage.width || template.height > fftImage.height)
 			throw new IllegalArgumentException("Template must be smaller than or equal to the image");
 
+		insertTemplate(template, mask, enlargedTemplate);
+
+		dft.forward(enlargedTemplate, fftTemplate);
+
+		// compute the correlation
+		DiscreteFourierTransformOps.multiplyComplex(fftImage, fftTemplate, fftMult);
+		dft.inverse(fftMult, correlation);
+	}
+
+	/**
+	 * Computes the correlation between the input image and each template. The templates are transformed
+	 * together, which lets the FFT be computed in parallel and reuse the same tables. The results are
+	 * stored in {@link #getBatchIntensity()}. The border of each intensity image is the same as if
+	 * {@link #process} had been called with its template. The border functions return the last template's border.
+	 *
+	 * @param templates Templates which are to be matched against the image
+	 */
+	public void processBatch( List<GrayF32> templates ) {
+		batchEnlarged.reset();
+		batchFFT.reset();
+		batchIntensity.reset();
+
+		for (int i = 0; i < templates.size(); i++) {
+			GrayF32 template = templates.get(i);
+			if (template.width > fftImage.width || template.height > fftImage.height)
+				throw new IllegalArgumentException("Template must be smaller than or equal to the image");
+
+			GrayF32 enlarged = batchEnlarged.grow();
+			enlarged.reshape(fftImage.width, fftImage.height);
+			insertTemplate(template, null, enlarged);
+			batchFFT.grow().reshape(fftImage.width, fftImage.height);
+			batchIntensity.grow().reshape(fftImage.width, fftImage.height);
+		}
+
+		dft.forward(batchEnlarged.toList(), batchFFT.toList());
+		for (int i = 0; i < batchFFT.size; i++) {
+			DiscreteFourierTransformOps.multiplyComplex(fftImage, batchFFT.get(i), batchFFT.get(i));
+		}
+		dft.inverse(batchFFT.toList(), batchIntensity.toList());
+	}
+
+	/**
+	 * Normalizes the template and inserts it into the enlarged image so that its center is at (0,0), wrapping
+	 * around the corners. Updates the border.
+	 */
+	void insertTemplate( GrayF32 template, @Nullable GrayF32 mask, GrayF32 output ) {
 		// normalize the input image to reduce buffer overflow
 		normalizedTemplate.reshape(template.width, template.height);
 
@@ -109,30 +167,18 @@ public class TemplateCorrelationFFT
 
 		// insert the template into the enlarged image
 		// want it to be at (0,0) coordinate. This requires wrapping it around the corners
-		GImageMiscOps.fill(enlargedTemplate, 0);
-//		int x0 = 0;//enlargedTemplate.width-template.width;
-//		int y0 = 0;//enlargedTemplate.height-template.height;
-//		int x1 = x0 + template.width;
-//		int y1 = y0 + template.height;
-
-//		enlargedTemplate.subimage(x0,y0,x1,y1).setTo(normalizedTemplate);
+		GImageMiscOps.fill(output, 0);
 		for (int y = 0; y < template.height; y++) {
 			int yy = y - borderY0 + (1 - template.height%2);
 			if (yy < 0)
-				yy = enlargedTemplate.height + yy;
+				yy = output.height + yy;
 			for (int x = 0; x < template.width; x++) {
 				int xx = x - borderX0 + (1 - template.width%2);
 				if (xx < 0)
-					xx = enlargedTemplate.width + xx;
-				enlargedTemplate.unsafe_set(xx, yy, normalizedTemplate.unsafe_get(x, y));
+					xx = output.width + xx;
+				output.unsafe_set(xx, yy, normalizedTemplate.unsafe_get(x, y));
 			}
 		}
-
-		dft.forward(enlargedTemplate, fftTemplate);
-
-		// compute the correlation
-		DiscreteFourierTransformOps.multiplyComplex(fftImage, fftTemplate, fftMult);
-		dft.inverse(fftMult, correlation);
 	}
 
 	@Override
@@ -19,6 +19,7 @@
 package boofcv.alg.scene.nister2006;
 
 import boofcv.alg.scene.bow.BowMatch;
+import boofcv.alg.scene.bow.InvertedFile;
 import boofcv.alg.scene.vocabtree.HierarchicalVocabularyTree;
 import boofcv.testing.BoofStandardJUnit;
 import georegression.struct.point.Point2D_F64;
@@ -31,8 +32,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static boofcv.alg.scene.vocabtree.TestHierarchicalVocabularyTree.createTree;
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 @SuppressWarnings("ConstantConditions")
 class TestRecognitionVocabularyTreeNister2006 extends BoofStandardJUnit {
@@ -61,6 +61,146 @@ class TestRecognitionVocabularyTreeNister2006 extends BoofStandardJUnit {
 		}
 	}
 
+	/**
+	 * Removed images should not be returned by a query and compacting should not change the results
+	 */
+	@Test void removeImage_compact() {
+		var alg = new RecognitionVocabularyTreeNister2006<Point2D_F64>();
+		alg.initializeTree(create2x2Tree());
+		alg.autoCompactFraction = 1.0;
+
+		List<List<Point2D_F64>> images = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			images.add(createRandomImage());
+			alg.addImage(i*10, images.get(i));
+		}
+
+		assertTrue(alg.removeImage(20));
+		assertFalse(alg.removeImage(20));
+		assertFalse(alg.removeImage(21));
+		assertTrue(alg.removeImage(40));
+		assertEquals(4, alg.getImageCount());
+		assertEquals(2, alg.getTotalRemoved());
+
+		// Save the results before compacting
+		List<DogArray_I32> expectedIDs = new ArrayList<>();
+		List<DogArray_F32> expectedErrors = new ArrayList<>();
+		for (int i = 0; i < images.size(); i++) {
+			alg.query(images.get(i), null, Integer.MAX_VALUE);
+			var ids = new DogArray_I32();
+			var errors = new DogArray_F32();
+			for (BowMatch m : alg.getMatches().toList()) {
+				assertTrue(m.identification != 20 && m.identification != 40);
+				ids.add(m.identification);
+				errors.add(m.error);
+			}
+			expectedIDs.add(ids);
+			expectedErrors.add(errors);
+		}
+
+		alg.compact();
+		assertEquals(4, alg.getImagesDB().size);
+		assertEquals(0, alg.getTotalRemoved());
+		for (int i = 0; i < alg.invertedFiles.size(); i++) {
+			InvertedFile file = alg.invertedFiles.get(i);
+			assertEquals(file.size, file.weights.size);
+			for (int j = 0; j < file.size; j++) {
+				assertTrue(file.get(j) < 4);
+			}
+		}
+
+		for (int i = 0; i < images.size(); i++) {
+			alg.query(images.get(i), null, Integer.MAX_VALUE);
+			List<BowMatch> found = alg.getMatches().toList();
+			assertEquals(expectedIDs.get(i).size, found.size());
+			for (int j = 0; j < found.size(); j++) {
+				assertEquals(expectedIDs.get(i).get(j), found.get(j).identification);
+				assertEquals(expectedErrors.get(i).get(j), found.get(j).error, UtilEjml.TEST_F32);
+			}
+		}
+
+		// Add a removed image back in
+		alg.addImage(20, images.get(2));
+		assertTrue(alg.query(images.get(2), null, 1));
+		assertEquals(20, alg.getMatches().get(0).identification);
+	}
+
+	/**
+	 * If more than one image has the same ID then the most recent is removed first
+	 */
+	@Test void removeImage_duplicateID() {
+		var alg = new RecognitionVocabularyTreeNister2006<Point2D_F64>();
+		alg.initializeTree(create2x2Tree());
+		alg.autoCompactFraction = 1.0;
+
+		alg.addImage(5, createRandomImage());
+		alg.addImage(6, createRandomImage());
+		alg.addImage(5, createRandomImage());
+
+		assertEquals(2, alg.findImageIndex(5));
+		assertTrue(alg.removeImage(5));
+		assertEquals(0, alg.findImageIndex(5));
+		assertTrue(alg.removeImage(5));
+		assertEquals(-1, alg.findImageIndex(5));
+		assertFalse(alg.removeImage(5));
+
+		// Indexes should be updated after compacting
+		alg.compact();
+		assertEquals(0, alg.findImageIndex(6));
+		assertTrue(alg.removeImage(6));
+		assertEquals(0, alg.getImageCount());
+	}
+
+	/**
+	 * The database should be compacted once too many images are removed
+	 */
+	@Test void removeImage_autoCompact() {
+		var alg = new RecognitionVocabularyTreeNister2006<Point2D_F64>();
+		alg.initializeTree(create2x2Tree());
+		alg.autoCompactFraction = 0.3;
+
+		for (int i = 0; i < 10; i++) {
+			alg.addImage(i, createRandomImage());
+		}
+
+		alg.removeImage(1);
+		alg.removeImage(2);
+		alg.removeImage(3);
+		assertEquals(3, alg.getTotalRemoved());
+		assertEquals(10, alg.getImagesDB().size);
+
+		alg.removeImage(4);
+		assertEquals(0, alg.getTotalRemoved());
+		assertEquals(6, alg.getImagesDB().size);
+		assertEquals(6, alg.getImageCount());
+	}
+
+	/**
+	 * Every change should be passed to the listener
+	 */
+	@Test void databaseListener() {
+		var alg = new RecognitionVocabularyTreeNister2006<Point2D_F64>();
+		alg.initializeTree(create2x2Tree());
+
+		var events = new ArrayList<String>();
+		alg.databaseListener = new RecognitionVocabularyTreeNister2006.DatabaseListener() {
+			@Override public void imageAdded( int imageID, DogArray_F32 descWeights, DogArray_I32 descWords ) {
+				assertEquals(descWeights.size, descWords.size);
+				events.add("add" + imageID);
+			}
+
+			@Override public void imageRemoved( int imageID ) {events.add("remove" + imageID);}
+
+			@Override public void imagesCleared() {events.add("clear");}
+		};
+
+		alg.addImage(3, createRandomImage());
+		alg.replaceImage(3, createRandomImage());
+		alg.clearImages();
+
+		assertEquals(List.of("add3", "remove3", "add3", "clear"), events);
+	}
+
 	/**
 	 * Creates a set of random features that are close to the means in the generated tree
 	 */
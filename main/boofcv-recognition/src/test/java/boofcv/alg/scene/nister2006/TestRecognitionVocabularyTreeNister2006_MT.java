@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.scene.nister2006;
+
+import boofcv.alg.scene.bow.BowMatch;
+import boofcv.alg.scene.bow.InvertedFile;
+import boofcv.alg.scene.vocabtree.HierarchicalVocabularyTree;
+import boofcv.testing.BoofStandardJUnit;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_I32;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static boofcv.alg.scene.nister2006.TestRecognitionVocabularyTreeNister2006.create2x2Tree;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TestRecognitionVocabularyTreeNister2006_MT extends BoofStandardJUnit {
+	/**
+	 * Compare batch results against the single thread functions
+	 */
+	@Test void compareToSingleThread() {
+		HierarchicalVocabularyTree<Point2D_F64> tree = create2x2Tree();
+
+		var single = new RecognitionVocabularyTreeNister2006<Point2D_F64>();
+		var multi = new RecognitionVocabularyTreeNister2006_MT<>(Point2D_F64::new);
+		single.initializeTree(tree);
+		multi.initializeTree(tree);
+
+		var imageIDs = new DogArray_I32();
+		List<List<Point2D_F64>> images = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			// Include an empty image since those are skipped
+			images.add(i == 7 ? new ArrayList<>() : createRandomImage());
+			imageIDs.add(i*2 + 1);
+			single.addImage(imageIDs.get(i), images.get(i));
+		}
+		multi.addImages(imageIDs, images);
+
+		// Database should be identical
+		assertEquals(single.getImagesDB().size, multi.getImagesDB().size);
+		for (int i = 0; i < single.getImagesDB().size; i++) {
+			assertEquals(single.getImagesDB().get(i), multi.getImagesDB().get(i));
+		}
+		assertEquals(single.invertedFiles.size(), multi.invertedFiles.size());
+		for (int nodeIdx = 0; nodeIdx < single.invertedFiles.size(); nodeIdx++) {
+			InvertedFile e = single.invertedFiles.get(nodeIdx);
+			InvertedFile f = multi.invertedFiles.get(nodeIdx);
+			assertArrayEquals(e.toArray(), f.toArray());
+			assertArrayEquals(e.weights.toArray(), f.weights.toArray());
+		}
+
+		// Look up images and see if the results are the same
+		multi.queryBatch(images, null, 5);
+		assertEquals(images.size(), multi.getBatchMatches().size);
+		for (int i = 0; i < images.size(); i++) {
+			single.query(images.get(i), null, 5);
+			DogArray<BowMatch> expected = single.getMatches();
+			DogArray<BowMatch> found = multi.getBatchMatches().get(i);
+
+			assertEquals(expected.size, found.size);
+			for (int j = 0; j < expected.size; j++) {
+				assertEquals(expected.get(j).identification, found.get(j).identification);
+				assertEquals(expected.get(j).error, found.get(j).error);
+			}
+		}
+	}
+
+	/**
+	 * Compacting in parallel should produce the same inverted files
+	 */
+	@Test void compact() {
+		var single = new RecognitionVocabularyTreeNister2006<Point2D_F64>();
+		var multi = new RecognitionVocabularyTreeNister2006_MT<>(Point2D_F64::new);
+		single.initializeTree(create2x2Tree());
+		multi.initializeTree(create2x2Tree());
+		single.autoCompactFraction = 1.0;
+		multi.autoCompactFraction = 1.0;
+
+		for (int i = 0; i < 40; i++) {
+			List<Point2D_F64> image = createRandomImage();
+			single.addImage(i, image);
+			multi.addImage(i, image);
+		}
+		for (int i = 0; i < 40; i += 3) {
+			single.removeImage(i);
+			multi.removeImage(i);
+		}
+		single.compact();
+		multi.compact();
+
+		assertEquals(single.getImagesDB().size, multi.getImagesDB().size);
+		for (int nodeIdx = 0; nodeIdx < single.invertedFiles.size(); nodeIdx++) {
+			InvertedFile e = single.invertedFiles.get(nodeIdx);
+			InvertedFile f = multi.invertedFiles.get(nodeIdx);
+			assertArrayEquals(e.toArray(), f.toArray());
+			assertArrayEquals(e.weights.toArray(), f.weights.toArray());
+		}
+	}
+
+	List<Point2D_F64> createRandomImage() {
+		var ret = new ArrayList<Point2D_F64>();
+		int N = 5 + rand.nextInt(10);
+		for (int i = 0; i < N; i++) {
+			Point2D_F64 p = new Point2D_F64();
+			p.x = rand.nextDouble()*12 - 6;
+			p.y = rand.nextDouble()*3 - 1.5;
+			ret.add(p);
+		}
+		return ret;
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,9 +18,17 @@
 
 package boofcv.alg.template;
 
+import boofcv.BoofTesting;
+import boofcv.alg.misc.ImageMiscOps;
 import boofcv.struct.image.GrayF32;
 import boofcv.testing.BoofStandardJUnit;
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class TestTemplateCorrelationFFT extends BoofStandardJUnit {
 
@@ -30,4 +38,30 @@ class TestTemplateCorrelationFFT extends BoofStandardJUnit {
 			super(new TemplateCorrelationFFT(), GrayF32.class);
 		}
 	}
+
+	/**
+	 * Processing templates as a batch should produce the same results as processing them one at a time
+	 */
+	@Test void processBatch() {
+		GrayF32 image = new GrayF32(140, 120);
+		ImageMiscOps.fillUniform(image, rand, 0, 200);
+
+		List<GrayF32> templates = new ArrayList<>();
+		templates.add(new GrayF32(15, 20));
+		templates.add(new GrayF32(8, 7));
+		templates.add(new GrayF32(21, 21));
+		for (GrayF32 t : templates) {
+			ImageMiscOps.fillUniform(t, rand, 0, 200);
+		}
+
+		var alg = new TemplateCorrelationFFT();
+		alg.setInputImage(image);
+		alg.processBatch(templates);
+		assertEquals(templates.size(), alg.getBatchIntensity().size);
+
+		for (int i = 0; i < templates.size(); i++) {
+			alg.process(templates.get(i));
+			BoofTesting.assertEquals(alg.getIntensity(), alg.getBatchIntensity().get(i), 1e-3);
+		}
+	}
 }
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.structure;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.structure.FactorySceneReconstruction;
+import boofcv.struct.calib.CameraPinhole;
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.se.SpecialEuclideanOps_F64;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the sparse reconstruction pipeline stage by stage on a deterministic synthetic scene. Each stage
+ * is given the output of the previous stage, which is computed once when the benchmark is set up.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+public class BenchmarkSceneReconstruction {
+	@Param({"true", "false"})
+	public boolean concurrent;
+
+	@Param({"20"})
+	public int numViews;
+
+	@Param({"1000"})
+	public int numPoints;
+
+	CameraPinhole intrinsic = new CameraPinhole(500, 500, 0, 400, 300, 800, 600);
+
+	SimulatedSimilarImages dbSimilar;
+	LookUpCameraInfo dbCams = new LookUpCameraInfo();
+
+	// The pairwise graph it outputs is used as input to the metric stage and is never modified after setup
+	GeneratePairwiseImageGraph setupPairwise;
+	GeneratePairwiseImageGraph generatePairwise;
+	MetricFromUncalibratedPairwiseGraph metric;
+
+	// Output from the pairwise stage that's used as input to the metric stage
+	PairwiseImageGraph pairwise;
+
+	@Setup public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		var rand = new Random(234);
+
+		List<Point3D_F64> cloud = UtilPoint3D_F64.random(new Point3D_F64(0, 0, 3), -1.5, 1.5, numPoints, rand);
+
+		// Camera moves sideways while looking at the cloud
+		List<Se3_F64> trajectory = new ArrayList<>();
+		for (int viewIdx = 0; viewIdx < numViews; viewIdx++) {
+			double x = 1.0 - 2.0*viewIdx/(numViews - 1);
+			trajectory.add(SpecialEuclideanOps_F64.eulerXyz(x, 0, 0, 0, 0.1*x, 0, null));
+		}
+
+		dbSimilar = new SimulatedSimilarImages(cloud, intrinsic, trajectory, 4);
+
+		dbCams.listCalibration.reset();
+		dbCams.listCalibration.grow().setTo(intrinsic);
+		dbCams.knownCameras.reset();
+		dbCams.knownCameras.add(false);
+		for (String id : dbSimilar.getImageIDs()) {
+			dbCams.addView(id, 0);
+		}
+
+		setupPairwise = FactorySceneReconstruction.generatePairwise(null);
+		generatePairwise = FactorySceneReconstruction.generatePairwise(null);
+		metric = new MetricFromUncalibratedPairwiseGraph();
+
+		setupPairwise.process(dbSimilar, dbCams);
+		pairwise = setupPairwise.getGraph();
+	}
+
+	/** Scores the geometric relationship between similar images */
+	@Benchmark public void PairwiseGraph() {
+		generatePairwise.process(dbSimilar, dbCams);
+	}
+
+	/** Self calibration and metric reconstruction from a pairwise graph */
+	@Benchmark public boolean MetricReconstruction() {
+		return metric.process(dbSimilar, dbCams, pairwise);
+	}
+
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkSceneReconstruction.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.warmupTime(TimeValue.seconds(1))
+				.measurementTime(TimeValue.seconds(1))
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.structure;
+
+import boofcv.abst.tracker.PointTrack;
+import boofcv.misc.BoofLambdas;
+import boofcv.simulation.PointTrackerPerfectCloud;
+import boofcv.struct.calib.CameraPinhole;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.image.GrayU8;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_I64;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deterministic {@link LookUpSimilarImages} for benchmarks. Each view is a frame from {@link PointTrackerPerfectCloud}
+ * and two features are associated if they belong to the same track. Views are similar to their neighbors
+ * in the sequence.
+ *
+ * @author Peter Abeles
+ */
+public class SimulatedSimilarImages implements LookUpSimilarImages {
+	/** Views which are within this many frames of each other are considered similar */
+	public int neighbors;
+
+	List<String> viewIds = new ArrayList<>();
+	Map<String, Integer> viewToIndex = new HashMap<>();
+	List<DogArray<Point2D_F64>> viewPixels = new ArrayList<>();
+	// ID of the track each feature belongs to
+	List<DogArray_I64> viewTrackIds = new ArrayList<>();
+	// Look up table from track ID to feature index
+	List<TLongIntMap> viewTrackToFeat = new ArrayList<>();
+
+	// Index of the view which was passed to findSimilar()
+	int queryIdx = -1;
+
+	/**
+	 * Renders the cloud from each camera location
+	 *
+	 * @param cloud Points in world coordinates
+	 * @param intrinsic Camera model shared by all views
+	 * @param trajectory Transform from world to view for each view
+	 * @param neighbors Views which are within this many frames of each other are considered similar
+	 */
+	public SimulatedSimilarImages( List<Point3D_F64> cloud, CameraPinhole intrinsic,
+								   List<Se3_F64> trajectory, int neighbors ) {
+		this.neighbors = neighbors;
+
+		var tracker = new PointTrackerPerfectCloud<GrayU8>();
+		tracker.cloud.addAll(cloud);
+		tracker.setCamera(intrinsic);
+
+		var dummy = new GrayU8(intrinsic.width, intrinsic.height);
+		List<PointTrack> active = new ArrayList<>();
+
+		for (int viewIdx = 0; viewIdx < trajectory.size(); viewIdx++) {
+			tracker.world_to_view.setTo(trajectory.get(viewIdx));
+			tracker.process(dummy);
+			tracker.spawnTracks();
+			tracker.getActiveTracks(active);
+
+			var pixels = new DogArray<>(Point2D_F64::new);
+			var trackIds = new DogArray_I64();
+			var trackToFeat = new TLongIntHashMap();
+			for (int i = 0; i < active.size(); i++) {
+				PointTrack track = active.get(i);
+				trackToFeat.put(track.featureId, pixels.size);
+				pixels.grow().setTo(track.pixel);
+				trackIds.add(track.featureId);
+			}
+
+			viewToIndex.put("view" + viewIdx, viewIds.size());
+			viewIds.add("view" + viewIdx);
+			viewPixels.add(pixels);
+			viewTrackIds.add(trackIds);
+			viewTrackToFeat.add(trackToFeat);
+		}
+	}
+
+	@Override public List<String> getImageIDs() {
+		return viewIds;
+	}
+
+	@Override public void findSimilar( String target, @Nullable BoofLambdas.Filter<String> filter,
+									   List<String> similarImages ) {
+		queryIdx = indexOfView(target);
+		similarImages.clear();
+
+		int idx0 = Math.max(0, queryIdx - neighbors);
+		int idx1 = Math.min(viewIds.size(), queryIdx + neighbors + 1);
+		for (int i = idx0; i < idx1; i++) {
+			if (i == queryIdx)
+				continue;
+			String id = viewIds.get(i);
+			if (filter != null && !filter.keep(id))
+				continue;
+			similarImages.add(id);
+		}
+	}
+
+	@Override public void lookupPixelFeats( String target, DogArray<Point2D_F64> features ) {
+		DogArray<Point2D_F64> pixels = viewPixels.get(indexOfView(target));
+		features.resize(pixels.size);
+		for (int i = 0; i < pixels.size; i++) {
+			features.get(i).setTo(pixels.get(i));
+		}
+	}
+
+	@Override public boolean lookupAssociated( String similarD, DogArray<AssociatedIndex> pairs ) {
+		pairs.reset();
+		DogArray_I64 idsA = viewTrackIds.get(queryIdx);
+		TLongIntMap trackToFeatB = viewTrackToFeat.get(indexOfView(similarD));
+
+		for (int featA = 0; featA < idsA.size; featA++) {
+			long trackID = idsA.get(featA);
+			if (!trackToFeatB.containsKey(trackID))
+				continue;
+			pairs.grow().setTo(featA, trackToFeatB.get(trackID), 0.0);
+		}
+
+		return true;
+	}
+
+	int indexOfView( String id ) {
+		Integer index = viewToIndex.get(id);
+		if (index == null)
+			throw new IllegalArgumentException("Unknown view: " + id);
+		return index;
+	}
+}
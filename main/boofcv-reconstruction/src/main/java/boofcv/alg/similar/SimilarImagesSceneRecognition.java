@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -42,7 +42,10 @@ import org.ddogleg.struct.FastAccess;
 import org.ddogleg.struct.VerbosePrint;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.io.UncheckedIOException;
 import java.util.*;
 
 /**
@@ -59,11 +62,16 @@ import java.util.*;
  * considering every possible image pair and trying to match them. The main down side is that it will not be
  * 100% reliable.
  *
+ * Image features are stored in {@link PackedArray}s which are created by the factories passed into the
+ * constructor. For large datasets, which would not fit on the heap, a disk backed array, e.g.
+ * {@link boofcv.struct.packed.PackedFileArray}, can be used instead. This class owns the arrays and any which are
+ * {@link Closeable} are closed by {@link #close()}, which should be called once you are done with it.
+ *
  * @author Peter Abeles
  */
 @SuppressWarnings({"NullAway.Init"})
 public class SimilarImagesSceneRecognition<Image extends ImageBase<Image>, TD extends TupleDesc<TD>>
-		implements LookUpSimilarImages, VerbosePrint {
+		implements LookUpSimilarImages, VerbosePrint, Closeable {
 	/** Detects image features */
 	@Getter @Setter DetectDescribePoint<Image, TD> detector;
 
@@ -95,7 +103,7 @@ public class SimilarImagesSceneRecognition<Image extends ImageBase<Image>, TD ex
 	// A single large array for all image feature descriptions.
 	final PackedArray<TD> descriptions;
 	// A single large array for all image feature pixel coordinates
-	final PackedArray<Point2D_F64> pixels = new PackedArrayPoint2D_F64();
+	final PackedArray<Point2D_F64> pixels;
 	// Stores the location of image features in the packed array. interleaved (first index, number of features)
 	final DogArray_I32 imageFeatureStartIndexes = new DogArray_I32();
 
@@ -127,10 +135,25 @@ public class SimilarImagesSceneRecognition<Image extends ImageBase<Image>, TD ex
 										  AssociateDescriptionHashSets<TD> asscociator,
 										  FeatureSceneRecognition<TD> recognizer,
 										  BoofLambdas.Factory<PackedArray<TD>> factoryPackedDesc ) {
+		this(detector, asscociator, recognizer, factoryPackedDesc, PackedArrayPoint2D_F64::new);
+	}
+
+	/**
+	 * Constructor which allows for how features are stored to be specified.
+	 *
+	 * @param factoryPackedDesc Creates the array which will store all the descriptions
+	 * @param factoryPackedPixels Creates the array which will store all the pixel coordinates
+	 */
+	public SimilarImagesSceneRecognition( DetectDescribePoint<Image, TD> detector,
+										  AssociateDescriptionHashSets<TD> asscociator,
+										  FeatureSceneRecognition<TD> recognizer,
+										  BoofLambdas.Factory<PackedArray<TD>> factoryPackedDesc,
+										  BoofLambdas.Factory<PackedArray<Point2D_F64>> factoryPackedPixels ) {
 		this.detector = detector;
 		this.asscociator = asscociator;
 		this.recognizer = recognizer;
 		descriptions = factoryPackedDesc.newInstance();
+		pixels = factoryPackedPixels.newInstance();
 
 		tempDescription = detector.createDescription();
 
@@ -377,6 +400,26 @@ public class SimilarImagesSceneRecognition<Image extends ImageBase<Image>, TD ex
 		};
 	}
 
+	/**
+	 * Closes the arrays which store image features, if they are {@link Closeable}. For file backed arrays this
+	 * deletes their files, see {@link boofcv.struct.packed.PackedFileArray#close()}. This class can't be used
+	 * after close has been called.
+	 */
+	@Override public void close() {
+		closeStorage(descriptions);
+		closeStorage(pixels);
+	}
+
+	private static void closeStorage( PackedArray<?> array ) {
+		if (!(array instanceof Closeable))
+			return;
+		try {
+			((Closeable)array).close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
 	@Override public void setVerbose( @Nullable PrintStream out, @Nullable Set<String> options ) {
 		this.verbose = BoofMiscOps.addPrefix(this, out);
 		BoofMiscOps.verboseChildren(verbose, options, recognizer);
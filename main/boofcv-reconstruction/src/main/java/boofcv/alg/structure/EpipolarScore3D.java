@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -63,4 +63,10 @@ public interface EpipolarScore3D extends VerbosePrint {
 	 * @return true if 3D or false if not
 	 */
 	boolean is3D();
+
+	/**
+	 * Resets internal random number generators back to their initial state. If called before each call to
+	 * {@link #process} then the results will only depend on the inputs and not on previously processed views.
+	 */
+	default void reset() {}
 }
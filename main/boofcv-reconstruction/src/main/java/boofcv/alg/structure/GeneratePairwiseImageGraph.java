@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,17 +18,21 @@
 
 package boofcv.alg.structure;
 
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.misc.BoofLambdas;
 import boofcv.misc.BoofMiscOps;
 import boofcv.struct.calib.CameraPinholeBrown;
 import boofcv.struct.feature.AssociatedIndex;
 import boofcv.struct.geo.AssociatedPair;
 import georegression.struct.point.Point2D_F64;
 import lombok.Getter;
+import lombok.Setter;
 import org.ddogleg.struct.DogArray;
 import org.ddogleg.struct.DogArray_I32;
 import org.ddogleg.struct.VerbosePrint;
 import org.ejml.data.DMatrixRMaj;
 import org.jetbrains.annotations.Nullable;
+import pabeles.concurrency.GrowArray;
 
 import java.io.PrintStream;
 import java.util.*;
@@ -38,7 +42,14 @@ import java.util.*;
  * images with a geometric relationship are connected to each other. Determine if that relationship has 3D geometry
  * or is composed of a homography.
  *
- * If there is a geometric relationship or not is determined using the passed in {@link EpipolarScore3D}.
+ * If there is a geometric relationship or not is determined using the passed in {@link EpipolarScore3D}. The
+ * scorer is {@link EpipolarScore3D#reset() reset} before each pair so that the results only depend on the pair
+ * being scored.
+ *
+ * If {@link #setConcurrent concurrent} is true and a factory for the scorer was provided, then pairs of images
+ * are scored in parallel with each thread having its own scorer. Look ups are still done in a single thread since
+ * {@link LookUpSimilarImages} is not thread safe. Pairs are collected into batches, scored, then added to the graph
+ * in the same order as the single thread version, producing an identical graph.
  *
  * @author Peter Abeles
  */
@@ -50,6 +61,15 @@ public class GeneratePairwiseImageGraph implements VerbosePrint {
 	/** Used to score if the two views have a 3D relationship or not */
 	public final @Getter EpipolarScore3D epipolarScore;
 
+	/** If true and a factory is available then pairs will be scored using multiple threads */
+	@Getter @Setter boolean concurrent = false;
+
+	/** Maximum number of image pairs which are scored at once when concurrent */
+	@Getter @Setter int batchSize = 500;
+
+	// Used to create a scorer for each thread. If null then it can't be concurrent
+	final @Nullable BoofLambdas.Factory<EpipolarScore3D> factoryScore;
+
 	private @Nullable PrintStream verbose;
 
 	//--------- Internal Workspace
@@ -63,11 +83,26 @@ public class GeneratePairwiseImageGraph implements VerbosePrint {
 	DogArray<Point2D_F64> srcFeats = new DogArray<>(Point2D_F64::new);
 	DogArray<Point2D_F64> dstFeats = new DogArray<>(Point2D_F64::new);
 
+	// Pairs which are waiting to be scored when concurrent
+	final DogArray<PairToScore> batch = new DogArray<>(PairToScore::new, PairToScore::reset);
+	// Workspace for each thread when concurrent
+	GrowArray<ScoreWorkspace> workspaces;
+
 	/**
 	 * Specifies consensus matching algorithms
 	 */
 	public GeneratePairwiseImageGraph( EpipolarScore3D epipolarScore ) {
 		this.epipolarScore = epipolarScore;
+		this.factoryScore = null;
+	}
+
+	/**
+	 * Specifies a factory for consensus matching algorithms. This allows pairs to be scored concurrently.
+	 */
+	public GeneratePairwiseImageGraph( BoofLambdas.Factory<EpipolarScore3D> factoryScore ) {
+		this.epipolarScore = factoryScore.newInstance();
+		this.factoryScore = factoryScore;
+		this.workspaces = new GrowArray<>(() -> new ScoreWorkspace(factoryScore.newInstance()));
 	}
 
 	/**
@@ -80,11 +115,14 @@ public class GeneratePairwiseImageGraph implements VerbosePrint {
 		this.imageIds = dbSimilar.getImageIDs();
 		this.graph.reset();
 
+		boolean useConcurrent = concurrent && factoryScore != null;
+
 		List<String> similar = new ArrayList<>();
 		matches.reset();
 		pairs.reset();
 		srcFeats.reset();
 		dstFeats.reset();
+		batch.reset();
 
 		// map to quickly look up the ID of a view
 		Map<String, Integer> imageToIndex = new HashMap<>();
@@ -126,6 +164,13 @@ public class GeneratePairwiseImageGraph implements VerbosePrint {
 				dbSimilar.lookupPixelFeats(dst, dstFeats);
 				dbSimilar.lookupAssociated(dst, matches);
 
+				if (useConcurrent) {
+					addToBatch(dbCams, src, dst);
+					if (batch.size >= batchSize)
+						processBatch();
+					continue;
+				}
+
 				pairs.reset();
 				for (int i = 0; i < matches.size; i++) {
 					AssociatedIndex m = matches.get(i);
@@ -135,6 +180,55 @@ public class GeneratePairwiseImageGraph implements VerbosePrint {
 				createEdge(dbCams, src, dst, pairs, matches);
 			}
 		}
+
+		if (useConcurrent)
+			processBatch();
+	}
+
+	/**
+	 * Copies everything needed to score the pair so that it can be scored later on
+	 */
+	void addToBatch( LookUpCameraInfo dbCams, String src, String dst ) {
+		PairToScore p = batch.grow();
+		p.src = src;
+		p.dst = dst;
+		p.featuresSrc = srcFeats.size;
+		p.featuresDst = dstFeats.size;
+		dbCams.lookupCalibration(src, p.priorA);
+		dbCams.lookupCalibration(dst, p.priorB);
+		p.sameCamera = dbCams.viewToCamera(src) == dbCams.viewToCamera(dst);
+
+		p.matches.resize(matches.size);
+		for (int i = 0; i < matches.size; i++) {
+			AssociatedIndex m = matches.get(i);
+			p.matches.get(i).setTo(m);
+			p.pairs.grow().setTo(srcFeats.get(m.src), dstFeats.get(m.dst));
+		}
+	}
+
+	/**
+	 * Scores all the pairs in the batch using multiple threads then adds them to the graph in order
+	 */
+	void processBatch() {
+		BoofConcurrency.loopBlocks(0, batch.size, workspaces, ( work, idx0, idx1 ) -> {
+			for (int i = idx0; i < idx1; i++) {
+				PairToScore p = batch.get(i);
+				work.scorer.reset();
+				work.scorer.process(p.priorA, p.sameCamera ? null : p.priorB,
+						p.featuresSrc, p.featuresDst, p.pairs.toList(), work.fundamental, p.inlierIdx);
+				p.is3D = work.scorer.is3D();
+				p.score = work.scorer.getScore();
+			}
+		});
+
+		for (int i = 0; i < batch.size; i++) {
+			PairToScore p = batch.get(i);
+			if (verbose != null)
+				verbose.printf("_ createEdge['%s'] -> '%s', is3D=%s score=%.2f inliers=%d\n",
+						p.src, p.dst, p.is3D, p.score, p.inlierIdx.size);
+			addEdge(p.src, p.dst, p.is3D, p.score, p.matches, p.inlierIdx);
+		}
+		batch.reset();
 	}
 
 	/**
@@ -163,13 +257,22 @@ public class GeneratePairwiseImageGraph implements VerbosePrint {
 					src, dst, priorA.fx, priorA.cx, priorA.cy, priorB.fx, priorB.cx, priorB.cy);
 
 		// Pass in null if it's the same camera so that score algorithm will know it's dealing with a single camera
+		epipolarScore.reset();
 		epipolarScore.process(priorA, sameCamera ? null : priorB,
 				srcFeats.size, dstFeats.size,
 				pairs.toList(), fundamental, inlierIdx);
 
+		addEdge(src, dst, epipolarScore.is3D(), epipolarScore.getScore(), matches, inlierIdx);
+	}
+
+	/**
+	 * Adds an edge to the graph between the two views
+	 */
+	void addEdge( String src, String dst, boolean is3D, double score3D,
+				  DogArray<AssociatedIndex> matches, DogArray_I32 inlierIdx ) {
 		PairwiseImageGraph.Motion edge = graph.edges.grow();
-		edge.is3D = epipolarScore.is3D();
-		edge.score3D = epipolarScore.getScore();
+		edge.is3D = is3D;
+		edge.score3D = score3D;
 		edge.index = graph.edges.size - 1;
 		edge.src = graph.lookupNode(src);
 		edge.dst = graph.lookupNode(dst);
@@ -188,4 +291,45 @@ public class GeneratePairwiseImageGraph implements VerbosePrint {
 		this.verbose = BoofMiscOps.addPrefix(this, out);
 		BoofMiscOps.verboseChildren(verbose, configuration, epipolarScore);
 	}
+
+	/**
+	 * Everything needed to score a pair of images and the results
+	 */
+	@SuppressWarnings({"NullAway.Init"})
+	static class PairToScore {
+		String src;
+		String dst;
+		int featuresSrc;
+		int featuresDst;
+		boolean sameCamera;
+		final CameraPinholeBrown priorA = new CameraPinholeBrown(2);
+		final CameraPinholeBrown priorB = new CameraPinholeBrown(2);
+		final DogArray<AssociatedPair> pairs = new DogArray<>(AssociatedPair::new);
+		final DogArray<AssociatedIndex> matches = new DogArray<>(AssociatedIndex::new);
+
+		// Results from scoring
+		boolean is3D;
+		double score;
+		final DogArray_I32 inlierIdx = new DogArray_I32();
+
+		void reset() {
+			pairs.reset();
+			matches.reset();
+			inlierIdx.reset();
+			is3D = false;
+			score = 0.0;
+		}
+	}
+
+	/**
+	 * Workspace for a single thread
+	 */
+	static class ScoreWorkspace {
+		final EpipolarScore3D scorer;
+		final DMatrixRMaj fundamental = new DMatrixRMaj(3, 3);
+
+		ScoreWorkspace( EpipolarScore3D scorer ) {
+			this.scorer = scorer;
+		}
+	}
 }
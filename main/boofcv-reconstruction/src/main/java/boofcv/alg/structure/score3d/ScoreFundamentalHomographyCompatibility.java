@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -212,6 +212,10 @@ public class ScoreFundamentalHomographyCompatibility implements EpipolarScore3D
 		return is3D;
 	}
 
+	@Override public void reset() {
+		ransac3D.reset();
+	}
+
 	@Override public void setVerbose( @Nullable PrintStream out, @Nullable Set<String> param ) {
 		this.verbose = BoofMiscOps.addPrefix(this, out);
 	}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -151,6 +151,11 @@ public class ScoreRatioFundamentalHomography implements EpipolarScore3D {
 		return is3D;
 	}
 
+	@Override public void reset() {
+		ransac3D.reset();
+		ransacH.reset();
+	}
+
 	@Override public void setVerbose( @Nullable PrintStream out, @Nullable Set<String> options ) {
 		this.verbose = BoofMiscOps.addPrefix(this, out);
 	}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -29,12 +29,16 @@ public class ConfigGeneratePairwiseImageGraph implements Configuration {
 	/** Configuration for how quality of 3D information between two views is scored */
 	public final ConfigEpipolarScore3D score = new ConfigEpipolarScore3D();
 
+	/** If true then pairs of images will be scored using multiple threads, if concurrency is enabled */
+	public boolean concurrent = true;
+
 	@Override public void checkValidity() {
 		score.checkValidity();
 	}
 
 	public ConfigGeneratePairwiseImageGraph setTo( ConfigGeneratePairwiseImageGraph src ) {
 		this.score.setTo(src.score);
+		this.concurrent = src.concurrent;
 		return this;
 	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,12 +18,14 @@
 
 package boofcv.factory.structure;
 
+import boofcv.abst.disparity.ConfigSpeckleFilter;
 import boofcv.abst.feature.associate.AssociateDescriptionHashSets;
 import boofcv.abst.feature.describe.DescribePoint;
 import boofcv.abst.feature.describe.DescribePointRadiusAngle;
 import boofcv.abst.feature.detdesc.DetectDescribePoint;
 import boofcv.abst.geo.bundle.MetricBundleAdjustmentUtils;
 import boofcv.abst.scene.FeatureSceneRecognition;
+import boofcv.alg.mvs.MultiBaselineStereoIndependent;
 import boofcv.alg.mvs.MultiViewStereoFromKnownSceneStructure;
 import boofcv.alg.similar.*;
 import boofcv.alg.structure.EpipolarScore3D;
@@ -34,6 +36,8 @@ import boofcv.alg.structure.score3d.ScoreFundamentalHomographyCompatibility;
 import boofcv.alg.structure.score3d.ScoreFundamentalVsRotation;
 import boofcv.alg.structure.score3d.ScoreRatioFundamentalHomography;
 import boofcv.alg.video.SelectFramesForReconstruction3D;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.disparity.ConfigDisparity;
 import boofcv.factory.disparity.FactoryStereoDisparity;
 import boofcv.factory.feature.associate.FactoryAssociation;
 import boofcv.factory.feature.describe.FactoryDescribePoint;
@@ -52,11 +56,16 @@ import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
+import boofcv.struct.packed.PackedFileArrayPoint2D_F64;
 import georegression.struct.homography.Homography2D_F64;
 import org.ddogleg.fitting.modelset.ModelMatcher;
 import org.ejml.data.DMatrixRMaj;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 /**
  * Factory for operations related to scene reconstruction
  *
@@ -86,9 +95,11 @@ public class FactorySceneReconstruction {
 		if (config == null)
 			config = new ConfigGeneratePairwiseImageGraph();
 
-		EpipolarScore3D scorer = epipolarScore3D(config.score);
-
-		return new GeneratePairwiseImageGraph(scorer);
+		// Copy the config since the factory is invoked later on when threads are created
+		ConfigEpipolarScore3D configScore = new ConfigEpipolarScore3D().setTo(config.score);
+		var alg = new GeneratePairwiseImageGraph(() -> epipolarScore3D(configScore));
+		alg.setConcurrent(config.concurrent && BoofConcurrency.isUseConcurrent());
+		return alg;
 	}
 
 	/**
@@ -149,12 +160,19 @@ public class FactorySceneReconstruction {
 		mvs.minimumQuality3D = config.mvs.minimumQuality3D;
 		mvs.maximumCenterOverlap = config.mvs.maximumCenterOverlap;
 		mvs.maxCombinePairs = config.mvs.maxCombinePairs;
-		mvs.getComputeFused().disparityErrorThresholdScale = config.mvs.disparityErrorThresholdScale;
+		MultiBaselineStereoIndependent<T> computeFused = mvs.getComputeFused();
+		computeFused.disparityErrorThresholdScale = config.mvs.disparityErrorThresholdScale;
+		computeFused.setConcurrent(config.mvs.concurrent && BoofConcurrency.isUseConcurrent());
+		computeFused.setMaxPairsInMemory(config.mvs.maxPairsInMemory);
+
+		// Copy the configs since the factories are invoked later on when stereo pairs are processed concurrently
+		ConfigDisparity configDisparity = new ConfigDisparity().setTo(config.disparity);
+		ConfigSpeckleFilter configSmoother = new ConfigSpeckleFilter().setTo(config.smoother);
 
-		mvs.setStereoDisparity(FactoryStereoDisparity.generic(
-				config.disparity, grayType, GrayF32.class));
-		mvs.getComputeFused().setDisparitySmoother(
-				FactoryStereoDisparity.removeSpeckle(config.smoother, GrayF32.class));
+		mvs.setStereoDisparity(() -> FactoryStereoDisparity.generic(configDisparity, grayType, GrayF32.class));
+		computeFused.setDisparitySmoother(FactoryStereoDisparity.removeSpeckle(configSmoother, GrayF32.class));
+		computeFused.setFactoryDisparitySmoother(
+				() -> FactoryStereoDisparity.removeSpeckle(configSmoother, GrayF32.class));
 
 		GenerateStereoPairGraphFromScene generateGraph = s2c.getGenerateGraph();
 
@@ -164,7 +182,7 @@ public class FactorySceneReconstruction {
 
 		// Need to configure image border filter so that noisy edge conditions are pruned
 		KernelRadius2D blockSize = config.disparity.getBlockSize();
-		mvs.getComputeFused().disparityBlockRadius = blockSize.getLargestAxis();
+		computeFused.disparityBlockRadius = blockSize.getLargestAxis();
 
 		return s2c;
 	}
@@ -175,6 +193,21 @@ public class FactorySceneReconstruction {
 	public static <Image extends ImageBase<Image>, TD extends TupleDesc<TD>>
 	SimilarImagesSceneRecognition<Image, TD> createSimilarImages( @Nullable ConfigSimilarImagesSceneRecognition config,
 																  ImageType<Image> imageType ) {
+		return createSimilarImages(config, imageType, null);
+	}
+
+	/**
+	 * Creates {@link SimilarImagesSceneRecognition}. If a directory is specified then image features are stored
+	 * inside of memory mapped files in that directory instead of on the heap. This allows for much larger
+	 * datasets to be processed. The returned object owns the files and deletes them when
+	 * {@link SimilarImagesSceneRecognition#close()} is called, or when the JVM exits if they are still mapped.
+	 *
+	 * @param featureDirectory Directory that features are stored in. If null then features are stored on the heap.
+	 */
+	public static <Image extends ImageBase<Image>, TD extends TupleDesc<TD>>
+	SimilarImagesSceneRecognition<Image, TD> createSimilarImages( @Nullable ConfigSimilarImagesSceneRecognition config,
+																  ImageType<Image> imageType,
+																  @Nullable File featureDirectory ) {
 		if (config == null)
 			config = new ConfigSimilarImagesSceneRecognition();
 
@@ -187,8 +220,17 @@ public class FactorySceneReconstruction {
 		AssociateDescriptionHashSets<TD> associator = new AssociateDescriptionHashSets<>(
 				FactoryAssociation.generic(config.associate, detector));
 
-		var similar = new SimilarImagesSceneRecognition<>(detector, associator, recognitizer,
-				() -> FactoryTupleDesc.createPacked(detector));
+		SimilarImagesSceneRecognition<Image, TD> similar;
+		if (featureDirectory == null) {
+			similar = new SimilarImagesSceneRecognition<>(detector, associator, recognitizer,
+					() -> FactoryTupleDesc.createPacked(detector));
+		} else {
+			if (!featureDirectory.exists() && !featureDirectory.mkdirs())
+				throw new UncheckedIOException(new IOException("Failed to create " + featureDirectory.getPath()));
+			similar = new SimilarImagesSceneRecognition<>(detector, associator, recognitizer,
+					() -> FactoryTupleDesc.createPackedFile(detector, createTempFile(featureDirectory, "descriptions")),
+					() -> new PackedFileArrayPoint2D_F64(createTempFile(featureDirectory, "pixels")));
+		}
 
 		similar.setSimilarityTest(new ImageSimilarityAssociatedRatio(config.minimumSimilar));
 		similar.setLimitMatchesConsider(config.limitMatchesConsider);
@@ -251,4 +293,15 @@ public class FactorySceneReconstruction {
 
 		return alg;
 	}
+
+	/**
+	 * Creates a new file in the directory with a unique name
+	 */
+	private static File createTempFile( File directory, String prefix ) {
+		try {
+			return File.createTempFile(prefix, ".bin", directory);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
 }
@@ -37,8 +37,12 @@ import org.ddogleg.struct.FastAccess;
 import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -141,6 +145,25 @@ public class TestSimilarImagesSceneRecognition extends GenericLookUpSimilarImage
 		}
 	}
 
+	/**
+	 * Features stored in files should have their files deleted when closed
+	 */
+	@Test void close_featureFiles() throws IOException {
+		File directory = Files.createTempDirectory("similar").toFile();
+		try {
+			SimilarImagesSceneRecognition<GrayU8, TupleDesc_F32> alg =
+					FactorySceneReconstruction.createSimilarImages(null, ImageType.SB_U8, directory);
+			alg.pixels.append(new Point2D_F64(1, 2));
+			alg.descriptions.append(alg.detector.createDescription());
+			assertEquals(2, Objects.requireNonNull(directory.listFiles()).length);
+
+			alg.close();
+			assertEquals(0, Objects.requireNonNull(directory.listFiles()).length);
+		} finally {
+			assertTrue(directory.delete());
+		}
+	}
+
 	/**
 	 * Simulates image feature detections to run much faster
 	 */
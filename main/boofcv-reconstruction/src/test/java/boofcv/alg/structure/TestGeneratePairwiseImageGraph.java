@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,6 +18,7 @@
 
 package boofcv.alg.structure;
 
+import boofcv.concurrency.ConcurrencyContext;
 import boofcv.factory.structure.FactorySceneReconstruction;
 import boofcv.testing.BoofStandardJUnit;
 import org.junit.jupiter.api.Test;
@@ -78,4 +79,46 @@ class TestGeneratePairwiseImageGraph extends BoofStandardJUnit {
 			}
 		}
 	}
+
+	/**
+	 * The concurrent implementation should produce an identical graph
+	 */
+	@Test void concurrent() {
+		var dbSimilar = new MockLookupSimilarImages(6, 123123);
+		var dbCams = new MockLookUpCameraInfo(400, 300);
+
+		GeneratePairwiseImageGraph algExpected = FactorySceneReconstruction.generatePairwise(null);
+		GeneratePairwiseImageGraph algFound = FactorySceneReconstruction.generatePairwise(null);
+		algExpected.setConcurrent(false);
+		algFound.setConcurrent(true);
+		// Small batches so that multiple batches are processed
+		algFound.setBatchSize(4);
+
+		algExpected.process(dbSimilar, dbCams);
+		try (var context = ConcurrencyContext.forkJoin(3)) {
+			context.run(() -> algFound.process(dbSimilar, dbCams));
+		}
+
+		PairwiseImageGraph expected = algExpected.getGraph();
+		PairwiseImageGraph found = algFound.getGraph();
+		assertEquals(15, expected.edges.size);
+		assertEquals(expected.edges.size, found.edges.size);
+		for (int i = 0; i < expected.nodes.size; i++) {
+			assertEquals(expected.nodes.get(i).totalObservations, found.nodes.get(i).totalObservations);
+			assertEquals(expected.nodes.get(i).connections.size, found.nodes.get(i).connections.size);
+		}
+		for (int i = 0; i < expected.edges.size; i++) {
+			PairwiseImageGraph.Motion e = expected.edges.get(i);
+			PairwiseImageGraph.Motion f = found.edges.get(i);
+			assertEquals(e.src.id, f.src.id);
+			assertEquals(e.dst.id, f.dst.id);
+			assertEquals(e.is3D, f.is3D);
+			assertEquals(e.score3D, f.score3D);
+			assertEquals(e.inliers.size, f.inliers.size);
+			for (int j = 0; j < e.inliers.size; j++) {
+				assertEquals(e.inliers.get(j).src, f.inliers.get(j).src);
+				assertEquals(e.inliers.get(j).dst, f.inliers.get(j).dst);
+			}
+		}
+	}
 }
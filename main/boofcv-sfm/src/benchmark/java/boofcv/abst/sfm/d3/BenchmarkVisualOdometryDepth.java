@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.sfm.d3;
+
+import boofcv.alg.geo.PerspectiveOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.sfm.DepthSparse3D;
+import boofcv.alg.sfm.d3.VisOdomMonoDepthPnP;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.sfm.ConfigVisOdomTrackPnP;
+import boofcv.factory.sfm.FactoryVisualOdometry;
+import boofcv.simulation.PointTrackerPerfectCloud;
+import boofcv.struct.calib.CameraPinholeBrown;
+import boofcv.struct.distort.DoNothing2Transform2_F32;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks depth visual odometry on a deterministic synthetic scene. Features are provided by
+ * {@link PointTrackerPerfectCloud} so that only the cost of the visual odometry itself is measured. The camera
+ * slides sideways over a textured plane, which forces tracks to be dropped and spawned as it moves.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+public class BenchmarkVisualOdometryDepth {
+	@Param({"true", "false"})
+	public boolean concurrent;
+
+	@Param({"2000"})
+	public int numPoints;
+
+	static final int WIDTH = 640, HEIGHT = 480;
+	static final int NUM_FRAMES = 40;
+	static final double PLANE_Z = 3.0;
+
+	CameraPinholeBrown intrinsic = PerspectiveOps.createIntrinsic(WIDTH, HEIGHT, 90, null);
+
+	PointTrackerPerfectCloud<GrayU8> tracker = new PointTrackerPerfectCloud<>();
+	VisOdomPixelDepthPnP_to_DepthVisualOdometry<GrayU8, GrayF32> vo;
+
+	// Transform from world to camera for each frame
+	List<Se3_F64> trajectory = new ArrayList<>();
+
+	GrayU8 visual = new GrayU8(WIDTH, HEIGHT);
+	GrayF32 depth = new GrayF32(WIDTH, HEIGHT);
+
+	@Setup public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		var rand = new Random(234);
+
+		// Points on a plane which is much wider than the field of view
+		tracker.cloud.clear();
+		for (int i = 0; i < numPoints; i++) {
+			tracker.cloud.add(new Point3D_F64(rand.nextDouble()*16.0 - 8.0, rand.nextDouble()*6.0 - 3.0, PLANE_Z));
+		}
+		tracker.setCamera(intrinsic);
+
+		// The camera only translates parallel to the plane, so depth is the same at every pixel
+		ImageMiscOps.fill(depth, (float)PLANE_Z);
+		trajectory.clear();
+		for (int frame = 0; frame < NUM_FRAMES; frame++) {
+			var world_to_view = new Se3_F64();
+			world_to_view.T.x = 4.0 - 8.0*frame/(NUM_FRAMES - 1);
+			trajectory.add(world_to_view);
+		}
+
+		var config = new ConfigVisOdomTrackPnP();
+		vo = (VisOdomPixelDepthPnP_to_DepthVisualOdometry<GrayU8, GrayF32>)FactoryVisualOdometry.
+				rgbDepthPnP(config, new DepthSparse3D.F32(1.0), tracker, GrayU8.class, GrayF32.class);
+		vo.setCalibration(intrinsic, new DoNothing2Transform2_F32());
+	}
+
+	@Benchmark public void MonoDepthPnP( StageTimes stages ) {
+		VisOdomMonoDepthPnP<GrayU8> alg = vo.alg;
+		vo.reset();
+		stages.reset();
+		for (int frame = 0; frame < trajectory.size(); frame++) {
+			tracker.world_to_view.setTo(trajectory.get(frame));
+			vo.process(visual, depth);
+			stages.add(alg);
+		}
+		stages.average(trajectory.size());
+	}
+
+	/**
+	 * Exposes the time spent in each stage of visual odometry. Each field is the average time per frame in
+	 * milliseconds for the most recent invocation.
+	 */
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	@State(Scope.Thread)
+	public static class StageTimes {
+		public double trackingMS, estimateMS, bundleMS, dropUnusedMS, maintenanceMS, spawnMS;
+
+		void reset() {
+			trackingMS = estimateMS = bundleMS = dropUnusedMS = maintenanceMS = spawnMS = 0.0;
+		}
+
+		void add( VisOdomMonoDepthPnP<?> alg ) {
+			trackingMS += alg.getTimeTracking();
+			estimateMS += alg.getTimeEstimate();
+			bundleMS += alg.getTimeBundle();
+			dropUnusedMS += alg.getTimeDropUnused();
+			maintenanceMS += alg.getTimeSceneMaintenance();
+			spawnMS += alg.getTimeSpawn();
+		}
+
+		void average( int numFrames ) {
+			trackingMS /= numFrames;
+			estimateMS /= numFrames;
+			bundleMS /= numFrames;
+			dropUnusedMS /= numFrames;
+			maintenanceMS /= numFrames;
+			spawnMS /= numFrames;
+		}
+	}
+
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkVisualOdometryDepth.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.warmupTime(TimeValue.seconds(1))
+				.measurementTime(TimeValue.seconds(1))
+				.build();
+
+		new Runner(opt).run();
+	}
+}
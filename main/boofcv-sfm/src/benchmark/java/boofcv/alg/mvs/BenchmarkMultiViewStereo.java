@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.mvs;
+
+import boofcv.abst.geo.bundle.BundleAdjustmentCamera;
+import boofcv.abst.geo.bundle.SceneStructureMetric;
+import boofcv.alg.distort.brown.LensDistortionBrown;
+import boofcv.alg.geo.bundle.BundleAdjustmentOps;
+import boofcv.alg.geo.rectify.DisparityParameters;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.GConvertImage;
+import boofcv.factory.disparity.ConfigDisparityBM;
+import boofcv.factory.disparity.DisparityError;
+import boofcv.factory.disparity.FactoryStereoDisparity;
+import boofcv.misc.LookUpImages;
+import boofcv.simulation.SimulatePlanarWorld;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.calib.CameraPinhole;
+import boofcv.struct.calib.CameraPinholeBrown;
+import boofcv.struct.distort.Point2Transform2_F64;
+import boofcv.struct.distort.PointToPixelTransform_F64;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageDimension;
+import boofcv.struct.image.ImageType;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.se.SpecialEuclideanOps_F64;
+import org.ddogleg.struct.DogArray_I32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static georegression.struct.se.SpecialEuclideanOps_F64.eulerXyz;
+
+/**
+ * Benchmarks {@link MultiViewStereoFromKnownSceneStructure} and its stages on a deterministic synthetic scene.
+ * Views are rendered once by {@link SimulatePlanarWorld} and cached so that rendering isn't included in the results.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+public class BenchmarkMultiViewStereo {
+	@Param({"true", "false"})
+	public boolean concurrent;
+
+	@Param({"6"})
+	public int numViews;
+
+	static final int WIDTH = 640, HEIGHT = 480;
+	static final double PLANE_Z = 3.0;
+	static final double PLANE_WIDTH = 6.0;
+
+	SceneStructureMetric scene;
+	StereoPairGraph pairs;
+	CachedLookUp lookUp;
+
+	MultiViewStereoFromKnownSceneStructure<GrayF32> mvs;
+
+	// Inputs for the cloud fusion stage. Recorded after running MVS once
+	List<FusedView> fusedViews = new ArrayList<>();
+	CreateCloudFromDisparityImages disparityCloud = new CreateCloudFromDisparityImages();
+
+	// Views which are paired with the center view
+	DogArray_I32 pairIndexes = new DogArray_I32();
+
+	@Setup public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		var rand = new Random(234);
+
+		// Create a scene with views in a line that are looking at a textured plane
+		scene = new SceneStructureMetric(true);
+		scene.initialize(numViews, numViews, 0);
+		pairs = new StereoPairGraph();
+
+		double cx = WIDTH/2.0;
+		double cy = HEIGHT/2.0;
+		var pinhole = new CameraPinhole(cx, cx, 0, cx, cy, WIDTH, HEIGHT);
+		for (int i = 0; i < numViews; i++) {
+			scene.setCamera(i, true, pinhole);
+			scene.setView(i, i, true, SpecialEuclideanOps_F64.eulerXyz((i - numViews/2)*0.2, 0, 0, 0, 0, 0, null));
+			pairs.addVertex("id=" + i, i);
+		}
+
+		// Only views which are close to each other are connected
+		for (int i = 0; i < numViews; i++) {
+			for (int j = i + 1; j < Math.min(numViews, i + 3); j++) {
+				pairs.connect("id=" + i, "id=" + j, 1.0);
+			}
+		}
+
+		var texture = new GrayF32(100, 100);
+		ImageMiscOps.fillUniform(texture, rand, 50, 255);
+		var sim = new SimulatePlanarWorld();
+		sim.addSurface(eulerXyz(0, 0, PLANE_Z, 0, Math.PI, 0, null), PLANE_WIDTH, texture);
+		sim.setCamera(pinhole);
+		lookUp = new CachedLookUp();
+		for (int i = 0; i < numViews; i++) {
+			sim.setWorldToCamera(scene.motions.get(i).parent_to_view);
+			lookUp.images.add(sim.render().clone());
+		}
+
+		var configDisp = new ConfigDisparityBM();
+		configDisp.errorType = DisparityError.CENSUS;
+		configDisp.validateRtoL = 0;
+		configDisp.disparityMin = 0;
+		configDisp.disparityRange = 100;
+		configDisp.regionRadiusX = 3;
+		configDisp.regionRadiusY = 3;
+		configDisp.border = BorderType.EXTENDED;
+
+		mvs = new MultiViewStereoFromKnownSceneStructure<>(lookUp, ImageType.SB_F32);
+		mvs.setStereoDisparity(FactoryStereoDisparity.blockMatch(configDisp, GrayF32.class, GrayF32.class));
+
+		// Record the fused inverse depth images so that the cloud stage can be benchmarked by itself
+		fusedViews.clear();
+		mvs.setListener(new MultiViewStereoFromKnownSceneStructure.Listener<>() {
+			@Override public void handlePairDisparity( String left, String right, GrayF32 rectLeft, GrayF32 rectRight,
+													   GrayF32 disparity, DisparityParameters parameters ) {}
+
+			@Override public void handleFused( String centerViewName, GrayF32 inverseDepth ) {
+				fusedViews.add(new FusedView(Integer.parseInt(centerViewName.substring(3)), inverseDepth));
+			}
+		});
+		mvs.process(scene, null, pairs);
+		mvs.setListener(null);
+	}
+
+	/** Everything, from selecting center views to the fused point cloud */
+	@Benchmark public void MultiViewStereo( StageTimes stages ) {
+		stages.reset();
+		mvs.setListener(new MultiViewStereoFromKnownSceneStructure.Listener<>() {
+			@Override public void handlePairDisparity( String left, String right, GrayF32 rectLeft, GrayF32 rectRight,
+													   GrayF32 disparity, DisparityParameters parameters ) {}
+
+			@Override public void handleFused( String centerViewName, GrayF32 inverseDepth ) {
+				stages.add(mvs.computeFused);
+			}
+		});
+		mvs.process(scene, null, pairs);
+		mvs.setListener(null);
+	}
+
+	/** Rectification, disparity, and fusion of disparity images for a single center view */
+	@Benchmark public boolean FusedDisparity() {
+		int center = numViews/2;
+		pairIndexes.reset();
+		pairIndexes.add(center - 1);
+		pairIndexes.add(center + 1);
+		return mvs.computeFused.process(scene, null, center, pairIndexes, ( idx ) -> "id=" + idx);
+	}
+
+	/** Adds fused inverse depth images to the point cloud while pruning duplicates */
+	@Benchmark public int CloudFusion() {
+		disparityCloud.reset();
+		for (int i = 0; i < fusedViews.size(); i++) {
+			FusedView v = fusedViews.get(i);
+			disparityCloud.addInverseDepth(v.inverseDepth, v.world_to_view, v.norm_to_pixel, v.pixel_to_norm);
+		}
+		return disparityCloud.cloud.size;
+	}
+
+	/** Inputs needed to add a fused inverse depth image to the cloud */
+	class FusedView {
+		GrayF32 inverseDepth;
+		Se3_F64 world_to_view = new Se3_F64();
+		Point2Transform2_F64 norm_to_pixel;
+		PointToPixelTransform_F64 pixel_to_norm;
+
+		public FusedView( int indexSba, GrayF32 inverseDepth ) {
+			this.inverseDepth = inverseDepth.clone();
+
+			SceneStructureMetric.View view = scene.views.get(indexSba);
+			BundleAdjustmentCamera camera = scene.cameras.get(view.camera).model;
+			CameraPinholeBrown brown = BundleAdjustmentOps.convert(
+					camera, null, inverseDepth.width, inverseDepth.height, null);
+			norm_to_pixel = new LensDistortionBrown(brown).distort_F64(false, true);
+			pixel_to_norm = new PointToPixelTransform_F64(new LensDistortionBrown(brown).undistort_F64(true, false));
+			scene.getWorldToView(view, world_to_view, new Se3_F64());
+		}
+	}
+
+	/**
+	 * Exposes the time spent in each stage of multi-view stereo. Each field is the sum in milliseconds across all
+	 * center views for the most recent invocation.
+	 */
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	@State(Scope.Thread)
+	public static class StageTimes {
+		public double lookUpMS, disparityMS, smoothMS, fusedTotalMS;
+
+		void reset() {
+			lookUpMS = disparityMS = smoothMS = fusedTotalMS = 0.0;
+		}
+
+		void add( MultiBaselineStereoIndependent<?> alg ) {
+			lookUpMS += alg.getTimeLookUpImages();
+			disparityMS += alg.getTimeDisparity();
+			smoothMS += alg.getTimeDisparitySmooth();
+			fusedTotalMS += alg.getTimeTotal();
+		}
+	}
+
+	/** Returns images that were rendered when the benchmark was set up */
+	static class CachedLookUp implements LookUpImages {
+		List<GrayF32> images = new ArrayList<>();
+
+		@Override public boolean loadShape( String name, ImageDimension shape ) {
+			shape.setTo(WIDTH, HEIGHT);
+			return true;
+		}
+
+		@Override public <LT extends ImageBase<LT>> boolean loadImage( String name, LT output ) {
+			GConvertImage.convert(images.get(Integer.parseInt(name.substring(3))), output);
+			return true;
+		}
+	}
+
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkMultiViewStereo.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.warmupTime(TimeValue.seconds(1))
+				.measurementTime(TimeValue.seconds(1))
+				.build();
+
+		new Runner(opt).run();
+	}
+}
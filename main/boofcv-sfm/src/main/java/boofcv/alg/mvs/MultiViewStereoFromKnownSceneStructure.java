@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -26,6 +26,7 @@ import boofcv.abst.geo.bundle.SceneStructureMetric;
 import boofcv.alg.distort.brown.LensDistortionBrown;
 import boofcv.alg.geo.bundle.BundleAdjustmentOps;
 import boofcv.alg.geo.rectify.DisparityParameters;
+import boofcv.misc.BoofLambdas;
 import boofcv.misc.BoofMiscOps;
 import boofcv.misc.LookUpImages;
 import boofcv.struct.calib.CameraPinholeBrown;
@@ -68,7 +69,10 @@ import static java.util.Objects.requireNonNull;
  * contribution to the point cloud is needed then you need to call {@link #getDisparityCloud()} and access
  * the view specific results.
  *
- * NOTE: Before this can be used you must call {@link #setStereoDisparity}.
+ * NOTE: Before this can be used you must call {@link #setStereoDisparity}. If a factory is passed in, then
+ * {@link MultiBaselineStereoIndependent} can compute disparity for multiple stereo pairs at the same time when it
+ * has been configured to be concurrent. Center views are still processed one at a time, since each one
+ * modifies the combined point cloud.
  *
  * @see ScoreRectifiedViewCoveragePixels
  * @see MultiBaselineStereoIndependent
@@ -499,6 +503,15 @@ public class MultiViewStereoFromKnownSceneStructure<T extends ImageGray<T>> impl
 		computeFused.setStereoDisparity(stereoDisparity);
 	}
 
+	/**
+	 * Specifies a factory for the stereo disparity algorithm. This allows each stereo pair to have its own
+	 * instance when stereo pairs are processed concurrently.
+	 */
+	public void setStereoDisparity( BoofLambdas.Factory<StereoDisparity<T, GrayF32>> factory ) {
+		computeFused.setStereoDisparity(factory.newInstance());
+		computeFused.setFactoryStereoDisparity(factory);
+	}
+
 	public void setImageLookUp( LookUpImages imageLookUp ) {
 		this.computeFused.setLookUpImages(imageLookUp);
 		this.imageLookUp = imageLookUp;
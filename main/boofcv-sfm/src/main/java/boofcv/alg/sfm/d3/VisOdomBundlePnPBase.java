@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -30,6 +30,9 @@ import boofcv.alg.sfm.d3.structure.VisOdomBundleAdjustment.BObservation;
 import boofcv.alg.sfm.d3.structure.VisOdomBundleAdjustment.BTrack;
 import boofcv.alg.sfm.d3.structure.VisOdomKeyFrameManager;
 import boofcv.misc.BoofMiscOps;
+import boofcv.misc.MetricsPublisher;
+import boofcv.misc.MetricsRecorder;
+import boofcv.misc.MetricsRegistry;
 import boofcv.struct.distort.Point2Transform2_F64;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point3D_F64;
@@ -54,7 +57,7 @@ import java.util.Set;
  * @author Peter Abeles
  */
 @SuppressWarnings({"NullAway.Init"})
-public abstract class VisOdomBundlePnPBase<Track extends VisOdomBundleAdjustment.BTrack> implements VerbosePrint {
+public abstract class VisOdomBundlePnPBase<Track extends VisOdomBundleAdjustment.BTrack> implements VerbosePrint, MetricsPublisher {
 
 	/** discard tracks after they have not been in the inlier set for this many updates in a row */
 	protected @Getter @Setter int thresholdRetireTracks;
@@ -103,6 +106,10 @@ public abstract class VisOdomBundlePnPBase<Track extends VisOdomBundleAdjustment
 
 	// Internal profiling
 	protected @Getter @Setter @Nullable PrintStream profileOut;
+
+	// Publishes the time each stage takes
+	protected final MetricsRecorder metrics = new MetricsRecorder(getClass().getSimpleName());
+
 	// Verbose debug information
 	protected @Getter @Nullable PrintStream verbose;
 
@@ -338,6 +345,10 @@ public abstract class VisOdomBundlePnPBase<Track extends VisOdomBundleAdjustment
 		}
 	}
 
+	@Override public void setMetrics( @Nullable MetricsRegistry registry ) {
+		metrics.setRegistry(registry);
+	}
+
 	public Se3_F64 getCurrentToWorld() {
 		return current_to_world;
 	}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -235,6 +235,7 @@ public class VisOdomDualTrackPnP<T extends ImageBase<T>, TD extends TupleDesc<TD
 
 		//=============================================================================================
 		//========== Visually track features
+		metrics.begin();
 		double time0 = System.nanoTime();
 		inlierTracks.clear();
 		visibleTracks.clear();
@@ -250,6 +251,7 @@ public class VisOdomDualTrackPnP<T extends ImageBase<T>, TD extends TupleDesc<TD
 		trackerLeft.process(left);
 		trackerRight.process(right);
 		double time1 = System.nanoTime();
+		metrics.stage("tracking");
 
 		//=============================================================================================
 		//========== Initialize VO from the first image and return
@@ -260,6 +262,8 @@ public class VisOdomDualTrackPnP<T extends ImageBase<T>, TD extends TupleDesc<TD
 			// The left camera is the world frame right now
 			currentLeft.frame_to_world.reset();
 			currentRight.frame_to_world.setTo(right_to_left);
+			metrics.stage("spawn");
+			metrics.end();
 			return true;
 		}
 
@@ -277,6 +281,7 @@ public class VisOdomDualTrackPnP<T extends ImageBase<T>, TD extends TupleDesc<TD
 			removedBundleTracks.clear();
 			bundleViso.removeFrame(currentRight, removedBundleTracks);
 			bundleViso.removeFrame(currentLeft, removedBundleTracks);
+			metrics.end();
 			return false;
 		}
 
@@ -286,21 +291,29 @@ public class VisOdomDualTrackPnP<T extends ImageBase<T>, TD extends TupleDesc<TD
 		//=============================================================================================
 		//========== Refine the scene's state estimate
 		double time2 = System.nanoTime();
+		metrics.stage("estimate");
 		optimizeTheScene();
 		double time3 = System.nanoTime();
+		metrics.stage("bundle");
 		//=============================================================================================
 		//========== Perform maintenance by dropping elements from the scene
 		dropBadBundleTracks();
 
 		long time4 = System.nanoTime();
+		metrics.stage("drop_unused");
 		boolean droppedCurrentFrame = performKeyFrameMaintenance(trackerLeft, 2);
 		long time5 = System.nanoTime();
+		metrics.stage("maintenance");
 		if (!droppedCurrentFrame) {
 			if (verbose != null) verbose.println("Saving new key frames");
 			// We are keeping the current frame! Spawn new tracks inside of it
 			addNewTracks();
 		}
 		long time6 = System.nanoTime();
+		metrics.stage("spawn");
+		metrics.count("inliers", inlierTracks.size());
+		metrics.count("visible", visibleTracks.size());
+		metrics.end();
 
 		//=============================================================================================
 		//========== Summarize profiling results
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2022, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -40,9 +40,16 @@ public class ConfigMultiviewStereo implements Configuration {
 	/** {@link MultiBaselineStereoIndependent#disparityErrorThresholdScale}*/
 	public double disparityErrorThresholdScale = 2.0;
 
+	/** If true then stereo pairs will be processed using multiple threads, if concurrency is enabled */
+	public boolean concurrent = true;
+
+	/** {@link MultiBaselineStereoIndependent#maxPairsInMemory}*/
+	public int maxPairsInMemory = 4;
+
 	@Override public void checkValidity() {
 		BoofMiscOps.checkTrue(minimumQuality3D >= 0.0);
 		BoofMiscOps.checkTrue(maximumCenterOverlap >= 0.0 && maximumCenterOverlap <= 1.0);
+		BoofMiscOps.checkTrue(maxPairsInMemory >= 1);
 	}
 
 	public ConfigMultiviewStereo setTo( ConfigMultiviewStereo src ) {
@@ -50,6 +57,8 @@ public class ConfigMultiviewStereo implements Configuration {
 		this.maximumCenterOverlap = src.maximumCenterOverlap;
 		this.maxCombinePairs = src.maxCombinePairs;
 		this.disparityErrorThresholdScale = src.disparityErrorThresholdScale;
+		this.concurrent = src.concurrent;
+		this.maxPairsInMemory = src.maxPairsInMemory;
 		return this;
 	}
 }
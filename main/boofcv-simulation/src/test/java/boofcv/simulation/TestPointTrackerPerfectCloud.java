@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -97,4 +97,41 @@ class TestPointTrackerPerfectCloud extends BoofStandardJUnit {
 			});
 		}
 	}
+
+	/** Drop tracks using a filter and see if they are respawned when observed again */
+	@Test void dropTracks() {
+		var tracker = new PointTrackerPerfectCloud<>();
+		tracker.setCamera(new CameraPinhole(200, 200, 0, 200, 200, 400, 400));
+		tracker.cloud.add(new Point3D_F64(0, 0, 2));
+		tracker.cloud.add(new Point3D_F64(0.5, 0, 3));
+		tracker.cloud.add(new Point3D_F64(0, 0.5, 2));
+
+		tracker.process(null);
+		tracker.spawnTracks();
+		assertEquals(3, tracker.getTotalActive());
+
+		// Drop the track with the largest ID
+		tracker.dropTracks(t -> t.featureId == 2);
+		assertEquals(2, tracker.getTotalActive());
+		tracker.getActiveTracks(null).forEach(t -> assertTrue(t.featureId != 2));
+
+		// The point is still visible so it should be possible to spawn a new track for it
+		tracker.process(null);
+		assertEquals(2, tracker.getTotalActive());
+		assertTrue(tracker.getDroppedTracks(null).isEmpty());
+		tracker.spawnTracks();
+		assertEquals(3, tracker.getTotalActive());
+		assertEquals(1, tracker.getNewTracks(null).size());
+		assertEquals(3, tracker.getNewTracks(null).get(0).featureId);
+
+		// Tracks dropped because they are no longer visible should also be respawned once visible again
+		ConvertRotation3D_F64.eulerToMatrix(EulerType.XYZ, 0, Math.PI, 0, tracker.world_to_view.R);
+		tracker.process(null);
+		assertEquals(0, tracker.getTotalActive());
+		assertEquals(3, tracker.getDroppedTracks(null).size());
+		tracker.world_to_view.reset();
+		tracker.process(null);
+		tracker.spawnTracks();
+		assertEquals(3, tracker.getTotalActive());
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,10 +18,17 @@
 
 package boofcv.concurrency;
 
+import org.jetbrains.annotations.Nullable;
 import pabeles.concurrency.ConcurrencyOps;
+import pabeles.concurrency.GrowArray;
+import pabeles.concurrency.IntRangeConsumer;
+import pabeles.concurrency.IntRangeObjectConsumer;
+
+import java.util.function.IntConsumer;
 
 /**
- * Central class for controlling concurrency in BoofCV.
+ * Central class for controlling concurrency in BoofCV. By default, all concurrent algorithms share a single global
+ * thread pool. A {@link ConcurrencyContext} can be used to give a pipeline its own executor and thread budget.
  *
  * @author Peter Abeles
  */
@@ -32,6 +39,9 @@ public class BoofConcurrency extends ConcurrencyOps {
 	/** f set to true it will use a concurrent algorithm */
 	public static boolean USE_CONCURRENT = true;
 
+	// Context which is active on the current thread. null means the global settings are used
+	static final ThreadLocal<ConcurrencyContext> context = new ThreadLocal<>();
+
 	/**
 	 * Sets the maximum number of threads available in the thread pool and adjusts USE_CONCURRENT. If
 	 * the number of threads is less than 2 then USE_CONCURRENT will be set to false and the single thread
@@ -45,16 +55,98 @@ public class BoofConcurrency extends ConcurrencyOps {
 		USE_CONCURRENT = maxThreads > 1;
 	}
 
+	/**
+	 * Returns true if concurrent algorithms should be used. If a context is active then it's true if the context
+	 * can use more than one thread.
+	 */
 	public static boolean isUseConcurrent() {
+		ConcurrencyContext ctx = context.get();
+		if (ctx != null)
+			return ctx.maxThreads > 1;
 		return USE_CONCURRENT;
 	}
 
+	/**
+	 * Returns the threshold for when an image is too small to be processed concurrently. If a context is active
+	 * then its threshold is returned, otherwise {@link #SMALL_IMAGE}.
+	 */
+	public static int getSmallImage() {
+		ConcurrencyContext ctx = context.get();
+		if (ctx != null)
+			return ctx.smallImage;
+		return SMALL_IMAGE;
+	}
+
+	/**
+	 * Returns the context which is active on the calling thread or null if the global settings are being used.
+	 */
+	public static @Nullable ConcurrencyContext getContext() {
+		return context.get();
+	}
+
 	/**
 	 * Either returns the number of threads in the thread pool or one if threading is disabled
 	 */
 	public static int getEffectiveActiveThreads() {
+		ConcurrencyContext ctx = context.get();
+		if (ctx != null)
+			return ctx.maxThreads;
 		if (USE_CONCURRENT)
 			return getThreadPool().getActiveThreadCount();
 		return 1;
 	}
+
+	//----------------------------------------------------------------------------------------------------------
+	// The functions below hide the ones in ConcurrencyOps so that they will use the active context, if there is one
+	//----------------------------------------------------------------------------------------------------------
+
+	public static void loopFor( int start, int endExclusive, IntConsumer consumer ) {
+		ConcurrencyContext ctx = context.get();
+		if (ctx == null)
+			ConcurrencyOps.loopFor(start, endExclusive, consumer);
+		else
+			ctx.loopFor(start, endExclusive, consumer);
+	}
+
+	public static void loopFor( int start, int endExclusive, int step, IntConsumer consumer ) {
+		ConcurrencyContext ctx = context.get();
+		if (ctx == null)
+			ConcurrencyOps.loopFor(start, endExclusive, step, consumer);
+		else
+			ctx.loopFor(start, endExclusive, step, consumer);
+	}
+
+	public static void loopBlocks( int start, int endExclusive, int minBlock, IntRangeConsumer consumer ) {
+		ConcurrencyContext ctx = context.get();
+		if (ctx == null)
+			ConcurrencyOps.loopBlocks(start, endExclusive, minBlock, consumer);
+		else
+			ctx.loopBlocks(start, endExclusive, minBlock, consumer);
+	}
+
+	public static void loopBlocks( int start, int endExclusive, IntRangeConsumer consumer ) {
+		ConcurrencyContext ctx = context.get();
+		if (ctx == null)
+			ConcurrencyOps.loopBlocks(start, endExclusive, consumer);
+		else
+			ctx.loopBlocks(start, endExclusive, 1, consumer);
+	}
+
+	public static <T> void loopBlocks( int start, int endExclusive, int minBlock,
+									   GrowArray<T> workspace, IntRangeObjectConsumer<T> consumer ) {
+		ConcurrencyContext ctx = context.get();
+		if (ctx == null)
+			ConcurrencyOps.loopBlocks(start, endExclusive, minBlock, workspace, consumer);
+		else
+			ctx.loopBlocks(start, endExclusive, minBlock, workspace, consumer);
+	}
+
+	public static <T> void loopBlocks( int start, int endExclusive,
+									   GrowArray<T> workspace, IntRangeObjectConsumer<T> consumer ) {
+		ConcurrencyContext ctx = context.get();
+		if (ctx == null)
+			ConcurrencyOps.loopBlocks(start, endExclusive, workspace, consumer);
+		else
+			ctx.loopBlocks(start, endExclusive, 1, workspace, consumer);
+	}
 }
@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.concurrency;
+
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+import pabeles.concurrency.GrowArray;
+import pabeles.concurrency.IntRangeConsumer;
+import pabeles.concurrency.IntRangeObjectConsumer;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Specifies which threads concurrent algorithms run on and how many of them can be used at once. By default,
+ * every concurrent algorithm shares the global thread pool in {@link BoofConcurrency}. When a context is
+ * active on a thread, all the loops in {@link BoofConcurrency} which are called from that thread will instead run
+ * on the context's executor and use at most {@link #getMaxThreads()} threads, where the calling thread counts as
+ * one of them. This allows independent pipelines, e.g. requests in a server, to each have their own thread budget
+ * so that one can't starve the others.
+ *
+ * <pre>
+ * try (var context = ConcurrencyContext.forkJoin(4); var scope = context.open()) {
+ *     GBlurImageOps.gaussian(input, output, -1, 5, null);
+ * }
+ * </pre>
+ *
+ * The context is passed on to the threads which process a loop, so nested concurrent code uses it too. Only the
+ * loop functions, {@link BoofConcurrency#isUseConcurrent()}, and {@link BoofConcurrency#getSmallImage()} are
+ * affected. Code which reads {@link BoofConcurrency#USE_CONCURRENT} directly still uses the global setting. If
+ * {@link #getMaxThreads()} is one then loops run on the calling thread.
+ *
+ * @author Peter Abeles
+ */
+public class ConcurrencyContext implements AutoCloseable {
+	/** Executes the tasks. Can be null if maxThreads is one */
+	@Getter final @Nullable ExecutorService executor;
+
+	/** Maximum number of threads, including the caller, which will work on a single loop */
+	@Getter final int maxThreads;
+
+	/** Images with fewer pixels than this will be processed using a single thread */
+	@Getter final int smallImage;
+
+	// If true then the executor will be shut down when closed
+	final boolean ownsExecutor;
+
+	/**
+	 * Creates a context which uses an existing executor. The executor is not shutdown when the context is closed.
+	 *
+	 * @param executor Executor that loops are run on
+	 * @param maxThreads Maximum number of threads used by a loop
+	 * @param smallImage Threshold for when an image is considered too small to process concurrently
+	 */
+	public ConcurrencyContext( @Nullable ExecutorService executor, int maxThreads, int smallImage ) {
+		this(executor, maxThreads, smallImage, false);
+	}
+
+	ConcurrencyContext( @Nullable ExecutorService executor, int maxThreads, int smallImage, boolean ownsExecutor ) {
+		if (maxThreads < 1)
+			throw new IllegalArgumentException("maxThreads must be at least one");
+		if (maxThreads > 1 && executor == null)
+			throw new IllegalArgumentException("An executor must be provided if maxThreads is more than one");
+		this.executor = executor;
+		this.maxThreads = maxThreads;
+		this.smallImage = smallImage;
+		this.ownsExecutor = ownsExecutor;
+	}
+
+	/**
+	 * Creates a context with its own fork-join pool
+	 *
+	 * @param maxThreads Number of threads in the pool
+	 */
+	public static ConcurrencyContext forkJoin( int maxThreads ) {
+		if (maxThreads <= 1)
+			return singleThread();
+		return new ConcurrencyContext(new ForkJoinPool(maxThreads), maxThreads, BoofConcurrency.SMALL_IMAGE, true);
+	}
+
+	/**
+	 * Creates a context where a new thread is started for each task. On Java 21 and newer these will be
+	 * virtual threads, which are intended for pipelines that spend most of their time blocked on I/O. On older
+	 * versions of Java platform daemon threads from a cached pool are used.
+	 *
+	 * @param maxThreads Maximum number of threads used by a single loop
+	 */
+	public static ConcurrencyContext virtualThreads( int maxThreads ) {
+		if (maxThreads <= 1)
+			return singleThread();
+		return new ConcurrencyContext(createVirtualThreadExecutor(), maxThreads, BoofConcurrency.SMALL_IMAGE, true);
+	}
+
+	/**
+	 * Creates a context where everything runs on the calling thread
+	 */
+	public static ConcurrencyContext singleThread() {
+		return new ConcurrencyContext(null, 1, BoofConcurrency.SMALL_IMAGE, false);
+	}
+
+	/**
+	 * Returns a copy of this context with a different small image threshold. The two share the same executor.
+	 */
+	public ConcurrencyContext withSmallImage( int smallImage ) {
+		return new ConcurrencyContext(executor, maxThreads, smallImage, false);
+	}
+
+	/**
+	 * Makes this the active context on the calling thread until the returned scope is closed. Scopes can be nested.
+	 */
+	public Scope open() {
+		return new Scope(this);
+	}
+
+	/**
+	 * Runs the task with this as the active context on the calling thread
+	 */
+	public void run( Runnable task ) {
+		try (var ignore = open()) {
+			task.run();
+		}
+	}
+
+	/**
+	 * Calls the function with this as the active context on the calling thread
+	 */
+	public <T> T call( Supplier<T> task ) {
+		try (var ignore = open()) {
+			return task.get();
+		}
+	}
+
+	/**
+	 * Shuts down the executor if it was created by this context
+	 */
+	@Override public void close() {
+		if (ownsExecutor && executor != null)
+			executor.shutdown();
+	}
+
+	void loopFor( int start, int endExclusive, IntConsumer consumer ) {
+		loopBlocks(start, endExclusive, 1, ( idx0, idx1 ) -> {
+			for (int i = idx0; i < idx1; i++) {
+				consumer.accept(i);
+			}
+		});
+	}
+
+	void loopFor( int start, int endExclusive, int step, IntConsumer consumer ) {
+		if (step <= 0)
+			throw new IllegalArgumentException("Step must be a positive number.");
+		int range = endExclusive - start;
+		if (range <= 0)
+			return;
+		int iterations = range/step + ((range%step == 0) ? 0 : 1);
+		loopFor(0, iterations, i -> consumer.accept(start + i*step));
+	}
+
+	void loopBlocks( int start, int endExclusive, int minBlock, IntRangeConsumer consumer ) {
+		int range = checkRange(start, endExclusive);
+		if (range == 0)
+			return;
+		int blockSize = selectBlockSize(range, minBlock);
+		int numBlocks = (range + blockSize - 1)/blockSize;
+
+		execute(numBlocks, block -> {
+			int idx0 = start + block*blockSize;
+			consumer.accept(idx0, Math.min(endExclusive, idx0 + blockSize));
+		});
+	}
+
+	<T> void loopBlocks( int start, int endExclusive, int minBlock,
+						 GrowArray<T> workspace, IntRangeObjectConsumer<T> consumer ) {
+		int range = checkRange(start, endExclusive);
+		workspace.reset();
+		if (range == 0)
+			return;
+		int blockSize = selectBlockSize(range, minBlock);
+		int numBlocks = (range + blockSize - 1)/blockSize;
+
+		execute(numBlocks, block -> {
+			T data;
+			synchronized (workspace) {
+				data = workspace.grow();
+			}
+			int idx0 = start + block*blockSize;
+			consumer.accept(data, idx0, Math.min(endExclusive, idx0 + blockSize));
+		});
+	}
+
+	private static int checkRange( int start, int endExclusive ) {
+		int range = endExclusive - start;
+		if (range < 0)
+			throw new IllegalArgumentException("end must be more than start. " + start + " -> " + endExclusive);
+		return range;
+	}
+
+	private int selectBlockSize( int range, int minBlock ) {
+		return Math.max(Math.max(1, minBlock), (range + maxThreads - 1)/maxThreads);
+	}
+
+	/**
+	 * Processes the blocks using up to maxThreads threads. The calling thread also processes blocks. Tasks
+	 * pull blocks from a shared counter, so the caller never needs to wait for a task that hasn't started yet.
+	 * This prevents dead locks when loops are nested inside a fixed size pool.
+	 */
+	private void execute( int numBlocks, IntConsumer processBlock ) {
+		if (maxThreads == 1 || numBlocks == 1 || executor == null) {
+			try (var ignore = open()) {
+				for (int block = 0; block < numBlocks; block++) {
+					processBlock.accept(block);
+				}
+			}
+			return;
+		}
+
+		var state = new LoopState(numBlocks);
+		Runnable worker = () -> {
+			try (var ignore = open()) {
+				int block;
+				while (state.failure == null && (block = state.nextBlock.getAndIncrement()) < numBlocks) {
+					try {
+						processBlock.accept(block);
+					} catch (RuntimeException | Error e) {
+						state.fail(e);
+					} finally {
+						state.blockFinished();
+					}
+				}
+			}
+		};
+
+		int numTasks = Math.min(maxThreads, numBlocks) - 1;
+		for (int i = 0; i < numTasks; i++) {
+			executor.execute(worker);
+		}
+		worker.run();
+		state.awaitFinished();
+
+		Throwable failure = state.failure;
+		if (failure instanceof RuntimeException)
+			throw (RuntimeException)failure;
+		if (failure instanceof Error)
+			throw (Error)failure;
+	}
+
+	private static ExecutorService createVirtualThreadExecutor() {
+		// Use reflection since this needs to compile against Java 11
+		try {
+			return (ExecutorService)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException ignore) {
+		}
+		return Executors.newCachedThreadPool(task -> {
+			var thread = new Thread(task);
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/** Keeps track of which blocks have been processed */
+	private static class LoopState {
+		final AtomicInteger nextBlock = new AtomicInteger();
+		final int numBlocks;
+		int finishedBlocks;
+		volatile @Nullable Throwable failure;
+
+		LoopState( int numBlocks ) {this.numBlocks = numBlocks;}
+
+		synchronized void fail( Throwable e ) {
+			if (failure == null)
+				failure = e;
+		}
+
+		synchronized void blockFinished() {
+			finishedBlocks++;
+			notifyAll();
+		}
+
+		/** Waits until all blocks which have been started are done */
+		synchronized void awaitFinished() {
+			// After a failure, blocks which were never started don't need to be waited on
+			while (finishedBlocks < Math.min(numBlocks, nextBlock.get())) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new RuntimeException(e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * While open the context is active on the thread which opened it. Must be closed on the same thread.
+	 */
+	public static class Scope implements AutoCloseable {
+		private final @Nullable ConcurrencyContext previous;
+		private boolean closed = false;
+
+		Scope( ConcurrencyContext context ) {
+			previous = BoofConcurrency.context.get();
+			BoofConcurrency.context.set(context);
+		}
+
+		@Override public void close() {
+			if (closed)
+				return;
+			closed = true;
+			if (previous == null)
+				BoofConcurrency.context.remove();
+			else
+				BoofConcurrency.context.set(previous);
+		}
+	}
+}
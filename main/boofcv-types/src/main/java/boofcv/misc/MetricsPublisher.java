@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.misc;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An algorithm which can publish metrics, such as the time each stage took, to a {@link MetricsRegistry}.
+ * When no registry has been set there is no measurable overhead.
+ *
+ * @author Peter Abeles
+ */
+public interface MetricsPublisher {
+	/**
+	 * Specifies where metrics are sent to
+	 *
+	 * @param registry The registry. If null then metrics are not published.
+	 */
+	void setMetrics( @Nullable MetricsRegistry registry );
+}
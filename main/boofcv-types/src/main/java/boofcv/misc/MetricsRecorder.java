@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.misc;
+
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+
+/**
+ * Helper used inside of algorithms to publish metrics to a {@link MetricsRegistry}. Call {@link #begin()} at the
+ * start of a function, {@link #stage(String)} after each stage finishes, then {@link #end()}. If no registry
+ * has been set then every function returns immediately.
+ *
+ * <pre>
+ * metrics.begin();
+ * computeCost();
+ * metrics.stage("cost");
+ * aggregate();
+ * metrics.stage("aggregate");
+ * metrics.end();
+ * </pre>
+ *
+ * {@link #end()} records the total time with the stage name {@link #TOTAL} and, if the JVM supports it, the
+ * number of bytes allocated by the calling thread since {@link #begin()}. Not thread safe. Each instance of an
+ * algorithm should have its own recorder.
+ *
+ * @author Peter Abeles
+ */
+public class MetricsRecorder {
+	/** Name of the stage which covers everything from begin to end */
+	public static final String TOTAL = "total";
+
+	/** Name of the algorithm which is publishing metrics */
+	@Getter final String source;
+
+	/** Where metrics are sent. null means disabled */
+	@Getter @Nullable MetricsRegistry registry;
+
+	// When the previous stage ended
+	long markNano;
+	// When begin was called
+	long beginNano;
+	// Number of bytes allocated by this thread when begin was called. -1 if unknown
+	long beginBytes;
+	// true if begin was called while enabled. If the registry is set after begin then nothing is recorded
+	// until begin is called again, since there is no start time
+	boolean started;
+
+	public MetricsRecorder( String source ) {
+		this.source = source;
+	}
+
+	public void setRegistry( @Nullable MetricsRegistry registry ) {
+		this.registry = registry;
+	}
+
+	/** Returns true if metrics are being recorded */
+	public boolean isEnabled() {
+		return registry != null;
+	}
+
+	/** Marks the start of the function being measured */
+	public void begin() {
+		started = registry != null;
+		if (!started)
+			return;
+		beginBytes = ThreadAllocation.bytes();
+		beginNano = markNano = System.nanoTime();
+	}
+
+	/**
+	 * Records the time since the previous stage or {@link #begin()}
+	 *
+	 * @param name Name of the stage which just finished
+	 */
+	public void stage( String name ) {
+		MetricsRegistry registry = this.registry;
+		if (registry == null || !started)
+			return;
+		long now = System.nanoTime();
+		registry.recordTime(source, name, now - markNano);
+		markNano = now;
+	}
+
+	/**
+	 * Records a count
+	 *
+	 * @param name What was counted
+	 * @param value The count
+	 */
+	public void count( String name, long value ) {
+		MetricsRegistry registry = this.registry;
+		if (registry == null)
+			return;
+		registry.recordCount(source, name, value);
+	}
+
+	/** Marks the end of the function being measured and records the total time and allocated bytes */
+	public void end() {
+		MetricsRegistry registry = this.registry;
+		if (registry == null || !started)
+			return;
+		started = false;
+		registry.recordTime(source, TOTAL, System.nanoTime() - beginNano);
+		if (beginBytes < 0)
+			return;
+		long endBytes = ThreadAllocation.bytes();
+		if (endBytes >= 0)
+			registry.recordAllocation(source, TOTAL, endBytes - beginBytes);
+	}
+
+	/**
+	 * Looks up the number of bytes allocated by the current thread. Reflection is used since
+	 * com.sun.management isn't available on every platform, e.g. Android.
+	 */
+	static class ThreadAllocation {
+		static final @Nullable Object bean;
+		static final @Nullable Method method;
+
+		static {
+			Object foundBean = null;
+			Method foundMethod = null;
+			try {
+				foundBean = Class.forName("java.lang.management.ManagementFactory")
+						.getMethod("getThreadMXBean").invoke(null);
+				Class<?> type = Class.forName("com.sun.management.ThreadMXBean");
+				if (type.isInstance(foundBean)) {
+					foundMethod = type.getMethod("getThreadAllocatedBytes", long.class);
+					// Make sure it's supported and enabled
+					if ((long)foundMethod.invoke(foundBean, Thread.currentThread().getId()) < 0)
+						foundMethod = null;
+				}
+			} catch (ReflectiveOperationException | RuntimeException | LinkageError ignore) {
+				foundMethod = null;
+			}
+			bean = foundBean;
+			method = foundMethod;
+		}
+
+		/** Returns the number of bytes allocated by the current thread or -1 if not supported */
+		static long bytes() {
+			if (method == null)
+				return -1;
+			try {
+				return (long)method.invoke(bean, Thread.currentThread().getId());
+			} catch (ReflectiveOperationException | RuntimeException ignore) {
+				return -1;
+			}
+		}
+	}
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.misc;
+
+/**
+ * Receives metrics published by algorithms which implement {@link MetricsPublisher}. Implementations can forward
+ * the values to a monitoring system or accumulate them, e.g. {@link MetricsSummary}. Algorithms running in
+ * different threads can share the same registry, so implementations must be thread safe.
+ *
+ * @author Peter Abeles
+ */
+public interface MetricsRegistry {
+	/**
+	 * How long a stage inside an algorithm took
+	 *
+	 * @param source Name of the algorithm
+	 * @param stage Name of the stage
+	 * @param nanoseconds Elapsed time in nanoseconds
+	 */
+	void recordTime( String source, String stage, long nanoseconds );
+
+	/**
+	 * Number of items an algorithm found or processed, e.g. number of detections
+	 *
+	 * @param source Name of the algorithm
+	 * @param name What was counted
+	 * @param value The count
+	 */
+	void recordCount( String source, String name, long value );
+
+	/**
+	 * Number of bytes that were allocated on the heap by the calling thread
+	 *
+	 * @param source Name of the algorithm
+	 * @param stage Name of the stage
+	 * @param bytes Number of bytes allocated
+	 */
+	void recordAllocation( String source, String stage, long bytes );
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.misc;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@link MetricsRegistry} which accumulates statistics for every metric it receives. For each metric it keeps
+ * the number of samples, sum, min, max, and a histogram where bucket 'i' contains the values in the range
+ * [2<sup>i-1</sup>, 2<sup>i</sup>). Metrics are identified by the source and the name, e.g. "qrcode" and
+ * "binary". Thread safe.
+ *
+ * @author Peter Abeles
+ */
+public class MetricsSummary implements MetricsRegistry {
+	// Statistics for each type of metric. Sorted so that printed output is grouped by source
+	final Map<String, Stats> times = new TreeMap<>();
+	final Map<String, Stats> counts = new TreeMap<>();
+	final Map<String, Stats> allocations = new TreeMap<>();
+
+	@Override public synchronized void recordTime( String source, String stage, long nanoseconds ) {
+		lookup(times, source, stage).add(nanoseconds);
+	}
+
+	@Override public synchronized void recordCount( String source, String name, long value ) {
+		lookup(counts, source, name).add(value);
+	}
+
+	@Override public synchronized void recordAllocation( String source, String stage, long bytes ) {
+		lookup(allocations, source, stage).add(bytes);
+	}
+
+	private static Stats lookup( Map<String, Stats> map, String source, String name ) {
+		return map.computeIfAbsent(key(source, name), k -> new Stats());
+	}
+
+	private static String key( String source, String name ) {
+		return source + "/" + name;
+	}
+
+	/** Returns a copy of the statistics for a stage's time in nanoseconds or null if there are none */
+	public synchronized @Nullable Stats getTime( String source, String stage ) {
+		return copy(times.get(key(source, stage)));
+	}
+
+	/** Returns a copy of the statistics for a count or null if there are none */
+	public synchronized @Nullable Stats getCount( String source, String name ) {
+		return copy(counts.get(key(source, name)));
+	}
+
+	/** Returns a copy of the statistics for allocated bytes or null if there are none */
+	public synchronized @Nullable Stats getAllocation( String source, String stage ) {
+		return copy(allocations.get(key(source, stage)));
+	}
+
+	private static @Nullable Stats copy( @Nullable Stats src ) {
+		return src == null ? null : new Stats().setTo(src);
+	}
+
+	/** Discards all statistics */
+	public synchronized void reset() {
+		times.clear();
+		counts.clear();
+		allocations.clear();
+	}
+
+	/**
+	 * Prints a summary of every metric
+	 */
+	public synchronized void print( PrintStream out ) {
+		for (Map.Entry<String, Stats> e : times.entrySet()) {
+			Stats s = e.getValue();
+			out.printf("time  %-40s N=%-7d mean=%9.3f ms max=%9.3f ms\n",
+					e.getKey(), s.samples, s.mean()*1e-6, s.max*1e-6);
+		}
+		for (Map.Entry<String, Stats> e : counts.entrySet()) {
+			Stats s = e.getValue();
+			out.printf("count %-40s N=%-7d mean=%9.1f max=%d\n", e.getKey(), s.samples, s.mean(), s.max);
+		}
+		for (Map.Entry<String, Stats> e : allocations.entrySet()) {
+			Stats s = e.getValue();
+			out.printf("alloc %-40s N=%-7d mean=%9.1f KiB max=%9.1f KiB\n",
+					e.getKey(), s.samples, s.mean()/1024.0, s.max/1024.0);
+		}
+	}
+
+	/**
+	 * Statistics for a single metric
+	 */
+	public static class Stats {
+		/** Number of values recorded */
+		public long samples;
+		/** Sum of all the values */
+		public long sum;
+		/** Smallest value */
+		public long min = Long.MAX_VALUE;
+		/** Largest value */
+		public long max = Long.MIN_VALUE;
+		/** Number of values in each power of two bucket. Negative values are put into bucket 0 */
+		public final long[] histogram = new long[65];
+
+		public void add( long value ) {
+			samples++;
+			sum += value;
+			min = Math.min(min, value);
+			max = Math.max(max, value);
+			histogram[bucket(value)]++;
+		}
+
+		/** Returns the bucket a value would be placed into */
+		public static int bucket( long value ) {
+			return value <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(value);
+		}
+
+		public double mean() {
+			return samples == 0 ? 0.0 : sum/(double)samples;
+		}
+
+		public Stats setTo( Stats src ) {
+			this.samples = src.samples;
+			this.sum = src.sum;
+			this.min = src.min;
+			this.max = src.max;
+			System.arraycopy(src.histogram, 0, histogram, 0, histogram.length);
+			return this;
+		}
+	}
+}
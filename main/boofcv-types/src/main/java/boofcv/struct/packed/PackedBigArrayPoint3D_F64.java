@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -160,6 +160,14 @@ public class PackedBigArrayPoint3D_F64 implements PackedArray<Point3D_F64> {
 		return Point3D_F64.class;
 	}
 
+	/**
+	 * Returns the internal array. Points are stored interleaved as (x,y,z) and a point never spans two blocks.
+	 * Intended for when every point needs to be read as fast as possible, e.g. writing to a file.
+	 */
+	public BigDogArray_F64 getRawArray() {
+		return dog;
+	}
+
 	@Override public void forIdx( int idx0, int idx1, BoofLambdas.ProcessIndex<Point3D_F64> op ) {
 		dog.processByBlock(idx0*3, idx1*3, ( array, arrayIdx0, arrayIdx1, offset ) -> {
 			int pointIndex = idx0 + offset/DOF;
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.packed;
+
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.PackedArray;
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * {@link PackedArray} where the elements are stored in a memory mapped file instead of on the heap. This allows
+ * for arrays which are much larger than the JVM's heap. Elements are appended to the end of the file and can be
+ * randomly accessed. The operating system decides which pages are kept in memory.
+ *
+ * The file is mapped in blocks which contain an integer number of elements, so an element never spans
+ * two blocks. Blocks are mapped as they are needed and the file grows in increments of one block. Any
+ * previous contents of the file are discarded. The file is deleted when {@link #close()} is called, or when
+ * the JVM exits if it can't be deleted sooner.
+ *
+ * @author Peter Abeles
+ */
+public abstract class PackedFileArray<T> implements PackedArray<T>, Closeable {
+	/** Default number of bytes in a block */
+	public static final int DEFAULT_BLOCK_BYTES = 1 << 26;
+
+	/** File the elements are stored in */
+	@Getter final File file;
+
+	/** Number of bytes used to encode a single element */
+	@Getter final int bytesPerElement;
+
+	// Number of elements stored in each block
+	final int elementsPerBlock;
+
+	// Used to map the file
+	final FileChannel channel;
+
+	// Mapped blocks in the file
+	final List<ByteBuffer> blocks = new ArrayList<>();
+
+	// element that the result is temporarily written to
+	final T temp;
+
+	// Number of elements stored in the array
+	int numElements;
+
+	/**
+	 * Creates the array and opens the file.
+	 *
+	 * @param file File the elements are stored in
+	 * @param bytesPerElement Number of bytes used to encode an element
+	 * @param blockBytes Approximate number of bytes in each mapped block
+	 * @param temp Storage for an element
+	 */
+	protected PackedFileArray( File file, int bytesPerElement, int blockBytes, T temp ) {
+		if (bytesPerElement <= 0)
+			throw new IllegalArgumentException("bytesPerElement must be positive");
+		this.file = file;
+		this.bytesPerElement = bytesPerElement;
+		this.elementsPerBlock = Math.max(1, blockBytes/bytesPerElement);
+		this.temp = temp;
+
+		try {
+			channel = FileChannel.open(file.toPath(), CREATE, READ, WRITE, TRUNCATE_EXISTING);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		file.deleteOnExit();
+	}
+
+	/**
+	 * Writes the element into the buffer starting at the specified byte
+	 */
+	protected abstract void write( T src, ByteBuffer buffer, int offset );
+
+	/**
+	 * Reads the element from the buffer starting at the specified byte
+	 */
+	protected abstract void read( ByteBuffer buffer, int offset, T dst );
+
+	/**
+	 * Sets the size to zero. Blocks which have already been mapped are reused.
+	 */
+	@Override public void reset() {
+		numElements = 0;
+	}
+
+	/**
+	 * Maps enough blocks to store 'numElements'
+	 */
+	@Override public void reserve( int numElements ) {
+		int numBlocks = (numElements + elementsPerBlock - 1)/elementsPerBlock;
+		while (blocks.size() < numBlocks) {
+			mapNextBlock();
+		}
+	}
+
+	@Override public void append( T element ) {
+		int blockIdx = numElements/elementsPerBlock;
+		if (blockIdx == blocks.size())
+			mapNextBlock();
+		write(element, blocks.get(blockIdx), (numElements%elementsPerBlock)*bytesPerElement);
+		numElements++;
+	}
+
+	@Override public T getTemp( int index ) {
+		getCopy(index, temp);
+		return temp;
+	}
+
+	@Override public void getCopy( int index, T dst ) {
+		if (index < 0 || index >= numElements)
+			throw new IllegalArgumentException("Out of bounds. index=" + index + " size=" + numElements);
+		read(blocks.get(index/elementsPerBlock), (index%elementsPerBlock)*bytesPerElement, dst);
+	}
+
+	@Override public int size() {
+		return numElements;
+	}
+
+	@Override public void forIdx( int idx0, int idx1, BoofLambdas.ProcessIndex<T> op ) {
+		for (int i = idx0; i < idx1; i++) {
+			ByteBuffer block = blocks.get(i/elementsPerBlock);
+			int offset = (i%elementsPerBlock)*bytesPerElement;
+			read(block, offset, temp);
+			op.process(i, temp);
+			write(temp, block, offset);
+		}
+	}
+
+	private void mapNextBlock() {
+		long blockBytes = (long)elementsPerBlock*bytesPerElement;
+		try {
+			// Mapping in read-write mode will grow the file
+			blocks.add(channel.map(FileChannel.MapMode.READ_WRITE, blocks.size()*blockBytes, blockBytes));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Closes the file and attempts to delete it. The array can't be used after this has been called.
+	 *
+	 * Mapped blocks are only released once they have been garbage collected. Some operating systems, e.g.
+	 * Windows, won't delete a file while it's still mapped. In that case deleting fails silently and the file
+	 * is deleted when the JVM exits instead.
+	 */
+	@Override public void close() {
+		blocks.clear();
+		numElements = 0;
+		try {
+			channel.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		// If this fails the file will be deleted on exit
+		file.delete();
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.packed;
+
+import georegression.struct.point.Point2D_F64;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link PackedFileArray} for {@link Point2D_F64}.
+ *
+ * @author Peter Abeles
+ */
+public class PackedFileArrayPoint2D_F64 extends PackedFileArray<Point2D_F64> {
+	public PackedFileArrayPoint2D_F64( File file, int blockBytes ) {
+		super(file, 16, blockBytes, new Point2D_F64());
+	}
+
+	public PackedFileArrayPoint2D_F64( File file ) {
+		this(file, DEFAULT_BLOCK_BYTES);
+	}
+
+	@Override protected void write( Point2D_F64 src, ByteBuffer buffer, int offset ) {
+		buffer.putDouble(offset, src.x);
+		buffer.putDouble(offset + 8, src.y);
+	}
+
+	@Override protected void read( ByteBuffer buffer, int offset, Point2D_F64 dst ) {
+		dst.x = buffer.getDouble(offset);
+		dst.y = buffer.getDouble(offset + 8);
+	}
+
+	@Override public void copy( Point2D_F64 src, Point2D_F64 dst ) {
+		dst.setTo(src);
+	}
+
+	@Override public Class<Point2D_F64> getElementType() {
+		return Point2D_F64.class;
+	}
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.concurrency;
+
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+import pabeles.concurrency.GrowArray;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestConcurrencyContext extends BoofStandardJUnit {
+	/**
+	 * Each index should be processed once and the number of threads should not exceed the limit
+	 */
+	@Test void loopFor_threadBudget() {
+		for (ConcurrencyContext ctx : createContexts()) {
+			var active = new AtomicInteger();
+			var maxActive = new AtomicInteger();
+			var seen = new AtomicIntegerArray(500);
+
+			try (var ignore = ctx.open()) {
+				BoofConcurrency.loopFor(0, 500, i -> {
+					maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+					seen.incrementAndGet(i);
+					assertSame(ctx, BoofConcurrency.getContext());
+					active.decrementAndGet();
+				});
+			}
+
+			for (int i = 0; i < seen.length(); i++) {
+				assertEquals(1, seen.get(i));
+			}
+			assertTrue(maxActive.get() <= ctx.getMaxThreads());
+			ctx.close();
+		}
+	}
+
+	@Test void loopFor_step() {
+		for (ConcurrencyContext ctx : createContexts()) {
+			var sum = new AtomicInteger();
+			ctx.run(() -> BoofConcurrency.loopFor(3, 20, 4, sum::addAndGet));
+			assertEquals(3 + 7 + 11 + 15 + 19, sum.get());
+			ctx.close();
+		}
+	}
+
+	/**
+	 * One workspace should be grown for each block and the results should be combined correctly
+	 */
+	@Test void loopBlocks_workspace() {
+		for (ConcurrencyContext ctx : createContexts()) {
+			var workspace = new GrowArray<>(() -> new int[1]);
+			ctx.run(() -> BoofConcurrency.loopBlocks(0, 100, workspace, ( data, idx0, idx1 ) -> {
+				data[0] = 0;
+				for (int i = idx0; i < idx1; i++) {
+					data[0] += i;
+				}
+			}));
+
+			int total = 0;
+			for (int i = 0; i < workspace.size(); i++) {
+				total += workspace.get(i)[0];
+			}
+			assertEquals(4950, total);
+			assertTrue(workspace.size() <= ctx.getMaxThreads());
+			ctx.close();
+		}
+	}
+
+	/**
+	 * Nested loops inside a fixed size pool should not dead lock
+	 */
+	@Test void nestedLoops_fixedPool() {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			var ctx = new ConcurrencyContext(executor, 3, 10);
+			var count = new AtomicInteger();
+			ctx.run(() -> BoofConcurrency.loopFor(0, 20, i ->
+					BoofConcurrency.loopBlocks(0, 30, ( idx0, idx1 ) -> count.addAndGet(idx1 - idx0))));
+			assertEquals(20*30, count.get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test void exceptionIsPassedToCaller() {
+		for (ConcurrencyContext ctx : createContexts()) {
+			assertThrows(IllegalStateException.class, () -> ctx.run(() -> BoofConcurrency.loopFor(0, 100, i -> {
+				if (i == 57)
+					throw new IllegalStateException("Failed");
+			})));
+			// context should be removed from the thread even after an exception
+			assertNull(BoofConcurrency.getContext());
+			ctx.close();
+		}
+	}
+
+	@Test void globalSettingsRestored() {
+		var ctx = ConcurrencyContext.singleThread().withSmallImage(10);
+		boolean before = BoofConcurrency.isUseConcurrent();
+
+		try (var ignore = ctx.open()) {
+			assertFalse(BoofConcurrency.isUseConcurrent());
+			assertEquals(10, BoofConcurrency.getSmallImage());
+			assertEquals(1, BoofConcurrency.getEffectiveActiveThreads());
+
+			// Scopes can be nested
+			var inner = ConcurrencyContext.forkJoin(2);
+			try (var ignore2 = inner.open()) {
+				assertSame(inner, BoofConcurrency.getContext());
+				assertTrue(BoofConcurrency.isUseConcurrent());
+			}
+			inner.close();
+			assertSame(ctx, BoofConcurrency.getContext());
+		}
+
+		assertNull(BoofConcurrency.getContext());
+		assertEquals(before, BoofConcurrency.isUseConcurrent());
+		assertEquals(BoofConcurrency.SMALL_IMAGE, BoofConcurrency.getSmallImage());
+	}
+
+	private List<ConcurrencyContext> createContexts() {
+		List<ConcurrencyContext> list = new ArrayList<>();
+		list.add(ConcurrencyContext.singleThread());
+		list.add(ConcurrencyContext.forkJoin(3));
+		list.add(ConcurrencyContext.virtualThreads(3));
+		return list;
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.misc;
+
+import boofcv.testing.BoofStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestMetricsRecorder extends BoofStandardJUnit {
+	/**
+	 * Nothing should be recorded if there's no registry
+	 */
+	@Test void disabled() {
+		var alg = new MetricsRecorder("alg");
+		assertFalse(alg.isEnabled());
+		alg.begin();
+		alg.stage("foo");
+		alg.count("bar", 2);
+		alg.end();
+
+		var summary = new MetricsSummary();
+		alg.setRegistry(summary);
+		assertTrue(alg.isEnabled());
+		alg.setRegistry(null);
+		alg.begin();
+		alg.stage("foo");
+		alg.end();
+		assertNull(summary.getTime("alg", "foo"));
+	}
+
+	/**
+	 * If the registry is set between begin and end then there's no start time and nothing should be recorded
+	 */
+	@Test void registryAddedAfterBegin() {
+		var summary = new MetricsSummary();
+		var alg = new MetricsRecorder("alg");
+		alg.begin();
+		alg.setRegistry(summary);
+		alg.stage("foo");
+		alg.end();
+		assertNull(summary.getTime("alg", "foo"));
+		assertNull(summary.getTime("alg", MetricsRecorder.TOTAL));
+
+		// It should work once begin is called again
+		alg.begin();
+		alg.end();
+		assertNotNull(summary.getTime("alg", MetricsRecorder.TOTAL));
+	}
+
+	@Test void stagesAndCounts() {
+		var summary = new MetricsSummary();
+		var alg = new MetricsRecorder("alg");
+		alg.setRegistry(summary);
+
+		for (int trial = 0; trial < 3; trial++) {
+			alg.begin();
+			alg.stage("a");
+			alg.count("detections", trial);
+			alg.stage("b");
+			alg.end();
+		}
+
+		MetricsSummary.Stats a = summary.getTime("alg", "a");
+		MetricsSummary.Stats b = summary.getTime("alg", "b");
+		MetricsSummary.Stats total = summary.getTime("alg", MetricsRecorder.TOTAL);
+		assertNotNull(a);
+		assertNotNull(b);
+		assertNotNull(total);
+		assertEquals(3, a.samples);
+		assertEquals(3, total.samples);
+		// total includes every stage
+		assertTrue(total.sum >= a.sum + b.sum);
+
+		MetricsSummary.Stats counts = summary.getCount("alg", "detections");
+		assertNotNull(counts);
+		assertEquals(3, counts.samples);
+		assertEquals(0, counts.min);
+		assertEquals(2, counts.max);
+		assertEquals(3, counts.sum);
+	}
+
+	/**
+	 * If the JVM supports it, allocations inside the function should be seen
+	 */
+	@Test void allocation() {
+		var summary = new MetricsSummary();
+		var alg = new MetricsRecorder("alg");
+		alg.setRegistry(summary);
+
+		List<byte[]> storage = new ArrayList<>();
+		alg.begin();
+		storage.add(new byte[200_000]);
+		alg.end();
+		assertEquals(1, storage.size());
+
+		MetricsSummary.Stats bytes = summary.getAllocation("alg", MetricsRecorder.TOTAL);
+		if (MetricsRecorder.ThreadAllocation.bytes() < 0) {
+			assertNull(bytes);
+		} else {
+			assertNotNull(bytes);
+			assertTrue(bytes.max >= 200_000);
+		}
+	}
+
+	@Test void summary_histogram() {
+		assertEquals(0, MetricsSummary.Stats.bucket(-5));
+		assertEquals(0, MetricsSummary.Stats.bucket(0));
+		assertEquals(1, MetricsSummary.Stats.bucket(1));
+		assertEquals(2, MetricsSummary.Stats.bucket(2));
+		assertEquals(2, MetricsSummary.Stats.bucket(3));
+		assertEquals(11, MetricsSummary.Stats.bucket(1024));
+		assertEquals(64, MetricsSummary.Stats.bucket(Long.MAX_VALUE));
+
+		var summary = new MetricsSummary();
+		summary.recordTime("alg", "a", 1024);
+		summary.recordTime("alg", "a", 1500);
+		MetricsSummary.Stats found = summary.getTime("alg", "a");
+		assertNotNull(found);
+		assertEquals(2, found.histogram[11]);
+
+		summary.reset();
+		assertNull(summary.getTime("alg", "a"));
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2024, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.packed;
+
+import boofcv.struct.PackedArray;
+import georegression.struct.point.Point2D_F64;
+import org.ejml.UtilEjml;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestPackedFileArrayPoint2D_F64 extends GenericPackedArrayChecks<Point2D_F64> {
+
+	@Override protected PackedArray<Point2D_F64> createAlg() {
+		// Small blocks so that elements are spread across multiple blocks
+		return new PackedFileArrayPoint2D_F64(createTempFile(), 16*3);
+	}
+
+	@Override protected Point2D_F64 createRandomPoint() {
+		var point = new Point2D_F64();
+		point.x = rand.nextGaussian();
+		point.y = rand.nextGaussian();
+		return point;
+	}
+
+	@Override protected void checkEquals( Point2D_F64 a, Point2D_F64 b ) {
+		assertEquals(0.0, a.distance(b), UtilEjml.TEST_F64);
+	}
+
+	@Override protected void checkNotEquals( Point2D_F64 a, Point2D_F64 b ) {
+		assertNotEquals(0.0, a.distance(b), UtilEjml.TEST_F64);
+	}
+
+	/**
+	 * Modifications inside of forIdx should be saved
+	 */
+	@Test void forIdx_modify() {
+		PackedArray<Point2D_F64> alg = createAlg();
+		for (int i = 0; i < 10; i++) {
+			alg.append(createRandomPoint());
+		}
+
+		alg.forIdx(0, alg.size(), ( idx, p ) -> p.setTo(idx, -idx));
+
+		for (int i = 0; i < 10; i++) {
+			assertEquals(0.0, alg.getTemp(i).distance(i, -i), UtilEjml.TEST_F64);
+		}
+	}
+
+	/**
+	 * After being reset it should write over the previous elements
+	 */
+	@Test void reset_reuse() {
+		PackedArray<Point2D_F64> alg = createAlg();
+		for (int i = 0; i < 10; i++) {
+			alg.append(new Point2D_F64(i, i));
+		}
+		alg.reset();
+		alg.append(new Point2D_F64(-1, 2));
+		assertEquals(1, alg.size());
+		assertEquals(0.0, alg.getTemp(0).distance(-1, 2), UtilEjml.TEST_F64);
+		assertThrows(IllegalArgumentException.class, () -> alg.getTemp(1));
+	}
+
+	@Test void close_deletesFile() {
+		var alg = new PackedFileArrayPoint2D_F64(createTempFile(), 16*3);
+		alg.append(new Point2D_F64(1, 2));
+		assertTrue(alg.getFile().exists());
+		alg.close();
+		assertFalse(alg.getFile().exists());
+	}
+
+	static File createTempFile() {
+		try {
+			return File.createTempFile("packed", ".bin");
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}